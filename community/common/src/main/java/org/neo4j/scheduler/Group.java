@@ -40,8 +40,12 @@ public enum Group
     LOG_ROTATION( "LogRotation" ),
     /** Checkpoint and store flush. */
     CHECKPOINT( "CheckPoint" ),
+    /** Zero fills the next transaction log file ahead of log rotation. */
+    LOG_PREALLOCATION( "LogPreallocation", ExecutorServiceFactory.singleThread() ), // Single-threaded since there is only ever one preallocated log file.
     /** Various little periodic tasks that need to be done on a regular basis to keep the store in good shape. */
     STORAGE_MAINTENANCE( "StorageMaintenance" ),
+    /** Writes records of transactions being applied to the different stores in parallel. */
+    TRANSACTION_APPLY( "TransactionApply" ),
     /** Terminates kernel transactions that have timed out. */
     TRANSACTION_TIMEOUT_MONITOR( "TransactionTimeoutMonitor" ),
     /** Background index population. */
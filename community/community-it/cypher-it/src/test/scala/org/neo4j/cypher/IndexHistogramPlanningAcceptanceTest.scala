@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher
+
+import java.util.concurrent.TimeUnit
+
+import org.neo4j.cypher.internal.runtime.planDescription.InternalPlanDescription.Arguments.EstimatedRows
+import org.neo4j.kernel.impl.api.index.IndexingService
+import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingMode
+import org.neo4j.kernel.impl.core.ThreadToStatementContextBridge
+import org.neo4j.storageengine.api.schema.IndexHistogram
+
+/*
+ * Plans queries whose bounds are only known as parameters when planning, either given or extracted from literals, and checks
+ * that their estimates follow the index histogram rather than the default range selectivity of a few percent of the nodes.
+ */
+class IndexHistogramPlanningAcceptanceTest extends ExecutionEngineFunSuite {
+
+  private val people = 1000
+
+  override protected def initTest(): Unit = {
+    super.initTest()
+    execute(s"UNWIND range(0, ${people - 1}) AS age CREATE (:Person {age: age})")
+    graph.createIndex("Person", "age")
+    graph.inTx {
+      graph.schema().awaitIndexesOnline(1, TimeUnit.MINUTES)
+    }
+    graph.getDependencyResolver.resolveDependency(classOf[IndexingService]).triggerIndexSampling(IndexSamplingMode.TRIGGER_REBUILD_ALL)
+    awaitHistogram()
+  }
+
+  test("should estimate range seeks with extracted literal bounds from the index histogram") {
+    val few = estimatedRowsOfIndexSeek("MATCH (n:Person) WHERE n.age > 990 RETURN n")
+    val many = estimatedRowsOfIndexSeek("MATCH (n:Person) WHERE n.age < 990 RETURN n")
+
+    few should equal(9.0 +- 3.0)
+    many should equal(990.0 +- 10.0)
+  }
+
+  test("should estimate range seeks with parameter bounds from the index histogram") {
+    val few = estimatedRowsOfIndexSeek("MATCH (n:Person) WHERE n.age >= $min RETURN n", "min" -> 990)
+
+    few should equal(10.0 +- 3.0)
+  }
+
+  test("should estimate prefix seeks with parameter prefix from the index histogram") {
+    execute(s"UNWIND range(0, ${people - 1}) AS i CREATE (:Person {name: CASE WHEN i < 10 THEN 'a' + i ELSE 'b' + i END})")
+    graph.createIndex("Person", "name")
+    graph.inTx {
+      graph.schema().awaitIndexesOnline(1, TimeUnit.MINUTES)
+    }
+    graph.getDependencyResolver.resolveDependency(classOf[IndexingService]).triggerIndexSampling(IndexSamplingMode.TRIGGER_REBUILD_ALL)
+    awaitHistogram("name")
+
+    val few = estimatedRowsOfIndexSeek("MATCH (n:Person) WHERE n.name STARTS WITH $prefix RETURN n", "prefix" -> "a")
+
+    few should equal(10.0 +- 10.0)
+  }
+
+  private def estimatedRowsOfIndexSeek(query: String, params: (String, Any)*): Double = {
+    val seeks = execute(s"EXPLAIN $query", params: _*).executionPlanDescription().flatten.filter(_.name.startsWith("NodeIndexSeek"))
+    seeks should have size 1
+    seeks.head.arguments.collectFirst {
+      case EstimatedRows(estimatedRows) => estimatedRows
+    }.get
+  }
+
+  private def awaitHistogram(property: String = "age"): Unit = {
+    val end = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(1)
+    while (histogram(property) == null) {
+      if (System.currentTimeMillis() > end) {
+        fail(s"Index on :Person($property) was not sampled in time")
+      }
+      Thread.sleep(10)
+    }
+  }
+
+  private def histogram(property: String): IndexHistogram = graph.inTx {
+    val transaction = graph.getDependencyResolver.resolveDependency(classOf[ThreadToStatementContextBridge])
+      .getKernelTransactionBoundToThisThread(true)
+    val tokenRead = transaction.tokenRead()
+    val schemaRead = transaction.schemaRead()
+    schemaRead.indexHistogram(schemaRead.index(tokenRead.nodeLabel("Person"), tokenRead.propertyKey(property)))
+  }
+}
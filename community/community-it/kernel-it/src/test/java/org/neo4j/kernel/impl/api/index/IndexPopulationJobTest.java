@@ -165,6 +165,7 @@ public class IndexPopulationJobTest
         verify( populator ).create();
         verify( populator ).includeSample( update );
         verify( populator, times( 2 ) ).add( any( Collection.class) );
+        verify( populator ).scanCompleted();
         verify( populator ).sampleResult();
         verify( populator ).close( true );
 
@@ -192,6 +193,7 @@ public class IndexPopulationJobTest
         verify( populator ).create();
         verify( populator ).includeSample( update );
         verify( populator, times( 2 ) ).add( any( Collection.class ) );
+        verify( populator ).scanCompleted();
         verify( populator ).sampleResult();
         verify( populator ).close( true );
 
@@ -240,6 +242,7 @@ public class IndexPopulationJobTest
         verify( populator ).includeSample( update1 );
         verify( populator ).includeSample( update2 );
         verify( populator, times( 2 ) ).add( anyCollection() );
+        verify( populator ).scanCompleted();
         verify( populator ).sampleResult();
         verify( populator ).close( true );
 
@@ -277,6 +280,7 @@ public class IndexPopulationJobTest
         verify( populator ).includeSample( update1 );
         verify( populator ).includeSample( update2 );
         verify( populator, times( 2 ) ).add( anyCollection() );
+        verify( populator ).scanCompleted();
         verify( populator ).sampleResult();
         verify( populator ).close( true );
 
@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.index;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.neo4j.graphdb.ConstraintViolationException;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.TransientFailureException;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.factory.GraphDatabaseSettings;
+import org.neo4j.helpers.collection.Iterators;
+import org.neo4j.test.Race;
+import org.neo4j.test.rule.DatabaseRule;
+import org.neo4j.test.rule.ImpermanentDatabaseRule;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.neo4j.graphdb.Label.label;
+import static org.neo4j.test.Race.throwing;
+
+/**
+ * Transactions committing at the same time apply their own index updates, through the parallel writers of the native indexes,
+ * with {@link GraphDatabaseSettings#parallel_index_updates}. Transactions changing the same nodes are still ordered by their locks,
+ * and transactions adding the same value to a unique index are still rejected, so the indexes must end up matching the nodes.
+ */
+public class ParallelIndexUpdatesIT
+{
+    private static final Label LABEL = label( "Label" );
+    private static final Label UNIQUE = label( "Unique" );
+    private static final String KEY = "key";
+    private static final String UNIQUE_KEY = "uniqueKey";
+    private static final int THREADS = 8;
+    private static final int NODES_PER_THREAD = 100;
+    private static final int SHARED_NODES = 10;
+    private static final int TRANSACTIONS_PER_THREAD = 200;
+    private static final int CHANGES_PER_TRANSACTION = 5;
+    private static final int VALUES = 50;
+    private static final int UNIQUE_VALUES = THREADS * NODES_PER_THREAD;
+
+    @Rule
+    public final DatabaseRule db = new ImpermanentDatabaseRule()
+            .withSetting( GraphDatabaseSettings.parallel_index_updates, "true" );
+
+    private final List<List<Node>> ownNodes = new ArrayList<>();
+    private final List<Node> sharedNodes = new ArrayList<>();
+
+    @Before
+    public void createIndexesAndNodes()
+    {
+        try ( Transaction tx = db.beginTx() )
+        {
+            db.schema().indexFor( LABEL ).on( KEY ).create();
+            db.schema().constraintFor( UNIQUE ).assertPropertyIsUnique( UNIQUE_KEY ).create();
+            tx.success();
+        }
+        try ( Transaction tx = db.beginTx() )
+        {
+            db.schema().awaitIndexesOnline( 1, MINUTES );
+            tx.success();
+        }
+        try ( Transaction tx = db.beginTx() )
+        {
+            for ( int thread = 0; thread < THREADS; thread++ )
+            {
+                List<Node> nodes = new ArrayList<>();
+                for ( int i = 0; i < NODES_PER_THREAD; i++ )
+                {
+                    nodes.add( db.createNode( LABEL, UNIQUE ) );
+                }
+                ownNodes.add( nodes );
+            }
+            for ( int i = 0; i < SHARED_NODES; i++ )
+            {
+                sharedNodes.add( db.createNode( LABEL ) );
+            }
+            tx.success();
+        }
+    }
+
+    @Test
+    public void shouldKeepIndexesConsistentWithConcurrentlyCommittedConflictingAndNonConflictingUpdates() throws Throwable
+    {
+        // given
+        AtomicLong committed = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+        // contestants end after their number of transactions, not after their first
+        Race race = new Race().withEndCondition( () -> false );
+        for ( int thread = 0; thread < THREADS; thread++ )
+        {
+            List<Node> nodes = ownNodes.get( thread );
+            race.addContestant( throwing( () ->
+            {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                try ( Transaction tx = db.beginTx() )
+                {
+                    // changes to nodes which no other transaction changes, mostly to values which other transactions also add
+                    for ( int i = 0; i < CHANGES_PER_TRANSACTION; i++ )
+                    {
+                        change( nodes.get( random.nextInt( nodes.size() ) ), random );
+                    }
+                    // a change to a node which transactions of all threads change
+                    change( sharedNodes.get( random.nextInt( sharedNodes.size() ) ), random );
+                    tx.success();
+                }
+                catch ( ConstraintViolationException | TransientFailureException e )
+                {
+                    // another transaction has the unique value, or this one lost a race for it
+                    rejected.incrementAndGet();
+                    return;
+                }
+                committed.incrementAndGet();
+            } ), TRANSACTIONS_PER_THREAD );
+        }
+
+        // when
+        race.go();
+
+        // then
+        assertEquals( THREADS * TRANSACTIONS_PER_THREAD, committed.get() + rejected.get() );
+        assertTrue( "Expected some transactions to commit, rejected " + rejected.get(), committed.get() > 0 );
+        try ( Transaction tx = db.beginTx() )
+        {
+            assertIndexMatchesNodes( LABEL, KEY, VALUES );
+            assertIndexMatchesNodes( UNIQUE, UNIQUE_KEY, UNIQUE_VALUES );
+            tx.success();
+        }
+    }
+
+    private static void change( Node node, ThreadLocalRandom random )
+    {
+        switch ( random.nextInt( 6 ) )
+        {
+        case 0:
+            node.removeProperty( KEY );
+            break;
+        case 1:
+            if ( node.hasLabel( LABEL ) )
+            {
+                node.removeLabel( LABEL );
+            }
+            else
+            {
+                node.addLabel( LABEL );
+            }
+            break;
+        case 2:
+            if ( node.hasLabel( UNIQUE ) )
+            {
+                node.setProperty( UNIQUE_KEY, random.nextInt( UNIQUE_VALUES ) );
+            }
+            break;
+        default:
+            node.setProperty( KEY, random.nextInt( VALUES ) );
+            break;
+        }
+    }
+
+    private void assertIndexMatchesNodes( Label label, String key, int values )
+    {
+        List<Set<Node>> expected = new ArrayList<>();
+        for ( int value = 0; value < values; value++ )
+        {
+            expected.add( new HashSet<>() );
+        }
+        for ( Node node : Iterators.asList( db.findNodes( label ) ) )
+        {
+            Object value = node.getProperty( key, null );
+            if ( value != null )
+            {
+                expected.get( (Integer) value ).add( node );
+            }
+        }
+
+        for ( int value = 0; value < values; value++ )
+        {
+            assertEquals( "Nodes in index of " + label + " with " + key + "=" + value, expected.get( value ),
+                    Iterators.asSet( db.findNodes( label, key, value ) ) );
+        }
+    }
+}
@@ -268,6 +268,11 @@ public class BuiltInProceduresIT extends KernelIntegrationTest
                         "dbms.clearQueryCaches() :: (value :: STRING?)",
                         "Clears all query caches.", "DBMS"
                 } ),
+                equalTo( new Object[]{"dbms.listPageCacheStats",
+                        "dbms.listPageCacheStats() :: (file :: STRING?, reserved :: BOOLEAN?, residentPages :: INTEGER?, dirtyPages :: INTEGER?, " +
+                        "hits :: INTEGER?, faults :: INTEGER?, evictions :: INTEGER?, bytesRead :: INTEGER?, bytesWritten :: INTEGER?)",
+                        "List the page cache statistics of every file that is currently mapped by the page cache.", "DBMS"
+                } ),
                 equalTo( new Object[]{"db.createIndex",
                         "db.createIndex(index :: STRING?, providerName :: STRING?) :: (index :: STRING?, providerName :: STRING?, status :: STRING?)",
                         "Create a schema index with specified index provider (for example: CALL db.createIndex(\":Person(name)\", \"lucene+native-2.0\")) - " +
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.state;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.factory.GraphDatabaseSettings;
+import org.neo4j.graphdb.factory.GraphDatabaseSettings.TransactionStateMemoryAllocation;
+import org.neo4j.kernel.impl.util.collection.SpillingMemoryAllocator;
+import org.neo4j.kernel.monitoring.Monitors;
+import org.neo4j.test.TestGraphDatabaseFactory;
+import org.neo4j.test.rule.TestDirectory;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.neo4j.helpers.collection.Iterators.count;
+
+/**
+ * Commits a transaction whose off-heap transaction state is far larger than
+ * {@link GraphDatabaseSettings#tx_state_spill_threshold}, so that most of it is spilled to a temporary file, and checks
+ * that the transaction reads its own changes, that they're committed and that the spill file is deleted afterwards.
+ * On most platforms the spill file is unlinked as soon as it's opened, so it can't be seen while the transaction runs.
+ */
+public class SpillingTransactionStateIT
+{
+    private static final Label LABEL = Label.label( "Label" );
+    private static final int NODES = 10_000;
+
+    @Rule
+    public final TestDirectory testDirectory = TestDirectory.testDirectory();
+
+    private final AtomicLong spilledBytes = new AtomicLong();
+    private String tmpDir;
+    private File spillDirectory;
+    private GraphDatabaseService db;
+
+    @Before
+    public void startDb()
+    {
+        // The spill file is created in the temporary directory of the JVM, which is read when the database starts
+        tmpDir = System.getProperty( "java.io.tmpdir" );
+        spillDirectory = testDirectory.directory( "spill" );
+        System.setProperty( "java.io.tmpdir", spillDirectory.getAbsolutePath() );
+
+        Monitors monitors = new Monitors();
+        monitors.addMonitorListener( (SpillingMemoryAllocator.Monitor) spilledBytes::addAndGet );
+        db = new TestGraphDatabaseFactory()
+                .setMonitors( monitors )
+                .newImpermanentDatabaseBuilder( testDirectory.databaseDir() )
+                .setConfig( GraphDatabaseSettings.tx_state_memory_allocation, TransactionStateMemoryAllocation.OFF_HEAP.name() )
+                .setConfig( GraphDatabaseSettings.tx_state_spill_threshold, "1k" )
+                .newGraphDatabase();
+    }
+
+    @After
+    public void stopDb()
+    {
+        try
+        {
+            db.shutdown();
+        }
+        finally
+        {
+            System.setProperty( "java.io.tmpdir", tmpDir );
+        }
+    }
+
+    @Test
+    public void shouldReadAndCommitSpilledTransactionState()
+    {
+        // given
+        List<Node> nodes = new ArrayList<>();
+        try ( Transaction tx = db.beginTx() )
+        {
+            for ( int i = 0; i < NODES; i++ )
+            {
+                Node node = db.createNode( LABEL );
+                node.setProperty( "value", i );
+                nodes.add( node );
+            }
+            tx.success();
+        }
+        long spilledBytesBefore = spilledBytes.get();
+
+        // when
+        try ( Transaction tx = db.beginTx() )
+        {
+            for ( int i = 0; i < NODES; i++ )
+            {
+                Node node = nodes.get( i );
+                node.setProperty( "value", i * 2 );
+                node.setProperty( "name", "node-" + i );
+                db.createNode( LABEL ).setProperty( "value", NODES * 2 + i );
+            }
+
+            // then
+            assertTrue( "Expected transaction state to be spilled", spilledBytes.get() > spilledBytesBefore );
+            assertChanged( nodes );
+            assertEquals( NODES * 2, count( db.findNodes( LABEL ) ) );
+            tx.success();
+        }
+
+        // then
+        assertArrayEquals( new File[0], spillDirectory.listFiles() );
+        try ( Transaction tx = db.beginTx() )
+        {
+            assertChanged( nodes );
+            assertEquals( NODES * 2, count( db.findNodes( LABEL ) ) );
+            assertFalse( db.findNodes( LABEL, "value", NODES - 1 ).hasNext() );
+            assertEquals( 1, count( db.findNodes( LABEL, "value", NODES * 3 - 1 ) ) );
+            tx.success();
+        }
+    }
+
+    private static void assertChanged( List<Node> nodes )
+    {
+        for ( int i = 0; i < NODES; i++ )
+        {
+            Node node = nodes.get( i );
+            assertEquals( i * 2, node.getProperty( "value" ) );
+            assertEquals( "node-" + i, node.getProperty( "name" ) );
+        }
+    }
+}
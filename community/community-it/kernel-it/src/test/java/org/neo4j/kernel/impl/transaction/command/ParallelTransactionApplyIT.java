@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.command;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.factory.GraphDatabaseSettings;
+import org.neo4j.kernel.impl.storageengine.impl.recordstorage.RecordStorageEngine;
+import org.neo4j.kernel.impl.store.NodeStore;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.test.rule.DatabaseRule;
+import org.neo4j.test.rule.ImpermanentDatabaseRule;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.neo4j.helpers.collection.Iterators.singleOrNull;
+import static org.neo4j.kernel.impl.store.record.RecordLoad.NORMAL;
+
+/**
+ * Index updates of a transaction are gathered when the appliers of the transaction are closed, partly by reading records
+ * from the stores. With {@link GraphDatabaseSettings#parallel_transaction_apply} the records of the transaction are written
+ * after its commands have been visited and so must be written before the index applier is closed.
+ */
+public class ParallelTransactionApplyIT
+{
+    private static final Label LABEL = Label.label( "Label" );
+    private static final RelationshipType TYPE = RelationshipType.withName( "TYPE" );
+    private static final String KEY_A = "a";
+    private static final String KEY_B = "b";
+    private static final int DENSE_NODE_THRESHOLD = 10;
+    // enough node records in a single transaction for the records to be written in parallel, see ParallelRecordUpdates
+    private static final int NODE_COUNT = ParallelRecordUpdates.MIN_RECORDS_FOR_PARALLEL_APPLY * 2;
+
+    @Rule
+    public final DatabaseRule db = new ImpermanentDatabaseRule()
+            .withSetting( GraphDatabaseSettings.parallel_transaction_apply, "true" )
+            .withSetting( GraphDatabaseSettings.dense_node_threshold, String.valueOf( DENSE_NODE_THRESHOLD ) );
+
+    @Before
+    public void createCompositeIndex()
+    {
+        try ( Transaction tx = db.beginTx() )
+        {
+            db.schema().indexFor( LABEL ).on( KEY_A ).on( KEY_B ).create();
+            tx.success();
+        }
+        try ( Transaction tx = db.beginTx() )
+        {
+            db.schema().awaitIndexesOnline( 1, MINUTES );
+            tx.success();
+        }
+    }
+
+    @Test
+    public void shouldIndexUnchangedPropertiesOfNodesGettingLabelInCompositeIndex()
+    {
+        // given
+        List<Node> nodes = new ArrayList<>();
+        try ( Transaction tx = db.beginTx() )
+        {
+            for ( int i = 0; i < NODE_COUNT; i++ )
+            {
+                Node node = db.createNode();
+                node.setProperty( KEY_A, i );
+                node.setProperty( KEY_B, "b" + i );
+                node.setProperty( "other", i );
+                nodes.add( node );
+            }
+            tx.success();
+        }
+
+        // when
+        try ( Transaction tx = db.beginTx() )
+        {
+            for ( Node node : nodes )
+            {
+                node.addLabel( LABEL );
+            }
+            tx.success();
+        }
+
+        // then
+        try ( Transaction tx = db.beginTx() )
+        {
+            for ( int i = 0; i < NODE_COUNT; i++ )
+            {
+                assertEquals( nodes.get( i ), singleOrNull( db.findNodes( LABEL, KEY_A, i, KEY_B, "b" + i ) ) );
+            }
+            tx.success();
+        }
+    }
+
+    @Test
+    public void shouldUpdateCompositeIndexForNodeGoingDenseInSameTransaction()
+    {
+        // given
+        Node node;
+        try ( Transaction tx = db.beginTx() )
+        {
+            node = db.createNode();
+            node.setProperty( KEY_A, "before" );
+            node.setProperty( KEY_B, "unchanged" );
+            tx.success();
+        }
+
+        // when
+        try ( Transaction tx = db.beginTx() )
+        {
+            node.addLabel( LABEL );
+            node.setProperty( KEY_A, "after" );
+            for ( int i = 0; i < NODE_COUNT; i++ )
+            {
+                node.createRelationshipTo( db.createNode(), TYPE );
+            }
+            tx.success();
+        }
+
+        // then
+        NodeStore nodeStore = db.getDependencyResolver().resolveDependency( RecordStorageEngine.class ).testAccessNeoStores().getNodeStore();
+        NodeRecord record = nodeStore.getRecord( node.getId(), nodeStore.newRecord(), NORMAL );
+        assertTrue( "Expected node to have gone dense", record.isDense() );
+        try ( Transaction tx = db.beginTx() )
+        {
+            assertEquals( node, singleOrNull( db.findNodes( LABEL, KEY_A, "after", KEY_B, "unchanged" ) ) );
+            assertNull( singleOrNull( db.findNodes( LABEL, KEY_A, "before", KEY_B, "unchanged" ) ) );
+            assertEquals( NODE_COUNT, node.getDegree() );
+            tx.success();
+        }
+    }
+
+    @Test
+    public void shouldUpdateCompositeIndexForChangedAndUnchangedDynamicPropertyValues()
+    {
+        // given
+        String unchanged = longString( 'u' );
+        List<Node> nodes = new ArrayList<>();
+        try ( Transaction tx = db.beginTx() )
+        {
+            for ( int i = 0; i < NODE_COUNT; i++ )
+            {
+                Node node = db.createNode( LABEL );
+                node.setProperty( KEY_A, longString( 'a' ) + i );
+                node.setProperty( KEY_B, unchanged );
+                nodes.add( node );
+            }
+            tx.success();
+        }
+
+        // when
+        try ( Transaction tx = db.beginTx() )
+        {
+            for ( int i = 0; i < NODE_COUNT; i++ )
+            {
+                nodes.get( i ).setProperty( KEY_A, longString( 'c' ) + i );
+            }
+            tx.success();
+        }
+
+        // then
+        try ( Transaction tx = db.beginTx() )
+        {
+            for ( int i = 0; i < NODE_COUNT; i++ )
+            {
+                assertEquals( nodes.get( i ), singleOrNull( db.findNodes( LABEL, KEY_A, longString( 'c' ) + i, KEY_B, unchanged ) ) );
+                assertNull( singleOrNull( db.findNodes( LABEL, KEY_A, longString( 'a' ) + i, KEY_B, unchanged ) ) );
+            }
+            tx.success();
+        }
+    }
+
+    private static String longString( char c )
+    {
+        // longer than fits in a property record, i.e. stored in dynamic records
+        char[] chars = new char[200];
+        Arrays.fill( chars, c );
+        return new String( chars );
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import java.io.File;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.factory.GraphDatabaseSettings;
+import org.neo4j.graphdb.mockfs.EphemeralFileSystemAbstraction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.kernel.monitoring.Monitors;
+import org.neo4j.kernel.recovery.RecoveryMonitor;
+
+import static java.lang.String.format;
+import static org.neo4j.kernel.impl.transaction.log.TransactionLogCompressionIT.commitWorkload;
+import static org.neo4j.kernel.impl.transaction.log.TransactionLogCompressionIT.logBytes;
+import static org.neo4j.kernel.impl.transaction.log.TransactionLogCompressionIT.newDb;
+
+/**
+ * Compares append throughput, bytes of transaction log and recovery time with and without
+ * {@link GraphDatabaseSettings#tx_log_compression}, committing the workload of {@link TransactionLogCompressionIT}.
+ *
+ * The file system is in memory, so the throughput and recovery numbers are those of writing and reading the log
+ * entries, without the cost of forcing or reading the log files, which compression reduces. Rounds alternate between
+ * the two, the first ones warming up. The benchmark is meant to be run by hand:
+ *
+ * <pre>
+ *     java org.neo4j.kernel.impl.transaction.log.TransactionLogCompressionBenchmark [rounds] [transactions]
+ * </pre>
+ */
+public class TransactionLogCompressionBenchmark
+{
+    private static final File DATABASE_DIR = new File( "graph.db" ).getAbsoluteFile();
+
+    private final int transactions;
+
+    private TransactionLogCompressionBenchmark( int transactions )
+    {
+        this.transactions = transactions;
+    }
+
+    public static void main( String[] args ) throws Exception
+    {
+        int rounds = args.length > 0 ? Integer.parseInt( args[0] ) : 3;
+        int transactions = args.length > 1 ? Integer.parseInt( args[1] ) : 2_000;
+        TransactionLogCompressionBenchmark benchmark = new TransactionLogCompressionBenchmark( transactions );
+        for ( int round = 0; round < rounds; round++ )
+        {
+            System.out.println( "round " + round + ": " + benchmark.run( false ) );
+            System.out.println( "round " + round + ": " + benchmark.run( true ) );
+        }
+    }
+
+    private String run( boolean compressCommands ) throws Exception
+    {
+        try ( EphemeralFileSystemAbstraction fs = new EphemeralFileSystemAbstraction() )
+        {
+            GraphDatabaseAPI db = (GraphDatabaseAPI) newDb( DATABASE_DIR, fs, new Monitors(), compressCommands );
+            long start = System.nanoTime();
+            commitWorkload( db, transactions );
+            long appendNanos = System.nanoTime() - start;
+            long logBytes = logBytes( db );
+
+            try ( EphemeralFileSystemAbstraction crashedFs = fs.snapshot() )
+            {
+                db.shutdown();
+                Monitors monitors = new Monitors();
+                AtomicLong recoveryStart = new AtomicLong();
+                AtomicLong recoveryNanos = new AtomicLong();
+                monitors.addMonitorListener( new RecoveryMonitor()
+                {
+                    @Override
+                    public void recoveryRequired( LogPosition recoveryPosition )
+                    {
+                        recoveryStart.set( System.nanoTime() );
+                    }
+
+                    @Override
+                    public void recoveryCompleted( int numberOfRecoveredTransactions )
+                    {
+                        recoveryNanos.set( System.nanoTime() - recoveryStart.get() );
+                    }
+                } );
+                GraphDatabaseService recoveredDb = newDb( DATABASE_DIR, crashedFs, monitors, compressCommands );
+                recoveredDb.shutdown();
+                return format( "compression %s: %d transactions appended in %d ms (%d tx/s) to %d bytes of log, recovered in %d ms",
+                        compressCommands ? "on" : "off", transactions, appendNanos / 1_000_000, transactions * 1_000_000_000L / appendNanos,
+                        logBytes, recoveryNanos.get() / 1_000_000 );
+            }
+        }
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.factory.GraphDatabaseSettings;
+import org.neo4j.graphdb.mockfs.EphemeralFileSystemAbstraction;
+import org.neo4j.graphdb.mockfs.UncloseableDelegatingFileSystemAbstraction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.kernel.monitoring.Monitors;
+import org.neo4j.kernel.recovery.RecoveryMonitor;
+import org.neo4j.test.TestGraphDatabaseFactory;
+import org.neo4j.test.rule.TestDirectory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Commits the same workload with and without {@link GraphDatabaseSettings#tx_log_compression}, crashes the database and
+ * recovers it. The workload creates nodes and relationships with properties, and changes properties of nodes created
+ * before, so that commands have both before and after state. See {@link TransactionLogCompressionBenchmark} for
+ * the append throughput and recovery time of the two.
+ */
+public class TransactionLogCompressionIT
+{
+    private static final Label LABEL = Label.label( "Label" );
+    private static final RelationshipType TYPE = RelationshipType.withName( "TYPE" );
+    private static final int TRANSACTIONS = 200;
+    private static final int NODES_PER_TRANSACTION = 10;
+    private static final int CHANGES_PER_TRANSACTION = 5;
+    private static final long SEED = 42;
+
+    @Rule
+    public final TestDirectory testDirectory = TestDirectory.testDirectory();
+
+    @Test
+    public void shouldRecoverSmallerLogOfCompressedCommands() throws Exception
+    {
+        // when
+        Run uncompressed = commitCrashAndRecover( false );
+        Run compressed = commitCrashAndRecover( true );
+
+        // then
+        assertEquals( uncompressed.contents, compressed.contents );
+        assertTrue( "Expected compressed log of " + compressed.logBytes + " bytes to be smaller than " + uncompressed.logBytes,
+                compressed.logBytes < uncompressed.logBytes );
+    }
+
+    private Run commitCrashAndRecover( boolean compressCommands ) throws Exception
+    {
+        try ( EphemeralFileSystemAbstraction fs = new EphemeralFileSystemAbstraction() )
+        {
+            GraphDatabaseAPI db = (GraphDatabaseAPI) newDb( testDirectory.databaseDir(), fs, new Monitors(), compressCommands );
+            commitWorkload( db, TRANSACTIONS );
+            long logBytes = logBytes( db );
+            String contentsBeforeCrash = contents( db );
+
+            try ( EphemeralFileSystemAbstraction crashedFs = fs.snapshot() )
+            {
+                db.shutdown();
+                Monitors monitors = new Monitors();
+                AtomicInteger recoveredTransactions = new AtomicInteger();
+                monitors.addMonitorListener( new RecoveryMonitor()
+                {
+                    @Override
+                    public void recoveryCompleted( int numberOfRecoveredTransactions )
+                    {
+                        recoveredTransactions.set( numberOfRecoveredTransactions );
+                    }
+                } );
+                GraphDatabaseService recoveredDb = newDb( testDirectory.databaseDir(), crashedFs, monitors, compressCommands );
+                try
+                {
+                    assertTrue( "Expected the workload to be recovered, recovered " + recoveredTransactions.get(),
+                            recoveredTransactions.get() >= TRANSACTIONS );
+                    String recoveredContents = contents( recoveredDb );
+                    assertEquals( contentsBeforeCrash, recoveredContents );
+                    return new Run( logBytes, recoveredContents );
+                }
+                finally
+                {
+                    recoveredDb.shutdown();
+                }
+            }
+        }
+    }
+
+    static GraphDatabaseService newDb( File databaseDir, EphemeralFileSystemAbstraction fs, Monitors monitors, boolean compressCommands )
+    {
+        return new TestGraphDatabaseFactory()
+                .setFileSystem( new UncloseableDelegatingFileSystemAbstraction( fs ) )
+                .setMonitors( monitors )
+                .newImpermanentDatabaseBuilder( databaseDir )
+                .setConfig( GraphDatabaseSettings.tx_log_compression, String.valueOf( compressCommands ) )
+                .setConfig( GraphDatabaseSettings.check_point_interval_tx, String.valueOf( Integer.MAX_VALUE ) )
+                .setConfig( GraphDatabaseSettings.check_point_interval_time, "1h" )
+                .newGraphDatabase();
+    }
+
+    /**
+     * @return bytes of transaction log written so far, which must all be in the first log file.
+     */
+    static long logBytes( GraphDatabaseAPI db )
+    {
+        long[] lastClosedTransaction = db.getDependencyResolver().resolveDependency( TransactionIdStore.class ).getLastClosedTransaction();
+        assertEquals( "Expected the workload to fit in one log file", 0, lastClosedTransaction[1] );
+        return lastClosedTransaction[2];
+    }
+
+    static void commitWorkload( GraphDatabaseService db, int transactions )
+    {
+        Random random = new Random( SEED );
+        List<Node> nodes = new ArrayList<>();
+        for ( int i = 0; i < transactions; i++ )
+        {
+            try ( Transaction tx = db.beginTx() )
+            {
+                Node previous = nodes.isEmpty() ? null : nodes.get( nodes.size() - 1 );
+                for ( int j = 0; j < NODES_PER_TRANSACTION; j++ )
+                {
+                    Node node = db.createNode( LABEL );
+                    node.setProperty( "id", nodes.size() );
+                    node.setProperty( "name", "name-" + random.nextInt( 1_000 ) );
+                    node.setProperty( "score", random.nextDouble() );
+                    node.setProperty( "description", "a node created by transaction " + i + " of the workload" );
+                    if ( previous != null )
+                    {
+                        Relationship relationship = previous.createRelationshipTo( node, TYPE );
+                        relationship.setProperty( "weight", random.nextInt( 100 ) );
+                    }
+                    nodes.add( node );
+                    previous = node;
+                }
+                for ( int j = 0; j < CHANGES_PER_TRANSACTION; j++ )
+                {
+                    Node node = nodes.get( random.nextInt( nodes.size() ) );
+                    node.setProperty( "name", "changed-" + random.nextInt( 1_000 ) );
+                    node.setProperty( "visits", random.nextInt( 10 ) );
+                }
+                tx.success();
+            }
+        }
+    }
+
+    static String contents( GraphDatabaseService db )
+    {
+        try ( Transaction tx = db.beginTx() )
+        {
+            long nodes = 0;
+            long relationships = 0;
+            long hash = 0;
+            for ( Node node : db.getAllNodes() )
+            {
+                nodes++;
+                hash = hash * 31 + node.getAllProperties().hashCode();
+            }
+            for ( Relationship relationship : db.getAllRelationships() )
+            {
+                relationships++;
+                hash = hash * 31 + relationship.getAllProperties().hashCode();
+            }
+            tx.success();
+            return nodes + " nodes, " + relationships + " relationships, hash " + hash;
+        }
+    }
+
+    private static class Run
+    {
+        private final long logBytes;
+        private final String contents;
+
+        Run( long logBytes, String contents )
+        {
+            this.logBytes = logBytes;
+            this.contents = contents;
+        }
+    }
+}
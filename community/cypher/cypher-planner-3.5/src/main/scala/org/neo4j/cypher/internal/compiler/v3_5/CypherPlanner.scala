@@ -108,4 +108,5 @@ case class CypherPlannerConfiguration(queryCacheSize: Int,
                                       nonIndexedLabelWarningThreshold: Long,
                                       planWithMinimumCardinalityEstimates: Boolean,
                                       disableCompiledExpressions: Boolean,
-                                      lenientCreateRelationship: Boolean)
+                                      lenientCreateRelationship: Boolean,
+                                      planRelationshipTypeScans: Boolean = false)
@@ -31,6 +31,6 @@ case class CachedMetricsFactory(metricsFactory: MetricsFactory) extends MetricsF
   def newCostModel(config: CypherPlannerConfiguration) =
     CachedFunction(metricsFactory.newCostModel(config: CypherPlannerConfiguration))
 
-  def newQueryGraphCardinalityModel(statistics: GraphStatistics) =
-    CachedFunction(metricsFactory.newQueryGraphCardinalityModel(statistics))
+  def newQueryGraphCardinalityModel(statistics: GraphStatistics, expressionEvaluator: ExpressionEvaluator) =
+    CachedFunction(metricsFactory.newQueryGraphCardinalityModel(statistics, expressionEvaluator))
 }
@@ -42,6 +42,8 @@ case class CardinalityCostModel(config: CypherPlannerConfiguration) extends Cost
      */
 
     case _: NodeByLabelScan |
+         _: DirectedRelationshipTypeScan |
+         _: UndirectedRelationshipTypeScan |
          _: NodeIndexScan |
          _: ProjectEndpoints
     => 1.0
@@ -91,10 +91,10 @@ case class Metrics(cost: CostModel,
 trait MetricsFactory {
   def newCardinalityEstimator(queryGraphCardinalityModel: QueryGraphCardinalityModel, expressionEvaluator: ExpressionEvaluator): CardinalityModel
   def newCostModel(config: CypherPlannerConfiguration): CostModel
-  def newQueryGraphCardinalityModel(statistics: GraphStatistics): QueryGraphCardinalityModel
+  def newQueryGraphCardinalityModel(statistics: GraphStatistics, expressionEvaluator: ExpressionEvaluator): QueryGraphCardinalityModel
 
   def newMetrics(statistics: GraphStatistics,expressionEvaluator: ExpressionEvaluator, config: CypherPlannerConfiguration) = {
-    val queryGraphCardinalityModel = newQueryGraphCardinalityModel(statistics)
+    val queryGraphCardinalityModel = newQueryGraphCardinalityModel(statistics, expressionEvaluator)
     val cardinality = newCardinalityEstimator(queryGraphCardinalityModel, expressionEvaluator)
     Metrics(newCostModel(config), cardinality, queryGraphCardinalityModel)
   }
@@ -61,7 +61,7 @@ case class QueryPlanner(planSingleQuery: (PlannerQuery, LogicalPlanningContext,
       useErrorsOverWarnings = context.config.useErrorsOverWarnings,
       errorIfShortestPathFallbackUsedAtRuntime = context.config.errorIfShortestPathFallbackUsedAtRuntime,
       errorIfShortestPathHasCommonNodesAtRuntime = context.config.errorIfShortestPathHasCommonNodesAtRuntime,
-      config = QueryPlannerConfiguration.default.withUpdateStrategy(context.updateStrategy),
+      config = QueryPlannerConfiguration(context.config.planRelationshipTypeScans).withUpdateStrategy(context.updateStrategy),
       legacyCsvQuoteEscaping = context.config.legacyCsvQuoteEscaping,
       csvBufferSize = context.config.csvBufferSize,
       costComparisonListener = costComparisonListener
@@ -55,6 +55,9 @@ object QueryPlannerConfiguration {
     // Handles OR between other leaf planners
     OrLeafPlanner(leafPlanFromExpressions))
 
+  // MATCH (a)-[r:T]->(b) RETURN r
+  // Only planned when the database maintains a relationship type scan store
+  val allLeafPlannersWithRelationshipTypeScans: IndexedSeq[LeafPlanner] = allLeafPlanners :+ relationshipTypeScanLeafPlanner
 
   val default: QueryPlannerConfiguration = {
     val predicateSelector = Selector(pickBestPlanUsingHintsAndCost,
@@ -78,6 +81,11 @@ object QueryPlannerConfiguration {
     )
 
   }
+
+  val withRelationshipTypeScans: QueryPlannerConfiguration = default.withLeafPlanners(LeafPlannerList(allLeafPlannersWithRelationshipTypeScans))
+
+  def apply(planRelationshipTypeScans: Boolean): QueryPlannerConfiguration =
+    if (planRelationshipTypeScans) withRelationshipTypeScans else default
 }
 
 case class QueryPlannerConfiguration(leafPlanners: LeafPlannerIterable,
@@ -22,20 +22,23 @@ package org.neo4j.cypher.internal.compiler.v3_5.planner.logical.cardinality
 import java.math
 import java.math.RoundingMode
 
+import org.neo4j.cypher.internal.compiler.v3_5.planner.logical.ExpressionEvaluator
 import org.neo4j.cypher.internal.compiler.v3_5.planner.logical.plans._
 import org.neo4j.cypher.internal.ir.v3_5.Selections
 import org.neo4j.cypher.internal.planner.v3_5.spi.GraphStatistics._
 import org.neo4j.cypher.internal.planner.v3_5.spi.{GraphStatistics, IndexDescriptor}
-import org.neo4j.cypher.internal.v3_5.logical.plans.PrefixRange
+import org.neo4j.cypher.internal.v3_5.logical.plans.{Bound, Bounds, InequalitySeekRange, PrefixRange, RangeBetween, RangeGreaterThan, RangeLessThan}
 import org.opencypher.v9_0.ast.semantics.SemanticTable
 import org.opencypher.v9_0.expressions._
+import org.neo4j.values.storable.{NumberValue, TextValue}
 import org.opencypher.v9_0.util.{Cardinality, LabelId, Selectivity}
 
 trait Expression2Selectivity {
   def apply(exp: Expression)(implicit semanticTable: SemanticTable, selections: Selections): Selectivity
 }
 
-case class ExpressionSelectivityCalculator(stats: GraphStatistics, combiner: SelectivityCombiner) extends Expression2Selectivity {
+case class ExpressionSelectivityCalculator(stats: GraphStatistics, combiner: SelectivityCombiner, evaluator: ExpressionEvaluator)
+  extends Expression2Selectivity {
 
   def apply(exp: Expression)(implicit semanticTable: SemanticTable, selections: Selections): Selectivity = exp match {
     // WHERE a:Label
@@ -54,13 +57,14 @@ case class ExpressionSelectivityCalculator(stats: GraphStatistics, combiner: Sel
     case AsPropertySeekable(seekable) =>
       calculateSelectivityForPropertyEquality(seekable.name, seekable.args.sizeHint, selections, seekable.propertyKey)
 
-    // WHERE x.prop STARTS WITH 'prefix'
-    case AsStringRangeSeekable(seekable@PrefixRangeSeekable(PrefixRange(StringLiteral(prefix)), _, _, _)) =>
-      calculateSelectivityForSubstringSargable(seekable.name, selections, seekable.propertyKey, Some(prefix))
-
-    // WHERE x.prop STARTS WITH expression
-    case AsStringRangeSeekable(seekable@PrefixRangeSeekable(_:PrefixRange[_], _, _, _)) =>
-      calculateSelectivityForSubstringSargable(seekable.name, selections, seekable.propertyKey, None)
+    // WHERE x.prop STARTS WITH 'prefix', $prefix or expression
+    case AsStringRangeSeekable(seekable@PrefixRangeSeekable(PrefixRange(prefix), _, _, _)) =>
+      planningValue(prefix) match {
+        case Some(prefixString: String) =>
+          calculateSelectivityForPrefix(seekable.name, selections, seekable.propertyKey, prefixString)
+        case _ =>
+          calculateSelectivityForSubstringSargable(seekable.name, selections, seekable.propertyKey, None)
+      }
 
     // WHERE x.prop CONTAINS 'substring'
     case Contains(Property(Variable(name), propertyKey), StringLiteral(substring)) =>
@@ -161,6 +165,14 @@ case class ExpressionSelectivityCalculator(stats: GraphStatistics, combiner: Sel
     selectivity
   }
 
+  private def calculateSelectivityForPrefix(variable: String,
+                                           selections: Selections,
+                                           propertyKey: PropertyKeyName,
+                                           prefix: String)
+                                          (implicit semanticTable: SemanticTable): Selectivity =
+    calculateSelectivityFromHistograms(variable, selections, propertyKey)(stats.indexPrefixSelectivity(_, prefix))
+      .getOrElse(calculateSelectivityForSubstringSargable(variable, selections, propertyKey, Some(prefix)))
+
   private def calculateSelectivityForSubstringSargable(variable: String,
                                                    selections: Selections,
                                                    propertyKey: PropertyKeyName,
@@ -193,6 +205,17 @@ case class ExpressionSelectivityCalculator(stats: GraphStatistics, combiner: Sel
   private def calculateSelectivityForValueRangeSeekable(seekable: InequalityRangeSeekable,
                                                         selections: Selections)
                                                        (implicit semanticTable: SemanticTable): Selectivity = {
+    val histogramSelectivity = literalBounds(seekable.range).flatMap {
+      case (lower, upper) =>
+        calculateSelectivityFromHistograms(seekable.ident.name, selections, seekable.expr.property.propertyKey)(
+          stats.indexRangeSelectivity(_, lower, upper))
+    }
+    histogramSelectivity.getOrElse(calculateDefaultSelectivityForValueRangeSeekable(seekable, selections))
+  }
+
+  private def calculateDefaultSelectivityForValueRangeSeekable(seekable: InequalityRangeSeekable,
+                                                               selections: Selections)
+                                                              (implicit semanticTable: SemanticTable): Selectivity = {
     val name = seekable.ident.name
     val propertyKeyName = seekable.expr.property.propertyKey
     val equalitySelectivity = calculateSelectivityForPropertyEquality(name, Some(1), selections, propertyKeyName).factor
@@ -211,6 +234,62 @@ case class ExpressionSelectivityCalculator(stats: GraphStatistics, combiner: Sel
     result
   }
 
+  /*
+   * The lower and upper bound of a range, if their values are known when planning and there is at most one of each
+   */
+  private def literalBounds(range: InequalitySeekRange[Expression]): Option[(Option[Bound[Any]], Option[Bound[Any]])] = range match {
+    case RangeGreaterThan(lower) =>
+      literalBound(lower).map(bound => (Option(bound), Option.empty[Bound[Any]]))
+    case RangeLessThan(upper) =>
+      literalBound(upper).map(bound => (Option.empty[Bound[Any]], Option(bound)))
+    case RangeBetween(RangeGreaterThan(lower), RangeLessThan(upper)) =>
+      for (lowerBound <- literalBound(lower); upperBound <- literalBound(upper)) yield (Option(lowerBound), Option(upperBound))
+  }
+
+  private def literalBound(bounds: Bounds[Expression]): Option[Bound[Any]] = bounds.toIndexedSeq match {
+    case Seq(bound) =>
+      planningValue(bound.endPoint).map(endPoint => bound.map(_ => endPoint))
+    case _ => None
+  }
+
+  /*
+   * The value of a number or string literal, or of a parameter holding a number or a string. Literals are usually
+   * extracted into parameters before planning, whose values are those of the query being planned.
+   */
+  private def planningValue(expression: Expression): Option[Any] = expression match {
+    case literal: NumberLiteral => Some(literal.value)
+    case StringLiteral(string) => Some(string)
+    case parameter: Parameter =>
+      evaluator.evaluateExpression(parameter) match {
+        case Some(number: NumberValue) => Some(number.asObjectCopy())
+        case Some(text: TextValue) => Some(text.stringValue())
+        case _ => None
+      }
+    case _ => None
+  }
+
+  /*
+   * Selectivity estimated from the histograms of the indexes on the property for the labels of the node, if there are any
+   */
+  private def calculateSelectivityFromHistograms(variable: String,
+                                                 selections: Selections,
+                                                 propertyKey: PropertyKeyName)
+                                                (histogramSelectivity: IndexDescriptor => Option[Selectivity])
+                                                (implicit semanticTable: SemanticTable): Option[Selectivity] = {
+    val labels = selections.labelsOnNode(variable)
+    val selectivities = labels.toIndexedSeq.flatMap {
+      labelName =>
+        (semanticTable.id(labelName), semanticTable.id(propertyKey)) match {
+          case (Some(labelId), Some(propertyKeyId)) =>
+            histogramSelectivity(IndexDescriptor(labelId, Seq(propertyKeyId)))
+
+          case _ =>
+            None
+        }
+    }
+    combiner.orTogetherSelectivities(selectivities)
+  }
+
   private def calculateSelectivityForPointDistanceSeekable(seekable: PointDistanceSeekable,
                                                         selections: Selections)
                                                        (implicit semanticTable: SemanticTable): Selectivity = {
@@ -19,6 +19,7 @@
  */
 package org.neo4j.cypher.internal.compiler.v3_5.planner.logical.cardinality
 
+import org.neo4j.cypher.internal.compiler.v3_5.planner.logical.ExpressionEvaluator
 import org.opencypher.v9_0.expressions.Expression
 import org.opencypher.v9_0.ast.semantics.SemanticTable
 import org.neo4j.cypher.internal.ir.v3_5.Selections
@@ -43,12 +44,13 @@ case class DelegatingSelectivityEstimator(inner: SelectivityEstimator) extends S
 case class ExpressionSelectivityEstimator(selections: Selections,
                                           stats: GraphStatistics,
                                           semanticTable: SemanticTable,
-                                          combiner: SelectivityCombiner)
+                                          combiner: SelectivityCombiner,
+                                          evaluator: ExpressionEvaluator)
   extends SelectivityEstimator {
 
   self =>
 
-  private val calculator = ExpressionSelectivityCalculator(stats, combiner)
+  private val calculator = ExpressionSelectivityCalculator(stats, combiner, evaluator)
 
   def apply(expr: Expression) = calculator(expr)(semanticTable, selections)
 }
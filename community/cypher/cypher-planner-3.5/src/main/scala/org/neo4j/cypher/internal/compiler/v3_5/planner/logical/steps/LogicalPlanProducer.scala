@@ -122,6 +122,34 @@ case class LogicalPlanProducer(cardinalityModel: CardinalityModel, solveds: Solv
     annotate(UndirectedRelationshipByIdSeek(idName, relIds, leftNode, rightNode, argumentIds), solved, context)
   }
 
+  def planDirectedRelationshipTypeScan(idName: String,
+                                       startNode: String,
+                                       typ: RelTypeName,
+                                       endNode: String,
+                                       pattern: PatternRelationship,
+                                       argumentIds: Set[String],
+                                       context: LogicalPlanningContext): LogicalPlan = {
+    val solved = RegularPlannerQuery(queryGraph = QueryGraph.empty
+      .addPatternRelationship(pattern)
+      .addArgumentIds(argumentIds.toIndexedSeq)
+    )
+    annotate(DirectedRelationshipTypeScan(idName, startNode, typ, endNode, argumentIds), solved, context)
+  }
+
+  def planUndirectedRelationshipTypeScan(idName: String,
+                                         leftNode: String,
+                                         typ: RelTypeName,
+                                         rightNode: String,
+                                         pattern: PatternRelationship,
+                                         argumentIds: Set[String],
+                                         context: LogicalPlanningContext): LogicalPlan = {
+    val solved = RegularPlannerQuery(queryGraph = QueryGraph.empty
+      .addPatternRelationship(pattern)
+      .addArgumentIds(argumentIds.toIndexedSeq)
+    )
+    annotate(UndirectedRelationshipTypeScan(idName, leftNode, typ, rightNode, argumentIds), solved, context)
+  }
+
   def planSimpleExpand(left: LogicalPlan,
                        from: String,
                        dir: SemanticDirection,
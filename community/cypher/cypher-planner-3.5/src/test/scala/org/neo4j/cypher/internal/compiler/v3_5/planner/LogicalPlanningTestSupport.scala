@@ -68,8 +68,8 @@ trait LogicalPlanningTestSupport extends CypherTestSupport with AstConstructionT
       SimpleMetricsFactory.newCardinalityEstimator(queryGraphCardinalityModel, evaluator)
     def newCostModel(config: CypherPlannerConfiguration) =
       SimpleMetricsFactory.newCostModel(config)
-    def newQueryGraphCardinalityModel(statistics: GraphStatistics): QueryGraphCardinalityModel =
-      SimpleMetricsFactory.newQueryGraphCardinalityModel(statistics)
+    def newQueryGraphCardinalityModel(statistics: GraphStatistics, evaluator: ExpressionEvaluator): QueryGraphCardinalityModel =
+      SimpleMetricsFactory.newQueryGraphCardinalityModel(statistics, evaluator)
   }
 
   def newMockedQueryGraph = mock[QueryGraph]
@@ -88,7 +88,8 @@ trait LogicalPlanningTestSupport2 extends CypherTestSupport with AstConstruction
       def newCardinalityEstimator(queryGraphCardinalityModel: QueryGraphCardinalityModel, evaluator: ExpressionEvaluator) =
         config.cardinalityModel(queryGraphCardinalityModel, mock[ExpressionEvaluator])
 
-      def newQueryGraphCardinalityModel(statistics: GraphStatistics) = QueryGraphCardinalityModel.default(statistics)
+      def newQueryGraphCardinalityModel(statistics: GraphStatistics, evaluator: ExpressionEvaluator) =
+        QueryGraphCardinalityModel.default(statistics, evaluator)
     }
 
     def table = Map.empty[PatternExpression, QueryGraph]
@@ -120,5 +120,5 @@ class StatisticsBackedCardinalityModelTest extends CypherFunSuite with LogicalPl
     new StatisticsBackedCardinalityModel(in, newExpressionEvaluator)
 
   def createCardinalityModel(stats: GraphStatistics): QueryGraphCardinalityModel =
-    AssumeIndependenceQueryGraphCardinalityModel(stats, combiner)
+    AssumeIndependenceQueryGraphCardinalityModel(stats, combiner, newExpressionEvaluator)
 }
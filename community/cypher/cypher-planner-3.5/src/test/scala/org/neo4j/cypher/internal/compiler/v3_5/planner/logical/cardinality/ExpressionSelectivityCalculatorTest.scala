@@ -20,8 +20,12 @@
 package org.neo4j.cypher.internal.compiler.v3_5.planner.logical.cardinality
 
 import org.mockito.Mockito.when
+import org.neo4j.cypher.internal.compiler.v3_5.planner.logical.ExpressionEvaluator
 import org.neo4j.cypher.internal.ir.v3_5._
 import org.neo4j.cypher.internal.planner.v3_5.spi.{GraphStatistics, IndexDescriptor}
+import org.neo4j.cypher.internal.v3_5.logical.plans.{ExclusiveBound, InclusiveBound}
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.Values.{intValue, stringValue}
 import org.opencypher.v9_0.ast._
 import org.opencypher.v9_0.ast.semantics.SemanticTable
 import org.opencypher.v9_0.expressions._
@@ -33,6 +37,13 @@ class ExpressionSelectivityCalculatorTest extends CypherFunSuite with AstConstru
 
   val index = IndexDescriptor(LabelId(0), Seq(PropertyKeyId(0)))
 
+  private def parameters(values: (String, AnyValue)*) = new ExpressionEvaluator {
+    override def evaluateExpression(expr: Expression): Option[Any] = expr match {
+      case Parameter(name, _) => values.toMap.get(name)
+      case _ => None
+    }
+  }
+
   test("Should consider parameter expressions when calculating index selectivity") {
     implicit val semanticTable = SemanticTable()
     semanticTable.resolvedLabelNames.put("Page", index.label)
@@ -44,7 +55,7 @@ class ExpressionSelectivityCalculatorTest extends CypherFunSuite with AstConstru
     when(stats.nodesAllCardinality()).thenReturn(1000.0)
     when(stats.indexSelectivity(index)).thenReturn(Some(Selectivity.of(0.1d).get))
 
-    val calculator = ExpressionSelectivityCalculator(stats, IndependenceCombiner)
+    val calculator = ExpressionSelectivityCalculator(stats, IndependenceCombiner, parameters())
 
     val result = calculator(In(Property(varFor("n"), PropertyKeyName("title")_)_, Parameter("titles", CTAny)_)_)
 
@@ -60,7 +71,7 @@ class ExpressionSelectivityCalculatorTest extends CypherFunSuite with AstConstru
     val stats = mock[GraphStatistics]
     when(stats.nodesAllCardinality()).thenReturn(2000.0)
     when(stats.nodesWithLabelCardinality(Some(index.label))).thenReturn(1000.0)
-    val calculator = ExpressionSelectivityCalculator(stats, IndependenceCombiner)
+    val calculator = ExpressionSelectivityCalculator(stats, IndependenceCombiner, parameters())
 
     val result = calculator(PartialPredicate[HasLabels](HasLabels(varFor("n"), Seq(LabelName("Page")_))_, mock[HasLabels]))
 
@@ -83,13 +94,97 @@ class ExpressionSelectivityCalculatorTest extends CypherFunSuite with AstConstru
     val stats = mock[GraphStatistics]
     when(stats.nodesAllCardinality()).thenReturn(2000.0)
     when(stats.nodesWithLabelCardinality(Some(index.label))).thenReturn(1000.0)
-    val calculator = ExpressionSelectivityCalculator(stats, IndependenceCombiner)
+    val calculator = ExpressionSelectivityCalculator(stats, IndependenceCombiner, parameters())
 
     val result = calculator(n_gt_3_and_lt_4.expr)
 
     result.factor should equal(0.015)
   }
 
+  test("Should use histograms to estimate selectivity of range predicates with literal bounds") {
+    implicit val semanticTable = SemanticTable()
+    semanticTable.resolvedLabelNames.put("Person", index.label)
+    semanticTable.resolvedPropertyKeyNames.put("prop", index.property)
+
+    val n_is_Person = Predicate(Set("n"), HasLabels(varFor("n"), Seq(LabelName("Person") _)) _)
+    val n_prop: Property = Property(varFor("n"), PropertyKeyName("prop")_)_
+    val n_gt_3_and_lte_4 = Predicate(Set("n"), AndedPropertyInequalities(varFor("n"), n_prop, NonEmptyList(
+      GreaterThan(n_prop, SignedDecimalIntegerLiteral("3")_)_,
+      LessThanOrEqual(n_prop, SignedDecimalIntegerLiteral("4")_)_
+    )))
+
+    implicit val selections = Selections(Set(n_is_Person, n_gt_3_and_lte_4))
+
+    val stats = mock[GraphStatistics]
+    when(stats.indexRangeSelectivity(index, Some(ExclusiveBound(3L)), Some(InclusiveBound(4L)))).thenReturn(Some(Selectivity.of(0.2).get))
+    val calculator = ExpressionSelectivityCalculator(stats, IndependenceCombiner, parameters())
+
+    val result = calculator(n_gt_3_and_lte_4.expr)
+
+    result.factor should equal(0.2)
+  }
+
+  test("Should use histograms to estimate selectivity of range predicates with parameter bounds") {
+    implicit val semanticTable = SemanticTable()
+    semanticTable.resolvedLabelNames.put("Person", index.label)
+    semanticTable.resolvedPropertyKeyNames.put("prop", index.property)
+
+    val n_is_Person = Predicate(Set("n"), HasLabels(varFor("n"), Seq(LabelName("Person") _)) _)
+    val n_prop: Property = Property(varFor("n"), PropertyKeyName("prop")_)_
+    val n_gt_lower_and_lte_upper = Predicate(Set("n"), AndedPropertyInequalities(varFor("n"), n_prop, NonEmptyList(
+      GreaterThan(n_prop, Parameter("lower", CTAny)_)_,
+      LessThanOrEqual(n_prop, Parameter("upper", CTAny)_)_
+    )))
+
+    implicit val selections = Selections(Set(n_is_Person, n_gt_lower_and_lte_upper))
+
+    val stats = mock[GraphStatistics]
+    when(stats.indexRangeSelectivity(index, Some(ExclusiveBound(3)), Some(InclusiveBound(4)))).thenReturn(Some(Selectivity.of(0.2).get))
+    val calculator = ExpressionSelectivityCalculator(stats, IndependenceCombiner, parameters("lower" -> intValue(3), "upper" -> intValue(4)))
+
+    val result = calculator(n_gt_lower_and_lte_upper.expr)
+
+    result.factor should equal(0.2)
+  }
+
+  test("Should use histograms to estimate selectivity of STARTS WITH predicates") {
+    implicit val semanticTable = SemanticTable()
+    semanticTable.resolvedLabelNames.put("A", index.label)
+    semanticTable.resolvedPropertyKeyNames.put("prop", index.property)
+
+    implicit val selections = mock[Selections]
+    val label = LabelName("A")(InputPosition.NONE)
+    val propKey = PropertyKeyName("prop")(InputPosition.NONE)
+    when(selections.labelsOnNode("a")).thenReturn(Set(label))
+
+    val stats = mock[GraphStatistics]
+    when(stats.indexPrefixSelectivity(index, "p")).thenReturn(Some(Selectivity.of(0.05).get))
+    val calculator = ExpressionSelectivityCalculator(stats, IndependenceCombiner, parameters())
+
+    val result = calculator(StartsWith(Property(Variable("a") _, propKey) _, StringLiteral("p")(InputPosition.NONE)) _)
+
+    result.factor should equal(0.05)
+  }
+
+  test("Should use histograms to estimate selectivity of STARTS WITH predicates with parameter prefix") {
+    implicit val semanticTable = SemanticTable()
+    semanticTable.resolvedLabelNames.put("A", index.label)
+    semanticTable.resolvedPropertyKeyNames.put("prop", index.property)
+
+    implicit val selections = mock[Selections]
+    val label = LabelName("A")(InputPosition.NONE)
+    val propKey = PropertyKeyName("prop")(InputPosition.NONE)
+    when(selections.labelsOnNode("a")).thenReturn(Set(label))
+
+    val stats = mock[GraphStatistics]
+    when(stats.indexPrefixSelectivity(index, "p")).thenReturn(Some(Selectivity.of(0.05).get))
+    val calculator = ExpressionSelectivityCalculator(stats, IndependenceCombiner, parameters("prefix" -> stringValue("p")))
+
+    val result = calculator(StartsWith(Property(Variable("a") _, propKey) _, Parameter("prefix", CTAny)(InputPosition.NONE)) _)
+
+    result.factor should equal(0.05)
+  }
+
   test("should handle three inequalities without choking on division") {
     implicit val semanticTable = SemanticTable()
     semanticTable.resolvedLabelNames.put("Person", index.label)
@@ -107,7 +202,7 @@ class ExpressionSelectivityCalculatorTest extends CypherFunSuite with AstConstru
     val stats = mock[GraphStatistics]
     when(stats.nodesAllCardinality()).thenReturn(2000.0)
     when(stats.nodesWithLabelCardinality(Some(index.label))).thenReturn(1000.0)
-    val calculator = ExpressionSelectivityCalculator(stats, IndependenceCombiner)
+    val calculator = ExpressionSelectivityCalculator(stats, IndependenceCombiner, parameters())
 
     val result = calculator(greaterThan3AndGreaterThanOrEqualTo3AndLessThan4.expr)
 
@@ -127,7 +222,7 @@ class ExpressionSelectivityCalculatorTest extends CypherFunSuite with AstConstru
     val stats = mock[GraphStatistics]
     when(stats.indexSelectivity(index)).thenReturn(Some(Selectivity.of(.01).get))
     when(stats.indexPropertyExistsSelectivity(index)).thenReturn(Some(Selectivity.ONE))
-    val calculator = ExpressionSelectivityCalculator(stats, IndependenceCombiner)
+    val calculator = ExpressionSelectivityCalculator(stats, IndependenceCombiner, parameters())
 
     val prefixes = Map("p"          -> 0.23384596099184043,
                        "p2"         -> 0.2299568541948447,
@@ -136,6 +231,7 @@ class ExpressionSelectivityCalculatorTest extends CypherFunSuite with AstConstru
                        "reallylong" -> 0.22429997158103274)
 
     prefixes.foreach { case (prefix, selectivity) =>
+      when(stats.indexPrefixSelectivity(index, prefix)).thenReturn(None)
       val actual = calculator(StartsWith(Property(Variable("a") _, propKey) _, StringLiteral(prefix)(InputPosition.NONE)) _)
       assert( actual.factor === selectivity +- selectivity * 0.000000000000001)
     }
@@ -155,7 +251,7 @@ class ExpressionSelectivityCalculatorTest extends CypherFunSuite with AstConstru
     when(stats.indexSelectivity(index)).thenReturn(Some(Selectivity.of(0.01).get))
     val existenceSelectivity = .2285
     when(stats.indexPropertyExistsSelectivity(index)).thenReturn(Some(Selectivity.of(existenceSelectivity).get))
-    val calculator = ExpressionSelectivityCalculator(stats, IndependenceCombiner)
+    val calculator = ExpressionSelectivityCalculator(stats, IndependenceCombiner, parameters())
 
     val prefixes = Map("p"          -> existenceSelectivity,
                        "p2"         -> existenceSelectivity,
@@ -164,6 +260,7 @@ class ExpressionSelectivityCalculatorTest extends CypherFunSuite with AstConstru
                        "reallylong" -> 0.22429997158103274)
 
     prefixes.foreach { case (prefix, selectivity) =>
+      when(stats.indexPrefixSelectivity(index, prefix)).thenReturn(None)
       val actual = calculator(StartsWith(Property(Variable("a") _, propKey) _, StringLiteral(prefix)(InputPosition.NONE)) _)
       assert( actual.factor === selectivity +- selectivity * 0.000000000000001)
     }
@@ -172,7 +269,7 @@ class ExpressionSelectivityCalculatorTest extends CypherFunSuite with AstConstru
   test("should default to single cardinality for HasLabels with previously unknown label") {
     val stats = mock[GraphStatistics]
     when(stats.nodesAllCardinality()).thenReturn(Cardinality(10))
-    val calculator = ExpressionSelectivityCalculator(stats, IndependenceCombiner)
+    val calculator = ExpressionSelectivityCalculator(stats, IndependenceCombiner, parameters())
     implicit val semanticTable = SemanticTable()
     implicit val selections = mock[Selections]
 
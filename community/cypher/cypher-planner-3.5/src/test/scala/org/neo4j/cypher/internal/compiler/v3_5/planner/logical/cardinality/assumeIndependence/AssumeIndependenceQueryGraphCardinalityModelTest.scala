@@ -276,5 +276,5 @@ class AssumeIndependenceQueryGraphCardinalityModelTest extends RandomizedCardina
 //  }
 
   def createCardinalityModel(stats: GraphStatistics): QueryGraphCardinalityModel =
-    AssumeIndependenceQueryGraphCardinalityModel(stats, combiner)
+    AssumeIndependenceQueryGraphCardinalityModel(stats, combiner, newExpressionEvaluator)
 }
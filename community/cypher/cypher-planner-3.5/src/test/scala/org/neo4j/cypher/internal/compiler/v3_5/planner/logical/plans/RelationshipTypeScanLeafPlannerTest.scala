@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_5.planner.logical.plans
+
+import org.neo4j.cypher.internal.compiler.v3_5.planner.LogicalPlanningTestSupport
+import org.neo4j.cypher.internal.compiler.v3_5.planner.logical.{ExpressionEvaluator, LeafPlannerList, QueryPlannerConfiguration}
+import org.neo4j.cypher.internal.compiler.v3_5.planner.logical.steps.relationshipTypeScanLeafPlanner
+import org.neo4j.cypher.internal.ir.v3_5.{PatternRelationship, QueryGraph, SimplePatternLength, VarPatternLength}
+import org.neo4j.cypher.internal.v3_5.logical.plans.{DirectedRelationshipTypeScan, UndirectedRelationshipTypeScan}
+import org.opencypher.v9_0.expressions.{PatternExpression, RelTypeName, SemanticDirection}
+import org.opencypher.v9_0.util.test_helpers.CypherFunSuite
+
+class RelationshipTypeScanLeafPlannerTest extends CypherFunSuite with LogicalPlanningTestSupport {
+
+  private implicit val subQueryLookupTable = Map.empty[PatternExpression, QueryGraph]
+
+  private val relTypeX = RelTypeName("X")(pos)
+
+  test("directed relationship type scan for outgoing relationship of single type") {
+    // given
+    val patternRel = PatternRelationship("r", ("a", "b"), SemanticDirection.OUTGOING, Seq(relTypeX), SimplePatternLength)
+    val queryGraph = QueryGraph(patternNodes = Set("a", "b"), patternRelationships = Set(patternRel))
+
+    // when
+    val resultPlans = planFor(queryGraph)
+
+    // then
+    resultPlans should equal(Seq(DirectedRelationshipTypeScan("r", "a", relTypeX, "b", Set.empty)))
+  }
+
+  test("directed relationship type scan with reversed end nodes for incoming relationship") {
+    // given
+    val patternRel = PatternRelationship("r", ("a", "b"), SemanticDirection.INCOMING, Seq(relTypeX), SimplePatternLength)
+    val queryGraph = QueryGraph(patternNodes = Set("a", "b"), patternRelationships = Set(patternRel))
+
+    // when
+    val resultPlans = planFor(queryGraph)
+
+    // then
+    resultPlans should equal(Seq(DirectedRelationshipTypeScan("r", "b", relTypeX, "a", Set.empty)))
+  }
+
+  test("undirected relationship type scan for relationship without direction") {
+    // given
+    val patternRel = PatternRelationship("r", ("a", "b"), SemanticDirection.BOTH, Seq(relTypeX), SimplePatternLength)
+    val queryGraph = QueryGraph(patternNodes = Set("a", "b"), patternRelationships = Set(patternRel))
+
+    // when
+    val resultPlans = planFor(queryGraph)
+
+    // then
+    resultPlans should equal(Seq(UndirectedRelationshipTypeScan("r", "a", relTypeX, "b", Set.empty)))
+  }
+
+  test("no relationship type scan for relationships of zero or many types") {
+    // given
+    val relTypeY = RelTypeName("Y")(pos)
+    val untyped = PatternRelationship("r1", ("a", "b"), SemanticDirection.OUTGOING, Seq.empty, SimplePatternLength)
+    val manyTyped = PatternRelationship("r2", ("b", "c"), SemanticDirection.OUTGOING, Seq(relTypeX, relTypeY), SimplePatternLength)
+    val queryGraph = QueryGraph(patternNodes = Set("a", "b", "c"), patternRelationships = Set(untyped, manyTyped))
+
+    // when
+    val resultPlans = planFor(queryGraph)
+
+    // then
+    resultPlans shouldBe empty
+  }
+
+  test("no relationship type scan for var length relationships, loops or bound end nodes") {
+    // given
+    val varLength = PatternRelationship("r1", ("a", "b"), SemanticDirection.OUTGOING, Seq(relTypeX), VarPatternLength(1, None))
+    val loop = PatternRelationship("r2", ("c", "c"), SemanticDirection.OUTGOING, Seq(relTypeX), SimplePatternLength)
+    val bound = PatternRelationship("r3", ("d", "e"), SemanticDirection.OUTGOING, Seq(relTypeX), SimplePatternLength)
+    val queryGraph = QueryGraph(patternNodes = Set("a", "b", "c", "d", "e"), patternRelationships = Set(varLength, loop, bound),
+                                argumentIds = Set("d"))
+
+    // when
+    val resultPlans = planFor(queryGraph)
+
+    // then
+    resultPlans shouldBe empty
+  }
+
+  test("relationship type scans are only planned when the database has a relationship type scan store") {
+    QueryPlannerConfiguration.default.leafPlanners should equal(LeafPlannerList(QueryPlannerConfiguration.allLeafPlanners))
+    QueryPlannerConfiguration(planRelationshipTypeScans = false) should equal(QueryPlannerConfiguration.default)
+    QueryPlannerConfiguration(planRelationshipTypeScans = true).leafPlanners should
+      equal(LeafPlannerList(QueryPlannerConfiguration.allLeafPlanners :+ relationshipTypeScanLeafPlanner))
+  }
+
+  private def planFor(queryGraph: QueryGraph) = {
+    implicit val planContext = newMockedPlanContext
+    val (context, solveds, cardinalities) = newMockedLogicalPlanningContext(
+      planContext = planContext,
+      metrics = newMockedMetricsFactory.newMetrics(hardcodedStatistics, mock[ExpressionEvaluator], config))
+
+    relationshipTypeScanLeafPlanner(queryGraph, context, solveds, cardinalities)
+  }
+}
@@ -112,6 +112,7 @@ case class CypherConfiguration(version: CypherVersion,
       nonIndexedLabelWarningThreshold = config.get(GraphDatabaseSettings.query_non_indexed_label_warning_threshold).longValue(),
       planWithMinimumCardinalityEstimates = planWithMinimumCardinalityEstimates,
       disableCompiledExpressions = disableCompiledExpressions,
-      lenientCreateRelationship = lenientCreateRelationship
+      lenientCreateRelationship = lenientCreateRelationship,
+      planRelationshipTypeScans = config.get(GraphDatabaseSettings.relationship_type_scan_store)
     )
 }
@@ -120,6 +120,10 @@ case class Cypher35Planner(config: CypherPlannerConfiguration,
       val planContext = new ExceptionTranslatingPlanContext(TransactionBoundPlanContext(
         TransactionalContextWrapper(transactionalContext), notificationLogger))
 
+      // Parameters of this execution, including literals extracted into parameters, known when estimating selectivities.
+      // Plans are cached per parameter types, so a cached plan keeps the estimates for the values it was planned with.
+      val planningParams = params.updatedWith(ValueConversion.asValues(syntacticQuery.extractedParams()))
+
       // Context used to create logical plans
       val logicalPlanIdGen = new SequentialIdGen()
       val context = contextCreator.create(tracer,
@@ -135,7 +139,7 @@ case class Cypher35Planner(config: CypherPlannerConfiguration,
                                           maybeUpdateStrategy.getOrElse(defaultUpdateStrategy),
                                           clock,
                                           logicalPlanIdGen,
-                                          simpleExpressionEvaluator(PlanningQueryContext(transactionalContext)))
+                                          simpleExpressionEvaluator(PlanningQueryContext(transactionalContext), planningParams))
 
       // Prepare query for caching
       val preparedQuery = planner.normalizeQuery(syntacticQuery, context)
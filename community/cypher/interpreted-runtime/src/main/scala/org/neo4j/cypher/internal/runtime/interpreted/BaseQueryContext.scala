@@ -95,6 +95,8 @@ abstract class BaseQueryContext extends QueryContext {
 
   override def getNodesByLabelPrimitive(id: Int): LongIterator = notSupported()
 
+  override def getRelationshipsByType(id: Int): Iterator[RelationshipValue] = notSupported()
+
   override def getOrCreateFromSchemaState[K, V](key: K, creator: => V): V = notSupported()
 
   override def createNodeKeyConstraint(descriptor: IndexDescriptor): Boolean = notSupported()
@@ -146,6 +146,8 @@ abstract class DelegatingQueryContext(val inner: QueryContext) extends QueryCont
 
   override def getNodesByLabelPrimitive(id: Int): LongIterator = manyDbHits(inner.getNodesByLabelPrimitive(id))
 
+  override def getRelationshipsByType(id: Int): Iterator[RelationshipValue] = manyDbHits(inner.getRelationshipsByType(id))
+
   override def nodeAsMap(id: Long): MapValue = {
     val map = inner.nodeAsMap(id)
     //one hit finding the node, then finding the properies
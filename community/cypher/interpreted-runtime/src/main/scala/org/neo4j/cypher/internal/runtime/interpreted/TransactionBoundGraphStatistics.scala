@@ -21,8 +21,11 @@ package org.neo4j.cypher.internal.runtime.interpreted
 
 import org.neo4j.cypher.internal.planner.v3_5.spi.{GraphStatistics, IndexDescriptor, StatisticsCompletingGraphStatistics}
 import org.neo4j.internal.kernel.api.exceptions.schema.IndexNotFoundKernelException
+import org.neo4j.cypher.internal.v3_5.logical.plans.Bound
 import org.neo4j.internal.kernel.api.{Read, SchemaRead}
 import org.neo4j.kernel.impl.query.TransactionalContext
+import org.neo4j.storageengine.api.schema.IndexHistogram
+import org.neo4j.values.storable.Values
 import org.opencypher.v9_0.util.{Cardinality, LabelId, RelTypeId, Selectivity}
 
 object TransactionBoundGraphStatistics {
@@ -64,6 +67,34 @@ object TransactionBoundGraphStatistics {
         case e: IndexNotFoundKernelException => None
       }
 
+    override def indexRangeSelectivity(index: IndexDescriptor, lower: Option[Bound[Any]], upper: Option[Bound[Any]]): Option[Selectivity] =
+      if (lower.isEmpty && upper.isEmpty) None
+      else histogramSelectivity(index) {
+        _.rangeSelectivity(
+          lower.map(bound => Values.of(bound.endPoint.asInstanceOf[AnyRef])).orNull, lower.exists(_.isInclusive),
+          upper.map(bound => Values.of(bound.endPoint.asInstanceOf[AnyRef])).orNull, upper.exists(_.isInclusive))
+      }
+
+    override def indexPrefixSelectivity(index: IndexDescriptor, prefix: String): Option[Selectivity] =
+      histogramSelectivity(index)(_.prefixSelectivity(prefix))
+
+    /*
+        The histogram gives the ratio of index entries matching a predicate, which is scaled to the probability
+        of any node with the label to match it like in indexPropertyExistsSelectivity.
+     */
+    private def histogramSelectivity(index: IndexDescriptor)(ratioOfEntries: IndexHistogram => Double): Option[Selectivity] =
+      try {
+        val reference = schemaRead.indexReferenceUnchecked(index.label, index.properties.map(_.id):_*)
+        Option(schemaRead.indexHistogram(reference)).flatMap { histogram =>
+          val labeledNodes = read.countsForNodeWithoutTxState( index.label ).toDouble
+          val indexSize = schemaRead.indexSize(reference)
+          Selectivity.of(math.min(1.0, ratioOfEntries(histogram) * indexSize / labeledNodes))
+        }
+      }
+      catch {
+        case _: IndexNotFoundKernelException => None
+      }
+
     def nodesWithLabelCardinality(labelId: Option[LabelId]): Cardinality =
       atLeastOne(read.countsForNodeWithoutTxState(labelId))
 
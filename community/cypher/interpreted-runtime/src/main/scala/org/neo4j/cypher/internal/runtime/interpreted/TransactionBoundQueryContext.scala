@@ -453,6 +453,22 @@ sealed class TransactionBoundQueryContext(val transactionalContext: Transactiona
     }
   }
 
+  override def getRelationshipsByType(id: Int): Iterator[RelationshipValue] = {
+    val cursor = allocateAndTraceRelationshipTypeIndexCursor()
+    reads().relationshipTypeIndexScan(id, cursor)
+    new CursorIterator[RelationshipValue] {
+      override protected def fetchNext(): RelationshipValue = {
+        if (cursor.next())
+          fromRelationshipProxy(entityAccessor.newRelationshipProxy(cursor.relationshipReference(),
+                                                                    cursor.sourceNodeReference(), cursor.`type`(),
+                                                                    cursor.targetNodeReference()))
+        else null
+      }
+
+      override protected def close(): Unit = cursor.close()
+    }
+  }
+
   override def nodeGetOutgoingDegree(node: Long): Int = {
     val cursor = allocateNodeCursor()
     try {
@@ -1080,6 +1096,12 @@ sealed class TransactionBoundQueryContext(val transactionalContext: Transactiona
     cursor
   }
 
+  private def allocateAndTraceRelationshipTypeIndexCursor() = {
+    val cursor = transactionalContext.cursors.allocateRelationshipTypeIndexCursor()
+    resources.trace(cursor)
+    cursor
+  }
+
   private def allocateAndTracePropertyCursor() = {
     val cursor = transactionalContext.cursors.allocatePropertyCursor()
     resources.trace(cursor)
@@ -156,6 +156,8 @@ trait QueryContextAdaptation {
 
   override def getNodesByLabelPrimitive(id: Int): LongIterator = ???
 
+  override def getRelationshipsByType(id: Int): scala.Iterator[RelationshipValue] = ???
+
   override def lockingUniqueIndexSeek[RESULT](index: IndexReference,
                                               resultCreator: ResultCreator[RESULT],
                                               values: Seq[IndexQuery.ExactPredicate]): Option[RESULT] = ???
@@ -19,6 +19,7 @@
  */
 package org.neo4j.cypher.internal.planner.v3_5.spi
 
+import org.neo4j.cypher.internal.v3_5.logical.plans.Bound
 import org.opencypher.v9_0.util.{Cardinality, LabelId, RelTypeId, Selectivity}
 
 object GraphStatistics {
@@ -62,6 +63,22 @@ trait GraphStatistics {
       indexPropertyExistsSelectivity(:X, prop) = s => |MATCH (a:X)| * s = |MATCH (a:X) WHERE has(x.prop)|
    */
   def indexPropertyExistsSelectivity(index: IndexDescriptor): Option[Selectivity]
+
+  /*
+      Probability of any node with the given label, to have a given property with a value within the given range,
+      estimated from a histogram of the values in the index. End points are literal numbers or strings, None means unbounded.
+
+      indexRangeSelectivity(:X, prop, lower, upper) = s => |MATCH (a:X)| * s = |MATCH (a:X) WHERE lower < x.prop < upper|
+   */
+  def indexRangeSelectivity(index: IndexDescriptor, lower: Option[Bound[Any]], upper: Option[Bound[Any]]): Option[Selectivity] = None
+
+  /*
+      Probability of any node with the given label, to have a given property with a string value starting with the prefix,
+      estimated from a histogram of the values in the index.
+
+      indexPrefixSelectivity(:X, prop, prefix) = s => |MATCH (a:X)| * s = |MATCH (a:X) WHERE x.prop STARTS WITH prefix|
+   */
+  def indexPrefixSelectivity(index: IndexDescriptor, prefix: String): Option[Selectivity] = None
 }
 
 class DelegatingGraphStatistics(delegate: GraphStatistics) extends GraphStatistics {
@@ -77,6 +94,12 @@ class DelegatingGraphStatistics(delegate: GraphStatistics) extends GraphStatisti
   override def indexPropertyExistsSelectivity(index: IndexDescriptor): Option[Selectivity] =
     delegate.indexPropertyExistsSelectivity(index)
 
+  override def indexRangeSelectivity(index: IndexDescriptor, lower: Option[Bound[Any]], upper: Option[Bound[Any]]): Option[Selectivity] =
+    delegate.indexRangeSelectivity(index, lower, upper)
+
+  override def indexPrefixSelectivity(index: IndexDescriptor, prefix: String): Option[Selectivity] =
+    delegate.indexPrefixSelectivity(index, prefix)
+
   override def nodesAllCardinality(): Cardinality = delegate.nodesAllCardinality()
 }
 
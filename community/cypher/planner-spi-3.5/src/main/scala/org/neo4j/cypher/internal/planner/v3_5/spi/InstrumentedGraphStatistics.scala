@@ -21,6 +21,7 @@ package org.neo4j.cypher.internal.planner.v3_5.spi
 
 import java.lang.Math.{abs, max}
 
+import org.neo4j.cypher.internal.v3_5.logical.plans.Bound
 import org.opencypher.v9_0.util.{Cardinality, LabelId, RelTypeId, Selectivity}
 
 import scala.collection.mutable
@@ -31,6 +32,8 @@ case object NodesAllCardinality extends StatisticsKey
 case class CardinalityByLabelsAndRelationshipType(lhs: Option[LabelId], relType: Option[RelTypeId], rhs: Option[LabelId]) extends StatisticsKey
 case class IndexSelectivity(index: IndexDescriptor) extends StatisticsKey
 case class IndexPropertyExistsSelectivity(index: IndexDescriptor) extends StatisticsKey
+case class IndexRangeSelectivity(index: IndexDescriptor, lower: Option[Bound[Any]], upper: Option[Bound[Any]]) extends StatisticsKey
+case class IndexPrefixSelectivity(index: IndexDescriptor, prefix: String) extends StatisticsKey
 
 class MutableGraphStatisticsSnapshot(val map: mutable.Map[StatisticsKey, Double] = mutable.Map.empty) {
   def freeze: GraphStatisticsSnapshot = GraphStatisticsSnapshot(map.toMap)
@@ -52,6 +55,10 @@ case class GraphStatisticsSnapshot(statsValues: Map[StatisticsKey, Double] = Map
         instrumented.indexSelectivity(index)
       case IndexPropertyExistsSelectivity(index) =>
         instrumented.indexPropertyExistsSelectivity(index)
+      case IndexRangeSelectivity(index, lower, upper) =>
+        instrumented.indexRangeSelectivity(index, lower, upper)
+      case IndexPrefixSelectivity(index, prefix) =>
+        instrumented.indexPrefixSelectivity(index, prefix)
     }
     snapshot.freeze
   }
@@ -97,5 +104,17 @@ case class InstrumentedGraphStatistics(inner: GraphStatistics, snapshot: Mutable
     selectivity
   }
 
+  override def indexRangeSelectivity(index: IndexDescriptor, lower: Option[Bound[Any]], upper: Option[Bound[Any]]): Option[Selectivity] = {
+    val selectivity = inner.indexRangeSelectivity(index, lower, upper)
+    snapshot.map.getOrElseUpdate(IndexRangeSelectivity(index, lower, upper), selectivity.fold(0.0)(_.factor))
+    selectivity
+  }
+
+  override def indexPrefixSelectivity(index: IndexDescriptor, prefix: String): Option[Selectivity] = {
+    val selectivity = inner.indexPrefixSelectivity(index, prefix)
+    snapshot.map.getOrElseUpdate(IndexPrefixSelectivity(index, prefix), selectivity.fold(0.0)(_.factor))
+    selectivity
+  }
+
   override def nodesAllCardinality(): Cardinality = snapshot.map.getOrElseUpdate(NodesAllCardinality, inner.nodesAllCardinality().amount)
 }
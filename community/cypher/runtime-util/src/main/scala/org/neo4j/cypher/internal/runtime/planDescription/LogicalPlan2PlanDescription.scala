@@ -24,7 +24,7 @@ import org.neo4j.cypher.internal.runtime.planDescription.InternalPlanDescription
 import org.neo4j.cypher.internal.v3_5.logical.plans
 import org.neo4j.cypher.internal.v3_5.logical.plans._
 import org.opencypher.v9_0.expressions.functions.Point
-import org.opencypher.v9_0.expressions.{FunctionInvocation, FunctionName, LabelToken, MapExpression, Namespace, PropertyKeyToken, Expression => ASTExpression}
+import org.opencypher.v9_0.expressions.{FunctionInvocation, FunctionName, LabelToken, MapExpression, Namespace, PropertyKeyToken, SemanticDirection, Expression => ASTExpression}
 import org.opencypher.v9_0.frontend.PlannerName
 import org.opencypher.v9_0.util.InternalException
 
@@ -117,6 +117,14 @@ case class LogicalPlan2PlanDescription(readOnly: Boolean, cardinalities: Cardina
       case _: UndirectedRelationshipByIdSeek =>
         PlanDescriptionImpl(id, "UndirectedRelationshipByIdSeek", NoChildren, Seq.empty, variables)
 
+      case DirectedRelationshipTypeScan(idName, startNode, typ, endNode, _) =>
+        val expression = ExpandExpression(startNode, idName, Seq(typ.name), endNode, SemanticDirection.OUTGOING, 1, Some(1))
+        PlanDescriptionImpl(id, "DirectedRelationshipTypeScan", NoChildren, Seq(expression), variables)
+
+      case UndirectedRelationshipTypeScan(idName, leftNode, typ, rightNode, _) =>
+        val expression = ExpandExpression(leftNode, idName, Seq(typ.name), rightNode, SemanticDirection.BOTH, 1, Some(1))
+        PlanDescriptionImpl(id, "UndirectedRelationshipTypeScan", NoChildren, Seq(expression), variables)
+
       case _: CreateIndex =>
         PlanDescriptionImpl(id, "CreateIndex", NoChildren, Seq.empty, variables)
 
@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.cursor.RawCursor;
+import org.neo4j.index.internal.gbptree.TreeNode.Overflow;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+
+import static java.lang.String.format;
+import static org.neo4j.index.internal.gbptree.PageCursorUtil.checkOutOfBounds;
+
+/**
+ * Builds a tree bottom-up from keys and values arriving in strictly ascending order, as opposed to inserting
+ * them one by one from the root.
+ * <p>
+ * Leaves are filled one at a time, left to right, until the next entry doesn't fit or would fill the leaf past
+ * {@link #LEAF_FILL_FACTOR}, which leaves room in every leaf for later inserts without splitting it right away.
+ * Internal nodes are filled completely, since they only change when a child splits. Every time a new leaf is started
+ * its splitter key and id is handed to the level above, which is filled the same way. Each level keeps a cursor
+ * on its rightmost node, so the nodes of a level are written in order, each node completely before the next one,
+ * and the tree never needs to be searched or split. A new level is added on top when the current top level needs
+ * a second node. Once the source is exhausted the only node on the top level is the new root.
+ * <p>
+ * All nodes are created in the unstable generation, exactly like nodes created by a regular writer.
+ */
+class BulkLoader<KEY,VALUE>
+{
+    /**
+     * Part of the space of a leaf which is filled before starting the next one.
+     */
+    static final double LEAF_FILL_FACTOR = 0.9;
+
+    private final PagedFile pagedFile;
+    private final TreeNode<KEY,VALUE> bTreeNode;
+    private final Layout<KEY,VALUE> layout;
+    private final IdProvider idProvider;
+    private final long stableGeneration;
+    private final long unstableGeneration;
+    private final KEY previousKey;
+    private final KEY splitter;
+    private final List<Level> levels = new ArrayList<>();
+
+    BulkLoader( PagedFile pagedFile, TreeNode<KEY,VALUE> bTreeNode, Layout<KEY,VALUE> layout, IdProvider idProvider,
+            long stableGeneration, long unstableGeneration )
+    {
+        this.pagedFile = pagedFile;
+        this.bTreeNode = bTreeNode;
+        this.layout = layout;
+        this.idProvider = idProvider;
+        this.stableGeneration = stableGeneration;
+        this.unstableGeneration = unstableGeneration;
+        this.previousKey = layout.newKey();
+        this.splitter = layout.newKey();
+    }
+
+    /**
+     * Builds a tree from all entries in {@code source}.
+     *
+     * @param source entries to build the tree from, in strictly ascending key order.
+     * @return id of the root of the built tree, or {@link TreeNode#NO_NODE_FLAG} if {@code source} was empty.
+     * @throws IOException on error reading from {@code source} or writing to the tree.
+     * @throws IllegalArgumentException if {@code source} isn't in strictly ascending key order.
+     */
+    long load( RawCursor<Hit<KEY,VALUE>,IOException> source ) throws IOException
+    {
+        try
+        {
+            while ( source.next() )
+            {
+                Hit<KEY,VALUE> hit = source.get();
+                append( hit.key(), hit.value() );
+            }
+            return levels.isEmpty() ? TreeNode.NO_NODE_FLAG : levels.get( levels.size() - 1 ).nodeId;
+        }
+        finally
+        {
+            for ( Level level : levels )
+            {
+                level.cursor.close();
+            }
+        }
+    }
+
+    private void append( KEY key, VALUE value ) throws IOException
+    {
+        bTreeNode.validateKeyValueSize( key, value );
+        Level leaf;
+        if ( levels.isEmpty() )
+        {
+            leaf = newLevel( TreeNode.Type.LEAF );
+        }
+        else
+        {
+            leaf = levels.get( 0 );
+            if ( layout.compare( previousKey, key ) >= 0 )
+            {
+                throw new IllegalArgumentException(
+                        format( "Keys must be bulk loaded in strictly ascending order, but got %s after %s", key, previousKey ) );
+            }
+
+            Overflow overflow = bTreeNode.leafOverflow( leaf.cursor, leaf.keyCount, key, value );
+            if ( overflow == Overflow.YES ||
+                 leaf.keyCount > 0 && bTreeNode.leafFilledPast( leaf.cursor, leaf.keyCount, key, value, LEAF_FILL_FACTOR ) )
+            {
+                layout.minimalSplitter( previousKey, key, splitter );
+                long newLeafId = leaf.moveToNewNode();
+                addToLevel( 1, splitter, newLeafId );
+            }
+            else if ( overflow == Overflow.NO_NEED_DEFRAG )
+            {
+                bTreeNode.defragmentLeaf( leaf.cursor );
+            }
+        }
+
+        bTreeNode.insertKeyValueAt( leaf.cursor, key, value, leaf.keyCount, leaf.keyCount );
+        leaf.setKeyCount( leaf.keyCount + 1 );
+        checkOutOfBounds( leaf.cursor );
+        layout.copyKey( key, previousKey );
+    }
+
+    /**
+     * Adds {@code key} and its right child {@code rightChild} to the rightmost node of the internal level at
+     * {@code levelIndex}, starting a new node, and possibly a new level, if it doesn't fit.
+     */
+    private void addToLevel( int levelIndex, KEY key, long rightChild ) throws IOException
+    {
+        if ( levelIndex == levels.size() )
+        {
+            Level levelBelow = levels.get( levelIndex - 1 );
+            Level newTopLevel = newLevel( TreeNode.Type.INTERNAL );
+            bTreeNode.setChildAt( newTopLevel.cursor, levelBelow.firstNodeId, 0, stableGeneration, unstableGeneration );
+        }
+
+        Level level = levels.get( levelIndex );
+        Overflow overflow = bTreeNode.internalOverflow( level.cursor, level.keyCount, key );
+        if ( overflow == Overflow.YES )
+        {
+            // The key goes to the level above instead, to separate the current node from the new one
+            long newNodeId = level.moveToNewNode();
+            bTreeNode.setChildAt( level.cursor, rightChild, 0, stableGeneration, unstableGeneration );
+            checkOutOfBounds( level.cursor );
+            addToLevel( levelIndex + 1, key, newNodeId );
+            return;
+        }
+        if ( overflow == Overflow.NO_NEED_DEFRAG )
+        {
+            bTreeNode.defragmentInternal( level.cursor );
+        }
+
+        bTreeNode.insertKeyAndRightChildAt( level.cursor, key, rightChild, level.keyCount, level.keyCount,
+                stableGeneration, unstableGeneration );
+        level.setKeyCount( level.keyCount + 1 );
+        checkOutOfBounds( level.cursor );
+    }
+
+    private Level newLevel( TreeNode.Type type ) throws IOException
+    {
+        Level level = new Level( type, pagedFile.io( 0L /*ignored*/, PagedFile.PF_SHARED_WRITE_LOCK ) );
+        levels.add( level );
+        level.moveToNewNode();
+        level.firstNodeId = level.nodeId;
+        return level;
+    }
+
+    private class Level
+    {
+        private final TreeNode.Type type;
+        private final PageCursor cursor;
+        private long firstNodeId = TreeNode.NO_NODE_FLAG;
+        private long nodeId = TreeNode.NO_NODE_FLAG;
+        private int keyCount;
+
+        Level( TreeNode.Type type, PageCursor cursor )
+        {
+            this.type = type;
+            this.cursor = cursor;
+        }
+
+        /**
+         * Leaves the current node, if any, linked to a new empty node which becomes the rightmost node of this level.
+         *
+         * @return id of the new node.
+         */
+        long moveToNewNode() throws IOException
+        {
+            long previousNodeId = nodeId;
+            long newNodeId = idProvider.acquireNewId( stableGeneration, unstableGeneration );
+            if ( previousNodeId != TreeNode.NO_NODE_FLAG )
+            {
+                TreeNode.setRightSibling( cursor, newNodeId, stableGeneration, unstableGeneration );
+            }
+
+            PageCursorUtil.goTo( cursor, "new " + type + " node", newNodeId );
+            if ( type == TreeNode.Type.LEAF )
+            {
+                bTreeNode.initializeLeaf( cursor, stableGeneration, unstableGeneration );
+            }
+            else
+            {
+                bTreeNode.initializeInternal( cursor, stableGeneration, unstableGeneration );
+            }
+            if ( previousNodeId != TreeNode.NO_NODE_FLAG )
+            {
+                TreeNode.setLeftSibling( cursor, previousNodeId, stableGeneration, unstableGeneration );
+            }
+            nodeId = newNodeId;
+            keyCount = 0;
+            return newNodeId;
+        }
+
+        void setKeyCount( int keyCount )
+        {
+            this.keyCount = keyCount;
+            TreeNode.setKeyCount( cursor, keyCount );
+        }
+    }
+}
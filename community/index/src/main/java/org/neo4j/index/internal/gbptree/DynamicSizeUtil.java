@@ -80,6 +80,11 @@ import static org.neo4j.index.internal.gbptree.PageCursorUtil.putUnsignedShort;
  * key entry - [keyValueSize 1B-2B|actualKey]
  * key_value entry - [keyValueSize 1B-4B|actualKey|actualValue]
  *
+ * Leaves with a prefix, see {@link TreeNodeDynamicSize}, have one additional byte in every key_value entry,
+ * telling how many leading bytes of the key are shared with the prefix of the node. Those bytes are not stored in
+ * the entry and the key size only covers the remaining suffix of the key.
+ * key_value entry - [keyValueSize 1B-4B|sharedPrefixLength 1B|keySuffix|actualValue]
+ *
  * Tombstone
  * First bit in keyValueSize is used as a tombstone, set to 1 if key is dead.
  */
@@ -89,6 +94,7 @@ class DynamicSizeUtil
     static final int SIZE_KEY_SIZE = 2;
     static final int SIZE_VALUE_SIZE = 2;
     static final int SIZE_TOTAL_OVERHEAD = SIZE_OFFSET + SIZE_KEY_SIZE + SIZE_VALUE_SIZE;
+    static final int SIZE_SHARED_PREFIX_LENGTH = 1;
 
     private static final int FLAG_FIRST_BYTE_TOMBSTONE = 0x80;
     private static final long FLAG_READ_TOMBSTONE = 0x80000000_00000000L;
@@ -116,6 +122,16 @@ class DynamicSizeUtil
         return getUnsignedShort( cursor );
     }
 
+    static void putSharedPrefixLength( PageCursor cursor, int sharedPrefixLength )
+    {
+        cursor.putByte( (byte) sharedPrefixLength );
+    }
+
+    static int readSharedPrefixLength( PageCursor cursor )
+    {
+        return cursor.getByte() & 0xFF;
+    }
+
     static void putKeySize( PageCursor cursor, int keySize )
     {
         putKeyValueSize( cursor, keySize, 0 );
@@ -19,8 +19,11 @@
  */
 package org.neo4j.index.internal.gbptree;
 
+import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.tuple.Pair;
+import org.eclipse.collections.api.list.primitive.MutableLongList;
 import org.eclipse.collections.api.set.primitive.MutableLongSet;
+import org.eclipse.collections.impl.list.mutable.primitive.LongArrayList;
 import org.eclipse.collections.impl.set.mutable.primitive.LongHashSet;
 
 import java.io.Closeable;
@@ -29,14 +32,24 @@ import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
 import java.nio.file.NoSuchFileException;
+import java.nio.file.OpenOption;
 import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Consumer;
 import java.util.function.LongSupplier;
 import java.util.function.Supplier;
 
 import org.neo4j.cursor.RawCursor;
 import org.neo4j.helpers.Exceptions;
+import org.neo4j.index.internal.gbptree.InternalTreeLogic.LeafChange;
+import org.neo4j.io.IOUtils;
 import org.neo4j.io.pagecache.IOLimiter;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.PageCursor;
@@ -52,6 +65,7 @@ import static org.neo4j.index.internal.gbptree.Header.CARRY_OVER_PREVIOUS_HEADER
 import static org.neo4j.index.internal.gbptree.Header.replace;
 import static org.neo4j.index.internal.gbptree.PageCursorUtil.checkOutOfBounds;
 import static org.neo4j.index.internal.gbptree.PointerChecking.assertNoSuccessor;
+import static org.neo4j.index.internal.gbptree.TreeNode.Type.INTERNAL;
 
 /**
  * A generation-aware B+tree (GB+Tree) implementation directly atop a {@link PageCache} with no caching in between.
@@ -77,6 +91,9 @@ import static org.neo4j.index.internal.gbptree.PointerChecking.assertNoSuccessor
  * <p>
  * A single writer w/ multiple concurrent readers is supported. Assuming usage adheres to this
  * constraint neither writer nor readers are blocking. Readers are virtually garbage-free.
+ * Alternatively multiple {@link #parallelWriter() parallel writers} can modify the tree concurrently,
+ * as long as their changes fit in the leaves they belong to, see {@link #parallelWriter()}.
+ * An empty tree can also be {@link #bulkLoad(RawCursor) bulk loaded} bottom-up from entries in sorted order.
  * <p>
  * An reader of GB+Tree is a {@link SeekCursor} that returns result as it finds them.
  * As the cursor move over keys/values, returned results are considered "behind" it
@@ -242,6 +259,8 @@ public class GBPTree<KEY,VALUE> implements Closeable
     {
     };
 
+    private static final int LEAF_LATCH_STRIPES = 1024;
+
     /**
      * Paged file in a {@link PageCache} providing the means of storage.
      */
@@ -271,11 +290,34 @@ public class GBPTree<KEY,VALUE> implements Closeable
      */
     private final FreeListIdProvider freeList;
 
+    /**
+     * Format of the tree nodes in this tree, used for creating {@link TreeNode} instances for parallel writers.
+     */
+    private final TreeNodeSelector.Factory treeNodeFormat;
+
     /**
      * A single instance {@link Writer} because tree only supports single writer.
      */
     private final SingleWriter writer;
 
+    /**
+     * {@link ParallelWriter Parallel writers} that have been closed, and can be handed out again.
+     */
+    private final ConcurrentLinkedQueue<ParallelWriter> idleParallelWriters = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Guards the structure of the tree between {@link ParallelWriter parallel writers}. Changes that only touch a
+     * single leaf are made under the read lock, with that leaf latched in {@link #leafLatches}.
+     * Changes to the structure of the tree, e.g. splits, merges, successors and new roots, are made under the write lock.
+     */
+    private final ReentrantReadWriteLock structureLock = new ReentrantReadWriteLock();
+
+    /**
+     * Latches of leaves changed by {@link ParallelWriter parallel writers} under the read lock of {@link #structureLock},
+     * striped by tree node id.
+     */
+    private final Lock[] leafLatches = newLeafLatches();
+
     /**
      * Tells whether or not there have been made changes (using {@link #writer()}) to this tree
      * since last call to {@link #checkpoint(IOLimiter)}. This variable is set when calling {@link #writer()}
@@ -446,6 +488,35 @@ public class GBPTree<KEY,VALUE> implements Closeable
     public GBPTree( PageCache pageCache, File indexFile, Layout<KEY,VALUE> layout, int tentativePageSize,
             Monitor monitor, Header.Reader headerReader, Consumer<PageCursor> headerWriter,
             RecoveryCleanupWorkCollector recoveryCleanupWorkCollector ) throws MetadataMismatchException
+    {
+        this( pageCache, indexFile, layout, tentativePageSize, monitor, headerReader, headerWriter,
+                recoveryCleanupWorkCollector, new OpenOption[0] );
+    }
+
+    /**
+     * Opens an index {@code indexFile} in the {@code pageCache}, creating and initializing it if it doesn't exist,
+     * like {@link #GBPTree(PageCache, File, Layout, int, Monitor, Header.Reader, Consumer, RecoveryCleanupWorkCollector)},
+     * but maps the index file with the given additional {@link OpenOption open options}, e.g. to give the index file
+     * a reservation in the page cache.
+     *
+     * @param pageCache {@link PageCache} to use to map index file
+     * @param indexFile {@link File} containing the actual index
+     * @param layout {@link Layout} to use in the tree, this must match the existing layout
+     * we're just opening the index
+     * @param tentativePageSize page size, i.e. tree node size. Must be less than or equal to that of the page cache.
+     * A pageSize of {@code 0} means to use whatever the page cache has (at creation)
+     * @param monitor {@link Monitor} for monitoring {@link GBPTree}.
+     * @param headerReader reads header data, previously written using {@link #checkpoint(IOLimiter, Consumer)}
+     * or {@link #close()}
+     * @param headerWriter writes header data if indexFile is created as a result of this call.
+     * @param recoveryCleanupWorkCollector collects recovery cleanup jobs for execution after recovery.
+     * @param openOptions additional {@link OpenOption open options} to map the index file with.
+     * @throws UncheckedIOException on page cache error
+     * @throws MetadataMismatchException if meta information does not match constructor parameters or meta page is missing
+     */
+    public GBPTree( PageCache pageCache, File indexFile, Layout<KEY,VALUE> layout, int tentativePageSize,
+            Monitor monitor, Header.Reader headerReader, Consumer<PageCursor> headerWriter,
+            RecoveryCleanupWorkCollector recoveryCleanupWorkCollector, OpenOption... openOptions ) throws MetadataMismatchException
     {
         this.indexFile = indexFile;
         this.monitor = monitor;
@@ -456,7 +527,7 @@ public class GBPTree<KEY,VALUE> implements Closeable
 
         try
         {
-            this.pagedFile = openOrCreate( pageCache, indexFile, tentativePageSize );
+            this.pagedFile = openOrCreate( pageCache, indexFile, tentativePageSize, openOptions );
             this.pageSize = pagedFile.pageSize();
             closed = false;
             TreeNodeSelector.Factory format;
@@ -471,6 +542,7 @@ public class GBPTree<KEY,VALUE> implements Closeable
                 meta.verify( layout );
                 format = TreeNodeSelector.selectByFormat( meta.getFormatIdentifier(), meta.getFormatVersion() );
             }
+            this.treeNodeFormat = format;
             this.bTreeNode = format.create( pageSize, layout );
             this.freeList = new FreeListIdProvider( pagedFile, pageSize, rootId, FreeListIdProvider.NO_MONITOR );
             this.writer = new SingleWriter( new InternalTreeLogic<>( freeList, bTreeNode, layout ) );
@@ -546,21 +618,22 @@ public class GBPTree<KEY,VALUE> implements Closeable
     }
 
     private PagedFile openOrCreate( PageCache pageCache, File indexFile,
-            int pageSizeForCreation ) throws IOException, MetadataMismatchException
+            int pageSizeForCreation, OpenOption... openOptions ) throws IOException, MetadataMismatchException
     {
         try
         {
-            return openExistingIndexFile( pageCache, indexFile );
+            return openExistingIndexFile( pageCache, indexFile, openOptions );
         }
         catch ( NoSuchFileException e )
         {
-            return createNewIndexFile( pageCache, indexFile, pageSizeForCreation );
+            return createNewIndexFile( pageCache, indexFile, pageSizeForCreation, openOptions );
         }
     }
 
-    private static PagedFile openExistingIndexFile( PageCache pageCache, File indexFile ) throws IOException, MetadataMismatchException
+    private static PagedFile openExistingIndexFile( PageCache pageCache, File indexFile, OpenOption... openOptions )
+            throws IOException, MetadataMismatchException
     {
-        PagedFile pagedFile = pageCache.map( indexFile, pageCache.pageSize() );
+        PagedFile pagedFile = pageCache.map( indexFile, pageCache.pageSize(), openOptions );
         // This index already exists, verify meta data aligns with expectations
 
         boolean success = false;
@@ -568,7 +641,7 @@ public class GBPTree<KEY,VALUE> implements Closeable
         {
             // We're only interested in the page size really, so don't involve layout at this point
             Meta meta = readMeta( null, pagedFile );
-            pagedFile = mapWithCorrectPageSize( pageCache, indexFile, pagedFile, meta.getPageSize() );
+            pagedFile = mapWithCorrectPageSize( pageCache, indexFile, pagedFile, meta.getPageSize(), openOptions );
             success = true;
             return pagedFile;
         }
@@ -585,7 +658,8 @@ public class GBPTree<KEY,VALUE> implements Closeable
         }
     }
 
-    private PagedFile createNewIndexFile( PageCache pageCache, File indexFile, int pageSizeForCreation ) throws IOException
+    private PagedFile createNewIndexFile( PageCache pageCache, File indexFile, int pageSizeForCreation, OpenOption... openOptions )
+            throws IOException
     {
         // First time
         monitor.noStoreFile();
@@ -599,7 +673,7 @@ public class GBPTree<KEY,VALUE> implements Closeable
         }
 
         // We need to create this index
-        PagedFile pagedFile = pageCache.map( indexFile, pageSize, StandardOpenOption.CREATE );
+        PagedFile pagedFile = pageCache.map( indexFile, pageSize, ArrayUtils.add( openOptions, StandardOpenOption.CREATE ) );
         created = true;
         return pagedFile;
     }
@@ -638,9 +712,33 @@ public class GBPTree<KEY,VALUE> implements Closeable
      */
     public static void readHeader( PageCache pageCache, File indexFile, Header.Reader headerReader )
             throws IOException, MetadataMismatchException
+    {
+        readHeader( pageCache, indexFile, null, headerReader );
+    }
+
+    /**
+     * Like {@link #readHeader(PageCache, File, Header.Reader)}, but also verifies that the index was created with a {@link Layout}
+     * and tree node format compatible with {@code layout}. This tells whether or not the index can be opened with that layout
+     * without actually opening it.
+     *
+     * @param pageCache {@link PageCache} to use to map index file
+     * @param indexFile {@link File} containing the actual index
+     * @param layout {@link Layout} the index is expected to have been created with, or {@code null} to skip verification.
+     * @param headerReader reads header data, previously written using {@link #checkpoint(IOLimiter, Consumer)}
+     * or {@link #close()}
+     * @throws IOException On page cache error
+     * @throws MetadataMismatchException if some meta page is missing (tree not fully initialized) or if the index was
+     * created with a layout or format not compatible with {@code layout}.
+     */
+    public static void readHeader( PageCache pageCache, File indexFile, Layout<?,?> layout, Header.Reader headerReader )
+            throws IOException, MetadataMismatchException
     {
         try ( PagedFile pagedFile = openExistingIndexFile( pageCache, indexFile ) )
         {
+            if ( layout != null )
+            {
+                readMeta( layout, pagedFile ).verify( layout );
+            }
             Pair<TreeState,TreeState> states = loadStatePages( pagedFile );
             TreeState state = TreeStatePair.selectNewestValidState( states );
             try ( PageCursor cursor = pagedFile.io( state.pageId(), PagedFile.PF_SHARED_READ_LOCK ) )
@@ -801,8 +899,8 @@ public class GBPTree<KEY,VALUE> implements Closeable
         }
     }
 
-    private static PagedFile mapWithCorrectPageSize( PageCache pageCache, File indexFile, PagedFile pagedFile, int pageSize )
-            throws IOException
+    private static PagedFile mapWithCorrectPageSize( PageCache pageCache, File indexFile, PagedFile pagedFile, int pageSize,
+            OpenOption... openOptions ) throws IOException
     {
         // This index was created with another page size, re-open with that actual page size
         if ( pageSize != pageCache.pageSize() )
@@ -815,7 +913,7 @@ public class GBPTree<KEY,VALUE> implements Closeable
                         pageSize, pageCache.pageSize() );
             }
             pagedFile.close();
-            return pageCache.map( indexFile, pageSize );
+            return pageCache.map( indexFile, pageSize, openOptions );
         }
         return pagedFile;
     }
@@ -872,6 +970,182 @@ public class GBPTree<KEY,VALUE> implements Closeable
                 exceptionDecorator, SeekCursor.DEFAULT_MAX_READ_AHEAD );
     }
 
+    /**
+     * Seeks hits in this tree like {@link #seek(Object, Object)}, but splits the key range into roughly
+     * {@code desiredNumberOfPartitions} sub-ranges, each one seeked by its own {@link RawCursor}.
+     * Together the returned seekers see the same hits as a single seek over the whole range would.
+     * They are independent of each other and can be used from different threads, so that a range can be read in parallel.
+     * <p>
+     * The sub-ranges are bounded by keys from internal nodes, taken from the level closest to the root that has enough
+     * of them within the range, which makes them roughly equal in size. There will be fewer partitions than desired
+     * if the tree is too small or the range too narrow. Only ascending ranges are partitioned; a descending range
+     * gets a single seeker.
+     *
+     * @param fromInclusive lower bound of the range to seek (inclusive).
+     * @param toExclusive higher bound of the range to seek (exclusive).
+     * @param desiredNumberOfPartitions number of partitions to split the range into, if there are enough keys to do so.
+     * @return seekers of the partitions in key order, at least one.
+     * @throws IOException on error reading from index.
+     */
+    public List<RawCursor<Hit<KEY,VALUE>,IOException>> partitionedSeek( KEY fromInclusive, KEY toExclusive, int desiredNumberOfPartitions )
+            throws IOException
+    {
+        if ( desiredNumberOfPartitions < 1 )
+        {
+            throw new IllegalArgumentException( "Need at least one partition, but got " + desiredNumberOfPartitions );
+        }
+
+        List<KEY> splitters = desiredNumberOfPartitions > 1 && layout.compare( fromInclusive, toExclusive ) < 0
+                              ? partitionSplitters( fromInclusive, toExclusive, desiredNumberOfPartitions - 1 )
+                              : Collections.emptyList();
+        List<RawCursor<Hit<KEY,VALUE>,IOException>> seekers = new ArrayList<>( splitters.size() + 1 );
+        try
+        {
+            KEY from = fromInclusive;
+            for ( KEY splitter : splitters )
+            {
+                seekers.add( seek( from, splitter ) );
+                from = splitter;
+            }
+            seekers.add( seek( from, toExclusive ) );
+            return seekers;
+        }
+        catch ( IOException | RuntimeException e )
+        {
+            IOUtils.closeAllSilently( seekers );
+            throw e;
+        }
+    }
+
+    /**
+     * Finds keys to split {@code [fromInclusive, toExclusive)} at, reading internal nodes one level at a time from the root.
+     * Stops at the first level that has at least {@code numberOfSplitters} keys within the range, or at the last internal level.
+     * Nodes are read optimistically, like {@link SeekCursor} does, but since the keys only serve as boundaries between seekers
+     * a concurrent change in the tree can only make the partitions less even, never miss or duplicate hits.
+     */
+    private List<KEY> partitionSplitters( KEY fromInclusive, KEY toExclusive, int numberOfSplitters ) throws IOException
+    {
+        long generation = this.generation;
+        long stableGeneration = stableGeneration( generation );
+        long unstableGeneration = unstableGeneration( generation );
+
+        List<KEY> splitters = new ArrayList<>();
+        try ( PageCursor cursor = pagedFile.io( 0L /*ignored*/, PagedFile.PF_SHARED_READ_LOCK ) )
+        {
+            root.goTo( cursor );
+            MutableLongList level = new LongArrayList();
+            level.add( cursor.getCurrentPageId() );
+            while ( splitters.size() < numberOfSplitters && !level.isEmpty() )
+            {
+                List<KEY> levelKeys = new ArrayList<>();
+                MutableLongList children = new LongArrayList();
+                for ( int i = 0; i < level.size(); i++ )
+                {
+                    if ( !readInternalNodeInRange( cursor, level.get( i ), fromInclusive, toExclusive, levelKeys, children,
+                            stableGeneration, unstableGeneration ) )
+                    {
+                        // Reached the leaves, keep the keys from the level above
+                        return evenlySpaced( splitters, numberOfSplitters );
+                    }
+                }
+                splitters = levelKeys;
+                level = children;
+            }
+        }
+        return evenlySpaced( splitters, numberOfSplitters );
+    }
+
+    /**
+     * Reads the internal node {@code nodeId}, adding the keys that are within {@code (fromInclusive, toExclusive)} to {@code keys}
+     * and the children whose key ranges overlap {@code [fromInclusive, toExclusive)} to {@code children}.
+     *
+     * @return {@code true} if the node was read, or {@code false} if it's a leaf or isn't a valid internal node anymore.
+     */
+    private boolean readInternalNodeInRange( PageCursor cursor, long nodeId, KEY fromInclusive, KEY toExclusive, List<KEY> keys,
+            MutableLongList children, long stableGeneration, long unstableGeneration ) throws IOException
+    {
+        TreeNode.goTo( cursor, "internal node when partitioning seek", nodeId );
+        List<KEY> nodeKeys = new ArrayList<>();
+        MutableLongList nodeChildren = new LongArrayList();
+        boolean isInternal;
+        do
+        {
+            nodeKeys.clear();
+            nodeChildren.clear();
+            int keyCount = TreeNode.keyCount( cursor );
+            isInternal = TreeNode.nodeType( cursor ) == TreeNode.NODE_TYPE_TREE_NODE && TreeNode.isInternal( cursor ) &&
+                    bTreeNode.reasonableKeyCount( keyCount );
+            for ( int pos = 0; isInternal && pos <= keyCount; pos++ )
+            {
+                if ( pos < keyCount )
+                {
+                    nodeKeys.add( bTreeNode.keyAt( cursor, layout.newKey(), pos, INTERNAL ) );
+                }
+                nodeChildren.add( bTreeNode.childAt( cursor, pos, stableGeneration, unstableGeneration ) );
+            }
+        }
+        while ( cursor.shouldRetry() );
+        checkOutOfBounds( cursor );
+        cursor.checkAndClearCursorException();
+        if ( !isInternal )
+        {
+            return false;
+        }
+
+        int keyCount = nodeKeys.size();
+        for ( int pos = 0; pos <= keyCount; pos++ )
+        {
+            // Child at pos holds the keys in [key(pos-1), key(pos))
+            boolean startsBeforeTo = pos == 0 || layout.compare( nodeKeys.get( pos - 1 ), toExclusive ) < 0;
+            boolean endsAfterFrom = pos == keyCount || layout.compare( nodeKeys.get( pos ), fromInclusive ) > 0;
+            if ( startsBeforeTo && endsAfterFrom )
+            {
+                long child = nodeChildren.get( pos );
+                if ( !GenerationSafePointerPair.isSuccess( child ) )
+                {
+                    return false;
+                }
+                children.add( GenerationSafePointerPair.pointer( child ) );
+            }
+            if ( pos < keyCount )
+            {
+                KEY key = nodeKeys.get( pos );
+                if ( layout.compare( key, fromInclusive ) > 0 && layout.compare( key, toExclusive ) < 0 )
+                {
+                    keys.add( key );
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return at most {@code count} distinct keys, evenly spaced among the given keys and in sort order.
+     */
+    private List<KEY> evenlySpaced( List<KEY> keys, int count )
+    {
+        // Nodes read concurrently with changes may have yielded keys out of order
+        keys.sort( layout );
+        List<KEY> distinct = new ArrayList<>( keys.size() );
+        for ( KEY key : keys )
+        {
+            if ( distinct.isEmpty() || layout.compare( distinct.get( distinct.size() - 1 ), key ) < 0 )
+            {
+                distinct.add( key );
+            }
+        }
+        if ( distinct.size() <= count )
+        {
+            return distinct;
+        }
+        List<KEY> spaced = new ArrayList<>( count );
+        for ( int i = 1; i <= count; i++ )
+        {
+            spaced.add( distinct.get( i * (distinct.size() + 1) / (count + 1) - 1 ) );
+        }
+        return spaced;
+    }
+
     /**
      * Checkpoints and flushes any pending changes to storage. After a successful call to this method
      * the data is durable and safe. {@link #writer() Changes} made after this call and until crashing or
@@ -1033,11 +1307,135 @@ public class GBPTree<KEY,VALUE> implements Closeable
         return writer;
     }
 
+    /**
+     * Returns a {@link Writer} able to modify the index, i.e. insert and remove keys/values, in parallel with other
+     * writers returned from this method. After usage the returned writer must be closed, typically by using
+     * try-with-resource clause.
+     * <p>
+     * Changes that fit in the leaf they belong to are made with only that leaf latched, so parallel writers changing
+     * different leaves don't wait for each other. Changes that change the structure of the tree, i.e. splits, merges
+     * and new generations of tree nodes, are made one at a time while all other parallel writers wait.
+     * <p>
+     * Parallel writers exclude the {@link #writer() single writer}, and a {@link #checkpoint(IOLimiter) checkpoint}
+     * waits for all parallel writers to be closed.
+     *
+     * @return a {@link Writer} for this index, which can be used at the same time as other parallel writers.
+     * The returned writer must be {@link Writer#close() closed}.
+     * @throws IOException on error accessing the index.
+     */
+    public Writer<KEY,VALUE> parallelWriter() throws IOException
+    {
+        assertRecoveryCleanSuccessful();
+        ParallelWriter parallelWriter = idleParallelWriters.poll();
+        if ( parallelWriter == null )
+        {
+            parallelWriter = new ParallelWriter();
+        }
+        parallelWriter.initialize();
+        changesSinceLastCheckpoint = true;
+        return parallelWriter;
+    }
+
+    /**
+     * Fills this empty tree with all entries from {@code source}, which must come in strictly ascending key order.
+     * The tree is built bottom-up, leaf by leaf and level by level, writing every tree node once and sequentially,
+     * which is much faster than inserting the same entries one by one through a {@link Writer}.
+     * <p>
+     * The new entries become visible to readers at once, when the built tree replaces the empty root.
+     * Bulk loading excludes all writers and checkpoints, and so must not be called while holding a writer.
+     *
+     * @param source entries to fill this tree with, in strictly ascending key order. Its {@link Hit} instances
+     * are not held on to.
+     * @throws IOException on error reading from {@code source} or accessing the index.
+     * @throws IllegalStateException if this tree isn't empty.
+     * @throws IllegalArgumentException if {@code source} isn't in strictly ascending key order.
+     */
+    public void bulkLoad( RawCursor<Hit<KEY,VALUE>,IOException> source ) throws IOException
+    {
+        assertRecoveryCleanSuccessful();
+        lock.writerLock();
+        try
+        {
+            long generation = this.generation;
+            long stableGeneration = stableGeneration( generation );
+            long unstableGeneration = unstableGeneration( generation );
+            long emptyRootId;
+            try ( PageCursor cursor = openRootCursor( PagedFile.PF_SHARED_WRITE_LOCK ) )
+            {
+                if ( !TreeNode.isLeaf( cursor ) || TreeNode.keyCount( cursor ) != 0 )
+                {
+                    throw new IllegalStateException( "Can only bulk load into an empty tree" );
+                }
+                emptyRootId = cursor.getCurrentPageId();
+            }
+
+            changesSinceLastCheckpoint = true;
+            BulkLoader<KEY,VALUE> bulkLoader =
+                    new BulkLoader<>( pagedFile, bTreeNode, layout, freeList, stableGeneration, unstableGeneration );
+            long rootId = bulkLoader.load( source );
+            if ( rootId != TreeNode.NO_NODE_FLAG )
+            {
+                setRoot( rootId, unstableGeneration );
+                freeList.releaseId( stableGeneration, unstableGeneration, emptyRootId );
+            }
+        }
+        catch ( Throwable t )
+        {
+            appendTreeInformation( t );
+            throw t;
+        }
+        finally
+        {
+            lock.writerUnlock();
+        }
+    }
+
     private void setRoot( long rootId, long rootGeneration )
     {
         this.root = new Root( rootId, rootGeneration );
     }
 
+    private static Lock[] newLeafLatches()
+    {
+        Lock[] latches = new Lock[LEAF_LATCH_STRIPES];
+        for ( int i = 0; i < latches.length; i++ )
+        {
+            latches[i] = new ReentrantLock();
+        }
+        return latches;
+    }
+
+    /**
+     * Handles structure changes that have propagated all the way up to the root of the tree, i.e. a split of the root
+     * or a new generation of the root.
+     */
+    private void handleStructureChanges( PageCursor cursor, InternalTreeLogic<KEY,VALUE> treeLogic,
+            StructurePropagation<KEY> structurePropagation, long stableGeneration, long unstableGeneration )
+            throws IOException
+    {
+        if ( structurePropagation.hasRightKeyInsert )
+        {
+            // New root
+            long newRootId = freeList.acquireNewId( stableGeneration, unstableGeneration );
+            PageCursorUtil.goTo( cursor, "new root", newRootId );
+
+            bTreeNode.initializeInternal( cursor, stableGeneration, unstableGeneration );
+            bTreeNode.setChildAt( cursor, structurePropagation.midChild, 0,
+                    stableGeneration, unstableGeneration );
+            bTreeNode.insertKeyAndRightChildAt( cursor, structurePropagation.rightKey, structurePropagation.rightChild, 0, 0,
+                    stableGeneration, unstableGeneration );
+            TreeNode.setKeyCount( cursor, 1 );
+            setRoot( newRootId, unstableGeneration );
+            treeLogic.initialize( cursor );
+        }
+        else if ( structurePropagation.hasMidChildUpdate )
+        {
+            setRoot( GenerationSafePointerPair.pointer( structurePropagation.midChild ), unstableGeneration );
+            treeLogic.initialize( cursor );
+        }
+        structurePropagation.clear();
+    }
+
     /**
      * Bump unstable generation, increasing the gap between stable and unstable generation. All pointers and tree nodes
      * with generation in this gap are considered to be 'crashed' and will be cleaned up by {@link CleanupJob}
@@ -1270,7 +1668,7 @@ public class GBPTree<KEY,VALUE> implements Closeable
                 treeLogic.insert( cursor, structurePropagation, key, value, valueMerger,
                         stableGeneration, unstableGeneration );
 
-                handleStructureChanges();
+                handleStructureChanges( cursor, treeLogic, structurePropagation, stableGeneration, unstableGeneration );
             }
             catch ( IOException e )
             {
@@ -1286,13 +1684,6 @@ public class GBPTree<KEY,VALUE> implements Closeable
             checkOutOfBounds( cursor );
         }
 
-        private void setRoot( long rootPointer )
-        {
-            long rootId = GenerationSafePointerPair.pointer( rootPointer );
-            GBPTree.this.setRoot( rootId, unstableGeneration );
-            treeLogic.initialize( cursor );
-        }
-
         @Override
         public VALUE remove( KEY key )
         {
@@ -1302,7 +1693,7 @@ public class GBPTree<KEY,VALUE> implements Closeable
                 result = treeLogic.remove( cursor, structurePropagation, key, layout.newValue(),
                         stableGeneration, unstableGeneration );
 
-                handleStructureChanges();
+                handleStructureChanges( cursor, treeLogic, structurePropagation, stableGeneration, unstableGeneration );
             }
             catch ( IOException e )
             {
@@ -1319,29 +1710,6 @@ public class GBPTree<KEY,VALUE> implements Closeable
             return result;
         }
 
-        private void handleStructureChanges() throws IOException
-        {
-            if ( structurePropagation.hasRightKeyInsert )
-            {
-                // New root
-                long newRootId = freeList.acquireNewId( stableGeneration, unstableGeneration );
-                PageCursorUtil.goTo( cursor, "new root", newRootId );
-
-                bTreeNode.initializeInternal( cursor, stableGeneration, unstableGeneration );
-                bTreeNode.setChildAt( cursor, structurePropagation.midChild, 0,
-                        stableGeneration, unstableGeneration );
-                bTreeNode.insertKeyAndRightChildAt( cursor, structurePropagation.rightKey, structurePropagation.rightChild, 0, 0,
-                        stableGeneration, unstableGeneration );
-                TreeNode.setKeyCount( cursor, 1 );
-                setRoot( newRootId );
-            }
-            else if ( structurePropagation.hasMidChildUpdate )
-            {
-                setRoot( structurePropagation.midChild );
-            }
-            structurePropagation.clear();
-        }
-
         @Override
         public void close()
         {
@@ -1364,6 +1732,216 @@ public class GBPTree<KEY,VALUE> implements Closeable
         }
     }
 
+    /**
+     * A {@link Writer} which can be used at the same time as other parallel writers, see {@link #parallelWriter()}.
+     * <p>
+     * Every change starts from the root, since other parallel writers may have changed the structure of the tree
+     * since the previous change. The change is first tried under the read lock of {@link #structureLock}, with only
+     * the target leaf latched. If that leaf would need to be split, merged, rebalanced or get a successor, the leaf is
+     * left untouched and the change is instead made by the regular insert/remove logic under the write lock.
+     */
+    private class ParallelWriter implements Writer<KEY,VALUE>
+    {
+        private final InternalTreeLogic<KEY,VALUE> treeLogic;
+        private final StructurePropagation<KEY> structurePropagation;
+        private PageCursor cursor;
+
+        // Writer can't live past a checkpoint because of the mutex with checkpoint,
+        // therefore safe to locally cache these generation fields from the volatile generation in the tree
+        private long stableGeneration;
+        private long unstableGeneration;
+
+        ParallelWriter()
+        {
+            // Tree nodes keep scratch state for some of their operations, so every parallel writer needs its own
+            this.treeLogic = new InternalTreeLogic<>( freeList, treeNodeFormat.create( pageSize, layout ), layout );
+            this.structurePropagation = new StructurePropagation<>( layout.newKey(), layout.newKey(), layout.newKey() );
+        }
+
+        void initialize() throws IOException
+        {
+            lock.parallelWriterLock();
+            boolean success = false;
+            try
+            {
+                cursor = pagedFile.io( 0L /*Ignored*/, PagedFile.PF_SHARED_WRITE_LOCK );
+                stableGeneration = stableGeneration( generation );
+                unstableGeneration = unstableGeneration( generation );
+                success = true;
+            }
+            catch ( Throwable e )
+            {
+                appendTreeInformation( e );
+                throw e;
+            }
+            finally
+            {
+                if ( !success )
+                {
+                    lock.parallelWriterUnlock();
+                }
+            }
+        }
+
+        @Override
+        public void put( KEY key, VALUE value )
+        {
+            merge( key, value, ValueMergers.overwrite() );
+        }
+
+        @Override
+        public void merge( KEY key, VALUE value, ValueMerger<KEY,VALUE> valueMerger )
+        {
+            try
+            {
+                LeafChange change;
+                structureLock.readLock().lock();
+                try
+                {
+                    Lock leafLatch = moveToLatchedLeaf( key );
+                    try
+                    {
+                        change = treeLogic.insertInLeafWithoutStructureChange( cursor, key, value, valueMerger,
+                                unstableGeneration );
+                    }
+                    finally
+                    {
+                        leafLatch.unlock();
+                    }
+                }
+                finally
+                {
+                    structureLock.readLock().unlock();
+                }
+
+                if ( change == LeafChange.STRUCTURE_CHANGE_NEEDED )
+                {
+                    structureLock.writeLock().lock();
+                    try
+                    {
+                        moveToRoot();
+                        treeLogic.insert( cursor, structurePropagation, key, value, valueMerger,
+                                stableGeneration, unstableGeneration );
+
+                        handleStructureChanges( cursor, treeLogic, structurePropagation, stableGeneration, unstableGeneration );
+                    }
+                    finally
+                    {
+                        structureLock.writeLock().unlock();
+                    }
+                }
+            }
+            catch ( IOException e )
+            {
+                appendTreeInformation( e );
+                throw new UncheckedIOException( e );
+            }
+            catch ( Throwable t )
+            {
+                appendTreeInformation( t );
+                throw t;
+            }
+
+            checkOutOfBounds( cursor );
+        }
+
+        @Override
+        public VALUE remove( KEY key )
+        {
+            VALUE result = layout.newValue();
+            try
+            {
+                LeafChange change;
+                structureLock.readLock().lock();
+                try
+                {
+                    Lock leafLatch = moveToLatchedLeaf( key );
+                    try
+                    {
+                        change = treeLogic.removeFromLeafWithoutStructureChange( cursor, key, result, unstableGeneration );
+                    }
+                    finally
+                    {
+                        leafLatch.unlock();
+                    }
+                }
+                finally
+                {
+                    structureLock.readLock().unlock();
+                }
+
+                if ( change == LeafChange.NOT_FOUND )
+                {
+                    result = null;
+                }
+                else if ( change == LeafChange.STRUCTURE_CHANGE_NEEDED )
+                {
+                    structureLock.writeLock().lock();
+                    try
+                    {
+                        moveToRoot();
+                        result = treeLogic.remove( cursor, structurePropagation, key, result,
+                                stableGeneration, unstableGeneration );
+
+                        handleStructureChanges( cursor, treeLogic, structurePropagation, stableGeneration, unstableGeneration );
+                    }
+                    finally
+                    {
+                        structureLock.writeLock().unlock();
+                    }
+                }
+            }
+            catch ( IOException e )
+            {
+                appendTreeInformation( e );
+                throw new UncheckedIOException( e );
+            }
+            catch ( Throwable e )
+            {
+                appendTreeInformation( e );
+                throw e;
+            }
+
+            checkOutOfBounds( cursor );
+            return result;
+        }
+
+        private void moveToRoot() throws IOException
+        {
+            root.goTo( cursor );
+            treeLogic.initialize( cursor );
+        }
+
+        /**
+         * Moves the cursor to the leaf where the given key belongs and latches that leaf.
+         * Must be called under the read lock of {@link #structureLock}, which keeps the leaf where it is.
+         *
+         * @return the latch of the leaf, which the caller must unlock.
+         */
+        private Lock moveToLatchedLeaf( KEY key ) throws IOException
+        {
+            moveToRoot();
+            treeLogic.moveToLeaf( cursor, key, stableGeneration, unstableGeneration );
+            Lock leafLatch = leafLatches[(int) (cursor.getCurrentPageId() & (LEAF_LATCH_STRIPES - 1))];
+            leafLatch.lock();
+            return leafLatch;
+        }
+
+        @Override
+        public void close()
+        {
+            if ( cursor == null )
+            {
+                throw new IllegalStateException( "Tried to close parallel writer of " + GBPTree.this +
+                        ", but writer is already closed." );
+            }
+            cursor.close();
+            cursor = null;
+            lock.parallelWriterUnlock();
+            idleParallelWriters.offer( this );
+        }
+    }
+
     public boolean wasDirtyOnStartup()
     {
         return dirtyOnStartup;
@@ -29,6 +29,9 @@ class GBPTreeLock
     private static final long stateOffset = UnsafeUtil.getFieldOffset( GBPTreeLock.class, "state" );
     private static final long writerLockBit = 0x00000000_00000001L;
     private static final long cleanerLockBit = 0x00000000_00000002L;
+    // Parallel writers share the writer lock, and are counted in the high 32 bits of the state
+    private static final long parallelWriterUnit = 0x00000001_00000000L;
+    private static final long parallelWriterMask = 0xFFFFFFFF_00000000L;
     private volatile long state;
 
     // Used for testing
@@ -49,6 +52,35 @@ class GBPTreeLock
         doUnlock( writerLockBit );
     }
 
+    void parallelWriterLock()
+    {
+        long currentState;
+        do
+        {
+            currentState = state;
+            while ( (currentState & writerLockBit) != 0 )
+            {
+                sleep();
+                currentState = state;
+            }
+        }
+        while ( !UnsafeUtil.compareAndSwapLong( this, stateOffset, currentState, currentState + parallelWriterUnit ) );
+    }
+
+    void parallelWriterUnlock()
+    {
+        long currentState;
+        do
+        {
+            currentState = state;
+            if ( (currentState & parallelWriterMask) == 0 )
+            {
+                throw new IllegalStateException( "Can not unlock parallel writer lock that is not locked" );
+            }
+        }
+        while ( !UnsafeUtil.compareAndSwapLong( this, stateOffset, currentState, currentState - parallelWriterUnit ) );
+    }
+
     void cleanerLock()
     {
         doLock( cleanerLockBit );
@@ -104,7 +136,9 @@ class GBPTreeLock
 
     private boolean canLock( long state, long targetLockBit )
     {
-        return (state & targetLockBit) == 0;
+        // The writer lock is exclusive, so it can not be taken while there are parallel writers
+        boolean parallelWritersBlock = (targetLockBit & writerLockBit) != 0 && (state & parallelWriterMask) != 0;
+        return (state & targetLockBit) == 0 && !parallelWritersBlock;
     }
 
     private boolean canUnlock( long state, long targetLockBit )
@@ -152,6 +152,27 @@ class InternalTreeLogic<KEY,VALUE>
         }
     }
 
+    /**
+     * Outcome of changing a leaf without changing the structure of the tree, see
+     * {@link #insertInLeafWithoutStructureChange(PageCursor, Object, Object, ValueMerger, long)} and
+     * {@link #removeFromLeafWithoutStructureChange(PageCursor, Object, Object, long)}.
+     */
+    enum LeafChange
+    {
+        /**
+         * The leaf was changed, or did not need to be changed.
+         */
+        DONE,
+        /**
+         * The key to remove did not exist in the leaf, so nothing was changed.
+         */
+        NOT_FOUND,
+        /**
+         * The change would have changed the structure of the tree, so nothing was changed.
+         */
+        STRUCTURE_CHANGE_NEEDED
+    }
+
     InternalTreeLogic( IdProvider idProvider, TreeNode<KEY,VALUE> bTreeNode, Layout<KEY,VALUE> layout )
     {
         this.idProvider = idProvider;
@@ -716,6 +737,116 @@ class InternalTreeLogic<KEY,VALUE>
         return into;
     }
 
+    /**
+     * Moves the cursor to the leaf where {@code key} belongs, without changing anything on the way.
+     * <p>
+     * Used together with {@link #insertInLeafWithoutStructureChange(PageCursor, Object, Object, ValueMerger, long)}
+     * and {@link #removeFromLeafWithoutStructureChange(PageCursor, Object, Object, long)} by writers that need to
+     * latch the leaf before changing it.
+     *
+     * @param cursor {@link PageCursor} pinned to root of tree (if first move since {@link #initialize(PageCursor)})
+     * or at where last insert/remove/move left it.
+     * @param key key to find the leaf for.
+     * @param stableGeneration stable generation, i.e. generations <= this generation are considered stable.
+     * @param unstableGeneration unstable generation, i.e. generation which is under development right now.
+     * @throws IOException on cursor failure
+     */
+    void moveToLeaf( PageCursor cursor, KEY key, long stableGeneration, long unstableGeneration ) throws IOException
+    {
+        assert cursorIsAtExpectedLocation( cursor );
+        moveToCorrectLeaf( cursor, key, stableGeneration, unstableGeneration );
+    }
+
+    /**
+     * Insert {@code key} and associate it with {@code value} in the leaf the cursor is at, but only if that can be
+     * done without changing the structure of the tree, i.e. without splitting the leaf or creating a successor of it.
+     * <p>
+     * Leaves cursor at same page as when called. No guarantees on offset.
+     *
+     * @param cursor {@link PageCursor} pinned to the leaf where {@code key} belongs, see
+     * {@link #moveToLeaf(PageCursor, Object, long, long)}.
+     * @param key key to be inserted
+     * @param value value to be associated with key
+     * @param valueMerger {@link ValueMerger} for deciding what to do with existing keys
+     * @param unstableGeneration unstable generation, i.e. generation which is under development right now.
+     * @return {@link LeafChange#DONE} if the key was inserted or merged, or
+     * {@link LeafChange#STRUCTURE_CHANGE_NEEDED} if the leaf was left untouched because the insert would need to
+     * change the structure of the tree.
+     */
+    LeafChange insertInLeafWithoutStructureChange( PageCursor cursor, KEY key, VALUE value,
+            ValueMerger<KEY,VALUE> valueMerger, long unstableGeneration )
+    {
+        bTreeNode.validateKeyValueSize( key, value );
+        int keyCount = TreeNode.keyCount( cursor );
+        int search = search( cursor, LEAF, key, readKey, keyCount );
+        int pos = positionOf( search );
+        if ( isHit( search ) )
+        {
+            bTreeNode.valueAt( cursor, readValue, pos );
+            VALUE mergedValue = valueMerger.merge( readKey, key, readValue, value );
+            if ( mergedValue == null )
+            {
+                return LeafChange.DONE;
+            }
+            if ( TreeNode.generation( cursor ) != unstableGeneration )
+            {
+                return LeafChange.STRUCTURE_CHANGE_NEEDED;
+            }
+            // Values that differ in size can not be overwritten in place, and may need to split or merge the leaf
+            return bTreeNode.setValueAt( cursor, mergedValue, pos ) ? LeafChange.DONE : LeafChange.STRUCTURE_CHANGE_NEEDED;
+        }
+
+        if ( TreeNode.generation( cursor ) != unstableGeneration )
+        {
+            return LeafChange.STRUCTURE_CHANGE_NEEDED;
+        }
+        Overflow overflow = bTreeNode.leafOverflow( cursor, keyCount, key, value );
+        if ( overflow == YES )
+        {
+            return LeafChange.STRUCTURE_CHANGE_NEEDED;
+        }
+        if ( overflow == NO_NEED_DEFRAG )
+        {
+            bTreeNode.defragmentLeaf( cursor );
+        }
+        bTreeNode.insertKeyValueAt( cursor, key, value, pos, keyCount );
+        TreeNode.setKeyCount( cursor, keyCount + 1 );
+        return LeafChange.DONE;
+    }
+
+    /**
+     * Remove given {@code key} and associated value from the leaf the cursor is at, but only if that can be done
+     * without changing the structure of the tree, i.e. without rebalancing or merging the leaf with its siblings or
+     * creating a successor of it. The removed value will be stored in provided {@code into}.
+     * <p>
+     * Leaves cursor at same page as when called. No guarantees on offset.
+     *
+     * @param cursor {@link PageCursor} pinned to the leaf where {@code key} belongs, see
+     * {@link #moveToLeaf(PageCursor, Object, long, long)}.
+     * @param key key to be removed
+     * @param into {@code VALUE} instance to write removed value to
+     * @param unstableGeneration unstable generation, i.e. generation which is under development right now.
+     * @return {@link LeafChange#DONE} if the key was removed, {@link LeafChange#NOT_FOUND} if the key does not exist,
+     * or {@link LeafChange#STRUCTURE_CHANGE_NEEDED} if the leaf was left untouched because the removal would need to
+     * change the structure of the tree.
+     */
+    LeafChange removeFromLeafWithoutStructureChange( PageCursor cursor, KEY key, VALUE into, long unstableGeneration )
+    {
+        int keyCount = TreeNode.keyCount( cursor );
+        int search = search( cursor, LEAF, key, readKey, keyCount );
+        if ( !isHit( search ) )
+        {
+            return LeafChange.NOT_FOUND;
+        }
+        int pos = positionOf( search );
+        if ( TreeNode.generation( cursor ) != unstableGeneration || bTreeNode.leafUnderflowAfterRemove( cursor, keyCount, pos ) )
+        {
+            return LeafChange.STRUCTURE_CHANGE_NEEDED;
+        }
+        simplyRemoveFromLeaf( cursor, into, keyCount, pos );
+        return LeafChange.DONE;
+    }
+
     private void handleStructureChanges( PageCursor cursor, StructurePropagation<KEY> structurePropagation,
             long stableGeneration, long unstableGeneration ) throws IOException
     {
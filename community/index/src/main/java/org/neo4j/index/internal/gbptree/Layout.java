@@ -110,6 +110,20 @@ public interface Layout<KEY, VALUE> extends Comparator<KEY>
      */
     boolean fixedSize();
 
+    /**
+     * Indicate if keys in leaves should be stored relative to a prefix shared by the keys in each leaf.
+     * This only applies to layouts that are not {@link #fixedSize() fixed size} and is only worthwhile if serialized
+     * keys, as written by {@link #writeKey(PageCursor, Object)}, that are close in sort order tend to start with the same bytes.
+     * Keys will be read from a separate cursor holding the whole key when this is enabled, so {@link #readKey(PageCursor, Object, int)}
+     * must only read from the cursor's current offset and forward.
+     *
+     * @return true if keys should be prefix compressed in leaves, otherwise false.
+     */
+    default boolean compressKeyPrefixes()
+    {
+        return false;
+    }
+
     /**
      * Find shortest key (best effort) that separate left from right in sort order
      * and initialize into with result.
@@ -319,6 +319,13 @@ abstract class TreeNode<KEY,VALUE>
      */
     abstract Overflow leafOverflow( PageCursor cursor, int currentKeyCount, KEY newKey, VALUE newValue );
 
+    /**
+     * Will leaf hold more than {@code fillFactor} of its space if inserting new key and value? Unlike
+     * {@link #leafOverflow(PageCursor, int, Object, Object)} this says nothing about whether the entry fits.
+     * @return true if leaf will be filled past {@code fillFactor}, else false.
+     */
+    abstract boolean leafFilledPast( PageCursor cursor, int currentKeyCount, KEY newKey, VALUE newValue, double fillFactor );
+
     /**
      * Clean page with leaf node from garbage to make room for further insert without having to split.
      */
@@ -331,6 +338,13 @@ abstract class TreeNode<KEY,VALUE>
 
     abstract boolean leafUnderflow( PageCursor cursor, int keyCount );
 
+    /**
+     * Will leaf underflow if removing the key and value at the given position?
+     * @param keyCount key count of the leaf before the removal.
+     * @return true if leaf will underflow, else false.
+     */
+    abstract boolean leafUnderflowAfterRemove( PageCursor cursor, int keyCount, int pos );
+
     /**
      * How do we best rebalance left and right leaf?
      * Can we move keys from underflowing left to right so that none of them underflow?
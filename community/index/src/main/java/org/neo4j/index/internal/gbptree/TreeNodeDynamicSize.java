@@ -26,12 +26,15 @@ import org.eclipse.collections.impl.stack.mutable.primitive.IntArrayStack;
 import java.util.Arrays;
 import java.util.StringJoiner;
 
+import org.neo4j.io.pagecache.ByteArrayPageCursor;
+import org.neo4j.io.pagecache.CursorException;
 import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.util.VisibleForTesting;
 
 import static java.lang.String.format;
 import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.SIZE_KEY_SIZE;
 import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.SIZE_OFFSET;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.SIZE_SHARED_PREFIX_LENGTH;
 import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.SIZE_TOTAL_OVERHEAD;
 import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.SIZE_VALUE_SIZE;
 import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.extractKeySize;
@@ -41,9 +44,11 @@ import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.getOverhead;
 import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.putKeyOffset;
 import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.putKeySize;
 import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.putKeyValueSize;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.putSharedPrefixLength;
 import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.putTombstone;
 import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.readKeyOffset;
 import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.readKeyValueSize;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.readSharedPrefixLength;
 import static org.neo4j.index.internal.gbptree.GenerationSafePointerPair.read;
 import static org.neo4j.index.internal.gbptree.PageCursorUtil.putUnsignedShort;
 import static org.neo4j.index.internal.gbptree.TreeNode.Type.INTERNAL;
@@ -64,11 +69,31 @@ import static org.neo4j.index.internal.gbptree.TreeNode.Type.LEAF;
  *  0         1     2           6         10            34           58         82           84          86
  *
  * See {@link DynamicSizeUtil} for more detailed layout for individual offset array entries and key / key_value entries.
+ *
+ * LEAF WITH PREFIX
+ * [                                   HEADER   86B                                                   ]|[KEY_OFFSETS]####[KEYS_VALUES][PREFIX][PREFIXLENGTH]
+ * [NODETYPE][TYPE][GENERATION][KEYCOUNT][RIGHTSIBLING][LEFTSIBLING][SUCCESSOR][ALLOCOFFSET][DEADSPACE]|[K0*,K1*,K2*]->  <-[KV0,KV2,KV1][PREFIX][PREFIXLENGTH]
+ *  0         1     2           6         10            34           58         82           84          86
+ *
+ * When the {@link Layout} asks for {@link Layout#compressKeyPrefixes() prefix compression} a leaf may store a node prefix
+ * at the very end of the page, followed by its length in the last byte of the page. The highest bit of DEADSPACE tells
+ * whether or not the leaf has a prefix. Every key_value entry of a leaf with a prefix only stores the part of its key that
+ * doesn't match that prefix. A leaf without a prefix looks exactly like a leaf of a tree that doesn't compress prefixes,
+ * so the key size cap is the same in both formats.
+ * Internal nodes never have a prefix, their keys are already kept short by {@link Layout#minimalSplitter(Object, Object, Object)}.
+ * The prefix of a leaf only changes when the whole leaf is rewritten, i.e. when it can be extended during defragmentation
+ * or when a better one is found after a split, rebalance or merge. Keys inserted in between are stored relative to the
+ * current prefix, sharing as much of it as they can.
+ * <p>
+ * A leaf with a prefix must always be possible to split in two, even though both halves need room for the prefix.
+ * Entries larger than {@link #largeEntrySpace} are therefore only let into such a leaf while it holds no other large entry
+ * and is less than half full, and other entries only while the leaf is at least {@link #prefixGuardSpace} from full.
  */
 public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
 {
     static final byte FORMAT_IDENTIFIER = 3;
     static final byte FORMAT_VERSION = 0;
+    static final byte FORMAT_VERSION_PREFIX_COMPRESSED = 1;
 
     /**
      * Concepts
@@ -88,10 +113,23 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
     private static final int BYTE_POS_ALLOCOFFSET = BASE_HEADER_LENGTH;
     private static final int BYTE_POS_DEADSPACE = BYTE_POS_ALLOCOFFSET + bytesPageOffset();
     private static final int HEADER_LENGTH_DYNAMIC = BYTE_POS_DEADSPACE + bytesPageOffset();
+    private static final int FLAG_HAS_PREFIX = 0x8000;
+    private static final int SIZE_PREFIX_LENGTH = Byte.BYTES;
+
+    /**
+     * Longest prefix a leaf can have, for large enough pages, see {@link #maxPrefixLength(int)}.
+     */
+    static final int MAX_PREFIX_LENGTH = 0x7F;
 
     private static final int LEAST_NUMBER_OF_ENTRIES_PER_PAGE = 2;
     private static final int MINIMUM_ENTRY_SIZE_CAP = Long.SIZE;
     private final int keyValueSizeCap;
+    private final boolean compressKeyPrefixes;
+    private final int maxPrefixLength;
+    // Entries taking more space than this, including their slot in the offset array, are large
+    private final int largeEntrySpace;
+    // Space a leaf with a prefix keeps free, unless it holds a large entry
+    private final int prefixGuardSpace;
     private final MutableIntStack deadKeysOffset = new IntArrayStack();
     private final MutableIntStack aliveKeysOffset = new IntArrayStack();
     private final int maxKeyCount = pageSize / (bytesKeyOffset() + SIZE_KEY_SIZE + SIZE_VALUE_SIZE);
@@ -102,11 +140,33 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
     private final KEY tmpKeyLeft;
     private final KEY tmpKeyRight;
 
+    // Scratch space used when writing to prefix compressed leaves
+    private final byte[] newKeyBytes;
+    private final PageCursor newKeyCursor;
+    private final byte[] keyBytes;
+    private final byte[] prefixBytes;
+    private final byte[] nodeCopy;
+    private final PageCursor nodeCopyCursor;
+    private final int[] entrySpace;
+    private final LeafSpace leafSpace;
+    private final LeafSpace leftLeafSpace;
+    // Readers share this instance, so keys they read from prefix compressed leaves are put together in buffers of their own
+    private final ThreadLocal<PrefixedKey> prefixedKeys;
+
     TreeNodeDynamicSize( int pageSize, Layout<KEY,VALUE> layout )
+    {
+        this( pageSize, layout, false );
+    }
+
+    TreeNodeDynamicSize( int pageSize, Layout<KEY,VALUE> layout, boolean compressKeyPrefixes )
     {
         super( pageSize, layout );
+        this.compressKeyPrefixes = compressKeyPrefixes;
+        maxPrefixLength = maxPrefixLength( pageSize );
         totalSpace = pageSize - HEADER_LENGTH_DYNAMIC;
         halfSpace = totalSpace / 2;
+        largeEntrySpace = halfSpace - maxPrefixLength - SIZE_PREFIX_LENGTH - SIZE_SHARED_PREFIX_LENGTH;
+        prefixGuardSpace = maxPrefixLength + SIZE_PREFIX_LENGTH + 2 * SIZE_SHARED_PREFIX_LENGTH;
         keyValueSizeCap = keyValueSizeCapFromPageSize( pageSize );
 
         if ( keyValueSizeCap < MINIMUM_ENTRY_SIZE_CAP )
@@ -116,9 +176,41 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
                             "with current page size of %dB. We require this cap to be at least %dB.",
                     LEAST_NUMBER_OF_ENTRIES_PER_PAGE, keyValueSizeCap, pageSize, Long.SIZE );
         }
+        if ( compressKeyPrefixes && pageSize > FLAG_HAS_PREFIX )
+        {
+            throw new MetadataMismatchException( "Prefix compressed leaves support page sizes up to %dB, but page size is %dB.",
+                    FLAG_HAS_PREFIX, pageSize );
+        }
 
         tmpKeyLeft = layout.newKey();
         tmpKeyRight = layout.newKey();
+
+        if ( compressKeyPrefixes )
+        {
+            newKeyBytes = new byte[pageSize];
+            newKeyCursor = ByteArrayPageCursor.wrap( newKeyBytes );
+            keyBytes = new byte[pageSize];
+            prefixBytes = new byte[MAX_PREFIX_LENGTH];
+            nodeCopy = new byte[pageSize];
+            nodeCopyCursor = ByteArrayPageCursor.wrap( nodeCopy );
+            entrySpace = new int[maxKeyCount + 1];
+            leafSpace = new LeafSpace();
+            leftLeafSpace = new LeafSpace();
+            prefixedKeys = ThreadLocal.withInitial( () -> new PrefixedKey( pageSize ) );
+        }
+        else
+        {
+            newKeyBytes = null;
+            newKeyCursor = null;
+            keyBytes = null;
+            prefixBytes = null;
+            nodeCopy = null;
+            nodeCopyCursor = null;
+            entrySpace = null;
+            leafSpace = null;
+            leftLeafSpace = null;
+            prefixedKeys = null;
+        }
     }
 
     @VisibleForTesting
@@ -127,11 +219,21 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         return (pageSize - HEADER_LENGTH_DYNAMIC) / LEAST_NUMBER_OF_ENTRIES_PER_PAGE - SIZE_TOTAL_OVERHEAD;
     }
 
+    /**
+     * Longest prefix a leaf can have with the given page size. Leaves with a prefix keep room for about one more prefix,
+     * see {@link #prefixGuardSpace}, so small pages get a shorter prefix to not waste too much of that space.
+     */
+    static int maxPrefixLength( int pageSize )
+    {
+        return Math.min( MAX_PREFIX_LENGTH, pageSize / 32 );
+    }
+
     @Override
     void writeAdditionalHeader( PageCursor cursor )
     {
         setAllocOffset( cursor, pageSize );
-        setDeadSpace( cursor, 0 );
+        // Also clears the prefix flag
+        putUnsignedShort( cursor, BYTE_POS_DEADSPACE, 0 );
     }
 
     @Override
@@ -148,7 +250,14 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
             readUnreliableKeyValueSize( cursor, keySize, valueSize, keyValueSize, pos );
             return into;
         }
-        layout.readKey( cursor, into, keySize );
+        if ( type == LEAF )
+        {
+            readLeafKey( cursor, into, keySize );
+        }
+        else
+        {
+            layout.readKey( cursor, into, keySize );
+        }
         return into;
     }
 
@@ -165,10 +274,55 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
             readUnreliableKeyValueSize( cursor, keySize, valueSize, keyValueSize, pos );
             return;
         }
-        layout.readKey( cursor, intoKey, keySize );
+        readLeafKey( cursor, intoKey, keySize );
         layout.readValue( cursor, intoValue, valueSize );
     }
 
+    /**
+     * Reads a key from a leaf entry, cursor placed right after its key value size. In leaves with a prefix
+     * the key is put together from the shared part of the node prefix and the suffix stored in the entry.
+     * Cursor is left right after the key, i.e. where the value starts.
+     */
+    private void readLeafKey( PageCursor cursor, KEY into, int keySize )
+    {
+        int prefixLength = getPrefixLength( cursor );
+        if ( prefixLength == 0 )
+        {
+            layout.readKey( cursor, into, keySize );
+            return;
+        }
+
+        int sharedPrefixLength = readSharedPrefixLength( cursor );
+        if ( sharedPrefixLength == 0 )
+        {
+            layout.readKey( cursor, into, keySize );
+            return;
+        }
+        if ( sharedPrefixLength > prefixLength || sharedPrefixLength + keySize > keyValueSizeCap )
+        {
+            cursor.setCursorException( format( "Read unreliable key, sharedPrefixLength=%d, prefixLength=%d, keySize=%d, keyValueSizeCap=%d",
+                    sharedPrefixLength, prefixLength, keySize, keyValueSizeCap ) );
+            return;
+        }
+
+        PrefixedKey prefixedKey = prefixedKeys.get();
+        int suffixOffset = cursor.getOffset();
+        cursor.setOffset( prefixOffset( prefixLength ) );
+        cursor.getBytes( prefixedKey.bytes, 0, sharedPrefixLength );
+        cursor.setOffset( suffixOffset );
+        cursor.getBytes( prefixedKey.bytes, sharedPrefixLength, keySize );
+        prefixedKey.cursor.setOffset( 0 );
+        layout.readKey( prefixedKey.cursor, into, sharedPrefixLength + keySize );
+        try
+        {
+            prefixedKey.cursor.checkAndClearCursorException();
+        }
+        catch ( CursorException e )
+        {
+            cursor.setCursorException( e.getMessage() );
+        }
+    }
+
     @Override
     void insertKeyAndRightChildAt( PageCursor cursor, KEY key, long child, int pos, int keyCount, long stableGeneration,
             long unstableGeneration )
@@ -196,6 +350,13 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
     @Override
     void insertKeyValueAt( PageCursor cursor, KEY key, VALUE value, int pos, int keyCount )
     {
+        int prefixLength = getPrefixLength( cursor );
+        if ( prefixLength > 0 )
+        {
+            insertPrefixedKeyValueAt( cursor, key, value, pos, keyCount, prefixLength );
+            return;
+        }
+
         // Where to write key?
         int currentKeyValueOffset = getAllocOffset( cursor );
         int keySize = layout.keySize( key );
@@ -217,6 +378,32 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         putKeyOffset( cursor, newKeyValueOffset );
     }
 
+    private void insertPrefixedKeyValueAt( PageCursor cursor, KEY key, VALUE value, int pos, int keyCount, int prefixLength )
+    {
+        // Where to write key?
+        int currentKeyValueOffset = getAllocOffset( cursor );
+        int keySize = serializeNewKey( key );
+        int sharedPrefixLength = sharedPrefixLength( cursor, prefixLength, newKeyBytes, keySize );
+        int suffixSize = keySize - sharedPrefixLength;
+        int valueSize = layout.valueSize( value );
+        int newKeyValueOffset = currentKeyValueOffset - suffixSize - valueSize - leafOverhead( suffixSize, valueSize, prefixLength );
+
+        // Write key suffix and value
+        cursor.setOffset( newKeyValueOffset );
+        putKeyValueSize( cursor, suffixSize, valueSize );
+        putSharedPrefixLength( cursor, sharedPrefixLength );
+        cursor.putBytes( newKeyBytes, sharedPrefixLength, suffixSize );
+        layout.writeValue( cursor, value );
+
+        // Update alloc space
+        setAllocOffset( cursor, newKeyValueOffset );
+
+        // Write to offset array
+        insertSlotsAt( cursor, pos, 1, keyCount, keyPosOffsetLeaf( 0 ), bytesKeyOffset() );
+        cursor.setOffset( keyPosOffsetLeaf( pos ) );
+        putKeyOffset( cursor, newKeyValueOffset );
+    }
+
     @Override
     void removeKeyValueAt( PageCursor cursor, int pos, int keyCount )
     {
@@ -231,7 +418,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
 
         // Update dead space
         int deadSpace = getDeadSpace( cursor );
-        setDeadSpace( cursor, deadSpace + keySize + valueSize + getOverhead( keySize, valueSize ) );
+        setDeadSpace( cursor, deadSpace + keySize + valueSize + leafOverhead( keySize, valueSize, getPrefixLength( cursor ) ) );
 
         // Remove from offset array
         removeSlotAt( cursor, pos, keyCount, keyPosOffsetLeaf( 0 ), bytesKeyOffset() );
@@ -318,7 +505,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
             readUnreliableKeyValueSize( cursor, keySize, valueSize, keyValueSize, pos );
             return into;
         }
-        progressCursor( cursor, keySize );
+        progressCursor( cursor, sharedPrefixSpace( getPrefixLength( cursor ) ) + keySize );
         layout.readValue( cursor, into, valueSize );
         return into;
     }
@@ -335,7 +522,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         if ( oldValueSize == newValueSize )
         {
             // Fine we can just overwrite
-            progressCursor( cursor, keySize );
+            progressCursor( cursor, sharedPrefixSpace( getPrefixLength( cursor ) ) + keySize );
             layout.writeValue( cursor, value );
             return true;
         }
@@ -419,6 +606,11 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         int deadSpace = getDeadSpace( cursor );
         int allocSpace = getAllocSpace( cursor, currentKeyCount, LEAF );
 
+        if ( compressKeyPrefixes )
+        {
+            return prefixCompressedLeafOverflow( cursor, currentKeyCount, newKey, newValue, allocSpace, deadSpace );
+        }
+
         // How much space do we need?
         int neededSpace = totalSpaceOfKeyValue( newKey, newValue );
 
@@ -427,9 +619,63 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
                neededSpace < allocSpace + deadSpace ? Overflow.NO_NEED_DEFRAG : Overflow.YES;
     }
 
+    @Override
+    boolean leafFilledPast( PageCursor cursor, int currentKeyCount, KEY newKey, VALUE newValue, double fillFactor )
+    {
+        int neededSpace = totalSpaceOfKeyValue( newKey, newValue );
+        return totalActiveSpace( cursor, currentKeyCount ) + neededSpace > totalSpace * fillFactor;
+    }
+
+    /**
+     * Like {@link #leafOverflow(PageCursor, int, Object, Object)}, but a leaf with a prefix must also be possible to split
+     * after the insert, see {@link #fitsInLeaf(int, int, int, int)}. Checking that exactly would mean going through all entries
+     * of the leaf on every insert, so the new entry is only let in if the leaf is guaranteed to fit it, which it is if either
+     * the new entry isn't large and the leaf stays {@link #prefixGuardSpace} from full, or the new entry is large and
+     * the leaf holds less than {@link #largeEntrySpace}.
+     */
+    private Overflow prefixCompressedLeafOverflow( PageCursor cursor, int keyCount, KEY newKey, VALUE newValue, int allocSpace, int deadSpace )
+    {
+        int prefixLength = getPrefixLength( cursor );
+        int keySize = serializeNewKey( newKey );
+        int valueSize = layout.valueSize( newValue );
+        int neededSpace = spaceOfKeyValue( keySize, sharedPrefixLength( cursor, prefixLength, newKeyBytes, keySize ), valueSize, prefixLength );
+
+        boolean fits = true;
+        if ( prefixLength > 0 )
+        {
+            int activeSpace = totalActiveSpace( cursor, keyCount );
+            fits = neededSpace > largeEntrySpace ? activeSpace <= largeEntrySpace : activeSpace + neededSpace <= totalSpace - prefixGuardSpace;
+        }
+        if ( fits && neededSpace < allocSpace )
+        {
+            return Overflow.NO;
+        }
+
+        int extendedPrefixLength = extendedPrefix( cursor, keyCount );
+        if ( extendedPrefixLength > prefixLength )
+        {
+            // Defragmentation will extend the prefix, leafSpace holds the space of the entries with the extended prefix
+            int sharedPrefixLength = commonPrefixLength( newKeyBytes, keySize, prefixBytes, extendedPrefixLength );
+            leafSpace.add( spaceOfKeyValue( keySize, sharedPrefixLength, valueSize, extendedPrefixLength ) );
+            return leafSpace.fitsIn( extendedPrefixLength ) ? Overflow.NO_NEED_DEFRAG : Overflow.YES;
+        }
+        return fits && neededSpace < allocSpace + deadSpace ? Overflow.NO_NEED_DEFRAG : Overflow.YES;
+    }
+
     @Override
     void defragmentLeaf( PageCursor cursor )
     {
+        if ( compressKeyPrefixes )
+        {
+            int keyCount = keyCount( cursor );
+            int prefixLength = extendedPrefix( cursor, keyCount );
+            if ( prefixLength > getPrefixLength( cursor ) )
+            {
+                // All keys share a longer prefix than the current one. Rewriting the leaf with it reclaims dead space too.
+                rewriteLeaf( cursor, keyCount, prefixBytes, prefixLength );
+                return;
+            }
+        }
         doDefragment( cursor, LEAF );
     }
 
@@ -493,7 +739,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         int oldOffsetCursor = 0;
         int newOffsetCursor = 0;
 
-        int aliveRangeOffset = pageSize; // Everything after this point is alive
+        int aliveRangeOffset = recordsEnd( cursor, type ); // Everything after this point is alive
         int deadRangeOffset; // Everything between this point and aliveRangeOffset is dead space
 
         // Rightmost alive keys does not need to move
@@ -598,9 +844,25 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         return availableSpace > halfSpace;
     }
 
+    @Override
+    boolean leafUnderflowAfterRemove( PageCursor cursor, int keyCount, int pos )
+    {
+        // The removed key and value would become dead space, and its slot in the offset array would become alloc space
+        int removedSpace = totalSpaceOfKeyValue( cursor, pos ) - bytesKeyOffset();
+        int allocSpace = getAllocSpace( cursor, keyCount - 1, LEAF );
+        int deadSpace = getDeadSpace( cursor );
+        int availableSpace = allocSpace + deadSpace + removedSpace;
+
+        return availableSpace > halfSpace;
+    }
+
     @Override
     int canRebalanceLeaves( PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int rightKeyCount )
     {
+        if ( compressKeyPrefixes )
+        {
+            return canRebalancePrefixCompressedLeaves( leftCursor, leftKeyCount, rightCursor, rightKeyCount );
+        }
         int leftActiveSpace = totalActiveSpace( leftCursor, leftKeyCount );
         int rightActiveSpace = totalActiveSpace( rightCursor, rightKeyCount );
 
@@ -639,22 +901,97 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         return canRebalance ? keysToMove : 0;
     }
 
+    /**
+     * Like {@link #canRebalanceLeaves(PageCursor, int, PageCursor, int)}, but entries moved to the right leaf are sized
+     * as they will be written there, i.e. relative to the prefix of the right leaf, which must still fit them.
+     */
+    private int canRebalancePrefixCompressedLeaves( PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int rightKeyCount )
+    {
+        if ( fitsInRightLeaf( leftCursor, 0, leftKeyCount, rightCursor, rightKeyCount ) )
+        {
+            // We can merge
+            return -1;
+        }
+
+        int leftActiveSpace = totalActiveSpace( leftCursor, leftKeyCount );
+        int rightPrefixLength = readReceivingPrefix( leftCursor, rightCursor, rightKeyCount, prefixBytes );
+        int rightActiveSpace = rightKeyCount == 0 ? prefixSpace( rightPrefixLength ) : totalActiveSpace( rightCursor, rightKeyCount );
+        if ( leftActiveSpace < rightActiveSpace )
+        {
+            // Moving keys to the right will only create more imbalance
+            return 0;
+        }
+
+        int prevDelta;
+        int currentDelta = Math.abs( leftActiveSpace - rightActiveSpace );
+        int keysToMove = 0;
+        int lastChunkSizeInLeft;
+        int lastChunkSizeInRight;
+        do
+        {
+            keysToMove++;
+            int pos = leftKeyCount - keysToMove;
+            lastChunkSizeInLeft = totalSpaceOfKeyValue( leftCursor, pos );
+            lastChunkSizeInRight = spaceOfKeyValueWithPrefix( leftCursor, pos, prefixBytes, rightPrefixLength );
+            leftActiveSpace -= lastChunkSizeInLeft;
+            rightActiveSpace += lastChunkSizeInRight;
+
+            prevDelta = currentDelta;
+            currentDelta = Math.abs( leftActiveSpace - rightActiveSpace );
+        }
+        while ( currentDelta < prevDelta && keysToMove < leftKeyCount );
+        keysToMove--; // Move back to optimal split
+        leftActiveSpace += lastChunkSizeInLeft;
+        rightActiveSpace -= lastChunkSizeInRight;
+
+        int halfSpace = this.halfSpace;
+        boolean canRebalance = leftActiveSpace > halfSpace && rightActiveSpace > halfSpace &&
+                fitsInRightLeaf( leftCursor, leftKeyCount - keysToMove, leftKeyCount, rightCursor, rightKeyCount );
+        return canRebalance ? keysToMove : 0;
+    }
+
     @Override
     boolean canMergeLeaves( PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int rightKeyCount )
     {
+        if ( compressKeyPrefixes )
+        {
+            return fitsInRightLeaf( leftCursor, 0, leftKeyCount, rightCursor, rightKeyCount );
+        }
         int leftActiveSpace = totalActiveSpace( leftCursor, leftKeyCount );
         int rightActiveSpace = totalActiveSpace( rightCursor, rightKeyCount );
         int totalSpace = this.totalSpace;
         return totalSpace >= leftActiveSpace + rightActiveSpace;
     }
 
+    /**
+     * Whether or not the right leaf would {@link #fitsInLeaf(int, int, int, int) fit} its own entries together with the entries
+     * {@code [fromPos, toPos)} of the left leaf, written relative to the prefix of the right leaf.
+     */
+    private boolean fitsInRightLeaf( PageCursor leftCursor, int fromPos, int toPos, PageCursor rightCursor, int rightKeyCount )
+    {
+        int rightPrefixLength = readReceivingPrefix( leftCursor, rightCursor, rightKeyCount, prefixBytes );
+        leafSpace.clear();
+        for ( int pos = fromPos; pos < toPos; pos++ )
+        {
+            leafSpace.add( spaceOfKeyValueWithPrefix( leftCursor, pos, prefixBytes, rightPrefixLength ) );
+        }
+        for ( int pos = 0; pos < rightKeyCount; pos++ )
+        {
+            leafSpace.add( totalSpaceOfKeyValue( rightCursor, pos ) );
+        }
+        return leafSpace.fitsIn( rightPrefixLength );
+    }
+
     @Override
     void doSplitLeaf( PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int insertPos, KEY newKey,
             VALUE newValue, KEY newSplitter )
     {
         // Find middle
         int keyCountAfterInsert = leftKeyCount + 1;
-        int middlePos = middlePosInLeaf( leftCursor, insertPos, newKey, newValue, keyCountAfterInsert );
+        int prefixLength = getPrefixLength( leftCursor );
+        int middlePos = prefixLength > 0 ?
+                        middlePosInPrefixedLeaf( leftCursor, prefixLength, insertPos, newKey, newValue, keyCountAfterInsert ) :
+                        middlePosInLeaf( leftCursor, insertPos, newKey, newValue, keyCountAfterInsert );
 
         KEY leftInSplit;
         KEY rightInSplit;
@@ -683,6 +1020,15 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
 
         int rightKeyCount = keyCountAfterInsert - middlePos;
 
+        // Right starts out with the same prefix as left so that entries can be moved as they are
+        if ( prefixLength > 0 )
+        {
+            int prefixOffset = prefixOffset( prefixLength );
+            leftCursor.copyTo( prefixOffset, rightCursor, prefixOffset, prefixSpace( prefixLength ) );
+            setPrefixFlag( rightCursor, true );
+            setAllocOffset( rightCursor, prefixOffset );
+        }
+
         if ( insertPos < middlePos )
         {
             //                  v-------v       copy
@@ -690,7 +1036,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
             // insert _,_,_,X,_,_,_,_,_,_,_
             // middle           ^
             moveKeysAndValues( leftCursor, middlePos - 1, rightCursor, 0, rightKeyCount );
-            defragmentLeaf( leftCursor );
+            doDefragment( leftCursor, LEAF );
             insertKeyValueAt( leftCursor, newKey, newValue, insertPos, middlePos - 1 );
         }
         else
@@ -705,11 +1051,13 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
             int newInsertPos = insertPos - middlePos;
             int keysToMove = leftKeyCount - middlePos;
             moveKeysAndValues( leftCursor, middlePos, rightCursor, 0, keysToMove );
-            defragmentLeaf( leftCursor );
+            doDefragment( leftCursor, LEAF );
             insertKeyValueAt( rightCursor, newKey, newValue, newInsertPos, keysToMove );
         }
         TreeNode.setKeyCount( leftCursor, middlePos );
         TreeNode.setKeyCount( rightCursor, rightKeyCount );
+        optimizePrefix( leftCursor, middlePos );
+        optimizePrefix( rightCursor, rightKeyCount );
     }
 
     @Override
@@ -793,7 +1141,9 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
     void moveKeyValuesFromLeftToRight( PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int rightKeyCount,
             int fromPosInLeftNode )
     {
-        defragmentLeaf( rightCursor );
+        // Only compact, the prefix of right must stay as it was when deciding to rebalance
+        doDefragment( rightCursor, LEAF );
+        adoptPrefixIfEmpty( leftCursor, rightCursor, rightKeyCount );
         int numberOfKeysToMove = leftKeyCount - fromPosInLeftNode;
 
         // Push keys and values in right sibling to the right
@@ -804,24 +1154,34 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
 
         // Right keyCount
         setKeyCount( rightCursor, rightKeyCount + numberOfKeysToMove );
+        optimizePrefix( leftCursor, fromPosInLeftNode );
+        optimizePrefix( rightCursor, rightKeyCount + numberOfKeysToMove );
     }
 
     // NOTE: Does update keyCount
     private void moveKeysAndValues( PageCursor fromCursor, int fromPos, PageCursor toCursor, int toPos, int count )
     {
-        int firstAllocOffset = getAllocOffset( toCursor );
-        int toAllocOffset = firstAllocOffset;
-        for ( int i = 0; i < count; i++, toPos++ )
+        int totalMovedBytes;
+        if ( samePrefix( fromCursor, toCursor ) )
         {
-            toAllocOffset = moveRawKeyValue( fromCursor, fromPos + i, toCursor, toAllocOffset );
-            toCursor.setOffset( keyPosOffsetLeaf( toPos ) );
-            putKeyOffset( toCursor, toAllocOffset );
+            int firstAllocOffset = getAllocOffset( toCursor );
+            int toAllocOffset = firstAllocOffset;
+            for ( int i = 0; i < count; i++, toPos++ )
+            {
+                toAllocOffset = moveRawKeyValue( fromCursor, fromPos + i, toCursor, toAllocOffset );
+                toCursor.setOffset( keyPosOffsetLeaf( toPos ) );
+                putKeyOffset( toCursor, toAllocOffset );
+            }
+            setAllocOffset( toCursor, toAllocOffset );
+            totalMovedBytes = firstAllocOffset - toAllocOffset;
+        }
+        else
+        {
+            totalMovedBytes = transferReEncodedKeysAndValues( fromCursor, fromPos, toCursor, toPos, count, true );
         }
-        setAllocOffset( toCursor, toAllocOffset );
 
         // Update deadspace
         int deadSpace = getDeadSpace( fromCursor );
-        int totalMovedBytes = firstAllocOffset - toAllocOffset;
         setDeadSpace( fromCursor, deadSpace + totalMovedBytes );
 
         // Key count
@@ -843,7 +1203,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         int valueSize = extractValueSize( keyValueSize );
 
         // Copy
-        int toCopy = getOverhead( keySize, valueSize ) + keySize + valueSize;
+        int toCopy = leafOverhead( keySize, valueSize, getPrefixLength( fromCursor ) ) + keySize + valueSize;
         int newRightAllocSpace = toAllocOffset - toCopy;
         fromCursor.copyTo( fromKeyOffset, toCursor, newRightAllocSpace, toCopy );
 
@@ -856,7 +1216,9 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
     @Override
     void copyKeyValuesFromLeftToRight( PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int rightKeyCount )
     {
-        defragmentLeaf( rightCursor );
+        // Only compact, the prefix of right must stay as it was when deciding to merge
+        doDefragment( rightCursor, LEAF );
+        adoptPrefixIfEmpty( leftCursor, rightCursor, rightKeyCount );
 
         // Push keys and values in right sibling to the right
         insertSlotsAt( rightCursor, 0, leftKeyCount, rightKeyCount, keyPosOffsetLeaf( 0 ), bytesKeyOffset() );
@@ -866,10 +1228,16 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
 
         // KeyCount
         setKeyCount( rightCursor, rightKeyCount + leftKeyCount );
+        optimizePrefix( rightCursor, rightKeyCount + leftKeyCount );
     }
 
     private void copyKeysAndValues( PageCursor fromCursor, int fromPos, PageCursor toCursor, int toPos, int count )
     {
+        if ( !samePrefix( fromCursor, toCursor ) )
+        {
+            transferReEncodedKeysAndValues( fromCursor, fromPos, toCursor, toPos, count, false );
+            return;
+        }
         int toAllocOffset = getAllocOffset( toCursor );
         for ( int i = 0; i < count; i++, toPos++ )
         {
@@ -895,12 +1263,385 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         int valueSize = extractValueSize( keyValueSize );
 
         // Copy
-        int toCopy = getOverhead( keySize, valueSize ) + keySize + valueSize;
+        int toCopy = leafOverhead( keySize, valueSize, getPrefixLength( fromCursor ) ) + keySize + valueSize;
         int newRightAllocSpace = toAllocOffset - toCopy;
         fromCursor.copyTo( fromKeyOffset, toCursor, newRightAllocSpace, toCopy );
         return newRightAllocSpace;
     }
 
+    /**
+     * Transfer keys and values between two leaves with different prefixes. Each entry is written relative to
+     * the prefix of 'to', next to current alloc offset in 'to'.
+     * @param move whether or not to mark transferred keys as dead in 'from'.
+     * @return number of bytes the transferred entries occupied in 'from'.
+     */
+    private int transferReEncodedKeysAndValues( PageCursor fromCursor, int fromPos, PageCursor toCursor, int toPos, int count, boolean move )
+    {
+        int fromPrefixLength = getPrefixLength( fromCursor );
+        int toPrefixLength = readPrefix( toCursor, prefixBytes );
+        int toAllocOffset = getAllocOffset( toCursor );
+        int transferredBytes = 0;
+        for ( int i = 0; i < count; i++, toPos++ )
+        {
+            placeCursorAtActualKey( fromCursor, fromPos + i, LEAF );
+            int fromKeyOffset = fromCursor.getOffset();
+            long keyValueSize = readKeyValueSize( fromCursor );
+            int fromSuffixSize = extractKeySize( keyValueSize );
+            int valueSize = extractValueSize( keyValueSize );
+            int keySize = readFullKey( fromCursor, fromPos + i, keyBytes );
+            int valueOffset = fromCursor.getOffset();
+            transferredBytes += leafOverhead( fromSuffixSize, valueSize, fromPrefixLength ) + fromSuffixSize + valueSize;
+
+            // Write relative to prefix of 'to'
+            int sharedPrefixLength = commonPrefixLength( keyBytes, keySize, prefixBytes, toPrefixLength );
+            int suffixSize = keySize - sharedPrefixLength;
+            toAllocOffset -= leafOverhead( suffixSize, valueSize, toPrefixLength ) + suffixSize + valueSize;
+            toCursor.setOffset( toAllocOffset );
+            putKeyValueSize( toCursor, suffixSize, valueSize );
+            if ( toPrefixLength > 0 )
+            {
+                putSharedPrefixLength( toCursor, sharedPrefixLength );
+            }
+            toCursor.putBytes( keyBytes, sharedPrefixLength, suffixSize );
+            if ( valueSize > 0 )
+            {
+                fromCursor.copyTo( valueOffset, toCursor, toCursor.getOffset(), valueSize );
+            }
+
+            if ( move )
+            {
+                fromCursor.setOffset( fromKeyOffset );
+                putTombstone( fromCursor );
+            }
+            toCursor.setOffset( keyPosOffsetLeaf( toPos ) );
+            putKeyOffset( toCursor, toAllocOffset );
+        }
+        setAllocOffset( toCursor, toAllocOffset );
+        return transferredBytes;
+    }
+
+    /**
+     * @return whether or not entries can be copied as they are between the two leaves, which is always the case unless prefixes are compressed.
+     */
+    private boolean samePrefix( PageCursor fromCursor, PageCursor toCursor )
+    {
+        int prefixLength = getPrefixLength( fromCursor );
+        if ( prefixLength != getPrefixLength( toCursor ) )
+        {
+            return false;
+        }
+        int prefixOffset = prefixOffset( prefixLength );
+        for ( int i = 0; i < prefixLength; i++ )
+        {
+            if ( fromCursor.getByte( prefixOffset + i ) != toCursor.getByte( prefixOffset + i ) )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads the prefix that entries moved or copied from left will be written relative to in right. An empty right leaf
+     * will get the prefix of left, see {@link #adoptPrefixIfEmpty(PageCursor, PageCursor, int)}.
+     * @return length of the prefix.
+     */
+    private int readReceivingPrefix( PageCursor leftCursor, PageCursor rightCursor, int rightKeyCount, byte[] into )
+    {
+        return readPrefix( rightKeyCount == 0 ? leftCursor : rightCursor, into );
+    }
+
+    /**
+     * A leaf that has lost all its entries keeps its prefix, which the keys of its left sibling may not share at all.
+     * Entries from left are then better off written relative to the prefix of left, or they may not fit.
+     */
+    private void adoptPrefixIfEmpty( PageCursor leftCursor, PageCursor rightCursor, int rightKeyCount )
+    {
+        if ( compressKeyPrefixes && rightKeyCount == 0 )
+        {
+            rewriteLeaf( rightCursor, 0, prefixBytes, readPrefix( leftCursor, prefixBytes ) );
+        }
+    }
+
+    /**
+     * Reads the prefix of the leaf into {@code into}.
+     * @return length of the prefix.
+     */
+    private int readPrefix( PageCursor cursor, byte[] into )
+    {
+        int prefixLength = getPrefixLength( cursor );
+        cursor.setOffset( prefixOffset( prefixLength ) );
+        cursor.getBytes( into, 0, prefixLength );
+        return prefixLength;
+    }
+
+    /**
+     * The prefix that {@link #defragmentLeaf(PageCursor)} would give this leaf. The prefix can only be extended,
+     * which requires all keys to share all of the current prefix, and the leaf must get smaller and still
+     * {@link #fitsInLeaf(int, int, int, int) fit} with the extended prefix.
+     * If it can be extended, the extended prefix is written into {@link #prefixBytes} and the space of the entries
+     * with the extended prefix into {@link #leafSpace}.
+     *
+     * @return length of the extended prefix, or the length of the current prefix if it can't be extended.
+     */
+    private int extendedPrefix( PageCursor cursor, int keyCount )
+    {
+        int prefixLength = getPrefixLength( cursor );
+        if ( keyCount < LEAST_NUMBER_OF_ENTRIES_PER_PAGE || prefixLength == maxPrefixLength )
+        {
+            return prefixLength;
+        }
+        if ( prefixLength > 0 )
+        {
+            for ( int pos = 0; pos < keyCount; pos++ )
+            {
+                placeCursorAtActualKey( cursor, pos, LEAF );
+                readKeyValueSize( cursor );
+                if ( readSharedPrefixLength( cursor ) != prefixLength )
+                {
+                    return prefixLength;
+                }
+            }
+        }
+        int extendedPrefixLength = commonPrefixOfKeys( cursor, keyCount, prefixBytes );
+        return extendedPrefixLength > prefixLength && betterPrefix( cursor, keyCount, extendedPrefixLength ) ? extendedPrefixLength : prefixLength;
+    }
+
+    /**
+     * Rewrites the leaf with the longest prefix that all of its keys have in common, if that makes the leaf smaller.
+     */
+    private void optimizePrefix( PageCursor cursor, int keyCount )
+    {
+        if ( !compressKeyPrefixes || keyCount == 0 )
+        {
+            return;
+        }
+        int prefixLength = commonPrefixOfKeys( cursor, keyCount, prefixBytes );
+        if ( betterPrefix( cursor, keyCount, prefixLength ) )
+        {
+            rewriteLeaf( cursor, keyCount, prefixBytes, prefixLength );
+        }
+    }
+
+    /**
+     * Measures the entries of the leaf with the prefix in {@link #prefixBytes} into {@link #leafSpace}.
+     *
+     * @return whether or not the leaf would get smaller, and still {@link #fitsInLeaf(int, int, int, int) fit}, if rewritten with that prefix.
+     */
+    private boolean betterPrefix( PageCursor cursor, int keyCount, int prefixLength )
+    {
+        leafSpace.clear();
+        for ( int pos = 0; pos < keyCount; pos++ )
+        {
+            leafSpace.add( spaceOfKeyValueWithPrefix( cursor, pos, prefixBytes, prefixLength ) );
+        }
+        return leafSpace.space( prefixLength ) < totalActiveSpace( cursor, keyCount ) && leafSpace.fitsIn( prefixLength );
+    }
+
+    /**
+     * Rewrites all entries of the leaf relative to a new prefix, which may be empty. All dead space is reclaimed in the process.
+     * The leaf must fit its entries with the new prefix, see {@link #betterPrefix(PageCursor, int, int)}.
+     */
+    private void rewriteLeaf( PageCursor cursor, int keyCount, byte[] prefix, int prefixLength )
+    {
+        cursor.setOffset( 0 );
+        cursor.getBytes( nodeCopy );
+
+        int allocOffset = prefixOffset( prefixLength );
+        if ( prefixLength > 0 )
+        {
+            cursor.setOffset( allocOffset );
+            cursor.putBytes( prefix, 0, prefixLength );
+            cursor.putByte( (byte) prefixLength );
+        }
+        for ( int pos = 0; pos < keyCount; pos++ )
+        {
+            int keySize = readFullKey( nodeCopyCursor, pos, keyBytes );
+            int valueOffset = nodeCopyCursor.getOffset();
+            int valueSize = extractValueSize( keyValueSizeAt( nodeCopyCursor, pos ) );
+
+            int sharedPrefixLength = commonPrefixLength( keyBytes, keySize, prefix, prefixLength );
+            int suffixSize = keySize - sharedPrefixLength;
+            allocOffset -= leafOverhead( suffixSize, valueSize, prefixLength ) + suffixSize + valueSize;
+            cursor.setOffset( allocOffset );
+            putKeyValueSize( cursor, suffixSize, valueSize );
+            if ( prefixLength > 0 )
+            {
+                putSharedPrefixLength( cursor, sharedPrefixLength );
+            }
+            cursor.putBytes( keyBytes, sharedPrefixLength, suffixSize );
+            cursor.putBytes( nodeCopy, valueOffset, valueSize );
+
+            cursor.setOffset( keyPosOffsetLeaf( pos ) );
+            putKeyOffset( cursor, allocOffset );
+        }
+
+        // Zero pad reclaimed area
+        int endOfOffsetArray = keyPosOffsetLeaf( keyCount );
+        zeroPad( cursor, endOfOffsetArray, allocOffset - endOfOffsetArray );
+
+        setAllocOffset( cursor, allocOffset );
+        setDeadSpace( cursor, 0 );
+        setPrefixFlag( cursor, prefixLength > 0 );
+    }
+
+    /**
+     * @return space the entry at {@code pos}, including its slot in the offset array, would occupy in a leaf with the given prefix.
+     */
+    private int spaceOfKeyValueWithPrefix( PageCursor cursor, int pos, byte[] prefix, int prefixLength )
+    {
+        int keySize = readFullKey( cursor, pos, keyBytes );
+        int valueSize = extractValueSize( keyValueSizeAt( cursor, pos ) );
+        return spaceOfKeyValue( keySize, commonPrefixLength( keyBytes, keySize, prefix, prefixLength ), valueSize, prefixLength );
+    }
+
+    /**
+     * @return space an entry, including its slot in the offset array, occupies in a leaf with a prefix of the given length.
+     */
+    private int spaceOfKeyValue( int keySize, int sharedPrefixLength, int valueSize, int prefixLength )
+    {
+        int suffixSize = keySize - sharedPrefixLength;
+        return bytesKeyOffset() + leafOverhead( suffixSize, valueSize, prefixLength ) + suffixSize + valueSize;
+    }
+
+    /**
+     * Finds the longest prefix, capped at {@link #maxPrefixLength(int)}, that all keys in the leaf have in common.
+     *
+     * @return length of the common prefix, which is written into {@code into}.
+     */
+    private int commonPrefixOfKeys( PageCursor cursor, int keyCount, byte[] into )
+    {
+        int prefixLength = Math.min( readFullKey( cursor, 0, keyBytes ), maxPrefixLength );
+        System.arraycopy( keyBytes, 0, into, 0, prefixLength );
+        for ( int pos = 1; pos < keyCount && prefixLength > 0; pos++ )
+        {
+            int keySize = readFullKey( cursor, pos, keyBytes );
+            prefixLength = commonPrefixLength( keyBytes, keySize, into, prefixLength );
+        }
+        return prefixLength;
+    }
+
+    /**
+     * Reads the whole key, i.e. the shared part of the prefix and the stored suffix, of the entry at {@code pos} in a leaf.
+     * Cursor is left right after the key, i.e. where the value starts.
+     *
+     * @return size of the key written into {@code into}.
+     */
+    private int readFullKey( PageCursor cursor, int pos, byte[] into )
+    {
+        int prefixLength = getPrefixLength( cursor );
+        placeCursorAtActualKey( cursor, pos, LEAF );
+        int suffixSize = extractKeySize( readKeyValueSize( cursor ) );
+        int sharedPrefixLength = 0;
+        if ( prefixLength > 0 )
+        {
+            sharedPrefixLength = readSharedPrefixLength( cursor );
+            int suffixOffset = cursor.getOffset();
+            cursor.setOffset( prefixOffset( prefixLength ) );
+            cursor.getBytes( into, 0, sharedPrefixLength );
+            cursor.setOffset( suffixOffset );
+        }
+        cursor.getBytes( into, sharedPrefixLength, suffixSize );
+        return sharedPrefixLength + suffixSize;
+    }
+
+    private long keyValueSizeAt( PageCursor cursor, int pos )
+    {
+        placeCursorAtActualKey( cursor, pos, LEAF );
+        return readKeyValueSize( cursor );
+    }
+
+    /**
+     * @return number of leading bytes of {@code key} that are the same as the prefix of the leaf.
+     */
+    private int sharedPrefixLength( PageCursor cursor, int prefixLength, byte[] key, int keySize )
+    {
+        int prefixOffset = prefixOffset( prefixLength );
+        int maxLength = Math.min( prefixLength, keySize );
+        int length = 0;
+        while ( length < maxLength && cursor.getByte( prefixOffset + length ) == key[length] )
+        {
+            length++;
+        }
+        return length;
+    }
+
+    private static int commonPrefixLength( byte[] key, int keySize, byte[] prefix, int prefixLength )
+    {
+        int maxLength = Math.min( prefixLength, keySize );
+        int length = 0;
+        while ( length < maxLength && key[length] == prefix[length] )
+        {
+            length++;
+        }
+        return length;
+    }
+
+    private int serializeNewKey( KEY key )
+    {
+        newKeyCursor.setOffset( 0 );
+        layout.writeKey( newKeyCursor, key );
+        return layout.keySize( key );
+    }
+
+    private int totalSpaceOfNewKeyValue( PageCursor cursor, int prefixLength, KEY key, VALUE value )
+    {
+        int keySize = serializeNewKey( key );
+        return spaceOfKeyValue( keySize, sharedPrefixLength( cursor, prefixLength, newKeyBytes, keySize ), layout.valueSize( value ), prefixLength );
+    }
+
+    private static int leafOverhead( int keySize, int valueSize, int prefixLength )
+    {
+        return getOverhead( keySize, valueSize ) + sharedPrefixSpace( prefixLength );
+    }
+
+    /**
+     * @return space every entry of a leaf with a prefix of the given length needs for telling how much of the prefix it shares.
+     */
+    private static int sharedPrefixSpace( int prefixLength )
+    {
+        return prefixLength > 0 ? SIZE_SHARED_PREFIX_LENGTH : 0;
+    }
+
+    /**
+     * @return space a prefix of the given length occupies at the end of a leaf, including its length.
+     */
+    private static int prefixSpace( int prefixLength )
+    {
+        return prefixLength > 0 ? prefixLength + SIZE_PREFIX_LENGTH : 0;
+    }
+
+    private int prefixOffset( int prefixLength )
+    {
+        return pageSize - prefixSpace( prefixLength );
+    }
+
+    private int recordsEnd( PageCursor cursor, Type type )
+    {
+        return type == LEAF ? prefixOffset( getPrefixLength( cursor ) ) : pageSize;
+    }
+
+    /**
+     * Whether or not a leaf with a prefix of the given length can hold entries taking the given space, see {@link LeafSpace}.
+     * A leaf without a prefix only needs to fit them, but a leaf with a prefix must also be possible to split in two so that both
+     * halves fit the prefix too. That is always possible if the leaf holds at most one large entry and is less than half full
+     * without it, or if it holds no large entry and is at least {@link #prefixGuardSpace} from full.
+     */
+    private boolean fitsInLeaf( int prefixLength, int smallSpace, int largeSpace, int largeCount )
+    {
+        int prefixSpace = prefixSpace( prefixLength );
+        if ( prefixSpace + smallSpace + largeSpace > totalSpace )
+        {
+            return false;
+        }
+        if ( prefixLength == 0 )
+        {
+            return true;
+        }
+        return largeCount == 0 ? prefixSpace + smallSpace <= totalSpace - prefixGuardSpace :
+               largeCount == 1 && prefixSpace + smallSpace < halfSpace;
+    }
+
     private int getAllocSpace( PageCursor cursor, int keyCount, Type type )
     {
         int allocOffset = getAllocOffset( cursor );
@@ -911,7 +1652,9 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
     private void recordDeadAndAliveLeaf( PageCursor cursor, MutableIntStack deadKeysOffset, MutableIntStack aliveKeysOffset )
     {
         int currentOffset = getAllocOffset( cursor );
-        while ( currentOffset < pageSize )
+        int prefixLength = getPrefixLength( cursor );
+        int recordsEnd = prefixOffset( prefixLength );
+        while ( currentOffset < recordsEnd )
         {
             cursor.setOffset( currentOffset );
             long keyValueSize = readKeyValueSize( cursor );
@@ -927,7 +1670,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
             {
                 aliveKeysOffset.push( currentOffset );
             }
-            currentOffset += keySize + valueSize + getOverhead( keySize, valueSize );
+            currentOffset += keySize + valueSize + leafOverhead( keySize, valueSize, prefixLength );
         }
     }
 
@@ -1117,6 +1860,47 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         return middle;
     }
 
+    /**
+     * Like {@link #middlePosInLeaf(PageCursor, int, Object, Object, int)}, but for leaves with a prefix. Both leaves start out
+     * with the prefix of the split leaf, so the prefix is accounted for on both sides. All positions are considered and the one
+     * dividing the space most equally, where both sides {@link #fitsInLeaf(int, int, int, int) fit}, is selected.
+     */
+    private int middlePosInPrefixedLeaf( PageCursor cursor, int prefixLength, int insertPos, KEY newKey, VALUE newValue,
+            int keyCountAfterInsert )
+    {
+        int spaceOfNewKey = totalSpaceOfNewKeyValue( cursor, prefixLength, newKey, newValue );
+        leafSpace.clear();
+        for ( int pos = 0, oldPos = 0; pos < keyCountAfterInsert; pos++ )
+        {
+            entrySpace[pos] = pos == insertPos ? spaceOfNewKey : totalSpaceOfKeyValue( cursor, oldPos++ );
+            leafSpace.add( entrySpace[pos] );
+        }
+
+        int middle = -1;
+        int bestDelta = Integer.MAX_VALUE;
+        LeafSpace left = leftLeafSpace;
+        LeafSpace all = leafSpace;
+        left.clear();
+        for ( int pos = 1; pos < keyCountAfterInsert; pos++ )
+        {
+            left.add( entrySpace[pos - 1] );
+            int delta = Math.abs( 2 * left.space( prefixLength ) - all.space( prefixLength ) - prefixSpace( prefixLength ) );
+            if ( delta < bestDelta && left.fitsIn( prefixLength ) &&
+                 fitsInLeaf( prefixLength, all.smallSpace - left.smallSpace, all.largeSpace - left.largeSpace, all.largeCount - left.largeCount ) )
+            {
+                middle = pos;
+                bestDelta = delta;
+            }
+        }
+        if ( middle == -1 )
+        {
+            throw new IllegalStateException(
+                    format( "There's not enough space to insert new key, even when splitting the leaf. Space needed:%d, max space allowed:%d",
+                            all.space( prefixLength ) + prefixSpace( prefixLength ), totalSpace * 2 ) );
+        }
+        return middle;
+    }
+
     private int totalActiveSpace( PageCursor cursor, int keyCount )
     {
         int deadSpace = getDeadSpace( cursor );
@@ -1143,7 +1927,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         long keyValueSize = readKeyValueSize( cursor );
         int keySize = extractKeySize( keyValueSize );
         int valueSize = extractValueSize( keyValueSize );
-        return bytesKeyOffset() + getOverhead( keySize, valueSize ) + keySize + valueSize;
+        return bytesKeyOffset() + leafOverhead( keySize, valueSize, getPrefixLength( cursor ) ) + keySize + valueSize;
     }
 
     private int totalSpaceOfKeyChild( PageCursor cursor, int pos )
@@ -1165,14 +1949,45 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
 
     private void setDeadSpace( PageCursor cursor, int deadSpace )
     {
-        putUnsignedShort( cursor, BYTE_POS_DEADSPACE, deadSpace );
+        int prefixFlag = compressKeyPrefixes ? deadSpaceField( cursor ) & FLAG_HAS_PREFIX : 0;
+        putUnsignedShort( cursor, BYTE_POS_DEADSPACE, deadSpace | prefixFlag );
     }
 
     private int getDeadSpace( PageCursor cursor )
+    {
+        int deadSpace = deadSpaceField( cursor );
+        return compressKeyPrefixes ? deadSpace & ~FLAG_HAS_PREFIX : deadSpace;
+    }
+
+    private static int deadSpaceField( PageCursor cursor )
     {
         return PageCursorUtil.getUnsignedShort( cursor, BYTE_POS_DEADSPACE );
     }
 
+    private void setPrefixFlag( PageCursor cursor, boolean hasPrefix )
+    {
+        int deadSpace = deadSpaceField( cursor ) & ~FLAG_HAS_PREFIX;
+        putUnsignedShort( cursor, BYTE_POS_DEADSPACE, hasPrefix ? deadSpace | FLAG_HAS_PREFIX : deadSpace );
+    }
+
+    /**
+     * @return length of the prefix of the leaf, 0 if it has none.
+     */
+    int getPrefixLength( PageCursor cursor )
+    {
+        if ( !compressKeyPrefixes || (deadSpaceField( cursor ) & FLAG_HAS_PREFIX) == 0 )
+        {
+            return 0;
+        }
+        int prefixLength = cursor.getByte( pageSize - SIZE_PREFIX_LENGTH ) & 0xFF;
+        if ( prefixLength == 0 || prefixLength > maxPrefixLength )
+        {
+            cursor.setCursorException( format( "Read unreliable prefix length, prefixLength=%d, maxPrefixLength=%d", prefixLength, maxPrefixLength ) );
+            return 0;
+        }
+        return prefixLength;
+    }
+
     private void placeCursorAtActualKey( PageCursor cursor, int pos, Type type )
     {
         // Set cursor to correct place in offset array
@@ -1251,7 +2066,8 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
     @Override
     public String toString()
     {
-        return "TreeNodeDynamicSize[pageSize:" + pageSize + ", keyValueSizeCap:" + keyValueSizeCap() + "]";
+        return "TreeNodeDynamicSize[pageSize:" + pageSize + ", keyValueSizeCap:" + keyValueSizeCap() + ", compressKeyPrefixes:" +
+                compressKeyPrefixes + "]";
     }
 
     private String asString( PageCursor cursor, boolean includeValue, boolean includeAllocSpace,
@@ -1267,7 +2083,8 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         // HEADER
         int allocOffset = getAllocOffset( cursor );
         int deadSpace = getDeadSpace( cursor );
-        String additionalHeader = "{" + cursor.getCurrentPageId() + "} [allocOffset=" + allocOffset + " deadSpace=" + deadSpace + "] ";
+        String additionalHeader = "{" + cursor.getCurrentPageId() + "} [allocOffset=" + allocOffset + " deadSpace=" + deadSpace +
+                (type == LEAF && compressKeyPrefixes ? " prefixLength=" + getPrefixLength( cursor ) : "") + "] ";
 
         // OFFSET ARRAY
         String offsetArray = readOffsetArray( cursor, stableGeneration, unstableGeneration, type );
@@ -1284,7 +2101,8 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         VALUE readValue = layout.newValue();
         StringJoiner keys = new StringJoiner( " " );
         cursor.setOffset( allocOffset );
-        while ( cursor.getOffset() < cursor.getCurrentPageSize() )
+        int recordsEnd = recordsEnd( cursor, type );
+        while ( cursor.getOffset() < recordsEnd )
         {
             StringJoiner singleKey = new StringJoiner( "|" );
             singleKey.add( Integer.toString( cursor.getOffset() ) );
@@ -1303,11 +2121,15 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
             {
                 singleKey.add( "_" );
             }
-            layout.readKey( cursor, readKey, keySize );
             if ( type == LEAF )
             {
+                readLeafKey( cursor, readKey, keySize );
                 layout.readValue( cursor, readValue, valueSize );
             }
+            else
+            {
+                layout.readKey( cursor, readKey, keySize );
+            }
             singleKey.add( Integer.toString( keySize ) );
             if ( type == LEAF && includeValue )
             {
@@ -1371,4 +2193,57 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         }
         return offsetArray.toString();
     }
+
+    /**
+     * Space of entries of a leaf, including their slots in the offset array, kept apart by whether or not they are larger than
+     * {@link #largeEntrySpace}, see {@link #fitsInLeaf(int, int, int, int)}.
+     */
+    private class LeafSpace
+    {
+        private int smallSpace;
+        private int largeSpace;
+        private int largeCount;
+
+        void clear()
+        {
+            smallSpace = 0;
+            largeSpace = 0;
+            largeCount = 0;
+        }
+
+        void add( int entrySpace )
+        {
+            if ( entrySpace > largeEntrySpace )
+            {
+                largeSpace += entrySpace;
+                largeCount++;
+            }
+            else
+            {
+                smallSpace += entrySpace;
+            }
+        }
+
+        int space( int prefixLength )
+        {
+            return prefixSpace( prefixLength ) + smallSpace + largeSpace;
+        }
+
+        boolean fitsIn( int prefixLength )
+        {
+            return fitsInLeaf( prefixLength, smallSpace, largeSpace, largeCount );
+        }
+    }
+
+    private static class PrefixedKey
+    {
+        private final byte[] bytes;
+        private final PageCursor cursor;
+
+        PrefixedKey( int pageSize )
+        {
+            bytes = new byte[pageSize];
+            cursor = ByteArrayPageCursor.wrap( bytes );
+        }
+    }
 }
@@ -161,6 +161,62 @@ public class GBPTreeLockTest
         assertOnlyOneSucceeds( lock::writerAndCleanerLock, lock::writerAndCleanerLock );
     }
 
+    @Test( timeout = 10_000 )
+    public void test_race_parallelWriterVsParallelWriter() throws Throwable
+    {
+        assertBothSucceeds( lock::parallelWriterLock, lock::parallelWriterLock );
+    }
+
+    @Test( timeout = 10_000 )
+    public void test_race_parallelWriterVsLU() throws Throwable
+    {
+        assertOnlyOneSucceeds( lock::parallelWriterLock, lock::writerLock );
+    }
+
+    @Test( timeout = 10_000 )
+    public void test_race_parallelWriterVsUL() throws Throwable
+    {
+        assertBothSucceeds( lock::parallelWriterLock, lock::cleanerLock );
+    }
+
+    @Test
+    public void parallelWritersMustBlockWriterUntilAllOfThemHaveUnlocked() throws Exception
+    {
+        // given
+        lock.parallelWriterLock();
+        lock.parallelWriterLock();
+
+        // then
+        copy = lock.copy();
+        assertBlock( copy::writerLock, () ->
+        {
+            copy.parallelWriterUnlock();
+            copy.parallelWriterUnlock();
+        } );
+        copy = lock.copy();
+        assertBlock( copy::writerAndCleanerLock, () ->
+        {
+            copy.parallelWriterUnlock();
+            copy.parallelWriterUnlock();
+        } );
+
+        lock.parallelWriterUnlock();
+        lock.parallelWriterUnlock();
+        assertUU();
+        assertThrow( lock::parallelWriterUnlock );
+    }
+
+    @Test
+    public void parallelWriterMustBlockOnWriter() throws Exception
+    {
+        // given
+        lock.writerLock();
+
+        // then
+        copy = lock.copy();
+        assertBlock( copy::parallelWriterLock, copy::writerUnlock, "parallelWriterLock" );
+    }
+
     private void assertOnlyOneSucceeds( Runnable lockAction1, Runnable lockAction2 ) throws Throwable
     {
         assertUU();
@@ -260,13 +316,18 @@ public class GBPTreeLockTest
     }
 
     private void assertBlock( Runnable runLock, Runnable runUnlock ) throws Exception
+    {
+        assertBlock( runLock, runUnlock, "doLock" );
+    }
+
+    private void assertBlock( Runnable runLock, Runnable runUnlock, String blockingMethod ) throws Exception
     {
         Future<Object> future = executor.execute( state ->
         {
             runLock.run();
             return null;
         } );
-        executor.get().waitUntilWaiting( details -> details.isAt( GBPTreeLock.class, "doLock" ) );
+        executor.get().waitUntilWaiting( details -> details.isAt( GBPTreeLock.class, blockingMethod ) );
         runUnlock.run();
         future.get();
     }
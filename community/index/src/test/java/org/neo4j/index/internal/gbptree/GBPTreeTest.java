@@ -51,6 +51,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.stream.LongStream;
 
 import org.neo4j.cursor.RawCursor;
 import org.neo4j.function.ThrowingConsumer;
@@ -434,6 +435,196 @@ public class GBPTreeTest
         }
     }
 
+    @Test( timeout = 10_000L )
+    public void parallelWritersShouldLockOutSingleWriter() throws Exception
+    {
+        // GIVEN
+        try ( GBPTree<MutableLong,MutableLong> index = index().build() )
+        {
+            Writer<MutableLong,MutableLong> first = index.parallelWriter();
+            Writer<MutableLong,MutableLong> second = index.parallelWriter();
+
+            // WHEN
+            Future<?> writerClose = executor.submit( throwing( () -> index.writer().close() ) );
+
+            // THEN
+            shouldWait( writerClose );
+            first.close();
+            shouldWait( writerClose );
+            second.close();
+            writerClose.get();
+        }
+    }
+
+    @Test
+    public void shouldNotAllowClosingParallelWriterMultipleTimes() throws Exception
+    {
+        // GIVEN
+        try ( GBPTree<MutableLong,MutableLong> index = index().build() )
+        {
+            Writer<MutableLong,MutableLong> writer = index.parallelWriter();
+            writer.put( new MutableLong( 0 ), new MutableLong( 1 ) );
+            writer.close();
+
+            try
+            {
+                // WHEN
+                writer.close();
+                fail( "Should have failed" );
+            }
+            catch ( IllegalStateException e )
+            {
+                // THEN
+                assertThat( e.getMessage(), containsString( "already closed" ) );
+            }
+        }
+    }
+
+    @Test( timeout = 60_000L )
+    public void parallelWritersMustInsertAndRemoveConcurrently() throws Exception
+    {
+        // GIVEN
+        int threads = 4;
+        int keysPerThread = 10_000;
+        try ( GBPTree<MutableLong,MutableLong> index = index( 256 ).build() )
+        {
+            // WHEN
+            List<Future<?>> writers = new ArrayList<>();
+            for ( int t = 0; t < threads; t++ )
+            {
+                int thread = t;
+                writers.add( executor.submit( throwing( () ->
+                {
+                    // Interleave the keys of the threads, so that they compete for the same leaves
+                    try ( Writer<MutableLong,MutableLong> writer = index.parallelWriter() )
+                    {
+                        for ( long i = 0; i < keysPerThread; i++ )
+                        {
+                            long key = i * threads + thread;
+                            writer.put( new MutableLong( key ), new MutableLong( key * 10 ) );
+                        }
+                    }
+                    try ( Writer<MutableLong,MutableLong> writer = index.parallelWriter() )
+                    {
+                        for ( long i = 0; i < keysPerThread; i += 2 )
+                        {
+                            long key = i * threads + thread;
+                            assertEquals( key * 10, writer.remove( new MutableLong( key ) ).longValue() );
+                        }
+                    }
+                } ) ) );
+            }
+            for ( Future<?> writer : writers )
+            {
+                writer.get();
+            }
+
+            // THEN
+            long expectedKey = 0;
+            MutableLong from = new MutableLong( Long.MIN_VALUE );
+            MutableLong to = new MutableLong( Long.MAX_VALUE );
+            try ( RawCursor<Hit<MutableLong,MutableLong>,IOException> seek = index.seek( from, to ) )
+            {
+                while ( seek.next() )
+                {
+                    if ( (expectedKey / threads) % 2 == 0 )
+                    {
+                        // Skip over the removed keys
+                        expectedKey += threads;
+                    }
+                    assertEquals( expectedKey, seek.get().key().longValue() );
+                    assertEquals( expectedKey * 10, seek.get().value().longValue() );
+                    expectedKey++;
+                }
+            }
+            assertEquals( (long) threads * keysPerThread, expectedKey );
+            assertTrue( index.consistencyCheck() );
+        }
+    }
+
+    @Test
+    public void bulkLoadMustBuildTreeContainingAllEntries() throws Exception
+    {
+        // GIVEN
+        int count = 100_000;
+        long[] keys = LongStream.range( 0, count ).map( i -> i * 2 ).toArray();
+        try ( GBPTree<MutableLong,MutableLong> index = index( 256 ).build() )
+        {
+            // WHEN
+            index.bulkLoad( entries( keys ) );
+
+            // THEN
+            assertTrue( index.consistencyCheck() );
+            assertKeysAndValues( index, keys );
+
+            // and the loaded tree must be possible to change like any other tree
+            try ( Writer<MutableLong,MutableLong> writer = index.writer() )
+            {
+                for ( long key = 1; key < count; key += 10 )
+                {
+                    writer.put( new MutableLong( key ), new MutableLong( key * 10 ) );
+                    assertEquals( (key - 1) * 10, writer.remove( new MutableLong( key - 1 ) ).longValue() );
+                }
+            }
+            index.checkpoint( UNLIMITED );
+        }
+        try ( GBPTree<MutableLong,MutableLong> index = index( 256 ).build() )
+        {
+            assertTrue( index.consistencyCheck() );
+            assertKeysAndValues( index, LongStream.range( 0, count ).map( i -> i % 5 == 0 && i * 2 < count ? i * 2 + 1 : i * 2 ).toArray() );
+        }
+    }
+
+    @Test
+    public void bulkLoadMustThrowIfTreeIsNotEmpty() throws Exception
+    {
+        try ( GBPTree<MutableLong,MutableLong> index = index().build() )
+        {
+            // GIVEN
+            try ( Writer<MutableLong,MutableLong> writer = index.writer() )
+            {
+                writer.put( new MutableLong( 1 ), new MutableLong( 10 ) );
+            }
+
+            // WHEN
+            try
+            {
+                index.bulkLoad( entries( 2, 3 ) );
+                fail( "Should not be able to bulk load into a tree with entries" );
+            }
+            catch ( IllegalStateException e )
+            {
+                // THEN good
+            }
+            assertKeysAndValues( index, 1 );
+        }
+    }
+
+    @Test
+    public void bulkLoadMustThrowOnKeysInWrongOrder() throws Exception
+    {
+        try ( GBPTree<MutableLong,MutableLong> index = index().build() )
+        {
+            // WHEN
+            try
+            {
+                index.bulkLoad( entries( 1, 3, 2 ) );
+                fail( "Should not be able to bulk load keys in wrong order" );
+            }
+            catch ( IllegalArgumentException e )
+            {
+                // THEN good
+            }
+
+            // and the tree must still be usable
+            try ( Writer<MutableLong,MutableLong> writer = index.writer() )
+            {
+                writer.put( new MutableLong( 4 ), new MutableLong( 40 ) );
+            }
+            assertKeysAndValues( index, 4 );
+        }
+    }
+
     @Test
     public void failureDuringInitializeWriterShouldNotFailNextInitialize() throws Exception
     {
@@ -825,6 +1016,25 @@ public class GBPTreeTest
         }
     }
 
+    @Test( timeout = 5_000L )
+    public void checkPointShouldWaitForParallelWriters() throws Exception
+    {
+        // GIVEN
+        try ( GBPTree<MutableLong,MutableLong> index = index().build() )
+        {
+            Writer<MutableLong,MutableLong> writer = index.parallelWriter();
+            writer.put( new MutableLong( 1 ), new MutableLong( 1 ) );
+
+            // WHEN
+            Future<?> checkpoint = executor.submit( throwing( () -> index.checkpoint( UNLIMITED ) ) );
+
+            // THEN
+            shouldWait( checkpoint );
+            writer.close();
+            checkpoint.get();
+        }
+    }
+
     @Test( timeout = 5_000L )
     public void checkPointShouldWaitForWriter() throws Exception
     {
@@ -1556,6 +1766,139 @@ public class GBPTreeTest
         }
     }
 
+    /* Partitioned seek tests */
+
+    @Test
+    public void partitionedSeekMustCoverWholeRangeWithoutOverlap() throws Exception
+    {
+        // GIVEN
+        int count = 5_000;
+        try ( GBPTree<MutableLong,MutableLong> index = index().build() )
+        {
+            try ( Writer<MutableLong,MutableLong> writer = index.writer() )
+            {
+                for ( long i = 0; i < count; i++ )
+                {
+                    writer.put( new MutableLong( i ), new MutableLong( i * 10 ) );
+                }
+            }
+
+            for ( int desiredPartitions : new int[]{1, 2, 3, 7, 16, 100} )
+            {
+                // WHEN
+                List<RawCursor<Hit<MutableLong,MutableLong>,IOException>> partitions =
+                        index.partitionedSeek( new MutableLong( 100 ), new MutableLong( count - 100 ), desiredPartitions );
+
+                // THEN
+                assertTrue( partitions.size() >= 1 );
+                assertTrue( partitions.size() <= desiredPartitions );
+                long expectedKey = 100;
+                for ( RawCursor<Hit<MutableLong,MutableLong>,IOException> partition : partitions )
+                {
+                    try ( RawCursor<Hit<MutableLong,MutableLong>,IOException> seek = partition )
+                    {
+                        while ( seek.next() )
+                        {
+                            assertEquals( expectedKey, seek.get().key().longValue() );
+                            assertEquals( expectedKey * 10, seek.get().value().longValue() );
+                            expectedKey++;
+                        }
+                    }
+                }
+                assertEquals( count - 100, expectedKey );
+            }
+        }
+    }
+
+    @Test
+    public void partitionedSeekMustCreateMultiplePartitionsForLargeTree() throws Exception
+    {
+        // GIVEN
+        try ( GBPTree<MutableLong,MutableLong> index = index().build() )
+        {
+            try ( Writer<MutableLong,MutableLong> writer = index.writer() )
+            {
+                for ( long i = 0; i < 10_000; i++ )
+                {
+                    writer.put( new MutableLong( i ), new MutableLong( i ) );
+                }
+            }
+
+            // WHEN
+            List<RawCursor<Hit<MutableLong,MutableLong>,IOException>> partitions =
+                    index.partitionedSeek( new MutableLong( Long.MIN_VALUE ), new MutableLong( Long.MAX_VALUE ), 4 );
+
+            // THEN
+            assertEquals( 4, partitions.size() );
+            for ( RawCursor<Hit<MutableLong,MutableLong>,IOException> partition : partitions )
+            {
+                try ( RawCursor<Hit<MutableLong,MutableLong>,IOException> seek = partition )
+                {
+                    assertTrue( seek.next() );
+                }
+            }
+        }
+    }
+
+    @Test
+    public void partitionedSeekMustReturnSinglePartitionWhenRootIsLeaf() throws Exception
+    {
+        // GIVEN
+        try ( GBPTree<MutableLong,MutableLong> index = index().build() )
+        {
+            insert( index, 0, 1 );
+            insert( index, 1, 2 );
+
+            // WHEN
+            List<RawCursor<Hit<MutableLong,MutableLong>,IOException>> partitions =
+                    index.partitionedSeek( new MutableLong( Long.MIN_VALUE ), new MutableLong( Long.MAX_VALUE ), 4 );
+
+            // THEN
+            assertEquals( 1, partitions.size() );
+            try ( RawCursor<Hit<MutableLong,MutableLong>,IOException> seek = partitions.get( 0 ) )
+            {
+                assertTrue( seek.next() );
+                assertEquals( 0, seek.get().key().longValue() );
+                assertTrue( seek.next() );
+                assertEquals( 1, seek.get().key().longValue() );
+                assertFalse( seek.next() );
+            }
+        }
+    }
+
+    @Test
+    public void partitionedSeekMustNotPartitionBackwardsRange() throws Exception
+    {
+        // GIVEN
+        try ( GBPTree<MutableLong,MutableLong> index = index().build() )
+        {
+            try ( Writer<MutableLong,MutableLong> writer = index.writer() )
+            {
+                for ( long i = 0; i < 1_000; i++ )
+                {
+                    writer.put( new MutableLong( i ), new MutableLong( i ) );
+                }
+            }
+
+            // WHEN
+            List<RawCursor<Hit<MutableLong,MutableLong>,IOException>> partitions =
+                    index.partitionedSeek( new MutableLong( 900 ), new MutableLong( 100 ), 4 );
+
+            // THEN
+            assertEquals( 1, partitions.size() );
+            partitions.get( 0 ).close();
+        }
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void partitionedSeekMustThrowOnZeroPartitions() throws Exception
+    {
+        try ( GBPTree<MutableLong,MutableLong> index = index().build() )
+        {
+            index.partitionedSeek( new MutableLong( 0 ), new MutableLong( 10 ), 0 );
+        }
+    }
+
     /* IO failure on close */
 
     @Test
@@ -1765,6 +2108,69 @@ public class GBPTreeTest
     }
 
     // The most common tree builds in this test
+    private static RawCursor<Hit<MutableLong,MutableLong>,IOException> entries( long... keys )
+    {
+        return new RawCursor<Hit<MutableLong,MutableLong>,IOException>()
+        {
+            private final MutableLong key = new MutableLong();
+            private final MutableLong value = new MutableLong();
+            private int pos;
+
+            @Override
+            public boolean next()
+            {
+                if ( pos == keys.length )
+                {
+                    return false;
+                }
+                key.setValue( keys[pos] );
+                value.setValue( keys[pos] * 10 );
+                pos++;
+                return true;
+            }
+
+            @Override
+            public void close()
+            {
+            }
+
+            @Override
+            public Hit<MutableLong,MutableLong> get()
+            {
+                return new Hit<MutableLong,MutableLong>()
+                {
+                    @Override
+                    public MutableLong key()
+                    {
+                        return key;
+                    }
+
+                    @Override
+                    public MutableLong value()
+                    {
+                        return value;
+                    }
+                };
+            }
+        };
+    }
+
+    private static void assertKeysAndValues( GBPTree<MutableLong,MutableLong> index, long... expectedKeys ) throws IOException
+    {
+        int pos = 0;
+        try ( RawCursor<Hit<MutableLong,MutableLong>,IOException> seek =
+                index.seek( new MutableLong( Long.MIN_VALUE ), new MutableLong( Long.MAX_VALUE ) ) )
+        {
+            while ( seek.next() )
+            {
+                assertEquals( expectedKeys[pos], seek.get().key().longValue() );
+                assertEquals( expectedKeys[pos] * 10, seek.get().value().longValue() );
+                pos++;
+            }
+        }
+        assertEquals( expectedKeys.length, pos );
+    }
+
     private GBPTreeBuilder<MutableLong,MutableLong> index()
     {
         return index( DEFAULT_PAGE_SIZE );
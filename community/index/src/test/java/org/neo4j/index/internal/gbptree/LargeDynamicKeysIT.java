@@ -102,10 +102,29 @@ public class LargeDynamicKeysIT
         shouldWriteAndReadEntriesOfRandomSizes( minKeySize, maxKeySize, minValueSize, maxValueSize );
     }
 
+    @Test
+    public void shouldWriteAndReadSmallToLargeEntriesWithCommonPrefixesInPrefixCompressedLeaves() throws IOException
+    {
+        int keyValueSizeCap = keyValueSizeCapFromPageSize( PAGE_SIZE );
+        int maxValueSize = random.nextInt( 200 );
+        String[] prefixes = new String[5];
+        for ( int i = 0; i < prefixes.length; i++ )
+        {
+            prefixes[i] = random.nextAlphaNumericString( 1, 200 );
+        }
+        shouldWriteAndReadEntriesOfRandomSizes( new SimpleByteArrayLayout( false, true ), prefixes, 4, keyValueSizeCap - maxValueSize, 0, maxValueSize );
+    }
+
     private void shouldWriteAndReadEntriesOfRandomSizes( int minKeySize, int maxKeySize, int minValueSize, int maxValueSize ) throws IOException
+    {
+        shouldWriteAndReadEntriesOfRandomSizes( layout(), new String[]{""}, minKeySize, maxKeySize, minValueSize, maxValueSize );
+    }
+
+    private void shouldWriteAndReadEntriesOfRandomSizes( SimpleByteArrayLayout layout, String[] prefixes, int minKeySize, int maxKeySize,
+            int minValueSize, int maxValueSize ) throws IOException
     {
         // given
-        try ( GBPTree<RawBytes,RawBytes> tree = createIndex( layout() ) )
+        try ( GBPTree<RawBytes,RawBytes> tree = createIndex( layout ) )
         {
             // when
             Set<String> generatedStrings = new HashSet<>();
@@ -123,7 +142,8 @@ public class LargeDynamicKeysIT
                     String string;
                     do
                     {
-                        string = random.nextAlphaNumericString( minKeySize, maxKeySize );
+                        string = random.among( prefixes ) + random.nextAlphaNumericString( minKeySize, maxKeySize );
+                        string = string.substring( 0, Math.min( string.length(), maxKeySize ) );
                     }
                     while ( !generatedStrings.add( string ) );
                     RawBytes key = new RawBytes();
@@ -136,16 +156,37 @@ public class LargeDynamicKeysIT
             }
 
             // then
-            for ( Pair<RawBytes,RawBytes> entry : entries )
+            assertEntries( tree, entries );
+
+            // and when removing some of them
+            try ( Writer<RawBytes,RawBytes> writer = tree.writer() )
             {
-                try ( RawCursor<Hit<RawBytes,RawBytes>,IOException> seek = tree.seek( entry.first(), entry.first() ) )
+                for ( int i = entries.size() - 1; i >= 0; i-- )
                 {
-                    assertTrue( seek.next() );
-                    assertArrayEquals( entry.first().bytes, seek.get().key().bytes );
-                    assertArrayEquals( entry.other().bytes, seek.get().value().bytes );
-                    assertFalse( seek.next() );
+                    if ( random.nextBoolean() )
+                    {
+                        assertArrayEquals( entries.get( i ).other().bytes, writer.remove( entries.get( i ).first() ).bytes );
+                        entries.remove( i );
+                    }
                 }
             }
+
+            // then
+            assertEntries( tree, entries );
+        }
+    }
+
+    private static void assertEntries( GBPTree<RawBytes,RawBytes> tree, List<Pair<RawBytes,RawBytes>> entries ) throws IOException
+    {
+        for ( Pair<RawBytes,RawBytes> entry : entries )
+        {
+            try ( RawCursor<Hit<RawBytes,RawBytes>,IOException> seek = tree.seek( entry.first(), entry.first() ) )
+            {
+                assertTrue( seek.next() );
+                assertArrayEquals( entry.first().bytes, seek.get().key().bytes );
+                assertArrayEquals( entry.other().bytes, seek.get().value().bytes );
+                assertFalse( seek.next() );
+            }
         }
     }
 
@@ -27,6 +27,7 @@ import org.neo4j.io.pagecache.PageCursor;
 public class SimpleByteArrayLayout extends TestLayout<RawBytes,RawBytes>
 {
     private final boolean useFirstLongAsSeed;
+    private final boolean compressKeyPrefixes;
 
     SimpleByteArrayLayout()
     {
@@ -34,8 +35,14 @@ public class SimpleByteArrayLayout extends TestLayout<RawBytes,RawBytes>
     }
 
     SimpleByteArrayLayout( boolean useFirstLongAsSeed )
+    {
+        this( useFirstLongAsSeed, false );
+    }
+
+    SimpleByteArrayLayout( boolean useFirstLongAsSeed, boolean compressKeyPrefixes )
     {
         this.useFirstLongAsSeed = useFirstLongAsSeed;
+        this.compressKeyPrefixes = compressKeyPrefixes;
     }
 
     @Override
@@ -114,6 +121,12 @@ public class SimpleByteArrayLayout extends TestLayout<RawBytes,RawBytes>
         return false;
     }
 
+    @Override
+    public boolean compressKeyPrefixes()
+    {
+        return compressKeyPrefixes;
+    }
+
     @Override
     public void minimalSplitter( RawBytes left, RawBytes right, RawBytes into )
     {
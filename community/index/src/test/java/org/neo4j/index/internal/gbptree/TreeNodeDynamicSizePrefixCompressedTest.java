@@ -0,0 +1,251 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.neo4j.index.internal.gbptree.TreeNode.Overflow;
+import org.neo4j.io.pagecache.PageCursor;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.index.internal.gbptree.TreeNode.Type.LEAF;
+
+public class TreeNodeDynamicSizePrefixCompressedTest extends TreeNodeTestBase<RawBytes,RawBytes>
+{
+    private SimpleByteArrayLayout layout = new SimpleByteArrayLayout( true, true );
+
+    @Override
+    protected TestLayout<RawBytes,RawBytes> getLayout()
+    {
+        return layout;
+    }
+
+    @Override
+    protected TreeNodeDynamicSize<RawBytes,RawBytes> getNode( int pageSize, Layout<RawBytes,RawBytes> layout )
+    {
+        return new TreeNodeDynamicSize<>( pageSize, layout, true );
+    }
+
+    @Override
+    void assertAdditionalHeader( PageCursor cursor, TreeNode<RawBytes,RawBytes> node, int pageSize )
+    {
+        // When
+        int currentAllocSpace = ((TreeNodeDynamicSize) node).getAllocOffset( cursor );
+        int prefixLength = ((TreeNodeDynamicSize) node).getPrefixLength( cursor );
+
+        // Then
+        assertEquals( pageSize, currentAllocSpace, "allocSpace point to end of page" );
+        assertEquals( 0, prefixLength, "no prefix in new node" );
+    }
+
+    @Test
+    void shouldLimitPrefixLengthOnSmallPages()
+    {
+        assertEquals( TreeNodeDynamicSize.MAX_PREFIX_LENGTH, TreeNodeDynamicSize.maxPrefixLength( 8192 ) );
+        assertTrue( TreeNodeDynamicSize.maxPrefixLength( 256 ) < TreeNodeDynamicSize.MAX_PREFIX_LENGTH );
+    }
+
+    @Test
+    void shouldHaveSameKeyValueSizeCapAsUncompressedLeaves()
+    {
+        assertEquals( TreeNodeDynamicSize.keyValueSizeCapFromPageSize( PAGE_SIZE ), getNode( PAGE_SIZE, layout ).keyValueSizeCap() );
+    }
+
+    @Test
+    void leafWithoutPrefixShouldLookLikeUncompressedLeaf() throws IOException
+    {
+        // Given
+        TreeNodeDynamicSize<RawBytes,RawBytes> node = getNode( PAGE_SIZE, layout );
+        TreeNodeDynamicSize<RawBytes,RawBytes> uncompressedNode = new TreeNodeDynamicSize<>( PAGE_SIZE, new SimpleByteArrayLayout( true ) );
+        PageCursor uncompressedCursor = new PageAwareByteArrayCursor( PAGE_SIZE );
+        uncompressedCursor.next();
+        node.initializeLeaf( cursor, STABLE_GENERATION, UNSTABLE_GENERATION );
+        uncompressedNode.initializeLeaf( uncompressedCursor, STABLE_GENERATION, UNSTABLE_GENERATION );
+
+        // When
+        for ( int i = 0; i < 4; i++ )
+        {
+            node.insertKeyValueAt( cursor, key( (char) ('a' + i), 10, i ), value( i ), i, i );
+            TreeNode.setKeyCount( cursor, i + 1 );
+            uncompressedNode.insertKeyValueAt( uncompressedCursor, key( (char) ('a' + i), 10, i ), value( i ), i, i );
+            TreeNode.setKeyCount( uncompressedCursor, i + 1 );
+        }
+        node.defragmentLeaf( cursor );
+
+        // Then
+        assertEquals( 0, node.getPrefixLength( cursor ) );
+        assertArrayEquals( pageBytes( uncompressedCursor ), pageBytes( cursor ) );
+    }
+
+    @Test
+    void shouldSplitLeafWithPrefixWhenInsertingKeyOfMaxSize() throws IOException
+    {
+        // Given a leaf with a prefix that is as full as it gets
+        TreeNodeDynamicSize<RawBytes,RawBytes> node = getNode( PAGE_SIZE, layout );
+        node.initializeLeaf( cursor, STABLE_GENERATION, UNSTABLE_GENERATION );
+        int prefixLength = TreeNodeDynamicSize.maxPrefixLength( PAGE_SIZE );
+        int keyCount = 0;
+        while ( true )
+        {
+            RawBytes key = key( 'a', prefixLength, keyCount );
+            Overflow overflow = node.leafOverflow( cursor, keyCount, key, value( keyCount ) );
+            if ( overflow == Overflow.YES )
+            {
+                break;
+            }
+            if ( overflow == Overflow.NO_NEED_DEFRAG )
+            {
+                node.defragmentLeaf( cursor );
+            }
+            node.insertKeyValueAt( cursor, key, value( keyCount ), keyCount, keyCount );
+            TreeNode.setKeyCount( cursor, ++keyCount );
+        }
+        assertEquals( prefixLength, node.getPrefixLength( cursor ) );
+
+        // When splitting it to insert a key that doesn't share the prefix at all
+        RawBytes value = value( keyCount );
+        RawBytes largeKey = layout.newKey();
+        largeKey.bytes = new byte[node.keyValueSizeCap() - value.bytes.length];
+        Arrays.fill( largeKey.bytes, (byte) 'b' );
+        PageCursor rightCursor = new PageAwareByteArrayCursor( PAGE_SIZE );
+        rightCursor.next();
+        node.initializeLeaf( rightCursor, STABLE_GENERATION, UNSTABLE_GENERATION );
+        node.doSplitLeaf( cursor, keyCount, rightCursor, keyCount, largeKey, value, layout.newKey() );
+
+        // Then
+        int leftKeyCount = TreeNode.keyCount( cursor );
+        int rightKeyCount = TreeNode.keyCount( rightCursor );
+        assertEquals( keyCount + 1, leftKeyCount + rightKeyCount );
+        for ( int i = 0; i < keyCount; i++ )
+        {
+            if ( i < leftKeyCount )
+            {
+                assertKeyValue( node, cursor, i, key( 'a', prefixLength, i ), value( i ) );
+            }
+            else
+            {
+                assertKeyValue( node, rightCursor, i - leftKeyCount, key( 'a', prefixLength, i ), value( i ) );
+            }
+        }
+        assertKeyValue( node, rightCursor, rightKeyCount - 1, largeKey, value );
+    }
+
+    @Test
+    void defragmentShouldStoreKeysRelativeToTheirCommonPrefix()
+    {
+        // Given
+        TreeNodeDynamicSize<RawBytes,RawBytes> node = getNode( PAGE_SIZE, layout );
+        node.initializeLeaf( cursor, STABLE_GENERATION, UNSTABLE_GENERATION );
+        int keyCount = 5;
+        for ( int i = 0; i < keyCount; i++ )
+        {
+            node.insertKeyValueAt( cursor, key( 'a', 10, i ), value( i ), i, i );
+            TreeNode.setKeyCount( cursor, i + 1 );
+        }
+        int allocOffsetBefore = node.getAllocOffset( cursor );
+
+        // When
+        node.defragmentLeaf( cursor );
+
+        // Then
+        assertEquals( 10, node.getPrefixLength( cursor ) );
+        assertTrue( node.getAllocOffset( cursor ) > allocOffsetBefore, "leaf should be smaller with a prefix" );
+        for ( int i = 0; i < keyCount; i++ )
+        {
+            assertKeyValue( node, cursor, i, key( 'a', 10, i ), value( i ) );
+        }
+    }
+
+    @Test
+    void shouldMoveKeysBetweenLeavesWithDifferentPrefixes() throws IOException
+    {
+        // Given
+        TreeNodeDynamicSize<RawBytes,RawBytes> node = getNode( PAGE_SIZE, layout );
+        PageCursor rightCursor = new PageAwareByteArrayCursor( PAGE_SIZE );
+        rightCursor.next();
+        node.initializeLeaf( cursor, STABLE_GENERATION, UNSTABLE_GENERATION );
+        node.initializeLeaf( rightCursor, STABLE_GENERATION, UNSTABLE_GENERATION );
+        int keyCount = 4;
+        for ( int i = 0; i < keyCount; i++ )
+        {
+            node.insertKeyValueAt( cursor, key( 'a', 10, i ), value( i ), i, i );
+            TreeNode.setKeyCount( cursor, i + 1 );
+            node.insertKeyValueAt( rightCursor, key( 'b', 12, i ), value( keyCount + i ), i, i );
+            TreeNode.setKeyCount( rightCursor, i + 1 );
+        }
+        node.defragmentLeaf( cursor );
+        node.defragmentLeaf( rightCursor );
+
+        // When
+        node.moveKeyValuesFromLeftToRight( cursor, keyCount, rightCursor, keyCount, 2 );
+
+        // Then
+        assertEquals( 2, TreeNode.keyCount( cursor ) );
+        assertEquals( keyCount + 2, TreeNode.keyCount( rightCursor ) );
+        for ( int i = 0; i < 2; i++ )
+        {
+            assertKeyValue( node, cursor, i, key( 'a', 10, i ), value( i ) );
+        }
+        for ( int i = 0; i < 2; i++ )
+        {
+            assertKeyValue( node, rightCursor, i, key( 'a', 10, 2 + i ), value( 2 + i ) );
+        }
+        for ( int i = 0; i < keyCount; i++ )
+        {
+            assertKeyValue( node, rightCursor, 2 + i, key( 'b', 12, i ), value( keyCount + i ) );
+        }
+    }
+
+    private void assertKeyValue( TreeNode<RawBytes,RawBytes> node, PageCursor cursor, int pos, RawBytes expectedKey, RawBytes expectedValue )
+    {
+        RawBytes key = node.keyAt( cursor, layout.newKey(), pos, LEAF );
+        RawBytes value = node.valueAt( cursor, layout.newValue(), pos );
+        assertArrayEquals( expectedKey.bytes, key.bytes );
+        assertArrayEquals( expectedValue.bytes, value.bytes );
+    }
+
+    private RawBytes key( char prefixByte, int prefixLength, int suffix )
+    {
+        RawBytes key = layout.newKey();
+        key.bytes = new byte[prefixLength + 2];
+        Arrays.fill( key.bytes, (byte) prefixByte );
+        key.bytes[prefixLength] = (byte) suffix;
+        key.bytes[prefixLength + 1] = (byte) (suffix * 3);
+        return key;
+    }
+
+    private static byte[] pageBytes( PageCursor cursor )
+    {
+        byte[] bytes = new byte[PAGE_SIZE];
+        cursor.setOffset( 0 );
+        cursor.getBytes( bytes );
+        return bytes;
+    }
+
+    private RawBytes value( int seed )
+    {
+        return layout.value( seed );
+    }
+}
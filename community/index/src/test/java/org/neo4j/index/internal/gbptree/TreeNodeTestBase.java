@@ -568,6 +568,76 @@ public abstract class TreeNodeTestBase<KEY,VALUE>
         assertContent( expectedKeys, expectedValues, expectedKeyCount );
     }
 
+    @Test
+    void leafUnderflowAfterRemoveMustPredictLeafUnderflow()
+    {
+        // GIVEN
+        node.initializeLeaf( cursor, STABLE_GENERATION, UNSTABLE_GENERATION );
+        int keyCount = 0;
+        while ( true )
+        {
+            KEY newKey = key( random.nextLong() );
+            VALUE newValue = value( random.nextLong() );
+            Overflow overflow = node.leafOverflow( cursor, keyCount, newKey, newValue );
+            if ( overflow == YES )
+            {
+                break;
+            }
+            if ( overflow == NO_NEED_DEFRAG )
+            {
+                node.defragmentLeaf( cursor );
+            }
+            node.insertKeyValueAt( cursor, newKey, newValue, keyCount, keyCount );
+            TreeNode.setKeyCount( cursor, ++keyCount );
+        }
+
+        // WHEN/THEN
+        while ( keyCount > 0 )
+        {
+            int position = random.nextInt( keyCount );
+            boolean expectedUnderflow = node.leafUnderflowAfterRemove( cursor, keyCount, position );
+            node.removeKeyValueAt( cursor, position, keyCount );
+            TreeNode.setKeyCount( cursor, --keyCount );
+            assertEquals( expectedUnderflow, node.leafUnderflow( cursor, keyCount ) );
+        }
+    }
+
+    @Test
+    void leafFilledPastMustStopBeforeLeafOverflow()
+    {
+        // GIVEN
+        node.initializeLeaf( cursor, STABLE_GENERATION, UNSTABLE_GENERATION );
+        KEY key = key( 0 );
+        VALUE value = value( 0 );
+        int keyCountWhenHalfFilled = -1;
+        int keyCount = 0;
+
+        // WHEN
+        while ( true )
+        {
+            if ( keyCountWhenHalfFilled == -1 && node.leafFilledPast( cursor, keyCount, key, value, 0.5 ) )
+            {
+                keyCountWhenHalfFilled = keyCount;
+            }
+            Overflow overflow = node.leafOverflow( cursor, keyCount, key, value );
+            if ( overflow == YES )
+            {
+                break;
+            }
+            if ( overflow == NO_NEED_DEFRAG )
+            {
+                node.defragmentLeaf( cursor );
+            }
+            node.insertKeyValueAt( cursor, key, value, keyCount, keyCount );
+            TreeNode.setKeyCount( cursor, ++keyCount );
+        }
+
+        // THEN
+        assertTrue( keyCountWhenHalfFilled > 0, "Leaf never filled past half, " + keyCountWhenHalfFilled );
+        assertTrue( keyCountWhenHalfFilled <= (keyCount + 1) / 2,
+                "Leaf filled past half at " + keyCountWhenHalfFilled + " of " + keyCount + " keys" );
+    }
+
     private void assertContent( List<KEY> expectedKeys, List<VALUE> expectedValues, int expectedKeyCount )
     {
         KEY actualKey = layout.newKey();
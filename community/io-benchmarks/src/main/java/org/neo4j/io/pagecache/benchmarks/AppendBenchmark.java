@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+
+/**
+ * Append pages to a file that keeps growing, so the translation table of the file has to be expanded over and over,
+ * while other threads read from another file that is already fully cached.
+ * <p>
+ * The append file is mapped anew for every iteration, and uses a small file page size, so every iteration goes
+ * through many expansions of its translation table. The read throughput of the "append" group, compared to the
+ * "readOnly" group, shows how much the appending threads disturb the readers.
+ */
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5 )
+@Measurement( iterations = 5 )
+@Fork( 1 )
+public class AppendBenchmark
+{
+    private static final int APPEND_PAGE_SIZE = 256;
+    // Wrap around once the append file reaches 256 MiB, so it does not fill up the benchmark directory.
+    private static final long MAX_APPEND_PAGES = 1 << 20;
+
+    @State( Scope.Group )
+    public static class GrowingFile extends PageCacheState
+    {
+        PagedFile appendFile;
+        AtomicLong nextPageId;
+
+        @Override
+        String pageCacheMemory()
+        {
+            return "512 MiB";
+        }
+
+        @Override
+        int filePages()
+        {
+            return 1024;
+        }
+
+        @Setup( Level.Iteration )
+        public void mapAppendFile() throws IOException
+        {
+            File file = new File( directory, "append" );
+            appendFile = pageCache.map( file, APPEND_PAGE_SIZE, CREATE, TRUNCATE_EXISTING );
+            nextPageId = new AtomicLong();
+        }
+
+        @TearDown( Level.Iteration )
+        public void unmapAppendFile() throws IOException
+        {
+            appendFile.close();
+        }
+    }
+
+    @State( Scope.Thread )
+    public static class Cursors
+    {
+        PageCursor reader;
+        PageCursor appender;
+
+        @Setup( Level.Iteration )
+        public void setUp( GrowingFile file ) throws IOException
+        {
+            reader = file.pagedFile.io( 0, PF_SHARED_READ_LOCK );
+            appender = file.appendFile.io( 0, PF_SHARED_WRITE_LOCK );
+        }
+
+        @TearDown( Level.Iteration )
+        public void tearDown()
+        {
+            reader.close();
+            appender.close();
+        }
+    }
+
+    @Benchmark
+    @Group( "append" )
+    @GroupThreads( 2 )
+    public void append( GrowingFile file, Cursors cursors ) throws IOException
+    {
+        long pageId = file.nextPageId.getAndIncrement() % MAX_APPEND_PAGES;
+        PageCursor appender = cursors.appender;
+        appender.next( pageId );
+        appender.putLong( pageId );
+    }
+
+    @Benchmark
+    @Group( "append" )
+    @GroupThreads( 2 )
+    public long readWhileAppending( GrowingFile file, Cursors cursors ) throws IOException
+    {
+        return read( file, cursors );
+    }
+
+    @Benchmark
+    @Group( "readOnly" )
+    @GroupThreads( 2 )
+    public long readOnly( GrowingFile file, Cursors cursors ) throws IOException
+    {
+        return read( file, cursors );
+    }
+
+    private static long read( GrowingFile file, Cursors cursors ) throws IOException
+    {
+        PageCursor reader = cursors.reader;
+        reader.next( ThreadLocalRandom.current().nextInt( file.filePages ) );
+        return PageCacheState.read( reader );
+    }
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.benchmarks;
+
+import org.apache.commons.lang3.mutable.MutableLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Layout;
+import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
+import org.neo4j.index.internal.gbptree.Writer;
+import org.neo4j.io.pagecache.IOLimiter;
+import org.neo4j.io.pagecache.PageCursor;
+
+import static org.neo4j.index.internal.gbptree.GBPTree.NO_HEADER_READER;
+import static org.neo4j.index.internal.gbptree.GBPTree.NO_HEADER_WRITER;
+import static org.neo4j.index.internal.gbptree.GBPTree.NO_MONITOR;
+
+/**
+ * Insert and remove random keys in a GB+Tree from multiple threads, in batches like the index updates of a
+ * transaction.
+ * <p>
+ * With the "single" writer mode the threads take turns using the single writer of the tree, which is how index
+ * updates are applied today. With the "parallel" writer mode every thread uses its own parallel writer, so threads
+ * that change different leaves don't wait for each other.
+ */
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 5 )
+@Measurement( iterations = 5 )
+@Fork( 1 )
+@Threads( 4 )
+public class GBPTreeWriterBenchmark
+{
+    private static final int BATCH_SIZE = 100;
+
+    @State( Scope.Benchmark )
+    public static class Tree extends PageCacheState
+    {
+        @Param( {"single", "parallel"} )
+        public String writerMode;
+
+        @Param( {"1000000"} )
+        public long keySpace;
+
+        GBPTree<MutableLong,MutableLong> tree;
+
+        @Override
+        String pageCacheMemory()
+        {
+            return "512 MiB";
+        }
+
+        @Override
+        int filePages()
+        {
+            return 1;
+        }
+
+        @Setup( Level.Trial )
+        public void setUpTree() throws IOException
+        {
+            tree = new GBPTree<>( pageCache, new File( directory, "tree" ), new LongLayout(), 0, NO_MONITOR,
+                    NO_HEADER_READER, NO_HEADER_WRITER, RecoveryCleanupWorkCollector.immediate() );
+            // Fill the tree half way, so that about half of the inserts and removes find their key
+            try ( Writer<MutableLong,MutableLong> writer = tree.writer() )
+            {
+                for ( long key = 0; key < keySpace; key += 2 )
+                {
+                    writer.put( new MutableLong( key ), new MutableLong( key ) );
+                }
+            }
+            tree.checkpoint( IOLimiter.UNLIMITED );
+        }
+
+        @TearDown( Level.Iteration )
+        public void checkpoint() throws IOException
+        {
+            tree.checkpoint( IOLimiter.UNLIMITED );
+        }
+
+        @TearDown( Level.Trial )
+        public void tearDownTree() throws IOException
+        {
+            tree.close();
+        }
+
+        Writer<MutableLong,MutableLong> writer() throws IOException
+        {
+            return "parallel".equals( writerMode ) ? tree.parallelWriter() : tree.writer();
+        }
+    }
+
+    @State( Scope.Thread )
+    public static class Batch
+    {
+        final MutableLong key = new MutableLong();
+        final MutableLong value = new MutableLong();
+    }
+
+    @Benchmark
+    public void insertAndRemove( Tree tree, Batch batch ) throws IOException
+    {
+        if ( "parallel".equals( tree.writerMode ) )
+        {
+            applyBatch( tree, batch );
+        }
+        else
+        {
+            // There is only one single writer, so the threads have to take turns
+            synchronized ( tree )
+            {
+                applyBatch( tree, batch );
+            }
+        }
+    }
+
+    private static void applyBatch( Tree tree, Batch batch ) throws IOException
+    {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try ( Writer<MutableLong,MutableLong> writer = tree.writer() )
+        {
+            for ( int i = 0; i < BATCH_SIZE; i++ )
+            {
+                batch.key.setValue( random.nextLong( tree.keySpace ) );
+                if ( random.nextBoolean() )
+                {
+                    batch.value.setValue( batch.key.longValue() );
+                    writer.put( batch.key, batch.value );
+                }
+                else
+                {
+                    writer.remove( batch.key );
+                }
+            }
+        }
+    }
+
+    private static class LongLayout extends Layout.Adapter<MutableLong,MutableLong>
+    {
+        @Override
+        public int compare( MutableLong o1, MutableLong o2 )
+        {
+            return Long.compare( o1.longValue(), o2.longValue() );
+        }
+
+        @Override
+        public MutableLong newKey()
+        {
+            return new MutableLong();
+        }
+
+        @Override
+        public MutableLong copyKey( MutableLong key, MutableLong into )
+        {
+            into.setValue( key.longValue() );
+            return into;
+        }
+
+        @Override
+        public MutableLong newValue()
+        {
+            return new MutableLong();
+        }
+
+        @Override
+        public int keySize( MutableLong key )
+        {
+            return Long.BYTES;
+        }
+
+        @Override
+        public int valueSize( MutableLong value )
+        {
+            return Long.BYTES;
+        }
+
+        @Override
+        public void writeKey( PageCursor cursor, MutableLong key )
+        {
+            cursor.putLong( key.longValue() );
+        }
+
+        @Override
+        public void writeValue( PageCursor cursor, MutableLong value )
+        {
+            cursor.putLong( value.longValue() );
+        }
+
+        @Override
+        public void readKey( PageCursor cursor, MutableLong into, int keySize )
+        {
+            into.setValue( cursor.getLong() );
+        }
+
+        @Override
+        public void readValue( PageCursor cursor, MutableLong into, int valueSize )
+        {
+            into.setValue( cursor.getLong() );
+        }
+
+        @Override
+        public boolean fixedSize()
+        {
+            return true;
+        }
+
+        @Override
+        public long identifier()
+        {
+            return 4711;
+        }
+
+        @Override
+        public int majorVersion()
+        {
+            return 0;
+        }
+
+        @Override
+        public int minorVersion()
+        {
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.io.pagecache.PageCursor;
+
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+
+/**
+ * Optimistic reads of a small set of hot pages, while other threads write to the same pages.
+ * <p>
+ * Every write that overlaps with a read makes the read retry, so the read throughput of the "contended" group,
+ * compared to the "uncontended" group, shows the cost of the optimistic read locks under contention.
+ */
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5 )
+@Measurement( iterations = 5 )
+@Fork( 1 )
+public class OptimisticReadBenchmark
+{
+    @State( Scope.Group )
+    public static class HotPages extends PageCacheState
+    {
+        @Param( {"1", "16"} )
+        public int hotPages;
+
+        @Override
+        String pageCacheMemory()
+        {
+            return "8 MiB";
+        }
+
+        @Override
+        int filePages()
+        {
+            return hotPages;
+        }
+    }
+
+    @State( Scope.Thread )
+    public static class Cursors
+    {
+        PageCursor reader;
+        PageCursor writer;
+
+        @Setup
+        public void setUp( HotPages pages ) throws IOException
+        {
+            reader = pages.pagedFile.io( 0, PF_SHARED_READ_LOCK );
+            writer = pages.pagedFile.io( 0, PF_SHARED_WRITE_LOCK );
+        }
+
+        @TearDown
+        public void tearDown()
+        {
+            reader.close();
+            writer.close();
+        }
+    }
+
+    @Benchmark
+    @Group( "contended" )
+    @GroupThreads( 3 )
+    public long contendedRead( HotPages pages, Cursors cursors ) throws IOException
+    {
+        return read( pages, cursors );
+    }
+
+    @Benchmark
+    @Group( "contended" )
+    @GroupThreads( 1 )
+    public void contendedWrite( HotPages pages, Cursors cursors ) throws IOException
+    {
+        PageCursor writer = cursors.writer;
+        long pageId = ThreadLocalRandom.current().nextInt( pages.filePages );
+        writer.next( pageId );
+        writer.putLong( writer.getLong() + 1 );
+    }
+
+    @Benchmark
+    @Group( "uncontended" )
+    @GroupThreads( 3 )
+    public long uncontendedRead( HotPages pages, Cursors cursors ) throws IOException
+    {
+        return read( pages, cursors );
+    }
+
+    private static long read( HotPages pages, Cursors cursors ) throws IOException
+    {
+        PageCursor reader = cursors.reader;
+        reader.next( ThreadLocalRandom.current().nextInt( pages.filePages ) );
+        return PageCacheState.read( reader );
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.benchmarks;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.neo4j.io.fs.DefaultFileSystemAbstraction;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.impl.muninn.StandalonePageCacheFactory;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.scheduler.ThreadPoolJobScheduler;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+
+/**
+ * A page cache with a single mapped file, that has been filled with data before the benchmark starts.
+ * <p>
+ * The file is created in the directory given by the {@code neo4j.benchmark.dir} system property, or in
+ * {@code /dev/shm} if no directory is given and it exists. The benchmarks are meant to measure the page cache, and
+ * not the storage device, so a tmpfs file system is strongly preferred.
+ */
+@State( Scope.Benchmark )
+public abstract class PageCacheState
+{
+    private static final String BENCHMARK_DIR = "neo4j.benchmark.dir";
+    private static final File TMPFS_DIR = new File( "/dev/shm" );
+
+    FileSystemAbstraction fs;
+    JobScheduler jobScheduler;
+    PageCache pageCache;
+    PagedFile pagedFile;
+    int filePages;
+    File directory;
+
+    /**
+     * @return The amount of memory given to the page cache, e.g. "8 MiB".
+     */
+    abstract String pageCacheMemory();
+
+    /**
+     * @return The number of pages in the mapped file.
+     */
+    abstract int filePages();
+
+    @Setup( Level.Trial )
+    public void setUpPageCache() throws IOException
+    {
+        fs = new DefaultFileSystemAbstraction();
+        jobScheduler = new ThreadPoolJobScheduler();
+        directory = createDirectory();
+        pageCache = StandalonePageCacheFactory.createPageCache( fs, jobScheduler, pageCacheMemory() );
+        pagedFile = pageCache.map( new File( directory, "benchmark" ), pageCache.pageSize(), CREATE );
+        filePages = filePages();
+        try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK ) )
+        {
+            for ( long pageId = 0; pageId < filePages; pageId++ )
+            {
+                cursor.next( pageId );
+                cursor.putLong( pageId );
+            }
+        }
+        pagedFile.flushAndForce();
+    }
+
+    @TearDown( Level.Trial )
+    public void tearDownPageCache() throws Exception
+    {
+        pagedFile.close();
+        pageCache.close();
+        jobScheduler.close();
+        fs.deleteRecursively( directory );
+        fs.close();
+    }
+
+    /**
+     * Read a long from the current page of the given cursor, retrying the read if it raced with a writer.
+     */
+    static long read( PageCursor cursor ) throws IOException
+    {
+        long value;
+        do
+        {
+            value = cursor.getLong();
+        }
+        while ( cursor.shouldRetry() );
+        return value;
+    }
+
+    private static File createDirectory() throws IOException
+    {
+        String dir = System.getProperty( BENCHMARK_DIR );
+        File parent = dir != null ? new File( dir ) : TMPFS_DIR.isDirectory() ? TMPFS_DIR : null;
+        if ( parent == null )
+        {
+            return Files.createTempDirectory( "pagecache-benchmark" ).toFile();
+        }
+        return Files.createTempDirectory( parent.toPath(), "pagecache-benchmark" ).toFile();
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+
+/**
+ * Fault pages in from a file that is much larger than the page cache, so nearly every pin is a page fault, and nearly
+ * every page fault has to evict a page first.
+ * <p>
+ * The read benchmarks only ever evict clean pages, while the write benchmark dirties the pages it faults in, so the
+ * pages it evicts must be flushed first. This is the eviction under pressure case.
+ */
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 5 )
+@Measurement( iterations = 5 )
+@Fork( 1 )
+public class PageFaultBenchmark
+{
+    @State( Scope.Benchmark )
+    public static class ColdPages extends PageCacheState
+    {
+        @Override
+        String pageCacheMemory()
+        {
+            return "8 MiB";
+        }
+
+        @Override
+        int filePages()
+        {
+            return 16 * 1024;
+        }
+    }
+
+    @State( Scope.Thread )
+    public static class Scan
+    {
+        PagedFile pagedFile;
+        PageCursor cursor;
+
+        @Setup
+        public void setUp( ColdPages pages ) throws IOException
+        {
+            pagedFile = pages.pagedFile;
+            // Start every thread at its own offset, so concurrent scans do not fault in pages for each other.
+            cursor = pagedFile.io( ThreadLocalRandom.current().nextInt( pages.filePages ), PF_SHARED_READ_LOCK );
+        }
+
+        @TearDown
+        public void tearDown()
+        {
+            cursor.close();
+        }
+    }
+
+    @Benchmark
+    public long randomReadFaults( ColdPages pages ) throws IOException
+    {
+        try ( PageCursor reader = pages.pagedFile.io( ThreadLocalRandom.current().nextInt( pages.filePages ),
+                PF_SHARED_READ_LOCK ) )
+        {
+            reader.next();
+            return PageCacheState.read( reader );
+        }
+    }
+
+    @Benchmark
+    public long sequentialReadFaults( Scan scan ) throws IOException
+    {
+        if ( !scan.cursor.next() )
+        {
+            scan.cursor.close();
+            scan.cursor = scan.pagedFile.io( 0, PF_SHARED_READ_LOCK );
+            scan.cursor.next();
+        }
+        return PageCacheState.read( scan.cursor );
+    }
+
+    @Benchmark
+    public void randomWriteFaultsWithDirtyEvictions( ColdPages pages ) throws IOException
+    {
+        long pageId = ThreadLocalRandom.current().nextInt( pages.filePages );
+        try ( PageCursor writer = pages.pagedFile.io( pageId, PF_SHARED_WRITE_LOCK ) )
+        {
+            writer.next();
+            writer.putLong( pageId );
+        }
+    }
+}
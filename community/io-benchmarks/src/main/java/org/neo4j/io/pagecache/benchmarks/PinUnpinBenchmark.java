@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.io.pagecache.PageCursor;
+
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+
+/**
+ * Pin and unpin pages that are already in memory, so no page faults or evictions are involved.
+ */
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5 )
+@Measurement( iterations = 5 )
+@Fork( 1 )
+public class PinUnpinBenchmark
+{
+    @State( Scope.Benchmark )
+    public static class HotPages extends PageCacheState
+    {
+        @Override
+        String pageCacheMemory()
+        {
+            return "64 MiB";
+        }
+
+        @Override
+        int filePages()
+        {
+            return 1024;
+        }
+    }
+
+    @State( Scope.Thread )
+    public static class Cursors
+    {
+        PageCursor reader;
+        PageCursor writer;
+
+        @Setup
+        public void setUp( HotPages pages ) throws IOException
+        {
+            reader = pages.pagedFile.io( 0, PF_SHARED_READ_LOCK );
+            writer = pages.pagedFile.io( 0, PF_SHARED_WRITE_LOCK );
+        }
+
+        @TearDown
+        public void tearDown()
+        {
+            reader.close();
+            writer.close();
+        }
+    }
+
+    @Benchmark
+    public long readLock( HotPages pages, Cursors cursors ) throws IOException
+    {
+        PageCursor reader = cursors.reader;
+        reader.next( ThreadLocalRandom.current().nextInt( pages.filePages ) );
+        return PageCacheState.read( reader );
+    }
+
+    @Benchmark
+    public void writeLock( HotPages pages, Cursors cursors ) throws IOException
+    {
+        PageCursor writer = cursors.writer;
+        long pageId = ThreadLocalRandom.current().nextInt( pages.filePages );
+        writer.next( pageId );
+        writer.putLong( pageId );
+    }
+
+    @Benchmark
+    public long openReadLockAndClose( HotPages pages ) throws IOException
+    {
+        try ( PageCursor reader = pages.pagedFile.io( ThreadLocalRandom.current().nextInt( pages.filePages ),
+                PF_SHARED_READ_LOCK ) )
+        {
+            reader.next();
+            return PageCacheState.read( reader );
+        }
+    }
+}
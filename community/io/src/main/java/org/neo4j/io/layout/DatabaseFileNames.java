@@ -28,6 +28,8 @@ final class DatabaseFileNames
 
     static final String LABEL_SCAN_STORE = "neostore.labelscanstore.db";
 
+    static final String RELATIONSHIP_TYPE_SCAN_STORE = "neostore.relationshiptypescanstore.db";
+
     static final String COUNTS_STORE_A = "neostore.counts.db.a";
     static final String COUNTS_STORE_B = "neostore.counts.db.b";
 
@@ -33,5 +33,13 @@ public enum PageCacheOpenOptions implements OpenOption
      * If so, the given file page size will be ignored and a {@link PagedFile} will be returned that uses the
      * file page size of the existing mapping.
      */
-    ANY_PAGE_SIZE
+    ANY_PAGE_SIZE,
+
+    /**
+     * Reserve a share of the page cache for the mapped file, such that its pages are protected from eviction.
+     * All files mapped with this option share a single reservation, the size of which is determined by the page cache
+     * implementation. Pages that exceed the reservation are evicted like any other page. This is intended for small
+     * and frequently accessed files, that should stay in memory even when other files are being scanned.
+     */
+    RESERVED
 }
@@ -0,0 +1,520 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl;
+
+import org.apache.commons.lang3.SystemUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.OpenOption;
+
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PageEvictionCallback;
+import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
+import org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil;
+
+import static java.lang.String.format;
+
+/**
+ * A PageSwapper implementation that directs all page swapping to a single file on the file system, using direct IO.
+ *
+ * Direct IO bypasses the page cache of the operating system, so the contents of the file are not kept in memory twice,
+ * and the operating system does not build up large amounts of dirty pages that it later has to write back.
+ * The file offsets, transfer sizes and buffer addresses of direct IO must all be aligned to the block size of the
+ * file system. This means that the file page size must be a multiple of the block size, and that the page buffers
+ * must be aligned to the block size. The {@link DirectIOPageSwapperFactory} makes sure of that.
+ *
+ * Like the SingleFilePageSwapper, it tracks the file size precisely, to avoid calling into the file system whenever
+ * the size of the given file is queried.
+ */
+public class DirectIOPageSwapper implements PageSwapper
+{
+    private static final int MAX_INTERRUPTED_CHANNEL_REOPEN_ATTEMPTS = 42;
+
+    private static final long fileSizeOffset =
+            UnsafeUtil.getFieldOffset( DirectIOPageSwapper.class, "fileSize" );
+
+    private static final ThreadLocal<ByteBuffer> proxyCache = new ThreadLocal<>();
+
+    private static ByteBuffer proxy( long buffer, int bufferLength ) throws IOException
+    {
+        ByteBuffer buf = proxyCache.get();
+        if ( buf != null )
+        {
+            UnsafeUtil.initDirectByteBuffer( buf, buffer, bufferLength );
+            return buf;
+        }
+        try
+        {
+            buf = UnsafeUtil.newDirectByteBuffer( buffer, bufferLength );
+        }
+        catch ( Exception e )
+        {
+            throw new IOException( e );
+        }
+        proxyCache.set( buf );
+        return buf;
+    }
+
+    private final FileSystemAbstraction fs;
+    private final File file;
+    private final int filePageSize;
+    private final int blockSize;
+    private final OpenOption[] openOptions;
+    private volatile PageEvictionCallback onEviction;
+    private volatile FileChannel channel;
+    private FileLock fileLock;
+
+    // Guarded by synchronized(this). See tryReopen() and close().
+    private boolean closed;
+
+    @SuppressWarnings( "unused" ) // Accessed through unsafe
+    private volatile long fileSize;
+
+    /**
+     * @param channel A channel that has been opened with the given direct IO open options.
+     */
+    DirectIOPageSwapper(
+            File file,
+            FileSystemAbstraction fs,
+            int filePageSize,
+            int blockSize,
+            PageEvictionCallback onEviction,
+            FileChannel channel,
+            OpenOption[] openOptions ) throws IOException
+    {
+        this.fs = fs;
+        this.file = file;
+        this.filePageSize = filePageSize;
+        this.blockSize = blockSize;
+        this.onEviction = onEviction;
+        this.channel = channel;
+        this.openOptions = openOptions;
+        increaseFileSizeTo( channel.size() );
+
+        try
+        {
+            acquireLock();
+        }
+        catch ( IOException e )
+        {
+            try
+            {
+                channel.close();
+            }
+            catch ( IOException closeException )
+            {
+                e.addSuppressed( closeException );
+            }
+            throw e;
+        }
+    }
+
+    private void increaseFileSizeTo( long newFileSize )
+    {
+        long currentFileSize;
+        do
+        {
+            currentFileSize = getCurrentFileSize();
+        }
+        while ( currentFileSize < newFileSize && !UnsafeUtil.compareAndSwapLong(
+                this, fileSizeOffset, currentFileSize, newFileSize ) );
+    }
+
+    private long getCurrentFileSize()
+    {
+        return UnsafeUtil.getLongVolatile( this, fileSizeOffset );
+    }
+
+    private void setCurrentFileSize( long size )
+    {
+        UnsafeUtil.putLongVolatile( this, fileSizeOffset, size );
+    }
+
+    private void acquireLock() throws IOException
+    {
+        if ( SystemUtils.IS_OS_WINDOWS )
+        {
+            // See SingleFilePageSwapper.acquireLock() for why we don't take file locks on Windows.
+            return;
+        }
+
+        try
+        {
+            fileLock = channel.tryLock();
+            if ( fileLock == null )
+            {
+                throw new FileLockException( file );
+            }
+        }
+        catch ( OverlappingFileLockException e )
+        {
+            throw new FileLockException( file, e );
+        }
+    }
+
+    private int swapIn( long bufferAddress, long fileOffset ) throws IOException
+    {
+        int readTotal = 0;
+        try
+        {
+            ByteBuffer bufferProxy = proxy( bufferAddress, filePageSize );
+            int read;
+            do
+            {
+                read = channel.read( bufferProxy, fileOffset + readTotal );
+            }
+            // A short read that leaves us at an unaligned offset can only mean that we have reached the end of the
+            // file, and direct IO would refuse to read from an unaligned offset anyway.
+            while ( read > 0 && (readTotal += read) < filePageSize && readTotal % blockSize == 0 );
+
+            // Zero-fill the rest.
+            UnsafeUtil.setMemory( bufferAddress + readTotal, filePageSize - readTotal, MuninnPageCache.ZERO_BYTE );
+            return readTotal;
+        }
+        catch ( IOException e )
+        {
+            throw e;
+        }
+        catch ( Throwable e )
+        {
+            String msg = format(
+                    "Read failed after %s of %s bytes from fileOffset %s",
+                    readTotal, filePageSize, fileOffset );
+            throw new IOException( msg, e );
+        }
+    }
+
+    private int swapOut( long bufferAddress, long fileOffset ) throws IOException
+    {
+        try
+        {
+            ByteBuffer bufferProxy = proxy( bufferAddress, filePageSize );
+            long position = fileOffset;
+            while ( bufferProxy.hasRemaining() )
+            {
+                position += channel.write( bufferProxy, position );
+            }
+        }
+        catch ( IOException e )
+        {
+            throw e;
+        }
+        catch ( Throwable e )
+        {
+            throw new IOException( e );
+        }
+        return filePageSize;
+    }
+
+    private void clear( long bufferAddress, int bufferSize )
+    {
+        UnsafeUtil.setMemory( bufferAddress, bufferSize, MuninnPageCache.ZERO_BYTE );
+    }
+
+    @Override
+    public long read( long filePageId, long bufferAddress, int bufferSize ) throws IOException
+    {
+        return readAndRetryIfInterrupted( filePageId, bufferAddress, bufferSize, MAX_INTERRUPTED_CHANNEL_REOPEN_ATTEMPTS );
+    }
+
+    private long readAndRetryIfInterrupted( long filePageId, long bufferAddress, int bufferSize, int attemptsLeft ) throws IOException
+    {
+        long fileOffset = pageIdToPosition( filePageId );
+        try
+        {
+            if ( fileOffset < getCurrentFileSize() )
+            {
+                return swapIn( bufferAddress, fileOffset );
+            }
+            else
+            {
+                clear( bufferAddress, bufferSize );
+            }
+        }
+        catch ( ClosedChannelException e )
+        {
+            tryReopen( e );
+
+            if ( attemptsLeft < 1 )
+            {
+                throw new IOException( "IO failed due to interruption", e );
+            }
+
+            boolean interrupted = Thread.interrupted();
+            long bytesRead = readAndRetryIfInterrupted( filePageId, bufferAddress, bufferSize, attemptsLeft - 1 );
+            if ( interrupted )
+            {
+                Thread.currentThread().interrupt();
+            }
+            return bytesRead;
+        }
+        return 0;
+    }
+
+    @Override
+    public long read( long startFilePageId, long[] bufferAddresses, int bufferSize, int arrayOffset, int length ) throws IOException
+    {
+        // Direct IO does not benefit from being vectored the way buffered IO does, since every page is transferred
+        // straight to or from the device anyway.
+        long bytes = 0;
+        for ( int i = 0; i < length; i++ )
+        {
+            bytes += read( startFilePageId + i, bufferAddresses[arrayOffset + i], bufferSize );
+        }
+        return bytes;
+    }
+
+    @Override
+    public long write( long filePageId, long bufferAddress ) throws IOException
+    {
+        return writeAndRetryIfInterrupted( filePageId, bufferAddress, MAX_INTERRUPTED_CHANNEL_REOPEN_ATTEMPTS );
+    }
+
+    private long writeAndRetryIfInterrupted( long filePageId, long bufferAddress, int attemptsLeft ) throws IOException
+    {
+        long fileOffset = pageIdToPosition( filePageId );
+        increaseFileSizeTo( fileOffset + filePageSize );
+        try
+        {
+            return swapOut( bufferAddress, fileOffset );
+        }
+        catch ( ClosedChannelException e )
+        {
+            tryReopen( e );
+
+            if ( attemptsLeft < 1 )
+            {
+                throw new IOException( "IO failed due to interruption", e );
+            }
+
+            boolean interrupted = Thread.interrupted();
+            long bytesWritten = writeAndRetryIfInterrupted( filePageId, bufferAddress, attemptsLeft - 1 );
+            if ( interrupted )
+            {
+                Thread.currentThread().interrupt();
+            }
+            return bytesWritten;
+        }
+    }
+
+    @Override
+    public long write( long startFilePageId, long[] bufferAddresses, int arrayOffset, int length ) throws IOException
+    {
+        long bytes = 0;
+        for ( int i = 0; i < length; i++ )
+        {
+            bytes += write( startFilePageId + i, bufferAddresses[arrayOffset + i] );
+        }
+        return bytes;
+    }
+
+    @Override
+    public void evicted( long filePageId )
+    {
+        PageEvictionCallback callback = this.onEviction;
+        if ( callback != null )
+        {
+            callback.onEvict( filePageId );
+        }
+    }
+
+    @Override
+    public File file()
+    {
+        return file;
+    }
+
+    private long pageIdToPosition( long pageId )
+    {
+        return filePageSize * pageId;
+    }
+
+    @Override
+    public boolean equals( Object o )
+    {
+        if ( this == o )
+        {
+            return true;
+        }
+        if ( o == null || getClass() != o.getClass() )
+        {
+            return false;
+        }
+
+        DirectIOPageSwapper that = (DirectIOPageSwapper) o;
+
+        return file.equals( that.file );
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return file.hashCode();
+    }
+
+    /**
+     * Reopens the channel if it has been closed and the close() method on this swapper has not been called, e.g. if
+     * the channel has been closed by an interrupt.
+     *
+     * If the channel has been explicitly closed with the PageSwapper#close() method, or if the reopening fails, then
+     * the passed-in exception is re-thrown, with any exception from the reopening added as a suppressed exception.
+     */
+    private synchronized void tryReopen( ClosedChannelException closedException ) throws ClosedChannelException
+    {
+        if ( channel.isOpen() )
+        {
+            // Someone got ahead of us, presumably. Nothing to do.
+            return;
+        }
+
+        if ( closed )
+        {
+            // We've been explicitly closed, so we shouldn't reopen the channel.
+            throw closedException;
+        }
+
+        try
+        {
+            channel = FileChannel.open( file.toPath(), openOptions );
+            // The closing of a FileChannel also releases all associated file locks.
+            acquireLock();
+        }
+        catch ( IOException e )
+        {
+            closedException.addSuppressed( e );
+            throw closedException;
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException
+    {
+        closed = true;
+        try
+        {
+            channel.close();
+        }
+        finally
+        {
+            // Eagerly relinquish our reference to the onEviction callback, and through it the translation table.
+            onEviction = null;
+        }
+    }
+
+    @Override
+    public synchronized void closeAndDelete() throws IOException
+    {
+        close();
+        fs.deleteFile( file );
+    }
+
+    @Override
+    public void force() throws IOException
+    {
+        forceAndRetryIfInterrupted( MAX_INTERRUPTED_CHANNEL_REOPEN_ATTEMPTS );
+    }
+
+    private void forceAndRetryIfInterrupted( int attemptsLeft ) throws IOException
+    {
+        try
+        {
+            // Direct IO bypasses the operating system page cache, but we still need to flush file meta-data and the
+            // write cache of the device.
+            channel.force( false );
+        }
+        catch ( ClosedChannelException e )
+        {
+            tryReopen( e );
+
+            if ( attemptsLeft < 1 )
+            {
+                throw new IOException( "IO failed due to interruption", e );
+            }
+
+            boolean interrupted = Thread.interrupted();
+            forceAndRetryIfInterrupted( attemptsLeft - 1 );
+            if ( interrupted )
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public long getLastPageId()
+    {
+        long channelSize = getCurrentFileSize();
+        if ( channelSize == 0 )
+        {
+            return PageCursor.UNBOUND_PAGE_ID;
+        }
+        long div = channelSize / filePageSize;
+        long mod = channelSize % filePageSize;
+        return mod == 0 ? div - 1 : div;
+    }
+
+    @Override
+    public void truncate() throws IOException
+    {
+        truncateAndRetryIfInterrupted( MAX_INTERRUPTED_CHANNEL_REOPEN_ATTEMPTS );
+    }
+
+    private void truncateAndRetryIfInterrupted( int attemptsLeft ) throws IOException
+    {
+        setCurrentFileSize( 0 );
+        try
+        {
+            channel.truncate( 0 );
+        }
+        catch ( ClosedChannelException e )
+        {
+            tryReopen( e );
+
+            if ( attemptsLeft < 1 )
+            {
+                throw new IOException( "IO failed due to interruption", e );
+            }
+
+            boolean interrupted = Thread.interrupted();
+            truncateAndRetryIfInterrupted( attemptsLeft - 1 );
+            if ( interrupted )
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "DirectIOPageSwapper{" +
+                "filePageSize=" + filePageSize +
+                ", file=" + file +
+                '}';
+    }
+}
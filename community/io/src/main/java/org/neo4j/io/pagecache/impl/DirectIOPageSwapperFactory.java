@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.OpenOption;
+import java.nio.file.StandardOpenOption;
+
+import org.neo4j.graphdb.config.Configuration;
+import org.neo4j.io.fs.DefaultFileSystemAbstraction;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageEvictionCallback;
+import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.PageSwapperFactory;
+import org.neo4j.util.FeatureToggles;
+
+/**
+ * A factory for DirectIOPageSwapper instances.
+ *
+ * Files are opened with direct IO when the platform supports it, which requires Java 10 or newer, a file system that
+ * supports direct IO, and a file page size that is a multiple of the file system block size. Files that cannot be
+ * opened with direct IO are instead swapped through a {@link SingleFilePageSwapper}, so this factory can always be
+ * selected, regardless of what the store files or the environment look like.
+ *
+ * @see org.neo4j.io.pagecache.impl.DirectIOPageSwapper
+ */
+public class DirectIOPageSwapperFactory implements PageSwapperFactory
+{
+    private static final int BLOCK_SIZE = FeatureToggles.getInteger( DirectIOPageSwapperFactory.class, "blockSize", 4096 );
+    private static final OpenOption DIRECT = lookupDirectOpenOption();
+
+    private FileSystemAbstraction fs;
+
+    private static OpenOption lookupDirectOpenOption()
+    {
+        try
+        {
+            // The DIRECT open option was added in Java 10.
+            Class<?> extendedOpenOption = Class.forName( "com.sun.nio.file.ExtendedOpenOption" );
+            return (OpenOption) extendedOpenOption.getField( "DIRECT" ).get( null );
+        }
+        catch ( Exception | LinkageError e )
+        {
+            return null;
+        }
+    }
+
+    /**
+     * @return {@code true} if the running platform offers direct IO, otherwise {@code false}.
+     */
+    public static boolean isDirectIOSupported()
+    {
+        return DIRECT != null;
+    }
+
+    @Override
+    public void open( FileSystemAbstraction fs, Configuration config )
+    {
+        this.fs = fs;
+    }
+
+    @Override
+    public PageSwapper createPageSwapper(
+            File file,
+            int filePageSize,
+            PageEvictionCallback onEviction,
+            boolean createIfNotExist ) throws IOException
+    {
+        if ( !fs.fileExists( file ) )
+        {
+            if ( createIfNotExist )
+            {
+                fs.create( file ).close();
+            }
+            else
+            {
+                throw new NoSuchFileException( file.getPath(), null, "Cannot map non-existing file" );
+            }
+        }
+
+        FileChannel channel = openDirectChannel( file, filePageSize );
+        if ( channel == null )
+        {
+            return new SingleFilePageSwapper( file, fs, filePageSize, onEviction );
+        }
+        return new DirectIOPageSwapper( file, fs, filePageSize, BLOCK_SIZE, onEviction, channel, directOpenOptions() );
+    }
+
+    /**
+     * Open the given file for direct IO, or return {@code null} if that is not possible for this file.
+     */
+    private FileChannel openDirectChannel( File file, int filePageSize )
+    {
+        // Direct IO goes around the file system abstraction, so only use it for files that are actually on disk.
+        if ( DIRECT == null || !(fs instanceof DefaultFileSystemAbstraction) || filePageSize % BLOCK_SIZE != 0 )
+        {
+            return null;
+        }
+        try
+        {
+            return FileChannel.open( file.toPath(), directOpenOptions() );
+        }
+        catch ( IOException | UnsupportedOperationException e )
+        {
+            // Some file systems, like tmpfs, do not support direct IO.
+            return null;
+        }
+    }
+
+    private static OpenOption[] directOpenOptions()
+    {
+        return new OpenOption[]{StandardOpenOption.READ, StandardOpenOption.WRITE, DIRECT};
+    }
+
+    @Override
+    public void syncDevice()
+    {
+        // Nothing do to, since we `fsync` files individually in `force()`.
+    }
+
+    @Override
+    public void close()
+    {
+        // We have nothing to close
+    }
+
+    @Override
+    public String implementationName()
+    {
+        return "direct";
+    }
+
+    @Override
+    public long getRequiredBufferAlignment()
+    {
+        return BLOCK_SIZE;
+    }
+}
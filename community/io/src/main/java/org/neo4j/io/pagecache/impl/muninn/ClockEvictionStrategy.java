@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+/**
+ * The {@link EvictionPolicy#CLOCK} strategy, which evicts pages once their usage counter has been swept down to zero.
+ */
+final class ClockEvictionStrategy implements EvictionStrategy
+{
+    static final EvictionStrategy INSTANCE = new ClockEvictionStrategy();
+
+    private ClockEvictionStrategy()
+    {
+    }
+
+    @Override
+    public void pageFaulted( PageList pages, long pageRef, int swapperId, long filePageId )
+    {
+    }
+
+    @Override
+    public boolean isEvictionCandidate( PageList pages, long pageRef )
+    {
+        return pages.decrementUsage( pageRef );
+    }
+
+    @Override
+    public void pageEvicted( PageList pages, long pageRef, int swapperId, long filePageId )
+    {
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.neo4j.io.pagecache.PageSwapper;
+
+/**
+ * A PageSwapper that counts the bytes read from and written to the file of the swapper it delegates to.
+ *
+ * Every page of a mapped file goes through the swapper of that file, whether it is faulted in by a page cursor, read
+ * ahead, flushed by a checkpoint or by the background flusher, or written out as part of an eviction. Counting the
+ * bytes here means the per-file IO counters don't have to be threaded through all of those code paths.
+ */
+final class CountingPageSwapper implements PageSwapper
+{
+    private final PageSwapper delegate;
+    private final LongAdder bytesRead = new LongAdder();
+    private final LongAdder bytesWritten = new LongAdder();
+
+    CountingPageSwapper( PageSwapper delegate )
+    {
+        this.delegate = delegate;
+    }
+
+    long bytesRead()
+    {
+        return bytesRead.sum();
+    }
+
+    long bytesWritten()
+    {
+        return bytesWritten.sum();
+    }
+
+    @Override
+    public long read( long filePageId, long bufferAddress, int bufferSize ) throws IOException
+    {
+        long bytes = delegate.read( filePageId, bufferAddress, bufferSize );
+        bytesRead.add( bytes );
+        return bytes;
+    }
+
+    @Override
+    public long read( long startFilePageId, long[] bufferAddresses, int bufferSize, int arrayOffset, int length )
+            throws IOException
+    {
+        long bytes = delegate.read( startFilePageId, bufferAddresses, bufferSize, arrayOffset, length );
+        bytesRead.add( bytes );
+        return bytes;
+    }
+
+    @Override
+    public long write( long filePageId, long bufferAddress ) throws IOException
+    {
+        long bytes = delegate.write( filePageId, bufferAddress );
+        bytesWritten.add( bytes );
+        return bytes;
+    }
+
+    @Override
+    public long write( long startFilePageId, long[] bufferAddresses, int arrayOffset, int length ) throws IOException
+    {
+        long bytes = delegate.write( startFilePageId, bufferAddresses, arrayOffset, length );
+        bytesWritten.add( bytes );
+        return bytes;
+    }
+
+    @Override
+    public void evicted( long pageId )
+    {
+        delegate.evicted( pageId );
+    }
+
+    @Override
+    public File file()
+    {
+        return delegate.file();
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        delegate.close();
+    }
+
+    @Override
+    public void closeAndDelete() throws IOException
+    {
+        delegate.closeAndDelete();
+    }
+
+    @Override
+    public void force() throws IOException
+    {
+        delegate.force();
+    }
+
+    @Override
+    public long getLastPageId() throws IOException
+    {
+        return delegate.getLastPageId();
+    }
+
+    @Override
+    public void truncate() throws IOException
+    {
+        delegate.truncate();
+    }
+
+    @Override
+    public String toString()
+    {
+        return delegate.toString();
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+
+/**
+ * The eviction policies that the {@link MuninnPageCache} can use for deciding which pages to evict, when it needs to
+ * free up memory for page faults.
+ */
+public enum EvictionPolicy
+{
+    /**
+     * The classic CLOCK algorithm, where every page has a small usage counter that is incremented when the page is
+     * pinned, and decremented by the sweeping clock arm. Pages are evicted once their usage counter reaches zero.
+     * <p>
+     * This policy has a very low overhead, but large scans can push frequently used pages out of the cache.
+     */
+    CLOCK
+            {
+                @Override
+                EvictionStrategy createStrategy( int pageCount, PageCacheTracer pageCacheTracer )
+                {
+                    return ClockEvictionStrategy.INSTANCE;
+                }
+            },
+
+    /**
+     * A CLOCK variant, inspired by CLOCK-Pro, that protects pages which have been used more than once from being
+     * evicted by pages that are only used once, such as the pages brought in by large store or index scans.
+     * <p>
+     * This policy keeps a history of recently evicted pages, which costs 4 bytes of heap memory per cache page.
+     */
+    SCAN_RESISTANT
+            {
+                @Override
+                EvictionStrategy createStrategy( int pageCount, PageCacheTracer pageCacheTracer )
+                {
+                    return new ScanResistantEvictionStrategy( pageCount, pageCacheTracer );
+                }
+            };
+
+    abstract EvictionStrategy createStrategy( int pageCount, PageCacheTracer pageCacheTracer );
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+/**
+ * The eviction strategy is the implementation of an {@link EvictionPolicy}. It is consulted by the page cache when
+ * pages are faulted in and evicted, and it decides which of the loaded pages the eviction sweeps should evict.
+ * <p>
+ * All methods are called concurrently from page faulting threads and the background eviction thread, and must be
+ * thread-safe. The strategy is allowed to be benignly racy, since its decisions only affect the cache hit ratio,
+ * never correctness.
+ */
+interface EvictionStrategy
+{
+    /**
+     * The given page has just been faulted in, and bound to the given file page. The page is exclusively locked,
+     * and will be pinned by the faulting cursor right after this call.
+     *
+     * @param pages the page list that the page belongs to.
+     * @param pageRef the page that was faulted in.
+     * @param swapperId the id of the swapper that the page is now bound to.
+     * @param filePageId the file page id that the page is now bound to.
+     */
+    void pageFaulted( PageList pages, long pageRef, int swapperId, long filePageId );
+
+    /**
+     * Called by the eviction sweeps, when the clock arm visits a loaded page. The strategy may update its usage
+     * bookkeeping of the page as a side-effect.
+     *
+     * @param pages the page list that the page belongs to.
+     * @param pageRef the page that the clock arm is visiting.
+     * @return {@code true} if the page should be evicted, {@code false} if it should be kept.
+     */
+    boolean isEvictionCandidate( PageList pages, long pageRef );
+
+    /**
+     * The given page, which was bound to the given file page, is being evicted. The page is exclusively locked.
+     *
+     * @param pages the page list that the page belongs to.
+     * @param pageRef the page that is being evicted.
+     * @param swapperId the id of the swapper that the page was bound to.
+     * @param filePageId the file page id that the page was bound to.
+     */
+    void pageEvicted( PageList pages, long pageRef, int swapperId, long filePageId );
+}
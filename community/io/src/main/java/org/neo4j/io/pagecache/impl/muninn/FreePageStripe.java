@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil;
+
+/**
+ * A stripe of the free pages in the MuninnPageCache.
+ *
+ * Each stripe is a concurrent stack of FreePage objects. The eviction thread pushes newly freed pages onto the stripes
+ * in batches, and page faulting threads pop them off, starting with the stripe that their thread maps to. This way
+ * the page faulting threads don't all contend on the same compare-and-swap. The FreePage objects are single-use, to
+ * avoid running into the ABA-problem.
+ */
+final class FreePageStripe
+{
+    private static final long headOffset = UnsafeUtil.getFieldOffset( FreePageStripe.class, "head" );
+
+    // Padding, so the heads of stripes that are allocated next to each other don't share a cache line.
+    @SuppressWarnings( "unused" )
+    private long p0, p1, p2, p3, p4, p5, p6;
+
+    @SuppressWarnings( "unused" ) // This field is accessed via Unsafe.
+    private volatile FreePage head;
+
+    /**
+     * @return the page reference of a free page that has been removed from this stripe, or zero if the stripe is empty.
+     */
+    long poll()
+    {
+        FreePage current;
+        do
+        {
+            current = getHead();
+            if ( current == null )
+            {
+                return 0;
+            }
+        }
+        while ( !compareAndSetHead( current, current.next ) );
+        return current.pageRef;
+    }
+
+    /**
+     * Push the given page references onto this stripe, with a single compare-and-swap.
+     */
+    void push( long[] pageRefs, int length )
+    {
+        FreePage[] batch = new FreePage[length];
+        for ( int i = 0; i < length; i++ )
+        {
+            batch[i] = new FreePage( pageRefs[i] );
+        }
+
+        FreePage current;
+        do
+        {
+            current = getHead();
+            // The counts depend on the current head, so they have to be recomputed whenever we race with other threads.
+            FreePage next = current;
+            for ( int i = length - 1; i >= 0; i-- )
+            {
+                batch[i].setNext( next );
+                next = batch[i];
+            }
+        }
+        while ( !compareAndSetHead( current, batch[0] ) );
+    }
+
+    /**
+     * @return the number of free pages in this stripe.
+     */
+    int count()
+    {
+        FreePage current = getHead();
+        return current == null ? 0 : current.count;
+    }
+
+    private FreePage getHead()
+    {
+        return (FreePage) UnsafeUtil.getObjectVolatile( this, headOffset );
+    }
+
+    private boolean compareAndSetHead( FreePage expected, FreePage update )
+    {
+        return UnsafeUtil.compareAndSwapObject( this, headOffset, expected, update );
+    }
+}
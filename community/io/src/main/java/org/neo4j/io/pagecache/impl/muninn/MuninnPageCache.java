@@ -30,9 +30,11 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.LockSupport;
 
 import org.neo4j.io.mem.MemoryAllocator;
@@ -56,7 +58,9 @@ import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil;
 
 import static org.neo4j.util.FeatureToggles.flag;
+import static org.neo4j.util.FeatureToggles.getDouble;
 import static org.neo4j.util.FeatureToggles.getInteger;
+import static org.neo4j.util.FeatureToggles.getLong;
 
 /**
  * The Muninn {@link org.neo4j.io.pagecache.PageCache page cache} implementation.
@@ -126,6 +130,31 @@ public class MuninnPageCache implements PageCache
     private static final int cooperativeEvictionLiveLockThreshold = getInteger(
             MuninnPageCache.class, "cooperativeEvictionLiveLockThreshold", 100 );
 
+    // The share of the pages in the cache, that files mapped with PageCacheOpenOptions.RESERVED can keep protected
+    // from eviction. This will be truncated to be no more than half of the cache, so eviction always has unreserved
+    // pages to choose from.
+    private static final double reservedPagesRatio = getDouble(
+            MuninnPageCache.class, "reservedPagesRatio", 0.25 );
+
+    // The number of milliseconds the background flusher waits between its sweeps over the pages in the cache.
+    private static final long backgroundFlushIntervalMillis = getLong(
+            MuninnPageCache.class, "backgroundFlushIntervalMillis", 100 );
+
+    // The maximum number of pages the background flusher writes out in a single sweep. This bounds the rate of IO
+    // that the background flusher can produce, so it trickles dirty pages out instead of causing IO bursts itself.
+    private static final int backgroundFlushMaxPagesPerSweep = getInteger(
+            MuninnPageCache.class, "backgroundFlushMaxPagesPerSweep", 2048 );
+
+    // The number of stripes that the free pages are spread over. Page faulting threads start looking for free pages in
+    // the stripe their thread maps to, so they don't all contend on the same compare-and-swap. This will be rounded
+    // down to a power of two, and truncated to be no more than the number of pages we keep free.
+    private static final int freelistStripeCount = getInteger(
+            MuninnPageCache.class, "freelistStripes", Runtime.getRuntime().availableProcessors() );
+
+    // The eviction thread collects this many freed pages, before pushing them onto a free page stripe in one go.
+    private static final int evictionBatchSize = getInteger(
+            MuninnPageCache.class, "evictionBatchSize", 8 );
+
     // This is a pre-allocated constant, so we can throw it without allocating any objects:
     @SuppressWarnings( "ThrowableInstanceNeverThrown" )
     private static final IOException oomException = new IOException(
@@ -154,6 +183,7 @@ public class MuninnPageCache implements PageCache
     private final PageSwapperFactory swapperFactory;
     private final int cachePageSize;
     private final int keepFree;
+    private final long reservedPages;
     private final PageCacheTracer pageCacheTracer;
     private final PageCursorTracerSupplier pageCursorTracerSupplier;
     private final VersionContextSupplier versionContextSupplier;
@@ -163,18 +193,29 @@ public class MuninnPageCache implements PageCache
     // accesses to take place without fear of segfaulting newly allocated cursors.
     final long victimPage;
 
-    // The freelist is a thread-safe linked-list of FreePage objects, or an AtomicInteger, or null.
+    // The freelist is an AtomicInteger, or null, or the shutdownSignal.
     // Initially, the field is an AtomicInteger that counts from zero to the max page count, at which point all of the
     // pages have been put in use. Once this happens, the field is set to null to allow the background eviction thread
-    // to start its work. From that point on, the field will operate as a concurrent stack of FreePage objects. The
-    // eviction thread pushes newly freed FreePage objects onto the stack, and page faulting threads pops FreePage
-    // objects from the stack. The FreePage objects are single-use, to avoid running into the ABA-problem.
+    // to start its work. From that point on, free pages are taken from the freelistStripes. When the page cache shuts
+    // down, the field is set to the shutdownSignal.
     @SuppressWarnings( "unused" ) // This field is accessed via Unsafe.
     private volatile Object freelist;
 
+    // The stripes of free pages. The eviction thread pushes newly freed pages onto the emptiest stripe in batches, and
+    // page faulting threads pop them off, starting with the stripe their thread maps to, and then stealing from the
+    // other stripes. The number of stripes is a power of two.
+    private final FreePageStripe[] freelistStripes;
+
     // Linked list of mappings - guarded by synchronized(this)
     private volatile FileMapping mappedFiles;
 
+    // The sorted swapper ids of the mapped files that share the page reservation - copy-on-write,
+    // guarded by synchronized(this)
+    private volatile int[] reservedSwapperIds = new int[0];
+    // The number of pages in memory that belong to files that are, or have been, mapped as reserved. Kept up to date
+    // by the page faults and evictions of those files, so eviction doesn't need to sum it up for every page it visits.
+    private final AtomicLong residentReservedPages = new AtomicLong();
+
     // The thread that runs the eviction algorithm. We unpark this when we've run out of
     // free pages to grab.
     private volatile Thread evictionThread;
@@ -186,6 +227,23 @@ public class MuninnPageCache implements PageCache
     private volatile boolean evictorParked;
     private volatile IOException evictorException;
 
+    // The thread that runs the background flusher, if it has been started.
+    volatile Thread backgroundFlushThread;
+    // Only used by ensureThreadsInitialised and setDirtyPagesRatio while holding the monitor lock on this instance.
+    private boolean backgroundFlusherStarted;
+    // Where the next sweep of the background flusher starts. Only accessed by the background flush thread.
+    private int backgroundFlushArm;
+
+    // The share of the pages in the cache that the background flusher tries to keep the dirty pages below.
+    // A ratio of 1, the default, disables the background flusher.
+    private volatile double dirtyPagesRatio = 1.0;
+    // Limits the rate of the writes of the background flusher, the same way checkpoints are limited.
+    private volatile IOLimiter backgroundFlushLimiter = IOLimiter.UNLIMITED;
+    // Set by write cursors once they have dirtied a page, and cleared by the background flusher before each sweep.
+    private volatile boolean pagesDirtied;
+    // Set by the background flusher when it parks until a write cursor dirties a page.
+    private volatile boolean backgroundFlusherIdle;
+
     // Flag for when page cache is closed - writes guarded by synchronized(this), reads can be unsynchronized
     private volatile boolean closed;
 
@@ -195,6 +253,10 @@ public class MuninnPageCache implements PageCache
     // 'true' (the default) if we should print any exceptions we get when unmapping a file.
     private boolean printExceptionsOnClose;
 
+    // The number of pages to read ahead of page cursors that are scanning a file sequentially, or zero if disabled.
+    // Read by page cursors when they are initialised.
+    private volatile int readAheadPages;
+
     /**
      * Compute the amount of memory needed for a page cache with the given number of 8 KiB pages.
      * @param pageCount The number of pages
@@ -251,7 +313,32 @@ public class MuninnPageCache implements PageCache
             VersionContextSupplier versionContextSupplier,
             JobScheduler jobScheduler )
     {
-        this( swapperFactory, memoryAllocator, PAGE_SIZE, pageCacheTracer, pageCursorTracerSupplier, versionContextSupplier, jobScheduler );
+        this( swapperFactory, memoryAllocator, pageCacheTracer, pageCursorTracerSupplier, versionContextSupplier,
+                jobScheduler, EvictionPolicy.CLOCK );
+    }
+
+    /**
+     * Create page cache.
+     * @param swapperFactory page cache swapper factory
+     * @param memoryAllocator the source of native memory the page cache should use
+     * @param pageCacheTracer global page cache tracer
+     * @param pageCursorTracerSupplier supplier of thread local (transaction local) page cursor tracer that will provide
+     * thread local page cache statistics
+     * @param versionContextSupplier supplier of thread local (transaction local) version context that will provide
+     *        access to thread local version context
+     * @param evictionPolicy the policy used for deciding which pages to evict
+     */
+    public MuninnPageCache(
+            PageSwapperFactory swapperFactory,
+            MemoryAllocator memoryAllocator,
+            PageCacheTracer pageCacheTracer,
+            PageCursorTracerSupplier pageCursorTracerSupplier,
+            VersionContextSupplier versionContextSupplier,
+            JobScheduler jobScheduler,
+            EvictionPolicy evictionPolicy )
+    {
+        this( swapperFactory, memoryAllocator, PAGE_SIZE, pageCacheTracer, pageCursorTracerSupplier, versionContextSupplier,
+                jobScheduler, evictionPolicy );
     }
 
     /**
@@ -268,6 +355,20 @@ public class MuninnPageCache implements PageCache
             PageCursorTracerSupplier pageCursorTracerSupplier,
             VersionContextSupplier versionContextSupplier,
             JobScheduler jobScheduler )
+    {
+        this( swapperFactory, memoryAllocator, cachePageSize, pageCacheTracer, pageCursorTracerSupplier, versionContextSupplier,
+                jobScheduler, EvictionPolicy.CLOCK );
+    }
+
+    private MuninnPageCache(
+            PageSwapperFactory swapperFactory,
+            MemoryAllocator memoryAllocator,
+            int cachePageSize,
+            PageCacheTracer pageCacheTracer,
+            PageCursorTracerSupplier pageCursorTracerSupplier,
+            VersionContextSupplier versionContextSupplier,
+            JobScheduler jobScheduler,
+            EvictionPolicy evictionPolicy )
     {
         verifyHacks();
         verifyCachePageSizeIsPowerOfTwo( cachePageSize );
@@ -281,18 +382,33 @@ public class MuninnPageCache implements PageCache
         this.swapperFactory = swapperFactory;
         this.cachePageSize = cachePageSize;
         this.keepFree = Math.min( pagesToKeepFree, maxPages / 2 );
+        this.reservedPages = (long) (Math.min( reservedPagesRatio, 0.5 ) * maxPages);
         this.pageCacheTracer = pageCacheTracer;
         this.pageCursorTracerSupplier = pageCursorTracerSupplier;
         this.versionContextSupplier = versionContextSupplier;
         this.printExceptionsOnClose = true;
         long alignment = swapperFactory.getRequiredBufferAlignment();
         this.victimPage = VictimPageReference.getVictimPage( cachePageSize, memoryTracker );
-        this.pages = new PageList( maxPages, cachePageSize, memoryAllocator, new SwapperSet(), victimPage, alignment );
+        EvictionStrategy evictionStrategy = evictionPolicy.createStrategy( maxPages, pageCacheTracer );
+        this.pages = new PageList( maxPages, cachePageSize, memoryAllocator, new SwapperSet(), victimPage, alignment,
+                evictionStrategy );
         this.scheduler = jobScheduler;
+        this.freelistStripes = createFreelistStripes( keepFree );
 
         setFreelistHead( new AtomicInteger() );
     }
 
+    private static FreePageStripe[] createFreelistStripes( int keepFree )
+    {
+        int stripeCount = Integer.highestOneBit( Math.max( 1, Math.min( freelistStripeCount, keepFree ) ) );
+        FreePageStripe[] stripes = new FreePageStripe[stripeCount];
+        for ( int i = 0; i < stripeCount; i++ )
+        {
+            stripes[i] = new FreePageStripe();
+        }
+        return stripes;
+    }
+
     private static void verifyHacks()
     {
         // Make sure that we have access to theUnsafe.
@@ -340,6 +456,7 @@ public class MuninnPageCache implements PageCache
         boolean truncateExisting = false;
         boolean deleteOnClose = false;
         boolean anyPageSize = false;
+        boolean reserved = false;
         for ( OpenOption option : openOptions )
         {
             if ( option.equals( StandardOpenOption.CREATE ) )
@@ -358,6 +475,10 @@ public class MuninnPageCache implements PageCache
             {
                 anyPageSize = true;
             }
+            else if ( option.equals( PageCacheOpenOptions.RESERVED ) )
+            {
+                reserved = true;
+            }
             else if ( !ignoredOpenOptions.contains( option ) )
             {
                 throw new UnsupportedOperationException( "Unsupported OpenOption: " + option );
@@ -387,6 +508,10 @@ public class MuninnPageCache implements PageCache
                 }
                 pagedFile.incrementRefCount();
                 pagedFile.markDeleteOnClose( deleteOnClose );
+                if ( reserved )
+                {
+                    addReservedFile( pagedFile );
+                }
                 return pagedFile;
             }
             current = current.next;
@@ -415,10 +540,46 @@ public class MuninnPageCache implements PageCache
         current = new FileMapping( file, pagedFile );
         current.next = mappedFiles;
         mappedFiles = current;
+        if ( reserved )
+        {
+            addReservedFile( pagedFile );
+        }
         pageCacheTracer.mappedFile( file );
+        pageCacheTracer.registerFileCounters( pagedFile );
         return pagedFile;
     }
 
+    /**
+     * Note: Must be called while synchronizing on the MuninnPageCache instance.
+     */
+    private void addReservedFile( MuninnPagedFile pagedFile )
+    {
+        if ( !pagedFile.isReserved() )
+        {
+            // From here on, the file counts its own faults and evictions towards the reserved resident pages.
+            pagedFile.markReserved();
+            residentReservedPages.addAndGet( pagedFile.residentPages() );
+            int[] ids = reservedSwapperIds;
+            int[] newIds = Arrays.copyOf( ids, ids.length + 1 );
+            newIds[ids.length] = pagedFile.swapperId;
+            Arrays.sort( newIds );
+            reservedSwapperIds = newIds;
+        }
+    }
+
+    /**
+     * Note: Must be called while synchronizing on the MuninnPageCache instance.
+     */
+    private void removeReservedFile( MuninnPagedFile pagedFile )
+    {
+        if ( pagedFile.isReserved() )
+        {
+            // The file stays marked as reserved, so the eviction of its remaining pages still counts down the
+            // reserved resident pages.
+            reservedSwapperIds = Arrays.stream( reservedSwapperIds ).filter( id -> id != pagedFile.swapperId ).toArray();
+        }
+    }
+
     @Override
     public synchronized Optional<PagedFile> getExistingMapping( File file ) throws IOException
     {
@@ -487,6 +648,10 @@ public class MuninnPageCache implements PageCache
         try
         {
             scheduler.schedule( Group.PAGE_CACHE, new EvictionTask( this ) );
+            if ( dirtyPagesRatio < 1.0 )
+            {
+                startBackgroundFlusher();
+            }
         }
         catch ( Exception e )
         {
@@ -524,6 +689,9 @@ public class MuninnPageCache implements PageCache
                     {
                         prev.next = current.next;
                     }
+                    file.stopReadAhead();
+                    removeReservedFile( file );
+                    pageCacheTracer.unregisterFileCounters( file );
                     pageCacheTracer.unmappedFile( current.file );
                     flushAndCloseWithoutFail( file );
                     break;
@@ -569,6 +737,91 @@ public class MuninnPageCache implements PageCache
         this.printExceptionsOnClose = enabled;
     }
 
+    /**
+     * Set the number of pages to read ahead of page cursors, when they are found to be scanning a file sequentially.
+     * The pages are read in the background with a single vectored read, so scans are not stalled on a page fault for
+     * every page. The read-ahead is limited to a quarter of the cache. Zero, the default, disables read-ahead.
+     */
+    public void setReadAheadPages( int readAheadPages )
+    {
+        if ( readAheadPages < 0 )
+        {
+            throw new IllegalArgumentException( "Cannot read ahead a negative number of pages: " + readAheadPages );
+        }
+        this.readAheadPages = Math.min( readAheadPages, pages.getPageCount() / 4 );
+    }
+
+    int getReadAheadPages()
+    {
+        return readAheadPages;
+    }
+
+    /**
+     * Set the share of the pages in the cache, that a background flusher tries to keep the number of dirty pages
+     * below. The background flusher continuously trickles dirty pages out to their files, so checkpoints and eviction
+     * find fewer dirty pages to write, and their IO is spread out over time instead of happening in bursts.
+     * A ratio of 1, the default, disables the background flusher.
+     */
+    public synchronized void setDirtyPagesRatio( double dirtyPagesRatio )
+    {
+        if ( dirtyPagesRatio < 0.0 || dirtyPagesRatio > 1.0 )
+        {
+            throw new IllegalArgumentException( "The dirty pages ratio must be between 0 and 1, but was " +
+                    dirtyPagesRatio );
+        }
+        this.dirtyPagesRatio = dirtyPagesRatio;
+        if ( threadsInitialised && dirtyPagesRatio < 1.0 && !closed )
+        {
+            startBackgroundFlusher();
+        }
+        Thread flushThread = backgroundFlushThread;
+        if ( flushThread != null )
+        {
+            LockSupport.unpark( flushThread );
+        }
+    }
+
+    double getDirtyPagesRatio()
+    {
+        return dirtyPagesRatio;
+    }
+
+    /**
+     * Set the {@link IOLimiter} that limits the rate of the writes of the background flusher. This is typically the
+     * same limiter as the one used by checkpoints, so the background flusher does not write faster than they would.
+     */
+    public void setBackgroundFlushLimiter( IOLimiter limiter )
+    {
+        this.backgroundFlushLimiter = limiter;
+    }
+
+    /**
+     * Note: Must be called while synchronizing on the MuninnPageCache instance.
+     */
+    private void startBackgroundFlusher()
+    {
+        if ( !backgroundFlusherStarted )
+        {
+            backgroundFlusherStarted = true;
+            scheduler.schedule( Group.PAGE_CACHE, new BackgroundFlushTask( this ) );
+        }
+    }
+
+    /**
+     * Read the given range of file pages of the given file into the cache, in the background.
+     */
+    void scheduleReadAhead( MuninnPagedFile pagedFile, long startFilePageId, int pageCount )
+    {
+        try
+        {
+            scheduler.schedule( Group.PAGE_CACHE, () -> pagedFile.readAhead( startFilePageId, pageCount ) );
+        }
+        catch ( RejectedExecutionException e )
+        {
+            // The scheduler is shutting down, so there is no point in reading ahead.
+        }
+    }
+
     @Override
     public void flushAndForce() throws IOException
     {
@@ -697,6 +950,8 @@ public class MuninnPageCache implements PageCache
 
         interrupt( evictionThread );
         evictionThread = null;
+        interrupt( backgroundFlushThread );
+        backgroundFlushThread = null;
 
         // Close the page swapper factory last. If this fails then we will still consider ourselves closed.
         swapperFactory.close();
@@ -764,22 +1019,16 @@ public class MuninnPageCache implements PageCache
         // this part of the code.
         // Whatever the case, we're going to the head-pointer of the freelist,
         // and in doing so, we can discover a number of things.
-        // We can discover a MuninnPage object, in which case we can try to
-        // CAS the freelist pointer to the value of the MuninnPage.nextFree
-        // pointer, and if this succeeds then we've grabbed that page.
-        // We can discover a FreePage object, in which case we'll do a similar
-        // dance by attempting to CAS the freelist to the FreePage objects next
-        // pointer, and again, if we succeed then we've grabbed the MuninnPage
-        // given by the FreePage object.
-        // We can discover a null-pointer, in which case the freelist has just
-        // been emptied for whatever it contained before. New FreePage objects
-        // are eventually going to be added to the freelist, but we are not
-        // going to wait around for that to happen. If the freelist is empty,
-        // then we do our own eviction to get a free page.
-        // If we find a FreePage object on the freelist, then it is important
-        // to check and see if it is the shutdownSignal instance. If that's the
-        // case, then the page cache has been shut down, and we should throw an
-        // exception from our page fault routine.
+        // We can discover an AtomicInteger, in which case not all pages have
+        // been put to use yet, and we try to CAS the counter to the next page.
+        // We can discover a null-pointer, in which case we take a page from
+        // the free page stripes. If all the stripes are empty, then new free
+        // pages are eventually going to be added by the eviction thread, but we
+        // are not going to wait around for that to happen. Instead, we do our
+        // own eviction to get a free page.
+        // We can discover the shutdownSignal, in which case the page cache has
+        // been shut down, and we should throw an exception from our page fault
+        // routine.
         Object current;
         for (;;)
         {
@@ -787,8 +1036,13 @@ public class MuninnPageCache implements PageCache
             current = getFreelistHead();
             if ( current == null )
             {
+                long pageRef = pollFreelistStripes();
+                if ( pageRef != 0 )
+                {
+                    return pageRef;
+                }
                 unparkEvictor();
-                long pageRef = cooperativelyEvict( faultEvent );
+                pageRef = cooperativelyEvict( faultEvent );
                 if ( pageRef != 0 )
                 {
                     return pageRef;
@@ -808,23 +1062,66 @@ public class MuninnPageCache implements PageCache
                     compareAndSetFreelistHead( current, null );
                 }
             }
-            else if ( current instanceof FreePage )
+            else if ( current == shutdownSignal )
             {
-                FreePage freePage = (FreePage) current;
-                if ( freePage == shutdownSignal )
-                {
-                    throw new IllegalStateException( "The PageCache has been shut down." );
-                }
+                throw new IllegalStateException( "The PageCache has been shut down." );
+            }
+        }
+    }
 
-                if ( compareAndSetFreelistHead( freePage, freePage.next ) )
-                {
-                    return freePage.pageRef;
-                }
+    private long pollFreelistStripes()
+    {
+        int mask = freelistStripes.length - 1;
+        int stripe = localFreelistStripe();
+        for ( int i = 0; i < freelistStripes.length; i++ )
+        {
+            long pageRef = freelistStripes[(stripe + i) & mask].poll();
+            if ( pageRef != 0 )
+            {
+                return pageRef;
             }
         }
+        return 0;
     }
 
-    private long cooperativelyEvict( PageFaultEvent faultEvent ) throws IOException
+    private int localFreelistStripe()
+    {
+        return (int) Thread.currentThread().getId() & (freelistStripes.length - 1);
+    }
+
+    private FreePageStripe emptiestFreelistStripe()
+    {
+        FreePageStripe emptiest = freelistStripes[0];
+        int emptiestCount = emptiest.count();
+        for ( int i = 1; i < freelistStripes.length && emptiestCount > 0; i++ )
+        {
+            int count = freelistStripes[i].count();
+            if ( count < emptiestCount )
+            {
+                emptiest = freelistStripes[i];
+                emptiestCount = count;
+            }
+        }
+        return emptiest;
+    }
+
+    int countFreelistStripePages()
+    {
+        int count = 0;
+        for ( FreePageStripe stripe : freelistStripes )
+        {
+            count += stripe.count();
+        }
+        return count;
+    }
+
+    /**
+     * Evict a page for a page fault, when there were no free pages. Pages freed by the eviction thread in the meantime,
+     * on any stripe, are taken instead of evicting one ourselves.
+     *
+     * @return the page reference of an exclusively locked free page, or zero if the freelist should be tried again.
+     */
+    long cooperativelyEvict( PageFaultEvent faultEvent ) throws IOException
     {
         int iterations = 0;
         int pageCount = pages.getPageCount();
@@ -838,6 +1135,11 @@ public class MuninnPageCache implements PageCache
             {
                 return 0;
             }
+            long freePageRef = pollFreelistStripes();
+            if ( freePageRef != 0 )
+            {
+                return freePageRef;
+            }
 
             if ( clockArm == pageCount )
             {
@@ -850,7 +1152,7 @@ public class MuninnPageCache implements PageCache
             }
 
             pageRef = pages.deref( clockArm );
-            if ( pages.isLoaded( pageRef ) && pages.decrementUsage( pageRef ) )
+            if ( pages.isLoaded( pageRef ) && !isReserved( pageRef ) && pages.isEvictionCandidate( pageRef ) )
             {
                 evicted = pages.tryEvict( pageRef, faultEvent );
             }
@@ -909,8 +1211,8 @@ public class MuninnPageCache implements PageCache
     }
 
     /**
-     * Scan through all the pages, one by one, and decrement their usage stamps.
-     * If a usage reaches zero, we try-write-locking it, and if we get that lock,
+     * Scan through all the pages, one by one, and ask the eviction strategy if they should be evicted.
+     * If a page should be evicted, we try-write-locking it, and if we get that lock,
      * we evict the page. If we don't, we move on to the next page.
      * Once we have enough free pages, we park our thread. Page-faulting will
      * unpark our thread as needed.
@@ -951,11 +1253,7 @@ public class MuninnPageCache implements PageCache
 
             if ( freelistHead == null )
             {
-                return keepFree;
-            }
-            else if ( freelistHead.getClass() == FreePage.class )
-            {
-                int availablePages = ((FreePage) freelistHead).count;
+                int availablePages = countFreelistStripePages();
                 if ( availablePages < keepFree )
                 {
                     return keepFree - availablePages;
@@ -975,6 +1273,9 @@ public class MuninnPageCache implements PageCache
 
     int evictPages( int pageCountToEvict, int clockArm, EvictionRunEvent evictionRunEvent )
     {
+        // The freed pages are handed out in batches, so the page faulting threads see fewer compare-and-swaps from us.
+        long[] batch = new long[Math.max( 1, Math.min( pageCountToEvict, evictionBatchSize ) )];
+        int batchSize = 0;
         while ( pageCountToEvict > 0 && !closed )
         {
             if ( clockArm == pages.getPageCount() )
@@ -989,7 +1290,7 @@ public class MuninnPageCache implements PageCache
             }
 
             long pageRef = pages.deref( clockArm );
-            if ( pages.isLoaded( pageRef ) && pages.decrementUsage( pageRef ) )
+            if ( pages.isLoaded( pageRef ) && !isReserved( pageRef ) && pages.isEvictionCandidate( pageRef ) )
             {
                 try
                 {
@@ -997,7 +1298,12 @@ public class MuninnPageCache implements PageCache
                     if ( pages.tryEvict( pageRef, evictionRunEvent ) )
                     {
                         clearEvictorException();
-                        addFreePageToFreelist( pageRef );
+                        batch[batchSize++] = pageRef;
+                        if ( batchSize == batch.length )
+                        {
+                            addFreePagesToFreelist( batch, batchSize );
+                            batchSize = 0;
+                        }
                     }
                 }
                 catch ( IOException e )
@@ -1018,23 +1324,170 @@ public class MuninnPageCache implements PageCache
             clockArm++;
         }
 
+        if ( batchSize > 0 )
+        {
+            addFreePagesToFreelist( batch, batchSize );
+        }
         return clockArm;
     }
 
-    void addFreePageToFreelist( long pageRef )
+    /**
+     * Sweep through all the pages, and count how many of them are dirty. If the dirty pages made up more of the cache
+     * than the dirty pages ratio allows, at the start of the sweep, then the excess pages are flushed along the way,
+     * up to a limited number of pages per sweep. The pages are flushed under a flush lock, which does not block page
+     * cursors, and they are not evicted, so checkpoints only need to flush the pages that were dirtied since.
+     * The writes are limited by the {@link #setBackgroundFlushLimiter(IOLimiter) background flush limiter}.
+     * When a sweep finds no dirty pages, the flusher sleeps until a write cursor dirties a page.
+     */
+    void continuouslyFlushDirtyPages()
     {
-        Object current;
-        FreePage freePage = new FreePage( pageRef );
-        do
+        backgroundFlushThread = Thread.currentThread();
+        long parkNanos = TimeUnit.MILLISECONDS.toNanos( backgroundFlushIntervalMillis );
+        long dirtyPages = 0;
+
+        while ( !closed )
         {
-            current = getFreelistHead();
-            if ( current instanceof AtomicInteger && ((AtomicInteger) current).get() > pages.getPageCount() )
+            double ratio = dirtyPagesRatio;
+            if ( ratio >= 1.0 )
+            {
+                // Disabled after it was started. Write cursors don't wake us up, since pagesDirtied is only cleared
+                // by sweeps, so we check the ratio again after every interval, or when it's changed.
+                LockSupport.parkNanos( this, parkNanos );
+            }
+            else if ( dirtyPages == 0 )
+            {
+                parkBackgroundFlusherUntilPagesAreDirtied();
+            }
+            else
+            {
+                LockSupport.parkNanos( this, parkNanos );
+            }
+            if ( Thread.interrupted() || closed )
+            {
+                break;
+            }
+
+            ratio = dirtyPagesRatio;
+            if ( ratio >= 1.0 )
             {
-                current = null;
+                dirtyPages = 0;
+                continue;
             }
-            freePage.setNext( current );
+            // We budget with the dirty pages counted by the previous sweep. The first sweep after a quiet period only
+            // counts, since we don't know how many pages have been dirtied since.
+            long targetDirtyPages = (long) (ratio * pages.getPageCount());
+            long flushBudget = Math.max( 0, Math.min( dirtyPages - targetDirtyPages, backgroundFlushMaxPagesPerSweep ) );
+            pagesDirtied = false;
+            dirtyPages = sweepDirtyPages( flushBudget );
+            pageCacheTracer.dirtyPages( dirtyPages );
         }
-        while ( !compareAndSetFreelistHead( current, freePage ) );
+    }
+
+    /**
+     * Park the background flusher until a write cursor has dirtied a page, so an idle page cache isn't swept at all.
+     */
+    private void parkBackgroundFlusherUntilPagesAreDirtied()
+    {
+        backgroundFlusherIdle = true;
+        if ( !pagesDirtied )
+        {
+            LockSupport.park( this );
+        }
+        backgroundFlusherIdle = false;
+    }
+
+    /**
+     * Called by write cursors when they have dirtied a page, so the background flusher wakes up if it is idle.
+     */
+    void pageDirtied()
+    {
+        if ( !pagesDirtied )
+        {
+            pagesDirtied = true;
+            if ( backgroundFlusherIdle )
+            {
+                LockSupport.unpark( backgroundFlushThread );
+            }
+        }
+    }
+
+    long sweepDirtyPages( long flushBudget )
+    {
+        int pageCount = pages.getPageCount();
+        int arm = backgroundFlushArm;
+        long dirtyPages = 0;
+        long flushed = 0;
+        IOLimiter limiter = backgroundFlushLimiter;
+        long limiterStamp = IOLimiter.INITIAL_STAMP;
+        try ( MajorFlushEvent flushEvent = flushBudget > 0 ? pageCacheTracer.beginBackgroundFlush() : MajorFlushEvent.NULL )
+        {
+            FlushEventOpportunity flushOpportunity = flushEvent.flushEventOpportunity();
+            for ( int i = 0; i < pageCount && !closed; i++ )
+            {
+                int pageId = arm + i < pageCount ? arm + i : arm + i - pageCount;
+                long pageRef = pages.deref( pageId );
+                if ( pages.isModified( pageRef ) )
+                {
+                    if ( flushed < flushBudget && tryBackgroundFlush( pageRef, flushOpportunity ) )
+                    {
+                        flushed++;
+                        // Continue the next sweep where we stopped flushing, so all dirty pages get their turn.
+                        backgroundFlushArm = pageId + 1 == pageCount ? 0 : pageId + 1;
+                        // The background flusher leaves forcing the files to the checkpoints.
+                        limiterStamp = limiter.maybeLimitIO( limiterStamp, 1, () -> {} );
+                    }
+                    else
+                    {
+                        dirtyPages++;
+                    }
+                }
+            }
+        }
+        pageCacheTracer.backgroundFlushes( flushed );
+        return dirtyPages;
+    }
+
+    private boolean tryBackgroundFlush( long pageRef, FlushEventOpportunity flushOpportunity )
+    {
+        try
+        {
+            return pages.tryFlush( pageRef, flushOpportunity );
+        }
+        catch ( IOException e )
+        {
+            // The page stays dirty, and the failure will surface when the page is flushed by a checkpoint or evicted.
+            return false;
+        }
+    }
+
+    /**
+     * Pages that belong to files mapped with {@link PageCacheOpenOptions#RESERVED} are protected from eviction, for as
+     * long as the reserved files together have no more pages in memory than their reservation.
+     * Reserved pages are not considered by the eviction strategy at all, so they also don't age while protected.
+     */
+    private boolean isReserved( long pageRef )
+    {
+        int[] ids = reservedSwapperIds;
+        return ids.length != 0 && residentReservedPages.get() <= reservedPages &&
+               Arrays.binarySearch( ids, pages.getSwapperId( pageRef ) ) >= 0;
+    }
+
+    /**
+     * Called by files that are mapped as reserved, when pages are faulted into, or evicted from, them.
+     */
+    void reservedResidentPagesChanged( long delta )
+    {
+        residentReservedPages.addAndGet( delta );
+    }
+
+    void addFreePageToFreelist( long pageRef )
+    {
+        addFreePagesToFreelist( new long[]{pageRef}, 1 );
+    }
+
+    private void addFreePagesToFreelist( long[] pageRefs, int length )
+    {
+        emptiestFreelistStripe().push( pageRefs, length );
     }
 
     void clearEvictorException()
@@ -41,6 +41,7 @@ import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
 import static org.neo4j.io.pagecache.impl.muninn.MuninnPagedFile.UNMAPPED_TTE;
 import static org.neo4j.util.FeatureToggles.flag;
+import static org.neo4j.util.FeatureToggles.getInteger;
 
 abstract class MuninnPageCursor extends PageCursor
 {
@@ -49,6 +50,9 @@ abstract class MuninnPageCursor extends PageCursor
 
     private static final boolean boundsCheck = flag( MuninnPageCursor.class, "boundsCheck", true );
 
+    // The number of consecutive file pages a cursor must pin, before we consider it to be scanning the file.
+    private static final int readAheadThreshold = getInteger( MuninnPageCursor.class, "readAheadThreshold", 4 );
+
     // Size of the respective primitive types in bytes.
     private static final int SIZE_OF_BYTE = Byte.BYTES;
     private static final int SIZE_OF_SHORT = Short.BYTES;
@@ -70,6 +74,14 @@ abstract class MuninnPageCursor extends PageCursor
     protected long currentPageId;
     protected long nextPageId;
     protected MuninnPageCursor linkedCursor;
+    // Sequential access detection, for read-ahead
+    private int readAheadPages;
+    private long lastPinnedPageId;
+    private int sequentialPins;
+    private long readAheadLimit;
+    // Hits and faults on the current file, added to the file counters when the cursor is closed
+    private long hits;
+    private long faults;
     private long pointer;
     private int pageSize;
     private int filePageSize;
@@ -106,6 +118,10 @@ abstract class MuninnPageCursor extends PageCursor
         this.eagerFlush = isFlagRaised( pf_flags, PF_EAGER_FLUSH );
         this.noFault = isFlagRaised( pf_flags, PF_NO_FAULT );
         this.noGrow = noFault | isFlagRaised( pf_flags, PagedFile.PF_NO_GROW );
+        this.readAheadPages = noFault ? 0 : pagedFile.pageCache.getReadAheadPages();
+        this.lastPinnedPageId = UNBOUND_PAGE_ID;
+        this.sequentialPins = 0;
+        this.readAheadLimit = 0;
     }
 
     private boolean isFlagRaised( int flagSet, int flag )
@@ -188,6 +204,7 @@ abstract class MuninnPageCursor extends PageCursor
         while ( cursor != null && cursor.pagedFile != null )
         {
             cursor.unpinCurrentPage();
+            cursor.reportFileCounts();
             // We null out the pagedFile field to allow it and its (potentially big) translation table to be garbage
             // collected when the file is unmapped, since the cursors can stick around in thread local caches, etc.
             cursor.pagedFile = null;
@@ -195,6 +212,16 @@ abstract class MuninnPageCursor extends PageCursor
         }
     }
 
+    private void reportFileCounts()
+    {
+        if ( (hits | faults) != 0 )
+        {
+            pagedFile.addCursorCounts( hits, faults );
+            hits = 0;
+            faults = 0;
+        }
+    }
+
     private void closeLinkedCursorIfAny()
     {
         if ( linkedCursor != null )
@@ -272,6 +299,10 @@ abstract class MuninnPageCursor extends PageCursor
      */
     protected void pin( long filePageId, boolean writeLock ) throws IOException
     {
+        if ( readAheadPages > 0 )
+        {
+            detectSequentialAccess( filePageId );
+        }
         pinEvent = tracer.beginPin( writeLock, filePageId, swapper );
         int chunkId = MuninnPagedFile.computeChunkId( filePageId );
         // The chunkOffset is the addressing offset into the chunk array object for the relevant array slot. Using
@@ -305,6 +336,7 @@ abstract class MuninnPageCursor extends PageCursor
                 {
                     pinCursorToPage( pageRef, filePageId, swapper );
                     pinEvent.hit();
+                    hits++;
                     return;
                 }
                 if ( locked )
@@ -322,6 +354,35 @@ abstract class MuninnPageCursor extends PageCursor
         }
     }
 
+    /**
+     * Once this cursor has pinned enough consecutive file pages, we consider it to be scanning the file, and start
+     * reading pages ahead of it in the background. We schedule the next read-ahead when the cursor is half-way through
+     * the pages that have been read ahead of it, so the cursor does not have to wait for the read-ahead to catch up.
+     */
+    private void detectSequentialAccess( long filePageId ) throws IOException
+    {
+        if ( filePageId == lastPinnedPageId + 1 )
+        {
+            sequentialPins++;
+            if ( sequentialPins >= readAheadThreshold && filePageId + (readAheadPages >> 1) >= readAheadLimit )
+            {
+                long startFilePageId = Math.max( filePageId + 1, readAheadLimit );
+                readAheadLimit = filePageId + 1 + readAheadPages;
+                if ( startFilePageId <= assertPagedFileStillMappedAndGetIdOfLastPage() )
+                {
+                    int pageCount = (int) (readAheadLimit - startFilePageId);
+                    pagedFile.pageCache.scheduleReadAhead( pagedFile, startFilePageId, pageCount );
+                }
+            }
+        }
+        else if ( filePageId != lastPinnedPageId ) // Pinning the same page again, e.g. on retry, is still sequential
+        {
+            sequentialPins = 0;
+            readAheadLimit = 0;
+        }
+        lastPinnedPageId = filePageId;
+    }
+
     private int[][] expandTranslationTableCapacity( int chunkId )
     {
         return pagedFile.expandCapacity( chunkId );
@@ -371,6 +432,7 @@ abstract class MuninnPageCursor extends PageCursor
         // protect it against concurrent eviction as we assigning a binding to the page. If anything goes wrong, then
         // we must make sure to release that write lock as well.
         PageFaultEvent faultEvent = pinEvent.beginPageFault();
+        faults++;
         long pageRef;
         try
         {
@@ -410,6 +472,7 @@ abstract class MuninnPageCursor extends PageCursor
         // Put the page in the translation table before we undo the exclusive lock, as we could otherwise race with
         // eviction, and the onEvict callback expects to find a MuninnPage object in the table.
         UnsafeUtil.putIntVolatile( chunk, chunkOffset, pagedFile.toId( pageRef ) );
+        pagedFile.pageFaulted();
         // Once we page has been published to the translation table, we can convert our exclusive lock to whatever we
         // need for the page cursor.
         convertPageFaultLock( pageRef );
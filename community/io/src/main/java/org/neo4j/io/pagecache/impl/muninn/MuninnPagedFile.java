@@ -24,6 +24,9 @@ import java.io.Flushable;
 import java.io.IOException;
 import java.nio.channels.ClosedChannelException;
 import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
 
 import org.neo4j.io.pagecache.IOLimiter;
 import org.neo4j.io.pagecache.PageCursor;
@@ -32,6 +35,7 @@ import org.neo4j.io.pagecache.PageSwapper;
 import org.neo4j.io.pagecache.PageSwapperFactory;
 import org.neo4j.io.pagecache.PagedFile;
 import org.neo4j.io.pagecache.impl.FileIsNotMappedException;
+import org.neo4j.io.pagecache.monitoring.PagedFileCounters;
 import org.neo4j.io.pagecache.tracing.FlushEvent;
 import org.neo4j.io.pagecache.tracing.FlushEventOpportunity;
 import org.neo4j.io.pagecache.tracing.MajorFlushEvent;
@@ -41,7 +45,7 @@ import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracerSupplier;
 import org.neo4j.io.pagecache.tracing.cursor.context.VersionContextSupplier;
 import org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil;
 
-final class MuninnPagedFile extends PageList implements PagedFile, Flushable
+final class MuninnPagedFile extends PageList implements PagedFile, PagedFileCounters, Flushable
 {
     static final int UNMAPPED_TTE = -1;
     private static final int translationTableChunkSizePower = Integer.getInteger(
@@ -64,11 +68,14 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
     private final PageCacheTracer pageCacheTracer;
     final LatchMap pageFaultLatches;
 
-    // This is the table where we translate file-page-ids to cache-page-ids. Only one thread can perform a resize at
-    // a time, and we ensure this mutual exclusion using the monitor lock on this MuninnPagedFile object.
+    // This is the table where we translate file-page-ids to cache-page-ids. Resizes are lock-free; a thread that
+    // needs a bigger table builds one and installs it with a compare-and-swap on this field.
     volatile int[][] translationTable;
+    private static final long translationTableOffset =
+            UnsafeUtil.getFieldOffset( MuninnPagedFile.class, "translationTable" );
 
     final PageSwapper swapper;
+    private final CountingPageSwapper countingSwapper;
     final int swapperId;
     private final CursorPool cursorPool;
 
@@ -83,6 +90,27 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
     @SuppressWarnings( "unused" ) // accessed using unsafe
     private volatile long highestEvictedTransactionId;
 
+    // number of pages of this file that are currently bound to a page in the cache
+    private static final long residentPagesOffset = UnsafeUtil.getFieldOffset( MuninnPagedFile.class, "residentPages" );
+    @SuppressWarnings( "unused" ) // accessed using unsafe
+    private volatile long residentPages;
+
+    // Page cursors count their hits and faults locally, and add them here when they are closed
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder faults = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    // Written while holding the monitor lock on MuninnPageCache (map), read by the eviction algorithm
+    private volatile boolean reserved;
+
+    // The number of read-aheads in progress for this file, plus the stop bit once the file is being unmapped
+    private static final long readAheadStateOffset = UnsafeUtil.getFieldOffset( MuninnPagedFile.class, "readAheadState" );
+    private static final int readAheadStopped = 0x8000_0000;
+    @SuppressWarnings( "unused" ) // accessed using unsafe
+    private volatile int readAheadState;
+    // The thread that is waiting in stopReadAhead for the running read-aheads to finish, if any.
+    private volatile Thread readAheadStopper;
+
     /**
      * The header state includes both the reference count of the PagedFile – 15 bits – and the ID of the last page in
      * the file – 48 bits, plus an empty file marker bit. Because our pages are usually 2^13 bytes, this means that we
@@ -137,13 +165,17 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
         // slots. If a look-up finds UNMAPPED_TTE, it will attempt to page fault. If the LatchMap returns null, then
         // someone else might already be faulting in that page. The LatchMap will wait for the existing latch to be
         // released, before returning null. Thus the thread can retry the lookup immediately. If a look-up finds that it
-        // is out of bounds of the translation table, it resizes the table by first taking the resize lock, then
-        // verifying that the given filePageId is still out of bounds, then creates a new and larger outer array, then
-        // copies over the existing inner arrays, fills the remaining outer array slots with more inner arrays, in turn
-        // filled with UNMAPPED_TTE values, and then finally assigns the new outer array to the translationTable field
-        // and releases the resize lock.
+        // is out of bounds of the translation table, it resizes the table by creating a new and larger outer array,
+        // copying over the existing inner arrays, and filling the remaining outer array slots with more inner arrays,
+        // in turn filled with UNMAPPED_TTE values. The new outer array is then installed with a compare-and-swap on the
+        // translationTable field. If that fails, then another thread has installed a new table in the mean time, and
+        // the resize is retried from that table, unless it is already big enough. Since the inner arrays are shared
+        // between the old and the new outer array, threads that still work on the old outer array will not miss any
+        // updates, and no thread ever has to wait for a resize to complete.
         PageEvictionCallback onEviction = this::evictPage;
-        swapper = swapperFactory.createPageSwapper( file, filePageSize, onEviction, createIfNotExists );
+        countingSwapper = new CountingPageSwapper(
+                swapperFactory.createPageSwapper( file, filePageSize, onEviction, createIfNotExists ) );
+        swapper = countingSwapper;
         if ( truncateExisting )
         {
             swapper.truncate();
@@ -674,6 +706,316 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
         long pageRef = deref( mappedPageId );
         setHighestEvictedTransactionId( getAndResetLastModifiedTransactionId( pageRef ) );
         UnsafeUtil.putIntVolatile( chunk, chunkOffset, UNMAPPED_TTE );
+        UnsafeUtil.getAndAddLong( this, residentPagesOffset, -1 );
+        if ( reserved )
+        {
+            pageCache.reservedResidentPagesChanged( -1 );
+        }
+        evictions.increment();
+    }
+
+    /**
+     * Called by page faults, once the faulted page has been published in the translation table.
+     */
+    void pageFaulted()
+    {
+        UnsafeUtil.getAndAddLong( this, residentPagesOffset, 1 );
+        if ( reserved )
+        {
+            pageCache.reservedResidentPagesChanged( 1 );
+        }
+    }
+
+    @Override
+    public long residentPages()
+    {
+        return UnsafeUtil.getLongVolatile( this, residentPagesOffset );
+    }
+
+    /**
+     * Called by page cursors when they are closed, with the number of hits and faults they saw on this file.
+     */
+    void addCursorCounts( long hits, long faults )
+    {
+        if ( hits != 0 )
+        {
+            this.hits.add( hits );
+        }
+        if ( faults != 0 )
+        {
+            this.faults.add( faults );
+        }
+    }
+
+    @Override
+    public long hits()
+    {
+        return hits.sum();
+    }
+
+    @Override
+    public long faults()
+    {
+        return faults.sum();
+    }
+
+    @Override
+    public long evictions()
+    {
+        return evictions.sum();
+    }
+
+    @Override
+    public long bytesRead()
+    {
+        return countingSwapper.bytesRead();
+    }
+
+    @Override
+    public long bytesWritten()
+    {
+        return countingSwapper.bytesWritten();
+    }
+
+    /**
+     * Walks the whole translation table of this file, so the cost is proportional to the size of the file rather than
+     * to the number of pages it has in memory. Keeping a live count instead would mean tracking every raise and lowering
+     * of the modified bit in the page locks, which are on the hot path of every write.
+     */
+    @Override
+    public long dirtyPages()
+    {
+        long dirtyPages = 0;
+        long filePageId = 0;
+        for ( int[] chunk : translationTable )
+        {
+            for ( int i = 0; i < chunk.length; i++, filePageId++ )
+            {
+                int pageId = UnsafeUtil.getIntVolatile( chunk, computeChunkOffset( filePageId ) );
+                if ( pageId != UNMAPPED_TTE )
+                {
+                    long pageRef = deref( pageId );
+                    // This is a racy read, but the count is only meant as a snapshot for monitoring anyway.
+                    if ( isModified( pageRef ) && isBoundTo( pageRef, swapperId, filePageId ) )
+                    {
+                        dirtyPages++;
+                    }
+                }
+            }
+        }
+        return dirtyPages;
+    }
+
+    void markReserved()
+    {
+        reserved = true;
+    }
+
+    @Override
+    public boolean isReserved()
+    {
+        return reserved;
+    }
+
+    /**
+     * Read the given range of file pages into the page cache, ahead of a page cursor that is scanning the file. Pages
+     * at the start of the range that are already in memory are skipped. After that, pages that are already in memory,
+     * or in the process of being faulted in, end the range early. This is called from a background thread, and any
+     * exceptions are reported to the page cache tracer, rather than thrown.
+     * @param startFilePageId The id of the first file page to read.
+     * @param pageCount The maximum number of pages to read.
+     */
+    void readAhead( long startFilePageId, int pageCount )
+    {
+        if ( !tryBeginReadAhead() )
+        {
+            return;
+        }
+        try
+        {
+            long endFilePageId = Math.min( startFilePageId + pageCount, getLastPageId() + 1 );
+            // The cursor may have caught up with us before we got to run, and faulted in the first pages itself.
+            while ( startFilePageId < endFilePageId && isMapped( startFilePageId ) )
+            {
+                startFilePageId++;
+            }
+            if ( startFilePageId < endFilePageId )
+            {
+                readAheadRange( startFilePageId, (int) (endFilePageId - startFilePageId) );
+            }
+        }
+        catch ( FileIsNotMappedException e )
+        {
+            // The file was unmapped before we got around to reading ahead.
+        }
+        catch ( Throwable e )
+        {
+            pageCacheTracer.prefetchExceptions( 1 );
+        }
+        finally
+        {
+            endReadAhead();
+        }
+    }
+
+    private boolean isMapped( long filePageId )
+    {
+        int[][] tt = translationTable;
+        int chunkId = computeChunkId( filePageId );
+        return chunkId < tt.length && UnsafeUtil.getIntVolatile( tt[chunkId], computeChunkOffset( filePageId ) ) != UNMAPPED_TTE;
+    }
+
+    private void readAheadRange( long startFilePageId, int length ) throws IOException
+    {
+        LatchMap.Latch[] latches = new LatchMap.Latch[length];
+        long[] pageRefs = new long[length];
+        int latched = 0;
+        int locked = 0;
+        boolean success = false;
+        try
+        {
+            // Take the page fault latches first, so no cursor tries to fault in the pages while we read them.
+            // We stop at the first page that is already in memory, or that someone else is faulting in right now.
+            int[][] tt = translationTable;
+            while ( latched < length )
+            {
+                long filePageId = startFilePageId + latched;
+                int chunkId = computeChunkId( filePageId );
+                if ( tt.length <= chunkId )
+                {
+                    tt = expandCapacity( chunkId );
+                }
+                int[] chunk = tt[chunkId];
+                long chunkOffset = computeChunkOffset( filePageId );
+                if ( UnsafeUtil.getIntVolatile( chunk, chunkOffset ) != UNMAPPED_TTE )
+                {
+                    break;
+                }
+                LatchMap.Latch latch = pageFaultLatches.tryTakeLatch( filePageId );
+                if ( latch == null )
+                {
+                    break;
+                }
+                latches[latched++] = latch;
+                if ( UnsafeUtil.getIntVolatile( chunk, chunkOffset ) != UNMAPPED_TTE )
+                {
+                    latched--;
+                    latch.release();
+                    break;
+                }
+            }
+            if ( latched == 0 )
+            {
+                return;
+            }
+
+            while ( locked < latched )
+            {
+                long pageRef = grabFreeAndExclusivelyLockedPage( PageFaultEvent.NULL );
+                pageRefs[locked++] = pageRef;
+                initBuffer( pageRef );
+            }
+            if ( isReadAheadStopped() )
+            {
+                // The file is being unmapped, and the unmapping thread is waiting for us. Don't make it wait for IO.
+                return;
+            }
+            long bytesRead = faultRange( pageRefs, latched, swapper, swapperId, startFilePageId );
+
+            // Publish the pages in the translation table, before we release our locks and latches,
+            // just like a page fault would.
+            for ( int i = 0; i < latched; i++ )
+            {
+                long filePageId = startFilePageId + i;
+                int[] chunk = tt[computeChunkId( filePageId )];
+                UnsafeUtil.putIntVolatile( chunk, computeChunkOffset( filePageId ), toId( pageRefs[i] ) );
+                pageFaulted();
+            }
+            pageCacheTracer.bytesRead( bytesRead );
+            pageCacheTracer.prefetches( latched );
+            success = true;
+        }
+        finally
+        {
+            for ( int i = 0; i < locked; i++ )
+            {
+                long pageRef = pageRefs[i];
+                if ( success || isLoaded( pageRef ) )
+                {
+                    // If we failed in the read, then the pages are loaded but not bound, and will be picked up by
+                    // eviction once we unlock them.
+                    unlockExclusive( pageRef );
+                }
+                else
+                {
+                    // If we failed to grab all the pages we needed, then the ones we did grab were never loaded, so
+                    // eviction will never pick them up. They are still exclusively locked, just like when we took
+                    // them off the freelist, so we can give them straight back.
+                    pageCache.addFreePageToFreelist( pageRef );
+                }
+            }
+            for ( int i = 0; i < latched; i++ )
+            {
+                latches[i].release();
+            }
+        }
+    }
+
+    private boolean tryBeginReadAhead()
+    {
+        int state;
+        do
+        {
+            state = UnsafeUtil.getIntVolatile( this, readAheadStateOffset );
+            if ( (state & readAheadStopped) != 0 )
+            {
+                return false;
+            }
+        }
+        while ( !UnsafeUtil.compareAndSwapInt( this, readAheadStateOffset, state, state + 1 ) );
+        return true;
+    }
+
+    private boolean isReadAheadStopped()
+    {
+        return (UnsafeUtil.getIntVolatile( this, readAheadStateOffset ) & readAheadStopped) != 0;
+    }
+
+    private void endReadAhead()
+    {
+        int state = UnsafeUtil.getAndAddInt( this, readAheadStateOffset, -1 ) - 1;
+        if ( state == readAheadStopped )
+        {
+            // We were the last read-ahead that the unmapping thread is waiting for.
+            Thread stopper = readAheadStopper;
+            if ( stopper != null )
+            {
+                LockSupport.unpark( stopper );
+            }
+        }
+    }
+
+    /**
+     * Prevent any further read-aheads from starting, and wait for the ones in progress to finish. Called when the file
+     * is being unmapped, before the swapper is closed. Read-aheads in progress give up before they start reading, if
+     * they can, so this will at most wait for one vectored read per running read-ahead. The unmapping thread parks
+     * while it waits, and is unparked by the last read-ahead to finish.
+     */
+    void stopReadAhead()
+    {
+        readAheadStopper = Thread.currentThread();
+        int state;
+        do
+        {
+            state = UnsafeUtil.getIntVolatile( this, readAheadStateOffset );
+        }
+        while ( !UnsafeUtil.compareAndSwapInt( this, readAheadStateOffset, state, state | readAheadStopped ) );
+        while ( UnsafeUtil.getIntVolatile( this, readAheadStateOffset ) != readAheadStopped )
+        {
+            // The timeout is only a safety net; we expect to be unparked by endReadAhead.
+            LockSupport.parkNanos( this, TimeUnit.MILLISECONDS.toNanos( 10 ) );
+        }
+        readAheadStopper = null;
     }
 
     private void setHighestEvictedTransactionId( long modifiedTransactionId )
@@ -691,20 +1033,27 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
      * @param maxChunkId The new translation table must be big enough to include at least this chunkId.
      * @return A reference to the expanded transaction table.
      */
-    synchronized int[][] expandCapacity( int maxChunkId )
+    int[][] expandCapacity( int maxChunkId )
     {
         int[][] tt = translationTable;
-        if ( tt.length <= maxChunkId )
+        int[][] ntt = null;
+        while ( tt.length <= maxChunkId )
         {
             int newLength = computeNewRootTableLength( maxChunkId );
-            int[][] ntt = new int[newLength][];
+            int[][] previousAttempt = ntt;
+            ntt = new int[newLength][];
             System.arraycopy( tt, 0, ntt, 0, tt.length );
             for ( int i = tt.length; i < ntt.length; i++ )
             {
-                ntt[i] = newChunk();
+                // Chunks from a previous failed attempt were never published, so they are still pristine.
+                boolean reusable = previousAttempt != null && i < previousAttempt.length;
+                ntt[i] = reusable ? previousAttempt[i] : newChunk();
+            }
+            if ( UnsafeUtil.compareAndSwapObject( this, translationTableOffset, tt, ntt ) )
+            {
+                return ntt;
             }
-            tt = ntt;
-            translationTable = tt;
+            tt = translationTable;
         }
         return tt;
     }
@@ -53,6 +53,7 @@ final class MuninnWritePageCursor extends MuninnPageCursor
             else
             {
                 pagedFile.unlockWrite( pinnedPageRef );
+                pagedFile.pageCache.pageDirtied();
             }
         }
         clearPageCursorState();
@@ -27,6 +27,7 @@ import org.neo4j.io.pagecache.PageSwapper;
 import org.neo4j.io.pagecache.tracing.EvictionEvent;
 import org.neo4j.io.pagecache.tracing.EvictionEventOpportunity;
 import org.neo4j.io.pagecache.tracing.FlushEvent;
+import org.neo4j.io.pagecache.tracing.FlushEventOpportunity;
 import org.neo4j.io.pagecache.tracing.PageFaultEvent;
 import org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil;
 
@@ -84,9 +85,17 @@ class PageList
     private final long victimPageAddress;
     private final long baseAddress;
     private final long bufferAlignment;
+    private final EvictionStrategy evictionStrategy;
 
     PageList( int pageCount, int cachePageSize, MemoryAllocator memoryAllocator, SwapperSet swappers,
               long victimPageAddress, long bufferAlignment )
+    {
+        this( pageCount, cachePageSize, memoryAllocator, swappers, victimPageAddress, bufferAlignment,
+                ClockEvictionStrategy.INSTANCE );
+    }
+
+    PageList( int pageCount, int cachePageSize, MemoryAllocator memoryAllocator, SwapperSet swappers,
+              long victimPageAddress, long bufferAlignment, EvictionStrategy evictionStrategy )
     {
         this.pageCount = pageCount;
         this.cachePageSize = cachePageSize;
@@ -96,6 +105,7 @@ class PageList
         long bytes = ((long) pageCount) * META_DATA_BYTES_PER_PAGE;
         this.baseAddress = memoryAllocator.allocateAligned( bytes, Long.BYTES );
         this.bufferAlignment = bufferAlignment;
+        this.evictionStrategy = evictionStrategy;
         clearMemory( baseAddress, pageCount );
     }
 
@@ -116,6 +126,7 @@ class PageList
         this.victimPageAddress = pageList.victimPageAddress;
         this.baseAddress = pageList.baseAddress;
         this.bufferAlignment = pageList.bufferAlignment;
+        this.evictionStrategy = pageList.evictionStrategy;
     }
 
     private void clearMemory( long baseAddress, long pageCount )
@@ -301,7 +312,7 @@ class PageList
         }
     }
 
-    private byte getUsageCounter( long pageRef )
+    byte getUsageCounter( long pageRef )
     {
         return (byte) (UnsafeUtil.getLongVolatile( offPageBinding( pageRef ) ) & MASK_USAGE_COUNT);
     }
@@ -345,6 +356,16 @@ class PageList
         return usage <= 1;
     }
 
+    /**
+     * Ask the eviction strategy if the given loaded page should be evicted. Called by the eviction sweeps.
+     *
+     * @return {@code true} if the page should be evicted.
+     */
+    boolean isEvictionCandidate( long pageRef )
+    {
+        return evictionStrategy.isEvictionCandidate( this, pageRef );
+    }
+
     long getFilePageId( long pageRef )
     {
         long filePageId = UnsafeUtil.getLong( offPageBinding( pageRef ) ) >>> SHIFT_FILE_PAGE_ID;
@@ -435,6 +456,50 @@ class PageList
         event.addBytesRead( bytesRead );
         event.setCachePageId( toId( pageRef ) );
         setSwapperId( pageRef, swapperId ); // Page now considered isBoundTo( swapper, filePageId )
+        evictionStrategy.pageFaulted( this, pageRef, swapperId, filePageId );
+    }
+
+    /**
+     * Fault in a range of consecutive file pages, starting at the given file page id, into the given pages with a single
+     * vectored read. The pages must be exclusively locked and unbound, just like for
+     * {@link #fault(long, PageSwapper, int, long, PageFaultEvent)}, and like there, the pages are only bound to their
+     * file pages once the read has succeeded.
+     *
+     * @return the number of bytes read.
+     */
+    long faultRange( long[] pageRefs, int length, PageSwapper swapper, int swapperId, long startFilePageId )
+            throws IOException
+    {
+        if ( swapper == null )
+        {
+            throw swapperCannotBeNull();
+        }
+        long[] bufferAddresses = new long[length];
+        for ( int i = 0; i < length; i++ )
+        {
+            long pageRef = pageRefs[i];
+            long filePageId = startFilePageId + i;
+            int currentSwapper = getSwapperId( pageRef );
+            long currentFilePageId = getFilePageId( pageRef );
+            if ( !isExclusivelyLocked( pageRef ) || currentSwapper != 0 || currentFilePageId != PageCursor.UNBOUND_PAGE_ID )
+            {
+                throw cannotFaultException( pageRef, swapper, swapperId, filePageId, currentSwapper, currentFilePageId );
+            }
+            setFilePageId( pageRef, filePageId ); // Page now considered isLoaded()
+            bufferAddresses[i] = getAddress( pageRef );
+        }
+        long bytesRead = swapper.read( startFilePageId, bufferAddresses, cachePageSize, 0, length );
+        for ( int i = 0; i < length; i++ )
+        {
+            long pageRef = pageRefs[i];
+            long filePageId = startFilePageId + i;
+            setSwapperId( pageRef, swapperId ); // Page now considered isBoundTo( swapper, filePageId )
+            // A page that is faulted by a cursor gets its first usage when the cursor pins it. Read-ahead pages are
+            // not pinned, so give them that first usage here, or they would be the first victims of eviction.
+            incrementUsage( pageRef );
+            evictionStrategy.pageFaulted( this, pageRef, swapperId, filePageId );
+        }
+        return bytesRead;
     }
 
     private static IllegalArgumentException swapperCannotBeNull()
@@ -471,6 +536,58 @@ class PageList
         return false;
     }
 
+    /**
+     * Write the given page to its file, if it is modified and we can get a flush lock on it, without evicting it.
+     * The flush lock does not block readers or writers, and the page is only marked as unmodified if no write lock
+     * overlapped with the flush.
+     *
+     * @return {@code true} if the page was flushed, otherwise {@code false}.
+     */
+    boolean tryFlush( long pageRef, FlushEventOpportunity flushOpportunity ) throws IOException
+    {
+        long stamp = tryFlushLock( pageRef );
+        if ( stamp == 0 )
+        {
+            return false;
+        }
+        boolean success = false;
+        try
+        {
+            // The page binding cannot change while we hold the flush lock, since that requires an exclusive lock.
+            int swapperId = getSwapperId( pageRef );
+            if ( swapperId == 0 || !isModified( pageRef ) )
+            {
+                return false;
+            }
+            SwapperSet.SwapperMapping swapperMapping = swappers.getAllocation( swapperId );
+            if ( swapperMapping == null )
+            {
+                return false;
+            }
+            PageSwapper swapper = swapperMapping.swapper;
+            long filePageId = getFilePageId( pageRef );
+            FlushEvent flushEvent = flushOpportunity.beginFlush( filePageId, pageRef, swapper );
+            try
+            {
+                long bytesWritten = swapper.write( filePageId, getAddress( pageRef ) );
+                flushEvent.addBytesWritten( bytesWritten );
+                flushEvent.addPagesFlushed( 1 );
+                flushEvent.done();
+                success = true;
+            }
+            catch ( IOException e )
+            {
+                flushEvent.done( e );
+                throw e;
+            }
+        }
+        finally
+        {
+            unlockFlush( pageRef, stamp, success );
+        }
+        return true;
+    }
+
     private void evict( long pageRef, EvictionEvent evictionEvent ) throws IOException
     {
         long filePageId = getFilePageId( pageRef );
@@ -494,6 +611,7 @@ class PageList
                 }
                 swapper.evicted( filePageId );
             }
+            evictionStrategy.pageEvicted( this, pageRef, swapperId, filePageId );
         }
         clearBinding( pageRef );
     }
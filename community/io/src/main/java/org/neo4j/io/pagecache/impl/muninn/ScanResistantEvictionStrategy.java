@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+
+/**
+ * The {@link EvictionPolicy#SCAN_RESISTANT} strategy.
+ * <p>
+ * Pages are divided into <em>cold</em> pages, that have been pinned at most once since they were faulted in, and
+ * <em>hot</em> pages, that have been pinned more than once. The distinction is made purely by looking at the usage
+ * counter of the page, so no additional per-page meta-data is needed.
+ * <p>
+ * Cold pages are evicted as soon as the clock arm reaches them, unless they have been pinned again in the meantime.
+ * Hot pages, on the other hand, are passed over by the clock arm without having their usage counter decremented.
+ * This means that a large scan, which brings in a lot of pages that are each only pinned once, will only ever replace
+ * cold pages, and leave the working set of hot pages alone.
+ * <p>
+ * Hot pages are only aged, that is, have their usage counters decremented, in two cases. The first is when a page
+ * that was recently evicted is faulted back in, which is a sign that the cold pages are not given enough time in the
+ * cache. Every such <em>refault</em> gives the clock arm a credit to age one hot page. To detect refaults, we keep a
+ * small, lossy, history of the file pages that have been evicted. The second case is when the clock arm has passed
+ * over a whole cache worth of hot pages without finding a single cold page. Then the hot pages are aged until a cold
+ * page is found, so eviction is always able to make progress.
+ */
+final class ScanResistantEvictionStrategy implements EvictionStrategy
+{
+    // Pages with a usage counter above this value have been pinned more than once since they were faulted in.
+    private static final int MAX_COLD_USAGE_COUNT = 1;
+    private static final int MIN_HISTORY_SIZE = 64;
+
+    private final PageCacheTracer pageCacheTracer;
+    // The eviction history is a direct-mapped table of fingerprints of the evicted file pages. Collisions simply
+    // overwrite older entries, and an empty slot is represented by zero. The table is intentionally accessed racily.
+    private final int[] evictionHistory;
+    private final int evictionHistoryMask;
+    private final int hotPageSkipLimit;
+    private final AtomicLong agingCredits;
+    // Intentionally racy; it is only a heuristic for when the cache is full of hot pages.
+    private int consecutiveHotPagesSkipped;
+
+    ScanResistantEvictionStrategy( int pageCount, PageCacheTracer pageCacheTracer )
+    {
+        this.pageCacheTracer = pageCacheTracer;
+        int historySize = Integer.highestOneBit( Math.max( pageCount, MIN_HISTORY_SIZE ) );
+        this.evictionHistory = new int[historySize];
+        this.evictionHistoryMask = historySize - 1;
+        this.hotPageSkipLimit = pageCount;
+        this.agingCredits = new AtomicLong();
+    }
+
+    @Override
+    public void pageFaulted( PageList pages, long pageRef, int swapperId, long filePageId )
+    {
+        long hash = hash( swapperId, filePageId );
+        int index = (int) hash & evictionHistoryMask;
+        if ( evictionHistory[index] == fingerprint( hash ) )
+        {
+            // This file page was evicted recently, and is already wanted back. Let the page start out as hot, since
+            // the pin that is about to follow is then its second use, and let the clock arm age one hot page to make
+            // more room for the cold pages.
+            evictionHistory[index] = 0;
+            pages.incrementUsage( pageRef );
+            agingCredits.incrementAndGet();
+            pageCacheTracer.refaults( 1 );
+        }
+    }
+
+    @Override
+    public boolean isEvictionCandidate( PageList pages, long pageRef )
+    {
+        if ( pages.getUsageCounter( pageRef ) <= MAX_COLD_USAGE_COUNT )
+        {
+            consecutiveHotPagesSkipped = 0;
+            return pages.decrementUsage( pageRef );
+        }
+        if ( consecutiveHotPagesSkipped >= hotPageSkipLimit || tryTakeAgingCredit() )
+        {
+            // A hot page will at most be demoted to a cold page here, so it won't be evicted by this visit.
+            pages.decrementUsage( pageRef );
+        }
+        else
+        {
+            consecutiveHotPagesSkipped++;
+        }
+        return false;
+    }
+
+    @Override
+    public void pageEvicted( PageList pages, long pageRef, int swapperId, long filePageId )
+    {
+        long hash = hash( swapperId, filePageId );
+        evictionHistory[(int) hash & evictionHistoryMask] = fingerprint( hash );
+    }
+
+    private boolean tryTakeAgingCredit()
+    {
+        long credits;
+        do
+        {
+            credits = agingCredits.get();
+            if ( credits == 0 )
+            {
+                return false;
+            }
+        }
+        while ( !agingCredits.compareAndSet( credits, credits - 1 ) );
+        return true;
+    }
+
+    private static long hash( int swapperId, long filePageId )
+    {
+        // The swapper id is at most 21 bits, and the file page id at most 40 bits, so the key is unique.
+        long key = (filePageId << 21) | swapperId;
+        key *= 0x9E3779B97F4A7C15L;
+        return key ^ (key >>> 29);
+    }
+
+    private static int fingerprint( long hash )
+    {
+        // Never zero, since zero marks an empty slot.
+        return (int) (hash >>> 32) | 1;
+    }
+}
@@ -45,6 +45,12 @@ public final class StandalonePageCacheFactory
     }
 
     public static PageCache createPageCache( FileSystemAbstraction fileSystem, JobScheduler jobScheduler )
+    {
+        return createPageCache( fileSystem, jobScheduler, "8 MiB" );
+    }
+
+    public static PageCache createPageCache( FileSystemAbstraction fileSystem, JobScheduler jobScheduler,
+            String pageCacheMemory )
     {
         SingleFilePageSwapperFactory factory = new SingleFilePageSwapperFactory();
         factory.open( fileSystem, Configuration.EMPTY );
@@ -52,7 +58,7 @@ public final class StandalonePageCacheFactory
         PageCacheTracer cacheTracer = PageCacheTracer.NULL;
         DefaultPageCursorTracerSupplier cursorTracerSupplier = DefaultPageCursorTracerSupplier.INSTANCE;
         VersionContextSupplier versionContextSupplier = EmptyVersionContextSupplier.EMPTY;
-        MemoryAllocator memoryAllocator = MemoryAllocator.createAllocator( "8 MiB", GlobalMemoryTracker.INSTANCE );
+        MemoryAllocator memoryAllocator = MemoryAllocator.createAllocator( pageCacheMemory, GlobalMemoryTracker.INSTANCE );
         return new MuninnPageCache( factory, memoryAllocator, cacheTracer, cursorTracerSupplier, versionContextSupplier, jobScheduler );
     }
 }
@@ -19,6 +19,8 @@
  */
 package org.neo4j.io.pagecache.monitoring;
 
+import java.util.List;
+
 /**
  * The PageCacheCounters exposes internal counters from the page cache.
  * The data for these counters is sourced through the PageCacheTracer API.
@@ -90,4 +92,48 @@ public interface PageCacheCounters
      * be determined.
      */
     double usageRatio();
+
+    /**
+     * @return The number of page faults of file pages that had recently been evicted, thus far. This is only tracked
+     * by eviction policies that keep a history of evicted pages, and is otherwise zero.
+     */
+    long refaults();
+
+    /**
+     * @return The per-file counters of all the files that are currently mapped.
+     */
+    List<PagedFileCounters> fileCounters();
+
+    /**
+     * Add a listener that is told when files are mapped and unmapped, with the per-file counters of those files.
+     * Files that are already mapped when the listener is added are not reported to it, so those should be picked up
+     * from {@link #fileCounters()} after the listener has been added.
+     */
+    void addFileCountersListener( PagedFileCountersListener listener );
+
+    /**
+     * Remove a listener that was added with {@link #addFileCountersListener(PagedFileCountersListener)}.
+     */
+    void removeFileCountersListener( PagedFileCountersListener listener );
+
+    /**
+     * @return The number of pages that have been read into the page cache ahead of time, because they were expected
+     * to be accessed by a sequential scan, thus far.
+     */
+    long prefetches();
+
+    /**
+     * @return The number of exceptions caught while reading pages ahead of time, thus far.
+     */
+    long prefetchExceptions();
+
+    /**
+     * @return the number of pages that have been flushed by the background flusher, ahead of checkpoints and eviction
+     */
+    long backgroundFlushes();
+
+    /**
+     * @return the number of dirty pages in the page cache, as last counted by the background flusher
+     */
+    long dirtyPages();
 }
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.monitoring;
+
+import java.io.File;
+
+/**
+ * The PagedFileCounters exposes internal counters for a single file that is mapped by the page cache.
+ * The page cache keeps these counters up to date while the file is mapped, and hands them to the PageCacheTracer API
+ * when the file is mapped and unmapped.
+ */
+public interface PagedFileCounters
+{
+    /**
+     * @return The file these counters are for.
+     */
+    File file();
+
+    /**
+     * @return The number of pages of this file that are currently in memory.
+     */
+    long residentPages();
+
+    /**
+     * @return {@code true} if this file has been mapped with a reservation, such that its pages are protected from
+     * eviction, up to the share of the page cache that is reserved.
+     */
+    boolean isReserved();
+
+    /**
+     * @return The number of page pins that found the page already in memory.
+     */
+    long hits();
+
+    /**
+     * @return The number of page pins that had to fault the page into memory.
+     */
+    long faults();
+
+    /**
+     * @return The number of pages of this file that have been evicted from memory.
+     */
+    long evictions();
+
+    /**
+     * @return The number of bytes read from this file, by page faults and read-ahead.
+     */
+    long bytesRead();
+
+    /**
+     * @return The number of bytes written to this file, by flushes and evictions.
+     */
+    long bytesWritten();
+
+    /**
+     * Count the pages of this file that are in memory, and have been modified since they were last flushed.
+     * This is not a counter that is kept up to date, but is computed on demand by going through every page of the file,
+     * so it is far more costly than the others, and is not meant to be polled periodically, like by metrics reporters.
+     * @return The number of dirty pages of this file.
+     */
+    long dirtyPages();
+}
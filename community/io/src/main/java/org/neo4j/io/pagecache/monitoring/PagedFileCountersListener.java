@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.monitoring;
+
+/**
+ * A PagedFileCountersListener is told about the per-file counters of the page cache, as files are mapped and unmapped.
+ * @see PageCacheCounters#addFileCountersListener(PagedFileCountersListener)
+ */
+public interface PagedFileCountersListener
+{
+    /**
+     * A file has been mapped, and the page cache will keep the given counters up to date until the file is unmapped.
+     */
+    void fileCountersRegistered( PagedFileCounters counters );
+
+    /**
+     * The last reference to the file of the given counters has been unmapped.
+     */
+    void fileCountersUnregistered( PagedFileCounters counters );
+}
@@ -21,11 +21,16 @@ package org.neo4j.io.pagecache.tracing;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.LongAdder;
 
 import org.neo4j.helpers.MathUtil;
 import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.monitoring.PagedFileCounters;
+import org.neo4j.io.pagecache.monitoring.PagedFileCountersListener;
 
 /**
  * The default PageCacheTracer implementation, that just increments counters.
@@ -43,7 +48,14 @@ public class DefaultPageCacheTracer implements PageCacheTracer
     protected final LongAdder filesMapped = new LongAdder();
     protected final LongAdder filesUnmapped = new LongAdder();
     protected final LongAdder evictionExceptions = new LongAdder();
+    protected final LongAdder refaults = new LongAdder();
+    protected final LongAdder prefetches = new LongAdder();
+    protected final LongAdder prefetchExceptions = new LongAdder();
+    protected final LongAdder backgroundFlushes = new LongAdder();
     protected final AtomicLong maxPages = new AtomicLong();
+    protected final AtomicLong dirtyPages = new AtomicLong();
+    protected final List<PagedFileCounters> fileCounters = new CopyOnWriteArrayList<>();
+    protected final List<PagedFileCountersListener> fileCountersListeners = new CopyOnWriteArrayList<>();
 
     private final FlushEvent flushEvent = new FlushEvent()
     {
@@ -149,6 +161,26 @@ public class DefaultPageCacheTracer implements PageCacheTracer
         filesUnmapped.increment();
     }
 
+    @Override
+    public void registerFileCounters( PagedFileCounters counters )
+    {
+        fileCounters.add( counters );
+        for ( PagedFileCountersListener listener : fileCountersListeners )
+        {
+            listener.fileCountersRegistered( counters );
+        }
+    }
+
+    @Override
+    public void unregisterFileCounters( PagedFileCounters counters )
+    {
+        fileCounters.remove( counters );
+        for ( PagedFileCountersListener listener : fileCountersListeners )
+        {
+            listener.fileCountersUnregistered( counters );
+        }
+    }
+
     @Override
     public EvictionRunEvent beginPageEvictions( int pageCountToEvict )
     {
@@ -167,6 +199,12 @@ public class DefaultPageCacheTracer implements PageCacheTracer
         return majorFlushEvent;
     }
 
+    @Override
+    public MajorFlushEvent beginBackgroundFlush()
+    {
+        return majorFlushEvent;
+    }
+
     @Override
     public long faults()
     {
@@ -304,4 +342,82 @@ public class DefaultPageCacheTracer implements PageCacheTracer
     {
         this.maxPages.set( maxPages );
     }
+
+    @Override
+    public long refaults()
+    {
+        return refaults.sum();
+    }
+
+    @Override
+    public void refaults( long refaults )
+    {
+        this.refaults.add( refaults );
+    }
+
+    @Override
+    public List<PagedFileCounters> fileCounters()
+    {
+        return new ArrayList<>( fileCounters );
+    }
+
+    @Override
+    public void addFileCountersListener( PagedFileCountersListener listener )
+    {
+        fileCountersListeners.add( listener );
+    }
+
+    @Override
+    public void removeFileCountersListener( PagedFileCountersListener listener )
+    {
+        fileCountersListeners.remove( listener );
+    }
+
+    @Override
+    public long prefetches()
+    {
+        return prefetches.sum();
+    }
+
+    @Override
+    public void prefetches( long prefetches )
+    {
+        this.prefetches.add( prefetches );
+    }
+
+    @Override
+    public long prefetchExceptions()
+    {
+        return prefetchExceptions.sum();
+    }
+
+    @Override
+    public void prefetchExceptions( long prefetchExceptions )
+    {
+        this.prefetchExceptions.add( prefetchExceptions );
+    }
+
+    @Override
+    public long backgroundFlushes()
+    {
+        return backgroundFlushes.sum();
+    }
+
+    @Override
+    public void backgroundFlushes( long backgroundFlushes )
+    {
+        this.backgroundFlushes.add( backgroundFlushes );
+    }
+
+    @Override
+    public long dirtyPages()
+    {
+        return dirtyPages.get();
+    }
+
+    @Override
+    public void dirtyPages( long dirtyPages )
+    {
+        this.dirtyPages.set( dirtyPages );
+    }
 }
@@ -20,9 +20,13 @@
 package org.neo4j.io.pagecache.tracing;
 
 import java.io.File;
+import java.util.Collections;
+import java.util.List;
 
 import org.neo4j.io.pagecache.PageSwapper;
 import org.neo4j.io.pagecache.monitoring.PageCacheCounters;
+import org.neo4j.io.pagecache.monitoring.PagedFileCounters;
+import org.neo4j.io.pagecache.monitoring.PagedFileCountersListener;
 
 /**
  * A PageCacheTracer receives a steady stream of events and data about what
@@ -46,6 +50,32 @@ public interface PageCacheTracer extends PageCacheCounters
         {
         }
 
+        @Override
+        public void registerFileCounters( PagedFileCounters counters )
+        {
+        }
+
+        @Override
+        public void unregisterFileCounters( PagedFileCounters counters )
+        {
+        }
+
+        @Override
+        public List<PagedFileCounters> fileCounters()
+        {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public void addFileCountersListener( PagedFileCountersListener listener )
+        {
+        }
+
+        @Override
+        public void removeFileCountersListener( PagedFileCountersListener listener )
+        {
+        }
+
         @Override
         public EvictionRunEvent beginPageEvictions( int pageCountToEvict )
         {
@@ -64,6 +94,12 @@ public interface PageCacheTracer extends PageCacheCounters
             return MajorFlushEvent.NULL;
         }
 
+        @Override
+        public MajorFlushEvent beginBackgroundFlush()
+        {
+            return MajorFlushEvent.NULL;
+        }
+
         @Override
         public long faults()
         {
@@ -192,6 +228,61 @@ public interface PageCacheTracer extends PageCacheCounters
         {
         }
 
+        @Override
+        public long refaults()
+        {
+            return 0;
+        }
+
+        @Override
+        public void refaults( long refaults )
+        {
+        }
+
+        @Override
+        public long prefetches()
+        {
+            return 0;
+        }
+
+        @Override
+        public void prefetches( long prefetches )
+        {
+        }
+
+        @Override
+        public long prefetchExceptions()
+        {
+            return 0;
+        }
+
+        @Override
+        public void prefetchExceptions( long prefetchExceptions )
+        {
+        }
+
+        @Override
+        public long backgroundFlushes()
+        {
+            return 0;
+        }
+
+        @Override
+        public void backgroundFlushes( long backgroundFlushes )
+        {
+        }
+
+        @Override
+        public long dirtyPages()
+        {
+            return 0;
+        }
+
+        @Override
+        public void dirtyPages( long dirtyPages )
+        {
+        }
+
         @Override
         public String toString()
         {
@@ -209,6 +300,18 @@ public interface PageCacheTracer extends PageCacheCounters
      */
     void unmappedFile( File file );
 
+    /**
+     * A file has been mapped, and the page cache will keep the given per-file counters up to date until the file is
+     * unmapped.
+     */
+    void registerFileCounters( PagedFileCounters counters );
+
+    /**
+     * The last reference to the file of the given per-file counters has been unmapped, and the counters are no longer
+     * kept up to date.
+     */
+    void unregisterFileCounters( PagedFileCounters counters );
+
     /**
      * A background eviction has begun. Called from the background eviction thread.
      *
@@ -228,6 +331,11 @@ public interface PageCacheTracer extends PageCacheCounters
      */
     MajorFlushEvent beginCacheFlush();
 
+    /**
+     * The background flusher of the PageCache wants to write out some of the dirty pages in the cache.
+     */
+    MajorFlushEvent beginBackgroundFlush();
+
     /**
      * Report number of observed pins
      * @param pins number of pins
@@ -287,4 +395,34 @@ public interface PageCacheTracer extends PageCacheCounters
      * @param maxPages the total number of available pages.
      */
     void maxPages( long maxPages );
+
+    /**
+     * Report number of observed refaults, which are page faults of file pages that had recently been evicted.
+     * @param refaults number of refaults
+     */
+    void refaults( long refaults );
+
+    /**
+     * Report the given number of pages read ahead of time.
+     * @param prefetches number of pages read ahead
+     */
+    void prefetches( long prefetches );
+
+    /**
+     * Report the given number of exceptions caught while reading pages ahead of time.
+     * @param prefetchExceptions number of exceptions
+     */
+    void prefetchExceptions( long prefetchExceptions );
+
+    /**
+     * Report number of pages flushed by the background flusher.
+     * @param backgroundFlushes number of flushed pages
+     */
+    void backgroundFlushes( long backgroundFlushes );
+
+    /**
+     * Sets the number of dirty pages in the page cache.
+     * @param dirtyPages the number of pages that have been modified but not yet flushed
+     */
+    void dirtyPages( long dirtyPages );
 }
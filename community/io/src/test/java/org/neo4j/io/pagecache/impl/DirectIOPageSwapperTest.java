@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.neo4j.graphdb.config.Configuration;
+import org.neo4j.io.fs.DefaultFileSystemAbstraction;
+import org.neo4j.io.mem.MemoryAllocator;
+import org.neo4j.io.pagecache.PageEvictionCallback;
+import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.memory.LocalMemoryTracker;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.TestDirectoryExtension;
+import org.neo4j.test.rule.TestDirectory;
+import org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@ExtendWith( TestDirectoryExtension.class )
+class DirectIOPageSwapperTest
+{
+    private static final int PAGE_SIZE = 8192;
+    private static final PageEvictionCallback NO_CALLBACK = filePageId -> {};
+
+    @Inject
+    private TestDirectory testDirectory;
+
+    private final MemoryAllocator mman = MemoryAllocator.createAllocator( "1 MiB", new LocalMemoryTracker() );
+    private DefaultFileSystemAbstraction fs;
+    private DirectIOPageSwapperFactory factory;
+    private File file;
+
+    @BeforeEach
+    void setUp()
+    {
+        fs = new DefaultFileSystemAbstraction();
+        factory = new DirectIOPageSwapperFactory();
+        factory.open( fs, Configuration.EMPTY );
+        file = testDirectory.file( "file" );
+    }
+
+    @AfterEach
+    void tearDown() throws IOException
+    {
+        factory.close();
+        fs.close();
+    }
+
+    @Test
+    void mustFallBackToBufferedIOForUnalignedPageSizes() throws Exception
+    {
+        PageSwapper swapper = factory.createPageSwapper( file, 100, NO_CALLBACK, true );
+        try
+        {
+            assertThat( swapper, instanceOf( SingleFilePageSwapper.class ) );
+        }
+        finally
+        {
+            swapper.close();
+        }
+    }
+
+    @Test
+    void writtenPagesMustBeReadBack() throws Exception
+    {
+        PageSwapper swapper = createDirectSwapper();
+        try
+        {
+            long page = createPage( 1 );
+            swapper.write( 3, page );
+            assertThat( swapper.getLastPageId(), is( 3L ) );
+
+            long target = createPage( 0 );
+            assertEquals( PAGE_SIZE, swapper.read( 3, target, PAGE_SIZE ) );
+            assertPageFilledWith( target, 1 );
+
+            // The pages in the hole before the written page must read as zeros.
+            swapper.read( 1, target, PAGE_SIZE );
+            assertPageFilledWith( target, 0 );
+        }
+        finally
+        {
+            swapper.close();
+        }
+    }
+
+    @Test
+    void readingBeyondEndOfFileMustFillPageWithZeros() throws Exception
+    {
+        PageSwapper swapper = createDirectSwapper();
+        try
+        {
+            long target = createPage( 7 );
+            assertEquals( 0, swapper.read( 10, target, PAGE_SIZE ) );
+            assertPageFilledWith( target, 0 );
+        }
+        finally
+        {
+            swapper.close();
+        }
+    }
+
+    @Test
+    void vectoredReadsMustFillAllBuffersInOrder() throws Exception
+    {
+        PageSwapper swapper = createDirectSwapper();
+        try
+        {
+            long[] pages = {createPage( 1 ), createPage( 2 ), createPage( 3 )};
+            assertEquals( 3 * PAGE_SIZE, swapper.write( 0, pages, 0, pages.length ) );
+            swapper.force();
+
+            long[] targets = {createPage( 0 ), createPage( 0 ), createPage( 0 ), createPage( 9 )};
+            assertEquals( 3 * PAGE_SIZE, swapper.read( 0, targets, PAGE_SIZE, 0, targets.length ) );
+            assertPageFilledWith( targets[0], 1 );
+            assertPageFilledWith( targets[1], 2 );
+            assertPageFilledWith( targets[2], 3 );
+            assertPageFilledWith( targets[3], 0 );
+        }
+        finally
+        {
+            swapper.close();
+        }
+    }
+
+    @Test
+    void truncatedFilesMustBeEmpty() throws Exception
+    {
+        PageSwapper swapper = createDirectSwapper();
+        try
+        {
+            swapper.write( 0, createPage( 1 ) );
+            swapper.truncate();
+            assertThat( swapper.getLastPageId(), is( -1L ) );
+
+            long target = createPage( 5 );
+            swapper.read( 0, target, PAGE_SIZE );
+            assertPageFilledWith( target, 0 );
+        }
+        finally
+        {
+            swapper.close();
+        }
+    }
+
+    private PageSwapper createDirectSwapper() throws IOException
+    {
+        assumeTrue( DirectIOPageSwapperFactory.isDirectIOSupported(), "Direct IO requires Java 10 or newer" );
+        PageSwapper swapper = factory.createPageSwapper( file, PAGE_SIZE, NO_CALLBACK, true );
+        if ( !(swapper instanceof DirectIOPageSwapper) )
+        {
+            swapper.close();
+            assumeTrue( false, "The file system of the test directory does not support direct IO" );
+        }
+        return swapper;
+    }
+
+    private long createPage( int fill )
+    {
+        long address = mman.allocateAligned( PAGE_SIZE, factory.getRequiredBufferAlignment() );
+        UnsafeUtil.setMemory( address, PAGE_SIZE, (byte) fill );
+        return address;
+    }
+
+    private static void assertPageFilledWith( long address, int fill )
+    {
+        for ( int i = 0; i < PAGE_SIZE; i++ )
+        {
+            assertEquals( (byte) fill, UnsafeUtil.getByte( address + i ), "byte at offset " + i );
+        }
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.graphdb.config.Configuration;
+import org.neo4j.io.fs.DefaultFileSystemAbstraction;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PageSwapperFactory;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracerSupplier;
+import org.neo4j.io.pagecache.tracing.cursor.context.EmptyVersionContextSupplier;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.scheduler.ThreadPoolJobScheduler;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+
+/**
+ * Compares the page fault latency and checkpoint duration of the buffered {@link SingleFilePageSwapperFactory} with
+ * the {@link DirectIOPageSwapperFactory}.
+ *
+ * The mapped file is ten times larger than the page cache, so nearly every random read is a page fault. The benchmark
+ * is meant to be run by hand, against a directory on the storage device of interest:
+ *
+ * <pre>
+ *     java org.neo4j.io.pagecache.impl.PageSwapperFactoryBenchmark &lt;directory&gt; [cachePages] [reads]
+ * </pre>
+ */
+public class PageSwapperFactoryBenchmark
+{
+    private static final int FILE_TO_CACHE_RATIO = 10;
+
+    private final File directory;
+    private final int cachePages;
+    private final int reads;
+
+    private PageSwapperFactoryBenchmark( File directory, int cachePages, int reads )
+    {
+        this.directory = directory;
+        this.cachePages = cachePages;
+        this.reads = reads;
+    }
+
+    public static void main( String[] args ) throws Exception
+    {
+        if ( args.length < 1 )
+        {
+            System.err.println( "Usage: PageSwapperFactoryBenchmark <directory> [cachePages] [reads]" );
+            System.exit( 1 );
+        }
+        File directory = new File( args[0] );
+        int cachePages = args.length > 1 ? Integer.parseInt( args[1] ) : 10_000;
+        int reads = args.length > 2 ? Integer.parseInt( args[2] ) : 100_000;
+        PageSwapperFactoryBenchmark benchmark = new PageSwapperFactoryBenchmark( directory, cachePages, reads );
+        benchmark.run( new SingleFilePageSwapperFactory() );
+        benchmark.run( new DirectIOPageSwapperFactory() );
+    }
+
+    private void run( PageSwapperFactory swapperFactory ) throws Exception
+    {
+        File file = new File( directory, "benchmark-" + swapperFactory.implementationName() );
+        try ( FileSystemAbstraction fs = new DefaultFileSystemAbstraction();
+              JobScheduler jobScheduler = new ThreadPoolJobScheduler() )
+        {
+            fs.mkdirs( directory );
+            swapperFactory.open( fs, Configuration.EMPTY );
+            try ( PageCache pageCache = new MuninnPageCache( swapperFactory, cachePages, PageCacheTracer.NULL,
+                    PageCursorTracerSupplier.NULL, EmptyVersionContextSupplier.EMPTY, jobScheduler );
+                  PagedFile pagedFile = pageCache.map( file, pageCache.pageSize(), CREATE ) )
+            {
+                long filePages = (long) cachePages * FILE_TO_CACHE_RATIO;
+                fill( pagedFile, filePages );
+                long[] faultLatencies = randomReads( pagedFile, filePages );
+                long checkpointNanos = checkpoint( pagedFile, filePages );
+                report( swapperFactory, faultLatencies, checkpointNanos );
+            }
+            finally
+            {
+                fs.deleteFile( file );
+            }
+        }
+    }
+
+    private static void fill( PagedFile pagedFile, long filePages ) throws IOException
+    {
+        try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK ) )
+        {
+            for ( long pageId = 0; pageId < filePages; pageId++ )
+            {
+                cursor.next( pageId );
+                cursor.putLong( 0, pageId );
+            }
+        }
+        pagedFile.flushAndForce();
+    }
+
+    private long[] randomReads( PagedFile pagedFile, long filePages ) throws IOException
+    {
+        ThreadLocalRandom rng = ThreadLocalRandom.current();
+        long[] latencies = new long[reads];
+        try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK ) )
+        {
+            for ( int i = 0; i < reads; i++ )
+            {
+                long pageId = rng.nextLong( filePages );
+                long start = System.nanoTime();
+                cursor.next( pageId );
+                long value;
+                do
+                {
+                    value = cursor.getLong( 0 );
+                }
+                while ( cursor.shouldRetry() );
+                latencies[i] = System.nanoTime() - start;
+                if ( value != pageId )
+                {
+                    throw new IllegalStateException( "Read " + value + " from page " + pageId );
+                }
+            }
+        }
+        Arrays.sort( latencies );
+        return latencies;
+    }
+
+    private long checkpoint( PagedFile pagedFile, long filePages ) throws IOException
+    {
+        // Dirty as many pages as the cache can hold, and then time how long it takes to get them to the device.
+        ThreadLocalRandom rng = ThreadLocalRandom.current();
+        try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK ) )
+        {
+            for ( int i = 0; i < cachePages; i++ )
+            {
+                long pageId = rng.nextLong( filePages );
+                cursor.next( pageId );
+                cursor.putLong( 0, pageId );
+            }
+        }
+        long start = System.nanoTime();
+        pagedFile.flushAndForce();
+        return System.nanoTime() - start;
+    }
+
+    private static void report( PageSwapperFactory swapperFactory, long[] faultLatencies, long checkpointNanos )
+    {
+        System.out.printf( "%s: fault latency p50=%dus p90=%dus p99=%dus p99.9=%dus max=%dus, checkpoint=%dms%n",
+                swapperFactory.implementationName(),
+                micros( percentile( faultLatencies, 0.5 ) ),
+                micros( percentile( faultLatencies, 0.9 ) ),
+                micros( percentile( faultLatencies, 0.99 ) ),
+                micros( percentile( faultLatencies, 0.999 ) ),
+                micros( faultLatencies[faultLatencies.length - 1] ),
+                TimeUnit.NANOSECONDS.toMillis( checkpointNanos ) );
+    }
+
+    private static long percentile( long[] sortedValues, double percentile )
+    {
+        int index = (int) Math.min( sortedValues.length - 1, Math.round( sortedValues.length * percentile ) );
+        return sortedValues[index];
+    }
+
+    private static long micros( long nanos )
+    {
+        return TimeUnit.NANOSECONDS.toMicros( nanos );
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FreePageStripeTest
+{
+    private final FreePageStripe stripe = new FreePageStripe();
+
+    @Test
+    void pollMustReturnZeroWhenStripeIsEmpty()
+    {
+        assertThat( stripe.poll(), is( 0L ) );
+        assertThat( stripe.count(), is( 0 ) );
+    }
+
+    @Test
+    void pushedBatchesMustBePolledInStackOrder()
+    {
+        stripe.push( new long[]{1, 2, 3}, 2 );
+        stripe.push( new long[]{4, 5}, 2 );
+        assertThat( stripe.count(), is( 4 ) );
+
+        assertThat( stripe.poll(), is( 4L ) );
+        assertThat( stripe.poll(), is( 5L ) );
+        assertThat( stripe.count(), is( 2 ) );
+        assertThat( stripe.poll(), is( 1L ) );
+        assertThat( stripe.poll(), is( 2L ) );
+        assertThat( stripe.poll(), is( 0L ) );
+        assertThat( stripe.count(), is( 0 ) );
+    }
+
+    @Test
+    void concurrentPushesAndPollsMustHandOutEveryPageExactlyOnce() throws Exception
+    {
+        int threads = 4;
+        int pagesPerThread = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool( threads * 2 );
+        try
+        {
+            List<Future<?>> pushers = new ArrayList<>();
+            List<Future<List<Long>>> pollers = new ArrayList<>();
+            for ( int t = 0; t < threads; t++ )
+            {
+                long base = (long) t * pagesPerThread + 1;
+                pushers.add( executor.submit( () ->
+                {
+                    long[] batch = new long[8];
+                    for ( int i = 0; i < pagesPerThread; i += batch.length )
+                    {
+                        for ( int j = 0; j < batch.length; j++ )
+                        {
+                            batch[j] = base + i + j;
+                        }
+                        stripe.push( batch, Math.min( batch.length, pagesPerThread - i ) );
+                    }
+                } ) );
+                pollers.add( executor.submit( () ->
+                {
+                    List<Long> polled = new ArrayList<>();
+                    for ( int i = 0; i < pagesPerThread; )
+                    {
+                        long pageRef = stripe.poll();
+                        if ( pageRef != 0 )
+                        {
+                            polled.add( pageRef );
+                            i++;
+                        }
+                    }
+                    return polled;
+                } ) );
+            }
+
+            for ( Future<?> pusher : pushers )
+            {
+                pusher.get( 1, TimeUnit.MINUTES );
+            }
+            Set<Long> seen = new HashSet<>();
+            for ( Future<List<Long>> poller : pollers )
+            {
+                for ( Long pageRef : poller.get( 1, TimeUnit.MINUTES ) )
+                {
+                    assertTrue( seen.add( pageRef ), "page handed out twice: " + pageRef );
+                }
+            }
+            assertThat( seen.size(), is( threads * pagesPerThread ) );
+            assertThat( stripe.count(), is( 0 ) );
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+}
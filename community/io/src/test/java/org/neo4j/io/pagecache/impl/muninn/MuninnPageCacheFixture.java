@@ -33,6 +33,7 @@ import org.neo4j.scheduler.JobScheduler;
 public class MuninnPageCacheFixture extends PageCacheTestSupport.Fixture<MuninnPageCache>
 {
     CountDownLatch backgroundFlushLatch;
+    EvictionPolicy evictionPolicy = EvictionPolicy.CLOCK;
 
     @Override
     public MuninnPageCache createPageCache( PageSwapperFactory swapperFactory, int maxPages, PageCacheTracer tracer,
@@ -40,7 +41,8 @@ public class MuninnPageCacheFixture extends PageCacheTestSupport.Fixture<MuninnP
     {
         long memory = MuninnPageCache.memoryRequiredForPages( maxPages );
         MemoryAllocator allocator = MemoryAllocator.createAllocator( String.valueOf( memory ), new LocalMemoryTracker() );
-        return new MuninnPageCache( swapperFactory, allocator, tracer, cursorTracerSupplier, contextSupplier, jobScheduler );
+        return new MuninnPageCache( swapperFactory, allocator, tracer, cursorTracerSupplier, contextSupplier, jobScheduler,
+                evictionPolicy );
     }
 
     @Override
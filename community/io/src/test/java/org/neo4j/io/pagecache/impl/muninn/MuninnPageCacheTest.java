@@ -25,10 +25,13 @@ import org.junit.jupiter.api.Test;
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.IntSupplier;
 import java.util.function.LongSupplier;
 
@@ -39,16 +42,20 @@ import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.fs.OpenMode;
 import org.neo4j.io.fs.StoreChannel;
 import org.neo4j.io.pagecache.IOLimiter;
+import org.neo4j.io.pagecache.PageCacheOpenOptions;
 import org.neo4j.io.pagecache.PageCacheTest;
 import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.PageSwapper;
 import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.monitoring.PagedFileCounters;
 import org.neo4j.io.pagecache.tracing.ConfigurablePageCursorTracerSupplier;
 import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
 import org.neo4j.io.pagecache.tracing.DelegatingPageCacheTracer;
+import org.neo4j.io.pagecache.tracing.EvictionEvent;
 import org.neo4j.io.pagecache.tracing.EvictionRunEvent;
 import org.neo4j.io.pagecache.tracing.MajorFlushEvent;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.io.pagecache.tracing.PageFaultEvent;
 import org.neo4j.io.pagecache.tracing.cursor.DefaultPageCursorTracerSupplier;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracerSupplier;
 import org.neo4j.io.pagecache.tracing.cursor.context.VersionContext;
@@ -56,16 +63,21 @@ import org.neo4j.io.pagecache.tracing.cursor.context.VersionContextSupplier;
 import org.neo4j.io.pagecache.tracing.recording.RecordingPageCacheTracer;
 import org.neo4j.io.pagecache.tracing.recording.RecordingPageCursorTracer;
 import org.neo4j.io.pagecache.tracing.recording.RecordingPageCursorTracer.Fault;
+import org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil;
 
 import static java.time.Duration.ofMillis;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTimeout;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
+import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
 import static org.neo4j.io.pagecache.PagedFile.PF_NO_GROW;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
@@ -711,6 +723,526 @@ public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache>
         } );
     }
 
+    @Test
+    void scanResistantEvictionMustKeepRepeatedlyUsedPagesDuringLargeScans() throws Exception
+    {
+        fixture.evictionPolicy = EvictionPolicy.SCAN_RESISTANT;
+        int hotPageCount = 5;
+        try ( MuninnPageCache pageCache = createPageCache( fs, 20, PageCacheTracer.NULL, PageCursorTracerSupplier.NULL );
+                PagedFile hotFile = pageCache.map( file( "a" ), 8 );
+                PagedFile scanFile = pageCache.map( file( "b" ), 8, StandardOpenOption.CREATE ) )
+        {
+            for ( int i = 0; i < 3; i++ )
+            {
+                try ( PageCursor cursor = hotFile.io( 0, PF_SHARED_WRITE_LOCK ) )
+                {
+                    for ( long pageId = 0; pageId < hotPageCount; pageId++ )
+                    {
+                        assertTrue( cursor.next( pageId ) );
+                    }
+                }
+            }
+
+            try ( PageCursor cursor = scanFile.io( 0, PF_SHARED_WRITE_LOCK ) )
+            {
+                for ( long pageId = 0; pageId < 1000; pageId++ )
+                {
+                    assertTrue( cursor.next( pageId ) );
+                }
+            }
+
+            try ( PageCursor cursor = hotFile.io( 0, PF_SHARED_READ_LOCK | PF_NO_FAULT ) )
+            {
+                for ( long pageId = 0; pageId < hotPageCount; pageId++ )
+                {
+                    assertTrue( cursor.next( pageId ) );
+                    assertEquals( pageId, cursor.getCurrentPageId() );
+                }
+            }
+        }
+    }
+
+    @Test
+    void scanResistantEvictionMustReportRefaultsOfRecentlyEvictedPages() throws Exception
+    {
+        fixture.evictionPolicy = EvictionPolicy.SCAN_RESISTANT;
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        try ( MuninnPageCache pageCache = createPageCache( fs, 20, tracer, PageCursorTracerSupplier.NULL );
+                PagedFile pagedFile = pageCache.map( file( "a" ), 8 ) )
+        {
+            for ( int i = 0; i < 2; i++ )
+            {
+                try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK ) )
+                {
+                    for ( long pageId = 0; pageId < 100; pageId++ )
+                    {
+                        assertTrue( cursor.next( pageId ) );
+                    }
+                }
+            }
+            assertThat( tracer.refaults(), greaterThan( 0L ) );
+        }
+    }
+
+    @Test
+    void reservedFilesMustKeepTheirPagesDuringScansOfOtherFiles() throws Exception
+    {
+        int reservedPageCount = 4;
+        try ( MuninnPageCache pageCache = createPageCache( fs, 20, PageCacheTracer.NULL, PageCursorTracerSupplier.NULL );
+                PagedFile reservedFile = pageCache.map( file( "a" ), 8, PageCacheOpenOptions.RESERVED );
+                PagedFile scanFile = pageCache.map( file( "b" ), 8, StandardOpenOption.CREATE ) )
+        {
+            try ( PageCursor cursor = reservedFile.io( 0, PF_SHARED_WRITE_LOCK ) )
+            {
+                for ( long pageId = 0; pageId < reservedPageCount; pageId++ )
+                {
+                    assertTrue( cursor.next( pageId ) );
+                }
+            }
+
+            try ( PageCursor cursor = scanFile.io( 0, PF_SHARED_WRITE_LOCK ) )
+            {
+                for ( long pageId = 0; pageId < 1000; pageId++ )
+                {
+                    assertTrue( cursor.next( pageId ) );
+                }
+            }
+
+            try ( PageCursor cursor = reservedFile.io( 0, PF_SHARED_READ_LOCK | PF_NO_FAULT ) )
+            {
+                for ( long pageId = 0; pageId < reservedPageCount; pageId++ )
+                {
+                    assertTrue( cursor.next( pageId ) );
+                    assertEquals( pageId, cursor.getCurrentPageId() );
+                }
+            }
+        }
+    }
+
+    @Test
+    void fileCountersMustReportResidentPagesOfMappedFiles() throws Exception
+    {
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        try ( MuninnPageCache pageCache = createPageCache( fs, 20, tracer, PageCursorTracerSupplier.NULL ) )
+        {
+            try ( PagedFile pagedFile = pageCache.map( file( "a" ), 8, PageCacheOpenOptions.RESERVED ) )
+            {
+                try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK ) )
+                {
+                    for ( long pageId = 0; pageId < 3; pageId++ )
+                    {
+                        assertTrue( cursor.next( pageId ) );
+                    }
+                }
+
+                List<PagedFileCounters> fileCounters = tracer.fileCounters();
+                assertEquals( 1, fileCounters.size() );
+                PagedFileCounters counters = fileCounters.get( 0 );
+                assertEquals( pagedFile.file(), counters.file() );
+                assertEquals( 3, counters.residentPages() );
+                assertTrue( counters.isReserved() );
+            }
+            assertTrue( tracer.fileCounters().isEmpty() );
+        }
+    }
+
+    @Test
+    void fileCountersMustReportHitsFaultsEvictionsAndDirtyPagesOfMappedFiles() throws Exception
+    {
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        try ( MuninnPageCache pageCache = createPageCache( fs, 20, tracer, PageCursorTracerSupplier.NULL ) )
+        {
+            try ( PagedFile pagedFile = pageCache.map( file( "a" ), 8 ) )
+            {
+                try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK ) )
+                {
+                    for ( long pageId = 0; pageId < 3; pageId++ )
+                    {
+                        assertTrue( cursor.next( pageId ) );
+                        cursor.putLong( pageId );
+                    }
+                }
+                try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK ) )
+                {
+                    for ( long pageId = 0; pageId < 3; pageId++ )
+                    {
+                        assertTrue( cursor.next( pageId ) );
+                    }
+                }
+
+                PagedFileCounters counters = tracer.fileCounters().get( 0 );
+                assertEquals( 3, counters.faults() );
+                assertEquals( 3, counters.hits() );
+                assertEquals( 3, counters.dirtyPages() );
+                assertEquals( 0, counters.bytesWritten() );
+
+                pagedFile.flushAndForce();
+                assertEquals( 0, counters.dirtyPages() );
+                assertEquals( 3 * 8, counters.bytesWritten() );
+
+                try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK ) )
+                {
+                    for ( long pageId = 0; pageId < 40; pageId++ )
+                    {
+                        assertTrue( cursor.next( pageId ) );
+                    }
+                }
+                assertThat( counters.evictions(), greaterThan( 0L ) );
+            }
+
+            try ( PagedFile pagedFile = pageCache.map( file( "a" ), 8 );
+                  PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK ) )
+            {
+                for ( long pageId = 0; pageId < 3; pageId++ )
+                {
+                    assertTrue( cursor.next( pageId ) );
+                }
+                assertEquals( 3 * 8, tracer.fileCounters().get( 0 ).bytesRead() );
+            }
+        }
+    }
+
+    @Test
+    void sequentialScansMustReadPagesAheadOfTheCursor() throws Exception
+    {
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        try ( MuninnPageCache pageCache = createPageCache( fs, 100, tracer, PageCursorTracerSupplier.NULL ) )
+        {
+            generateFileWithRecords( file( "a" ), recordCount, recordSize );
+            pageCache.setReadAheadPages( 16 );
+            try ( PagedFile pagedFile = pageCache.map( file( "a" ), filePageSize );
+                    PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK ) )
+            {
+                for ( int i = 0; i < 8; i++ )
+                {
+                    assertTrue( cursor.next() );
+                    verifyRecordsMatchExpected( cursor );
+                }
+                assertTimeout( ofMillis( SEMI_LONG_TIMEOUT_MILLIS ), () ->
+                {
+                    while ( tracer.prefetches() == 0 )
+                    {
+                        Thread.sleep( 1 );
+                    }
+                } );
+                while ( cursor.next() )
+                {
+                    verifyRecordsMatchExpected( cursor );
+                }
+            }
+            assertThat( tracer.prefetches(), greaterThan( 0L ) );
+            assertEquals( 0, tracer.prefetchExceptions() );
+        }
+    }
+
+    @Test
+    void pagesReadAheadMustNotBeTheFirstEvictionVictims() throws Exception
+    {
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        try ( MuninnPageCache pageCache = createPageCache( fs, 100, tracer, PageCursorTracerSupplier.NULL ) )
+        {
+            generateFileWithRecords( file( "a" ), recordCount, recordSize );
+            PagedFile pagedFile = pageCache.map( file( "a" ), filePageSize );
+            MuninnPagedFile muninnPagedFile = (MuninnPagedFile) pagedFile;
+            muninnPagedFile.readAhead( 0, 4 );
+            assertEquals( 4, tracer.prefetches() );
+            int[] chunk = muninnPagedFile.translationTable[0];
+            for ( long filePageId = 0; filePageId < 4; filePageId++ )
+            {
+                int pageId = UnsafeUtil.getIntVolatile( chunk, MuninnPagedFile.computeChunkOffset( filePageId ) );
+                assertNotEquals( MuninnPagedFile.UNMAPPED_TTE, pageId );
+                assertThat( (int) muninnPagedFile.getUsageCounter( muninnPagedFile.deref( pageId ) ), greaterThan( 0 ) );
+            }
+            pagedFile.close();
+        }
+    }
+
+    @Test
+    void randomAccessMustNotReadPagesAhead() throws Exception
+    {
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        try ( MuninnPageCache pageCache = createPageCache( fs, 100, tracer, PageCursorTracerSupplier.NULL ) )
+        {
+            generateFileWithRecords( file( "a" ), recordCount, recordSize );
+            pageCache.setReadAheadPages( 16 );
+            try ( PagedFile pagedFile = pageCache.map( file( "a" ), filePageSize );
+                    PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK ) )
+            {
+                for ( long pageId = 0; pageId < 20; pageId++ )
+                {
+                    assertTrue( cursor.next( (pageId * 7) % 20 ) );
+                    verifyRecordsMatchExpected( cursor );
+                }
+            }
+            assertEquals( 0, tracer.prefetches() );
+        }
+    }
+
+    @Test
+    void backgroundFlusherMustFlushDirtyPagesAboveTheDirtyPagesRatio() throws Exception
+    {
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        try ( MuninnPageCache pageCache = createPageCache( fs, 100, tracer, PageCursorTracerSupplier.NULL ) )
+        {
+            pageCache.setDirtyPagesRatio( 0.0 );
+            try ( PagedFile pagedFile = pageCache.map( file( "a" ), 8 ) )
+            {
+                try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK ) )
+                {
+                    for ( int i = 0; i < 20; i++ )
+                    {
+                        assertTrue( cursor.next() );
+                        cursor.putLong( i );
+                    }
+                }
+                assertTimeout( ofMillis( SEMI_LONG_TIMEOUT_MILLIS ), () ->
+                {
+                    while ( tracer.backgroundFlushes() < 20 || tracer.dirtyPages() != 0 )
+                    {
+                        Thread.sleep( 1 );
+                    }
+                } );
+
+                // The background flusher already wrote everything, so there's nothing left for a checkpoint to flush.
+                long flushes = tracer.flushes();
+                pagedFile.flushAndForce();
+                assertEquals( flushes, tracer.flushes() );
+            }
+        }
+    }
+
+    @Test
+    void backgroundFlusherMustBeLimitedByItsIOLimiterAndNotBeginCacheFlushes() throws Exception
+    {
+        AtomicInteger cacheFlushEvents = new AtomicInteger();
+        AtomicInteger backgroundFlushEvents = new AtomicInteger();
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer()
+        {
+            @Override
+            public MajorFlushEvent beginCacheFlush()
+            {
+                cacheFlushEvents.getAndIncrement();
+                return super.beginCacheFlush();
+            }
+
+            @Override
+            public MajorFlushEvent beginBackgroundFlush()
+            {
+                backgroundFlushEvents.getAndIncrement();
+                return super.beginBackgroundFlush();
+            }
+        };
+        AtomicInteger limitedIOs = new AtomicInteger();
+        IOLimiter limiter = ( previousStamp, recentlyCompletedIOs, flushable ) ->
+        {
+            limitedIOs.getAndAdd( recentlyCompletedIOs );
+            return previousStamp;
+        };
+        try ( MuninnPageCache pageCache = createPageCache( fs, 100, tracer, PageCursorTracerSupplier.NULL );
+              PagedFile pagedFile = pageCache.map( file( "a" ), 8 ) )
+        {
+            pageCache.setBackgroundFlushLimiter( limiter );
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK ) )
+            {
+                for ( int i = 0; i < 10; i++ )
+                {
+                    assertTrue( cursor.next() );
+                    cursor.putLong( i );
+                }
+            }
+            assertEquals( 10, pageCache.sweepDirtyPages( 0 ) );
+            assertEquals( 0, backgroundFlushEvents.get() );
+
+            assertEquals( 6, pageCache.sweepDirtyPages( 4 ) );
+            assertEquals( 1, backgroundFlushEvents.get() );
+            assertEquals( 4, limitedIOs.get() );
+            assertEquals( 0, cacheFlushEvents.get() );
+        }
+    }
+
+    @Test
+    void backgroundFlusherMustParkWhenDisabledAfterPagesHaveBeenDirtied() throws Exception
+    {
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        try ( MuninnPageCache pageCache = createPageCache( fs, 100, tracer, PageCursorTracerSupplier.NULL );
+              PagedFile pagedFile = pageCache.map( file( "a" ), 8 ) )
+        {
+            pageCache.setDirtyPagesRatio( 0.5 );
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK ) )
+            {
+                for ( int i = 0; i < 10; i++ )
+                {
+                    assertTrue( cursor.next() );
+                    cursor.putLong( i );
+                }
+            }
+            assertTimeout( ofMillis( SEMI_LONG_TIMEOUT_MILLIS ), () ->
+            {
+                while ( tracer.dirtyPages() != 10 )
+                {
+                    Thread.sleep( 1 );
+                }
+            } );
+
+            // Raise the ratio while there are dirty pages, and dirty one more page, so the flusher has been told pages
+            // were dirtied but isn't allowed to sweep them.
+            pageCache.setDirtyPagesRatio( 1.0 );
+            try ( PageCursor cursor = pagedFile.io( 10, PF_SHARED_WRITE_LOCK ) )
+            {
+                assertTrue( cursor.next() );
+                cursor.putLong( 10 );
+            }
+
+            Thread flushThread = pageCache.backgroundFlushThread;
+            assertTimeout( ofMillis( SEMI_LONG_TIMEOUT_MILLIS ), () ->
+            {
+                while ( flushThread.getState() != Thread.State.TIMED_WAITING )
+                {
+                    Thread.sleep( 1 );
+                }
+            } );
+            // Parked, not spinning, for longer than the interval at which it checks the ratio.
+            for ( int i = 0; i < 30; i++ )
+            {
+                Thread.sleep( 10 );
+                assertNotEquals( Thread.State.RUNNABLE, flushThread.getState() );
+            }
+        }
+    }
+
+    @Test
+    void sweepMustCountDirtyPagesWithoutFlushingBeyondTheBudget() throws Exception
+    {
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        try ( MuninnPageCache pageCache = createPageCache( fs, 100, tracer, PageCursorTracerSupplier.NULL );
+              PagedFile pagedFile = pageCache.map( file( "a" ), 8 ) )
+        {
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK ) )
+            {
+                for ( int i = 0; i < 10; i++ )
+                {
+                    assertTrue( cursor.next() );
+                    cursor.putLong( i );
+                }
+            }
+            assertEquals( 10, pageCache.sweepDirtyPages( 0 ) );
+            assertEquals( 0, tracer.backgroundFlushes() );
+
+            assertEquals( 6, pageCache.sweepDirtyPages( 4 ) );
+            assertEquals( 4, tracer.backgroundFlushes() );
+            assertEquals( 6, pageCache.sweepDirtyPages( 0 ) );
+        }
+    }
+
+    @Test
+    void cooperativeEvictionMustTakeFreePagesFromAnyStripeInsteadOfEvicting() throws Exception
+    {
+        try ( MuninnPageCache pageCache = createPageCache( fs, 40, PageCacheTracer.NULL, PageCursorTracerSupplier.NULL );
+              PagedFile pagedFile = pageCache.map( file( "a" ), 8 ) )
+        {
+            // Use up the pages that were never used, so free pages only come from the stripes filled by the eviction thread.
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK ) )
+            {
+                for ( int i = 0; i < 80; i++ )
+                {
+                    assertTrue( cursor.next() );
+                }
+            }
+            MutableBoolean evicted = new MutableBoolean();
+            PageFaultEvent faultEvent = new PageFaultEvent()
+            {
+                @Override
+                public void addBytesRead( long bytes )
+                {
+                }
+
+                @Override
+                public void setCachePageId( long cachePageId )
+                {
+                }
+
+                @Override
+                public void done()
+                {
+                }
+
+                @Override
+                public void done( Throwable throwable )
+                {
+                }
+
+                @Override
+                public EvictionEvent beginEviction()
+                {
+                    evicted.setTrue();
+                    return EvictionEvent.NULL;
+                }
+            };
+
+            // Each new thread maps to its own stripe, which is not necessarily the one the free pages were pushed onto.
+            for ( int i = 0; i < 8; i++ )
+            {
+                assertTimeout( ofMillis( SEMI_LONG_TIMEOUT_MILLIS ), () ->
+                {
+                    while ( pageCache.countFreelistStripePages() == 0 )
+                    {
+                        Thread.sleep( 1 );
+                    }
+                } );
+                FutureTask<Long> faulter = new FutureTask<>( () -> pageCache.cooperativelyEvict( faultEvent ) );
+                new Thread( faulter ).start();
+                assertNotEquals( 0L, (long) faulter.get() );
+                assertFalse( evicted.booleanValue() );
+            }
+        }
+    }
+
+    @Test
+    void concurrentTranslationTableExpansionMustNotLoseAnyChunks() throws Exception
+    {
+        try ( MuninnPageCache pageCache = createPageCache( fs, 100, PageCacheTracer.NULL, PageCursorTracerSupplier.NULL );
+              PagedFile pagedFile = pageCache.map( file( "a" ), 8 ) )
+        {
+            MuninnPagedFile muninnPagedFile = (MuninnPagedFile) pagedFile;
+            int[][] initialTable = muninnPagedFile.translationTable;
+            int threads = 8;
+            int maxChunkId = 1000;
+            CountDownLatch start = new CountDownLatch( 1 );
+            List<Future<?>> futures = new ArrayList<>();
+            for ( int i = 0; i < threads; i++ )
+            {
+                int offset = i;
+                futures.add( executor.submit( () ->
+                {
+                    start.await();
+                    for ( int chunkId = offset; chunkId < maxChunkId; chunkId += threads )
+                    {
+                        int[][] tt = muninnPagedFile.expandCapacity( chunkId );
+                        assertThat( tt.length, greaterThan( chunkId ) );
+                    }
+                    return null;
+                } ) );
+            }
+            start.countDown();
+            for ( Future<?> future : futures )
+            {
+                future.get();
+            }
+
+            int[][] table = muninnPagedFile.translationTable;
+            assertThat( table.length, greaterThan( maxChunkId - 1 ) );
+            for ( int i = 0; i < initialTable.length; i++ )
+            {
+                // The existing chunks must be carried over, or concurrent page faults would be lost.
+                assertSame( initialTable[i], table[i] );
+            }
+            for ( int[] chunk : table )
+            {
+                assertNotNull( chunk );
+            }
+        }
+    }
+
     private static class FlushRendezvousTracer extends DefaultPageCacheTracer
     {
         private final CountDownLatch latch;
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.neo4j.graphdb.config.Configuration;
+import org.neo4j.graphdb.mockfs.EphemeralFileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PageSwapperFactory;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
+import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracerSupplier;
+import org.neo4j.io.pagecache.tracing.cursor.context.EmptyVersionContextSupplier;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.scheduler.ThreadPoolJobScheduler;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+
+/**
+ * Measures how the page fault throughput of the page cache scales with the number of faulting threads.
+ *
+ * The file lives on an in-memory file system, and is ten times larger than the page cache, so nearly every access is a
+ * page fault, and the throughput is bound by how fast the threads can get free pages, rather than by IO.
+ * The benchmark is meant to be run by hand:
+ *
+ * <pre>
+ *     java org.neo4j.io.pagecache.impl.muninn.PageFaultScalingBenchmark [maxThreads] [secondsPerRun]
+ * </pre>
+ *
+ * Run it with {@code -Dorg.neo4j.io.pagecache.impl.muninn.MuninnPageCache.freelistStripes=1} to compare with a
+ * single, unstriped free list.
+ */
+public class PageFaultScalingBenchmark
+{
+    private static final int CACHE_PAGES = 2_000;
+    private static final int FILE_PAGES = CACHE_PAGES * 10;
+
+    public static void main( String[] args ) throws Exception
+    {
+        int maxThreads = args.length > 0 ? Integer.parseInt( args[0] ) : Runtime.getRuntime().availableProcessors();
+        int secondsPerRun = args.length > 1 ? Integer.parseInt( args[1] ) : 5;
+
+        try ( EphemeralFileSystemAbstraction fs = new EphemeralFileSystemAbstraction();
+              JobScheduler jobScheduler = new ThreadPoolJobScheduler() )
+        {
+            PageSwapperFactory swapperFactory = new SingleFilePageSwapperFactory();
+            swapperFactory.open( fs, Configuration.EMPTY );
+            DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+            File file = new File( "benchmark" );
+            try ( MuninnPageCache pageCache = new MuninnPageCache( swapperFactory, CACHE_PAGES, tracer,
+                    PageCursorTracerSupplier.NULL, EmptyVersionContextSupplier.EMPTY, jobScheduler );
+                  PagedFile pagedFile = pageCache.map( file, pageCache.pageSize(), CREATE ) )
+            {
+                fill( pagedFile );
+                for ( int threads = 1; threads <= maxThreads; threads *= 2 )
+                {
+                    long faultsBefore = tracer.faults();
+                    long start = System.nanoTime();
+                    run( pagedFile, threads, secondsPerRun );
+                    long elapsedNanos = System.nanoTime() - start;
+                    long faults = tracer.faults() - faultsBefore;
+                    System.out.printf( "threads=%d faults/s=%d%n",
+                            threads, faults * TimeUnit.SECONDS.toNanos( 1 ) / elapsedNanos );
+                }
+            }
+        }
+    }
+
+    private static void fill( PagedFile pagedFile ) throws IOException
+    {
+        try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK ) )
+        {
+            for ( long pageId = 0; pageId < FILE_PAGES; pageId++ )
+            {
+                cursor.next( pageId );
+                cursor.putLong( 0, pageId );
+            }
+        }
+        pagedFile.flushAndForce();
+    }
+
+    private static void run( PagedFile pagedFile, int threads, int seconds ) throws Exception
+    {
+        AtomicBoolean stop = new AtomicBoolean();
+        ExecutorService executor = Executors.newFixedThreadPool( threads );
+        try
+        {
+            List<Future<?>> futures = new ArrayList<>();
+            for ( int i = 0; i < threads; i++ )
+            {
+                futures.add( executor.submit( () ->
+                {
+                    ThreadLocalRandom rng = ThreadLocalRandom.current();
+                    try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK ) )
+                    {
+                        while ( !stop.get() )
+                        {
+                            cursor.next( rng.nextInt( FILE_PAGES ) );
+                        }
+                    }
+                    return null;
+                } ) );
+            }
+            Thread.sleep( TimeUnit.SECONDS.toMillis( seconds ) );
+            stop.set( true );
+            for ( Future<?> future : futures )
+            {
+                future.get();
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+}
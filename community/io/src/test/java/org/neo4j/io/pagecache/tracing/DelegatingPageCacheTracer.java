@@ -20,8 +20,11 @@
 package org.neo4j.io.pagecache.tracing;
 
 import java.io.File;
+import java.util.List;
 
 import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.monitoring.PagedFileCounters;
+import org.neo4j.io.pagecache.monitoring.PagedFileCountersListener;
 
 /**
  * A PageCacheTracer that delegates all calls to a wrapped instance.
@@ -79,6 +82,12 @@ public class DelegatingPageCacheTracer implements PageCacheTracer
         return delegate.beginCacheFlush();
     }
 
+    @Override
+    public MajorFlushEvent beginBackgroundFlush()
+    {
+        return delegate.beginBackgroundFlush();
+    }
+
     @Override
     public long bytesWritten()
     {
@@ -103,6 +112,18 @@ public class DelegatingPageCacheTracer implements PageCacheTracer
         delegate.unmappedFile( file );
     }
 
+    @Override
+    public void registerFileCounters( PagedFileCounters counters )
+    {
+        delegate.registerFileCounters( counters );
+    }
+
+    @Override
+    public void unregisterFileCounters( PagedFileCounters counters )
+    {
+        delegate.unregisterFileCounters( counters );
+    }
+
     @Override
     public long evictionExceptions()
     {
@@ -204,4 +225,82 @@ public class DelegatingPageCacheTracer implements PageCacheTracer
     {
         return delegate.evictions();
     }
+
+    @Override
+    public long refaults()
+    {
+        return delegate.refaults();
+    }
+
+    @Override
+    public void refaults( long refaults )
+    {
+        delegate.refaults( refaults );
+    }
+
+    @Override
+    public List<PagedFileCounters> fileCounters()
+    {
+        return delegate.fileCounters();
+    }
+
+    @Override
+    public void addFileCountersListener( PagedFileCountersListener listener )
+    {
+        delegate.addFileCountersListener( listener );
+    }
+
+    @Override
+    public void removeFileCountersListener( PagedFileCountersListener listener )
+    {
+        delegate.removeFileCountersListener( listener );
+    }
+
+    @Override
+    public long prefetches()
+    {
+        return delegate.prefetches();
+    }
+
+    @Override
+    public void prefetches( long prefetches )
+    {
+        delegate.prefetches( prefetches );
+    }
+
+    @Override
+    public long prefetchExceptions()
+    {
+        return delegate.prefetchExceptions();
+    }
+
+    @Override
+    public void prefetchExceptions( long prefetchExceptions )
+    {
+        delegate.prefetchExceptions( prefetchExceptions );
+    }
+
+    @Override
+    public long backgroundFlushes()
+    {
+        return delegate.backgroundFlushes();
+    }
+
+    @Override
+    public void backgroundFlushes( long backgroundFlushes )
+    {
+        delegate.backgroundFlushes( backgroundFlushes );
+    }
+
+    @Override
+    public long dirtyPages()
+    {
+        return delegate.dirtyPages();
+    }
+
+    @Override
+    public void dirtyPages( long dirtyPages )
+    {
+        delegate.dirtyPages( dirtyPages );
+    }
 }
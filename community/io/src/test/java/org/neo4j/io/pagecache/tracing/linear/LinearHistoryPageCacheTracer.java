@@ -20,8 +20,12 @@
 package org.neo4j.io.pagecache.tracing.linear;
 
 import java.io.File;
+import java.util.Collections;
+import java.util.List;
 
 import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.monitoring.PagedFileCounters;
+import org.neo4j.io.pagecache.monitoring.PagedFileCountersListener;
 import org.neo4j.io.pagecache.tracing.EvictionRunEvent;
 import org.neo4j.io.pagecache.tracing.MajorFlushEvent;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
@@ -60,6 +64,16 @@ public final class LinearHistoryPageCacheTracer implements PageCacheTracer
         tracer.add( new UnmappedFileHEvent( file ) );
     }
 
+    @Override
+    public void registerFileCounters( PagedFileCounters counters )
+    {
+    }
+
+    @Override
+    public void unregisterFileCounters( PagedFileCounters counters )
+    {
+    }
+
     @Override
     public EvictionRunEvent beginPageEvictions( int pageCountToEvict )
     {
@@ -78,6 +92,12 @@ public final class LinearHistoryPageCacheTracer implements PageCacheTracer
         return tracer.add( new MajorFlushHEvent( tracer, null ) );
     }
 
+    @Override
+    public MajorFlushEvent beginBackgroundFlush()
+    {
+        return tracer.add( new MajorFlushHEvent( tracer, null ) );
+    }
+
     @Override
     public long faults()
     {
@@ -171,6 +191,61 @@ public final class LinearHistoryPageCacheTracer implements PageCacheTracer
     {
     }
 
+    @Override
+    public long dirtyPages()
+    {
+        return 0;
+    }
+
+    @Override
+    public void dirtyPages( long dirtyPages )
+    {
+    }
+
+    @Override
+    public long backgroundFlushes()
+    {
+        return 0;
+    }
+
+    @Override
+    public void backgroundFlushes( long backgroundFlushes )
+    {
+    }
+
+    @Override
+    public long prefetchExceptions()
+    {
+        return 0;
+    }
+
+    @Override
+    public void prefetchExceptions( long prefetchExceptions )
+    {
+    }
+
+    @Override
+    public long prefetches()
+    {
+        return 0;
+    }
+
+    @Override
+    public void prefetches( long prefetches )
+    {
+    }
+
+    @Override
+    public long refaults()
+    {
+        return 0;
+    }
+
+    @Override
+    public void refaults( long refaults )
+    {
+    }
+
     @Override
     public void faults( long faults )
     {
@@ -205,4 +280,20 @@ public final class LinearHistoryPageCacheTracer implements PageCacheTracer
     public void maxPages( long maxPages )
     {
     }
+
+    @Override
+    public List<PagedFileCounters> fileCounters()
+    {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public void addFileCountersListener( PagedFileCountersListener listener )
+    {
+    }
+
+    @Override
+    public void removeFileCountersListener( PagedFileCountersListener listener )
+    {
+    }
 }
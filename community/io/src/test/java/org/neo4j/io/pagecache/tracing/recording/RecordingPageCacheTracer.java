@@ -21,9 +21,13 @@ package org.neo4j.io.pagecache.tracing.recording;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.monitoring.PagedFileCounters;
+import org.neo4j.io.pagecache.monitoring.PagedFileCountersListener;
 import org.neo4j.io.pagecache.tracing.EvictionEvent;
 import org.neo4j.io.pagecache.tracing.EvictionRunEvent;
 import org.neo4j.io.pagecache.tracing.FlushEventOpportunity;
@@ -47,6 +51,16 @@ public class RecordingPageCacheTracer extends RecordingTracer implements PageCac
         // we currently do not record these
     }
 
+    @Override
+    public void registerFileCounters( PagedFileCounters counters )
+    {
+    }
+
+    @Override
+    public void unregisterFileCounters( PagedFileCounters counters )
+    {
+    }
+
     @Override
     public void unmappedFile( File file )
     {
@@ -83,6 +97,12 @@ public class RecordingPageCacheTracer extends RecordingTracer implements PageCac
         return MajorFlushEvent.NULL;
     }
 
+    @Override
+    public MajorFlushEvent beginBackgroundFlush()
+    {
+        return MajorFlushEvent.NULL;
+    }
+
     @Override
     public long faults()
     {
@@ -177,6 +197,61 @@ public class RecordingPageCacheTracer extends RecordingTracer implements PageCac
     {
     }
 
+    @Override
+    public long dirtyPages()
+    {
+        return 0;
+    }
+
+    @Override
+    public void dirtyPages( long dirtyPages )
+    {
+    }
+
+    @Override
+    public long backgroundFlushes()
+    {
+        return 0;
+    }
+
+    @Override
+    public void backgroundFlushes( long backgroundFlushes )
+    {
+    }
+
+    @Override
+    public long prefetchExceptions()
+    {
+        return 0;
+    }
+
+    @Override
+    public void prefetchExceptions( long prefetchExceptions )
+    {
+    }
+
+    @Override
+    public long prefetches()
+    {
+        return 0;
+    }
+
+    @Override
+    public void prefetches( long prefetches )
+    {
+    }
+
+    @Override
+    public long refaults()
+    {
+        return 0;
+    }
+
+    @Override
+    public void refaults( long refaults )
+    {
+    }
+
     @Override
     public void faults( long faults )
     {
@@ -267,4 +342,20 @@ public class RecordingPageCacheTracer extends RecordingTracer implements PageCac
             evicted( filePageId, swapper );
         }
     }
+
+    @Override
+    public List<PagedFileCounters> fileCounters()
+    {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public void addFileCountersListener( PagedFileCountersListener listener )
+    {
+    }
+
+    @Override
+    public void removeFileCountersListener( PagedFileCountersListener listener )
+    {
+    }
 }
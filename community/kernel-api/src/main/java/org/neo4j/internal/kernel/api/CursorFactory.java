@@ -47,6 +47,8 @@ public interface CursorFactory
 
     NodeLabelIndexCursor allocateNodeLabelIndexCursor();
 
+    RelationshipTypeIndexCursor allocateRelationshipTypeIndexCursor();
+
     // explicit indexes
 
     NodeExplicitIndexCursor allocateNodeExplicitIndexCursor();
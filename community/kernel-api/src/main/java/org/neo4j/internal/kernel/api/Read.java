@@ -268,6 +268,15 @@ public interface Read
 
     Scan<RelationshipScanCursor> relationshipTypeScan( int type );
 
+    /**
+     * Scan for relationships of the specified type using the relationship type index,
+     * i.e. MATCH ()-[r:Type]->()
+     *
+     * @param type the relationship type to scan for.
+     * @param cursor the cursor to use for consuming the results.
+     */
+    void relationshipTypeIndexScan( int type, RelationshipTypeIndexCursor cursor );
+
     /**
      * @param nodeReference
      *         a reference from {@link NodeCursor#nodeReference()}.
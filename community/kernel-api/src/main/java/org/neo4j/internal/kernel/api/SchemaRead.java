@@ -28,6 +28,7 @@ import org.neo4j.internal.kernel.api.exceptions.schema.SchemaKernelException;
 import org.neo4j.internal.kernel.api.schema.SchemaDescriptor;
 import org.neo4j.internal.kernel.api.schema.constraints.ConstraintDescriptor;
 import org.neo4j.register.Register;
+import org.neo4j.storageengine.api.schema.IndexHistogram;
 import org.neo4j.storageengine.api.schema.PopulationProgress;
 import org.neo4j.values.storable.Value;
 
@@ -185,6 +186,15 @@ public interface SchemaRead
      */
     Register.DoubleLongRegister indexSample( IndexReference index, Register.DoubleLongRegister target )
             throws IndexNotFoundKernelException;
+
+    /**
+     * Returns the histogram of the values in an index, which is built when sampling an index by reading all its entries.
+     *
+     * @param index The index of interest
+     * @return the {@link IndexHistogram} of the index, or {@code null} if the index doesn't keep one.
+     * @throws IndexNotFoundKernelException if the index does not exist.
+     */
+    IndexHistogram indexHistogram( IndexReference index ) throws IndexNotFoundKernelException;
     /**
      * Finds all constraints for the given schema
      *
@@ -35,6 +35,7 @@ import org.neo4j.storageengine.api.schema.IndexDescriptor;
 import org.neo4j.storageengine.api.schema.IndexReader;
 import org.neo4j.storageengine.api.schema.LabelScanReader;
 import org.neo4j.storageengine.api.schema.PopulationProgress;
+import org.neo4j.storageengine.api.schema.RelationshipTypeScanReader;
 
 /**
  * Abstraction for accessing data from a {@link StorageEngine}.
@@ -70,6 +71,11 @@ public interface StorageReader extends AutoCloseable
      */
     LabelScanReader getLabelScanReader();
 
+    /**
+     * @return {@link RelationshipTypeScanReader} capable of reading relationships for specific relationship type ids.
+     */
+    RelationshipTypeScanReader getRelationshipTypeScanReader();
+
     /**
      * Returns an {@link IndexReader} for searching entity ids given property values. One reader is allocated
      * and kept per index throughout the life of a statement, making the returned reader repeatable-read isolation.
@@ -0,0 +1,385 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.storageengine.api.schema;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.neo4j.values.storable.NumberValue;
+import org.neo4j.values.storable.TextValue;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.ValueGroup;
+import org.neo4j.values.storable.Values;
+
+/**
+ * Equi-depth histogram of the values in a single property index, used to estimate how many entries
+ * a range or prefix seek will find. Each bucket holds the lowest and highest value in it and how many entries
+ * it has, and buckets hold roughly the same number of entries, except that entries with the same value are
+ * never split between buckets.
+ * <p>
+ * Ranges are only compared against values of the same {@link ValueGroup} as their bounds, like in range seeks.
+ * Within a bucket entries are assumed to be spread evenly between its lowest and highest value.
+ */
+public final class IndexHistogram
+{
+    private static final int CHARACTERS_TO_INTERPOLATE = 4;
+
+    private final Value[] lowerBounds;
+    private final Value[] upperBounds;
+    private final long[] counts;
+    private final long entries;
+
+    public IndexHistogram( Value[] lowerBounds, Value[] upperBounds, long[] counts )
+    {
+        if ( lowerBounds.length != upperBounds.length || lowerBounds.length != counts.length )
+        {
+            throw new IllegalArgumentException( "Expected the same number of lower bounds, upper bounds and counts, but got " +
+                    lowerBounds.length + ", " + upperBounds.length + " and " + counts.length );
+        }
+        this.lowerBounds = lowerBounds;
+        this.upperBounds = upperBounds;
+        this.counts = counts;
+        this.entries = Arrays.stream( counts ).sum();
+    }
+
+    /**
+     * @param histograms histograms of disjoint sets of entries, e.g. of the parts of an index which keep values of different groups.
+     * @return histogram with all the buckets of the given histograms, or {@code null} if there are none.
+     */
+    public static IndexHistogram combine( List<IndexHistogram> histograms )
+    {
+        if ( histograms.isEmpty() )
+        {
+            return null;
+        }
+        if ( histograms.size() == 1 )
+        {
+            return histograms.get( 0 );
+        }
+        int buckets = histograms.stream().mapToInt( IndexHistogram::buckets ).sum();
+        Value[] lowerBounds = new Value[buckets];
+        Value[] upperBounds = new Value[buckets];
+        long[] counts = new long[buckets];
+        int bucket = 0;
+        for ( IndexHistogram histogram : histograms )
+        {
+            System.arraycopy( histogram.lowerBounds, 0, lowerBounds, bucket, histogram.buckets() );
+            System.arraycopy( histogram.upperBounds, 0, upperBounds, bucket, histogram.buckets() );
+            System.arraycopy( histogram.counts, 0, counts, bucket, histogram.buckets() );
+            bucket += histogram.buckets();
+        }
+        return new IndexHistogram( lowerBounds, upperBounds, counts );
+    }
+
+    public int buckets()
+    {
+        return counts.length;
+    }
+
+    public Value lowerBound( int bucket )
+    {
+        return lowerBounds[bucket];
+    }
+
+    public Value upperBound( int bucket )
+    {
+        return upperBounds[bucket];
+    }
+
+    public long count( int bucket )
+    {
+        return counts[bucket];
+    }
+
+    /**
+     * @return number of entries in the index when this histogram was built.
+     */
+    public long entries()
+    {
+        return entries;
+    }
+
+    /**
+     * Estimates the ratio of entries in the index which are within a range, where at least one of the bounds must be given.
+     *
+     * @param from lower bound of the range, or {@code null} for no lower bound.
+     * @param fromInclusive whether or not the range includes {@code from}.
+     * @param to upper bound of the range, or {@code null} for no upper bound.
+     * @param toInclusive whether or not the range includes {@code to}.
+     * @return estimated ratio of entries in the range, between 0 and 1.
+     */
+    public double rangeSelectivity( Value from, boolean fromInclusive, Value to, boolean toInclusive )
+    {
+        if ( from == null && to == null )
+        {
+            throw new IllegalArgumentException( "Range must have at least one bound" );
+        }
+        ValueGroup group = from != null ? from.valueGroup() : to.valueGroup();
+        if ( entries == 0 || (from != null && to != null && from.valueGroup() != to.valueGroup()) )
+        {
+            return 0;
+        }
+
+        double inRange = 0;
+        for ( int i = 0; i < counts.length; i++ )
+        {
+            Value lower = lowerBounds[i];
+            Value upper = upperBounds[i];
+            boolean lowerInGroup = lower.valueGroup() == group;
+            boolean upperInGroup = upper.valueGroup() == group;
+            if ( !lowerInGroup && !upperInGroup )
+            {
+                continue;
+            }
+            // A bucket which spans value groups is assumed to have half of its entries in each of them,
+            // unbounded towards the end outside of the group of the range
+            double count = lowerInGroup && upperInGroup ? counts[i] : counts[i] / 2d;
+            lower = lowerInGroup ? lower : null;
+            upper = upperInGroup ? upper : null;
+
+            double below = to == null ? 1 : ratioBelow( lower, upper, to, toInclusive );
+            double belowFrom = from == null ? 0 : ratioBelow( lower, upper, from, !fromInclusive );
+            inRange += count * Math.max( 0, below - belowFrom );
+        }
+        return Math.min( 1, inRange / entries );
+    }
+
+    /**
+     * Estimates the ratio of entries in the index which are strings starting with the given prefix.
+     *
+     * @param prefix string prefix.
+     * @return estimated ratio of entries starting with the prefix, between 0 and 1.
+     */
+    public double prefixSelectivity( String prefix )
+    {
+        Value to = prefix.isEmpty() ? null : Values.stringValue( prefix + Character.MAX_VALUE );
+        return rangeSelectivity( Values.stringValue( prefix ), true, to, true );
+    }
+
+    /**
+     * @return ratio of the entries in a bucket which are below, or if {@code inclusive} is {@code true} at most, {@code value}.
+     * {@code lower} and {@code upper} are the bounds of the bucket, or {@code null} if it's unbounded in that direction.
+     */
+    private static double ratioBelow( Value lower, Value upper, Value value, boolean inclusive )
+    {
+        if ( lower != null )
+        {
+            int comparison = Values.COMPARATOR.compare( value, lower );
+            if ( comparison < 0 || (comparison == 0 && !inclusive) )
+            {
+                return 0;
+            }
+        }
+        if ( upper != null )
+        {
+            int comparison = Values.COMPARATOR.compare( value, upper );
+            if ( comparison > 0 || (comparison == 0 && inclusive) )
+            {
+                return 1;
+            }
+        }
+        return lower != null && upper != null ? interpolate( lower, upper, value ) : 0.5;
+    }
+
+    /**
+     * @return where {@code value} is between {@code lower} and {@code upper}, as a number between 0 and 1.
+     */
+    private static double interpolate( Value lower, Value upper, Value value )
+    {
+        double lowerPosition;
+        double upperPosition;
+        double position;
+        if ( value instanceof NumberValue )
+        {
+            lowerPosition = ((NumberValue) lower).doubleValue();
+            upperPosition = ((NumberValue) upper).doubleValue();
+            position = ((NumberValue) value).doubleValue();
+        }
+        else if ( value instanceof TextValue )
+        {
+            // Strings in between the bounds share the common prefix of the bounds, so compare the characters after that
+            String lowerString = ((TextValue) lower).stringValue();
+            String upperString = ((TextValue) upper).stringValue();
+            int commonPrefix = 0;
+            while ( commonPrefix < lowerString.length() && commonPrefix < upperString.length() &&
+                    lowerString.charAt( commonPrefix ) == upperString.charAt( commonPrefix ) )
+            {
+                commonPrefix++;
+            }
+            // and treat them as digits of a number in a base as small as the characters in the bounds allow
+            char min = Character.MAX_VALUE;
+            char max = Character.MIN_VALUE;
+            for ( String bound : new String[]{lowerString, upperString} )
+            {
+                for ( int i = commonPrefix; i < Math.min( bound.length(), commonPrefix + CHARACTERS_TO_INTERPOLATE ); i++ )
+                {
+                    min = (char) Math.min( min, bound.charAt( i ) );
+                    max = (char) Math.max( max, bound.charAt( i ) );
+                }
+            }
+            if ( min > max )
+            {
+                return 0.5;
+            }
+            char classMin = characterClassMin( min, max );
+            char classMax = characterClassMax( min, max );
+            min = classMin;
+            max = classMax;
+            lowerPosition = position( lowerString, commonPrefix, min, max );
+            upperPosition = position( upperString, commonPrefix, min, max );
+            position = position( ((TextValue) value).stringValue(), commonPrefix, min, max );
+        }
+        else
+        {
+            return 0.5;
+        }
+        double ratio = (position - lowerPosition) / (upperPosition - lowerPosition);
+        return Double.isNaN( ratio ) ? 0.5 : Math.max( 0, Math.min( 1, ratio ) );
+    }
+
+    private static double position( String string, int from, char min, char max )
+    {
+        double base = max - min + 1;
+        double position = 0;
+        double scale = 1;
+        for ( int i = from; i < Math.min( string.length(), from + CHARACTERS_TO_INTERPOLATE ); i++ )
+        {
+            scale /= base;
+            position += (Math.max( min, Math.min( max, string.charAt( i ) ) ) - min) * scale;
+        }
+        return position;
+    }
+
+    /**
+     * @return the lowest character of the lower case letters, upper case letters or digits if all characters between min and max
+     * are in one of those classes, to not make bounds which happen to contain few different characters look further apart than they are.
+     */
+    private static char characterClassMin( char min, char max )
+    {
+        return min >= 'a' && max <= 'z' ? 'a' : min >= 'A' && max <= 'Z' ? 'A' : min >= '0' && max <= '9' ? '0' : min;
+    }
+
+    private static char characterClassMax( char min, char max )
+    {
+        return min >= 'a' && max <= 'z' ? 'z' : min >= 'A' && max <= 'Z' ? 'Z' : min >= '0' && max <= '9' ? '9' : max;
+    }
+
+    @Override
+    public boolean equals( Object o )
+    {
+        if ( this == o )
+        {
+            return true;
+        }
+        if ( o == null || getClass() != o.getClass() )
+        {
+            return false;
+        }
+        IndexHistogram that = (IndexHistogram) o;
+        return Arrays.equals( lowerBounds, that.lowerBounds ) && Arrays.equals( upperBounds, that.upperBounds ) &&
+               Arrays.equals( counts, that.counts );
+    }
+
+    @Override
+    public int hashCode()
+    {
+        int result = Arrays.hashCode( lowerBounds );
+        result = 31 * result + Arrays.hashCode( upperBounds );
+        result = 31 * result + Arrays.hashCode( counts );
+        return result;
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder builder = new StringBuilder( "IndexHistogram{" );
+        for ( int i = 0; i < counts.length; i++ )
+        {
+            builder.append( i == 0 ? "" : ", " ).append( '[' ).append( lowerBounds[i] ).append( ',' ).append( upperBounds[i] )
+                    .append( "]=" ).append( counts[i] );
+        }
+        return builder.append( '}' ).toString();
+    }
+
+    /**
+     * Builds an {@link IndexHistogram} from all values in an index, which must be {@link #add(Value, long) added} in index order.
+     * The number of entries isn't known up front, so buckets start out as small as possible and pairs of neighbouring buckets
+     * are merged whenever twice the wanted number of buckets have been filled.
+     */
+    public static class Builder
+    {
+        private final Value[] lowerBounds;
+        private final Value[] upperBounds;
+        private final long[] counts;
+        private int size;
+        private long depth = 1;
+
+        /**
+         * @param buckets minimum number of buckets in the histogram, given enough distinct values. It will have at most twice as many.
+         */
+        public Builder( int buckets )
+        {
+            this.lowerBounds = new Value[buckets * 2];
+            this.upperBounds = new Value[buckets * 2];
+            this.counts = new long[buckets * 2];
+        }
+
+        /**
+         * @param value value which is greater than any value added before it.
+         * @param count number of entries with this value.
+         */
+        public void add( Value value, long count )
+        {
+            if ( size > 0 && counts[size - 1] < depth )
+            {
+                upperBounds[size - 1] = value;
+                counts[size - 1] += count;
+                return;
+            }
+            if ( size == counts.length )
+            {
+                mergeBuckets();
+            }
+            lowerBounds[size] = value;
+            upperBounds[size] = value;
+            counts[size] = count;
+            size++;
+        }
+
+        private void mergeBuckets()
+        {
+            for ( int i = 0; i < size / 2; i++ )
+            {
+                lowerBounds[i] = lowerBounds[i * 2];
+                upperBounds[i] = upperBounds[i * 2 + 1];
+                counts[i] = counts[i * 2] + counts[i * 2 + 1];
+            }
+            Arrays.fill( lowerBounds, size / 2, size, null );
+            Arrays.fill( upperBounds, size / 2, size, null );
+            size /= 2;
+            depth *= 2;
+        }
+
+        public IndexHistogram build()
+        {
+            return new IndexHistogram( Arrays.copyOf( lowerBounds, size ), Arrays.copyOf( upperBounds, size ), Arrays.copyOf( counts, size ) );
+        }
+    }
+}
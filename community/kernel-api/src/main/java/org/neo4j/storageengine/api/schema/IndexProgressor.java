@@ -118,6 +118,26 @@ public interface IndexProgressor extends AutoCloseable
         boolean acceptNode( long reference, LabelSet labels );
     }
 
+    /**
+     * Client which accepts relationships of a relationship type.
+     */
+    interface RelationshipTypeClient
+    {
+        /**
+         * Setup the client for progressing using the supplied progressor. Called by index implementation.
+         * @param progressor the progressor
+         * @param type the relationship type to scan for
+         */
+        void scan( IndexProgressor progressor, int type );
+
+        /**
+         * Accept the relationship id of a candidate index entry. Return true if the entry is accepted, false otherwise.
+         * @param reference the relationship id of the candidate index entry
+         * @return true if the entry is accepted, false otherwise
+         */
+        boolean acceptRelationship( long reference );
+    }
+
     /**
      * Client which accepts graph entities (nodes and relationships) and a fuzzy score.
      */
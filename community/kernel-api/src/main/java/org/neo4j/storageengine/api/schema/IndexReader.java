@@ -19,6 +19,8 @@
  */
 package org.neo4j.storageengine.api.schema;
 
+import java.util.List;
+
 import org.neo4j.collection.PrimitiveLongResourceCollections;
 import org.neo4j.collection.PrimitiveLongResourceIterator;
 import org.neo4j.graphdb.Resource;
@@ -27,6 +29,8 @@ import org.neo4j.internal.kernel.api.IndexQuery;
 import org.neo4j.internal.kernel.api.exceptions.schema.IndexNotApplicableKernelException;
 import org.neo4j.values.storable.Value;
 
+import static java.util.Collections.singletonList;
+
 /**
  * Reader for an index. Must honor repeatable reads, which means that if a lookup is executed multiple times the
  * same result set must be returned.
@@ -41,8 +45,30 @@ public interface IndexReader extends Resource
      */
     long countIndexedNodes( long nodeId, int[] propertyKeyIds, Value... propertyValues );
 
+    /**
+     * @return sampler for regular sampling of this index, which may sample from statistics the index keeps up to date
+     * incrementally instead of reading all its entries.
+     */
     IndexSampler createSampler();
 
+    /**
+     * @return sampler which reads all entries of this index, which is what {@link #createSampler()} does for indexes
+     * that don't keep any statistics of their own.
+     */
+    default IndexSampler createFullScanSampler()
+    {
+        return createSampler();
+    }
+
+    /**
+     * @return {@link IndexHistogram} of the values in this index as of when it was last sampled by reading all its entries,
+     * or {@code null} if this index doesn't keep one.
+     */
+    default IndexHistogram histogram()
+    {
+        return null;
+    }
+
     /**
      * Queries the index for the given {@link IndexQuery} predicates.
      *
@@ -60,6 +86,23 @@ public interface IndexReader extends Resource
     void query( IndexProgressor.NodeValueClient client, IndexOrder indexOrder, boolean needsValues, IndexQuery... query )
             throws IndexNotApplicableKernelException;
 
+    /**
+     * Splits the entries matching the given predicates into about {@code desiredNumberOfPartitions} partitions, which together
+     * cover all matching entries exactly once. Each {@link Partition} can be initialized and progressed by a different thread.
+     * Results are in no particular order. Indexes that can't split their entries get a single partition running a regular
+     * {@link #query(IndexProgressor.NodeValueClient, IndexOrder, boolean, IndexQuery...) query}.
+     *
+     * @param desiredNumberOfPartitions number of partitions to aim for.
+     * @param needsValues whether or not the clients need values.
+     * @param predicates the predicates to query for.
+     * @return partitions which together cover the matching entries.
+     */
+    default List<Partition> partitionedQuery( int desiredNumberOfPartitions, boolean needsValues, IndexQuery... predicates )
+            throws IndexNotApplicableKernelException
+    {
+        return singletonList( client -> query( client, IndexOrder.NONE, needsValues, predicates ) );
+    }
+
     /**
      * @param predicates query to determine whether or not index has full value precision for.
      * @return whether or not this reader will only return 100% matching results from {@link #query(IndexQuery...)}.
@@ -106,4 +149,18 @@ public interface IndexReader extends Resource
             return true;
         }
     };
+
+    /**
+     * One part of a {@link #partitionedQuery(int, boolean, IndexQuery...) partitioned query}.
+     */
+    @FunctionalInterface
+    interface Partition
+    {
+        /**
+         * Initializes {@code client} with a progressor over the entries in this partition.
+         *
+         * @param client client to receive the entries of this partition.
+         */
+        void initialize( IndexProgressor.NodeValueClient client ) throws IndexNotApplicableKernelException;
+    }
 }
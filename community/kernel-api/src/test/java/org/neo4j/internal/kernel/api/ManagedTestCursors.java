@@ -104,6 +104,14 @@ public class ManagedTestCursors implements CursorFactory
         return n;
     }
 
+    @Override
+    public RelationshipTypeIndexCursor allocateRelationshipTypeIndexCursor()
+    {
+        RelationshipTypeIndexCursor n = cursors.allocateRelationshipTypeIndexCursor();
+        allCursors.add( n );
+        return n;
+    }
+
     @Override
     public NodeExplicitIndexCursor allocateNodeExplicitIndexCursor()
     {
@@ -33,6 +33,7 @@ import org.neo4j.internal.kernel.api.RelationshipExplicitIndexCursor;
 import org.neo4j.internal.kernel.api.RelationshipGroupCursor;
 import org.neo4j.internal.kernel.api.RelationshipScanCursor;
 import org.neo4j.internal.kernel.api.RelationshipTraversalCursor;
+import org.neo4j.internal.kernel.api.RelationshipTypeIndexCursor;
 
 public class StubCursorFactory implements CursorFactory
 {
@@ -44,6 +45,7 @@ public class StubCursorFactory implements CursorFactory
     private Queue<RelationshipGroupCursor> groupCursors = new LinkedList<>(  );
     private Queue<NodeValueIndexCursor> nodeValueIndexCursors = new LinkedList<>(  );
     private Queue<NodeLabelIndexCursor> nodeLabelIndexCursors = new LinkedList<>(  );
+    private Queue<RelationshipTypeIndexCursor> relationshipTypeIndexCursors = new LinkedList<>(  );
     private Queue<NodeExplicitIndexCursor> nodeExplicitIndexCursors = new LinkedList<>(  );
     private Queue<RelationshipExplicitIndexCursor> relationshipExplicitIndexCursors = new LinkedList<>(  );
 
@@ -99,6 +101,12 @@ public class StubCursorFactory implements CursorFactory
         return poll( nodeLabelIndexCursors );
     }
 
+    @Override
+    public RelationshipTypeIndexCursor allocateRelationshipTypeIndexCursor()
+    {
+        return poll( relationshipTypeIndexCursors );
+    }
+
     @Override
     public NodeExplicitIndexCursor allocateNodeExplicitIndexCursor()
     {
@@ -30,6 +30,7 @@ import org.neo4j.internal.kernel.api.Read;
 import org.neo4j.internal.kernel.api.RelationshipGroupCursor;
 import org.neo4j.internal.kernel.api.RelationshipScanCursor;
 import org.neo4j.internal.kernel.api.RelationshipTraversalCursor;
+import org.neo4j.internal.kernel.api.RelationshipTypeIndexCursor;
 import org.neo4j.internal.kernel.api.Scan;
 import org.neo4j.internal.kernel.api.exceptions.KernelException;
 import org.neo4j.values.storable.Value;
@@ -181,6 +182,12 @@ public class StubRead implements Read
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public void relationshipTypeIndexScan( int type, RelationshipTypeIndexCursor cursor )
+    {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public void nodeProperties( long nodeReference, long reference, PropertyCursor cursor )
     {
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.storageengine.api.schema;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.neo4j.values.storable.Values.intValue;
+import static org.neo4j.values.storable.Values.stringValue;
+
+public class IndexHistogramTest
+{
+    @Test
+    public void shouldBuildBucketsOfEqualDepth()
+    {
+        // given
+        IndexHistogram.Builder builder = new IndexHistogram.Builder( 10 );
+
+        // when
+        for ( int i = 0; i < 10_000; i++ )
+        {
+            builder.add( intValue( i ), 1 );
+        }
+        IndexHistogram histogram = builder.build();
+
+        // then
+        assertTrue( histogram.buckets() >= 10 && histogram.buckets() <= 20 );
+        assertEquals( 10_000, histogram.entries() );
+        for ( int i = 0; i < histogram.buckets() - 1; i++ )
+        {
+            assertEquals( histogram.count( 0 ), histogram.count( i ) );
+        }
+        assertEquals( intValue( 0 ), histogram.lowerBound( 0 ) );
+        assertEquals( intValue( 9_999 ), histogram.upperBound( histogram.buckets() - 1 ) );
+    }
+
+    @Test
+    public void shouldEstimateNumberRanges()
+    {
+        // given
+        IndexHistogram histogram = uniformNumbers();
+
+        // then
+        assertEquals( 0.1, histogram.rangeSelectivity( intValue( 1_000 ), true, intValue( 2_000 ), false ), 0.01 );
+        assertEquals( 0.75, histogram.rangeSelectivity( intValue( 2_500 ), false, null, false ), 0.01 );
+        assertEquals( 0.25, histogram.rangeSelectivity( null, false, intValue( 2_500 ), true ), 0.01 );
+        assertEquals( 1, histogram.rangeSelectivity( intValue( -1 ), false, intValue( 10_000 ), false ), 0.0 );
+        assertEquals( 0, histogram.rangeSelectivity( intValue( 10_000 ), true, null, false ), 0.0 );
+        assertEquals( 0, histogram.rangeSelectivity( intValue( 2_000 ), true, intValue( 1_000 ), true ), 0.0 );
+    }
+
+    @Test
+    public void shouldNotCountValuesOfOtherGroupsInRange()
+    {
+        // given
+        IndexHistogram histogram = uniformNumbers();
+
+        // then
+        assertEquals( 0, histogram.rangeSelectivity( stringValue( "a" ), true, null, false ), 0.0 );
+        assertEquals( 0, histogram.rangeSelectivity( intValue( 1 ), true, stringValue( "a" ), true ), 0.0 );
+        assertEquals( 0, histogram.prefixSelectivity( "1" ), 0.0 );
+    }
+
+    @Test
+    public void shouldEstimateStringPrefixes()
+    {
+        // given
+        IndexHistogram.Builder builder = new IndexHistogram.Builder( 16 );
+        for ( char first = 'a'; first <= 'z'; first++ )
+        {
+            for ( char second = 'a'; second <= 'z'; second++ )
+            {
+                builder.add( stringValue( "" + first + second ), 10 );
+            }
+        }
+        IndexHistogram histogram = builder.build();
+
+        // then
+        assertEquals( 1 / 26d, histogram.prefixSelectivity( "k" ), 0.01 );
+        assertEquals( 1 / (26d * 26), histogram.prefixSelectivity( "kk" ), 0.01 );
+        assertEquals( 1, histogram.prefixSelectivity( "" ), 0.0 );
+        assertEquals( 0, histogram.prefixSelectivity( "0" ), 0.0 );
+    }
+
+    @Test
+    public void shouldKeepEntriesOfSameValueInOneBucket()
+    {
+        // given
+        IndexHistogram.Builder builder = new IndexHistogram.Builder( 4 );
+        builder.add( intValue( 1 ), 1 );
+        builder.add( intValue( 2 ), 1_000 );
+        builder.add( intValue( 3 ), 1 );
+
+        // when
+        IndexHistogram histogram = builder.build();
+
+        // then
+        assertEquals( 3, histogram.buckets() );
+        assertEquals( 1_000 / 1_002d, histogram.rangeSelectivity( intValue( 2 ), true, intValue( 2 ), true ), 0.0 );
+        assertEquals( 0, histogram.rangeSelectivity( intValue( 2 ), false, intValue( 3 ), false ), 0.0 );
+    }
+
+    @Test
+    public void shouldCombineHistogramsOfDifferentValueGroups()
+    {
+        // given
+        IndexHistogram.Builder strings = new IndexHistogram.Builder( 32 );
+        for ( int i = 0; i < 10_000; i++ )
+        {
+            strings.add( stringValue( String.format( "%05d", i ) ), 1 );
+        }
+        IndexHistogram numbers = uniformNumbers();
+
+        // when
+        IndexHistogram histogram = IndexHistogram.combine( Arrays.asList( numbers, strings.build() ) );
+
+        // then
+        assertEquals( 20_000, histogram.entries() );
+        assertEquals( 0.05, histogram.rangeSelectivity( intValue( 1_000 ), true, intValue( 2_000 ), false ), 0.01 );
+        assertEquals( 0.05, histogram.prefixSelectivity( "01" ), 0.01 );
+    }
+
+    private static IndexHistogram uniformNumbers()
+    {
+        IndexHistogram.Builder builder = new IndexHistogram.Builder( 32 );
+        for ( int i = 0; i < 10_000; i++ )
+        {
+            builder.add( intValue( i ), 1 );
+        }
+        return builder.build();
+    }
+}
@@ -36,6 +36,7 @@ import org.neo4j.graphdb.config.Setting;
 import org.neo4j.helpers.AdvertisedSocketAddress;
 import org.neo4j.helpers.ListenSocketAddress;
 import org.neo4j.io.ByteUnit;
+import org.neo4j.io.pagecache.impl.muninn.EvictionPolicy;
 import org.neo4j.kernel.configuration.BoltConnectorValidator;
 import org.neo4j.kernel.configuration.Config;
 import org.neo4j.kernel.configuration.ConfigurationMigrator;
@@ -55,6 +56,7 @@ import static org.neo4j.graphdb.factory.GraphDatabaseSettings.SchemaIndex.LUCENE
 import static org.neo4j.graphdb.factory.GraphDatabaseSettings.SchemaIndex.NATIVE10;
 import static org.neo4j.graphdb.factory.GraphDatabaseSettings.SchemaIndex.NATIVE20;
 import static org.neo4j.graphdb.factory.GraphDatabaseSettings.SchemaIndex.NATIVE_BTREE10;
+import static org.neo4j.graphdb.factory.GraphDatabaseSettings.SchemaIndex.NATIVE_TRIGRAM20;
 import static org.neo4j.kernel.configuration.Settings.BOOLEAN;
 import static org.neo4j.kernel.configuration.Settings.BYTES;
 import static org.neo4j.kernel.configuration.Settings.DEFAULT;
@@ -586,6 +588,7 @@ public class GraphDatabaseSettings implements LoadableConfig
     public enum SchemaIndex
     {
         NATIVE_BTREE10( 0, "native-btree", "1.0" ), // TODO: Zero because should not be default yet.
+        NATIVE_TRIGRAM20( 0, "lucene+native+trigram", "2.0" ),
         NATIVE20( 3, "lucene+native", "2.0" ),
         NATIVE10( 2, "lucene+native", "1.0" ),
         LUCENE10( 1, "lucene", "1.0" );
@@ -629,6 +632,8 @@ public class GraphDatabaseSettings implements LoadableConfig
             "lucene-1.0: Spatial and temporal value types are stored in native indexes, remaining value types in Lucene index. " +
             "lucene+native-1.0: Spatial, temporal and number value types are stored in native indexes and remaining value types in Lucene index. " +
             "lucene+native-2.0: Spatial, temporal, number and string value types are stored in native indexes and remaining value types in Lucene index. " +
+            "lucene+native+trigram-2.0: Like lucene+native-2.0, but strings are additionally indexed by their trigrams, " +
+            "which speeds up CONTAINS and ENDS WITH string index queries at the cost of a larger index and slower updates. " +
             "native-btree-1.0: All value types and arrays of all value types, even composite keys, are stored in one native index. " +
             "A native index has faster updates, less heap and CPU usage compared to a Lucene index. " +
             "A native index has these limitations: " +
@@ -637,7 +642,7 @@ public class GraphDatabaseSettings implements LoadableConfig
     public static final Setting<String> default_schema_provider =
             setting( "dbms.index.default_schema_provider",
                     optionsIgnoreCase( NATIVE20.providerIdentifier(), NATIVE10.providerIdentifier(), LUCENE10.providerIdentifier(),
-                            NATIVE_BTREE10.providerIdentifier() ),
+                            NATIVE_BTREE10.providerIdentifier(), NATIVE_TRIGRAM20.providerIdentifier() ),
                     null );
 
     @Description( "Location where Neo4j keeps the logical transaction logs." )
@@ -707,10 +712,37 @@ public class GraphDatabaseSettings implements LoadableConfig
             buildSetting( "dbms.memory.pagecache.size", STRING, null ).build();
 
     @Description( "Specify which page swapper to use for doing paged IO. " +
-                  "This is only used when integrating with proprietary storage technology." )
+                  "The `direct` page swapper opens store files with direct IO, bypassing the operating system " +
+                  "page cache, on platforms and file systems that support it. " +
+                  "Otherwise this is only used when integrating with proprietary storage technology." )
     public static final Setting<String> pagecache_swapper =
             setting( "dbms.memory.pagecache.swapper", STRING, null );
 
+    @Internal
+    @Description( "The policy the page cache uses for deciding which pages to evict, when it needs to make room for " +
+                  "new pages. The `CLOCK` policy evicts pages that have not been used recently. The `SCAN_RESISTANT` " +
+                  "policy protects pages that are used repeatedly from being pushed out by large scans over the " +
+                  "store files or indexes, at the cost of a small amount of heap memory for tracking evicted pages." )
+    public static final Setting<EvictionPolicy> pagecache_eviction_policy =
+            setting( "unsupported.dbms.memory.pagecache.eviction_policy", options( EvictionPolicy.class, true ),
+                    EvictionPolicy.CLOCK.name() );
+
+    @Internal
+    @Description( "The number of pages the page cache reads ahead of a scan, when a page cursor is found to be " +
+                  "accessing a store file or index sequentially. The pages are read in the background with a single " +
+                  "vectored read, so scans are not stalled on every page fault. Read-ahead is disabled when set to 0, which is the default." )
+    public static final Setting<Integer> pagecache_read_ahead =
+            buildSetting( "unsupported.dbms.memory.pagecache.read_ahead", INTEGER, "0" ).constraint( min( 0 ) ).build();
+
+    @Internal
+    @Description( "The share of the page cache that may be occupied by dirty pages, before a background flusher starts " +
+                  "writing them out to the store files. This spreads the IO of checkpoints out over time, so the " +
+                  "checkpoints mostly only need to force the files. The writes of the background flusher are limited " +
+                  "by `dbms.checkpoint.iops.limit`. The background flusher is disabled when set to 1.0, which is the default." )
+    public static final Setting<Double> pagecache_dirty_ratio =
+            buildSetting( "unsupported.dbms.memory.pagecache.dirty_ratio", DOUBLE, "1.0" )
+                    .constraint( range( 0.0, 1.0 ) ).build();
+
     @Internal
     @Description( "The profiling frequency for the page cache. Accurate profiles allow the page cache to do active " +
                   "warmup after a restart, reducing the mean time to performance. " +
@@ -772,6 +804,53 @@ public class GraphDatabaseSettings implements LoadableConfig
     public static final Setting<Integer> record_id_batch_size = buildSetting( "unsupported.dbms.record_id_batch_size", INTEGER,
             "20" ).constraint( range( 1, 1_000 ) ).build();
 
+    @Description( "Write the node, relationship, property and relationship group records of each applied transaction to their stores " +
+            "concurrently, one store per thread, rather than one record at a time in command order. Speeds up applying transactions with " +
+            "many changes, as during recovery and on instances pulling transactions from others." )
+    @Internal
+    public static final Setting<Boolean> parallel_transaction_apply = setting( "unsupported.dbms.tx_apply.parallel", BOOLEAN, FALSE );
+
+    @Description( "Maintain a relationship type scan store, mapping each relationship type to the relationships of that type, " +
+            "and let Cypher find relationships by type through it instead of expanding from all nodes. The store is rebuilt " +
+            "from the whole relationship store when it's missing, e.g. the first time an existing database is started with it enabled, " +
+            "and every created or deleted relationship also updates it. The store is deleted when started with this disabled." )
+    @Internal
+    public static final Setting<Boolean> relationship_type_scan_store = setting( "unsupported.dbms.relationship_type_scan_store", BOOLEAN, FALSE );
+
+    @Description( "Let each committing transaction apply its own updates to the schema indexes, at the same time as other committing " +
+            "transactions, rather than having one of them apply the updates of all concurrently committing transactions at a time. " +
+            "Native indexes are then updated through the parallel writers of their trees, which only wait for each other when changing " +
+            "the same tree node or the structure of the tree." )
+    @Internal
+    public static final Setting<Boolean> parallel_index_updates = setting( "unsupported.dbms.index.parallel_updates", BOOLEAN, FALSE );
+
+    @Description( "Append committed transactions to the transaction log by flat combining, where one committing thread appends " +
+            "the transactions of all concurrently committing threads under a single acquisition of the log and forces it once for all of them. " +
+            "Reduces contention on the transaction log when many small transactions are committed concurrently." )
+    @Internal
+    public static final Setting<Boolean> combining_log_appender = setting( "unsupported.dbms.tx_log.combining_appender", BOOLEAN, FALSE );
+
+    @Description( "Compress the commands of committed transactions which compress well when writing them to the transaction log. " +
+            "Makes transaction logs smaller at the cost of some CPU when committing and reading transactions. Logs written " +
+            "with compression enabled can't be read by versions of Neo4j which don't support compressed log entries." )
+    @Internal
+    public static final Setting<Boolean> tx_log_compression = setting( "unsupported.dbms.tx_log.compression", BOOLEAN, FALSE );
+
+    @Description( "Create new transaction log files zero filled up to the log rotation size, so that appending transactions " +
+            "overwrites already allocated blocks rather than growing the file, which keeps the time it takes to force " +
+            "the log when committing low and stable. The next log file is zero filled in the background, ahead of rotation. " +
+            "The part of a log file which hasn't been written yet reads as zeros, " +
+            "which marks the end of the log. Logs written with preallocation enabled can't be read by versions of Neo4j " +
+            "which don't support preallocated log files." )
+    @Internal
+    public static final Setting<Boolean> tx_log_preallocation = setting( "unsupported.dbms.tx_log.preallocate", BOOLEAN, FALSE );
+
+    @Description( "Keep one pruned transaction log file around, zero filled, and use it as the next log file instead of " +
+            "preallocating a new one. Only has an effect when transaction log files are preallocated. Pruned log files are " +
+            "overwritten rather than deleted, so nothing else may read pruned log files when this is enabled." )
+    @Internal
+    public static final Setting<Boolean> tx_log_reuse_pruned_files = setting( "unsupported.dbms.tx_log.reuse_pruned_files", BOOLEAN, FALSE );
+
     @Description( "An identifier that uniquely identifies this graph database instance within this JVM. " +
             "Defaults to an auto-generated number depending on how many instance are started in this JVM." )
     @Internal
@@ -1040,6 +1119,16 @@ public class GraphDatabaseSettings implements LoadableConfig
             .constraint( min( 0L ) )
             .build();
 
+    @Internal
+    @Description( "[Experimental] The maximum amount of off-heap memory that a single transaction can use to store its transaction state, " +
+            "beyond which the rest of its state is spilled to a memory mapped temporary file in the directory given by the java.io.tmpdir " +
+            "system property. Zero means transaction state is never spilled. " +
+            "Used when unsupported.dbms.tx_state.memory_allocation is set to 'OFF_HEAP'." )
+    public static final Setting<Long> tx_state_spill_threshold = buildSetting(
+            "unsupported.dbms.tx_state.spill_threshold", BYTES, "0" )
+            .constraint( min( 0L ) )
+            .build();
+
     // Needed to validate config, accessed via reflection
     @SuppressWarnings( "unused" )
     public static final HttpConnectorValidator httpValidator = new HttpConnectorValidator();
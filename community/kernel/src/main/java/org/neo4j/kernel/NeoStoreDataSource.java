@@ -98,6 +98,7 @@ import org.neo4j.kernel.impl.storemigration.participant.StoreMigrator;
 import org.neo4j.kernel.impl.transaction.TransactionHeaderInformationFactory;
 import org.neo4j.kernel.impl.transaction.TransactionMonitor;
 import org.neo4j.kernel.impl.transaction.log.BatchingTransactionAppender;
+import org.neo4j.kernel.impl.transaction.log.CombiningTransactionAppender;
 import org.neo4j.kernel.impl.transaction.log.LogVersionRepository;
 import org.neo4j.kernel.impl.transaction.log.LogVersionUpgradeChecker;
 import org.neo4j.kernel.impl.transaction.log.LoggingLogFileMonitor;
@@ -323,6 +324,8 @@ public class NeoStoreDataSource extends LifecycleAdapter
                 .withLogEntryReader( logEntryReader )
                 .withLogFileMonitor( physicalLogMonitor )
                 .withConfig( config )
+                .withJobScheduler( scheduler )
+                .withLogProvider( logService.getInternalLogProvider() )
                 .withDependencies( dataSourceDependencies ).build();
 
         LogTailScanner tailScanner = new LogTailScanner( logFiles, logEntryReader, monitors, failOnCorruptedLogFiles );
@@ -528,9 +531,12 @@ public class NeoStoreDataSource extends LifecycleAdapter
         final LogRotation logRotation =
                 new LogRotationImpl( monitors.newMonitor( LogRotation.Monitor.class ), logFiles, databaseHealth );
 
-        final TransactionAppender appender = life.add( new BatchingTransactionAppender(
-                logFiles, logRotation, transactionMetadataCache, transactionIdStore, explicitIndexTransactionOrdering,
-                databaseHealth ) );
+        boolean compressCommands = config.get( GraphDatabaseSettings.tx_log_compression );
+        final TransactionAppender appender = life.add( config.get( GraphDatabaseSettings.combining_log_appender )
+                ? new CombiningTransactionAppender( logFiles, logRotation, transactionMetadataCache, transactionIdStore,
+                        explicitIndexTransactionOrdering, databaseHealth, compressCommands )
+                : new BatchingTransactionAppender( logFiles, logRotation, transactionMetadataCache, transactionIdStore,
+                        explicitIndexTransactionOrdering, databaseHealth, compressCommands ) );
         final LogicalTransactionStore logicalTransactionStore =
                 new PhysicalLogicalTransactionStore( logFiles, transactionMetadataCache, logEntryReader, monitors,
                         failOnCorruptedLogFiles );
@@ -63,6 +63,21 @@ public interface IndexPopulator
      */
     void add( Collection<? extends IndexEntryUpdate<?>> updates ) throws IndexEntryConflictException;
 
+    /**
+     * Called when the scan over existing data is completed, i.e. after the last call to {@link #add(Collection)}.
+     * Implementations that buffer scan updates, for example to build the index bottom-up from sorted data, should complete
+     * the index in this call. Updates from {@link #newPopulatingUpdater(NodePropertyAccessor) populating updaters} may still
+     * come in, both during and after this call, since it's made before the index is flipped to online and so doesn't
+     * block updates to it. Called before {@link #verifyDeferredConstraints(NodePropertyAccessor)}.
+     *
+     * @throws IndexEntryConflictException if this is a uniqueness index and the buffered updates are detected
+     * to violate that constraint.
+     * @throws UncheckedIOException on I/O error.
+     */
+    default void scanCompleted() throws IndexEntryConflictException
+    {   // no-op
+    }
+
     /**
      * Verifies that each value in this index is unique.
      * This method is called after the index has been fully populated and is guaranteed to not have
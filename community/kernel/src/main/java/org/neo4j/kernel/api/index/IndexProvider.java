@@ -130,6 +130,11 @@ public abstract class IndexProvider extends LifecycleAdapter implements Comparab
             public void recoveryCleanupFailed( File indexFile, IndexDescriptor indexDescriptor, Throwable throwable )
             {   // no-op
             }
+
+            @Override
+            public void bloomFilterLookups( File indexFile, IndexDescriptor indexDescriptor, long negatives, long falsePositives, long truePositives )
+            {   // no-op
+            }
         }
 
         void failedToOpenIndex( StoreIndexDescriptor schemaIndexDescriptor, String action, Exception cause );
@@ -144,6 +149,15 @@ public abstract class IndexProvider extends LifecycleAdapter implements Comparab
         void recoveryCleanupClosed( File indexFile, IndexDescriptor indexDescriptor );
 
         void recoveryCleanupFailed( File indexFile, IndexDescriptor indexDescriptor, Throwable throwable );
+
+        /**
+         * Lookups answered by the Bloom filter of a unique index since the previous call, for the index in {@code indexFile}.
+         *
+         * @param negatives number of lookups where the filter ruled out that the looked up values were in the index.
+         * @param falsePositives number of lookups where the filter couldn't rule out values which weren't in the index.
+         * @param truePositives number of lookups where the filter couldn't rule out values which were in the index.
+         */
+        void bloomFilterLookups( File indexFile, IndexDescriptor indexDescriptor, long negatives, long falsePositives, long truePositives );
     }
 
     public static final IndexProvider EMPTY =
@@ -82,6 +82,11 @@ public class LoggingMonitor implements IndexProvider.Monitor
                 indexDescription( indexFile, indexDescriptor ), ExceptionUtils.getStackTrace( throwable ) ) );
     }
 
+    @Override
+    public void bloomFilterLookups( File indexFile, IndexDescriptor indexDescriptor, long negatives, long falsePositives, long truePositives )
+    {   // too frequent to log, see metrics
+    }
+
     private String indexDescription( File indexFile, IndexDescriptor indexDescriptor )
     {
         return "descriptor=" + indexDescriptor.toString() + ", indexFile=" + indexFile.getAbsolutePath();
@@ -130,10 +130,19 @@ public class NodeLabelRange
     }
 
     public static void readBitmap( long bitmap, long labelId, MutableLongList[] labelsPerNode )
+    {
+        readBitmap( bitmap, labelId, labelsPerNode, 0 );
+    }
+
+    /**
+     * Adds {@code labelId} to the labels of each node set in {@code bitmap}, where the lowest bit is the node
+     * {@code firstRelativeNodeId} into the range.
+     */
+    public static void readBitmap( long bitmap, long labelId, MutableLongList[] labelsPerNode, int firstRelativeNodeId )
     {
         while ( bitmap != 0 )
         {
-            int relativeNodeId = Long.numberOfTrailingZeros( bitmap );
+            int relativeNodeId = firstRelativeNodeId + Long.numberOfTrailingZeros( bitmap );
             if ( labelsPerNode[relativeNodeId] == null )
             {
                 labelsPerNode[relativeNodeId] = new LongArrayList();
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.api.labelscan;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.neo4j.graphdb.ResourceIterator;
+import org.neo4j.io.pagecache.IOLimiter;
+import org.neo4j.kernel.impl.store.UnderlyingStorageException;
+import org.neo4j.kernel.lifecycle.Lifecycle;
+import org.neo4j.storageengine.api.schema.RelationshipTypeScanReader;
+
+/**
+ * Stores type-->relationships mappings. It receives updates in the form of created and deleted relationships
+ * and can iterate through all relationships for any given relationship type.
+ * <p>
+ * This is the relationship counterpart of {@link LabelScanStore}, making it possible to find relationships of
+ * a type without scanning all relationships.
+ */
+public interface RelationshipTypeScanStore extends Lifecycle
+{
+    /**
+     * From the point a {@link RelationshipTypeScanReader} is created till it's {@link RelationshipTypeScanReader#close() closed}
+     * the contents it returns cannot change, i.e. it honors repeatable reads.
+     *
+     * @return a {@link RelationshipTypeScanReader} capable of retrieving relationships for relationship types.
+     */
+    RelationshipTypeScanReader newReader();
+
+    /**
+     * Acquire a writer for updating the store.
+     *
+     * @return {@link RelationshipTypeScanWriter} which can modify the {@link RelationshipTypeScanStore}.
+     */
+    RelationshipTypeScanWriter newWriter();
+
+    /**
+     * Forces all changes to disk, see {@link LabelScanStore#force(IOLimiter)}.
+     *
+     * @throws UnderlyingStorageException if there was a problem forcing the state to persistent storage.
+     */
+    void force( IOLimiter limiter ) throws UnderlyingStorageException;
+
+    ResourceIterator<File> snapshotStoreFiles();
+
+    /**
+     * @return {@code true} if there's no data at all in this relationship type scan store, otherwise {@code false}.
+     * @throws IOException on I/O error.
+     */
+    boolean isEmpty() throws IOException;
+
+    /**
+     * Initializes the store. After this has been called recovery updates can be processed.
+     */
+    @Override
+    void init() throws IOException;
+
+    /**
+     * Starts the store. After this has been called updates can be processed.
+     */
+    @Override
+    void start() throws IOException;
+
+    @Override
+    void stop();
+
+    /**
+     * Shuts down the store and all resources acquired by it.
+     */
+    @Override
+    void shutdown() throws IOException;
+
+    /**
+     * Drops any persistent storage backing this store.
+     *
+     * @throws IOException on I/O error.
+     */
+    void drop() throws IOException;
+
+    /**
+     * @return whether or not this index is read-only.
+     */
+    boolean isReadOnly();
+
+    /**
+     * @return whether or not there's an existing store present for this relationship type scan store.
+     */
+    boolean hasStore();
+
+    /**
+     * @return the file where the relationship type scan store is persisted.
+     */
+    File getRelationshipTypeScanStoreFile();
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.api.labelscan;
+
+import java.util.Comparator;
+
+/**
+ * Change of the type of a relationship, i.e. the relationship being created or deleted, since the type of
+ * an existing relationship never changes.
+ */
+public class RelationshipTypeUpdate
+{
+    public static final int NO_TYPE = -1;
+
+    public static final Comparator<? super RelationshipTypeUpdate> SORT_BY_RELATIONSHIP_ID =
+            Comparator.comparingLong( RelationshipTypeUpdate::getRelationshipId );
+
+    private final long relationshipId;
+    private final int typeBefore;
+    private final int typeAfter;
+
+    private RelationshipTypeUpdate( long relationshipId, int typeBefore, int typeAfter )
+    {
+        this.relationshipId = relationshipId;
+        this.typeBefore = typeBefore;
+        this.typeAfter = typeAfter;
+    }
+
+    public long getRelationshipId()
+    {
+        return relationshipId;
+    }
+
+    /**
+     * @return type of the relationship before the change, or {@link #NO_TYPE} if it didn't exist.
+     */
+    public int getTypeBefore()
+    {
+        return typeBefore;
+    }
+
+    /**
+     * @return type of the relationship after the change, or {@link #NO_TYPE} if it doesn't exist anymore.
+     */
+    public int getTypeAfter()
+    {
+        return typeAfter;
+    }
+
+    @Override
+    public String toString()
+    {
+        return getClass().getSimpleName() + "[relationship:" + relationshipId + ", typeBefore:" + typeBefore +
+                ", typeAfter:" + typeAfter + "]";
+    }
+
+    public static RelationshipTypeUpdate typeChange( long relationshipId, int typeBeforeChange, int typeAfterChange )
+    {
+        return new RelationshipTypeUpdate( relationshipId, typeBeforeChange, typeAfterChange );
+    }
+
+    @Override
+    public boolean equals( Object o )
+    {
+        if ( this == o )
+        {
+            return true;
+        }
+        if ( o == null || getClass() != o.getClass() )
+        {
+            return false;
+        }
+
+        RelationshipTypeUpdate that = (RelationshipTypeUpdate) o;
+        return relationshipId == that.relationshipId && typeBefore == that.typeBefore && typeAfter == that.typeAfter;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        int result = (int) (relationshipId ^ (relationshipId >>> 32));
+        result = 31 * result + typeBefore;
+        result = 31 * result + typeAfter;
+        return result;
+    }
+}
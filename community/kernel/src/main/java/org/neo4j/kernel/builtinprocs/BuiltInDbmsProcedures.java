@@ -25,6 +25,7 @@ import java.util.stream.Stream;
 import org.neo4j.internal.kernel.api.procs.ProcedureSignature;
 import org.neo4j.internal.kernel.api.procs.UserFunctionSignature;
 import org.neo4j.internal.kernel.api.security.SecurityContext;
+import org.neo4j.io.pagecache.monitoring.PageCacheCounters;
 import org.neo4j.kernel.configuration.Config;
 import org.neo4j.kernel.impl.proc.Procedures;
 import org.neo4j.kernel.impl.query.QueryExecutionEngine;
@@ -97,6 +98,17 @@ public class BuiltInDbmsProcedures
         return Stream.of( new StringResult( result ) );
     }
 
+    @Admin
+    @Description( "List the page cache statistics of every file that is currently mapped by the page cache." )
+    @Procedure( name = "dbms.listPageCacheStats", mode = DBMS )
+    public Stream<PageCacheStatsResult> listPageCacheStats()
+    {
+        PageCacheCounters counters = graph.getDependencyResolver().resolveDependency( PageCacheCounters.class );
+        return counters.fileCounters().stream()
+                .map( PageCacheStatsResult::new )
+                .sorted( Comparator.comparing( r -> r.file ) );
+    }
+
     public static class FunctionResult
     {
         public final String name;
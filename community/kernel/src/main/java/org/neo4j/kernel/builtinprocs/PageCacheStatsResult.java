@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.builtinprocs;
+
+import org.neo4j.io.pagecache.monitoring.PagedFileCounters;
+
+public class PageCacheStatsResult
+{
+    public final String file;
+    public final boolean reserved;
+    public final long residentPages;
+    public final long dirtyPages;
+    public final long hits;
+    public final long faults;
+    public final long evictions;
+    public final long bytesRead;
+    public final long bytesWritten;
+
+    public PageCacheStatsResult( PagedFileCounters counters )
+    {
+        this.file = counters.file().getAbsolutePath();
+        this.reserved = counters.isReserved();
+        this.residentPages = counters.residentPages();
+        this.dirtyPages = counters.dirtyPages();
+        this.hits = counters.hits();
+        this.faults = counters.faults();
+        this.evictions = counters.evictions();
+        this.bytesRead = counters.bytesRead();
+        this.bytesWritten = counters.bytesWritten();
+    }
+}
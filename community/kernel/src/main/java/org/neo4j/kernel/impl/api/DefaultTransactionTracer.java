@@ -41,6 +41,11 @@ public class DefaultTransactionTracer implements TransactionTracer, LogRotationM
     public interface Monitor
     {
         void lastLogRotationEventDuration( long millis );
+
+        default void combinedLogAppend( int transactions, long latencyNanos )
+        {
+            // noop
+        }
     }
 
     private final SystemNanoClock clock;
@@ -67,6 +72,12 @@ public class DefaultTransactionTracer implements TransactionTracer, LogRotationM
 
         }
 
+        @Override
+        public void appendedCombinedBatch( int transactions, long latencyNanos )
+        {
+            monitor.combinedLogAppend( transactions, latencyNanos );
+        }
+
         @Override
         public LogRotateEvent beginLogRotate()
         {
@@ -555,8 +555,11 @@ public class MultipleIndexPopulator implements IndexPopulator
             }
         }
 
-        void flip( boolean verifyBeforeFlipping ) throws FlipFailedKernelException
+        void flip( boolean verifyBeforeFlipping ) throws FlipFailedKernelException, IndexEntryConflictException
         {
+            // Completing the scan may be expensive, e.g. building the index from sorted scan entries, so it's done
+            // before the flip, which blocks updates to the index
+            completeScan();
             flipper.flip( () ->
             {
                 populatorLock.lock();
@@ -564,7 +567,6 @@ public class MultipleIndexPopulator implements IndexPopulator
                 {
                     if ( populationOngoing )
                     {
-                        populator.add( takeCurrentBatch() );
                         populateFromQueue( 0, Long.MAX_VALUE );
                         if ( populations.contains( IndexPopulation.this ) )
                         {
@@ -591,6 +593,23 @@ public class MultipleIndexPopulator implements IndexPopulator
             logCompletionMessage();
         }
 
+        private void completeScan() throws IndexEntryConflictException
+        {
+            populatorLock.lock();
+            try
+            {
+                if ( populationOngoing )
+                {
+                    populator.add( takeCurrentBatch() );
+                    populator.scanCompleted();
+                }
+            }
+            finally
+            {
+                populatorLock.unlock();
+            }
+        }
+
         private void logCompletionMessage()
         {
             InternalIndexState postPopulationState = flipper.getState();
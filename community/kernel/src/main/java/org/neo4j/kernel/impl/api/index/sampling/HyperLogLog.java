@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.index.sampling;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.neo4j.io.pagecache.PageCursor;
+
+/**
+ * HyperLogLog sketch estimating the number of distinct items added to it, from 64-bit hashes of those items.
+ * The sketch is of constant size regardless of the number of items, estimates with a standard error of about 3%
+ * and can be {@link #addAll(HyperLogLog) merged} with other sketches, which makes it possible to keep it up to date
+ * incrementally instead of rescanning all items.
+ * <p>
+ * Items can't be removed from a sketch, so an item which is added and later removed from whatever is being
+ * sketched is still counted until the sketch is rebuilt.
+ * <p>
+ * Items may be added, and sketches merged into this one, concurrently from any number of threads without locking,
+ * since registers are only ever raised, with compare-and-set. Estimating or writing a sketch while items are added
+ * sees some of the concurrently added items.
+ */
+public class HyperLogLog
+{
+    private static final int PRECISION = 10;
+    private static final int NUMBER_OF_REGISTERS = 1 << PRECISION;
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / NUMBER_OF_REGISTERS);
+    private static final int REGISTERS_PER_WORD = Long.BYTES;
+    private static final long REGISTER_MASK = 0xFF;
+
+    /**
+     * Number of bytes written by {@link #writeTo(PageCursor)}.
+     */
+    public static final int SIZE_IN_BYTES = NUMBER_OF_REGISTERS;
+
+    // For each register the highest rank, i.e. number of leading zeros plus one, seen in the hashes selecting it,
+    // one byte per register packed into words
+    private final AtomicLongArray registers = new AtomicLongArray( NUMBER_OF_REGISTERS / REGISTERS_PER_WORD );
+
+    /**
+     * @param hash well distributed 64-bit hash of the item to add, equal items must have equal hashes.
+     */
+    public void add( long hash )
+    {
+        int register = (int) (hash >>> (Long.SIZE - PRECISION));
+        // The bit below the remaining bits makes sure that the rank never exceeds the number of remaining bits plus one
+        int rank = Long.numberOfLeadingZeros( (hash << PRECISION) | (1L << (PRECISION - 1)) ) + 1;
+        raise( register, rank );
+    }
+
+    /**
+     * Merges {@code other} into this sketch, which then estimates the number of distinct items added to either of them.
+     */
+    public void addAll( HyperLogLog other )
+    {
+        for ( int i = 0; i < NUMBER_OF_REGISTERS; i++ )
+        {
+            raise( i, other.register( i ) );
+        }
+    }
+
+    /**
+     * @return estimated number of distinct items added to this sketch.
+     */
+    public long estimate()
+    {
+        double sum = 0;
+        int emptyRegisters = 0;
+        for ( int i = 0; i < NUMBER_OF_REGISTERS; i++ )
+        {
+            int rank = register( i );
+            sum += 1D / (1L << rank);
+            if ( rank == 0 )
+            {
+                emptyRegisters++;
+            }
+        }
+        double estimate = ALPHA * NUMBER_OF_REGISTERS * NUMBER_OF_REGISTERS / sum;
+        if ( estimate <= 2.5 * NUMBER_OF_REGISTERS && emptyRegisters > 0 )
+        {
+            // Linear counting is more accurate for small cardinalities
+            estimate = NUMBER_OF_REGISTERS * Math.log( (double) NUMBER_OF_REGISTERS / emptyRegisters );
+        }
+        return Math.round( estimate );
+    }
+
+    public void writeTo( PageCursor cursor )
+    {
+        for ( int i = 0; i < NUMBER_OF_REGISTERS; i++ )
+        {
+            cursor.putByte( (byte) register( i ) );
+        }
+    }
+
+    public static HyperLogLog read( ByteBuffer buffer )
+    {
+        HyperLogLog sketch = new HyperLogLog();
+        for ( int i = 0; i < NUMBER_OF_REGISTERS; i++ )
+        {
+            sketch.raise( i, buffer.get() );
+        }
+        return sketch;
+    }
+
+    private int register( int register )
+    {
+        return (int) ((registers.get( register / REGISTERS_PER_WORD ) >>> shift( register )) & REGISTER_MASK);
+    }
+
+    /**
+     * Sets {@code register} to {@code rank}, unless it's already that high.
+     */
+    private void raise( int register, int rank )
+    {
+        int word = register / REGISTERS_PER_WORD;
+        int shift = shift( register );
+        long current;
+        do
+        {
+            current = registers.get( word );
+            if ( ((current >>> shift) & REGISTER_MASK) >= rank )
+            {
+                return;
+            }
+        }
+        while ( !registers.compareAndSet( word, current, (current & ~(REGISTER_MASK << shift)) | ((long) rank << shift) ) );
+    }
+
+    private static int shift( int register )
+    {
+        return (register % REGISTERS_PER_WORD) * Byte.SIZE;
+    }
+}
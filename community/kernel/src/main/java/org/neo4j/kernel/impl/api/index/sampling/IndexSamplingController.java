@@ -21,6 +21,8 @@ package org.neo4j.kernel.impl.api.index.sampling;
 
 import org.eclipse.collections.api.iterator.LongIterator;
 
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -47,6 +49,8 @@ public class IndexSamplingController
     private final RecoveryCondition indexRecoveryCondition;
     private final boolean backgroundSampling;
     private final Lock samplingLock = new ReentrantLock();
+    // Ids of queued indexes which should be sampled by reading all their entries
+    private final Set<Long> fullScanRequests = ConcurrentHashMap.newKeySet();
 
     private JobHandle backgroundSamplingHandle;
 
@@ -71,6 +75,14 @@ public class IndexSamplingController
     public void sampleIndexes( IndexSamplingMode mode )
     {
         IndexMap indexMap = indexMapSnapshotProvider.indexMapSnapshot();
+        if ( mode.fullScan )
+        {
+            LongIterator indexIds = indexMap.indexIds();
+            while ( indexIds.hasNext() )
+            {
+                fullScanRequests.add( indexIds.next() );
+            }
+        }
         jobQueue.addAll( !mode.sampleOnlyIfUpdated, PrimitiveLongCollections.toIterator( indexMap.indexIds() ) );
         scheduleSampling( mode, indexMap );
     }
@@ -78,6 +90,10 @@ public class IndexSamplingController
     public void sampleIndex( long indexId, IndexSamplingMode mode )
     {
         IndexMap indexMap = indexMapSnapshotProvider.indexMapSnapshot();
+        if ( mode.fullScan )
+        {
+            fullScanRequests.add( indexId );
+        }
         jobQueue.add( !mode.sampleOnlyIfUpdated, indexId );
         scheduleSampling( mode, indexMap );
     }
@@ -204,7 +220,7 @@ public class IndexSamplingController
         {
             return null;
         }
-        return jobFactory.create( indexId, proxy );
+        return fullScanRequests.remove( indexId ) ? jobFactory.createFullScan( indexId, proxy ) : jobFactory.create( indexId, proxy );
     }
 
     public void start()
@@ -24,4 +24,12 @@ import org.neo4j.kernel.impl.api.index.IndexProxy;
 public interface IndexSamplingJobFactory
 {
     IndexSamplingJob create( long indexId, IndexProxy indexProxy );
+
+    /**
+     * Like {@link #create(long, IndexProxy)}, but the job reads all entries of the index, see {@link IndexSamplingMode#fullScan}.
+     */
+    default IndexSamplingJob createFullScan( long indexId, IndexProxy indexProxy )
+    {
+        return create( indexId, indexProxy );
+    }
 }
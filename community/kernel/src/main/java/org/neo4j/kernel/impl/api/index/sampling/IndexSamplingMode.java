@@ -21,7 +21,7 @@ package org.neo4j.kernel.impl.api.index.sampling;
 
 public enum IndexSamplingMode
 {
-    TRIGGER_REBUILD_ALL( false, true )
+    TRIGGER_REBUILD_ALL( false, true, true )
             {
                 @Override
                 public String toString()
@@ -29,7 +29,7 @@ public enum IndexSamplingMode
                     return "FORCE REBUILD";
                 }
             },
-    TRIGGER_REBUILD_UPDATED( true, true )
+    TRIGGER_REBUILD_UPDATED( true, true, false )
             {
                 @Override
                 public String toString()
@@ -37,7 +37,7 @@ public enum IndexSamplingMode
                     return "REBUILD OUTDATED";
                 }
             },
-    BACKGROUND_REBUILD_UPDATED( true, false )
+    BACKGROUND_REBUILD_UPDATED( true, false, false )
             {
                 @Override
                 public String toString()
@@ -48,10 +48,15 @@ public enum IndexSamplingMode
 
     public final boolean sampleOnlyIfUpdated;
     public final boolean blockUntilAllScheduled;
+    /**
+     * Whether or not to sample by reading all index entries, even from indexes which keep statistics incrementally.
+     */
+    public final boolean fullScan;
 
-    IndexSamplingMode( boolean sampleOnlyIfUpdated, boolean blockUntilAllScheduled )
+    IndexSamplingMode( boolean sampleOnlyIfUpdated, boolean blockUntilAllScheduled, boolean fullScan )
     {
         this.sampleOnlyIfUpdated = sampleOnlyIfUpdated;
         this.blockUntilAllScheduled = blockUntilAllScheduled;
+        this.fullScan = fullScan;
     }
 }
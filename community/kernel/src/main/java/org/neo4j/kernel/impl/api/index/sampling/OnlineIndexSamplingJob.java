@@ -39,10 +39,18 @@ class OnlineIndexSamplingJob implements IndexSamplingJob
     private final IndexStoreView storeView;
     private final Log log;
     private final String indexUserDescription;
+    private final boolean fullScan;
 
     OnlineIndexSamplingJob( long indexId, IndexProxy indexProxy, IndexStoreView storeView, String indexUserDescription,
             LogProvider logProvider )
     {
+        this( indexId, indexProxy, storeView, indexUserDescription, logProvider, false );
+    }
+
+    OnlineIndexSamplingJob( long indexId, IndexProxy indexProxy, IndexStoreView storeView, String indexUserDescription,
+            LogProvider logProvider, boolean fullScan )
+    {
+        this.fullScan = fullScan;
         this.indexId = indexId;
         this.indexProxy = indexProxy;
         this.storeView = storeView;
@@ -65,7 +73,7 @@ class OnlineIndexSamplingJob implements IndexSamplingJob
             {
                 try ( IndexReader reader = indexProxy.newReader() )
                 {
-                    IndexSampler sampler = reader.createSampler();
+                    IndexSampler sampler = fullScan ? reader.createFullScanSampler() : reader.createSampler();
                     IndexSample sample = sampler.sampleIndex();
 
                     // check again if the index is online before saving the counts in the store
@@ -43,4 +43,11 @@ public class OnlineIndexSamplingJobFactory implements IndexSamplingJobFactory
         final String indexUserDescription = indexProxy.getDescriptor().userDescription( nameLookup );
         return new OnlineIndexSamplingJob( indexId, indexProxy, storeView, indexUserDescription, logProvider );
     }
+
+    @Override
+    public IndexSamplingJob createFullScan( long indexId, IndexProxy indexProxy )
+    {
+        final String indexUserDescription = indexProxy.getDescriptor().userDescription( nameLookup );
+        return new OnlineIndexSamplingJob( indexId, indexProxy, storeView, indexUserDescription, logProvider, true );
+    }
 }
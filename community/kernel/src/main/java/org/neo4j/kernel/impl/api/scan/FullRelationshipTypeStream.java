@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.scan;
+
+import java.io.IOException;
+
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.kernel.api.labelscan.LabelScanWriter;
+import org.neo4j.kernel.api.labelscan.NodeLabelUpdate;
+import org.neo4j.kernel.impl.store.RelationshipStore;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+
+import static org.apache.commons.lang3.ArrayUtils.EMPTY_LONG_ARRAY;
+import static org.neo4j.kernel.impl.store.record.RecordLoad.CHECK;
+
+/**
+ * {@link FullStoreChangeStream} of all relationships in a {@link RelationshipStore}, used to rebuild a
+ * relationship type scan store. Each relationship is written as a {@link NodeLabelUpdate} keyed by
+ * relationship id, with the relationship type as its only label.
+ */
+public class FullRelationshipTypeStream implements FullStoreChangeStream
+{
+    private final RelationshipStore relationshipStore;
+
+    public FullRelationshipTypeStream( RelationshipStore relationshipStore )
+    {
+        this.relationshipStore = relationshipStore;
+    }
+
+    @Override
+    public long applyTo( LabelScanWriter writer ) throws IOException
+    {
+        long count = 0;
+        RelationshipRecord record = relationshipStore.newRecord();
+        long highId = relationshipStore.getHighId();
+        try ( PageCursor cursor = relationshipStore.openPageCursorForReading( 0 ) )
+        {
+            for ( long id = 0; id < highId; id++ )
+            {
+                relationshipStore.getRecordByCursor( id, record, CHECK, cursor );
+                if ( record.inUse() )
+                {
+                    writer.write( NodeLabelUpdate.labelChanges( id, EMPTY_LONG_ARRAY, new long[]{record.getType()} ) );
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+}
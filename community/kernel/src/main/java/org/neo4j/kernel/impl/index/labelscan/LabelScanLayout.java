@@ -28,13 +28,23 @@ import org.neo4j.io.pagecache.PageCursor;
  *
  * <ul>
  * <li>
- * Each keys is a combination of {@code labelId} and {@code nodeIdRange} ({@code nodeId/64}).
+ * Each key is a combination of {@code labelId} and {@code nodeIdRange}
+ * ({@code nodeId/}{@link LabelScanValue#RANGE_SIZE}), stored in a fixed size of 10B:
+ * 4B {@code labelId} followed by 6B {@code nodeIdRange}.
  * </li>
  * <li>
- * Each value is a 64-bit bit set (a primitive {@code long}) where each set bit in it represents
- * a node with that label, such that {@code nodeId = nodeIdRange+bitOffset}. Range size is 64 bits.
+ * Each value is a bit set of {@link LabelScanValue#RANGE_SIZE} bits where each set bit in it represents
+ * a node with that label, such that {@code nodeId = nodeIdRange*rangeSize+bitOffset}.
  * </li>
  * </ul>
+ * Values are of dynamic size. Each value is a 1B header saying which container it is stored in, followed by
+ * that container, which is whichever of these is smallest for the bits set:
+ * <ul>
+ * <li>{@link #ARRAY_CONTAINER}: the 2B offset of each set bit, in ascending order</li>
+ * <li>{@link #RUN_CONTAINER}: the 2B offset and 2B length of each run of consecutive set bits, in ascending order</li>
+ * <li>{@link #BITMAP_CONTAINER}: the plain bit set, {@link LabelScanValue#WORDS} longs, lowest bits first</li>
+ * </ul>
+ * The number of entries in an array or run container follows from the value size.
  */
 class LabelScanLayout extends Layout.Adapter<LabelScanKey,LabelScanValue>
 {
@@ -48,6 +58,13 @@ class LabelScanLayout extends Layout.Adapter<LabelScanKey,LabelScanValue>
      */
     private static final int KEY_SIZE = Integer.BYTES/*labelId*/ + 6/*idRange*/;
 
+    static final byte ARRAY_CONTAINER = 0;
+    static final byte RUN_CONTAINER = 1;
+    static final byte BITMAP_CONTAINER = 2;
+
+    private static final int CONTAINER_HEADER_SIZE = Byte.BYTES;
+    private static final int BITMAP_CONTAINER_SIZE = CONTAINER_HEADER_SIZE + LabelScanValue.WORDS * Long.BYTES;
+
     /**
      * Compares {@link LabelScanKey}, giving ascending order of {@code labelId} then {@code nodeIdRange}.
      */
@@ -87,7 +104,34 @@ class LabelScanLayout extends Layout.Adapter<LabelScanKey,LabelScanValue>
     @Override
     public int valueSize( LabelScanValue value )
     {
-        return LabelScanValue.RANGE_SIZE_BYTES;
+        return containerSize( value, containerType( value ) );
+    }
+
+    /**
+     * @return the container which gives the smallest stored size for the bits set in {@code value}.
+     */
+    static byte containerType( LabelScanValue value )
+    {
+        int arraySize = CONTAINER_HEADER_SIZE + value.cardinality() * Short.BYTES;
+        int runSize = CONTAINER_HEADER_SIZE + value.runs() * 2 * Short.BYTES;
+        if ( arraySize <= runSize )
+        {
+            return arraySize < BITMAP_CONTAINER_SIZE ? ARRAY_CONTAINER : BITMAP_CONTAINER;
+        }
+        return runSize < BITMAP_CONTAINER_SIZE ? RUN_CONTAINER : BITMAP_CONTAINER;
+    }
+
+    private static int containerSize( LabelScanValue value, byte type )
+    {
+        switch ( type )
+        {
+        case ARRAY_CONTAINER:
+            return CONTAINER_HEADER_SIZE + value.cardinality() * Short.BYTES;
+        case RUN_CONTAINER:
+            return CONTAINER_HEADER_SIZE + value.runs() * 2 * Short.BYTES;
+        default:
+            return BITMAP_CONTAINER_SIZE;
+        }
     }
 
     @Override
@@ -106,7 +150,78 @@ class LabelScanLayout extends Layout.Adapter<LabelScanKey,LabelScanValue>
     @Override
     public void writeValue( PageCursor cursor, LabelScanValue value )
     {
-        cursor.putLong( value.bits );
+        byte type = containerType( value );
+        cursor.putByte( type );
+        switch ( type )
+        {
+        case ARRAY_CONTAINER:
+            writeArrayContainer( cursor, value );
+            break;
+        case RUN_CONTAINER:
+            writeRunContainer( cursor, value );
+            break;
+        default:
+            for ( long word : value.words )
+            {
+                cursor.putLong( word );
+            }
+        }
+    }
+
+    private static void writeArrayContainer( PageCursor cursor, LabelScanValue value )
+    {
+        long[] words = value.words;
+        for ( int i = 0; i < words.length; i++ )
+        {
+            long word = words[i];
+            while ( word != 0 )
+            {
+                cursor.putShort( (short) (i * Long.SIZE + Long.numberOfTrailingZeros( word )) );
+                word &= word - 1;
+            }
+        }
+    }
+
+    private static void writeRunContainer( PageCursor cursor, LabelScanValue value )
+    {
+        int index = nextSetBit( value.words, 0 );
+        while ( index != -1 )
+        {
+            int end = nextClearBit( value.words, index );
+            cursor.putShort( (short) index );
+            cursor.putShort( (short) (end - index) );
+            index = end < LabelScanValue.RANGE_SIZE ? nextSetBit( value.words, end ) : -1;
+        }
+    }
+
+    private static int nextSetBit( long[] words, int fromIndex )
+    {
+        int wordIndex = fromIndex >>> 6;
+        long word = words[wordIndex] & (-1L << fromIndex);
+        while ( word == 0 )
+        {
+            if ( ++wordIndex == words.length )
+            {
+                return -1;
+            }
+            word = words[wordIndex];
+        }
+        return wordIndex * Long.SIZE + Long.numberOfTrailingZeros( word );
+    }
+
+    private static int nextClearBit( long[] words, int fromIndex )
+    {
+        int wordIndex = fromIndex >>> 6;
+        long word = ~words[wordIndex] & (-1L << fromIndex);
+        while ( word == 0 )
+        {
+            if ( ++wordIndex == words.length )
+            {
+                return LabelScanValue.RANGE_SIZE;
+            }
+            word = ~words[wordIndex];
+        }
+        return wordIndex * Long.SIZE + Long.numberOfTrailingZeros( word );
     }
 
     @Override
@@ -126,13 +241,72 @@ class LabelScanLayout extends Layout.Adapter<LabelScanKey,LabelScanValue>
     @Override
     public void readValue( PageCursor cursor, LabelScanValue into, int valueSize )
     {
-        into.bits = cursor.getLong();
+        into.clear();
+        if ( valueSize < CONTAINER_HEADER_SIZE )
+        {
+            cursor.setCursorException( "Unexpected label scan value size " + valueSize );
+            return;
+        }
+
+        byte type = cursor.getByte();
+        int payloadSize = valueSize - CONTAINER_HEADER_SIZE;
+        switch ( type )
+        {
+        case ARRAY_CONTAINER:
+            if ( payloadSize % Short.BYTES == 0 )
+            {
+                readArrayContainer( cursor, into, payloadSize / Short.BYTES );
+                return;
+            }
+            break;
+        case RUN_CONTAINER:
+            if ( payloadSize % (2 * Short.BYTES) == 0 )
+            {
+                readRunContainer( cursor, into, payloadSize / (2 * Short.BYTES) );
+                return;
+            }
+            break;
+        case BITMAP_CONTAINER:
+            if ( valueSize == BITMAP_CONTAINER_SIZE )
+            {
+                for ( int i = 0; i < LabelScanValue.WORDS; i++ )
+                {
+                    into.words[i] = cursor.getLong();
+                }
+                return;
+            }
+            break;
+        default:
+        }
+        // Can happen on inconsistent reads, the cursor exception will have the read retried
+        cursor.setCursorException( "Unexpected label scan value container " + type + " of size " + valueSize );
+    }
+
+    private static void readArrayContainer( PageCursor cursor, LabelScanValue into, int count )
+    {
+        for ( int i = 0; i < count; i++ )
+        {
+            into.set( cursor.getShort() & (LabelScanValue.RANGE_SIZE - 1) );
+        }
+    }
+
+    private static void readRunContainer( PageCursor cursor, LabelScanValue into, int count )
+    {
+        for ( int i = 0; i < count; i++ )
+        {
+            int start = cursor.getShort() & 0xFFFF;
+            int end = Math.min( start + (cursor.getShort() & 0xFFFF), LabelScanValue.RANGE_SIZE );
+            for ( int index = start; index < end; index++ )
+            {
+                into.set( index );
+            }
+        }
     }
 
     @Override
     public boolean fixedSize()
     {
-        return true;
+        return false;
     }
 
     @Override
@@ -144,12 +318,12 @@ class LabelScanLayout extends Layout.Adapter<LabelScanKey,LabelScanValue>
     @Override
     public int majorVersion()
     {
-        return 0;
+        return 1;
     }
 
     @Override
     public int minorVersion()
     {
-        return 1;
+        return 0;
     }
 }
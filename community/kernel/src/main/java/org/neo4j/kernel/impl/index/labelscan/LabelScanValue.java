@@ -19,28 +19,32 @@
  */
 package org.neo4j.kernel.impl.index.labelscan;
 
+import java.util.Arrays;
+
 /**
- * A small bit set of maximum 64 bits. Used in {@link LabelScanLayout}.
+ * A bit set of {@link #RANGE_SIZE} bits, one for each node in a node id range. Used in {@link LabelScanLayout}.
+ * <p>
+ * In memory the bits are kept as {@link #WORDS} 64-bit words, word {@code 0} holding the lowest bits.
+ * {@link LabelScanLayout} stores them compressed, see {@link #cardinality()} and {@link #runs()}.
  */
 class LabelScanValue
 {
-    static final int RANGE_SIZE = Long.SIZE;
-    static final int RANGE_SIZE_BYTES = Long.BYTES;
+    static final int RANGE_SIZE = 512;
+    static final int WORDS = RANGE_SIZE / Long.SIZE;
 
     /**
-     * Small bit set.
+     * The bit set, where bit {@code index} is bit {@code index % 64} in word {@code index / 64}.
      */
-    long bits;
+    final long[] words = new long[WORDS];
 
     /**
-     * Sets bit at given {@code index}, where {@code index=0} is the lowest index, {@code index=63} the highest.
+     * Sets bit at given {@code index}, where {@code index=0} is the lowest index, {@code index=RANGE_SIZE-1} the highest.
      *
      * @param index index into the bit set of the bit to set.
      */
     void set( int index )
     {
-        long mask = 1L << index;
-        bits |= mask;
+        words[index >>> 6] |= 1L << index;
     }
 
     /**
@@ -52,7 +56,10 @@ class LabelScanValue
      */
     LabelScanValue add( LabelScanValue other )
     {
-        bits |= other.bits;
+        for ( int i = 0; i < WORDS; i++ )
+        {
+            words[i] |= other.words[i];
+        }
         return this;
     }
 
@@ -66,21 +73,109 @@ class LabelScanValue
      */
     LabelScanValue remove( LabelScanValue other )
     {
-        bits &= ~other.bits;
+        for ( int i = 0; i < WORDS; i++ )
+        {
+            words[i] &= ~other.words[i];
+        }
         return this;
     }
 
+    /**
+     * @param other value to compare with.
+     * @return whether or not all bits in {@code other} are also set in this bit set.
+     */
+    boolean containsAll( LabelScanValue other )
+    {
+        for ( int i = 0; i < WORDS; i++ )
+        {
+            if ( (other.words[i] & ~words[i]) != 0 )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param other value to compare with.
+     * @return whether or not any bit in {@code other} is also set in this bit set.
+     */
+    boolean intersects( LabelScanValue other )
+    {
+        for ( int i = 0; i < WORDS; i++ )
+        {
+            if ( (other.words[i] & words[i]) != 0 )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Clears all bits in this bit set.
      */
     void clear()
     {
-        bits = 0;
+        Arrays.fill( words, 0 );
+    }
+
+    boolean isEmpty()
+    {
+        for ( long word : words )
+        {
+            if ( word != 0 )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return number of set bits.
+     */
+    int cardinality()
+    {
+        int cardinality = 0;
+        for ( long word : words )
+        {
+            cardinality += Long.bitCount( word );
+        }
+        return cardinality;
+    }
+
+    /**
+     * @return number of runs of consecutive set bits, where a run may span multiple words.
+     */
+    int runs()
+    {
+        int runs = 0;
+        long carry = 0;
+        for ( long word : words )
+        {
+            // A run starts at each set bit whose lower neighbour, possibly the highest bit of the previous word, is clear
+            runs += Long.bitCount( word & ~((word << 1) | carry) );
+            carry = word >>> (Long.SIZE - 1);
+        }
+        return runs;
     }
 
     @Override
     public String toString()
     {
-        return String.valueOf( bits );
+        StringBuilder builder = new StringBuilder( "[" );
+        String separator = "";
+        for ( int i = 0; i < WORDS; i++ )
+        {
+            long word = words[i];
+            while ( word != 0 )
+            {
+                builder.append( separator ).append( i * Long.SIZE + Long.numberOfTrailingZeros( word ) );
+                separator = ",";
+                word &= word - 1;
+            }
+        }
+        return builder.append( "]" ).toString();
     }
 }
@@ -0,0 +1,301 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.labelscan;
+
+import org.eclipse.collections.api.iterator.LongIterator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.neo4j.collection.PrimitiveLongCollections.PrimitiveLongBaseIterator;
+import org.neo4j.collection.PrimitiveLongResourceIterator;
+import org.neo4j.cursor.RawCursor;
+import org.neo4j.index.internal.gbptree.Hit;
+
+import static org.neo4j.kernel.impl.index.labelscan.LabelScanValue.RANGE_SIZE;
+import static org.neo4j.kernel.impl.index.labelscan.LabelScanValue.WORDS;
+import static org.neo4j.storageengine.api.schema.LabelScanReader.NO_ID;
+
+/**
+ * {@link LongIterator} which combines the {@link LabelScanValue values} of multiple labels range by range,
+ * {@code AND}-ing or {@code OR}-ing whole words of their bit sets, rather than merging the node ids of each label one by one.
+ * For {@code AND} only ranges which have values for all labels are looked at.
+ * <p>
+ * Each provided {@link RawCursor} must seek the ranges of a single label in ascending order. The cursors are managed
+ * externally, e.g. {@link NativeLabelScanReader}, this because implemented interface lacks close-method.
+ */
+class LabelScanValueCombiningIterator extends PrimitiveLongBaseIterator implements PrimitiveLongResourceIterator
+{
+    private final RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException>[] cursors;
+    private final Collection<RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException>> toRemoveFromWhenClosed;
+    private final boolean trueForAll;
+    /**
+     * Whether or not each cursor in {@link #cursors} is positioned at a hit, i.e. isn't exhausted.
+     */
+    private final boolean[] positioned;
+    /**
+     * Combined bit set of the current range.
+     */
+    private final long[] words = new long[WORDS];
+    private int wordIndex = WORDS;
+    private long rangeBaseNodeId;
+    private long baseNodeId;
+    private long bits;
+    private long fromId;
+    private boolean initialized;
+    private boolean closed;
+
+    /**
+     * @param cursors one cursor for each label to combine.
+     * @param toRemoveFromWhenClosed cursors are removed from this collection when closed.
+     * @param fromId entity to start from (exclusive), or {@link org.neo4j.storageengine.api.schema.LabelScanReader#NO_ID}.
+     * @param trueForAll if {@code true} using {@code AND} combining, otherwise {@code OR} combining.
+     */
+    @SuppressWarnings( "unchecked" )
+    LabelScanValueCombiningIterator( List<RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException>> cursors,
+            Collection<RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException>> toRemoveFromWhenClosed, long fromId, boolean trueForAll )
+    {
+        this.cursors = cursors.toArray( new RawCursor[0] );
+        this.toRemoveFromWhenClosed = toRemoveFromWhenClosed;
+        this.positioned = new boolean[this.cursors.length];
+        this.fromId = fromId;
+        this.trueForAll = trueForAll;
+    }
+
+    @Override
+    protected boolean fetchNext()
+    {
+        while ( true )
+        {
+            while ( bits != 0 || nextWord() )
+            {
+                long nodeId = baseNodeId + Long.numberOfTrailingZeros( bits );
+                bits &= bits - 1;
+                if ( fromId != NO_ID )
+                {
+                    if ( nodeId <= fromId )
+                    {
+                        continue;
+                    }
+                    fromId = NO_ID;
+                }
+                return next( nodeId );
+            }
+
+            try
+            {
+                if ( closed || !(trueForAll ? nextIntersection() : nextUnion()) )
+                {
+                    close();
+                    return false;
+                }
+            }
+            catch ( IOException e )
+            {
+                throw new UncheckedIOException( e );
+            }
+        }
+    }
+
+    private boolean nextWord()
+    {
+        while ( ++wordIndex < WORDS )
+        {
+            if ( words[wordIndex] != 0 )
+            {
+                bits = words[wordIndex];
+                baseNodeId = rangeBaseNodeId + wordIndex * Long.SIZE;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Places all cursors at the next range which all of them have and {@code AND}s their values into {@link #words}.
+     *
+     * @return {@code true} if there was such a range, otherwise {@code false}.
+     */
+    private boolean nextIntersection() throws IOException
+    {
+        if ( cursors.length == 0 )
+        {
+            return false;
+        }
+        while ( true )
+        {
+            // Move all cursors past the range last combined, or to their first range
+            long targetRange = -1;
+            for ( RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException> cursor : cursors )
+            {
+                if ( !cursor.next() )
+                {
+                    return false;
+                }
+                targetRange = Math.max( targetRange, cursor.get().key().idRange );
+            }
+
+            // Leapfrog until all cursors agree on the range
+            boolean aligned;
+            do
+            {
+                aligned = true;
+                for ( RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException> cursor : cursors )
+                {
+                    long idRange = cursor.get().key().idRange;
+                    while ( idRange < targetRange )
+                    {
+                        if ( !cursor.next() )
+                        {
+                            return false;
+                        }
+                        idRange = cursor.get().key().idRange;
+                    }
+                    if ( idRange > targetRange )
+                    {
+                        targetRange = idRange;
+                        aligned = false;
+                    }
+                }
+            }
+            while ( !aligned );
+
+            System.arraycopy( cursors[0].get().value().words, 0, words, 0, WORDS );
+            for ( int i = 1; i < cursors.length; i++ )
+            {
+                long[] other = cursors[i].get().value().words;
+                for ( int w = 0; w < WORDS; w++ )
+                {
+                    words[w] &= other[w];
+                }
+            }
+            if ( startRange( targetRange ) )
+            {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Moves the cursors at the lowest range to their next range and {@code OR}s their values into {@link #words}.
+     *
+     * @return {@code true} if there was a next range, otherwise {@code false}.
+     */
+    private boolean nextUnion() throws IOException
+    {
+        if ( !initialized )
+        {
+            for ( int i = 0; i < cursors.length; i++ )
+            {
+                positioned[i] = cursors[i].next();
+            }
+            initialized = true;
+        }
+
+        while ( true )
+        {
+            long lowestRange = Long.MAX_VALUE;
+            for ( int i = 0; i < cursors.length; i++ )
+            {
+                if ( positioned[i] )
+                {
+                    lowestRange = Math.min( lowestRange, cursors[i].get().key().idRange );
+                }
+            }
+            if ( lowestRange == Long.MAX_VALUE )
+            {
+                return false;
+            }
+
+            Arrays.fill( words, 0 );
+            for ( int i = 0; i < cursors.length; i++ )
+            {
+                if ( positioned[i] && cursors[i].get().key().idRange == lowestRange )
+                {
+                    long[] other = cursors[i].get().value().words;
+                    for ( int w = 0; w < WORDS; w++ )
+                    {
+                        words[w] |= other[w];
+                    }
+                    // The value has been copied so the cursor can move on right away
+                    positioned[i] = cursors[i].next();
+                }
+            }
+            if ( startRange( lowestRange ) )
+            {
+                return true;
+            }
+        }
+    }
+
+    private boolean startRange( long idRange )
+    {
+        rangeBaseNodeId = idRange * RANGE_SIZE;
+        wordIndex = -1;
+        bits = 0;
+        for ( long word : words )
+        {
+            if ( word != 0 )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void close()
+    {
+        if ( !closed )
+        {
+            closed = true;
+            IOException exception = null;
+            for ( RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException> cursor : cursors )
+            {
+                try
+                {
+                    cursor.close();
+                }
+                catch ( IOException e )
+                {
+                    if ( exception == null )
+                    {
+                        exception = e;
+                    }
+                    else
+                    {
+                        exception.addSuppressed( e );
+                    }
+                }
+                finally
+                {
+                    toRemoveFromWhenClosed.remove( cursor );
+                }
+            }
+            if ( exception != null )
+            {
+                throw new UncheckedIOException( exception );
+            }
+        }
+    }
+}
@@ -40,13 +40,25 @@ abstract class LabelScanValueIndexAccessor
      */
     private final Collection<RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException>> toRemoveFromWhenClosed;
     /**
-     * Current base nodeId, i.e. the {@link LabelScanKey#idRange} of the current {@link LabelScanKey}.
+     * Node id of the lowest bit in {@link #bits}.
      */
     long baseNodeId;
     /**
-     * Bit set of the current {@link LabelScanValue}.
+     * Remaining bits of the current word of the current {@link LabelScanValue}.
      */
     protected long bits;
+    /**
+     * The current {@link LabelScanValue}, whose words are visited one by one.
+     */
+    private LabelScanValue value;
+    /**
+     * Index into {@link LabelScanValue#words} of the current word.
+     */
+    private int wordIndex = LabelScanValue.WORDS;
+    /**
+     * Node id of the lowest bit in the current {@link LabelScanValue}.
+     */
+    private long rangeBaseNodeId;
     /**
      * LabelId of previously retrieved {@link LabelScanKey}, for debugging and asserting purposes.
      */
@@ -68,6 +80,40 @@ abstract class LabelScanValueIndexAccessor
         this.cursor = cursor;
     }
 
+    /**
+     * Starts visiting the words of the value of the given hit. The value is read from lazily, by {@link #nextWord()},
+     * so the cursor must not be moved to its next hit until all words have been visited.
+     *
+     * @param hit the hit to visit.
+     */
+    void visit( Hit<LabelScanKey,LabelScanValue> hit )
+    {
+        value = hit.value();
+        rangeBaseNodeId = hit.key().idRange * LabelScanValue.RANGE_SIZE;
+        wordIndex = -1;
+        bits = 0;
+    }
+
+    /**
+     * Moves {@link #bits} and {@link #baseNodeId} to the next non-empty word of the currently visited value.
+     *
+     * @return {@code true} if there was another non-empty word, otherwise {@code false}.
+     */
+    boolean nextWord()
+    {
+        while ( ++wordIndex < LabelScanValue.WORDS )
+        {
+            long word = value.words[wordIndex];
+            if ( word != 0 )
+            {
+                bits = word;
+                baseNodeId = rangeBaseNodeId + wordIndex * Long.SIZE;
+                return true;
+            }
+        }
+        return false;
+    }
+
     boolean keysInOrder( LabelScanKey key )
     {
         assert key.labelId >= prevLabel : "Expected to get ordered results, got " + key +
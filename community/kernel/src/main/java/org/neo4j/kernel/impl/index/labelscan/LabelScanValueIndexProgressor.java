@@ -58,7 +58,7 @@ public class LabelScanValueIndexProgressor extends LabelScanValueIndexAccessor i
     {
         for ( ; ; )
         {
-            while ( bits != 0 )
+            while ( bits != 0 || nextWord() )
             {
                 int delta = Long.numberOfTrailingZeros( bits );
                 bits &= bits - 1;
@@ -81,8 +81,7 @@ public class LabelScanValueIndexProgressor extends LabelScanValueIndexAccessor i
             }
 
             Hit<LabelScanKey,LabelScanValue> hit = cursor.get();
-            baseNodeId = hit.key().idRange * LabelScanValue.RANGE_SIZE;
-            bits = hit.value().bits;
+            visit( hit );
 
             //noinspection AssertWithSideEffects
             assert keysInOrder( hit.key() );
@@ -30,8 +30,6 @@ import org.neo4j.collection.PrimitiveLongResourceIterator;
 import org.neo4j.cursor.RawCursor;
 import org.neo4j.index.internal.gbptree.Hit;
 
-import static org.neo4j.kernel.impl.index.labelscan.LabelScanValue.RANGE_SIZE;
-import static org.neo4j.kernel.impl.index.labelscan.NativeLabelScanWriter.rangeOf;
 import static org.neo4j.storageengine.api.schema.LabelScanReader.NO_ID;
 
 /**
@@ -49,7 +47,7 @@ class LabelScanValueIterator extends LabelScanValueIndexAccessor implements Prim
     protected long next;
 
     /**
-     * @param fromId entity to start from (exclusive). The cursor gives entries that are effectively small bit-sets and the fromId may
+     * @param fromId entity to start from (exclusive). The cursor gives entries that are effectively bit-sets and the fromId may
      * be somewhere inside a bit-set range.
      */
     LabelScanValueIterator( RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException> cursor,
@@ -90,11 +88,21 @@ class LabelScanValueIterator extends LabelScanValueIndexAccessor implements Prim
     {
         while ( true )
         {
-            if ( bits != 0 )
+            while ( bits != 0 || nextWord() )
             {
                 int delta = Long.numberOfTrailingZeros( bits );
                 bits &= bits - 1;
-                next =  baseNodeId + delta ;
+                next = baseNodeId + delta;
+                if ( fromId != NO_ID )
+                {
+                    // If we've been told to start at a specific id then skip ids less than or equal to that id
+                    if ( next <= fromId )
+                    {
+                        continue;
+                    }
+                    // ... and let's not do that again
+                    fromId = NO_ID;
+                }
                 hasNext = true;
                 return true;
             }
@@ -113,23 +121,7 @@ class LabelScanValueIterator extends LabelScanValueIndexAccessor implements Prim
             }
 
             Hit<LabelScanKey,LabelScanValue> hit = cursor.get();
-            baseNodeId = hit.key().idRange * RANGE_SIZE;
-            bits = hit.value().bits;
-
-            if ( fromId != NO_ID )
-            {
-                // If we've been told to start at a specific id then trim off ids in this range less than or equal to that id
-                long range = rangeOf( fromId );
-                if ( range == hit.key().idRange )
-                {
-                    // Only do this if we're in the idRange that fromId is in, otherwise there were no ids this time in this range
-                    long relativeStartId = fromId % RANGE_SIZE;
-                    long mask = relativeStartId == RANGE_SIZE - 1 ? -1 : (1L << (relativeStartId + 1)) - 1;
-                    bits &= ~mask;
-                }
-                // ... and let's not do that again, only for the first idRange
-                fromId = NO_ID;
-            }
+            visit( hit );
 
             //noinspection AssertWithSideEffects
             assert keysInOrder( hit.key() );
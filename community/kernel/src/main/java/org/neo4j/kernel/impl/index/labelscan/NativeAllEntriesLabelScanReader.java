@@ -154,9 +154,12 @@ class NativeAllEntriesLabelScanReader implements AllEntriesLabelScanReader
                     }
                     else if ( idRange == currentRange )
                     {
-                        long bits = cursor.get().value().bits;
+                        long[] words = cursor.get().value().words;
                         long labelId = cursor.get().key().labelId;
-                        readBitmap( bits, labelId, labelsForEachNode );
+                        for ( int i = 0; i < words.length; i++ )
+                        {
+                            readBitmap( words[i], labelId, labelsForEachNode, i * Long.SIZE );
+                        }
 
                         // Advance cursor and look ahead to the next range
                         if ( cursor.next() )
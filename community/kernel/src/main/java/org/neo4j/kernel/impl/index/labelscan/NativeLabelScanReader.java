@@ -101,15 +101,13 @@ class NativeLabelScanReader implements LabelScanReader
     @Override
     public PrimitiveLongResourceIterator nodesWithAnyOfLabels( long fromId, int... labelIds )
     {
-        List<PrimitiveLongResourceIterator> iterators = iteratorsForLabels( fromId, labelIds );
-        return new CompositeLabelScanValueIterator( iterators, false );
+        return new LabelScanValueCombiningIterator( cursorsForLabels( fromId, labelIds ), openCursors, fromId, false );
     }
 
     @Override
     public PrimitiveLongResourceIterator nodesWithAllLabels( int... labelIds )
     {
-        List<PrimitiveLongResourceIterator> iterators = iteratorsForLabels( NO_ID, labelIds );
-        return new CompositeLabelScanValueIterator( iterators, true );
+        return new LabelScanValueCombiningIterator( cursorsForLabels( NO_ID, labelIds ), openCursors, NO_ID, true );
     }
 
     @Override
@@ -129,23 +127,23 @@ class NativeLabelScanReader implements LabelScanReader
         client.scan( new LabelScanValueIndexProgressor( cursor, openCursors, client ), false, labelId );
     }
 
-    private List<PrimitiveLongResourceIterator> iteratorsForLabels( long fromId, int[] labelIds )
+    private List<RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException>> cursorsForLabels( long fromId, int[] labelIds )
     {
-        List<PrimitiveLongResourceIterator> iterators = new ArrayList<>();
+        List<RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException>> cursors = new ArrayList<>();
         try
         {
             for ( int labelId : labelIds )
             {
                 RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException> cursor = seekerForLabel( fromId, labelId );
                 openCursors.add( cursor );
-                iterators.add( new LabelScanValueIterator( cursor, openCursors, fromId ) );
+                cursors.add( cursor );
             }
         }
         catch ( IOException e )
         {
             throw new UncheckedIOException( e );
         }
-        return iterators;
+        return cursors;
     }
 
     private RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException> seekerForLabel( long startId, int labelId ) throws IOException
@@ -40,6 +40,7 @@ import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.layout.DatabaseLayout;
 import org.neo4j.io.pagecache.IOLimiter;
 import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCacheOpenOptions;
 import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.kernel.api.labelscan.AllEntriesLabelScanReader;
 import org.neo4j.kernel.api.labelscan.LabelScanStore;
@@ -59,12 +60,12 @@ import static org.neo4j.helpers.collection.Iterators.iterator;
  * About the {@link Layout} used in this instance of {@link GBPTree}:
  * <ul>
  * <li>
- * Each keys is a combination of {@code labelId} and {@code nodeIdRange} ({@code nodeId/64}).
+ * Each keys is a combination of {@code labelId} and {@code nodeIdRange} ({@code nodeId/512}).
  * </li>
  * <li>
- * Each value is a 64-bit bit set (a primitive {@code long}) where each set bit in it represents
- * a node with that label, such that {@code nodeId = nodeIdRange+bitOffset}. Range size (e.g. 64 bits)
- * is configurable on initial creation of the store, 8, 16, 32 or 64.
+ * Each value is a 512-bit bit set where each set bit in it represents a node with that label,
+ * such that {@code nodeId = nodeIdRange*512+bitOffset}. The bit set is stored compressed, as an array of
+ * offsets, a list of runs or a plain bitmap, whichever is smallest. Ranges which become empty are removed.
  * </li>
  * </ul>
  * <p>
@@ -173,15 +174,27 @@ public class NativeLabelScanStore implements LabelScanStore
     NativeLabelScanStore( PageCache pageCache, DatabaseLayout directoryStructure, FileSystemAbstraction fs,
                 FullStoreChangeStream fullStoreChangeStream, boolean readOnly, Monitors monitors,
                 RecoveryCleanupWorkCollector recoveryCleanupWorkCollector, int pageSize )
+    {
+        this( pageCache, getLabelScanStoreFile( directoryStructure ), fs, fullStoreChangeStream, readOnly, monitors,
+                monitors.newMonitor( Monitor.class ), recoveryCleanupWorkCollector, pageSize );
+    }
+
+    /*
+     * Access for other stores of token-->entities mappings, which are laid out just like this store but
+     * backed by another store file, see NativeRelationshipTypeScanStore.
+     */
+    NativeLabelScanStore( PageCache pageCache, File storeFile, FileSystemAbstraction fs,
+            FullStoreChangeStream fullStoreChangeStream, boolean readOnly, Monitors monitors, Monitor monitor,
+            RecoveryCleanupWorkCollector recoveryCleanupWorkCollector, int pageSize )
     {
         this.pageCache = pageCache;
         this.pageSize = pageSize;
         this.fullStoreChangeStream = fullStoreChangeStream;
-        this.storeFile = getLabelScanStoreFile( directoryStructure );
+        this.storeFile = storeFile;
         this.singleWriter = new NativeLabelScanWriter( 1_000 );
         this.readOnly = readOnly;
         this.monitors = monitors;
-        this.monitor = monitors.newMonitor( Monitor.class );
+        this.monitor = monitor;
         this.recoveryCleanupWorkCollector = recoveryCleanupWorkCollector;
         this.fileSystem = fs;
     }
@@ -354,7 +367,7 @@ public class NativeLabelScanStore implements LabelScanStore
         Header.Reader readRebuilding =
                 headerData -> isRebuilding.setValue( headerData.get() == NEEDS_REBUILDING );
         index = new GBPTree<>( pageCache, storeFile, new LabelScanLayout(), pageSize, monitor, readRebuilding,
-                needsRebuildingWriter, recoveryCleanupWorkCollector );
+                needsRebuildingWriter, recoveryCleanupWorkCollector, PageCacheOpenOptions.RESERVED );
         return isRebuilding.getValue();
     }
 
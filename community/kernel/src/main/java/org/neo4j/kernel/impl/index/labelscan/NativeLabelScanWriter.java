@@ -61,15 +61,25 @@ class NativeLabelScanWriter implements LabelScanWriter
 
     /**
      * {@link ValueMerger} used for adding label->node mappings, see {@link LabelScanValue#add(LabelScanValue)}.
+     * Nothing is written if all nodes already had the label.
      */
     private static final ValueMerger<LabelScanKey,LabelScanValue> ADD_MERGER =
-            ( existingKey, newKey, existingValue, newValue ) -> existingValue.add( newValue );
+            ( existingKey, newKey, existingValue, newValue ) -> existingValue.containsAll( newValue ) ? null : existingValue.add( newValue );
 
     /**
      * {@link ValueMerger} used for removing label->node mappings, see {@link LabelScanValue#remove(LabelScanValue)}.
+     * Nothing is written if no node had the label. Notes in {@link #emptiedRange} whether or not the range became empty.
      */
-    private static final ValueMerger<LabelScanKey,LabelScanValue> REMOVE_MERGER =
-            ( existingKey, newKey, existingValue, newValue ) -> existingValue.remove( newValue );
+    private final ValueMerger<LabelScanKey,LabelScanValue> removeMerger = ( existingKey, newKey, existingValue, newValue ) ->
+    {
+        if ( !existingValue.intersects( newValue ) )
+        {
+            emptiedRange = false;
+            return null;
+        }
+        emptiedRange = existingValue.remove( newValue ).isEmpty();
+        return existingValue;
+    };
 
     /**
      * {@link Writer} acquired when acquiring this {@link NativeLabelScanWriter},
@@ -118,6 +128,12 @@ class NativeLabelScanWriter implements LabelScanWriter
      */
     private long lowestLabelId;
 
+    /**
+     * Set by {@link #removeMerger} to tell whether or not the range it removed from became empty,
+     * in which case its entry is removed from the tree altogether.
+     */
+    private boolean emptiedRange;
+
     NativeLabelScanWriter( int batchSize )
     {
         this.pendingUpdates = new NodeLabelUpdate[batchSize];
@@ -243,12 +259,23 @@ class NativeLabelScanWriter implements LabelScanWriter
 
     private void flushPendingRange() throws IOException
     {
-        if ( value.bits != 0 )
+        if ( !value.isEmpty() )
         {
             // There are changes in the current range, flush them
-            writer.merge( key, value, addition ? ADD_MERGER : REMOVE_MERGER );
-            // TODO: after a remove we could check if the tree value is empty and if so remove it from the index
-            // hmm, or perhaps that could be a feature of ValueAmender?
+            if ( addition )
+            {
+                writer.merge( key, value, ADD_MERGER );
+            }
+            else
+            {
+                emptiedRange = false;
+                writer.merge( key, value, removeMerger );
+                if ( emptiedRange )
+                {
+                    // Don't keep empty ranges around, they would only slow down scans
+                    writer.remove( key );
+                }
+            }
             value.clear();
         }
     }
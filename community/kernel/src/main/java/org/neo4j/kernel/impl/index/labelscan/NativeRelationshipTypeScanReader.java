@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.labelscan;
+
+import org.neo4j.collection.PrimitiveLongResourceIterator;
+import org.neo4j.internal.kernel.api.LabelSet;
+import org.neo4j.storageengine.api.schema.IndexProgressor;
+import org.neo4j.storageengine.api.schema.IndexProgressor.NodeLabelClient;
+import org.neo4j.storageengine.api.schema.IndexProgressor.RelationshipTypeClient;
+import org.neo4j.storageengine.api.schema.LabelScanReader;
+import org.neo4j.storageengine.api.schema.RelationshipTypeScanReader;
+
+/**
+ * {@link RelationshipTypeScanReader} for reading data from {@link NativeRelationshipTypeScanStore}, reading
+ * relationship ids of a type the same way {@link NativeLabelScanReader} reads node ids of a label.
+ */
+class NativeRelationshipTypeScanReader implements RelationshipTypeScanReader
+{
+    private final LabelScanReader reader;
+
+    NativeRelationshipTypeScanReader( LabelScanReader reader )
+    {
+        this.reader = reader;
+    }
+
+    @Override
+    public PrimitiveLongResourceIterator relationshipsWithType( int typeId )
+    {
+        return reader.nodesWithLabel( typeId );
+    }
+
+    @Override
+    public void relationshipsWithType( RelationshipTypeClient client, int typeId )
+    {
+        reader.nodesWithLabel( new RelationshipTypeClientAdapter( client ), typeId );
+    }
+
+    @Override
+    public void close()
+    {
+        reader.close();
+    }
+
+    private static class RelationshipTypeClientAdapter implements NodeLabelClient
+    {
+        private final RelationshipTypeClient client;
+
+        RelationshipTypeClientAdapter( RelationshipTypeClient client )
+        {
+            this.client = client;
+        }
+
+        @Override
+        public void scan( IndexProgressor progressor, boolean providesLabels, int label )
+        {
+            client.scan( progressor, label );
+        }
+
+        @Override
+        public void unionScan( IndexProgressor progressor, boolean providesLabels, int... labels )
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void intersectionScan( IndexProgressor progressor, boolean providesLabels, int... labels )
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean acceptNode( long reference, LabelSet labels )
+        {
+            return client.acceptRelationship( reference );
+        }
+    }
+}
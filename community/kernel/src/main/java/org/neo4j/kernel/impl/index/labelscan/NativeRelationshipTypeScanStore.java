@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.labelscan;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.neo4j.graphdb.ResourceIterator;
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.layout.DatabaseLayout;
+import org.neo4j.io.pagecache.IOLimiter;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.api.labelscan.LabelScanStore;
+import org.neo4j.kernel.api.labelscan.LabelScanWriter;
+import org.neo4j.kernel.api.labelscan.NodeLabelUpdate;
+import org.neo4j.kernel.api.labelscan.RelationshipTypeScanStore;
+import org.neo4j.kernel.api.labelscan.RelationshipTypeScanWriter;
+import org.neo4j.kernel.api.labelscan.RelationshipTypeUpdate;
+import org.neo4j.kernel.impl.api.scan.FullStoreChangeStream;
+import org.neo4j.kernel.monitoring.Monitors;
+import org.neo4j.storageengine.api.schema.RelationshipTypeScanReader;
+
+import static org.apache.commons.lang3.ArrayUtils.EMPTY_LONG_ARRAY;
+import static org.neo4j.kernel.api.labelscan.RelationshipTypeUpdate.NO_TYPE;
+
+/**
+ * {@link RelationshipTypeScanStore} which is implemented using {@link GBPTree} atop a {@link PageCache}.
+ * <p>
+ * Relationship types are kept exactly like labels in {@link NativeLabelScanStore}, in a tree of its own,
+ * where each key is a combination of {@code typeId} and {@code relationshipIdRange} and each value is a bit set
+ * of the relationships in that range having that type. Just like the label scan store this store must be forced
+ * whenever Neo4j performs a checkpoint and only a single writer is allowed at any given point in time.
+ * <p>
+ * This store is backed by a single store file "neostore.relationshiptypescanstore.db".
+ */
+public class NativeRelationshipTypeScanStore implements RelationshipTypeScanStore
+{
+    private final NativeLabelScanStore store;
+
+    /**
+     * @param fullStoreChangeStream used to rebuild this store, providing one {@link NodeLabelUpdate} per relationship,
+     * keyed by relationship id and with the relationship type as its only label.
+     * @param monitor {@link LabelScanStore.Monitor} of events in this store.
+     */
+    public NativeRelationshipTypeScanStore( PageCache pageCache, DatabaseLayout directoryStructure, FileSystemAbstraction fs,
+            FullStoreChangeStream fullStoreChangeStream, boolean readOnly, Monitors monitors, LabelScanStore.Monitor monitor,
+            RecoveryCleanupWorkCollector recoveryCleanupWorkCollector )
+    {
+        this( pageCache, directoryStructure, fs, fullStoreChangeStream, readOnly, monitors, monitor, recoveryCleanupWorkCollector,
+                /*means no opinion about page size*/ 0 );
+    }
+
+    /*
+     * Test access to be able to control page size.
+     */
+    NativeRelationshipTypeScanStore( PageCache pageCache, DatabaseLayout directoryStructure, FileSystemAbstraction fs,
+            FullStoreChangeStream fullStoreChangeStream, boolean readOnly, Monitors monitors, LabelScanStore.Monitor monitor,
+            RecoveryCleanupWorkCollector recoveryCleanupWorkCollector, int pageSize )
+    {
+        this.store = new NativeLabelScanStore( pageCache, directoryStructure.relationshipTypeScanStore(), fs, fullStoreChangeStream,
+                readOnly, monitors, monitor, recoveryCleanupWorkCollector, pageSize );
+    }
+
+    @Override
+    public RelationshipTypeScanReader newReader()
+    {
+        return new NativeRelationshipTypeScanReader( store.newReader() );
+    }
+
+    /**
+     * Returns {@link RelationshipTypeScanWriter} capable of making changes to this {@link RelationshipTypeScanStore}.
+     * Only a single writer is allowed at any given point in time.
+     *
+     * @return {@link RelationshipTypeScanWriter} capable of making changes to this {@link RelationshipTypeScanStore}.
+     * @throws IllegalStateException if someone else has already acquired a writer and hasn't yet
+     * called {@link RelationshipTypeScanWriter#close()}.
+     */
+    @Override
+    public RelationshipTypeScanWriter newWriter()
+    {
+        return new NativeRelationshipTypeScanWriter( store.newWriter() );
+    }
+
+    @Override
+    public void force( IOLimiter limiter )
+    {
+        store.force( limiter );
+    }
+
+    @Override
+    public ResourceIterator<File> snapshotStoreFiles()
+    {
+        return store.snapshotStoreFiles();
+    }
+
+    @Override
+    public boolean isEmpty() throws IOException
+    {
+        return store.isEmpty();
+    }
+
+    @Override
+    public void init() throws IOException
+    {
+        store.init();
+    }
+
+    @Override
+    public void start() throws IOException
+    {
+        store.start();
+    }
+
+    @Override
+    public void stop()
+    {
+        store.stop();
+    }
+
+    @Override
+    public void shutdown() throws IOException
+    {
+        store.shutdown();
+    }
+
+    @Override
+    public void drop() throws IOException
+    {
+        store.drop();
+    }
+
+    @Override
+    public boolean isReadOnly()
+    {
+        return store.isReadOnly();
+    }
+
+    @Override
+    public boolean hasStore()
+    {
+        return store.hasStore();
+    }
+
+    @Override
+    public File getRelationshipTypeScanStoreFile()
+    {
+        return store.getLabelScanStoreFile();
+    }
+
+    public boolean isDirty()
+    {
+        return store.isDirty();
+    }
+
+    /**
+     * Writes each {@link RelationshipTypeUpdate} as a {@link NodeLabelUpdate} of the relationship id,
+     * with the relationship type as its only label.
+     */
+    private static class NativeRelationshipTypeScanWriter implements RelationshipTypeScanWriter
+    {
+        private final LabelScanWriter writer;
+
+        NativeRelationshipTypeScanWriter( LabelScanWriter writer )
+        {
+            this.writer = writer;
+        }
+
+        @Override
+        public void write( RelationshipTypeUpdate update ) throws IOException
+        {
+            writer.write( NodeLabelUpdate.labelChanges( update.getRelationshipId(),
+                    asLabels( update.getTypeBefore() ), asLabels( update.getTypeAfter() ) ) );
+        }
+
+        private static long[] asLabels( int type )
+        {
+            return type == NO_TYPE ? EMPTY_LONG_ARRAY : new long[]{type};
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            writer.close();
+        }
+    }
+}
@@ -157,16 +157,27 @@ class CompositeGenericKey extends NativeIndexKey<CompositeGenericKey>
         return size;
     }
 
-    void write( PageCursor cursor )
+    /**
+     * @param entityIdLast whether to write the entity id after the values, so that keys close in sort order share a prefix,
+     * see {@link GenericLayout#compressKeyPrefixes()}, or before them as in indexes created before that.
+     */
+    void write( PageCursor cursor, boolean entityIdLast )
     {
-        cursor.putLong( getEntityId() );
+        if ( !entityIdLast )
+        {
+            cursor.putLong( getEntityId() );
+        }
         for ( GenericKeyState state : states )
         {
             state.put( cursor );
         }
+        if ( entityIdLast )
+        {
+            cursor.putLong( getEntityId() );
+        }
     }
 
-    void read( PageCursor cursor, int keySize )
+    void read( PageCursor cursor, int keySize, boolean entityIdLast )
     {
         if ( keySize < ENTITY_ID_SIZE )
         {
@@ -175,9 +186,9 @@ class CompositeGenericKey extends NativeIndexKey<CompositeGenericKey>
             return;
         }
 
-        initialize( cursor.getLong() );
+        initialize( entityIdLast ? cursor.getLong( cursor.getOffset() + keySize - ENTITY_ID_SIZE ) : cursor.getLong() );
+        keySize -= ENTITY_ID_SIZE;
         int offset = cursor.getOffset();
-        int stateOffset = 0;
         for ( GenericKeyState state : states )
         {
             if ( !state.read( cursor, keySize ) )
@@ -188,7 +199,11 @@ class CompositeGenericKey extends NativeIndexKey<CompositeGenericKey>
             int offsetAfterRead = cursor.getOffset();
             keySize -= offsetAfterRead - offset;
             offset = offsetAfterRead;
-            stateOffset++;
+        }
+        if ( entityIdLast )
+        {
+            // Skip past the entity id, which was read up front
+            cursor.setOffset( offset + ENTITY_ID_SIZE );
         }
     }
 
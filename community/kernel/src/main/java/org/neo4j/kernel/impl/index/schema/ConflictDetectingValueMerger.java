@@ -39,6 +39,7 @@ class ConflictDetectingValueMerger<KEY extends NativeIndexKey<KEY>, VALUE extend
     private final boolean compareEntityIds;
 
     private boolean conflict;
+    private boolean existing;
     private long existingNodeId;
     private long addedNodeId;
 
@@ -50,6 +51,7 @@ class ConflictDetectingValueMerger<KEY extends NativeIndexKey<KEY>, VALUE extend
     @Override
     public VALUE merge( KEY existingKey, KEY newKey, VALUE existingValue, VALUE newValue )
     {
+        existing = true;
         if ( existingKey.getEntityId() != newKey.getEntityId() )
         {
             conflict = true;
@@ -71,6 +73,17 @@ class ConflictDetectingValueMerger<KEY extends NativeIndexKey<KEY>, VALUE extend
         key.setCompareId( compareEntityIds );
     }
 
+    /**
+     * @return whether or not the key already existed in the last call to {@link Writer#merge(Object, Object, ValueMerger)},
+     * i.e. whether or not that call left the tree unchanged. Also initializes the flag.
+     */
+    boolean wasExisting()
+    {
+        boolean result = existing;
+        existing = false;
+        return result;
+    }
+
     void checkConflict( Value[] values ) throws IndexEntryConflictException
     {
         if ( conflict )
@@ -25,11 +25,15 @@ import java.io.UncheckedIOException;
 import org.neo4j.cursor.RawCursor;
 import org.neo4j.index.internal.gbptree.GBPTree;
 import org.neo4j.index.internal.gbptree.Hit;
+import org.neo4j.kernel.impl.api.index.sampling.HyperLogLog;
 import org.neo4j.kernel.impl.api.index.sampling.NonUniqueIndexSampler;
+import org.neo4j.storageengine.api.schema.IndexHistogram;
 import org.neo4j.storageengine.api.schema.IndexSample;
+import org.neo4j.values.storable.Value;
 
 /**
  * {@link NonUniqueIndexSampler} which performs a full scans of a {@link GBPTree} in {@link #result()}.
+ * The scan also rebuilds the {@link NativeIndexStatistics} of the index, if given, including its {@link IndexHistogram}.
  *
  * @param <KEY> type of keys in tree.
  * @param <VALUE> type of values in tree.
@@ -39,11 +43,20 @@ class FullScanNonUniqueIndexSampler<KEY extends NativeIndexKey<KEY>, VALUE exten
 {
     private final GBPTree<KEY,VALUE> gbpTree;
     private final IndexLayout<KEY,VALUE> layout;
+    private static final int HISTOGRAM_BUCKETS = 32;
+
+    private final NativeIndexStatistics statistics;
 
     FullScanNonUniqueIndexSampler( GBPTree<KEY,VALUE> gbpTree, IndexLayout<KEY,VALUE> layout )
+    {
+        this( gbpTree, layout, null );
+    }
+
+    FullScanNonUniqueIndexSampler( GBPTree<KEY,VALUE> gbpTree, IndexLayout<KEY,VALUE> layout, NativeIndexStatistics statistics )
     {
         this.gbpTree = gbpTree;
         this.layout = layout;
+        this.statistics = statistics;
     }
 
     @Override
@@ -56,6 +69,11 @@ class FullScanNonUniqueIndexSampler<KEY extends NativeIndexKey<KEY>, VALUE exten
         highest.initialize( Long.MAX_VALUE );
         highest.initValuesAsHighest();
         KEY prev = layout.newKey();
+        StatisticsBuilder statisticsBuilder = statistics != null ? new StatisticsBuilder() : null;
+        if ( statistics != null )
+        {
+            statistics.scanStarted();
+        }
         try ( RawCursor<Hit<KEY,VALUE>,IOException> seek = gbpTree.seek( lowest, highest ) )
         {
             long sampledValues = 0;
@@ -67,6 +85,10 @@ class FullScanNonUniqueIndexSampler<KEY extends NativeIndexKey<KEY>, VALUE exten
                 prev = layout.copyKey( seek.get().key(), prev );
                 sampledValues++;
                 uniqueValues++;
+                if ( statisticsBuilder != null )
+                {
+                    statisticsBuilder.distinct( prev.asValues() );
+                }
 
                 // Then do the rest
                 while ( seek.next() )
@@ -76,11 +98,23 @@ class FullScanNonUniqueIndexSampler<KEY extends NativeIndexKey<KEY>, VALUE exten
                     {
                         uniqueValues++;
                         layout.copyKey( hit.key(), prev );
+                        if ( statisticsBuilder != null )
+                        {
+                            statisticsBuilder.distinct( prev.asValues() );
+                        }
+                    }
+                    else if ( statisticsBuilder != null )
+                    {
+                        // this is a duplicate of the previous one
+                        statisticsBuilder.duplicate();
                     }
-                    // else this is a duplicate of the previous one
                     sampledValues++;
                 }
             }
+            if ( statistics != null )
+            {
+                statistics.scanCompleted( statisticsBuilder.distinctValues, sampledValues, statisticsBuilder.histogram() );
+            }
             return new IndexSample( sampledValues, uniqueValues, sampledValues );
         }
         catch ( IOException e )
@@ -94,4 +128,46 @@ class FullScanNonUniqueIndexSampler<KEY extends NativeIndexKey<KEY>, VALUE exten
     {
         throw new UnsupportedOperationException();
     }
+
+    /**
+     * Builds the sketch of distinct value tuples and, for single property indexes, the {@link IndexHistogram}
+     * from the value tuples seen by the scan, in index order.
+     */
+    private static class StatisticsBuilder
+    {
+        private final HyperLogLog distinctValues = new HyperLogLog();
+        private final IndexHistogram.Builder histogram = new IndexHistogram.Builder( HISTOGRAM_BUCKETS );
+        private boolean singleProperty = true;
+        private Value[] values;
+        private long count;
+
+        void distinct( Value[] values )
+        {
+            addToHistogram();
+            distinctValues.add( UniqueIndexBloomFilter.hash( values ) );
+            singleProperty = values.length == 1;
+            this.values = values;
+            this.count = 1;
+        }
+
+        void duplicate()
+        {
+            count++;
+        }
+
+        private void addToHistogram()
+        {
+            if ( values != null && singleProperty )
+            {
+                histogram.add( values[0], count );
+            }
+        }
+
+        IndexHistogram histogram()
+        {
+            addToHistogram();
+            values = null;
+            return singleProperty ? histogram.build() : null;
+        }
+    }
 }
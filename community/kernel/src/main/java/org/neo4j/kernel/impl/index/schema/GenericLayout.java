@@ -87,12 +87,23 @@ class GenericLayout extends IndexLayout<CompositeGenericKey,NativeIndexValue>
 
     private final int numberOfSlots;
     private final IndexSpecificSpaceFillingCurveSettingsCache spatialSettings;
+    private final boolean compressKeyPrefixes;
 
     GenericLayout( int numberOfSlots, IndexSpecificSpaceFillingCurveSettingsCache spatialSettings )
     {
-        super( "NSIL", 0, 2 );
+        this( numberOfSlots, spatialSettings, true );
+    }
+
+    /**
+     * @param compressKeyPrefixes whether or not to write the entity id last and {@link #compressKeyPrefixes() compress key prefixes}.
+     * Indexes created before that have the entity id first and minor version 2, and are opened with {@code false}.
+     */
+    GenericLayout( int numberOfSlots, IndexSpecificSpaceFillingCurveSettingsCache spatialSettings, boolean compressKeyPrefixes )
+    {
+        super( "NSIL", 0, compressKeyPrefixes ? 3 : 2 );
         this.numberOfSlots = numberOfSlots;
         this.spatialSettings = spatialSettings;
+        this.compressKeyPrefixes = compressKeyPrefixes;
     }
 
     @Override
@@ -119,13 +130,13 @@ class GenericLayout extends IndexLayout<CompositeGenericKey,NativeIndexValue>
     @Override
     public void writeKey( PageCursor cursor, CompositeGenericKey key )
     {
-        key.write( cursor );
+        key.write( cursor, compressKeyPrefixes );
     }
 
     @Override
     public void readKey( PageCursor cursor, CompositeGenericKey into, int keySize )
     {
-        into.read( cursor, keySize );
+        into.read( cursor, keySize, compressKeyPrefixes );
     }
 
     @Override
@@ -134,6 +145,12 @@ class GenericLayout extends IndexLayout<CompositeGenericKey,NativeIndexValue>
         return false;
     }
 
+    @Override
+    public boolean compressKeyPrefixes()
+    {
+        return compressKeyPrefixes;
+    }
+
     @Override
     public void minimalSplitter( CompositeGenericKey left, CompositeGenericKey right, CompositeGenericKey into )
     {
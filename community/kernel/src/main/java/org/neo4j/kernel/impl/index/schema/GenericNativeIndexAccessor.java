@@ -52,7 +52,8 @@ class GenericNativeIndexAccessor extends NativeIndexAccessor<CompositeGenericKey
                 new SpaceFillingCurveSettingsWriter( spaceFillingCurveSettings ) );
         this.spaceFillingCurveSettings = spaceFillingCurveSettings;
         this.configuration = configuration;
-        instantiateTree( recoveryCleanupWorkCollector, headerWriter );
+        instantiateTreeAndStatistics( recoveryCleanupWorkCollector );
+        instantiateBloomFilter();
     }
 
     @Override
@@ -64,7 +65,7 @@ class GenericNativeIndexAccessor extends NativeIndexAccessor<CompositeGenericKey
     @Override
     public IndexReader newReader()
     {
-        return new GenericNativeIndexReader( tree, layout, samplingConfig, descriptor, spaceFillingCurveSettings, configuration );
+        return withSharedState( new GenericNativeIndexReader( tree, layout, samplingConfig, descriptor, spaceFillingCurveSettings, configuration ) );
     }
 
     @Override
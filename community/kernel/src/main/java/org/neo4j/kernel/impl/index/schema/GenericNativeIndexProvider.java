@@ -146,6 +146,17 @@ public class GenericNativeIndexProvider extends NativeIndexProvider<CompositeGen
 
     @Override
     GenericLayout layout( StoreIndexDescriptor descriptor, File storeFile )
+    {
+        return layout( descriptor, storeFile, true );
+    }
+
+    @Override
+    GenericLayout legacyLayout( StoreIndexDescriptor descriptor, File storeFile )
+    {
+        return layout( descriptor, storeFile, false );
+    }
+
+    private GenericLayout layout( StoreIndexDescriptor descriptor, File storeFile, boolean compressKeyPrefixes )
     {
         try
         {
@@ -159,7 +170,8 @@ public class GenericNativeIndexProvider extends NativeIndexProvider<CompositeGen
             {
                 // This is OK, it doesn't exist yet so just don't load any CRS settings from it
             }
-            return new GenericLayout( numberOfSlots, new IndexSpecificSpaceFillingCurveSettingsCache( configuredSettings, settings ) );
+            return new GenericLayout( numberOfSlots, new IndexSpecificSpaceFillingCurveSettingsCache( configuredSettings, settings ),
+                    compressKeyPrefixes );
         }
         catch ( IOException e )
         {
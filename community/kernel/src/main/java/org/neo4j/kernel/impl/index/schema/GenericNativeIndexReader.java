@@ -120,6 +120,17 @@ class GenericNativeIndexReader extends NativeIndexReader<CompositeGenericKey,Nat
         }
     }
 
+    @Override
+    public List<Partition> partitionedQuery( int desiredNumberOfPartitions, boolean needsValues, IndexQuery... predicates )
+    {
+        // A geometry range is seeked as multiple sub-ranges, which isn't partitioned
+        if ( getGeometryRangePredicateIfAny( predicates ) != null )
+        {
+            return singlePartition( needsValues, predicates );
+        }
+        return super.partitionedQuery( desiredNumberOfPartitions, needsValues, predicates );
+    }
+
     /**
      * Initializes {@code treeKeyFrom} and {@code treeKeyTo} from the {@link IndexQuery query}.
      * Geometry range queries makes an otherwise straight-forward key construction complex in that a geometry range internally is performed
@@ -0,0 +1,450 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import org.neo4j.cursor.RawCursor;
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Hit;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.DELETE_ON_CLOSE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+
+/**
+ * External sort of index keys, used to turn the keys of a store scan into the sorted input of
+ * {@link GBPTree#bulkLoad(RawCursor)}.
+ * <p>
+ * Keys are collected in an in-memory buffer. Every time the buffer is full it's sorted and spilled to a temporary file
+ * as a sorted run. {@link #sorted()} merges all runs, together with the keys still in the buffer, into one sorted
+ * stream. The temporary file is mapped through the {@link PageCache}, entries never span pages, and it's deleted on
+ * {@link #close()}.
+ * <p>
+ * Every run being merged keeps a page pinned, so no more than {@code mergeFactor} runs are merged at the same time.
+ * If there are more runs than that, groups of runs are first merged into longer runs, in as many passes as needed.
+ * Merged runs are appended to the temporary file and the pages of the runs they were merged from are not reused.
+ * <p>
+ * Only keys are kept, since {@link NativeIndexValue values} of native indexes carry no data.
+ */
+class IndexKeySorter<KEY extends NativeIndexKey<KEY>, VALUE extends NativeIndexValue> implements Closeable
+{
+    private static final int END_OF_PAGE = -1;
+    private static final int INITIAL_BUFFER_SIZE = 1_000;
+
+    private final PageCache pageCache;
+    private final File spillFile;
+    private final IndexLayout<KEY,VALUE> layout;
+    private final int maxBufferSize;
+    private final int mergeFactor;
+    private KEY[] buffer;
+    private final List<Run> runs = new ArrayList<>();
+    private int bufferedKeys;
+    private PagedFile spill;
+    private long nextRunPageId;
+
+    @SuppressWarnings( "unchecked" )
+    IndexKeySorter( PageCache pageCache, File spillFile, IndexLayout<KEY,VALUE> layout, int bufferSize, int mergeFactor )
+    {
+        if ( mergeFactor < 2 )
+        {
+            throw new IllegalArgumentException( "Merge factor must be at least 2, but was " + mergeFactor );
+        }
+        this.pageCache = pageCache;
+        this.spillFile = spillFile;
+        this.layout = layout;
+        this.maxBufferSize = bufferSize;
+        this.mergeFactor = mergeFactor;
+        this.buffer = (KEY[]) new NativeIndexKey[Math.min( INITIAL_BUFFER_SIZE, bufferSize )];
+    }
+
+    /**
+     * Adds a key to be sorted, spilling the keys added so far to disk if the buffer is full.
+     *
+     * @param key key to add. This sorter takes ownership of the key instance.
+     * @throws IOException on error spilling to disk.
+     */
+    void add( KEY key ) throws IOException
+    {
+        if ( bufferedKeys == buffer.length )
+        {
+            if ( buffer.length < maxBufferSize )
+            {
+                buffer = Arrays.copyOf( buffer, (int) Math.min( buffer.length * 2L, maxBufferSize ) );
+            }
+            else
+            {
+                spill();
+            }
+        }
+        buffer[bufferedKeys++] = key;
+    }
+
+    /**
+     * @return all added keys in sorted order, as hits with {@link IndexLayout#newValue() empty values}.
+     * @throws IOException on error reading spilled keys.
+     */
+    RawCursor<Hit<KEY,VALUE>,IOException> sorted() throws IOException
+    {
+        Arrays.sort( buffer, 0, bufferedKeys, layout );
+        // Leave room for the buffer in the last merge
+        while ( runs.size() >= mergeFactor )
+        {
+            mergePass();
+        }
+
+        List<Source> sources = new ArrayList<>( runs.size() + 1 );
+        sources.add( new BufferSource() );
+        openRuns( runs, sources );
+        return new MergingCursor( new MergingSource( sources ) );
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        Arrays.fill( buffer, 0, bufferedKeys, null );
+        bufferedKeys = 0;
+        runs.clear();
+        if ( spill != null )
+        {
+            spill.close();
+            spill = null;
+        }
+    }
+
+    private void spill() throws IOException
+    {
+        Arrays.sort( buffer, 0, bufferedKeys, layout );
+        runs.add( writeRun( new BufferSource() ) );
+        Arrays.fill( buffer, 0, bufferedKeys, null );
+        bufferedKeys = 0;
+    }
+
+    /**
+     * Merges runs in groups of {@link #mergeFactor}, replacing each group with the merged run.
+     */
+    private void mergePass() throws IOException
+    {
+        List<Run> mergedRuns = new ArrayList<>();
+        for ( int i = 0; i < runs.size(); i += mergeFactor )
+        {
+            List<Run> group = runs.subList( i, Math.min( i + mergeFactor, runs.size() ) );
+            if ( group.size() == 1 )
+            {
+                mergedRuns.add( group.get( 0 ) );
+            }
+            else
+            {
+                List<Source> sources = new ArrayList<>( group.size() );
+                openRuns( group, sources );
+                try ( MergingSource merging = new MergingSource( sources ) )
+                {
+                    mergedRuns.add( writeRun( merging ) );
+                }
+            }
+        }
+        runs.clear();
+        runs.addAll( mergedRuns );
+    }
+
+    private void openRuns( List<Run> runsToOpen, List<Source> into ) throws IOException
+    {
+        try
+        {
+            for ( Run run : runsToOpen )
+            {
+                into.add( new RunSource( run ) );
+            }
+        }
+        catch ( IOException | RuntimeException e )
+        {
+            for ( Source source : into )
+            {
+                source.close();
+            }
+            throw e;
+        }
+    }
+
+    private Run writeRun( Source source ) throws IOException
+    {
+        if ( spill == null )
+        {
+            spill = pageCache.map( spillFile, pageCache.pageSize(), CREATE, TRUNCATE_EXISTING, DELETE_ON_CLOSE );
+        }
+
+        int pageSize = spill.pageSize();
+        long startPageId = nextRunPageId;
+        long keyCount = 0;
+        try ( PageCursor cursor = spill.io( startPageId, PF_SHARED_WRITE_LOCK ) )
+        {
+            nextPage( cursor );
+            while ( source.next() )
+            {
+                KEY key = source.key();
+                int keySize = layout.keySize( key );
+                if ( cursor.getOffset() + Integer.BYTES + keySize > pageSize )
+                {
+                    if ( cursor.getOffset() + Integer.BYTES <= pageSize )
+                    {
+                        cursor.putInt( END_OF_PAGE );
+                    }
+                    nextPage( cursor );
+                }
+                cursor.putInt( keySize );
+                layout.writeKey( cursor, key );
+                keyCount++;
+            }
+            nextRunPageId = cursor.getCurrentPageId() + 1;
+        }
+        return new Run( startPageId, keyCount );
+    }
+
+    private void nextPage( PageCursor cursor ) throws IOException
+    {
+        if ( !cursor.next() )
+        {
+            throw new IllegalStateException( "Could not move to the next page of " + spillFile );
+        }
+    }
+
+    private static class Run
+    {
+        private final long startPageId;
+        private final long keyCount;
+
+        Run( long startPageId, long keyCount )
+        {
+            this.startPageId = startPageId;
+            this.keyCount = keyCount;
+        }
+    }
+
+    private abstract class Source implements Closeable
+    {
+        abstract boolean next() throws IOException;
+
+        abstract KEY key();
+    }
+
+    private class BufferSource extends Source
+    {
+        private int pos = -1;
+
+        @Override
+        boolean next()
+        {
+            return ++pos < bufferedKeys;
+        }
+
+        @Override
+        KEY key()
+        {
+            return buffer[pos];
+        }
+
+        @Override
+        public void close()
+        {
+        }
+    }
+
+    private class RunSource extends Source
+    {
+        private final PageCursor cursor;
+        private final KEY key = layout.newKey();
+        private long remaining;
+
+        RunSource( Run run ) throws IOException
+        {
+            this.cursor = spill.io( run.startPageId, PF_SHARED_READ_LOCK );
+            this.remaining = run.keyCount;
+            nextPage( cursor );
+        }
+
+        @Override
+        boolean next() throws IOException
+        {
+            if ( remaining == 0 )
+            {
+                return false;
+            }
+            while ( !readKey() )
+            {
+                nextPage( cursor );
+            }
+            remaining--;
+            return true;
+        }
+
+        /**
+         * @return {@code true} if a key was read, or {@code false} if there are no more keys on the current page.
+         */
+        private boolean readKey() throws IOException
+        {
+            int pageSize = cursor.getCurrentPageSize();
+            int offset = cursor.getOffset();
+            boolean endOfPage;
+            do
+            {
+                cursor.setOffset( offset );
+                endOfPage = offset + Integer.BYTES > pageSize;
+                if ( !endOfPage )
+                {
+                    int keySize = cursor.getInt();
+                    endOfPage = keySize == END_OF_PAGE;
+                    if ( !endOfPage )
+                    {
+                        if ( keySize <= 0 || cursor.getOffset() + keySize > pageSize )
+                        {
+                            cursor.setCursorException( "Unexpected key size " + keySize + " at offset " + offset );
+                        }
+                        else
+                        {
+                            layout.readKey( cursor, key, keySize );
+                        }
+                    }
+                }
+            }
+            while ( cursor.shouldRetry() );
+            if ( cursor.checkAndClearBoundsFlag() )
+            {
+                throw new IllegalStateException( "Read out of bounds at offset " + offset + " in " + spillFile );
+            }
+            cursor.checkAndClearCursorException();
+            return !endOfPage;
+        }
+
+        @Override
+        KEY key()
+        {
+            return key;
+        }
+
+        @Override
+        public void close()
+        {
+            cursor.close();
+        }
+    }
+
+    private class MergingSource extends Source
+    {
+        private final List<Source> sources;
+        private final PriorityQueue<Source> queue;
+        private Source current;
+        private boolean initialized;
+
+        MergingSource( List<Source> sources )
+        {
+            this.sources = sources;
+            this.queue = new PriorityQueue<>( sources.size(), ( a, b ) -> layout.compare( a.key(), b.key() ) );
+        }
+
+        @Override
+        boolean next() throws IOException
+        {
+            if ( !initialized )
+            {
+                for ( Source source : sources )
+                {
+                    if ( source.next() )
+                    {
+                        queue.add( source );
+                    }
+                }
+                initialized = true;
+            }
+            else if ( current != null && current.next() )
+            {
+                queue.add( current );
+            }
+            current = queue.poll();
+            return current != null;
+        }
+
+        @Override
+        KEY key()
+        {
+            return current.key();
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            for ( Source source : sources )
+            {
+                source.close();
+            }
+        }
+    }
+
+    private class MergingCursor implements RawCursor<Hit<KEY,VALUE>,IOException>, Hit<KEY,VALUE>
+    {
+        private final MergingSource source;
+        private final VALUE value = layout.newValue();
+
+        MergingCursor( MergingSource source )
+        {
+            this.source = source;
+        }
+
+        @Override
+        public boolean next() throws IOException
+        {
+            return source.next();
+        }
+
+        @Override
+        public Hit<KEY,VALUE> get()
+        {
+            return this;
+        }
+
+        @Override
+        public KEY key()
+        {
+            return source.key();
+        }
+
+        @Override
+        public VALUE value()
+        {
+            return value;
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            source.close();
+        }
+    }
+}
@@ -25,10 +25,12 @@ import java.io.UncheckedIOException;
 import java.util.function.Consumer;
 
 import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Header;
 import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
 import org.neo4j.io.IOUtils;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCacheOpenOptions;
 import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.kernel.api.index.IndexProvider;
 import org.neo4j.storageengine.api.schema.IndexDescriptor;
@@ -43,7 +45,7 @@ abstract class NativeIndex<KEY extends NativeIndexKey<KEY>, VALUE extends Native
     final IndexLayout<KEY,VALUE> layout;
     final FileSystemAbstraction fileSystem;
     final IndexDescriptor descriptor;
-    private final IndexProvider.Monitor monitor;
+    final IndexProvider.Monitor monitor;
 
     protected GBPTree<KEY,VALUE> tree;
 
@@ -59,10 +61,16 @@ abstract class NativeIndex<KEY extends NativeIndexKey<KEY>, VALUE extends Native
     }
 
     void instantiateTree( RecoveryCleanupWorkCollector recoveryCleanupWorkCollector, Consumer<PageCursor> headerWriter )
+    {
+        instantiateTree( recoveryCleanupWorkCollector, NO_HEADER_READER, headerWriter );
+    }
+
+    void instantiateTree( RecoveryCleanupWorkCollector recoveryCleanupWorkCollector, Header.Reader headerReader, Consumer<PageCursor> headerWriter )
     {
         ensureDirectoryExist();
         GBPTree.Monitor monitor = treeMonitor();
-        tree = new GBPTree<>( pageCache, storeFile, layout, 0, monitor, NO_HEADER_READER, headerWriter, recoveryCleanupWorkCollector );
+        tree = new GBPTree<>( pageCache, storeFile, layout, 0, monitor, headerReader, headerWriter, recoveryCleanupWorkCollector,
+                PageCacheOpenOptions.RESERVED );
         afterTreeInstantiation( tree );
     }
 
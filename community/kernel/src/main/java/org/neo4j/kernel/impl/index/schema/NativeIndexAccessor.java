@@ -26,6 +26,7 @@ import java.util.function.Consumer;
 
 import org.neo4j.graphdb.ResourceIterator;
 import org.neo4j.helpers.collection.BoundedIterable;
+import org.neo4j.index.internal.gbptree.GBPTree;
 import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.pagecache.IOLimiter;
@@ -38,17 +39,26 @@ import org.neo4j.kernel.impl.api.index.IndexUpdateMode;
 import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingConfig;
 import org.neo4j.storageengine.api.schema.IndexReader;
 import org.neo4j.storageengine.api.schema.StoreIndexDescriptor;
+import org.neo4j.util.FeatureToggles;
 
 import static org.neo4j.helpers.collection.Iterators.asResourceIterator;
 import static org.neo4j.helpers.collection.Iterators.iterator;
+import static org.neo4j.io.ByteUnit.mebiBytes;
 import static org.neo4j.kernel.impl.index.schema.NativeIndexPopulator.BYTE_ONLINE;
 
 public abstract class NativeIndexAccessor<KEY extends NativeIndexKey<KEY>, VALUE extends NativeIndexValue> extends NativeIndex<KEY,VALUE>
         implements IndexAccessor
 {
+    static final String BLOOM_FILTER_NAME = "bloom_filter";
+    static final String BLOOM_FILTER_MAX_SIZE_NAME = "bloom_filter_max_size";
+
+    private final boolean bloomFilterEnabled = FeatureToggles.flag( NativeIndexAccessor.class, BLOOM_FILTER_NAME, false );
+    private final long bloomFilterMaxSize = FeatureToggles.getLong( NativeIndexAccessor.class, BLOOM_FILTER_MAX_SIZE_NAME, mebiBytes( 8 ) );
     private final NativeIndexUpdater<KEY,VALUE> singleUpdater;
     final IndexSamplingConfig samplingConfig;
     final NativeIndexHeaderWriter headerWriter;
+    UniqueIndexBloomFilter<KEY,VALUE> bloomFilter;
+    NativeIndexStatistics statistics;
 
     NativeIndexAccessor( PageCache pageCache, FileSystemAbstraction fs, File storeFile, IndexLayout<KEY,VALUE> layout,
             RecoveryCleanupWorkCollector recoveryCleanupWorkCollector, IndexProvider.Monitor monitor, StoreIndexDescriptor descriptor,
@@ -74,13 +84,22 @@ public abstract class NativeIndexAccessor<KEY extends NativeIndexKey<KEY>, VALUE
         }
     }
 
+    /**
+     * Online updaters may be used by several committing transactions at the same time, see
+     * {@link org.neo4j.graphdb.factory.GraphDatabaseSettings#parallel_index_updates}, so each one gets its own
+     * {@link GBPTree#parallelWriter() parallel writer}. Recovery applies one batch of updates at a time, through the single writer.
+     */
     @Override
     public NativeIndexUpdater<KEY, VALUE> newUpdater( IndexUpdateMode mode )
     {
         assertOpen();
         try
         {
-            return singleUpdater.initialize( tree.writer() );
+            if ( mode == IndexUpdateMode.RECOVERY )
+            {
+                return singleUpdater.initialize( tree.writer(), bloomFilter, statistics );
+            }
+            return new NativeIndexUpdater<>( layout.newKey(), layout.newValue() ).initialize( tree.parallelWriter(), bloomFilter, statistics );
         }
         catch ( IOException e )
         {
@@ -88,10 +107,61 @@ public abstract class NativeIndexAccessor<KEY extends NativeIndexKey<KEY>, VALUE
         }
     }
 
+    /**
+     * Instantiates the tree along with the {@link NativeIndexStatistics} kept in its header, which are then kept up to date by the updater
+     * and written to the header at every checkpoint. Used instead of {@link #instantiateTree(RecoveryCleanupWorkCollector, Consumer)}
+     * by accessors whose {@link #newReader() readers} are created {@link #withSharedState(NativeIndexReader) with} the statistics.
+     */
+    void instantiateTreeAndStatistics( RecoveryCleanupWorkCollector recoveryCleanupWorkCollector )
+    {
+        NativeIndexStatistics statistics = new NativeIndexStatistics();
+        instantiateTree( recoveryCleanupWorkCollector, statistics::read, headerWriter );
+        this.statistics = statistics;
+    }
+
+    /**
+     * Keeps a {@link UniqueIndexBloomFilter} for a unique index, built from the entries in the tree, if enabled. Called after the tree
+     * has been instantiated by accessors whose {@link #newReader() readers} are created {@link #withSharedState(NativeIndexReader) with} the filter.
+     * The filter is kept within {@link #BLOOM_FILTER_MAX_SIZE_NAME a maximum size} and rebuilt, if needed, at checkpoints.
+     */
+    void instantiateBloomFilter()
+    {
+        if ( bloomFilterEnabled && descriptor.isUnique() )
+        {
+            bloomFilter = new UniqueIndexBloomFilter<>( tree, layout, storeFile, descriptor, monitor, bloomFilterMaxSize );
+            bloomFilter.rebuild();
+        }
+    }
+
+    /**
+     * Hands the {@link UniqueIndexBloomFilter} and {@link NativeIndexStatistics} of this accessor, if any, to a new reader.
+     */
+    <READER extends NativeIndexReader<KEY,VALUE>> READER withSharedState( READER reader )
+    {
+        reader.setBloomFilter( bloomFilter );
+        reader.setStatistics( statistics );
+        return reader;
+    }
+
     @Override
     public void force( IOLimiter ioLimiter )
     {
-        tree.checkpoint( ioLimiter );
+        if ( statistics != null )
+        {
+            tree.checkpoint( ioLimiter, cursor ->
+            {
+                headerWriter.accept( cursor );
+                statistics.writeTo( cursor );
+            } );
+        }
+        else
+        {
+            tree.checkpoint( ioLimiter );
+        }
+        if ( bloomFilter != null )
+        {
+            bloomFilter.rebuildIfNeeded();
+        }
     }
 
     @Override
@@ -28,10 +28,13 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.NoSuchFileException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.function.Consumer;
 
+import org.neo4j.cursor.RawCursor;
 import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Hit;
 import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
 import org.neo4j.index.internal.gbptree.Writer;
 import org.neo4j.io.fs.FileSystemAbstraction;
@@ -49,8 +52,10 @@ import org.neo4j.kernel.impl.api.index.sampling.UniqueIndexSampler;
 import org.neo4j.storageengine.api.schema.IndexReader;
 import org.neo4j.storageengine.api.schema.IndexSample;
 import org.neo4j.storageengine.api.schema.StoreIndexDescriptor;
+import org.neo4j.util.FeatureToggles;
 import org.neo4j.util.concurrent.Work;
 import org.neo4j.util.concurrent.WorkSync;
+import org.neo4j.values.storable.ValueTuple;
 
 import static org.neo4j.index.internal.gbptree.GBPTree.NO_HEADER_WRITER;
 import static org.neo4j.storageengine.api.schema.IndexDescriptor.Type.GENERAL;
@@ -58,6 +63,14 @@ import static org.neo4j.storageengine.api.schema.IndexDescriptor.Type.UNIQUE;
 
 /**
  * {@link IndexPopulator} backed by a {@link GBPTree}.
+ * <p>
+ * Entries from the scan over existing data are not inserted one by one, but sorted, spilling to disk if there are many,
+ * and {@link GBPTree#bulkLoad(RawCursor) bulk loaded} into the tree when the {@link #scanCompleted() scan is completed}.
+ * Updates coming in through {@link #newPopulatingUpdater(NodePropertyAccessor) populating updaters} during the scan
+ * are kept until the bulk load is done and then applied on top of it, in the order they came in, by the next populating
+ * updater or when {@link #verifyDeferredConstraints(NodePropertyAccessor) verifying} or {@link #close(boolean) closing}.
+ * If too many updates come in during the scan the entries scanned so far are bulk loaded right away, and the rest of
+ * the scan entries are inserted one by one, by {@link GBPTree#parallelWriter() parallel writers}.
  *
  * @param <KEY> type of {@link NativeIndexSingleValueKey}.
  * @param <VALUE> type of {@link NativeIndexValue}.
@@ -68,6 +81,13 @@ public abstract class NativeIndexPopulator<KEY extends NativeIndexKey<KEY>, VALU
     public static final byte BYTE_FAILED = 0;
     static final byte BYTE_ONLINE = 1;
     static final byte BYTE_POPULATING = 2;
+    static final String SORT_BUFFER_SIZE_NAME = "sort_buffer_size";
+    static final String SORT_MERGE_FACTOR_NAME = "sort_merge_factor";
+    static final String DEFERRED_UPDATES_LIMIT_NAME = "deferred_updates_limit";
+
+    private final int sortBufferSize = FeatureToggles.getInteger( NativeIndexPopulator.class, SORT_BUFFER_SIZE_NAME, 50_000 );
+    private final int sortMergeFactor = FeatureToggles.getInteger( NativeIndexPopulator.class, SORT_MERGE_FACTOR_NAME, 64 );
+    private final int deferredUpdatesLimit = FeatureToggles.getInteger( NativeIndexPopulator.class, DEFERRED_UPDATES_LIMIT_NAME, 100_000 );
 
     private final KEY treeKey;
     private final VALUE treeValue;
@@ -75,8 +95,11 @@ public abstract class NativeIndexPopulator<KEY extends NativeIndexKey<KEY>, VALU
     final IndexSamplingConfig samplingConfig;
     private final Consumer<PageCursor> additionalHeaderWriter;
 
-    private WorkSync<IndexUpdateApply<KEY,VALUE>,IndexUpdateWork<KEY,VALUE>> additionsWorkSync;
     private WorkSync<IndexUpdateApply<KEY,VALUE>,IndexUpdateWork<KEY,VALUE>> updatesWorkSync;
+    private IndexKeySorter<KEY,VALUE> scanSorter;
+    private List<IndexEntryUpdate<?>> deferredUpdates;
+    private volatile boolean bulkLoaded;
+    private volatile boolean deferringUpdates;
 
     private byte[] failureBytes;
     private boolean dropped;
@@ -122,14 +145,16 @@ public abstract class NativeIndexPopulator<KEY extends NativeIndexKey<KEY>, VALU
         deleteFileIfPresent( fileSystem, storeFile );
         instantiateTree( RecoveryCleanupWorkCollector.immediate(), headerWriter );
 
-        // true:  tree uniqueness is (value,entityId)
-        // false: tree uniqueness is (value) <-- i.e. more strict
-        boolean compareIds = descriptor.type() == GENERAL;
-        additionsWorkSync = new WorkSync<>( new IndexUpdateApply<>( tree, treeKey, treeValue, new ConflictDetectingValueMerger<>( compareIds ) ) );
-
         // for updates we have to have uniqueness on (value,entityId) to allow for intermediary violating updates.
         // there are added conflict checks after updates have been applied.
         updatesWorkSync = new WorkSync<>( new IndexUpdateApply<>( tree, treeKey, treeValue, new ConflictDetectingValueMerger<>( true ) ) );
+
+        closeScanSorter();
+        scanSorter = new IndexKeySorter<>( pageCache, new File( storeFile.getParentFile(), storeFile.getName() + ".scan" ), layout, sortBufferSize,
+                sortMergeFactor );
+        deferredUpdates = new ArrayList<>();
+        bulkLoaded = false;
+        deferringUpdates = true;
     }
 
     @Override
@@ -137,6 +162,7 @@ public abstract class NativeIndexPopulator<KEY extends NativeIndexKey<KEY>, VALU
     {
         try
         {
+            closeScanSorter();
             closeTree();
             deleteFileIfPresent( fileSystem, storeFile );
         }
@@ -150,17 +176,133 @@ public abstract class NativeIndexPopulator<KEY extends NativeIndexKey<KEY>, VALU
     @Override
     public void add( Collection<? extends IndexEntryUpdate<?>> updates ) throws IndexEntryConflictException
     {
-        applyWithWorkSync( additionsWorkSync, updates );
+        if ( bulkLoaded || !addToScanSorter( updates ) )
+        {
+            applyWithParallelWriter( updates );
+        }
+    }
+
+    /**
+     * Scan batches are added from multiple threads, so the batches added after the {@link #bulkLoad() bulk load} are written by
+     * {@link GBPTree#parallelWriter() parallel writers} instead of one batch at a time. Every entity is in only one scan batch,
+     * so the order in which the batches are written doesn't matter.
+     */
+    private void applyWithParallelWriter( Collection<? extends IndexEntryUpdate<?>> updates ) throws IndexEntryConflictException
+    {
+        KEY key = layout.newKey();
+        VALUE value = layout.newValue();
+        // true:  tree uniqueness is (value,entityId)
+        // false: tree uniqueness is (value) <-- i.e. more strict
+        boolean compareIds = descriptor.type() == GENERAL;
+        ConflictDetectingValueMerger<KEY,VALUE> conflictDetectingValueMerger = new ConflictDetectingValueMerger<>( compareIds );
+        try ( Writer<KEY,VALUE> writer = tree.parallelWriter() )
+        {
+            for ( IndexEntryUpdate<?> update : updates )
+            {
+                NativeIndexUpdater.processUpdate( key, value, update, writer, conflictDetectingValueMerger );
+            }
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    /**
+     * @return {@code true} if the updates were added to the scan sorter, or {@code false} if the scan entries have already been bulk loaded.
+     */
+    private boolean addToScanSorter( Collection<? extends IndexEntryUpdate<?>> updates )
+    {
+        // Keys are created outside of the lock, so that batches from multiple threads only contend on the sorter itself
+        List<KEY> keys = new ArrayList<>( updates.size() );
+        for ( IndexEntryUpdate<?> update : updates )
+        {
+            KEY key = layout.newKey();
+            NativeIndexUpdater.initializeKeyFromUpdate( key, update.getEntityId(), update.values() );
+            keys.add( key );
+        }
+
+        synchronized ( this )
+        {
+            if ( bulkLoaded )
+            {
+                return false;
+            }
+            assertNotClosed();
+            try
+            {
+                for ( KEY key : keys )
+                {
+                    scanSorter.add( key );
+                }
+            }
+            catch ( IOException e )
+            {
+                throw new UncheckedIOException( e );
+            }
+            return true;
+        }
+    }
+
+    @Override
+    public synchronized void scanCompleted() throws IndexEntryConflictException
+    {
+        assertNotClosed();
+        bulkLoad();
+    }
+
+    private void bulkLoad() throws IndexEntryConflictException
+    {
+        if ( bulkLoaded )
+        {
+            return;
+        }
+        bulkLoaded = true;
+
+        try
+        {
+            bulkLoadScanEntries();
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+        finally
+        {
+            closeScanSorter();
+        }
+    }
+
+    private void bulkLoadScanEntries() throws IOException, IndexEntryConflictException
+    {
+        try ( ScanEntries scanEntries = new ScanEntries( scanSorter.sorted() ) )
+        {
+            tree.bulkLoad( scanEntries );
+            if ( scanEntries.conflict != null )
+            {
+                throw scanEntries.conflict;
+            }
+        }
     }
 
     @Override
-    public void verifyDeferredConstraints( NodePropertyAccessor nodePropertyAccessor )
+    public void verifyDeferredConstraints( NodePropertyAccessor nodePropertyAccessor ) throws IndexEntryConflictException
     {
-        // No-op, uniqueness is checked for each update in add(IndexEntryUpdate)
+        // Uniqueness is checked for the scanned entries when the scan is completed and for each update in add(IndexEntryUpdate) after that
+        synchronized ( this )
+        {
+            scanCompleted();
+            applyDeferredUpdates();
+        }
     }
 
     @Override
     public IndexUpdater newPopulatingUpdater( NodePropertyAccessor accessor )
+    {
+        return newPopulatingUpdater();
+    }
+
+    private IndexUpdater newPopulatingUpdater()
     {
         IndexUpdater updater = new IndexUpdater()
         {
@@ -177,7 +319,10 @@ public abstract class NativeIndexPopulator<KEY extends NativeIndexKey<KEY>, VALU
             @Override
             public void close() throws IndexEntryConflictException
             {
-                applyWithWorkSync( updatesWorkSync, updates );
+                if ( !deferringUpdates || !deferUntilBulkLoaded( updates ) )
+                {
+                    applyWithWorkSync( updatesWorkSync, updates );
+                }
                 closed = true;
             }
 
@@ -199,6 +344,55 @@ public abstract class NativeIndexPopulator<KEY extends NativeIndexKey<KEY>, VALU
         return updater;
     }
 
+    /**
+     * @return {@code true} if the updates were kept to be applied when the scan entries have been bulk loaded, or {@code false} if that
+     * has already happened, in which case the updates kept so far have been applied and these updates can be applied too.
+     */
+    private synchronized boolean deferUntilBulkLoaded( Collection<IndexEntryUpdate<?>> updates ) throws IndexEntryConflictException
+    {
+        if ( !deferringUpdates )
+        {
+            return false;
+        }
+        assertNotClosed();
+        if ( bulkLoaded )
+        {
+            applyDeferredUpdates();
+            return false;
+        }
+
+        deferredUpdates.addAll( updates );
+        if ( deferredUpdates.size() >= deferredUpdatesLimit )
+        {
+            // Too many updates to keep in memory, so the rest of the scan entries are inserted one by one instead
+            bulkLoad();
+            applyDeferredUpdates();
+        }
+        return true;
+    }
+
+    private void applyDeferredUpdates() throws IndexEntryConflictException
+    {
+        if ( !deferringUpdates )
+        {
+            return;
+        }
+        deferringUpdates = false;
+
+        List<IndexEntryUpdate<?>> updates = deferredUpdates;
+        deferredUpdates = null;
+        if ( !updates.isEmpty() )
+        {
+            try ( IndexUpdater updater = newPopulatingUpdater() )
+            {
+                for ( IndexEntryUpdate<?> update : updates )
+                {
+                    updater.process( update );
+                }
+            }
+        }
+    }
+
     abstract IndexReader newReader();
 
     @Override
@@ -214,10 +408,12 @@ public abstract class NativeIndexPopulator<KEY extends NativeIndexKey<KEY>, VALU
             if ( populationCompletedSuccessfully )
             {
                 assertPopulatorOpen();
+                completeScan();
                 markTreeAsOnline();
             }
             else
             {
+                closeScanSorter();
                 assertNotDropped();
                 ensureTreeInstantiated();
                 markTreeAsFailed();
@@ -230,6 +426,38 @@ public abstract class NativeIndexPopulator<KEY extends NativeIndexKey<KEY>, VALU
         }
     }
 
+    private void completeScan()
+    {
+        try
+        {
+            scanCompleted();
+            applyDeferredUpdates();
+        }
+        catch ( IndexEntryConflictException e )
+        {
+            throw new IllegalStateException( "Entries of unique index " + descriptor + " have conflicting values", e );
+        }
+    }
+
+    private void closeScanSorter()
+    {
+        if ( scanSorter != null )
+        {
+            try
+            {
+                scanSorter.close();
+            }
+            catch ( IOException e )
+            {
+                throw new UncheckedIOException( e );
+            }
+            finally
+            {
+                scanSorter = null;
+            }
+        }
+    }
+
     private void applyWithWorkSync( WorkSync<IndexUpdateApply<KEY,VALUE>,IndexUpdateWork<KEY,VALUE>> workSync,
             Collection<? extends IndexEntryUpdate<?>> updates ) throws IndexEntryConflictException
     {
@@ -304,6 +532,61 @@ public abstract class NativeIndexPopulator<KEY extends NativeIndexKey<KEY>, VALU
         tree.checkpoint( IOLimiter.UNLIMITED, new NativeIndexHeaderWriter( BYTE_ONLINE, additionalHeaderWriter ) );
     }
 
+    /**
+     * Sorted scan entries, where entries that are added more than once are only included once.
+     * For unique indexes this stops at the first pair of entries with the same value but different entity ids,
+     * making that {@link #conflict} available after the cursor is exhausted.
+     */
+    private class ScanEntries implements RawCursor<Hit<KEY,VALUE>,IOException>
+    {
+        private final RawCursor<Hit<KEY,VALUE>,IOException> sorted;
+        private final KEY previousKey = layout.newKey();
+        private boolean hasPrevious;
+        private IndexEntryConflictException conflict;
+
+        ScanEntries( RawCursor<Hit<KEY,VALUE>,IOException> sorted )
+        {
+            this.sorted = sorted;
+        }
+
+        @Override
+        public boolean next() throws IOException
+        {
+            while ( conflict == null && sorted.next() )
+            {
+                KEY key = sorted.get().key();
+                if ( hasPrevious )
+                {
+                    if ( layout.compare( previousKey, key ) == 0 )
+                    {
+                        continue;
+                    }
+                    if ( descriptor.type() == UNIQUE && layout.compareValue( previousKey, key ) == 0 )
+                    {
+                        conflict = new IndexEntryConflictException( previousKey.getEntityId(), key.getEntityId(), ValueTuple.of( key.asValues() ) );
+                        return false;
+                    }
+                }
+                layout.copyKey( key, previousKey );
+                hasPrevious = true;
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public Hit<KEY,VALUE> get()
+        {
+            return sorted.get();
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            sorted.close();
+        }
+    }
+
     static class IndexUpdateApply<KEY extends NativeIndexKey<KEY>, VALUE extends NativeIndexValue>
     {
         private final GBPTree<KEY,VALUE> tree;
@@ -395,6 +678,7 @@ public abstract class NativeIndexPopulator<KEY extends NativeIndexKey<KEY>, VALU
         switch ( descriptor.type() )
         {
         case GENERAL:
+            completeScan();
             return new FullScanNonUniqueIndexSampler<>( tree, layout ).result();
         case UNIQUE:
             return uniqueSampler.result();
@@ -403,7 +687,7 @@ public abstract class NativeIndexPopulator<KEY extends NativeIndexKey<KEY>, VALU
         }
     }
 
-    private static void deleteFileIfPresent( FileSystemAbstraction fs, File storeFile )
+    static void deleteFileIfPresent( FileSystemAbstraction fs, File storeFile )
     {
         try
         {
@@ -21,8 +21,10 @@ package org.neo4j.kernel.impl.index.schema;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 
 import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Layout;
 import org.neo4j.index.internal.gbptree.MetadataMismatchException;
 import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
 import org.neo4j.internal.kernel.api.InternalIndexState;
@@ -66,6 +68,16 @@ abstract class NativeIndexProvider<KEY extends NativeIndexKey<KEY>,VALUE extends
 
     abstract LAYOUT layout( StoreIndexDescriptor descriptor, File storeFile );
 
+    /**
+     * Layout of indexes created before keys were laid out for {@link Layout#compressKeyPrefixes() prefix compression},
+     * or {@code null} if there are no such indexes. Those indexes are still opened with the layout they were created with,
+     * only new indexes get the layout from {@link #layout(StoreIndexDescriptor, File)}.
+     */
+    LAYOUT legacyLayout( StoreIndexDescriptor descriptor, File storeFile )
+    {
+        return null;
+    }
+
     @Override
     public IndexPopulator getPopulator( StoreIndexDescriptor descriptor, IndexSamplingConfig samplingConfig )
     {
@@ -85,7 +97,7 @@ abstract class NativeIndexProvider<KEY extends NativeIndexKey<KEY>,VALUE extends
     public IndexAccessor getOnlineAccessor( StoreIndexDescriptor descriptor, IndexSamplingConfig samplingConfig ) throws IOException
     {
         File storeFile = nativeIndexFileFromIndexId( descriptor.getId() );
-        return newIndexAccessor( storeFile, layout( descriptor, storeFile ), descriptor, samplingConfig );
+        return newIndexAccessor( storeFile, existingLayout( descriptor, storeFile ), descriptor, samplingConfig );
     }
 
     protected abstract IndexAccessor newIndexAccessor( File storeFile, LAYOUT layout, StoreIndexDescriptor descriptor,
@@ -114,9 +126,11 @@ abstract class NativeIndexProvider<KEY extends NativeIndexKey<KEY>,VALUE extends
     {
         try
         {
-            return NativeIndexes.readState( pageCache, nativeIndexFileFromIndexId( descriptor.getId() ) );
+            // Verify the layout too, an index created with a layout that can't be opened needs to be populated again
+            File storeFile = nativeIndexFileFromIndexId( descriptor.getId() );
+            return NativeIndexes.readState( pageCache, storeFile, existingLayout( descriptor, storeFile ) );
         }
-        catch ( MetadataMismatchException | IOException e )
+        catch ( MetadataMismatchException | IOException | UncheckedIOException e )
         {
             monitor.failedToOpenIndex( descriptor, "Requesting re-population.", e );
             return InternalIndexState.POPULATING;
@@ -131,6 +145,16 @@ abstract class NativeIndexProvider<KEY extends NativeIndexKey<KEY>,VALUE extends
         return StoreMigrationParticipant.NOT_PARTICIPATING;
     }
 
+    private LAYOUT existingLayout( StoreIndexDescriptor descriptor, File storeFile ) throws IOException
+    {
+        LAYOUT legacyLayout = legacyLayout( descriptor, storeFile );
+        if ( legacyLayout != null && NativeIndexes.createdWith( pageCache, storeFile, legacyLayout ) )
+        {
+            return legacyLayout;
+        }
+        return layout( descriptor, storeFile );
+    }
+
     private File nativeIndexFileFromIndexId( long indexId )
     {
         return new File( directoryStructure().directoryForIndex( indexId ), indexFileName( indexId ) );
@@ -21,8 +21,10 @@ package org.neo4j.kernel.impl.index.schema;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.neo4j.collection.PrimitiveLongResourceIterator;
 import org.neo4j.cursor.RawCursor;
@@ -33,11 +35,13 @@ import org.neo4j.internal.kernel.api.IndexQuery;
 import org.neo4j.io.IOUtils;
 import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingConfig;
 import org.neo4j.storageengine.api.schema.IndexDescriptor;
+import org.neo4j.storageengine.api.schema.IndexHistogram;
 import org.neo4j.storageengine.api.schema.IndexProgressor;
 import org.neo4j.storageengine.api.schema.IndexReader;
 import org.neo4j.storageengine.api.schema.IndexSampler;
 import org.neo4j.values.storable.Value;
 
+import static java.util.Collections.singletonList;
 import static org.neo4j.kernel.impl.index.schema.NativeIndexKey.Inclusion.NEUTRAL;
 
 abstract class NativeIndexReader<KEY extends NativeIndexKey<KEY>, VALUE extends NativeIndexValue>
@@ -48,6 +52,8 @@ abstract class NativeIndexReader<KEY extends NativeIndexKey<KEY>, VALUE extends
     final Set<RawCursor<Hit<KEY,VALUE>,IOException>> openSeekers;
     private final GBPTree<KEY,VALUE> tree;
     private final IndexSamplingConfig samplingConfig;
+    private UniqueIndexBloomFilter<KEY,VALUE> bloomFilter;
+    private NativeIndexStatistics statistics;
 
     NativeIndexReader( GBPTree<KEY,VALUE> tree, IndexLayout<KEY,VALUE> layout,
             IndexSamplingConfig samplingConfig,
@@ -57,7 +63,24 @@ abstract class NativeIndexReader<KEY extends NativeIndexKey<KEY>, VALUE extends
         this.layout = layout;
         this.samplingConfig = samplingConfig;
         this.descriptor = descriptor;
-        this.openSeekers = new HashSet<>();
+        // Progressors of a partitioned query may be closed from different threads
+        this.openSeekers = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * @param bloomFilter {@link UniqueIndexBloomFilter} to answer exact lookups of tuples which aren't in the index, or {@code null}.
+     */
+    void setBloomFilter( UniqueIndexBloomFilter<KEY,VALUE> bloomFilter )
+    {
+        this.bloomFilter = bloomFilter;
+    }
+
+    /**
+     * @param statistics {@link NativeIndexStatistics} to sample the index from, or {@code null} to always sample by scanning the index.
+     */
+    void setStatistics( NativeIndexStatistics statistics )
+    {
+        this.statistics = statistics;
     }
 
     @Override
@@ -68,6 +91,17 @@ abstract class NativeIndexReader<KEY extends NativeIndexKey<KEY>, VALUE extends
 
     @Override
     public IndexSampler createSampler()
+    {
+        if ( statistics == null )
+        {
+            return createFullScanSampler();
+        }
+        // Statistics not yet known will be known after a full scan
+        return () -> statistics.isKnown() ? statistics.sample( descriptor.isUnique() ) : createFullScanSampler().sampleIndex();
+    }
+
+    @Override
+    public IndexSampler createFullScanSampler()
     {
         // For a unique index there's an optimization, knowing that all values in it are unique, to simply count
         // the number of indexed values and create a sample for that count. The GBPTree doesn't have an O(1)
@@ -76,10 +110,16 @@ abstract class NativeIndexReader<KEY extends NativeIndexKey<KEY>, VALUE extends
         // non-unique sampler which scans the index and counts (potentially duplicates, of which there will
         // be none in a unique index).
 
-        FullScanNonUniqueIndexSampler<KEY,VALUE> sampler = new FullScanNonUniqueIndexSampler<>( tree, layout );
+        FullScanNonUniqueIndexSampler<KEY,VALUE> sampler = new FullScanNonUniqueIndexSampler<>( tree, layout, statistics );
         return sampler::result;
     }
 
+    @Override
+    public IndexHistogram histogram()
+    {
+        return statistics != null ? statistics.histogram() : null;
+    }
+
     @Override
     public long countIndexedNodes( long nodeId, int[] propertyKeyIds, Value... propertyValues )
     {
@@ -123,6 +163,11 @@ abstract class NativeIndexReader<KEY extends NativeIndexKey<KEY>, VALUE extends
     public void query( IndexProgressor.NodeValueClient cursor, IndexOrder indexOrder, boolean needsValues, IndexQuery... predicates )
     {
         validateQuery( indexOrder, predicates );
+        if ( bloomFilter != null && bloomFilter.covers( predicates ) && !bloomFilter.mightContain( predicates ) )
+        {
+            cursor.initialize( descriptor, IndexProgressor.EMPTY, predicates, needsValues );
+            return;
+        }
 
         KEY treeKeyFrom = layout.newKey();
         KEY treeKeyTo = layout.newKey();
@@ -132,6 +177,50 @@ abstract class NativeIndexReader<KEY extends NativeIndexKey<KEY>, VALUE extends
         startSeekForInitializedRange( cursor, treeKeyFrom, treeKeyTo, predicates, needFilter, needsValues );
     }
 
+    /**
+     * Splits the range matching the given predicates into partitions, see {@link GBPTree#partitionedSeek(Object, Object, int)}.
+     */
+    @Override
+    public List<Partition> partitionedQuery( int desiredNumberOfPartitions, boolean needsValues, IndexQuery... predicates )
+    {
+        validateQuery( IndexOrder.NONE, predicates );
+
+        KEY treeKeyFrom = layout.newKey();
+        KEY treeKeyTo = layout.newKey();
+        initializeFromToKeys( treeKeyFrom, treeKeyTo );
+
+        boolean needFilter = initializeRangeForQuery( treeKeyFrom, treeKeyTo, predicates );
+        if ( isBackwardsSeek( treeKeyFrom, treeKeyTo ) )
+        {
+            return singletonList( client -> client.initialize( descriptor, IndexProgressor.EMPTY, predicates, needsValues ) );
+        }
+        try
+        {
+            List<RawCursor<Hit<KEY,VALUE>,IOException>> seekers = tree.partitionedSeek( treeKeyFrom, treeKeyTo, desiredNumberOfPartitions );
+            openSeekers.addAll( seekers );
+            List<Partition> partitions = new ArrayList<>( seekers.size() );
+            for ( RawCursor<Hit<KEY,VALUE>,IOException> seeker : seekers )
+            {
+                partitions.add( client ->
+                        client.initialize( descriptor, getIndexProgressor( seeker, client, needFilter, predicates ), predicates, needsValues ) );
+            }
+            return partitions;
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    /**
+     * Falls back to a single partition running a regular {@link #query(IndexProgressor.NodeValueClient, IndexOrder, boolean, IndexQuery...) query},
+     * for readers and predicates which can't be expressed as a single range in the tree.
+     */
+    List<Partition> singlePartition( boolean needsValues, IndexQuery... predicates )
+    {
+        return singletonList( client -> query( client, IndexOrder.NONE, needsValues, predicates ) );
+    }
+
     void initializeFromToKeys( KEY treeKeyFrom, KEY treeKeyTo )
     {
         treeKeyFrom.initialize( Long.MIN_VALUE );
@@ -160,6 +249,10 @@ abstract class NativeIndexReader<KEY extends NativeIndexKey<KEY>, VALUE extends
         {
             RawCursor<Hit<KEY,VALUE>,IOException> seeker = makeIndexSeeker( treeKeyFrom, treeKeyTo );
             IndexProgressor hitProgressor = getIndexProgressor( seeker, client, needFilter, query );
+            if ( bloomFilter != null && bloomFilter.covers( query ) )
+            {
+                hitProgressor = bloomFilter.recordingFalsePositives( hitProgressor );
+            }
             client.initialize( descriptor, hitProgressor, query, needsValues );
         }
         catch ( IOException e )
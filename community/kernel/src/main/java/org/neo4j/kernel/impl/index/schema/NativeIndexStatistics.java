@@ -0,0 +1,270 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.kernel.api.index.IndexEntryUpdate;
+import org.neo4j.kernel.impl.api.index.UpdateMode;
+import org.neo4j.kernel.impl.api.index.sampling.HyperLogLog;
+import org.neo4j.storageengine.api.schema.IndexHistogram;
+import org.neo4j.storageengine.api.schema.IndexSample;
+import org.neo4j.string.UTF8;
+import org.neo4j.values.storable.FloatingPointValue;
+import org.neo4j.values.storable.IntegralValue;
+import org.neo4j.values.storable.TextValue;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+
+/**
+ * Statistics about the entries in a native index which are kept up to date by its updater, so that the index can be
+ * sampled without scanning it: the number of entries and a {@link HyperLogLog} sketch of the distinct value tuples.
+ * The {@link IndexHistogram} of a single property index is kept too, but is only rebuilt by full scans.
+ * <p>
+ * The statistics are written last in the {@link GBPTree} header at every checkpoint, after whatever header data the
+ * index writes itself, and read back from there when the index is opened. Statistics of an index which doesn't have them
+ * in its header, e.g. right after population, are unknown until the next full scan of the index.
+ * <p>
+ * Value tuples can't be removed from the sketch, so the number of distinct values is estimated from all tuples
+ * added since the last full scan, capped by the number of entries. Histograms are only written to the header if they're
+ * small enough and all their bounds are numbers or strings, other histograms are gone after a restart until the next full scan.
+ * <p>
+ * {@link #update(IndexEntryUpdate, long) Updates} come from all concurrent online updaters of the index and don't lock,
+ * everything else is synchronized.
+ */
+class NativeIndexStatistics
+{
+    private static final long MAGIC = 0x4e49535441545302L;
+    private static final int SIZE_IN_BYTES = Integer.BYTES + HyperLogLog.SIZE_IN_BYTES + Long.BYTES + Long.BYTES;
+    private static final int MAX_HISTOGRAM_SIZE_IN_BYTES = 2048;
+    private static final byte INTEGRAL = 1;
+    private static final byte FLOATING_POINT = 2;
+    private static final byte TEXT = 3;
+
+    private volatile HyperLogLog distinctValues = new HyperLogLog();
+    private final LongAdder entries = new LongAdder();
+    private volatile boolean known;
+    private IndexHistogram histogram;
+
+    // Value tuples added since the full scan in progress started, or null if there's none
+    private volatile HyperLogLog addedDuringScan;
+    private long entriesAtScanStart;
+
+    /**
+     * Reads statistics written by {@link #writeTo(PageCursor)} from the end of the header, if they're there.
+     */
+    synchronized void read( ByteBuffer headerData )
+    {
+        int offset = headerData.limit() - SIZE_IN_BYTES;
+        if ( offset < 0 || headerData.getLong( headerData.limit() - Long.BYTES ) != MAGIC )
+        {
+            return;
+        }
+        ByteBuffer statistics = headerData.duplicate();
+        statistics.position( offset );
+        int histogramSize = statistics.getInt();
+        distinctValues = HyperLogLog.read( statistics );
+        entries.reset();
+        entries.add( statistics.getLong() );
+        if ( histogramSize > 0 )
+        {
+            statistics.position( offset - histogramSize );
+            histogram = readHistogram( statistics );
+        }
+        known = true;
+    }
+
+    /**
+     * Writes these statistics, if they're known, at the current position of the header {@code cursor}.
+     */
+    synchronized void writeTo( PageCursor cursor )
+    {
+        if ( known )
+        {
+            byte[] histogramData = histogram != null ? histogramData( histogram ) : null;
+            if ( histogramData != null )
+            {
+                cursor.putBytes( histogramData );
+            }
+            cursor.putInt( histogramData != null ? histogramData.length : 0 );
+            distinctValues.writeTo( cursor );
+            cursor.putLong( entries.sum() );
+            cursor.putLong( MAGIC );
+        }
+    }
+
+    /**
+     * @param update update which has been applied to the tree.
+     * @param entriesDelta how the number of entries in the tree changed when applying it.
+     */
+    void update( IndexEntryUpdate<?> update, long entriesDelta )
+    {
+        entries.add( entriesDelta );
+        if ( update.updateMode() != UpdateMode.REMOVED )
+        {
+            long hash = UniqueIndexBloomFilter.hash( update.values() );
+            HyperLogLog duringScan = addedDuringScan;
+            if ( duringScan != null )
+            {
+                duringScan.add( hash );
+            }
+            distinctValues.add( hash );
+        }
+    }
+
+    boolean isKnown()
+    {
+        return known;
+    }
+
+    /**
+     * @return histogram from the last full scan, or {@code null} if there's none.
+     */
+    synchronized IndexHistogram histogram()
+    {
+        return histogram;
+    }
+
+    /**
+     * @param unique whether or not the index is unique, in which case all entries have distinct values.
+     * @return sample of the index from these statistics, which must be {@link #isKnown() known}.
+     */
+    synchronized IndexSample sample( boolean unique )
+    {
+        long entries = this.entries.sum();
+        long uniqueValues = unique ? entries : Math.min( Math.max( distinctValues.estimate(), entries > 0 ? 1 : 0 ), entries );
+        return new IndexSample( entries, uniqueValues, entries );
+    }
+
+    /**
+     * Called before a full scan of the index, see {@link #scanCompleted(HyperLogLog, long, IndexHistogram)}.
+     */
+    synchronized void scanStarted()
+    {
+        addedDuringScan = new HyperLogLog();
+        entriesAtScanStart = entries.sum();
+    }
+
+    /**
+     * Replaces these statistics with those from a full scan, which means that they're known from now on and that tuples
+     * removed before the scan no longer count as distinct values. Updates made while scanning are added on top.
+     *
+     * @param scannedValues sketch of the distinct value tuples seen by the scan.
+     * @param scannedEntries number of entries seen by the scan.
+     * @param scannedHistogram histogram of the values seen by the scan, or {@code null} if there's none.
+     */
+    synchronized void scanCompleted( HyperLogLog scannedValues, long scannedEntries, IndexHistogram scannedHistogram )
+    {
+        HyperLogLog added = addedDuringScan;
+        scannedValues.addAll( added );
+        distinctValues = scannedValues;
+        addedDuringScan = null;
+        // Tuples of concurrent updates which were only added to the sketch of the scan before it was replaced
+        scannedValues.addAll( added );
+        entries.add( scannedEntries - entriesAtScanStart );
+        histogram = scannedHistogram;
+        known = true;
+    }
+
+    /**
+     * @return histogram serialized for the header, or {@code null} if it can't or shouldn't be written there.
+     */
+    private static byte[] histogramData( IndexHistogram histogram )
+    {
+        ByteBuffer buffer = ByteBuffer.allocate( MAX_HISTOGRAM_SIZE_IN_BYTES );
+        try
+        {
+            buffer.putInt( histogram.buckets() );
+            for ( int i = 0; i < histogram.buckets(); i++ )
+            {
+                if ( !writeValue( histogram.lowerBound( i ), buffer ) || !writeValue( histogram.upperBound( i ), buffer ) )
+                {
+                    return null;
+                }
+                buffer.putLong( histogram.count( i ) );
+            }
+        }
+        catch ( BufferOverflowException e )
+        {
+            return null;
+        }
+        return Arrays.copyOf( buffer.array(), buffer.position() );
+    }
+
+    private static boolean writeValue( Value value, ByteBuffer buffer )
+    {
+        if ( value instanceof IntegralValue )
+        {
+            buffer.put( INTEGRAL ).putLong( ((IntegralValue) value).longValue() );
+        }
+        else if ( value instanceof FloatingPointValue )
+        {
+            buffer.put( FLOATING_POINT ).putDouble( ((FloatingPointValue) value).doubleValue() );
+        }
+        else if ( value instanceof TextValue )
+        {
+            byte[] bytes = UTF8.encode( ((TextValue) value).stringValue() );
+            buffer.put( TEXT ).putInt( bytes.length ).put( bytes );
+        }
+        else
+        {
+            return false;
+        }
+        return true;
+    }
+
+    private static IndexHistogram readHistogram( ByteBuffer buffer )
+    {
+        int buckets = buffer.getInt();
+        Value[] lowerBounds = new Value[buckets];
+        Value[] upperBounds = new Value[buckets];
+        long[] counts = new long[buckets];
+        for ( int i = 0; i < buckets; i++ )
+        {
+            lowerBounds[i] = readValue( buffer );
+            upperBounds[i] = readValue( buffer );
+            counts[i] = buffer.getLong();
+        }
+        return new IndexHistogram( lowerBounds, upperBounds, counts );
+    }
+
+    private static Value readValue( ByteBuffer buffer )
+    {
+        byte type = buffer.get();
+        switch ( type )
+        {
+        case INTEGRAL:
+            return Values.longValue( buffer.getLong() );
+        case FLOATING_POINT:
+            return Values.doubleValue( buffer.getDouble() );
+        case TEXT:
+            byte[] bytes = new byte[buffer.getInt()];
+            buffer.get( bytes );
+            return Values.stringValue( UTF8.decode( bytes ) );
+        default:
+            throw new IllegalStateException( "Unknown histogram value type " + type );
+        }
+    }
+}
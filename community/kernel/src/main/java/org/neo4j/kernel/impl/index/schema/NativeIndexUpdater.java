@@ -24,6 +24,7 @@ import org.neo4j.io.IOUtils;
 import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
 import org.neo4j.kernel.api.index.IndexEntryUpdate;
 import org.neo4j.kernel.api.index.IndexUpdater;
+import org.neo4j.kernel.impl.api.index.UpdateMode;
 import org.neo4j.values.storable.Value;
 
 import static org.neo4j.kernel.impl.index.schema.NativeIndexKey.Inclusion.NEUTRAL;
@@ -35,6 +36,8 @@ class NativeIndexUpdater<KEY extends NativeIndexKey<KEY>, VALUE extends NativeIn
     private final VALUE treeValue;
     private final ConflictDetectingValueMerger<KEY,VALUE> conflictDetectingValueMerger = new ConflictDetectingValueMerger<>( true );
     private Writer<KEY,VALUE> writer;
+    private UniqueIndexBloomFilter<KEY,VALUE> bloomFilter;
+    private NativeIndexStatistics statistics;
 
     private boolean closed = true;
 
@@ -44,7 +47,12 @@ class NativeIndexUpdater<KEY extends NativeIndexKey<KEY>, VALUE extends NativeIn
         this.treeValue = treeValue;
     }
 
-    NativeIndexUpdater<KEY,VALUE> initialize( Writer<KEY,VALUE> writer )
+    /**
+     * @param bloomFilter {@link UniqueIndexBloomFilter} to add all new tuples to, or {@code null} if the index has none.
+     * @param statistics {@link NativeIndexStatistics} to keep up to date, or {@code null} if the index keeps none.
+     */
+    NativeIndexUpdater<KEY,VALUE> initialize( Writer<KEY,VALUE> writer, UniqueIndexBloomFilter<KEY,VALUE> bloomFilter,
+            NativeIndexStatistics statistics )
     {
         if ( !closed )
         {
@@ -52,6 +60,8 @@ class NativeIndexUpdater<KEY extends NativeIndexKey<KEY>, VALUE extends NativeIn
         }
 
         this.writer = writer;
+        this.bloomFilter = bloomFilter;
+        this.statistics = statistics;
         closed = false;
         return this;
     }
@@ -60,7 +70,22 @@ class NativeIndexUpdater<KEY extends NativeIndexKey<KEY>, VALUE extends NativeIn
     public void process( IndexEntryUpdate<?> update ) throws IndexEntryConflictException
     {
         assertOpen();
-        processUpdate( treeKey, treeValue, update, writer, conflictDetectingValueMerger );
+        boolean addToBloomFilter = bloomFilter != null && update.updateMode() != UpdateMode.REMOVED;
+        long hash = 0;
+        if ( addToBloomFilter )
+        {
+            // Added before written to the tree so that the filter never claims that a tuple in the tree is absent
+            hash = bloomFilter.add( update.values() );
+        }
+        long entriesDelta = processUpdate( treeKey, treeValue, update, writer, conflictDetectingValueMerger );
+        if ( addToBloomFilter )
+        {
+            bloomFilter.written( hash );
+        }
+        if ( statistics != null )
+        {
+            statistics.update( update, entriesDelta );
+        }
     }
 
     @Override
@@ -68,6 +93,10 @@ class NativeIndexUpdater<KEY extends NativeIndexKey<KEY>, VALUE extends NativeIn
     {
         closed = true;
         IOUtils.closeAllUnchecked( writer );
+        if ( bloomFilter != null )
+        {
+            bloomFilter.afterUpdates();
+        }
     }
 
     private void assertOpen()
@@ -78,52 +107,55 @@ class NativeIndexUpdater<KEY extends NativeIndexKey<KEY>, VALUE extends NativeIn
         }
     }
 
-    static <KEY extends NativeIndexKey<KEY>, VALUE extends NativeIndexValue> void processUpdate( KEY treeKey, VALUE treeValue,
+    /**
+     * @return how the number of entries in the tree changed, i.e. {@code 1} if an entry was added, {@code -1} if one was
+     * removed and {@code 0} if the update didn't change the number of entries, e.g. if it was applied already.
+     */
+    static <KEY extends NativeIndexKey<KEY>, VALUE extends NativeIndexValue> long processUpdate( KEY treeKey, VALUE treeValue,
             IndexEntryUpdate<?> update, Writer<KEY,VALUE> writer, ConflictDetectingValueMerger<KEY,VALUE> conflictDetectingValueMerger )
             throws IndexEntryConflictException
     {
         switch ( update.updateMode() )
         {
         case ADDED:
-            processAdd( treeKey, treeValue, update, writer, conflictDetectingValueMerger );
-            break;
+            return processAdd( treeKey, treeValue, update, writer, conflictDetectingValueMerger );
         case CHANGED:
-            processChange( treeKey, treeValue, update, writer, conflictDetectingValueMerger );
-            break;
+            return processChange( treeKey, treeValue, update, writer, conflictDetectingValueMerger );
         case REMOVED:
-            processRemove( treeKey, update, writer );
-            break;
+            return processRemove( treeKey, update, writer );
         default:
             throw new IllegalArgumentException();
         }
     }
 
-    private static <KEY extends NativeIndexKey<KEY>, VALUE extends NativeIndexValue> void processRemove( KEY treeKey,
+    private static <KEY extends NativeIndexKey<KEY>, VALUE extends NativeIndexValue> long processRemove( KEY treeKey,
             IndexEntryUpdate<?> update, Writer<KEY,VALUE> writer )
     {
         // todo Do we need to verify that we actually removed something at all?
         // todo Difference between online and recovery?
         initializeKeyFromUpdate( treeKey, update.getEntityId(), update.values() );
-        writer.remove( treeKey );
+        return writer.remove( treeKey ) != null ? -1 : 0;
     }
 
-    private static <KEY extends NativeIndexKey<KEY>, VALUE extends NativeIndexValue> void processChange( KEY treeKey, VALUE treeValue,
+    private static <KEY extends NativeIndexKey<KEY>, VALUE extends NativeIndexValue> long processChange( KEY treeKey, VALUE treeValue,
             IndexEntryUpdate<?> update, Writer<KEY,VALUE> writer,
             ConflictDetectingValueMerger<KEY,VALUE> conflictDetectingValueMerger )
             throws IndexEntryConflictException
     {
         // Remove old entry
         initializeKeyFromUpdate( treeKey, update.getEntityId(), update.beforeValues() );
-        writer.remove( treeKey );
+        long entriesDelta = writer.remove( treeKey ) != null ? -1 : 0;
         // Insert new entry
         initializeKeyFromUpdate( treeKey, update.getEntityId(), update.values() );
         treeValue.from( update.values() );
         conflictDetectingValueMerger.controlConflictDetection( treeKey );
         writer.merge( treeKey, treeValue, conflictDetectingValueMerger );
+        entriesDelta += conflictDetectingValueMerger.wasExisting() ? 0 : 1;
         conflictDetectingValueMerger.checkConflict( update.values() );
+        return entriesDelta;
     }
 
-    private static <KEY extends NativeIndexKey<KEY>, VALUE extends NativeIndexValue> void processAdd( KEY treeKey, VALUE treeValue, IndexEntryUpdate<?> update,
+    private static <KEY extends NativeIndexKey<KEY>, VALUE extends NativeIndexValue> long processAdd( KEY treeKey, VALUE treeValue, IndexEntryUpdate<?> update,
             Writer<KEY,VALUE> writer, ConflictDetectingValueMerger<KEY,VALUE> conflictDetectingValueMerger )
             throws IndexEntryConflictException
     {
@@ -131,10 +163,12 @@ class NativeIndexUpdater<KEY extends NativeIndexKey<KEY>, VALUE extends NativeIn
         treeValue.from( update.values() );
         conflictDetectingValueMerger.controlConflictDetection( treeKey );
         writer.merge( treeKey, treeValue, conflictDetectingValueMerger );
+        long entriesDelta = conflictDetectingValueMerger.wasExisting() ? 0 : 1;
         conflictDetectingValueMerger.checkConflict( update.values() );
+        return entriesDelta;
     }
 
-    private static <KEY extends NativeIndexKey<KEY>> void initializeKeyFromUpdate( KEY treeKey, long entityId, Value[] values )
+    static <KEY extends NativeIndexKey<KEY>> void initializeKeyFromUpdate( KEY treeKey, long entityId, Value[] values )
     {
         treeKey.initialize( entityId );
         for ( int i = 0; i < values.length; i++ )
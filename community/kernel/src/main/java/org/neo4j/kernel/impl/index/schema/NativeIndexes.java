@@ -21,8 +21,11 @@ package org.neo4j.kernel.impl.index.schema;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.NoSuchFileException;
 
 import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Layout;
+import org.neo4j.index.internal.gbptree.MetadataMismatchException;
 import org.neo4j.internal.kernel.api.InternalIndexState;
 import org.neo4j.io.pagecache.PageCache;
 
@@ -37,9 +40,18 @@ public class NativeIndexes
     {}
 
     public static InternalIndexState readState( PageCache pageCache, File indexFile ) throws IOException
+    {
+        return readState( pageCache, indexFile, null );
+    }
+
+    /**
+     * Reads the state of the index, verifying that it was created with a layout compatible with {@code layout}, unless {@code null}.
+     * An index created with an older layout version will fail with {@link org.neo4j.index.internal.gbptree.MetadataMismatchException}.
+     */
+    static InternalIndexState readState( PageCache pageCache, File indexFile, Layout<?,?> layout ) throws IOException
     {
         NativeIndexHeaderReader headerReader = new NativeIndexHeaderReader( NO_HEADER_READER );
-        GBPTree.readHeader( pageCache, indexFile, headerReader );
+        GBPTree.readHeader( pageCache, indexFile, layout, headerReader );
         switch ( headerReader.state )
         {
         case BYTE_FAILED:
@@ -53,6 +65,22 @@ public class NativeIndexes
         }
     }
 
+    /**
+     * @return whether or not the index exists and was created with a layout compatible with {@code layout}.
+     */
+    static boolean createdWith( PageCache pageCache, File indexFile, Layout<?,?> layout ) throws IOException
+    {
+        try
+        {
+            GBPTree.readHeader( pageCache, indexFile, layout, NO_HEADER_READER );
+            return true;
+        }
+        catch ( MetadataMismatchException | NoSuchFileException e )
+        {
+            return false;
+        }
+    }
+
     static String readFailureMessage( PageCache pageCache, File indexFile )
             throws IOException
     {
@@ -39,13 +39,14 @@ public class NumberIndexAccessor extends NativeIndexAccessor<NumberIndexKey,Nati
             IndexSamplingConfig samplingConfig ) throws IOException
     {
         super( pageCache, fs, storeFile, layout, recoveryCleanupWorkCollector, monitor, descriptor, samplingConfig, NO_HEADER_WRITER );
-        instantiateTree( recoveryCleanupWorkCollector, headerWriter );
+        instantiateTreeAndStatistics( recoveryCleanupWorkCollector );
+        instantiateBloomFilter();
     }
 
     @Override
     public IndexReader newReader()
     {
         assertOpen();
-        return new NumberIndexReader<>( tree, layout, samplingConfig, descriptor );
+        return withSharedState( new NumberIndexReader<>( tree, layout, samplingConfig, descriptor ) );
     }
 }
@@ -70,6 +70,13 @@ public class SpatialIndexPartReader<VALUE extends NativeIndexValue> extends Nati
         throw new UnsupportedOperationException( "Cannot initialize 1D range in multidimensional spatial index reader" );
     }
 
+    @Override
+    public List<Partition> partitionedQuery( int desiredNumberOfPartitions, boolean needsValues, IndexQuery... predicates )
+    {
+        // Spatial queries are seeked as multiple ranges along the space filling curve, which isn't partitioned
+        return singlePartition( needsValues, predicates );
+    }
+
     @Override
     public void query( IndexProgressor.NodeValueClient cursor, IndexOrder indexOrder, boolean needsValues, IndexQuery... predicates )
     {
@@ -48,7 +48,8 @@ public class StringIndexAccessor extends NativeIndexAccessor<StringIndexKey,Nati
             IndexSamplingConfig samplingConfig ) throws IOException
     {
         super( pageCache, fs, storeFile, layout, recoveryCleanupWorkCollector, monitor, descriptor, samplingConfig, NO_HEADER_WRITER );
-        instantiateTree( recoveryCleanupWorkCollector, headerWriter );
+        instantiateTreeAndStatistics( recoveryCleanupWorkCollector );
+        instantiateBloomFilter();
     }
 
     @Override
@@ -61,7 +62,7 @@ public class StringIndexAccessor extends NativeIndexAccessor<StringIndexKey,Nati
     public IndexReader newReader()
     {
         assertOpen();
-        return new StringIndexReader( tree, layout, samplingConfig, descriptor );
+        return withSharedState( new StringIndexReader( tree, layout, samplingConfig, descriptor ) );
     }
 
     @Override
@@ -44,14 +44,21 @@ import org.neo4j.values.storable.ValueCategory;
 public class StringIndexProvider extends NativeIndexProvider<StringIndexKey,NativeIndexValue,StringLayout>
 {
     public static final String KEY = "string";
-    static final IndexCapability CAPABILITY = new StringIndexCapability();
+    static final IndexCapability CAPABILITY = new StringIndexCapability( IndexLimitation.SLOW_CONTAINS );
     private static final IndexProviderDescriptor STRING_PROVIDER_DESCRIPTOR = new IndexProviderDescriptor( KEY, "1.0" );
 
     public StringIndexProvider( PageCache pageCache, FileSystemAbstraction fs,
             IndexDirectoryStructure.Factory directoryStructure, Monitor monitor, RecoveryCleanupWorkCollector recoveryCleanupWorkCollector,
             boolean readOnly )
     {
-        super( STRING_PROVIDER_DESCRIPTOR, 0, directoryStructure, pageCache, fs, monitor, recoveryCleanupWorkCollector, readOnly );
+        this( STRING_PROVIDER_DESCRIPTOR, pageCache, fs, directoryStructure, monitor, recoveryCleanupWorkCollector, readOnly );
+    }
+
+    StringIndexProvider( IndexProviderDescriptor descriptor, PageCache pageCache, FileSystemAbstraction fs,
+            IndexDirectoryStructure.Factory directoryStructure, Monitor monitor, RecoveryCleanupWorkCollector recoveryCleanupWorkCollector,
+            boolean readOnly )
+    {
+        super( descriptor, 0, directoryStructure, pageCache, fs, monitor, recoveryCleanupWorkCollector, readOnly );
     }
 
     @Override
@@ -60,6 +67,12 @@ public class StringIndexProvider extends NativeIndexProvider<StringIndexKey,Nati
         return new StringLayout();
     }
 
+    @Override
+    StringLayout legacyLayout( StoreIndexDescriptor descriptor, File storeFile )
+    {
+        return new StringLayout( false );
+    }
+
     @Override
     protected IndexPopulator newIndexPopulator( File storeFile, StringLayout layout, StoreIndexDescriptor descriptor,
             IndexSamplingConfig samplingConfig )
@@ -87,9 +100,14 @@ public class StringIndexProvider extends NativeIndexProvider<StringIndexKey,Nati
      *
      * For other queries there is no support
      */
-    private static class StringIndexCapability implements IndexCapability
+    static class StringIndexCapability implements IndexCapability
     {
-        private final IndexLimitation[] limitations = {IndexLimitation.SLOW_CONTAINS};
+        private final IndexLimitation[] limitations;
+
+        StringIndexCapability( IndexLimitation... limitations )
+        {
+            this.limitations = limitations;
+        }
 
         @Override
         public IndexOrder[] orderCapability( ValueCategory... valueCategories )
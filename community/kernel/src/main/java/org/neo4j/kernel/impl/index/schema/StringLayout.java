@@ -31,9 +31,21 @@ import static org.neo4j.kernel.impl.index.schema.StringIndexKey.ENTITY_ID_SIZE;
  */
 class StringLayout extends IndexLayout<StringIndexKey,NativeIndexValue>
 {
+    private final boolean compressKeyPrefixes;
+
     StringLayout()
     {
-        super( "USI", 0, 1 );
+        this( true );
+    }
+
+    /**
+     * @param compressKeyPrefixes whether or not to write the string bytes first and {@link #compressKeyPrefixes() compress key prefixes}.
+     * Indexes created before that have the entity id first and minor version 1, and are opened with {@code false}.
+     */
+    StringLayout( boolean compressKeyPrefixes )
+    {
+        super( "USI", 0, compressKeyPrefixes ? 2 : 1 );
+        this.compressKeyPrefixes = compressKeyPrefixes;
     }
 
     @Override
@@ -58,8 +70,15 @@ class StringLayout extends IndexLayout<StringIndexKey,NativeIndexValue>
     @Override
     public void writeKey( PageCursor cursor, StringIndexKey key )
     {
-        cursor.putLong( key.getEntityId() );
+        if ( !compressKeyPrefixes )
+        {
+            cursor.putLong( key.getEntityId() );
+            cursor.putBytes( key.bytes, 0, key.bytesLength );
+            return;
+        }
+        // String bytes go first so that keys close in sort order share a prefix, see compressKeyPrefixes()
         cursor.putBytes( key.bytes, 0, key.bytesLength );
+        cursor.putLong( key.getEntityId() );
     }
 
     @Override
@@ -72,10 +91,17 @@ class StringLayout extends IndexLayout<StringIndexKey,NativeIndexValue>
             cursor.setCursorException( format( "Reading string index key with an unexpected keySize:%d", keySize ) );
             return;
         }
-        into.setEntityId( cursor.getLong() );
+        if ( !compressKeyPrefixes )
+        {
+            into.setEntityId( cursor.getLong() );
+        }
         int bytesLength = keySize - ENTITY_ID_SIZE;
         into.setBytesLength( bytesLength );
         cursor.getBytes( into.bytes, 0, bytesLength );
+        if ( compressKeyPrefixes )
+        {
+            into.setEntityId( cursor.getLong() );
+        }
     }
 
     @Override
@@ -84,6 +110,12 @@ class StringLayout extends IndexLayout<StringIndexKey,NativeIndexValue>
         return false;
     }
 
+    @Override
+    public boolean compressKeyPrefixes()
+    {
+        return compressKeyPrefixes;
+    }
+
     @Override
     public void minimalSplitter( StringIndexKey left, StringIndexKey right, StringIndexKey into )
     {
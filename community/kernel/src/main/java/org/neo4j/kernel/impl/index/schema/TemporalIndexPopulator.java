@@ -88,9 +88,19 @@ class TemporalIndexPopulator extends TemporalIndexCache<TemporalIndexPopulator.P
     }
 
     @Override
-    public void verifyDeferredConstraints( NodePropertyAccessor nodePropertyAccessor )
+    public synchronized void scanCompleted() throws IndexEntryConflictException
     {
-        // No-op, uniqueness is checked for each update in add(IndexEntryUpdate)
+        for ( NativeIndexPopulator part : this )
+        {
+            part.scanCompleted();
+        }
+    }
+
+    @Override
+    public void verifyDeferredConstraints( NodePropertyAccessor nodePropertyAccessor ) throws IndexEntryConflictException
+    {
+        // Uniqueness is checked for the scanned entries when the scan is completed and for each update in add(IndexEntryUpdate) after that
+        scanCompleted();
     }
 
     @Override
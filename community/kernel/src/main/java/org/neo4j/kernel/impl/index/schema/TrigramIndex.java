@@ -0,0 +1,257 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.eclipse.collections.api.set.primitive.LongSet;
+import org.eclipse.collections.api.set.primitive.MutableLongSet;
+import org.eclipse.collections.impl.set.mutable.primitive.LongHashSet;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
+import org.neo4j.index.internal.gbptree.Writer;
+import org.neo4j.io.IOUtils;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.IOLimiter;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCacheOpenOptions;
+import org.neo4j.kernel.api.index.IndexEntryUpdate;
+import org.neo4j.string.UTF8;
+import org.neo4j.values.storable.TextValue;
+import org.neo4j.values.storable.Value;
+
+import static org.neo4j.index.internal.gbptree.GBPTree.NO_HEADER_READER;
+import static org.neo4j.index.internal.gbptree.GBPTree.NO_HEADER_WRITER;
+import static org.neo4j.kernel.impl.index.schema.NativeIndexPopulator.deleteFileIfPresent;
+import static org.neo4j.kernel.impl.index.schema.TrigramKey.DOCUMENT;
+
+/**
+ * The trigram tree of a {@link TrigramStringIndexProvider trigram string index}, kept in a file next to the string index file.
+ * <p>
+ * For every indexed string value the tree has one posting per distinct gram of three consecutive characters in the value,
+ * with an {@link #END end} character appended so that suffixes can be found too, and one document holding the value itself.
+ * Postings of a gram are sorted by entity id, so the entities having all grams of a query string are found by intersecting
+ * posting lists, and then verified against their documents.
+ */
+class TrigramIndex
+{
+    static final String FILE_SUFFIX = ".trigram";
+
+    /**
+     * Appended to every indexed string, and to the query string of suffix queries. A noncharacter, so it won't occur in real strings.
+     */
+    static final char END = '\uFFFF';
+
+    private final PageCache pageCache;
+    private final FileSystemAbstraction fs;
+    private final File file;
+    private final TrigramLayout layout = new TrigramLayout();
+
+    private GBPTree<TrigramKey,TrigramValue> tree;
+
+    TrigramIndex( PageCache pageCache, FileSystemAbstraction fs, File storeFile )
+    {
+        this.pageCache = pageCache;
+        this.fs = fs;
+        this.file = new File( storeFile.getParentFile(), storeFile.getName() + FILE_SUFFIX );
+    }
+
+    File file()
+    {
+        return file;
+    }
+
+    GBPTree<TrigramKey,TrigramValue> tree()
+    {
+        return tree;
+    }
+
+    void create()
+    {
+        deleteFileIfPresent( fs, file );
+        instantiateTree( RecoveryCleanupWorkCollector.immediate() );
+    }
+
+    void instantiateTree( RecoveryCleanupWorkCollector recoveryCleanupWorkCollector )
+    {
+        try
+        {
+            fs.mkdirs( file.getParentFile() );
+            tree = new GBPTree<>( pageCache, file, layout, 0, GBPTree.NO_MONITOR, NO_HEADER_READER, NO_HEADER_WRITER, recoveryCleanupWorkCollector,
+                    PageCacheOpenOptions.RESERVED );
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    void closeTree()
+    {
+        IOUtils.closeAllUnchecked( tree );
+        tree = null;
+    }
+
+    void drop()
+    {
+        closeTree();
+        deleteFileIfPresent( fs, file );
+    }
+
+    void force( IOLimiter ioLimiter )
+    {
+        tree.checkpoint( ioLimiter );
+    }
+
+    boolean wasDirtyOnStartup()
+    {
+        return tree.wasDirtyOnStartup();
+    }
+
+    void consistencyCheck()
+    {
+        try
+        {
+            tree.consistencyCheck();
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    Writer<TrigramKey,TrigramValue> writer()
+    {
+        try
+        {
+            return tree.writer();
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    /**
+     * @return a writer which can be used together with other writers from this method, for applying population batches or online updates from multiple threads.
+     */
+    Writer<TrigramKey,TrigramValue> parallelWriter()
+    {
+        try
+        {
+            return tree.parallelWriter();
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    /**
+     * Applies the given update, which must be for a single string value, to the trigram tree.
+     */
+    static void process( IndexEntryUpdate<?> update, Writer<TrigramKey,TrigramValue> writer, TrigramKey key, TrigramValue value )
+    {
+        long entityId = update.getEntityId();
+        switch ( update.updateMode() )
+        {
+        case ADDED:
+            String added = stringOf( update.values() );
+            putPostings( writer, key, value, entityId, grams( added ) );
+            putDocument( writer, key, value, entityId, added );
+            break;
+        case CHANGED:
+            LongSet before = grams( stringOf( update.beforeValues() ) );
+            String after = stringOf( update.values() );
+            MutableLongSet afterGrams = grams( after );
+            removePostings( writer, key, entityId, before.reject( afterGrams::contains ) );
+            putPostings( writer, key, value, entityId, afterGrams.reject( before::contains ) );
+            putDocument( writer, key, value, entityId, after );
+            break;
+        case REMOVED:
+            removePostings( writer, key, entityId, grams( stringOf( update.values() ) ) );
+            key.initialize( DOCUMENT, entityId );
+            writer.remove( key );
+            break;
+        default:
+            throw new IllegalArgumentException( "Unexpected update mode " + update.updateMode() );
+        }
+    }
+
+    private static void putPostings( Writer<TrigramKey,TrigramValue> writer, TrigramKey key, TrigramValue value, long entityId, LongSet grams )
+    {
+        value.bytes = TrigramValue.EMPTY;
+        grams.each( gram ->
+        {
+            key.initialize( gram, entityId );
+            writer.put( key, value );
+        } );
+    }
+
+    private static void removePostings( Writer<TrigramKey,TrigramValue> writer, TrigramKey key, long entityId, LongSet grams )
+    {
+        grams.each( gram ->
+        {
+            key.initialize( gram, entityId );
+            writer.remove( key );
+        } );
+    }
+
+    private static void putDocument( Writer<TrigramKey,TrigramValue> writer, TrigramKey key, TrigramValue value, long entityId, String string )
+    {
+        key.initialize( DOCUMENT, entityId );
+        value.bytes = UTF8.encode( string );
+        writer.put( key, value );
+    }
+
+    private static String stringOf( Value[] values )
+    {
+        return ((TextValue) values[0]).stringValue();
+    }
+
+    /**
+     * @return the distinct grams of {@code string} followed by the {@link #END end} character, i.e. what's indexed for it.
+     */
+    static MutableLongSet grams( String string )
+    {
+        return gramsOf( string + END );
+    }
+
+    /**
+     * @return the distinct grams of exactly the characters in {@code string}, empty if it's shorter than a gram.
+     */
+    static MutableLongSet gramsOf( String string )
+    {
+        MutableLongSet grams = new LongHashSet();
+        for ( int i = 0; i + 3 <= string.length(); i++ )
+        {
+            grams.add( gram( string.charAt( i ), string.charAt( i + 1 ), string.charAt( i + 2 ) ) );
+        }
+        return grams;
+    }
+
+    private static long gram( char first, char second, char third )
+    {
+        return ((long) first << 32) | ((long) second << 16) | third;
+    }
+}
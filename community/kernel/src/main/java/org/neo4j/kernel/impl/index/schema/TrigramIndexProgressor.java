@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.eclipse.collections.api.iterator.LongIterator;
+import org.eclipse.collections.api.set.primitive.LongSet;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.neo4j.cursor.RawCursor;
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Hit;
+import org.neo4j.internal.kernel.api.IndexQuery;
+import org.neo4j.io.IOUtils;
+import org.neo4j.storageengine.api.schema.IndexProgressor;
+import org.neo4j.values.storable.TextValue;
+import org.neo4j.values.storable.Value;
+
+import static org.neo4j.kernel.impl.index.schema.TrigramKey.DOCUMENT;
+
+/**
+ * {@link IndexProgressor} over the entities having all the given grams in the trigram tree, found by intersecting the posting lists
+ * of those grams, which are sorted by entity id. Each such candidate is then verified against the {@code predicate}
+ * using its document, which also provides the value if the client needs it.
+ */
+class TrigramIndexProgressor implements IndexProgressor
+{
+    private static final long EXHAUSTED = -1;
+
+    private final GBPTree<TrigramKey,TrigramValue> tree;
+    private final IndexQuery predicate;
+    private final NodeValueClient client;
+    private final Collection<TrigramIndexProgressor> toRemoveFromOnClose;
+    private final List<RawCursor<Hit<TrigramKey,TrigramValue>,IOException>> postings;
+    private final long[] postingHeads;
+    private final TrigramKey documentFrom = new TrigramKey();
+    private final TrigramKey documentTo = new TrigramKey();
+    private long nextCandidate;
+    private boolean closed;
+
+    TrigramIndexProgressor( GBPTree<TrigramKey,TrigramValue> tree, LongSet grams, IndexQuery predicate, NodeValueClient client,
+            Collection<TrigramIndexProgressor> toRemoveFromOnClose )
+    {
+        this.tree = tree;
+        this.predicate = predicate;
+        this.client = client;
+        this.toRemoveFromOnClose = toRemoveFromOnClose;
+        this.postings = new ArrayList<>( grams.size() );
+        this.postingHeads = new long[grams.size()];
+        try
+        {
+            LongIterator gramIterator = grams.longIterator();
+            for ( int i = 0; gramIterator.hasNext(); i++ )
+            {
+                // Seekers keep their range keys, so each needs its own
+                long gram = gramIterator.next();
+                TrigramKey from = new TrigramKey();
+                TrigramKey to = new TrigramKey();
+                from.initialize( gram, Long.MIN_VALUE );
+                to.initialize( gram, Long.MAX_VALUE );
+                postings.add( tree.seek( from, to ) );
+                postingHeads[i] = Long.MIN_VALUE;
+            }
+        }
+        catch ( IOException e )
+        {
+            IOUtils.closeAllSilently( postings );
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    @Override
+    public boolean next()
+    {
+        try
+        {
+            long entityId;
+            while ( (entityId = nextCandidate()) != EXHAUSTED )
+            {
+                TextValue value = document( entityId );
+                if ( value != null && predicate.acceptsValue( value ) &&
+                        client.acceptNode( entityId, client.needsValues() ? new Value[]{value} : null ) )
+                {
+                    return true;
+                }
+            }
+            return false;
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    /**
+     * Leapfrogs the posting lists forward until all of them are at the same entity.
+     *
+     * @return the next entity id which is in all posting lists, or {@link #EXHAUSTED} if there are no more.
+     */
+    private long nextCandidate() throws IOException
+    {
+        long target = nextCandidate;
+        int agreeing = 0;
+        for ( int i = 0; agreeing < postingHeads.length; i = (i + 1) % postingHeads.length )
+        {
+            long head = advance( i, target );
+            if ( head == EXHAUSTED )
+            {
+                nextCandidate = Long.MAX_VALUE;
+                return EXHAUSTED;
+            }
+            if ( head == target )
+            {
+                agreeing++;
+            }
+            else
+            {
+                target = head;
+                agreeing = 1;
+            }
+        }
+        nextCandidate = target + 1;
+        return target;
+    }
+
+    private long advance( int posting, long target ) throws IOException
+    {
+        RawCursor<Hit<TrigramKey,TrigramValue>,IOException> cursor = postings.get( posting );
+        while ( postingHeads[posting] < target )
+        {
+            if ( !cursor.next() )
+            {
+                return EXHAUSTED;
+            }
+            postingHeads[posting] = cursor.get().key().entityId;
+        }
+        return postingHeads[posting];
+    }
+
+    private TextValue document( long entityId ) throws IOException
+    {
+        documentFrom.initialize( DOCUMENT, entityId );
+        documentTo.initialize( DOCUMENT, entityId + 1 );
+        try ( RawCursor<Hit<TrigramKey,TrigramValue>,IOException> seeker = tree.seek( documentFrom, documentTo ) )
+        {
+            return seeker.next() ? seeker.get().value().asValue() : null;
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        if ( !closed )
+        {
+            closed = true;
+            try
+            {
+                IOUtils.closeAll( postings );
+                toRemoveFromOnClose.remove( this );
+            }
+            catch ( IOException e )
+            {
+                throw new UncheckedIOException( e );
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import static java.lang.String.format;
+
+/**
+ * Key in the trigram tree of a {@link TrigramStringIndexProvider trigram string index}. Either a posting, i.e. a gram
+ * of three characters and an entity whose string value contains that gram, or the document of an entity, i.e. the entry
+ * holding the whole string value of that entity.
+ */
+class TrigramKey
+{
+    static final int POSTING_SIZE = Long.BYTES * 2;
+    static final int DOCUMENT_SIZE = Long.BYTES;
+
+    /**
+     * Gram of document keys, which sorts after all real grams since those are three 16-bit characters.
+     */
+    static final long DOCUMENT = Long.MAX_VALUE;
+
+    long gram;
+    long entityId;
+
+    void initialize( long gram, long entityId )
+    {
+        this.gram = gram;
+        this.entityId = entityId;
+    }
+
+    boolean isDocument()
+    {
+        return gram == DOCUMENT;
+    }
+
+    int size()
+    {
+        return isDocument() ? DOCUMENT_SIZE : POSTING_SIZE;
+    }
+
+    int compareTo( TrigramKey other )
+    {
+        int gramComparison = Long.compare( gram, other.gram );
+        return gramComparison != 0 ? gramComparison : Long.compare( entityId, other.entityId );
+    }
+
+    @Override
+    public String toString()
+    {
+        return isDocument() ? format( "document,entityId=%d", entityId ) : format( "gram=%x,entityId=%d", gram, entityId );
+    }
+}
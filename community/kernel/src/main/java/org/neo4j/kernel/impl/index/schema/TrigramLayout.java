@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.apache.commons.lang3.ArrayUtils;
+
+import org.neo4j.index.internal.gbptree.Layout;
+import org.neo4j.io.pagecache.PageCursor;
+
+import static java.lang.String.format;
+import static org.neo4j.kernel.impl.index.schema.TrigramKey.DOCUMENT;
+import static org.neo4j.kernel.impl.index.schema.TrigramKey.DOCUMENT_SIZE;
+import static org.neo4j.kernel.impl.index.schema.TrigramKey.POSTING_SIZE;
+
+/**
+ * {@link Layout} for the trigram tree of a {@link TrigramStringIndexProvider trigram string index}.
+ * Document keys are written without their gram, so that a document takes no more space than the string key for the same value.
+ */
+class TrigramLayout extends Layout.Adapter<TrigramKey,TrigramValue>
+{
+    private static final long IDENTIFIER = Layout.namedIdentifier( "TGI", 0 );
+
+    @Override
+    public TrigramKey newKey()
+    {
+        return new TrigramKey();
+    }
+
+    @Override
+    public TrigramKey copyKey( TrigramKey key, TrigramKey into )
+    {
+        into.initialize( key.gram, key.entityId );
+        return into;
+    }
+
+    @Override
+    public TrigramValue newValue()
+    {
+        return new TrigramValue();
+    }
+
+    @Override
+    public int keySize( TrigramKey key )
+    {
+        return key.size();
+    }
+
+    @Override
+    public int valueSize( TrigramValue value )
+    {
+        return value.size();
+    }
+
+    @Override
+    public void writeKey( PageCursor cursor, TrigramKey key )
+    {
+        if ( !key.isDocument() )
+        {
+            cursor.putLong( key.gram );
+        }
+        cursor.putLong( key.entityId );
+    }
+
+    @Override
+    public void writeValue( PageCursor cursor, TrigramValue value )
+    {
+        cursor.putBytes( value.bytes );
+    }
+
+    @Override
+    public void readKey( PageCursor cursor, TrigramKey into, int keySize )
+    {
+        switch ( keySize )
+        {
+        case POSTING_SIZE:
+            into.gram = cursor.getLong();
+            into.entityId = cursor.getLong();
+            break;
+        case DOCUMENT_SIZE:
+            into.gram = DOCUMENT;
+            into.entityId = cursor.getLong();
+            break;
+        default:
+            into.initialize( DOCUMENT, Long.MIN_VALUE );
+            cursor.setCursorException( format( "Reading trigram index key with an unexpected keySize:%d", keySize ) );
+        }
+    }
+
+    @Override
+    public void readValue( PageCursor cursor, TrigramValue into, int valueSize )
+    {
+        if ( valueSize < 0 || valueSize > cursor.getCurrentPageSize() )
+        {
+            into.bytes = ArrayUtils.EMPTY_BYTE_ARRAY;
+            cursor.setCursorException( format( "Reading trigram index value with an unexpected valueSize:%d", valueSize ) );
+            return;
+        }
+        // Documents are handed out as values, so every read gets its own array
+        into.bytes = valueSize == 0 ? ArrayUtils.EMPTY_BYTE_ARRAY : new byte[valueSize];
+        cursor.getBytes( into.bytes );
+    }
+
+    @Override
+    public boolean fixedSize()
+    {
+        return false;
+    }
+
+    @Override
+    public long identifier()
+    {
+        return IDENTIFIER;
+    }
+
+    @Override
+    public int majorVersion()
+    {
+        return 0;
+    }
+
+    @Override
+    public int minorVersion()
+    {
+        return 1;
+    }
+
+    @Override
+    public int compare( TrigramKey o1, TrigramKey o2 )
+    {
+        return o1.compareTo( o2 );
+    }
+}
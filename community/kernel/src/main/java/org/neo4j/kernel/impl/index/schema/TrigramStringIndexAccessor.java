@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import org.neo4j.graphdb.ResourceIterator;
+import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
+import org.neo4j.index.internal.gbptree.Writer;
+import org.neo4j.io.IOUtils;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.IOLimiter;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.api.index.IndexProvider;
+import org.neo4j.kernel.impl.api.index.IndexUpdateMode;
+import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingConfig;
+import org.neo4j.storageengine.api.schema.IndexReader;
+import org.neo4j.storageengine.api.schema.StoreIndexDescriptor;
+
+import static org.neo4j.helpers.collection.Iterators.asResourceIterator;
+import static org.neo4j.helpers.collection.Iterators.iterator;
+
+/**
+ * {@link StringIndexAccessor} which also keeps the {@link TrigramIndex trigram tree} of the index.
+ */
+class TrigramStringIndexAccessor extends StringIndexAccessor
+{
+    private final TrigramIndex trigram;
+    private final TrigramStringIndexUpdater singleUpdater;
+
+    TrigramStringIndexAccessor( PageCache pageCache, FileSystemAbstraction fs, File storeFile, IndexLayout<StringIndexKey,NativeIndexValue> layout,
+            RecoveryCleanupWorkCollector recoveryCleanupWorkCollector, IndexProvider.Monitor monitor, StoreIndexDescriptor descriptor,
+            IndexSamplingConfig samplingConfig ) throws IOException
+    {
+        super( pageCache, fs, storeFile, layout, recoveryCleanupWorkCollector, monitor, descriptor, samplingConfig );
+        singleUpdater = new TrigramStringIndexUpdater( layout.newKey(), layout.newValue() );
+        trigram = new TrigramIndex( pageCache, fs, storeFile );
+        try
+        {
+            trigram.instantiateTree( recoveryCleanupWorkCollector );
+        }
+        catch ( RuntimeException e )
+        {
+            closeTree();
+            throw e;
+        }
+    }
+
+    @Override
+    public TrigramStringIndexUpdater newUpdater( IndexUpdateMode mode )
+    {
+        assertOpen();
+        Writer<StringIndexKey,NativeIndexValue> writer = null;
+        try
+        {
+            // Like the string tree, the trigram tree is changed through parallel writers by online updaters
+            if ( mode == IndexUpdateMode.RECOVERY )
+            {
+                writer = tree.writer();
+                return singleUpdater.initialize( writer, bloomFilter, statistics, trigram.writer() );
+            }
+            writer = tree.parallelWriter();
+            return new TrigramStringIndexUpdater( layout.newKey(), layout.newValue() )
+                    .initialize( writer, bloomFilter, statistics, trigram.parallelWriter() );
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+        catch ( RuntimeException e )
+        {
+            IOUtils.closeAllSilently( writer );
+            throw e;
+        }
+    }
+
+    @Override
+    public void drop()
+    {
+        try
+        {
+            super.drop();
+        }
+        finally
+        {
+            trigram.drop();
+        }
+    }
+
+    @Override
+    public void force( IOLimiter ioLimiter )
+    {
+        super.force( ioLimiter );
+        trigram.force( ioLimiter );
+    }
+
+    @Override
+    public void close()
+    {
+        try
+        {
+            super.close();
+        }
+        finally
+        {
+            trigram.closeTree();
+        }
+    }
+
+    @Override
+    public boolean isDirty()
+    {
+        return super.isDirty() || trigram.wasDirtyOnStartup();
+    }
+
+    @Override
+    public IndexReader newReader()
+    {
+        assertOpen();
+        return withSharedState( new TrigramStringIndexReader( tree, layout, samplingConfig, descriptor, trigram.tree() ) );
+    }
+
+    @Override
+    public ResourceIterator<File> snapshotFiles()
+    {
+        return asResourceIterator( iterator( storeFile, trigram.file() ) );
+    }
+
+    @Override
+    public void consistencyCheck()
+    {
+        super.consistencyCheck();
+        trigram.consistencyCheck();
+    }
+}
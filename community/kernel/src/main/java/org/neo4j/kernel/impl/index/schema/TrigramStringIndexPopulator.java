@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+
+import org.neo4j.index.internal.gbptree.Writer;
+import org.neo4j.io.IOUtils;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.IOLimiter;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
+import org.neo4j.kernel.api.index.IndexEntryUpdate;
+import org.neo4j.kernel.api.index.IndexProvider;
+import org.neo4j.kernel.api.index.IndexUpdater;
+import org.neo4j.kernel.api.index.NodePropertyAccessor;
+import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingConfig;
+import org.neo4j.storageengine.api.schema.StoreIndexDescriptor;
+
+/**
+ * {@link StringIndexPopulator} which also populates the {@link TrigramIndex trigram tree} of the index.
+ * <p>
+ * Entries are written to the trigram tree as they come, using {@link TrigramIndex#parallelWriter() parallel writers}
+ * so that batches from multiple threads don't wait for each other, and the tree is checkpointed when the population completes.
+ */
+class TrigramStringIndexPopulator extends StringIndexPopulator
+{
+    private final TrigramIndex trigram;
+
+    TrigramStringIndexPopulator( PageCache pageCache, FileSystemAbstraction fs, File storeFile, IndexLayout<StringIndexKey,NativeIndexValue> layout,
+            IndexProvider.Monitor monitor, StoreIndexDescriptor descriptor, IndexSamplingConfig samplingConfig )
+    {
+        super( pageCache, fs, storeFile, layout, monitor, descriptor, samplingConfig );
+        this.trigram = new TrigramIndex( pageCache, fs, storeFile );
+    }
+
+    @Override
+    public void clear()
+    {
+        super.clear();
+        deleteFileIfPresent( fileSystem, trigram.file() );
+    }
+
+    @Override
+    public synchronized void create()
+    {
+        super.create();
+        trigram.closeTree();
+        trigram.create();
+    }
+
+    @Override
+    public synchronized void drop()
+    {
+        try
+        {
+            super.drop();
+        }
+        finally
+        {
+            trigram.drop();
+        }
+    }
+
+    @Override
+    public void add( Collection<? extends IndexEntryUpdate<?>> updates ) throws IndexEntryConflictException
+    {
+        super.add( updates );
+        applyToTrigramTree( updates );
+    }
+
+    @Override
+    public IndexUpdater newPopulatingUpdater( NodePropertyAccessor accessor )
+    {
+        IndexUpdater updater = super.newPopulatingUpdater( accessor );
+        return new IndexUpdater()
+        {
+            private final Collection<IndexEntryUpdate<?>> updates = new ArrayList<>();
+
+            @Override
+            public void process( IndexEntryUpdate<?> update ) throws IndexEntryConflictException
+            {
+                updater.process( update );
+                updates.add( update );
+            }
+
+            @Override
+            public void close() throws IndexEntryConflictException
+            {
+                updater.close();
+                applyToTrigramTree( updates );
+            }
+        };
+    }
+
+    @Override
+    public synchronized void close( boolean populationCompletedSuccessfully )
+    {
+        try
+        {
+            super.close( populationCompletedSuccessfully );
+            if ( populationCompletedSuccessfully )
+            {
+                trigram.force( IOLimiter.UNLIMITED );
+            }
+        }
+        finally
+        {
+            trigram.closeTree();
+        }
+    }
+
+    private void applyToTrigramTree( Collection<? extends IndexEntryUpdate<?>> updates )
+    {
+        TrigramKey key = new TrigramKey();
+        TrigramValue value = new TrigramValue();
+        Writer<TrigramKey,TrigramValue> writer = trigram.parallelWriter();
+        try
+        {
+            for ( IndexEntryUpdate<?> update : updates )
+            {
+                TrigramIndex.process( update, writer, key, value );
+            }
+        }
+        finally
+        {
+            IOUtils.closeAllUnchecked( writer );
+        }
+    }
+}
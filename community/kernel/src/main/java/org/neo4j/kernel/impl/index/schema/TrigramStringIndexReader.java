@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.eclipse.collections.api.set.primitive.MutableLongSet;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.internal.kernel.api.IndexOrder;
+import org.neo4j.internal.kernel.api.IndexQuery;
+import org.neo4j.internal.kernel.api.IndexQuery.StringContainsPredicate;
+import org.neo4j.internal.kernel.api.IndexQuery.StringSuffixPredicate;
+import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingConfig;
+import org.neo4j.storageengine.api.schema.IndexDescriptor;
+import org.neo4j.storageengine.api.schema.IndexProgressor;
+
+/**
+ * {@link StringIndexReader} which answers {@link IndexQuery.IndexQueryType#stringContains contains} and
+ * {@link IndexQuery.IndexQueryType#stringSuffix suffix} queries from the {@link TrigramIndex trigram tree}, instead of scanning
+ * all strings in the index. Query strings too short to have a gram, and queries asking for results in order, still scan.
+ */
+class TrigramStringIndexReader extends StringIndexReader
+{
+    private final GBPTree<TrigramKey,TrigramValue> trigramTree;
+    private final Set<TrigramIndexProgressor> openProgressors = ConcurrentHashMap.newKeySet();
+
+    TrigramStringIndexReader( GBPTree<StringIndexKey,NativeIndexValue> tree, IndexLayout<StringIndexKey,NativeIndexValue> layout,
+            IndexSamplingConfig samplingConfig, IndexDescriptor descriptor, GBPTree<TrigramKey,TrigramValue> trigramTree )
+    {
+        super( tree, layout, samplingConfig, descriptor );
+        this.trigramTree = trigramTree;
+    }
+
+    @Override
+    public void query( IndexProgressor.NodeValueClient client, IndexOrder indexOrder, boolean needsValues, IndexQuery... predicates )
+    {
+        validateQuery( indexOrder, predicates );
+        MutableLongSet grams = indexOrder == IndexOrder.NONE ? queryGrams( predicates[0] ) : null;
+        if ( grams == null || grams.isEmpty() )
+        {
+            super.query( client, indexOrder, needsValues, predicates );
+            return;
+        }
+
+        TrigramIndexProgressor progressor = new TrigramIndexProgressor( trigramTree, grams, predicates[0], client, openProgressors );
+        openProgressors.add( progressor );
+        client.initialize( descriptor, progressor, predicates, needsValues );
+    }
+
+    @Override
+    public List<Partition> partitionedQuery( int desiredNumberOfPartitions, boolean needsValues, IndexQuery... predicates )
+    {
+        // Posting lists are intersected from their beginning, so trigram queries aren't partitioned
+        MutableLongSet grams = queryGrams( predicates[0] );
+        if ( grams != null && !grams.isEmpty() )
+        {
+            return singlePartition( needsValues, predicates );
+        }
+        return super.partitionedQuery( desiredNumberOfPartitions, needsValues, predicates );
+    }
+
+    @Override
+    public void close()
+    {
+        try
+        {
+            for ( TrigramIndexProgressor progressor : openProgressors )
+            {
+                progressor.close();
+            }
+        }
+        finally
+        {
+            super.close();
+        }
+    }
+
+    /**
+     * @return the grams all matching strings have, or {@code null} if the predicate can't be answered by the trigram tree.
+     */
+    private static MutableLongSet queryGrams( IndexQuery predicate )
+    {
+        switch ( predicate.type() )
+        {
+        case stringContains:
+            return TrigramIndex.gramsOf( ((StringContainsPredicate) predicate).contains() );
+        case stringSuffix:
+            return TrigramIndex.gramsOf( ((StringSuffixPredicate) predicate).suffix() + TrigramIndex.END );
+        default:
+            return null;
+        }
+    }
+}
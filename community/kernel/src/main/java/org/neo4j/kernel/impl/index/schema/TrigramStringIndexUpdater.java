@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.neo4j.index.internal.gbptree.Writer;
+import org.neo4j.io.IOUtils;
+import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
+import org.neo4j.kernel.api.index.IndexEntryUpdate;
+
+/**
+ * {@link NativeIndexUpdater} which also applies the updates to the {@link TrigramIndex trigram tree}.
+ */
+class TrigramStringIndexUpdater extends NativeIndexUpdater<StringIndexKey,NativeIndexValue>
+{
+    private final TrigramKey trigramKey = new TrigramKey();
+    private final TrigramValue trigramValue = new TrigramValue();
+    private Writer<TrigramKey,TrigramValue> trigramWriter;
+
+    TrigramStringIndexUpdater( StringIndexKey treeKey, NativeIndexValue treeValue )
+    {
+        super( treeKey, treeValue );
+    }
+
+    TrigramStringIndexUpdater initialize( Writer<StringIndexKey,NativeIndexValue> writer,
+            UniqueIndexBloomFilter<StringIndexKey,NativeIndexValue> bloomFilter, NativeIndexStatistics statistics,
+            Writer<TrigramKey,TrigramValue> trigramWriter )
+    {
+        initialize( writer, bloomFilter, statistics );
+        this.trigramWriter = trigramWriter;
+        return this;
+    }
+
+    @Override
+    public void process( IndexEntryUpdate<?> update ) throws IndexEntryConflictException
+    {
+        // The string tree checks uniqueness, so it goes first
+        super.process( update );
+        TrigramIndex.process( update, trigramWriter, trigramKey, trigramValue );
+    }
+
+    @Override
+    public void close()
+    {
+        try
+        {
+            super.close();
+        }
+        finally
+        {
+            IOUtils.closeAllUnchecked( trigramWriter );
+        }
+    }
+}
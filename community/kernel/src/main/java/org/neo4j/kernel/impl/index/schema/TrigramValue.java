@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.apache.commons.lang3.ArrayUtils;
+
+import org.neo4j.values.storable.TextValue;
+import org.neo4j.values.storable.Values;
+
+/**
+ * Value in the trigram tree of a {@link TrigramStringIndexProvider trigram string index}. Empty for postings,
+ * and the UTF-8 bytes of the string value for documents, see {@link TrigramKey}.
+ */
+class TrigramValue
+{
+    static final byte[] EMPTY = ArrayUtils.EMPTY_BYTE_ARRAY;
+
+    byte[] bytes = EMPTY;
+
+    int size()
+    {
+        return bytes.length;
+    }
+
+    TextValue asValue()
+    {
+        return Values.utf8Value( bytes );
+    }
+
+    @Override
+    public String toString()
+    {
+        return bytes.length == 0 ? "[no value]" : asValue().stringValue();
+    }
+}
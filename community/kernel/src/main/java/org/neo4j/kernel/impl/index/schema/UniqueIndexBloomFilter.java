@@ -0,0 +1,383 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.neo4j.cursor.RawCursor;
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Hit;
+import org.neo4j.internal.kernel.api.IndexQuery;
+import org.neo4j.internal.kernel.api.IndexQuery.ExactPredicate;
+import org.neo4j.kernel.api.index.IndexProvider;
+import org.neo4j.storageengine.api.schema.IndexDescriptor;
+import org.neo4j.storageengine.api.schema.IndexProgressor;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.ValueGroup;
+
+/**
+ * In-memory Bloom filter over the value tuples in a unique native index. An exact lookup of a tuple which the filter
+ * reports as {@link #mightContain(IndexQuery[]) definitely absent} doesn't need to seek the tree at all, which is the common
+ * case for the uniqueness checks preceding inserts of new values, e.g. during MERGE heavy loads.
+ * <p>
+ * The filter never gives false negatives: tuples are {@link #add(Value[]) added} before they are written to the tree
+ * and removed tuples stay in the filter until it's {@link #rebuild() rebuilt}. Only value groups where
+ * values which are equal in the index also have equal {@link Value#hashCode() hash codes} are answered by the filter,
+ * lookups of other values always seek the tree.
+ * <p>
+ * The filter is built from the tree when the index is opened. When more tuples have been added than it was sized for it's
+ * rebuilt, larger, at the next {@link #rebuildIfNeeded() checkpoint} rather than by the committing transaction. Tuples written
+ * to the tree while a rebuild scans it are {@link #written(long) added} to the filter being built as well. The filter never grows
+ * beyond its maximum size, beyond which its false positive rate goes up instead.
+ * <p>
+ * Tuples may be added concurrently by any number of online index updaters, each writing through its own parallel tree writer,
+ * since bits are set with compare-and-set and the number of added tuples is a {@link LongAdder}. Rebuilding is done by the
+ * checkpointer, while lookups may happen concurrently from any number of readers.
+ */
+class UniqueIndexBloomFilter<KEY extends NativeIndexKey<KEY>, VALUE extends NativeIndexValue>
+{
+    private static final int BITS_PER_ENTRY = 10;
+    private static final int NUMBER_OF_HASH_FUNCTIONS = 7;
+    private static final long MIN_CAPACITY = 1 << 12;
+
+    private final GBPTree<KEY,VALUE> tree;
+    private final IndexLayout<KEY,VALUE> layout;
+    private final File indexFile;
+    private final IndexDescriptor descriptor;
+    private final IndexProvider.Monitor monitor;
+    private final int numberOfProperties;
+    private final long maxNumberOfBits;
+
+    private volatile Bits bits;
+    // The filter being rebuilt, if any
+    private volatile Bits rebuilding;
+
+    // Lookups of tuples the filter said were absent, and lookups where the filter was wrong respectively right about a tuple being present
+    private final LongAdder negatives = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private final LongAdder truePositives = new LongAdder();
+    private long reportedNegatives;
+    private long reportedFalsePositives;
+    private long reportedTruePositives;
+
+    /**
+     * @param maxSizeInBytes the most memory this filter may use.
+     */
+    UniqueIndexBloomFilter( GBPTree<KEY,VALUE> tree, IndexLayout<KEY,VALUE> layout, File indexFile, IndexDescriptor descriptor,
+            IndexProvider.Monitor monitor, long maxSizeInBytes )
+    {
+        this.tree = tree;
+        this.layout = layout;
+        this.indexFile = indexFile;
+        this.descriptor = descriptor;
+        this.monitor = monitor;
+        this.numberOfProperties = descriptor.schema().getPropertyIds().length;
+        this.maxNumberOfBits = Math.min( 1L << 31, Long.highestOneBit( Math.max( Long.BYTES, maxSizeInBytes ) * Byte.SIZE ) );
+        this.bits = new Bits( MIN_CAPACITY, maxNumberOfBits );
+    }
+
+    /**
+     * Replaces the contents of this filter with the tuples currently in the tree, sized to fit the current number of entries with room to grow.
+     */
+    synchronized void rebuild()
+    {
+        KEY from = layout.newKey();
+        from.initialize( Long.MIN_VALUE );
+        from.initValuesAsLowest();
+        KEY to = layout.newKey();
+        to.initialize( Long.MAX_VALUE );
+        to.initValuesAsHighest();
+        try
+        {
+            long entries = 0;
+            try ( RawCursor<Hit<KEY,VALUE>,IOException> seeker = tree.seek( from, to ) )
+            {
+                while ( seeker.next() )
+                {
+                    entries++;
+                }
+            }
+            Bits rebuilt = new Bits( Math.max( MIN_CAPACITY, entries * 2 ), maxNumberOfBits );
+            // Entries written from here on may or may not be seen by the scan below, so the updater adds them to the rebuilt filter too
+            rebuilding = rebuilt;
+            try ( RawCursor<Hit<KEY,VALUE>,IOException> seeker = tree.seek( from, to ) )
+            {
+                while ( seeker.next() )
+                {
+                    rebuilt.set( hash( seeker.get().key().asValues() ) );
+                }
+            }
+            rebuilt.added.add( entries );
+            bits = rebuilt;
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+        finally
+        {
+            rebuilding = null;
+        }
+    }
+
+    /**
+     * Called at checkpoints. {@link #rebuild() Rebuilds} this filter if more tuples have been added than it was sized for,
+     * unless it's already as large as it may get, and {@link #report() reports} lookups.
+     */
+    void rebuildIfNeeded()
+    {
+        Bits current = bits;
+        if ( current.added.sum() > current.capacity && current.numberOfBits < maxNumberOfBits )
+        {
+            rebuild();
+        }
+        report();
+    }
+
+    /**
+     * Called by the updater after its updates have been written to the tree.
+     */
+    void afterUpdates()
+    {
+        report();
+    }
+
+    /**
+     * Reports lookups made since the previous report to the {@link IndexProvider.Monitor}.
+     */
+    synchronized void report()
+    {
+        long negatives = this.negatives.sum();
+        long falsePositives = this.falsePositives.sum();
+        long truePositives = this.truePositives.sum();
+        if ( negatives != reportedNegatives || falsePositives != reportedFalsePositives || truePositives != reportedTruePositives )
+        {
+            monitor.bloomFilterLookups( indexFile, descriptor, negatives - reportedNegatives, falsePositives - reportedFalsePositives,
+                    truePositives - reportedTruePositives );
+            reportedNegatives = negatives;
+            reportedFalsePositives = falsePositives;
+            reportedTruePositives = truePositives;
+        }
+    }
+
+    /**
+     * Adds a tuple which is about to be written to the tree.
+     *
+     * @return the {@link #hash(Value[]) hash} of the tuple, to pass to {@link #written(long)} after it's been written to the tree.
+     */
+    long add( Value[] values )
+    {
+        long hash = hash( values );
+        Bits current = bits;
+        current.set( hash );
+        current.added.increment();
+        return hash;
+    }
+
+    /**
+     * Adds a tuple which has been written to the tree to a filter being {@link #rebuild() rebuilt}, which may have missed it,
+     * and to the current filter again, which may be the rebuilt one by now.
+     */
+    void written( long hash )
+    {
+        // The rebuilt filter is published before the rebuilding one is cleared, so read in the opposite order
+        Bits rebuilt = rebuilding;
+        if ( rebuilt != null )
+        {
+            rebuilt.set( hash );
+        }
+        bits.set( hash );
+    }
+
+    /**
+     * @param predicates query predicates.
+     * @return whether or not this filter can answer a lookup with these predicates, i.e. it's an exact lookup of a full tuple.
+     */
+    boolean covers( IndexQuery[] predicates )
+    {
+        if ( predicates.length != numberOfProperties )
+        {
+            return false;
+        }
+        for ( IndexQuery predicate : predicates )
+        {
+            if ( !(predicate instanceof ExactPredicate) || !covers( ((ExactPredicate) predicate).value() ) )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean covers( Value value )
+    {
+        ValueGroup group = value.valueGroup();
+        return (group == ValueGroup.NUMBER || group == ValueGroup.TEXT || group == ValueGroup.BOOLEAN) && !value.isNaN();
+    }
+
+    /**
+     * @param predicates exact predicates, which this filter must {@link #covers(IndexQuery[]) cover}.
+     * @return {@code false} if the tuple is definitely not in the index, otherwise {@code true}.
+     */
+    boolean mightContain( IndexQuery[] predicates )
+    {
+        long hash = 1;
+        for ( IndexQuery predicate : predicates )
+        {
+            hash = 31 * hash + ((ExactPredicate) predicate).value().hashCode();
+        }
+        boolean mightContain = bits.mightContain( mix( hash ) );
+        if ( !mightContain )
+        {
+            negatives.increment();
+        }
+        return mightContain;
+    }
+
+    /**
+     * Wraps the progressor of a lookup which this filter said {@link #mightContain(IndexQuery[]) might} find something,
+     * to keep track of how often that was wrong.
+     */
+    IndexProgressor recordingFalsePositives( IndexProgressor progressor )
+    {
+        return new IndexProgressor()
+        {
+            private boolean recorded;
+
+            @Override
+            public boolean next()
+            {
+                boolean next = progressor.next();
+                if ( !recorded )
+                {
+                    recorded = true;
+                    (next ? truePositives : falsePositives).increment();
+                }
+                return next;
+            }
+
+            @Override
+            public void close()
+            {
+                progressor.close();
+            }
+        };
+    }
+
+    /**
+     * @return number of tuples this filter is currently sized for.
+     */
+    long capacity()
+    {
+        return bits.capacity;
+    }
+
+    /**
+     * @return the ratio of lookups of absent tuples which the filter failed to rule out, since this filter was created.
+     */
+    double falsePositiveRate()
+    {
+        long fp = falsePositives.sum();
+        long tn = negatives.sum();
+        return fp + tn == 0 ? 0 : (double) fp / (fp + tn);
+    }
+
+    /**
+     * @return well distributed hash of a value tuple, equal for tuples which are equal in the index
+     * as long as they're {@link #covers(IndexQuery[]) covered}.
+     */
+    static long hash( Value[] values )
+    {
+        long hash = 1;
+        for ( Value value : values )
+        {
+            hash = 31 * hash + value.hashCode();
+        }
+        return mix( hash );
+    }
+
+    /**
+     * Spreads the bits of the combined {@link Value#hashCode() hash codes}, the finalizer of MurmurHash3.
+     */
+    private static long mix( long hash )
+    {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static class Bits
+    {
+        private final long capacity;
+        private final long numberOfBits;
+        private final long mask;
+        private final AtomicLongArray words;
+        // changed by all online updaters, once published
+        private final LongAdder added = new LongAdder();
+
+        Bits( long capacity, long maxNumberOfBits )
+        {
+            this.numberOfBits = Math.min( maxNumberOfBits, Long.highestOneBit( capacity * BITS_PER_ENTRY - 1 ) << 1 );
+            this.capacity = Math.min( capacity, numberOfBits / BITS_PER_ENTRY );
+            this.mask = numberOfBits - 1;
+            this.words = new AtomicLongArray( (int) (numberOfBits >>> 6) );
+        }
+
+        void set( long hash )
+        {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for ( int i = 0; i < NUMBER_OF_HASH_FUNCTIONS; i++ )
+            {
+                long bit = (h1 + (long) i * h2) & mask;
+                int word = (int) (bit >>> 6);
+                long bitMask = 1L << bit;
+                long current;
+                do
+                {
+                    current = words.get( word );
+                }
+                while ( (current & bitMask) == 0 && !words.compareAndSet( word, current, current | bitMask ) );
+            }
+        }
+
+        boolean mightContain( long hash )
+        {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for ( int i = 0; i < NUMBER_OF_HASH_FUNCTIONS; i++ )
+            {
+                long bit = (h1 + (long) i * h2) & mask;
+                if ( (words.get( (int) (bit >>> 6) ) & (1L << bit)) == 0 )
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
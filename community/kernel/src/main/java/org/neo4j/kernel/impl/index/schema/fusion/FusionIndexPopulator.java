@@ -81,6 +81,16 @@ class FusionIndexPopulator extends FusionIndexBase<IndexPopulator> implements In
         }
     }
 
+    @Override
+    public void scanCompleted() throws IndexEntryConflictException
+    {
+        // Manual loop due do multiple exception types
+        for ( IndexSlot slot : IndexSlot.values() )
+        {
+            instanceSelector.select( slot ).scanCompleted();
+        }
+    }
+
     @Override
     public void verifyDeferredConstraints( NodePropertyAccessor nodePropertyAccessor ) throws IndexEntryConflictException
     {
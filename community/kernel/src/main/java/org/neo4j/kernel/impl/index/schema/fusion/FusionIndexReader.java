@@ -19,7 +19,9 @@
  */
 package org.neo4j.kernel.impl.index.schema.fusion;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 import org.neo4j.collection.PrimitiveLongResourceIterator;
 import org.neo4j.graphdb.Resource;
@@ -29,6 +31,7 @@ import org.neo4j.internal.kernel.api.IndexQuery.ExistsPredicate;
 import org.neo4j.internal.kernel.api.exceptions.schema.IndexNotApplicableKernelException;
 import org.neo4j.kernel.impl.api.schema.BridgingIndexProgressor;
 import org.neo4j.storageengine.api.schema.IndexDescriptor;
+import org.neo4j.storageengine.api.schema.IndexHistogram;
 import org.neo4j.storageengine.api.schema.IndexProgressor;
 import org.neo4j.storageengine.api.schema.IndexReader;
 import org.neo4j.storageengine.api.schema.IndexSampler;
@@ -65,6 +68,31 @@ class FusionIndexReader extends FusionIndexBase<IndexReader> implements IndexRea
         return new FusionIndexSampler( instanceSelector.transform( IndexReader::createSampler ) );
     }
 
+    @Override
+    public IndexSampler createFullScanSampler()
+    {
+        return new FusionIndexSampler( instanceSelector.transform( IndexReader::createFullScanSampler ) );
+    }
+
+    /**
+     * Each value group is kept by one part, so the histograms of the parts which keep one, i.e. the native number and string parts,
+     * make up a histogram of the whole index which is missing the entries of the other parts.
+     */
+    @Override
+    public IndexHistogram histogram()
+    {
+        List<IndexHistogram> histograms = new ArrayList<>();
+        instanceSelector.forAll( reader ->
+        {
+            IndexHistogram histogram = reader.histogram();
+            if ( histogram != null )
+            {
+                histograms.add( histogram );
+            }
+        } );
+        return IndexHistogram.combine( histograms );
+    }
+
     @Override
     public PrimitiveLongResourceIterator query( IndexQuery... predicates ) throws IndexNotApplicableKernelException
     {
@@ -115,6 +143,40 @@ class FusionIndexReader extends FusionIndexBase<IndexReader> implements IndexRea
         }
     }
 
+    @Override
+    public List<Partition> partitionedQuery( int desiredNumberOfPartitions, boolean needsValues, IndexQuery... predicates )
+            throws IndexNotApplicableKernelException
+    {
+        IndexSlot slot = slotSelector.selectSlot( predicates, IndexQuery::valueGroup );
+        if ( slot != null )
+        {
+            return instanceSelector.select( slot ).partitionedQuery( desiredNumberOfPartitions, needsValues, predicates );
+        }
+
+        // The query spans all parts. Typically most of the entries are in one of them and the others are small or empty,
+        // so every part is asked for the desired number of partitions rather than for an even share of them.
+        List<Partition> partitions = new ArrayList<>();
+        try
+        {
+            instanceSelector.forAll( reader ->
+            {
+                try
+                {
+                    partitions.addAll( reader.partitionedQuery( desiredNumberOfPartitions, needsValues, predicates ) );
+                }
+                catch ( IndexNotApplicableKernelException e )
+                {
+                    throw new InnerException( e );
+                }
+            } );
+        }
+        catch ( InnerException e )
+        {
+            throw e.getCause();
+        }
+        return partitions;
+    }
+
     private static final class InnerException extends RuntimeException
     {
         private InnerException( IndexNotApplicableKernelException e )
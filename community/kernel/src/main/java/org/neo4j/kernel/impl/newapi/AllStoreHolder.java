@@ -75,8 +75,10 @@ import org.neo4j.storageengine.api.StorageReader;
 import org.neo4j.storageengine.api.schema.CapableIndexDescriptor;
 import org.neo4j.storageengine.api.schema.IndexDescriptor;
 import org.neo4j.storageengine.api.schema.IndexDescriptorFactory;
+import org.neo4j.storageengine.api.schema.IndexHistogram;
 import org.neo4j.storageengine.api.schema.IndexReader;
 import org.neo4j.storageengine.api.schema.LabelScanReader;
+import org.neo4j.storageengine.api.schema.RelationshipTypeScanReader;
 import org.neo4j.storageengine.api.schema.PopulationProgress;
 import org.neo4j.storageengine.api.schema.SchemaRule;
 import org.neo4j.storageengine.api.schema.StoreIndexDescriptor;
@@ -255,6 +257,12 @@ public class AllStoreHolder extends Read
         return storageReader.getLabelScanReader();
     }
 
+    @Override
+    RelationshipTypeScanReader relationshipTypeScanReader()
+    {
+        return storageReader.getRelationshipTypeScanReader();
+    }
+
     @Override
     ExplicitIndex explicitNodeIndex( String indexName ) throws ExplicitIndexNotFoundKernelException
     {
@@ -606,6 +614,14 @@ public class AllStoreHolder extends Read
         return storageReader.indexSample( index.schema(), target );
     }
 
+    @Override
+    public IndexHistogram indexHistogram( IndexReference index ) throws IndexNotFoundKernelException
+    {
+        ktx.assertOpen();
+        assertValidIndex( index );
+        return storageReader.getIndexReader( (IndexDescriptor) index ).histogram();
+    }
+
     IndexReference indexGetCapability( IndexDescriptor schemaIndexDescriptor )
     {
         try
@@ -42,6 +42,7 @@ public class DefaultCursors implements CursorFactory
     private DefaultRelationshipGroupCursor relationshipGroupCursor;
     private DefaultNodeValueIndexCursor nodeValueIndexCursor;
     private DefaultNodeLabelIndexCursor nodeLabelIndexCursor;
+    private DefaultRelationshipTypeIndexCursor relationshipTypeIndexCursor;
     private DefaultNodeExplicitIndexCursor nodeExplicitIndexCursor;
     private DefaultRelationshipExplicitIndexCursor relationshipExplicitIndexCursor;
 
@@ -242,6 +243,34 @@ public class DefaultCursors implements CursorFactory
         nodeLabelIndexCursor = cursor;
     }
 
+    @Override
+    public DefaultRelationshipTypeIndexCursor allocateRelationshipTypeIndexCursor()
+    {
+        if ( relationshipTypeIndexCursor == null )
+        {
+            return trace( new DefaultRelationshipTypeIndexCursor( new DefaultRelationshipScanCursor( null,
+                    storageReader.allocateRelationshipScanCursor() ), this ) );
+        }
+
+        try
+        {
+            return relationshipTypeIndexCursor;
+        }
+        finally
+        {
+            relationshipTypeIndexCursor = null;
+        }
+    }
+
+    public void accept( DefaultRelationshipTypeIndexCursor cursor )
+    {
+        if ( relationshipTypeIndexCursor != null )
+        {
+            relationshipTypeIndexCursor.release();
+        }
+        relationshipTypeIndexCursor = cursor;
+    }
+
     @Override
     public DefaultNodeExplicitIndexCursor allocateNodeExplicitIndexCursor()
     {
@@ -334,6 +363,11 @@ public class DefaultCursors implements CursorFactory
             nodeLabelIndexCursor.release();
             nodeLabelIndexCursor = null;
         }
+        if ( relationshipTypeIndexCursor != null )
+        {
+            relationshipTypeIndexCursor.release();
+            relationshipTypeIndexCursor = null;
+        }
         if ( nodeExplicitIndexCursor != null )
         {
             nodeExplicitIndexCursor.release();
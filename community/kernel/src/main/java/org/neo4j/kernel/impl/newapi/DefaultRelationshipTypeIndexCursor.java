@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.newapi;
+
+import org.eclipse.collections.api.iterator.LongIterator;
+import org.eclipse.collections.impl.iterator.ImmutableEmptyLongIterator;
+
+import org.neo4j.internal.kernel.api.NodeCursor;
+import org.neo4j.internal.kernel.api.RelationshipScanCursor;
+import org.neo4j.internal.kernel.api.RelationshipTypeIndexCursor;
+import org.neo4j.storageengine.api.schema.IndexProgressor;
+import org.neo4j.storageengine.api.schema.IndexProgressor.RelationshipTypeClient;
+
+import static org.neo4j.kernel.impl.store.record.AbstractBaseRecord.NO_ID;
+
+class DefaultRelationshipTypeIndexCursor extends IndexCursor<IndexProgressor>
+        implements RelationshipTypeIndexCursor, RelationshipTypeClient
+{
+    private Read read;
+    private int type;
+    private long relationship;
+    private LongIterator added;
+    private final DefaultRelationshipScanCursor scanCursor;
+
+    private final DefaultCursors pool;
+
+    DefaultRelationshipTypeIndexCursor( DefaultRelationshipScanCursor scanCursor, DefaultCursors pool )
+    {
+        this.scanCursor = scanCursor;
+        this.pool = pool;
+        relationship = NO_ID;
+    }
+
+    @Override
+    public void scan( IndexProgressor progressor, int type )
+    {
+        super.initialize( progressor );
+        this.type = type;
+        this.added = read.hasTxStateWithChanges()
+                     ? read.txState().addedAndRemovedRelationships().getAdded().longIterator()
+                     : ImmutableEmptyLongIterator.INSTANCE;
+    }
+
+    @Override
+    public boolean acceptRelationship( long reference )
+    {
+        // Relationships deleted in this transaction are filtered out by the scan cursor
+        return moveTo( reference );
+    }
+
+    @Override
+    public boolean next()
+    {
+        while ( added.hasNext() )
+        {
+            if ( moveTo( added.next() ) && scanCursor.type() == type )
+            {
+                return true;
+            }
+        }
+        return innerNext();
+    }
+
+    private boolean moveTo( long reference )
+    {
+        read.singleRelationship( reference, scanCursor );
+        if ( scanCursor.next() )
+        {
+            relationship = reference;
+            return true;
+        }
+        return false;
+    }
+
+    public void setRead( Read read )
+    {
+        this.read = read;
+    }
+
+    @Override
+    public void relationship( RelationshipScanCursor cursor )
+    {
+        read.singleRelationship( relationship, cursor );
+    }
+
+    @Override
+    public void sourceNode( NodeCursor cursor )
+    {
+        read.singleNode( sourceNodeReference(), cursor );
+    }
+
+    @Override
+    public void targetNode( NodeCursor cursor )
+    {
+        read.singleNode( targetNodeReference(), cursor );
+    }
+
+    @Override
+    public int type()
+    {
+        return type;
+    }
+
+    @Override
+    public long sourceNodeReference()
+    {
+        return scanCursor.sourceNodeReference();
+    }
+
+    @Override
+    public long targetNodeReference()
+    {
+        return scanCursor.targetNodeReference();
+    }
+
+    @Override
+    public long relationshipReference()
+    {
+        return relationship;
+    }
+
+    @Override
+    public void close()
+    {
+        if ( !isClosed() )
+        {
+            super.close();
+            relationship = NO_ID;
+            added = null;
+            read = null;
+
+            pool.accept( this );
+        }
+    }
+
+    @Override
+    public boolean isClosed()
+    {
+        return super.isClosed();
+    }
+
+    @Override
+    public String toString()
+    {
+        if ( isClosed() )
+        {
+            return "RelationshipTypeIndexCursor[closed state]";
+        }
+        else
+        {
+            return "RelationshipTypeIndexCursor[relationship=" + relationship + ", type=" + type +
+                    ", underlying record=" + super.toString() + "]";
+        }
+    }
+
+    public void release()
+    {
+        scanCursor.release();
+    }
+}
@@ -24,6 +24,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Executor;
 import java.util.function.Supplier;
 
 import org.neo4j.graphdb.factory.GraphDatabaseSettings;
@@ -43,6 +44,8 @@ import org.neo4j.kernel.api.exceptions.TransactionApplyKernelException;
 import org.neo4j.kernel.api.labelscan.LabelScanStore;
 import org.neo4j.kernel.api.labelscan.LabelScanWriter;
 import org.neo4j.kernel.api.labelscan.LoggingMonitor;
+import org.neo4j.kernel.api.labelscan.RelationshipTypeScanStore;
+import org.neo4j.kernel.api.labelscan.RelationshipTypeScanWriter;
 import org.neo4j.kernel.api.txstate.TransactionCountingStateVisitor;
 import org.neo4j.kernel.configuration.Config;
 import org.neo4j.kernel.impl.api.BatchTransactionApplier;
@@ -63,6 +66,7 @@ import org.neo4j.kernel.impl.api.index.IndexingServiceFactory;
 import org.neo4j.kernel.impl.api.index.IndexingUpdateService;
 import org.neo4j.kernel.impl.api.index.PropertyPhysicalToLogicalConverter;
 import org.neo4j.kernel.impl.api.scan.FullLabelStream;
+import org.neo4j.kernel.impl.api.scan.FullRelationshipTypeStream;
 import org.neo4j.kernel.impl.api.store.SchemaCache;
 import org.neo4j.kernel.impl.cache.BridgingCacheAccess;
 import org.neo4j.kernel.impl.constraints.ConstraintSemantics;
@@ -71,6 +75,7 @@ import org.neo4j.kernel.impl.core.TokenHolders;
 import org.neo4j.kernel.impl.factory.OperationalMode;
 import org.neo4j.kernel.impl.index.IndexConfigStore;
 import org.neo4j.kernel.impl.index.labelscan.NativeLabelScanStore;
+import org.neo4j.kernel.impl.index.labelscan.NativeRelationshipTypeScanStore;
 import org.neo4j.kernel.impl.locking.LockGroup;
 import org.neo4j.kernel.impl.locking.LockService;
 import org.neo4j.kernel.impl.storageengine.impl.recordstorage.id.IdController;
@@ -87,6 +92,7 @@ import org.neo4j.kernel.impl.transaction.command.HighIdBatchTransactionApplier;
 import org.neo4j.kernel.impl.transaction.command.IndexBatchTransactionApplier;
 import org.neo4j.kernel.impl.transaction.command.IndexUpdatesWork;
 import org.neo4j.kernel.impl.transaction.command.LabelUpdateWork;
+import org.neo4j.kernel.impl.transaction.command.RelationshipTypeUpdateWork;
 import org.neo4j.kernel.impl.transaction.command.NeoStoreBatchTransactionApplier;
 import org.neo4j.kernel.impl.transaction.state.IntegrityValidator;
 import org.neo4j.kernel.impl.transaction.state.storeview.DynamicIndexStoreView;
@@ -98,6 +104,7 @@ import org.neo4j.kernel.lifecycle.Lifecycle;
 import org.neo4j.kernel.monitoring.Monitors;
 import org.neo4j.kernel.spi.explicitindex.IndexImplementation;
 import org.neo4j.logging.LogProvider;
+import org.neo4j.scheduler.Group;
 import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.storageengine.api.CommandReaderFactory;
 import org.neo4j.storageengine.api.CommandsToApply;
@@ -108,6 +115,7 @@ import org.neo4j.storageengine.api.StoreFileMetadata;
 import org.neo4j.storageengine.api.StoreId;
 import org.neo4j.storageengine.api.TransactionApplicationMode;
 import org.neo4j.storageengine.api.lock.ResourceLocker;
+import org.neo4j.storageengine.api.schema.RelationshipTypeScanReader;
 import org.neo4j.storageengine.api.schema.SchemaRule;
 import org.neo4j.storageengine.api.txstate.ReadableTransactionState;
 import org.neo4j.storageengine.api.txstate.TxStateVisitor;
@@ -115,6 +123,7 @@ import org.neo4j.util.VisibleForTesting;
 import org.neo4j.util.concurrent.WorkSync;
 
 import static org.neo4j.kernel.impl.locking.LockService.NO_LOCK_SERVICE;
+import static org.neo4j.storageengine.api.TransactionApplicationMode.INTERNAL;
 import static org.neo4j.storageengine.api.TransactionApplicationMode.RECOVERY;
 import static org.neo4j.storageengine.api.TransactionApplicationMode.REVERSE_RECOVERY;
 
@@ -129,6 +138,7 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     private final IntegrityValidator integrityValidator;
     private final CacheAccessBackDoor cacheAccess;
     private final LabelScanStore labelScanStore;
+    private final RelationshipTypeScanStore relationshipTypeScanStore;
     private final IndexProviderMap indexProviderMap;
     private final ExplicitIndexApplierLookup explicitIndexApplierLookup;
     private final SchemaState schemaState;
@@ -137,6 +147,7 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     private final IdOrderingQueue explicitIndexTransactionOrdering;
     private final LockService lockService;
     private final WorkSync<Supplier<LabelScanWriter>,LabelUpdateWork> labelScanStoreSync;
+    private final WorkSync<Supplier<RelationshipTypeScanWriter>,RelationshipTypeUpdateWork> relationshipTypeScanStoreSync;
     private final CommandReaderFactory commandReaderFactory;
     private final WorkSync<IndexingUpdateService,IndexUpdatesWork> indexUpdatesSync;
     private final IndexStoreView indexStoreView;
@@ -145,6 +156,8 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     private final IdController idController;
     private final int denseNodeThreshold;
     private final int recordIdBatchSize;
+    private final Executor parallelApplyExecutor;
+    private final boolean parallelIndexUpdates;
 
     public RecordStorageEngine(
             DatabaseLayout databaseLayout,
@@ -196,6 +209,23 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
             monitors.addMonitorListener( new LoggingMonitor( logProvider.getLog( NativeLabelScanStore.class ) ) );
             labelScanStore = new NativeLabelScanStore( pageCache, databaseLayout, fs, new FullLabelStream( neoStoreIndexStoreView ),
                     readOnly, monitors, recoveryCleanupWorkCollector );
+            if ( config.get( GraphDatabaseSettings.relationship_type_scan_store ) )
+            {
+                relationshipTypeScanStore = new NativeRelationshipTypeScanStore( pageCache, databaseLayout, fs,
+                        new FullRelationshipTypeStream( neoStores.getRelationshipStore() ), readOnly, monitors,
+                        new LoggingMonitor( logProvider.getLog( NativeRelationshipTypeScanStore.class ), "relationship type index" ),
+                        recoveryCleanupWorkCollector );
+            }
+            else
+            {
+                relationshipTypeScanStore = null;
+                if ( !readOnly )
+                {
+                    // A store left from when it was enabled misses the relationships created and deleted since, so it's
+                    // deleted to have it rebuilt from the relationship store if it's enabled again
+                    fs.deleteFile( databaseLayout.relationshipTypeScanStore() );
+                }
+            }
 
             // We need to load the property tokens here, since we need them before we load the indexes.
             tokenHolders.propertyKeyTokens().setInitialTokens( neoStores.getPropertyKeyTokenStore().getTokens() );
@@ -213,12 +243,16 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
             explicitIndexApplierLookup = new ExplicitIndexApplierLookup.Direct( explicitIndexProvider );
 
             labelScanStoreSync = new WorkSync<>( labelScanStore::newWriter );
+            relationshipTypeScanStoreSync = relationshipTypeScanStore != null ? new WorkSync<>( relationshipTypeScanStore::newWriter ) : null;
 
             commandReaderFactory = new RecordStorageCommandReaderFactory();
             indexUpdatesSync = new WorkSync<>( indexingService );
 
             denseNodeThreshold = config.get( GraphDatabaseSettings.dense_node_threshold );
             recordIdBatchSize = config.get( GraphDatabaseSettings.record_id_batch_size );
+            parallelApplyExecutor = config.get( GraphDatabaseSettings.parallel_transaction_apply )
+                                    ? scheduler.executor( Group.TRANSACTION_APPLY ) : null;
+            parallelIndexUpdates = config.get( GraphDatabaseSettings.parallel_index_updates );
         }
         catch ( Throwable failure )
         {
@@ -232,7 +266,18 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     {
         Supplier<IndexReaderFactory> indexReaderFactory = () -> new IndexReaderFactory.Caching( indexingService );
         return new RecordStorageReader( tokenHolders, schemaStorage, neoStores, indexingService,
-                schemaCache, indexReaderFactory, labelScanStore::newReader, allocateCommandCreationContext() );
+                schemaCache, indexReaderFactory, labelScanStore::newReader, this::newRelationshipTypeScanReader,
+                allocateCommandCreationContext() );
+    }
+
+    private RelationshipTypeScanReader newRelationshipTypeScanReader()
+    {
+        if ( relationshipTypeScanStore == null )
+        {
+            throw new IllegalStateException( "The relationship type scan store is disabled, see " +
+                    GraphDatabaseSettings.relationship_type_scan_store.name() );
+        }
+        return relationshipTypeScanStore.newReader();
     }
 
     @Override
@@ -320,7 +365,9 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     {
         ArrayList<BatchTransactionApplier> appliers = new ArrayList<>();
         // Graph store application. The order of the decorated store appliers is irrelevant
-        appliers.add( new NeoStoreBatchTransactionApplier( mode.version(), neoStores, cacheAccess, lockService( mode ) ) );
+        NeoStoreBatchTransactionApplier neoStoreApplier =
+                new NeoStoreBatchTransactionApplier( mode.version(), neoStores, cacheAccess, lockService( mode ), parallelApplyExecutor );
+        appliers.add( neoStoreApplier );
         if ( mode.needsHighIdTracking() )
         {
             appliers.add( new HighIdBatchTransactionApplier( neoStores ) );
@@ -335,7 +382,10 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
             appliers.add( new CountsStoreBatchTransactionApplier( neoStores.getCounts(), mode ) );
 
             // Schema index application
-            appliers.add( new IndexBatchTransactionApplier( indexingService, labelScanStoreSync, indexUpdatesSync,
+            // Committing transactions may apply their own index updates in parallel, other transactions are applied one batch at a time anyway
+            WorkSync<IndexingUpdateService,IndexUpdatesWork> indexUpdatesWorkSync =
+                    mode == INTERNAL && parallelIndexUpdates ? null : indexUpdatesSync;
+            appliers.add( new IndexBatchTransactionApplier( indexingService, labelScanStoreSync, relationshipTypeScanStoreSync, indexUpdatesWorkSync,
                     neoStores.getNodeStore(), neoStores.getRelationshipStore(),
                     indexUpdatesConverter ) );
 
@@ -346,6 +396,14 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
                             mode ) );
         }
 
+        // Records collected for parallel application must be written before the appliers above are closed and read them from the stores.
+        // Transaction appliers are closed in reverse order, so this one goes last
+        BatchTransactionApplier parallelRecordUpdatesWriter = neoStoreApplier.parallelRecordUpdatesWriter();
+        if ( parallelRecordUpdatesWriter != null )
+        {
+            appliers.add( parallelRecordUpdatesWriter );
+        }
+
         // Perform the application
         return new BatchTransactionApplierFacade(
                 appliers.toArray( new BatchTransactionApplier[appliers.size()] ) );
@@ -363,6 +421,10 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
         satisfier.satisfyDependency( indexProviderMap );
         satisfier.satisfyDependency( integrityValidator );
         satisfier.satisfyDependency( labelScanStore );
+        if ( relationshipTypeScanStore != null )
+        {
+            satisfier.satisfyDependency( relationshipTypeScanStore );
+        }
         satisfier.satisfyDependency( indexingService );
         satisfier.satisfyDependency( neoStores.getMetaDataStore() );
         satisfier.satisfyDependency( indexStoreView );
@@ -373,6 +435,10 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     {
         indexingService.init();
         labelScanStore.init();
+        if ( relationshipTypeScanStore != null )
+        {
+            relationshipTypeScanStore.init();
+        }
     }
 
     @Override
@@ -391,6 +457,10 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
         loadSchemaCache();
         indexingService.start();
         labelScanStore.start();
+        if ( relationshipTypeScanStore != null )
+        {
+            relationshipTypeScanStore.start();
+        }
         idController.start();
     }
 
@@ -412,6 +482,10 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     {
         indexingService.stop();
         labelScanStore.stop();
+        if ( relationshipTypeScanStore != null )
+        {
+            relationshipTypeScanStore.stop();
+        }
         idController.stop();
     }
 
@@ -420,6 +494,10 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     {
         indexingService.shutdown();
         labelScanStore.shutdown();
+        if ( relationshipTypeScanStore != null )
+        {
+            relationshipTypeScanStore.shutdown();
+        }
         neoStores.close();
     }
 
@@ -428,6 +506,10 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     {
         indexingService.forceAll( limiter );
         labelScanStore.force( limiter );
+        if ( relationshipTypeScanStore != null )
+        {
+            relationshipTypeScanStore.force( limiter );
+        }
         for ( IndexImplementation index : explicitIndexProviderLookup.allIndexProviders() )
         {
             index.force();
@@ -478,6 +560,10 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
                 files.add( metadata );
             }
         }
+        if ( relationshipTypeScanStore != null )
+        {
+            files.add( new StoreFileMetadata( relationshipTypeScanStore.getRelationshipTypeScanStoreFile(), RecordFormat.NO_RECORD_SIZE ) );
+        }
         return files;
     }
 
@@ -38,6 +38,7 @@ import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.layout.DatabaseLayout;
 import org.neo4j.io.pagecache.IOLimiter;
 import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCacheOpenOptions;
 import org.neo4j.io.pagecache.PagedFile;
 import org.neo4j.io.pagecache.tracing.cursor.context.VersionContextSupplier;
 import org.neo4j.kernel.NeoStoresDiagnostics;
@@ -614,7 +615,8 @@ public class NeoStores implements AutoCloseable
     CommonAbstractStore createRelationshipGroupStore()
     {
         return initialize( new RelationshipGroupStore( layout.relationshipGroupStore(), layout.idRelationshipGroupStore(), config,
-                idGeneratorFactory, pageCache, logProvider, recordFormats, openOptions ) );
+                idGeneratorFactory, pageCache, logProvider, recordFormats,
+                ArrayUtil.concat( openOptions, PageCacheOpenOptions.RESERVED ) ) );
     }
 
     CommonAbstractStore createLabelTokenNamesStore()
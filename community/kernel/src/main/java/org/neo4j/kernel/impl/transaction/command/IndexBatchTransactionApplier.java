@@ -30,6 +30,8 @@ import org.neo4j.kernel.api.exceptions.index.IndexActivationFailedKernelExceptio
 import org.neo4j.kernel.api.exceptions.index.IndexPopulationFailedKernelException;
 import org.neo4j.kernel.api.labelscan.LabelScanWriter;
 import org.neo4j.kernel.api.labelscan.NodeLabelUpdate;
+import org.neo4j.kernel.api.labelscan.RelationshipTypeScanWriter;
+import org.neo4j.kernel.api.labelscan.RelationshipTypeUpdate;
 import org.neo4j.kernel.impl.api.BatchTransactionApplier;
 import org.neo4j.kernel.impl.api.TransactionApplier;
 import org.neo4j.kernel.impl.api.index.IndexingService;
@@ -40,6 +42,7 @@ import org.neo4j.kernel.impl.store.NodeLabels;
 import org.neo4j.kernel.impl.store.NodeStore;
 import org.neo4j.kernel.impl.store.RelationshipStore;
 import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
 import org.neo4j.kernel.impl.transaction.command.Command.PropertyCommand;
 import org.neo4j.kernel.impl.transaction.state.IndexUpdates;
 import org.neo4j.kernel.impl.transaction.state.OnlineIndexUpdates;
@@ -48,29 +51,47 @@ import org.neo4j.storageengine.api.schema.StoreIndexDescriptor;
 import org.neo4j.util.concurrent.AsyncApply;
 import org.neo4j.util.concurrent.WorkSync;
 
+import static org.neo4j.kernel.api.labelscan.RelationshipTypeUpdate.NO_TYPE;
 import static org.neo4j.kernel.impl.store.NodeLabelsField.parseLabelsField;
 
 /**
- * Gather node and property changes, converting them into logical updates to the indexes. {@link #close()} will actually
+ * Gather node, relationship and property changes, converting them into logical updates to the indexes. {@link #close()} will actually
  * apply the indexes.
  */
 public class IndexBatchTransactionApplier extends BatchTransactionApplier.Adapter
 {
     private final IndexingService indexingService;
     private final WorkSync<Supplier<LabelScanWriter>,LabelUpdateWork> labelScanStoreSync;
+    private final WorkSync<Supplier<RelationshipTypeScanWriter>,RelationshipTypeUpdateWork> relationshipTypeScanStoreSync;
     private final WorkSync<IndexingUpdateService,IndexUpdatesWork> indexUpdatesSync;
     private final SingleTransactionApplier transactionApplier;
     private final PropertyPhysicalToLogicalConverter indexUpdateConverter;
 
     private List<NodeLabelUpdate> labelUpdates;
+    private List<RelationshipTypeUpdate> typeUpdates;
     private IndexUpdates indexUpdates;
 
     public IndexBatchTransactionApplier( IndexingService indexingService, WorkSync<Supplier<LabelScanWriter>,LabelUpdateWork> labelScanStoreSync,
             WorkSync<IndexingUpdateService,IndexUpdatesWork> indexUpdatesSync, NodeStore nodeStore, RelationshipStore relationshipStore,
             PropertyPhysicalToLogicalConverter indexUpdateConverter )
+    {
+        this( indexingService, labelScanStoreSync, null, indexUpdatesSync, nodeStore, relationshipStore, indexUpdateConverter );
+    }
+
+    /**
+     * @param relationshipTypeScanStoreSync {@link WorkSync} applying relationship type updates, or {@code null} if there's
+     * no relationship type scan store to keep up to date.
+     * @param indexUpdatesSync {@link WorkSync} applying index updates, or {@code null} to have the applying thread apply the index updates
+     * of its transactions itself, at the same time as other threads apply theirs.
+     */
+    public IndexBatchTransactionApplier( IndexingService indexingService, WorkSync<Supplier<LabelScanWriter>,LabelUpdateWork> labelScanStoreSync,
+            WorkSync<Supplier<RelationshipTypeScanWriter>,RelationshipTypeUpdateWork> relationshipTypeScanStoreSync,
+            WorkSync<IndexingUpdateService,IndexUpdatesWork> indexUpdatesSync, NodeStore nodeStore, RelationshipStore relationshipStore,
+            PropertyPhysicalToLogicalConverter indexUpdateConverter )
     {
         this.indexingService = indexingService;
         this.labelScanStoreSync = labelScanStoreSync;
+        this.relationshipTypeScanStoreSync = relationshipTypeScanStoreSync;
         this.indexUpdatesSync = indexUpdatesSync;
         this.indexUpdateConverter = indexUpdateConverter;
         this.transactionApplier = new SingleTransactionApplier( nodeStore, relationshipStore );
@@ -92,15 +113,30 @@ public class IndexBatchTransactionApplier extends BatchTransactionApplier.Adapte
             labelUpdatesApply = labelScanStoreSync.applyAsync( new LabelUpdateWork( labelUpdates ) );
             labelUpdates = null;
         }
+        AsyncApply typeUpdatesApply = null;
+        if ( typeUpdates != null )
+        {
+            // Sorted by relationship id when applied, relationship commands are sorted per transaction only
+            typeUpdatesApply = relationshipTypeScanStoreSync.applyAsync( new RelationshipTypeUpdateWork( typeUpdates ) );
+            typeUpdates = null;
+        }
         if ( indexUpdates != null && indexUpdates.hasUpdates() )
         {
-            try
+            IndexUpdatesWork indexUpdatesWork = new IndexUpdatesWork( indexUpdates );
+            if ( indexUpdatesSync == null )
             {
-                indexUpdatesSync.apply( new IndexUpdatesWork( indexUpdates ) );
+                indexUpdatesWork.apply( indexingService );
             }
-            catch ( ExecutionException e )
+            else
             {
-                throw new IOException( "Failed to flush index updates", e );
+                try
+                {
+                    indexUpdatesSync.apply( indexUpdatesWork );
+                }
+                catch ( ExecutionException e )
+                {
+                    throw new IOException( "Failed to flush index updates", e );
+                }
             }
             indexUpdates = null;
         }
@@ -116,6 +152,17 @@ public class IndexBatchTransactionApplier extends BatchTransactionApplier.Adapte
                 throw new IOException( "Failed to flush label updates", e );
             }
         }
+        if ( typeUpdatesApply != null )
+        {
+            try
+            {
+                typeUpdatesApply.await();
+            }
+            catch ( ExecutionException e )
+            {
+                throw new IOException( "Failed to flush relationship type updates", e );
+            }
+        }
     }
 
     @Override
@@ -202,6 +249,23 @@ public class IndexBatchTransactionApplier extends BatchTransactionApplier.Adapte
         @Override
         public boolean visitRelationshipCommand( Command.RelationshipCommand command ) throws IOException
         {
+            // for relationship type store updates
+            if ( relationshipTypeScanStoreSync != null )
+            {
+                RelationshipRecord before = command.getBefore();
+                RelationshipRecord after = command.getAfter();
+                if ( before.inUse() != after.inUse() )
+                {
+                    if ( typeUpdates == null )
+                    {
+                        typeUpdates = new ArrayList<>();
+                    }
+                    typeUpdates.add( RelationshipTypeUpdate.typeChange( command.getKey(),
+                            before.inUse() ? before.getType() : NO_TYPE, after.inUse() ? after.getType() : NO_TYPE ) );
+                }
+            }
+
+            // for indexes
             return indexUpdatesExtractor.visitRelationshipCommand( command );
         }
 
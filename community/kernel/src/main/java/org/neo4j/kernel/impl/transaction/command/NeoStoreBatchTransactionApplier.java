@@ -19,6 +19,8 @@
  */
 package org.neo4j.kernel.impl.transaction.command;
 
+import java.util.concurrent.Executor;
+
 import org.neo4j.kernel.impl.api.BatchTransactionApplier;
 import org.neo4j.kernel.impl.api.TransactionApplier;
 import org.neo4j.kernel.impl.core.CacheAccessBackDoor;
@@ -41,6 +43,7 @@ public class NeoStoreBatchTransactionApplier extends BatchTransactionApplier.Ada
     // Ideally we don't want any cache access in here, but it is how it is. At least we try to minimize use of it
     private final CacheAccessBackDoor cacheAccess;
     private final LockService lockService;
+    private final ParallelRecordUpdates parallelUpdates;
 
     public NeoStoreBatchTransactionApplier( NeoStores store, CacheAccessBackDoor cacheAccess, LockService lockService )
     {
@@ -48,11 +51,22 @@ public class NeoStoreBatchTransactionApplier extends BatchTransactionApplier.Ada
     }
 
     public NeoStoreBatchTransactionApplier( CommandVersion version, NeoStores store, CacheAccessBackDoor cacheAccess, LockService lockService )
+    {
+        this( version, store, cacheAccess, lockService, null );
+    }
+
+    /**
+     * @param parallelApplyExecutor executor for writing the records of each transaction to the different stores in parallel,
+     * see {@link ParallelRecordUpdates}, or {@code null} to write them one at a time.
+     */
+    public NeoStoreBatchTransactionApplier( CommandVersion version, NeoStores store, CacheAccessBackDoor cacheAccess, LockService lockService,
+            Executor parallelApplyExecutor )
     {
         this.version = version;
         this.neoStores = store;
         this.cacheAccess = cacheAccess;
         this.lockService = lockService;
+        this.parallelUpdates = parallelApplyExecutor != null ? new ParallelRecordUpdates( store, parallelApplyExecutor ) : null;
     }
 
     @Override
@@ -64,6 +78,39 @@ public class NeoStoreBatchTransactionApplier extends BatchTransactionApplier.Ada
     @Override
     public TransactionApplier startTx( CommandsToApply transaction, LockGroup lockGroup )
     {
-        return new NeoStoreTransactionApplier( version, neoStores, cacheAccess, lockService, transaction.transactionId(), lockGroup );
+        return new NeoStoreTransactionApplier( version, neoStores, cacheAccess, lockService, transaction.transactionId(), lockGroup,
+                parallelUpdates );
+    }
+
+    /**
+     * The records of a transaction which are collected for {@link ParallelRecordUpdates} must be written before any applier
+     * that reads them from the stores is closed, e.g. the index applier looking up properties of changed nodes. Transaction appliers
+     * are closed in reverse order, so this applier must be placed last among the appliers of a batch to have its transaction
+     * appliers write the records of each transaction before the others are closed.
+     *
+     * @return applier writing the collected records of each transaction when its transaction applier is closed,
+     * or {@code null} if records are written one at a time as their commands are visited.
+     */
+    public BatchTransactionApplier parallelRecordUpdatesWriter()
+    {
+        if ( parallelUpdates == null )
+        {
+            return null;
+        }
+        return new BatchTransactionApplier.Adapter()
+        {
+            @Override
+            public TransactionApplier startTx( CommandsToApply transaction )
+            {
+                return new TransactionApplier.Adapter()
+                {
+                    @Override
+                    public void close() throws Exception
+                    {
+                        parallelUpdates.apply();
+                    }
+                };
+            }
+        };
     }
 }
@@ -48,9 +48,21 @@ public class NeoStoreTransactionApplier extends TransactionApplier.Adapter
     private final NeoStores neoStores;
     private final CacheAccessBackDoor cacheAccess;
     private final LockService lockService;
+    private final ParallelRecordUpdates parallelUpdates;
 
     public NeoStoreTransactionApplier( CommandVersion version, NeoStores neoStores, CacheAccessBackDoor cacheAccess, LockService lockService,
             long transactionId, LockGroup lockGroup )
+    {
+        this( version, neoStores, cacheAccess, lockService, transactionId, lockGroup, null );
+    }
+
+    /**
+     * @param parallelUpdates where to collect node, relationship, property and relationship group records to write them to
+     * their stores in parallel, at the latest when this applier is closed, or {@code null} to write them one at a time
+     * as their commands are visited.
+     */
+    NeoStoreTransactionApplier( CommandVersion version, NeoStores neoStores, CacheAccessBackDoor cacheAccess, LockService lockService,
+            long transactionId, LockGroup lockGroup, ParallelRecordUpdates parallelUpdates )
     {
         this.version = version;
         this.lockGroup = lockGroup;
@@ -58,12 +70,23 @@ public class NeoStoreTransactionApplier extends TransactionApplier.Adapter
         this.lockService = lockService;
         this.neoStores = neoStores;
         this.cacheAccess = cacheAccess;
+        this.parallelUpdates = parallelUpdates;
     }
 
     @Override
-    public void close()
+    public void close() throws Exception
     {
-        lockGroup.close();
+        try
+        {
+            if ( parallelUpdates != null )
+            {
+                parallelUpdates.apply();
+            }
+        }
+        finally
+        {
+            lockGroup.close();
+        }
     }
 
     @Override
@@ -73,7 +96,14 @@ public class NeoStoreTransactionApplier extends TransactionApplier.Adapter
         lockGroup.add( lockService.acquireNodeLock( command.getKey(), LockService.LockType.WRITE_LOCK ) );
 
         // update store
-        updateStore( neoStores.getNodeStore(), command );
+        if ( parallelUpdates != null )
+        {
+            parallelUpdates.node( selectRecordByCommandVersion( command ) );
+        }
+        else
+        {
+            updateStore( neoStores.getNodeStore(), command );
+        }
         return false;
     }
 
@@ -82,7 +112,14 @@ public class NeoStoreTransactionApplier extends TransactionApplier.Adapter
     {
         lockGroup.add( lockService.acquireRelationshipLock( command.getKey(), LockService.LockType.WRITE_LOCK ) );
 
-        updateStore( neoStores.getRelationshipStore(), command );
+        if ( parallelUpdates != null )
+        {
+            parallelUpdates.relationship( selectRecordByCommandVersion( command ) );
+        }
+        else
+        {
+            updateStore( neoStores.getRelationshipStore(), command );
+        }
         return false;
     }
 
@@ -99,14 +136,28 @@ public class NeoStoreTransactionApplier extends TransactionApplier.Adapter
             lockGroup.add( lockService.acquireRelationshipLock( command.getRelId(), LockService.LockType.WRITE_LOCK ) );
         }
 
-        updateStore( neoStores.getPropertyStore(), command );
+        if ( parallelUpdates != null )
+        {
+            parallelUpdates.property( selectRecordByCommandVersion( command ) );
+        }
+        else
+        {
+            updateStore( neoStores.getPropertyStore(), command );
+        }
         return false;
     }
 
     @Override
     public boolean visitRelationshipGroupCommand( Command.RelationshipGroupCommand command )
     {
-        updateStore( neoStores.getRelationshipGroupStore(), command );
+        if ( parallelUpdates != null )
+        {
+            parallelUpdates.relationshipGroup( selectRecordByCommandVersion( command ) );
+        }
+        else
+        {
+            updateStore( neoStores.getRelationshipGroupStore(), command );
+        }
         return false;
     }
 
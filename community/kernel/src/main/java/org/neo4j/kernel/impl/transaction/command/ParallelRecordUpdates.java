@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.command;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+import org.neo4j.kernel.impl.store.NeoStores;
+import org.neo4j.kernel.impl.store.RecordStore;
+import org.neo4j.kernel.impl.store.record.AbstractBaseRecord;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.PropertyRecord;
+import org.neo4j.kernel.impl.store.record.RelationshipGroupRecord;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+
+/**
+ * Node, relationship, property and relationship group records of a transaction, collected per store while the commands
+ * of the transaction are visited and then {@link #apply() written} to their stores concurrently, one store per thread.
+ * The stores are separate files with separate id generators and each store still gets its records in command order,
+ * so the stores end up the same as when the records are written one at a time.
+ * <p>
+ * Records are written after all appliers of the transaction have seen its commands, but before any of them is closed,
+ * see {@link NeoStoreBatchTransactionApplier#parallelRecordUpdatesWriter()}, and before the entity locks of the transaction
+ * are released. Appliers reading records from the stores, like the index applier loading the properties of changed nodes,
+ * only do so when closed and so see all records of the transaction.
+ */
+class ParallelRecordUpdates
+{
+    /**
+     * Transactions with fewer records than this are written on the applying thread, since handing records over to other threads
+     * costs more than writing them.
+     */
+    static final int MIN_RECORDS_FOR_PARALLEL_APPLY = 64;
+
+    private final Executor executor;
+    private final StoreUpdates<NodeRecord> nodes;
+    private final StoreUpdates<RelationshipRecord> relationships;
+    private final StoreUpdates<PropertyRecord> properties;
+    private final StoreUpdates<RelationshipGroupRecord> relationshipGroups;
+    private final List<StoreUpdates<?>> stores = new ArrayList<>();
+
+    ParallelRecordUpdates( NeoStores neoStores, Executor executor )
+    {
+        this.executor = executor;
+        this.nodes = store( neoStores.getNodeStore() );
+        this.relationships = store( neoStores.getRelationshipStore() );
+        this.properties = store( neoStores.getPropertyStore() );
+        this.relationshipGroups = store( neoStores.getRelationshipGroupStore() );
+    }
+
+    private <RECORD extends AbstractBaseRecord> StoreUpdates<RECORD> store( RecordStore<RECORD> store )
+    {
+        StoreUpdates<RECORD> updates = new StoreUpdates<>( store );
+        stores.add( updates );
+        return updates;
+    }
+
+    void node( NodeRecord record )
+    {
+        nodes.records.add( record );
+    }
+
+    void relationship( RelationshipRecord record )
+    {
+        relationships.records.add( record );
+    }
+
+    void property( PropertyRecord record )
+    {
+        properties.records.add( record );
+    }
+
+    void relationshipGroup( RelationshipGroupRecord record )
+    {
+        relationshipGroups.records.add( record );
+    }
+
+    /**
+     * Writes all collected records to their stores and waits for them to be written. The store with the most records
+     * is written by the calling thread.
+     */
+    void apply() throws ExecutionException, InterruptedException
+    {
+        StoreUpdates<?> largest = null;
+        int numberOfRecords = 0;
+        for ( StoreUpdates<?> store : stores )
+        {
+            numberOfRecords += store.records.size();
+            if ( largest == null || store.records.size() > largest.records.size() )
+            {
+                largest = store;
+            }
+        }
+
+        try
+        {
+            if ( numberOfRecords < MIN_RECORDS_FOR_PARALLEL_APPLY )
+            {
+                for ( StoreUpdates<?> store : stores )
+                {
+                    store.apply();
+                }
+                return;
+            }
+
+            List<FutureTask<Void>> tasks = new ArrayList<>();
+            for ( StoreUpdates<?> store : stores )
+            {
+                if ( store != largest && !store.records.isEmpty() )
+                {
+                    FutureTask<Void> task = new FutureTask<>( store::apply, null );
+                    executor.execute( task );
+                    tasks.add( task );
+                }
+            }
+            Throwable failure = null;
+            try
+            {
+                largest.apply();
+            }
+            catch ( Throwable t )
+            {
+                failure = t;
+            }
+            // Wait for all stores to be written, even if one failed, so that nothing is written after this transaction is done
+            for ( FutureTask<Void> task : tasks )
+            {
+                try
+                {
+                    task.get();
+                }
+                catch ( ExecutionException | InterruptedException e )
+                {
+                    if ( failure == null )
+                    {
+                        failure = e;
+                    }
+                    else
+                    {
+                        failure.addSuppressed( e );
+                    }
+                }
+            }
+            if ( failure instanceof ExecutionException )
+            {
+                throw (ExecutionException) failure;
+            }
+            if ( failure instanceof InterruptedException )
+            {
+                throw (InterruptedException) failure;
+            }
+            if ( failure instanceof RuntimeException )
+            {
+                throw (RuntimeException) failure;
+            }
+            if ( failure instanceof Error )
+            {
+                throw (Error) failure;
+            }
+        }
+        finally
+        {
+            for ( StoreUpdates<?> store : stores )
+            {
+                store.records.clear();
+            }
+        }
+    }
+
+    private static class StoreUpdates<RECORD extends AbstractBaseRecord>
+    {
+        private final RecordStore<RECORD> store;
+        private final List<RECORD> records = new ArrayList<>();
+
+        StoreUpdates( RecordStore<RECORD> store )
+        {
+            this.store = store;
+        }
+
+        void apply()
+        {
+            for ( RECORD record : records )
+            {
+                store.updateRecord( record );
+            }
+        }
+    }
+}
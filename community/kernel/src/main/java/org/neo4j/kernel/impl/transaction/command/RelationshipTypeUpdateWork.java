@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.command;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.neo4j.kernel.api.labelscan.RelationshipTypeScanWriter;
+import org.neo4j.kernel.api.labelscan.RelationshipTypeUpdate;
+import org.neo4j.kernel.impl.store.UnderlyingStorageException;
+import org.neo4j.util.concurrent.Work;
+
+import static org.neo4j.kernel.api.labelscan.RelationshipTypeUpdate.SORT_BY_RELATIONSHIP_ID;
+
+public class RelationshipTypeUpdateWork implements Work<Supplier<RelationshipTypeScanWriter>,RelationshipTypeUpdateWork>
+{
+    private final List<RelationshipTypeUpdate> typeUpdates;
+
+    public RelationshipTypeUpdateWork( List<RelationshipTypeUpdate> typeUpdates )
+    {
+        this.typeUpdates = typeUpdates;
+    }
+
+    @Override
+    public RelationshipTypeUpdateWork combine( RelationshipTypeUpdateWork work )
+    {
+        typeUpdates.addAll( work.typeUpdates );
+        return this;
+    }
+
+    @Override
+    public void apply( Supplier<RelationshipTypeScanWriter> relationshipTypeScanStore )
+    {
+        typeUpdates.sort( SORT_BY_RELATIONSHIP_ID );
+        try ( RelationshipTypeScanWriter writer = relationshipTypeScanStore.get() )
+        {
+            for ( RelationshipTypeUpdate update : typeUpdates )
+            {
+                writer.write( update );
+            }
+        }
+        catch ( Exception e )
+        {
+            throw new UnderlyingStorageException( e );
+        }
+    }
+}
@@ -67,6 +67,7 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
     private final LogPositionMarker positionMarker = new LogPositionMarker();
     private final DatabaseHealth databaseHealth;
     private final Lock forceLock = new ReentrantLock();
+    private final boolean compressCommands;
 
     private FlushablePositionAwareChannel writer;
     private TransactionLogWriter transactionLogWriter;
@@ -75,6 +76,13 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
     public BatchingTransactionAppender( LogFiles logFiles, LogRotation logRotation,
             TransactionMetadataCache transactionMetadataCache, TransactionIdStore transactionIdStore,
             IdOrderingQueue explicitIndexTransactionOrdering, DatabaseHealth databaseHealth )
+    {
+        this( logFiles, logRotation, transactionMetadataCache, transactionIdStore, explicitIndexTransactionOrdering, databaseHealth, false );
+    }
+
+    public BatchingTransactionAppender( LogFiles logFiles, LogRotation logRotation,
+            TransactionMetadataCache transactionMetadataCache, TransactionIdStore transactionIdStore,
+            IdOrderingQueue explicitIndexTransactionOrdering, DatabaseHealth databaseHealth, boolean compressCommands )
     {
         this.logFile = logFiles.getLogFile();
         this.logRotation = logRotation;
@@ -82,6 +90,7 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
         this.explicitIndexTransactionOrdering = explicitIndexTransactionOrdering;
         this.databaseHealth = databaseHealth;
         this.transactionMetadataCache = transactionMetadataCache;
+        this.compressCommands = compressCommands;
     }
 
     @Override
@@ -89,7 +98,7 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
     {
         this.writer = logFile.getWriter();
         this.indexCommandDetector = new IndexCommandDetector();
-        this.transactionLogWriter = new TransactionLogWriter( new LogEntryWriter( writer ) );
+        this.transactionLogWriter = new TransactionLogWriter( new LogEntryWriter( writer, compressCommands ) );
     }
 
     @Override
@@ -104,24 +113,7 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
             databaseHealth.assertHealthy( IOException.class );
             try ( SerializeTransactionEvent serialiseEvent = logAppendEvent.beginSerializeTransaction() )
             {
-                // Append all transactions in this batch to the log under the same logFile monitor
-                TransactionToApply tx = batch;
-                while ( tx != null )
-                {
-                    long transactionId = transactionIdStore.nextCommittingTransactionId();
-
-                    // If we're in a scenario where we're merely replicating transactions, i.e. transaction
-                    // id have already been generated by another entity we simply check that our id
-                    // that we generated match that id. If it doesn't we've run into a problem we can't ´
-                    // really recover from and would point to a bug somewhere.
-                    matchAgainstExpectedTransactionIdIfAny( transactionId, tx );
-
-                    TransactionCommitment commitment = appendToLog( tx.transactionRepresentation(), transactionId );
-                    tx.commitment( commitment, transactionId );
-                    tx.logPosition( commitment.logPosition() );
-                    tx = tx.next();
-                    lastTransactionId = transactionId;
-                }
+                lastTransactionId = appendBatch( batch );
             }
         }
 
@@ -143,6 +135,34 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
         return lastTransactionId;
     }
 
+    /**
+     * Appends all transactions in a batch to the log. Must be called while synchronized on the log file.
+     *
+     * @return id of the last transaction in the batch.
+     */
+    long appendBatch( TransactionToApply batch ) throws IOException
+    {
+        long lastTransactionId = TransactionIdStore.BASE_TX_ID;
+        TransactionToApply tx = batch;
+        while ( tx != null )
+        {
+            long transactionId = transactionIdStore.nextCommittingTransactionId();
+
+            // If we're in a scenario where we're merely replicating transactions, i.e. transaction
+            // id have already been generated by another entity we simply check that our id
+            // that we generated match that id. If it doesn't we've run into a problem we can't ´
+            // really recover from and would point to a bug somewhere.
+            matchAgainstExpectedTransactionIdIfAny( transactionId, tx );
+
+            TransactionCommitment commitment = appendToLog( tx.transactionRepresentation(), transactionId );
+            tx.commitment( commitment, transactionId );
+            tx.logPosition( commitment.logPosition() );
+            tx = tx.next();
+            lastTransactionId = transactionId;
+        }
+        return lastTransactionId;
+    }
+
     private void matchAgainstExpectedTransactionIdIfAny( long transactionId, TransactionToApply tx )
     {
         long expectedTransactionId = tx.transactionId();
@@ -160,7 +180,7 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
         }
     }
 
-    private void publishAsCommitted( TransactionToApply batch )
+    void publishAsCommitted( TransactionToApply batch )
     {
         while ( batch != null )
         {
@@ -333,7 +353,7 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
         LockSupport.parkNanos( this, parkTime );
     }
 
-    private void force() throws IOException
+    void force() throws IOException
     {
         // Empty buffer into writer. We want to synchronize with appenders somehow so that they
         // don't append while we're doing that. The way rotation is coordinated we can't synchronize
@@ -17,17 +17,14 @@
  * You should have received a copy of the GNU General Public License
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
-package org.neo4j.unsafe.impl.batchimport.input;
+package org.neo4j.kernel.impl.transaction.log;
 
 import java.io.Flushable;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 
-import org.neo4j.kernel.impl.transaction.log.FlushableChannel;
-import org.neo4j.kernel.impl.transaction.log.ReadableClosableChannel;
-
 /**
- * Wraps a byte[] -> {@link ByteBuffer} -> {@link ReadableClosableChannel}
+ * Wraps a byte[] -> {@link ByteBuffer} -> {@link FlushableChannel}
  */
 public class ByteBufferFlushableChannel implements FlushableChannel, Flushable
 {
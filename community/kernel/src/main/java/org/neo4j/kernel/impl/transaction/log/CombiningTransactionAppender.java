@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.neo4j.kernel.impl.api.TransactionToApply;
+import org.neo4j.kernel.impl.transaction.log.files.LogFile;
+import org.neo4j.kernel.impl.transaction.log.files.LogFiles;
+import org.neo4j.kernel.impl.transaction.log.rotation.LogRotation;
+import org.neo4j.kernel.impl.transaction.tracing.LogAppendEvent;
+import org.neo4j.kernel.impl.transaction.tracing.LogForceEvent;
+import org.neo4j.kernel.impl.transaction.tracing.LogForceWaitEvent;
+import org.neo4j.kernel.impl.transaction.tracing.SerializeTransactionEvent;
+import org.neo4j.kernel.impl.util.IdOrderingQueue;
+import org.neo4j.kernel.internal.DatabaseHealth;
+
+/**
+ * Appends transactions to the transaction log by flat combining: committers queue their batches and whichever committer
+ * gets to be the combiner appends all queued batches, in the order they were queued, under a single acquisition of
+ * the log file monitor and then forces the log once for all of them. Other committers wait for their batches to
+ * be appended and forced, and become the combiner for the batches queued in the meantime if no one else is.
+ * <p>
+ * Compared to {@link BatchingTransactionAppender}, which batches only the forcing of the log, this takes the log file
+ * monitor once per combined batch rather than once per committer, which matters for many small concurrent commits.
+ */
+public class CombiningTransactionAppender extends BatchingTransactionAppender
+{
+    private final AtomicReference<AppendRequest> queueHead = new AtomicReference<>( AppendRequest.END );
+    private final Lock combinerLock = new ReentrantLock();
+    private final LogFile logFile;
+    private final LogRotation logRotation;
+    private final DatabaseHealth databaseHealth;
+
+    public CombiningTransactionAppender( LogFiles logFiles, LogRotation logRotation,
+            TransactionMetadataCache transactionMetadataCache, TransactionIdStore transactionIdStore,
+            IdOrderingQueue explicitIndexTransactionOrdering, DatabaseHealth databaseHealth, boolean compressCommands )
+    {
+        super( logFiles, logRotation, transactionMetadataCache, transactionIdStore, explicitIndexTransactionOrdering, databaseHealth,
+                compressCommands );
+        this.logFile = logFiles.getLogFile();
+        this.logRotation = logRotation;
+        this.databaseHealth = databaseHealth;
+    }
+
+    @Override
+    public long append( TransactionToApply batch, LogAppendEvent logAppendEvent ) throws IOException
+    {
+        // There's a benign race here, where we add our request before we update our next pointer.
+        // This is okay, however, because the combiner spins when it sees a null next pointer.
+        AppendRequest request = new AppendRequest( batch, Thread.currentThread(), System.nanoTime() );
+        request.next = queueHead.getAndSet( request );
+        boolean combined = false;
+
+        try ( LogForceWaitEvent logForceWaitEvent = logAppendEvent.beginLogForceWait() )
+        {
+            while ( !request.done )
+            {
+                if ( combinerLock.tryLock() )
+                {
+                    combined = true;
+                    try
+                    {
+                        combine( logAppendEvent );
+                    }
+                    finally
+                    {
+                        combinerLock.unlock();
+
+                        // Batches may have been queued while we were combining, so wake up the most recent committer
+                        // to combine them, unless there are none
+                        queueHead.get().unpark();
+                    }
+                }
+                else
+                {
+                    LockSupport.parkNanos( this, TimeUnit.MILLISECONDS.toNanos( 100 ) );
+                }
+            }
+        }
+
+        if ( request.failure != null )
+        {
+            throw asIOException( request.failure );
+        }
+
+        if ( combined )
+        {
+            // It's enough if one of the committers of each combined batch checks the need for log rotation
+            boolean logRotated = logRotation.rotateLogIfNeeded( logAppendEvent );
+            logAppendEvent.setLogRotated( logRotated );
+        }
+
+        // Mark all transactions as committed
+        publishAsCommitted( batch );
+
+        return request.lastTransactionId;
+    }
+
+    /**
+     * Appends all queued batches to the log, forces it and lets their committers know. Must be called while holding the combiner lock.
+     */
+    private void combine( LogAppendEvent logAppendEvent )
+    {
+        List<AppendRequest> requests = drainQueue();
+        Throwable appendFailure = null;
+        int appended = 0;
+        int transactions = 0;
+
+        // Synchronized with logFile to get absolute control over concurrent rotations happening
+        synchronized ( logFile )
+        {
+            try
+            {
+                // Assert that kernel is healthy before making any changes
+                databaseHealth.assertHealthy( IOException.class );
+                try ( SerializeTransactionEvent serialiseEvent = logAppendEvent.beginSerializeTransaction() )
+                {
+                    for ( AppendRequest request : requests )
+                    {
+                        request.lastTransactionId = appendBatch( request.batch );
+                        appended++;
+                        for ( TransactionToApply tx = request.batch; tx != null; tx = tx.next() )
+                        {
+                            transactions++;
+                        }
+                    }
+                }
+            }
+            catch ( Throwable t )
+            {
+                // The batches appended before this one are still forced and committed, like they would have been had their
+                // committers appended them one by one, but this batch and the ones after it fail
+                appendFailure = t;
+            }
+        }
+
+        Throwable forceFailure = null;
+        if ( appended > 0 )
+        {
+            try ( LogForceEvent logForceEvent = logAppendEvent.beginLogForce() )
+            {
+                force();
+                logAppendEvent.appendedCombinedBatch( transactions, System.nanoTime() - requests.get( 0 ).queuedNanos );
+            }
+            catch ( Throwable panic )
+            {
+                databaseHealth.panic( panic );
+                forceFailure = panic;
+            }
+        }
+
+        for ( int i = 0; i < requests.size(); i++ )
+        {
+            AppendRequest request = requests.get( i );
+            request.failure = i < appended ? forceFailure : appendFailure;
+            request.done = true;
+            request.unpark();
+        }
+    }
+
+    /**
+     * @return all queued requests, oldest first.
+     */
+    private List<AppendRequest> drainQueue()
+    {
+        AppendRequest head = queueHead.getAndSet( AppendRequest.END );
+        List<AppendRequest> requests = new ArrayList<>();
+        while ( head != AppendRequest.END )
+        {
+            requests.add( head );
+            AppendRequest next;
+            do
+            {
+                // Spin because of the race:y update when consing.
+                next = head.next;
+            }
+            while ( next == null );
+            head = next;
+        }
+        for ( int i = 0, j = requests.size() - 1; i < j; i++, j-- )
+        {
+            AppendRequest tmp = requests.get( i );
+            requests.set( i, requests.get( j ) );
+            requests.set( j, tmp );
+        }
+        return requests;
+    }
+
+    private static IOException asIOException( Throwable failure )
+    {
+        if ( failure instanceof IOException )
+        {
+            return (IOException) failure;
+        }
+        if ( failure instanceof RuntimeException )
+        {
+            throw (RuntimeException) failure;
+        }
+        if ( failure instanceof Error )
+        {
+            throw (Error) failure;
+        }
+        return new IOException( failure );
+    }
+
+    private static class AppendRequest
+    {
+        static final AppendRequest END = new AppendRequest( null, null, 0 );
+
+        final TransactionToApply batch;
+        final Thread thread;
+        final long queuedNanos;
+        volatile AppendRequest next;
+        volatile boolean done;
+        volatile Throwable failure;
+        long lastTransactionId;
+
+        AppendRequest( TransactionToApply batch, Thread thread, long queuedNanos )
+        {
+            this.batch = batch;
+            this.thread = thread;
+            this.queuedNanos = queuedNanos;
+        }
+
+        void unpark()
+        {
+            if ( thread != null )
+            {
+                LockSupport.unpark( thread );
+            }
+        }
+    }
+}
@@ -37,14 +37,22 @@ public class PhysicalLogVersionedStoreChannel implements LogVersionedStoreChanne
     private final StoreChannel delegateChannel;
     private final long version;
     private final byte formatVersion;
+    private final boolean preallocated;
     private long position;
 
     public PhysicalLogVersionedStoreChannel( StoreChannel delegateChannel, long version, byte formatVersion )
             throws IOException
+    {
+        this( delegateChannel, version, formatVersion, false );
+    }
+
+    public PhysicalLogVersionedStoreChannel( StoreChannel delegateChannel, long version, byte formatVersion, boolean preallocated )
+            throws IOException
     {
         this.delegateChannel = delegateChannel;
         this.version = version;
         this.formatVersion = formatVersion;
+        this.preallocated = preallocated;
         this.position = delegateChannel.position();
     }
 
@@ -68,9 +76,9 @@ public class PhysicalLogVersionedStoreChannel implements LogVersionedStoreChanne
     }
 
     @Override
-    public int read( ByteBuffer dst, long position )
+    public int read( ByteBuffer dst, long position ) throws IOException
     {
-        throw new UnsupportedOperationException( "Not needed" );
+        return delegateChannel.read( dst, position );
     }
 
     @Override
@@ -179,6 +187,12 @@ public class PhysicalLogVersionedStoreChannel implements LogVersionedStoreChanne
         return formatVersion;
     }
 
+    @Override
+    public boolean isPreallocated()
+    {
+        return preallocated;
+    }
+
     @Override
     public boolean equals( Object o )
     {
@@ -58,6 +58,12 @@ public class ReadAheadLogChannel extends ReadAheadChannel<LogVersionedStoreChann
         return channel.getLogFormatVersion();
     }
 
+    @Override
+    public boolean isPreallocated()
+    {
+        return channel.isPreallocated();
+    }
+
     @Override
     public LogPositionMarker getCurrentPosition( LogPositionMarker positionMarker ) throws IOException
     {
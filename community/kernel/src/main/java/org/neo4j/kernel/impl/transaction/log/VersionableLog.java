@@ -24,4 +24,13 @@ public interface VersionableLog
     long getVersion();
 
     byte getLogFormatVersion();
+
+    /**
+     * @return whether or not this log was preallocated, i.e. zero filled up front, so that a zero where the
+     * next entry is expected marks the end of what has been written rather than corruption.
+     */
+    default boolean isPreallocated()
+    {
+        return false;
+    }
 }
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.entry;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.zip.Deflater;
+
+import org.neo4j.helpers.collection.Visitor;
+import org.neo4j.kernel.impl.transaction.log.ByteBufferFlushableChannel;
+import org.neo4j.storageengine.api.StorageCommand;
+import org.neo4j.storageengine.api.WritableChannel;
+
+import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryByteCodes.COMMAND;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryByteCodes.COMPRESSED_COMMAND;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryVersion.COMPRESSED;
+
+/**
+ * Serializes commands like {@link StorageCommandSerializer}, except that commands which get smaller by deflating them are
+ * written as {@link LogEntryParsersV3_5#COMPRESSED_COMMAND compressed command entries}. Commands hold both the before and
+ * after state of their records, which tend to be much alike, so larger commands usually compress well. Small commands
+ * are written as they are, since they have too little in them to compress.
+ * <p>
+ * This class is not thread safe, like the channel it writes to.
+ */
+public class CompressingStorageCommandSerializer implements Visitor<StorageCommand,IOException>
+{
+    /**
+     * Commands serialized to fewer bytes than this aren't compressed.
+     */
+    static final int MIN_BYTES_TO_COMPRESS = 128;
+    // The compressed command entry has the uncompressed and compressed length in addition to what a command entry has
+    private static final int COMPRESSED_HEADER_SIZE = Integer.BYTES * 2;
+
+    private final WritableChannel channel;
+    private final Deflater deflater = new Deflater( Deflater.BEST_SPEED );
+    private ByteBuffer buffer = ByteBuffer.allocate( 1024 );
+    private ByteBufferFlushableChannel bufferChannel = new ByteBufferFlushableChannel( buffer );
+    private byte[] compressed = new byte[buffer.capacity()];
+
+    public CompressingStorageCommandSerializer( WritableChannel channel )
+    {
+        this.channel = channel;
+    }
+
+    @Override
+    public boolean visit( StorageCommand command ) throws IOException
+    {
+        int length = serialize( command );
+        if ( length >= MIN_BYTES_TO_COMPRESS )
+        {
+            int compressedLength = compress( length );
+            if ( compressedLength + COMPRESSED_HEADER_SIZE < length )
+            {
+                channel.put( COMPRESSED.byteCode() ).put( COMPRESSED_COMMAND );
+                channel.putInt( length ).putInt( compressedLength ).put( compressed, compressedLength );
+                return false;
+            }
+        }
+        LogEntryWriter.writeLogEntryHeader( COMMAND, channel );
+        channel.put( buffer.array(), length );
+        return false;
+    }
+
+    /**
+     * @return number of bytes the command was serialized to, into {@link #buffer}.
+     */
+    private int serialize( StorageCommand command ) throws IOException
+    {
+        while ( true )
+        {
+            buffer.clear();
+            try
+            {
+                command.serialize( bufferChannel );
+                return buffer.position();
+            }
+            catch ( BufferOverflowException e )
+            {
+                buffer = ByteBuffer.allocate( buffer.capacity() * 2 );
+                bufferChannel = new ByteBufferFlushableChannel( buffer );
+            }
+        }
+    }
+
+    /**
+     * @return number of bytes the command was compressed to, into {@link #compressed}, or {@code length} if it doesn't get any smaller.
+     */
+    private int compress( int length )
+    {
+        if ( compressed.length < length )
+        {
+            compressed = new byte[buffer.capacity()];
+        }
+        deflater.reset();
+        deflater.setInput( buffer.array(), 0, length );
+        deflater.finish();
+        int compressedLength = deflater.deflate( compressed, 0, length );
+        return deflater.finished() ? compressedLength : length;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.entry;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import org.neo4j.kernel.impl.transaction.log.ByteBufferReadableChannel;
+import org.neo4j.kernel.impl.transaction.log.LogPositionMarker;
+import org.neo4j.kernel.impl.transaction.log.ReadableClosableChannel;
+import org.neo4j.storageengine.api.CommandReaderFactory;
+import org.neo4j.storageengine.api.StorageCommand;
+
+/**
+ * Log entries added in {@link LogEntryVersion#V3_5}, in addition to those of {@link LogEntryParsersV2_3}.
+ */
+public enum LogEntryParsersV3_5 implements LogEntryParser<LogEntry>
+{
+    /**
+     * A single command, written like in a {@link LogEntryByteCodes#COMMAND} entry and then deflated.
+     * Layout is uncompressed length (int), compressed length (int) and then the compressed bytes.
+     */
+    COMPRESSED_COMMAND
+            {
+                @Override
+                public LogEntry parse( LogEntryVersion version, ReadableClosableChannel channel, LogPositionMarker marker,
+                                       CommandReaderFactory commandReader ) throws IOException
+                {
+                    int length = channel.getInt();
+                    int compressedLength = channel.getInt();
+                    if ( length < 0 || compressedLength < 0 )
+                    {
+                        throw new IllegalArgumentException( "Invalid compressed command lengths " + length + " and " + compressedLength );
+                    }
+                    byte[] compressed = new byte[compressedLength];
+                    channel.get( compressed, compressedLength );
+
+                    byte[] command = new byte[length];
+                    Inflater inflater = new Inflater();
+                    try
+                    {
+                        inflater.setInput( compressed );
+                        int inflated = 0;
+                        while ( inflated < length && !inflater.finished() && !inflater.needsInput() )
+                        {
+                            inflated += inflater.inflate( command, inflated, length - inflated );
+                        }
+                        if ( inflated != length )
+                        {
+                            throw new IllegalArgumentException( "Compressed command inflated to " + inflated + " bytes, expected " + length );
+                        }
+                    }
+                    catch ( DataFormatException e )
+                    {
+                        throw new IllegalArgumentException( "Corrupt compressed command", e );
+                    }
+                    finally
+                    {
+                        inflater.end();
+                    }
+
+                    StorageCommand storageCommand =
+                            commandReader.byVersion( version.byteCode() ).read( new ByteBufferReadableChannel( ByteBuffer.wrap( command ) ) );
+                    return storageCommand == null ? null : new LogEntryCommand( version, storageCommand );
+                }
+
+                @Override
+                public byte byteCode()
+                {
+                    return LogEntryByteCodes.COMPRESSED_COMMAND;
+                }
+
+                @Override
+                public boolean skip()
+                {
+                    return false;
+                }
+            }
+}
@@ -64,6 +64,7 @@ import static java.lang.String.format;
  * Also {@link LogEntryWriter} (if log entry layout has changed) with required changes</li>
  * <li>Change {@link #CURRENT} to point to the newly created version</li>
  * </ol>
+ * {@link #V3_5} is the exception to this, being a version only used for optional entries, see {@link #COMPRESSED}.
  * Everything apart from that should just work and Neo4j should automatically support the new version as well.
  */
 public enum LogEntryVersion
@@ -79,16 +80,25 @@ public enum LogEntryVersion
     // as of 2017-05-26: the records in command log entries include a bit that specifies if the command is serialised
     // using a fixed-width reference format, or not. This change is technically backwards compatible, so we bump the
     // log version to prevent mixed-version clusters from forming.
-    V3_0_10( -10, LogEntryParsersV2_3.class );
-    // Method moreRecentVersionExists() relies on the fact that we have negative numbers, thus next version to use is -11
+    V3_0_10( -10, LogEntryParsersV2_3.class ),
+    // 3.5 adds compressed command entries, which are only written when transaction log compression
+    // is enabled, and then only for the commands which compress well. All other entries are still written
+    // as CURRENT, so that logs written without compression can still be read by older versions.
+    V3_5( -11, LogEntryParsersV2_3.class, LogEntryParsersV3_5.class );
+    // Method moreRecentVersionExists() relies on the fact that we have negative numbers, thus next version to use is -12
 
     public static final LogEntryVersion CURRENT = V3_0_10;
+    /**
+     * Version of compressed command entries, see {@link CompressingStorageCommandSerializer}.
+     */
+    public static final LogEntryVersion COMPRESSED = V3_5;
     private static final byte LOWEST_VERSION = (byte)-V2_3.byteCode();
+    private static final byte HIGHEST_VERSION = (byte)-V3_5.byteCode();
     private static final LogEntryVersion[] ALL = values();
     private static final LogEntryVersion[] LOOKUP_BY_VERSION;
     static
     {
-        LOOKUP_BY_VERSION = new LogEntryVersion[(-CURRENT.byteCode()) + 1]; // pessimistic size
+        LOOKUP_BY_VERSION = new LogEntryVersion[HIGHEST_VERSION + 1]; // pessimistic size
         for ( LogEntryVersion version : ALL )
         {
             put( LOOKUP_BY_VERSION, -version.byteCode(), version );
@@ -98,13 +108,22 @@ public enum LogEntryVersion
     private final byte version;
     private final LogEntryParser<LogEntry>[] entryTypes;
 
-    LogEntryVersion( int version, Class<? extends Enum<? extends LogEntryParser<? extends LogEntry>>> cls )
+    @SafeVarargs
+    LogEntryVersion( int version, Class<? extends Enum<? extends LogEntryParser<? extends LogEntry>>>... classes )
     {
-        this.entryTypes = new LogEntryParser[highestCode( cls ) + 1];
-        for ( Enum<? extends LogEntryParser<? extends LogEntry>> parser : cls.getEnumConstants() )
+        int highestCode = 0;
+        for ( Class<? extends Enum<? extends LogEntryParser<? extends LogEntry>>> cls : classes )
         {
-            LogEntryParser<LogEntry> candidate = (LogEntryParser<LogEntry>) parser;
-            this.entryTypes[candidate.byteCode()] = candidate;
+            highestCode = Math.max( highestCode, highestCode( cls ) );
+        }
+        this.entryTypes = new LogEntryParser[highestCode + 1];
+        for ( Class<? extends Enum<? extends LogEntryParser<? extends LogEntry>>> cls : classes )
+        {
+            for ( Enum<? extends LogEntryParser<? extends LogEntry>> parser : cls.getEnumConstants() )
+            {
+                LogEntryParser<LogEntry> candidate = (LogEntryParser<LogEntry>) parser;
+                this.entryTypes[candidate.byteCode()] = candidate;
+            }
         }
         this.version = safeCastToByte( version );
     }
@@ -158,13 +177,12 @@ public enum LogEntryVersion
         {
             return LOOKUP_BY_VERSION[positiveVersion];
         }
-        byte positiveCurrentVersion = (byte) -CURRENT.byteCode();
-        if ( positiveVersion > positiveCurrentVersion )
+        if ( positiveVersion > HIGHEST_VERSION )
         {
             throw new UnsupportedLogVersionException( String.format(
                     "Transaction logs contains entries with prefix %d, and the highest supported prefix is %d. This " +
                             "indicates that the log files originates from a newer version of neo4j.",
-                    positiveVersion, positiveCurrentVersion ) );
+                    positiveVersion, HIGHEST_VERSION ) );
         }
         throw new UnsupportedLogVersionException( String.format(
                 "Transaction logs contains entries with prefix %d, and the lowest supported prefix is %d. This " +
@@ -44,9 +44,20 @@ public class LogEntryWriter
      * @param channel underlying channel
      */
     public LogEntryWriter( WritableChannel channel )
+    {
+        this( channel, false );
+    }
+
+    /**
+     * Create a writer that uses {@link LogEntryVersion#CURRENT} for versioning, except for compressed commands.
+     * @param channel underlying channel
+     * @param compressCommands whether or not to write commands which compress well as
+     * {@link LogEntryVersion#COMPRESSED compressed command entries}.
+     */
+    public LogEntryWriter( WritableChannel channel, boolean compressCommands )
     {
         this.channel = channel;
-        this.serializer = new StorageCommandSerializer( channel );
+        this.serializer = compressCommands ? new CompressingStorageCommandSerializer( channel ) : new StorageCommandSerializer( channel );
     }
 
     protected static void writeLogEntryHeader( byte type, WritableChannel channel ) throws IOException
@@ -22,16 +22,29 @@ package org.neo4j.kernel.impl.transaction.log.entry;
 public class LogHeader
 {
     public static final int LOG_HEADER_SIZE = 16;
+    /**
+     * Set in the most significant bit of the encoded log versions of a log file that has been preallocated,
+     * i.e. filled with zeros up front. Only in such files a zero where the next entry version is expected marks
+     * the end of the written log, anywhere else it is corruption.
+     */
+    static final long PREALLOCATED_FLAG = 0x80000000_00000000L;
 
     public final byte logFormatVersion;
     public final long logVersion;
     public final long lastCommittedTxId;
+    public final boolean preallocated;
 
     public LogHeader( byte logFormatVersion, long logVersion, long lastCommittedTxId )
+    {
+        this( logFormatVersion, logVersion, lastCommittedTxId, false );
+    }
+
+    public LogHeader( byte logFormatVersion, long logVersion, long lastCommittedTxId, boolean preallocated )
     {
         this.logFormatVersion = logFormatVersion;
         this.logVersion = logVersion;
         this.lastCommittedTxId = lastCommittedTxId;
+        this.preallocated = preallocated;
     }
 
     @Override
@@ -48,7 +61,7 @@ public class LogHeader
 
         LogHeader logHeader = (LogHeader) o;
         return lastCommittedTxId == logHeader.lastCommittedTxId && logFormatVersion == logHeader.logFormatVersion &&
-               logVersion == logHeader.logVersion;
+               logVersion == logHeader.logVersion && preallocated == logHeader.preallocated;
     }
 
     @Override
@@ -57,6 +70,7 @@ public class LogHeader
         int result = (int) logFormatVersion;
         result = 31 * result + (int) (logVersion ^ (logVersion >>> 32));
         result = 31 * result + (int) (lastCommittedTxId ^ (lastCommittedTxId >>> 32));
+        result = 31 * result + (preallocated ? 1 : 0);
         return result;
     }
 
@@ -67,6 +81,7 @@ public class LogHeader
                 "logFormatVersion=" + logFormatVersion +
                 ", logVersion=" + logVersion +
                 ", lastCommittedTxId=" + lastCommittedTxId +
+                ", preallocated=" + preallocated +
                 '}';
     }
 }
@@ -89,7 +89,7 @@ public class LogHeaderReader
         byte logFormatVersion = decodeLogFormatVersion( encodedLogVersions );
         long logVersion = decodeLogVersion( encodedLogVersions );
         long previousCommittedTx = buffer.getLong();
-        return new LogHeader( logFormatVersion, logVersion, previousCommittedTx );
+        return new LogHeader( logFormatVersion, logVersion, previousCommittedTx, decodePreallocated( encodedLogVersions ) );
     }
 
     static long decodeLogVersion( long encLogVersion )
@@ -99,6 +99,11 @@ public class LogHeaderReader
 
     static byte decodeLogFormatVersion( long encLogVersion )
     {
-        return (byte) ((encLogVersion >> 56) & 0xFF);
+        return (byte) ((encLogVersion >> 56) & 0x7F);
+    }
+
+    static boolean decodePreallocated( long encLogVersion )
+    {
+        return (encLogVersion & LogHeader.PREALLOCATED_FLAG) != 0;
     }
 }
@@ -45,9 +45,14 @@ public class LogHeaderWriter
     }
 
     public static ByteBuffer writeLogHeader( ByteBuffer buffer, long logVersion, long previousCommittedTxId )
+    {
+        return writeLogHeader( buffer, logVersion, previousCommittedTxId, false );
+    }
+
+    public static ByteBuffer writeLogHeader( ByteBuffer buffer, long logVersion, long previousCommittedTxId, boolean preallocated )
     {
         buffer.clear();
-        buffer.putLong( encodeLogVersion( logVersion ) );
+        buffer.putLong( encodeLogVersion( logVersion, preallocated ) );
         buffer.putLong( previousCommittedTxId );
         buffer.flip();
         return buffer;
@@ -64,14 +69,26 @@ public class LogHeaderWriter
 
     public static void writeLogHeader( StoreChannel channel, long logVersion, long previousLastCommittedTxId )
             throws IOException
+    {
+        writeLogHeader( channel, logVersion, previousLastCommittedTxId, false );
+    }
+
+    public static void writeLogHeader( StoreChannel channel, long logVersion, long previousLastCommittedTxId, boolean preallocated )
+            throws IOException
     {
         ByteBuffer buffer = ByteBuffer.allocate( LOG_HEADER_SIZE );
-        writeLogHeader( buffer, logVersion, previousLastCommittedTxId );
+        writeLogHeader( buffer, logVersion, previousLastCommittedTxId, preallocated );
         channel.writeAll( buffer );
     }
 
     public static long encodeLogVersion( long logVersion )
     {
-        return logVersion | (((long) CURRENT_FORMAT_VERSION) << 56);
+        return encodeLogVersion( logVersion, false );
+    }
+
+    public static long encodeLogVersion( long logVersion, boolean preallocated )
+    {
+        long encoded = logVersion | (((long) CURRENT_FORMAT_VERSION) << 56);
+        return preallocated ? encoded | LogHeader.PREALLOCATED_FLAG : encoded;
     }
 }
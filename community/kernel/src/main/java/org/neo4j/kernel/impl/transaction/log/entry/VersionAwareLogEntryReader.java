@@ -26,6 +26,7 @@ import org.neo4j.kernel.impl.transaction.log.LogPosition;
 import org.neo4j.kernel.impl.transaction.log.LogPositionMarker;
 import org.neo4j.kernel.impl.transaction.log.PositionableChannel;
 import org.neo4j.kernel.impl.transaction.log.ReadableClosablePositionAwareChannel;
+import org.neo4j.kernel.impl.transaction.log.VersionableLog;
 import org.neo4j.storageengine.api.CommandReaderFactory;
 import org.neo4j.storageengine.api.ReadPastEndException;
 
@@ -70,6 +71,19 @@ public class VersionAwareLogEntryReader<SOURCE extends ReadableClosablePositionA
                 channel.getCurrentPosition( positionMarker );
 
                 byte versionCode = channel.get();
+                if ( versionCode == 0 && skipped == 0 && isPreallocated( channel ) )
+                {
+                    // No log entry version is zero, this is where the zeros of a preallocated log file begin,
+                    // i.e. the end of the log. Step back onto it, so that the channel is positioned at the end of the log.
+                    // Bad sections are skipped byte by byte though, and may well have zeros in them. In a log file
+                    // which wasn't preallocated a zero is garbage, left for the invalid log entry handler to deal with
+                    if ( channelSupportsPositioning( channel ) )
+                    {
+                        long endOfLog = channel.getCurrentPosition( positionMarker ).getByteOffset() - 1;
+                        ((PositionableChannel) channel).setCurrentPosition( endOfLog );
+                    }
+                    return null;
+                }
                 byte typeCode = channel.get();
 
                 LogEntryVersion version = null;
@@ -127,6 +141,11 @@ public class VersionAwareLogEntryReader<SOURCE extends ReadableClosablePositionA
         }
     }
 
+    private static boolean isPreallocated( ReadableClosablePositionAwareChannel channel )
+    {
+        return channel instanceof VersionableLog && ((VersionableLog) channel).isPreallocated();
+    }
+
     private boolean channelSupportsPositioning( SOURCE channel )
     {
         return channel instanceof PositionableChannel;
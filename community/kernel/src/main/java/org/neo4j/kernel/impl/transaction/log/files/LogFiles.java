@@ -59,6 +59,15 @@ public interface LogFiles extends Lifecycle
 
     boolean hasAnyEntries( long version );
 
+    /**
+     * Keeps the log file of the specified version, which is being pruned, zero filled for reuse as a new log file,
+     * if reuse of pruned log files is enabled and no other pruned log file is kept for reuse already.
+     *
+     * @param version version of the pruned log file.
+     * @return {@code true} if the log file is kept for reuse, {@code false} if it should be deleted.
+     */
+    boolean recycleLogFile( long version );
+
     void accept( LogVersionVisitor visitor );
 
     void accept( LogHeaderVisitor visitor ) throws IOException;
@@ -38,10 +38,15 @@ import org.neo4j.kernel.impl.transaction.log.TransactionIdStore;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryReader;
 import org.neo4j.kernel.impl.transaction.log.entry.VersionAwareLogEntryReader;
 import org.neo4j.kernel.impl.util.Dependencies;
+import org.neo4j.logging.LogProvider;
+import org.neo4j.logging.NullLogProvider;
+import org.neo4j.scheduler.JobScheduler;
 
 import static java.util.Objects.requireNonNull;
 import static org.neo4j.graphdb.factory.GraphDatabaseSettings.database_path;
 import static org.neo4j.graphdb.factory.GraphDatabaseSettings.logical_log_rotation_threshold;
+import static org.neo4j.graphdb.factory.GraphDatabaseSettings.tx_log_preallocation;
+import static org.neo4j.graphdb.factory.GraphDatabaseSettings.tx_log_reuse_pruned_files;
 
 /**
  * Transactional log files facade class builder.
@@ -72,6 +77,8 @@ public class LogFilesBuilder
     private LongSupplier lastCommittedTransactionIdSupplier;
     private String logFileName = TransactionLogFiles.DEFAULT_NAME;
     private boolean fileBasedOperationsOnly;
+    private JobScheduler jobScheduler;
+    private LogProvider logProvider;
 
     /**
      * Builder for fully functional transactional log files.
@@ -167,6 +174,22 @@ public class LogFilesBuilder
         return this;
     }
 
+    /**
+     * Log files are only preallocated in the background, if {@link GraphDatabaseSettings#tx_log_preallocation enabled},
+     * by log files that are given a job scheduler to do so.
+     */
+    public LogFilesBuilder withJobScheduler( JobScheduler jobScheduler )
+    {
+        this.jobScheduler = jobScheduler;
+        return this;
+    }
+
+    public LogFilesBuilder withLogProvider( LogProvider logProvider )
+    {
+        this.logProvider = logProvider;
+        return this;
+    }
+
     public LogFilesBuilder withDependencies( Dependencies dependencies )
     {
         this.dependencies = dependencies;
@@ -226,6 +249,10 @@ public class LogFilesBuilder
         {
             logFileCreationMonitor = LogFileCreationMonitor.NO_MONITOR;
         }
+        if ( logProvider == null )
+        {
+            logProvider = NullLogProvider.getInstance();
+        }
         requireNonNull( fileSystem );
         Supplier<LogVersionRepository> logVersionRepositorySupplier = getLogVersionRepositorySupplier();
         LongSupplier lastCommittedIdSupplier = lastCommittedIdSupplier();
@@ -234,8 +261,13 @@ public class LogFilesBuilder
         // Register listener for rotation threshold
         AtomicLong rotationThreshold = getRotationThresholdAndRegisterForUpdates();
 
+        // Read only log files never create new log files, nor prune old ones
+        boolean preallocateLogFiles = !readOnly && jobScheduler != null && config != null && config.get( tx_log_preallocation );
+        boolean reusePrunedLogFiles = preallocateLogFiles && config.get( tx_log_reuse_pruned_files );
+
         return new TransactionLogFilesContext( rotationThreshold, logEntryReader,
-                lastCommittedIdSupplier, committingTransactionIdSupplier, logFileCreationMonitor, logVersionRepositorySupplier, fileSystem );
+                lastCommittedIdSupplier, committingTransactionIdSupplier, logFileCreationMonitor, logVersionRepositorySupplier, fileSystem,
+                preallocateLogFiles, reusePrunedLogFiles, jobScheduler, logProvider );
     }
 
     private AtomicLong getRotationThresholdAndRegisterForUpdates()
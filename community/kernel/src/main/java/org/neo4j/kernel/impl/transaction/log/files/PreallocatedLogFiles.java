@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.files;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.neo4j.io.fs.StoreChannel;
+
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+import static org.neo4j.io.ByteUnit.kibiBytes;
+
+/**
+ * Preallocated transaction log files are zero filled up to the log rotation size when they are created and entries
+ * then overwrite the zeros. No log entry starts with a zero byte, so the first zero byte where an entry would start
+ * marks the end of the log, and zeros after the last entry of a log file aren't corruption. Preallocated log files
+ * say so in their {@link org.neo4j.kernel.impl.transaction.log.entry.LogHeader#preallocated header}, zeros after
+ * the last entry of any other log file are corruption.
+ */
+public final class PreallocatedLogFiles
+{
+    private static final int CHUNK_SIZE = toIntExact( kibiBytes( 64 ) );
+
+    private PreallocatedLogFiles()
+    {
+    }
+
+    /**
+     * Writes zeros to {@code channel} from {@code from} up to {@code to}, without changing the position of the channel.
+     */
+    static void zeroFill( StoreChannel channel, long from, long to ) throws IOException
+    {
+        ByteBuffer zeros = ByteBuffer.allocate( CHUNK_SIZE );
+        for ( long position = from; position < to; position += zeros.limit() )
+        {
+            zeros.clear();
+            zeros.limit( (int) min( CHUNK_SIZE, to - position ) );
+            channel.writeAll( zeros, position );
+        }
+    }
+
+    /**
+     * @return {@code true} if all bytes of {@code channel} from {@code from} up to its end are zeros. The position
+     * of the channel is not changed.
+     */
+    public static boolean isZeroFilled( StoreChannel channel, long from ) throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocate( CHUNK_SIZE );
+        long position = from;
+        int read;
+        while ( (read = channel.read( buffer, position )) > 0 )
+        {
+            buffer.flip();
+            while ( buffer.hasRemaining() )
+            {
+                if ( buffer.get() != 0 )
+                {
+                    return false;
+                }
+            }
+            buffer.clear();
+            position += read;
+        }
+        return true;
+    }
+}
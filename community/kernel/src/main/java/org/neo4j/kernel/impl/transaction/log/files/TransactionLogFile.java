@@ -21,12 +21,14 @@ package org.neo4j.kernel.impl.transaction.log.files;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.fs.OpenMode;
 import org.neo4j.kernel.impl.transaction.log.FlushablePositionAwareChannel;
 import org.neo4j.kernel.impl.transaction.log.LogPosition;
+import org.neo4j.kernel.impl.transaction.log.LogPositionMarker;
 import org.neo4j.kernel.impl.transaction.log.LogVersionBridge;
 import org.neo4j.kernel.impl.transaction.log.LogVersionRepository;
 import org.neo4j.kernel.impl.transaction.log.LogVersionedStoreChannel;
@@ -35,8 +37,11 @@ import org.neo4j.kernel.impl.transaction.log.PositionAwarePhysicalFlushableChann
 import org.neo4j.kernel.impl.transaction.log.ReadAheadLogChannel;
 import org.neo4j.kernel.impl.transaction.log.ReadableLogChannel;
 import org.neo4j.kernel.impl.transaction.log.ReaderLogVersionBridge;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryReader;
 import org.neo4j.kernel.lifecycle.LifecycleAdapter;
 
+import static org.neo4j.kernel.impl.transaction.log.entry.LogHeader.LOG_HEADER_SIZE;
+
 /**
  * {@link LogFile} backed by one or more files in a {@link FileSystemAbstraction}.
  */
@@ -77,10 +82,37 @@ class TransactionLogFile extends LifecycleAdapter implements LogFile
         long lastLogVersionUsed = logVersionRepository.getCurrentLogVersion();
         channel = logFiles.createLogChannelForVersion( lastLogVersionUsed, OpenMode.READ_WRITE, context::getLastCommittedTransactionId );
         // Move to the end
-        channel.position( channel.size() );
+        channel.position( endOfWrittenLog( lastLogVersionUsed ) );
         writer = new PositionAwarePhysicalFlushableChannel( channel );
     }
 
+    /**
+     * The end of a log file is where its last entry ends, which is the end of the file unless it's preallocated,
+     * in which case the file is zero filled from where its last entry ends. Finding that takes reading the entries
+     * of the file, which is only necessary if the file ends with a zero byte.
+     */
+    private long endOfWrittenLog( long version ) throws IOException
+    {
+        long size = channel.size();
+        ByteBuffer lastByte = ByteBuffer.allocate( 1 );
+        if ( !channel.isPreallocated() || size <= LOG_HEADER_SIZE || channel.read( lastByte, size - 1 ) != 1 || lastByte.get( 0 ) != 0 )
+        {
+            return size;
+        }
+
+        LogPositionMarker positionMarker = new LogPositionMarker();
+        LogEntryReader<ReadableLogChannel> logEntryReader = context.getLogEntryReader();
+        try ( ReadAheadLogChannel reader = new ReadAheadLogChannel( logFiles.openForVersion( version ) ) )
+        {
+            do
+            {
+                reader.getCurrentPosition( positionMarker );
+            }
+            while ( logEntryReader.readLogEntry( reader ) != null );
+        }
+        return positionMarker.getByteOffset();
+    }
+
     // In order to be able to write into a logfile after life.stop during shutdown sequence
     // we will close channel and writer only during shutdown phase when all pending changes (like last
     // checkpoint) are already in
@@ -170,6 +202,16 @@ class TransactionLogFile extends LifecycleAdapter implements LogFile
          * transaction complete in the log we're rotating away. Awesome.
          */
         writer.prepareForFlush().flush();
+        /*
+         * A preallocated log file may not have been written to its end, but the zeros after its last entry
+         * would look like the end of the log to readers continuing from it into the next log file.
+         * So cut them off, and make sure that sticks before the next log file is created.
+         */
+        if ( currentLog.size() > currentLog.position() )
+        {
+            currentLog.truncate( currentLog.position() );
+            currentLog.force( false );
+        }
         /*
          * The log version is now in the store, flushed and persistent. If we crash
          * now, on recovery we'll attempt to open the version we're about to create
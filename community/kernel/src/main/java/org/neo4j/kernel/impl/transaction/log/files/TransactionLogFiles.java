@@ -23,7 +23,10 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FilenameFilter;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 import java.util.function.LongSupplier;
 
 import org.neo4j.io.fs.FileSystemAbstraction;
@@ -34,6 +37,9 @@ import org.neo4j.kernel.impl.transaction.log.LogPosition;
 import org.neo4j.kernel.impl.transaction.log.PhysicalLogVersionedStoreChannel;
 import org.neo4j.kernel.impl.transaction.log.entry.LogHeader;
 import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.logging.Log;
+import org.neo4j.scheduler.Group;
+import org.neo4j.scheduler.JobHandle;
 
 import static java.lang.Math.max;
 import static java.lang.Math.min;
@@ -42,6 +48,7 @@ import static org.neo4j.kernel.impl.transaction.log.entry.LogHeader.LOG_HEADER_S
 import static org.neo4j.kernel.impl.transaction.log.entry.LogHeaderReader.readLogHeader;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogHeaderWriter.writeLogHeader;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogVersions.CURRENT_LOG_VERSION;
+import static org.neo4j.kernel.impl.transaction.log.files.PreallocatedLogFiles.zeroFill;
 
 /**
  * Used to figure out what logical log file to open when the database
@@ -62,6 +69,9 @@ public class TransactionLogFiles extends LifecycleAdapter implements LogFiles
     private final TransactionLogFilesHelper fileHelper;
     private final TransactionLogFile logFile;
     private final File logsDirectory;
+    private final Log log;
+    private volatile boolean preallocationEnabled;
+    private volatile JobHandle preallocationJob;
 
     TransactionLogFiles( File logsDirectory, String name, TransactionLogFilesContext context )
     {
@@ -73,6 +83,7 @@ public class TransactionLogFiles extends LifecycleAdapter implements LogFiles
         this.logHeaderCache = new LogHeaderCache( 1000 );
         this.logFileInformation = new TransactionLogFileInformation( this, logHeaderCache, context );
         this.logFile = new TransactionLogFile( this, context );
+        this.log = context.getLogProvider().getLog( getClass() );
     }
 
     @Override
@@ -85,11 +96,39 @@ public class TransactionLogFiles extends LifecycleAdapter implements LogFiles
     public void start() throws IOException
     {
         logFile.start();
+        if ( logFilesContext.isPreallocateLogFiles() )
+        {
+            preallocationEnabled = true;
+            schedulePreallocation();
+        }
     }
 
     @Override
     public void shutdown() throws IOException
     {
+        preallocationEnabled = false;
+        JobHandle job = preallocationJob;
+        if ( job != null )
+        {
+            // Preallocations run one at a time, so the last one scheduled is the last one to finish
+            try
+            {
+                job.waitTermination();
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+            }
+            catch ( ExecutionException e )
+            {
+                log.warn( "Failed to preallocate transaction log file", e.getCause() );
+            }
+            catch ( CancellationException e )
+            {
+                // The scheduler was shut down before us
+            }
+            preallocationJob = null;
+        }
         logFile.shutdown();
     }
 
@@ -155,7 +194,21 @@ public class TransactionLogFiles extends LifecycleAdapter implements LogFiles
     @Override
     public boolean hasAnyEntries( long version )
     {
-        return fileSystem.getFileSize( getLogFileForVersion( version ) ) > LOG_HEADER_SIZE;
+        File logFile = getLogFileForVersion( version );
+        if ( fileSystem.getFileSize( logFile ) <= LOG_HEADER_SIZE )
+        {
+            return false;
+        }
+        // Preallocated log files are larger than their header before anything has been written to them
+        try ( StoreChannel channel = fileSystem.open( logFile, OpenMode.READ ) )
+        {
+            ByteBuffer firstEntryByte = ByteBuffer.allocate( 1 );
+            return channel.read( firstEntryByte, LOG_HEADER_SIZE ) == 1 && firstEntryByte.get( 0 ) != 0;
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
     }
 
     @Override
@@ -205,7 +258,7 @@ public class TransactionLogFiles extends LifecycleAdapter implements LogFiles
                         format( "Unexpected log file header. Expected header version: %d, actual header: %s", version,
                                 header != null ? header.toString() : "null header." ) );
             }
-            return new PhysicalLogVersionedStoreChannel( rawChannel, version, header.logFormatVersion );
+            return new PhysicalLogVersionedStoreChannel( rawChannel, version, header.logFormatVersion, header.preallocated );
         }
         catch ( FileNotFoundException cause )
         {
@@ -246,6 +299,10 @@ public class TransactionLogFiles extends LifecycleAdapter implements LogFiles
             LongSupplier lastTransactionIdSupplier ) throws IOException
     {
         File toOpen = getLogFileForVersion( forVersion );
+        if ( mode == OpenMode.READ_WRITE && !fileSystem.fileExists( toOpen ) && takePreallocatedLogFile( toOpen, forVersion, lastTransactionIdSupplier ) )
+        {
+            schedulePreallocation();
+        }
         StoreChannel storeChannel = fileSystem.open( toOpen, mode );
         ByteBuffer headerBuffer = ByteBuffer.allocate( LOG_HEADER_SIZE );
         LogHeader header = readLogHeader( headerBuffer, storeChannel, false, toOpen );
@@ -259,7 +316,112 @@ public class TransactionLogFiles extends LifecycleAdapter implements LogFiles
             monitor.created( toOpen, forVersion, lastTxId );
         }
         byte formatVersion = header == null ? CURRENT_LOG_VERSION : header.logFormatVersion;
-        return new PhysicalLogVersionedStoreChannel( storeChannel, forVersion, formatVersion );
+        boolean preallocated = header != null && header.preallocated;
+        return new PhysicalLogVersionedStoreChannel( storeChannel, forVersion, formatVersion, preallocated );
+    }
+
+    /**
+     * Turns the preallocated log file, if one has been prepared in the background, into the log file for the specified
+     * version by writing its header and renaming it. This is all rotation does with preallocation enabled, zero filling
+     * and forcing a whole log file happens ahead of time. If the background preallocation hasn't caught up, which only
+     * happens if log files are rotated faster than they can be zero filled, a regular log file is created instead.
+     *
+     * @return {@code true} if the preallocated log file was taken, otherwise {@code false}.
+     */
+    private boolean takePreallocatedLogFile( File logFile, long version, LongSupplier lastTransactionIdSupplier ) throws IOException
+    {
+        File preallocated = fileHelper.getPreallocatedLogFile();
+        if ( !logFilesContext.isPreallocateLogFiles() || !fileSystem.fileExists( preallocated ) )
+        {
+            return false;
+        }
+        long lastTxId = lastTransactionIdSupplier.getAsLong();
+        // The header goes in before the rename, a crash in between leaves a preallocated log file which gets a new header when taken
+        try ( StoreChannel channel = fileSystem.open( preallocated, OpenMode.READ_WRITE ) )
+        {
+            ByteBuffer headerBuffer = ByteBuffer.allocate( LOG_HEADER_SIZE );
+            writeLogHeader( headerBuffer, version, lastTxId, true );
+            channel.writeAll( headerBuffer, 0 );
+            channel.force( false );
+        }
+        fileSystem.renameFile( preallocated, logFile );
+        logHeaderCache.putHeader( version, lastTxId );
+        monitor.created( logFile, version, lastTxId );
+        return true;
+    }
+
+    private void schedulePreallocation()
+    {
+        if ( preallocationEnabled )
+        {
+            preallocationJob = logFilesContext.getJobScheduler().schedule( Group.LOG_PREALLOCATION, this::preallocateLogFile );
+        }
+    }
+
+    /**
+     * Prepares the next log file in the background, zero filled up to the rotation threshold. The file is filled under
+     * another name and renamed once its size has been forced, so that rotation only ever sees a complete preallocated
+     * log file. A recycled log file is already zero filled and is used if there is one.
+     */
+    private void preallocateLogFile()
+    {
+        File preallocated = fileHelper.getPreallocatedLogFile();
+        if ( !preallocationEnabled || fileSystem.fileExists( preallocated ) )
+        {
+            return;
+        }
+        File preallocating = fileHelper.getPreallocatingLogFile();
+        File recycled = fileHelper.getRecycledLogFile();
+        try
+        {
+            // A file left from preallocating before a crash holds zeros only, so it's as good as a recycled one
+            if ( !fileSystem.fileExists( preallocating ) && fileSystem.fileExists( recycled ) )
+            {
+                fileSystem.renameFile( recycled, preallocating );
+            }
+            try ( StoreChannel channel = fileSystem.open( preallocating, OpenMode.READ_WRITE ) )
+            {
+                zeroFill( channel, channel.size(), logFilesContext.getRotationThreshold().get() );
+                // Force the size of the file along with the zeros, since appending to it later on must not change it
+                channel.force( true );
+            }
+            fileSystem.renameFile( preallocating, preallocated );
+        }
+        catch ( IOException e )
+        {
+            // Rotation creates regular log files until a later preallocation succeeds
+            log.warn( "Failed to preallocate transaction log file " + preallocated, e );
+            fileSystem.deleteFile( preallocating );
+        }
+    }
+
+    @Override
+    public boolean recycleLogFile( long version )
+    {
+        File recycled = fileHelper.getRecycledLogFile();
+        // Log files are only ever pruned by one thread at a time, so no one else creates the recycled log file in the meantime
+        if ( !logFilesContext.isReusePrunedLogFiles() || fileSystem.fileExists( recycled ) )
+        {
+            return false;
+        }
+        File recycling = fileHelper.getRecyclingLogFile();
+        try
+        {
+            fileSystem.renameFile( getLogFileForVersion( version ), recycling );
+            try ( StoreChannel channel = fileSystem.open( recycling, OpenMode.READ_WRITE ) )
+            {
+                zeroFill( channel, 0, channel.size() );
+                channel.force( false );
+            }
+            fileSystem.renameFile( recycling, recycled );
+            return true;
+        }
+        catch ( IOException e )
+        {
+            // Not being able to recycle the log file is no reason to keep it around, so have it deleted like any other pruned log file
+            fileSystem.deleteFile( recycling );
+            return false;
+        }
     }
 
     @Override
@@ -26,6 +26,8 @@ import java.util.function.Supplier;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.kernel.impl.transaction.log.LogVersionRepository;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryReader;
+import org.neo4j.logging.LogProvider;
+import org.neo4j.scheduler.JobScheduler;
 
 class TransactionLogFilesContext
 {
@@ -36,11 +38,16 @@ class TransactionLogFilesContext
     private final Supplier<LogVersionRepository> logVersionRepositorySupplier;
     private final LogFileCreationMonitor logFileCreationMonitor;
     private final FileSystemAbstraction fileSystem;
+    private final boolean preallocateLogFiles;
+    private final boolean reusePrunedLogFiles;
+    private final JobScheduler jobScheduler;
+    private final LogProvider logProvider;
 
     TransactionLogFilesContext( AtomicLong rotationThreshold, LogEntryReader logEntryReader,
             LongSupplier lastCommittedTransactionIdSupplier, LongSupplier committingTransactionIdSupplier,
             LogFileCreationMonitor logFileCreationMonitor, Supplier<LogVersionRepository> logVersionRepositorySupplier,
-            FileSystemAbstraction fileSystem )
+            FileSystemAbstraction fileSystem, boolean preallocateLogFiles, boolean reusePrunedLogFiles, JobScheduler jobScheduler,
+            LogProvider logProvider )
     {
         this.rotationThreshold = rotationThreshold;
         this.logEntryReader = logEntryReader;
@@ -49,6 +56,10 @@ class TransactionLogFilesContext
         this.logVersionRepositorySupplier = logVersionRepositorySupplier;
         this.logFileCreationMonitor = logFileCreationMonitor;
         this.fileSystem = fileSystem;
+        this.preallocateLogFiles = preallocateLogFiles;
+        this.reusePrunedLogFiles = reusePrunedLogFiles;
+        this.jobScheduler = jobScheduler;
+        this.logProvider = logProvider;
     }
 
     AtomicLong getRotationThreshold()
@@ -85,4 +96,24 @@ class TransactionLogFilesContext
     {
         return fileSystem;
     }
+
+    boolean isPreallocateLogFiles()
+    {
+        return preallocateLogFiles;
+    }
+
+    boolean isReusePrunedLogFiles()
+    {
+        return reusePrunedLogFiles;
+    }
+
+    JobScheduler getJobScheduler()
+    {
+        return jobScheduler;
+    }
+
+    LogProvider getLogProvider()
+    {
+        return logProvider;
+    }
 }
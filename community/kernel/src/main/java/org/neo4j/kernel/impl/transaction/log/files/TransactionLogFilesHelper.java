@@ -30,6 +30,11 @@ class TransactionLogFilesHelper
     private static final String REGEX_DEFAULT_NAME = "neostore\\.transaction\\.db";
     private static final String VERSION_SUFFIX = ".";
     private static final String REGEX_VERSION_SUFFIX = "\\.";
+    // Neither of these match the log file name filter, since they have no version suffix
+    private static final String PREALLOCATING_SUFFIX = "_preallocating";
+    private static final String PREALLOCATED_SUFFIX = "_preallocated";
+    private static final String RECYCLING_SUFFIX = "_recycling";
+    private static final String RECYCLED_SUFFIX = "_recycled";
 
     static final FilenameFilter DEFAULT_FILENAME_FILTER = new LogicalLogFilenameFilter( REGEX_DEFAULT_NAME );
 
@@ -47,6 +52,38 @@ class TransactionLogFilesHelper
         return new File( logBaseName.getPath() + VERSION_SUFFIX + version );
     }
 
+    /**
+     * @return the file new log files are zero filled in, before they are renamed to the {@link #getPreallocatedLogFile() preallocated log file}.
+     */
+    File getPreallocatingLogFile()
+    {
+        return new File( logBaseName.getPath() + PREALLOCATING_SUFFIX );
+    }
+
+    /**
+     * @return the file a zero filled log file is kept in until rotation renames it to the file of its version.
+     */
+    File getPreallocatedLogFile()
+    {
+        return new File( logBaseName.getPath() + PREALLOCATED_SUFFIX );
+    }
+
+    /**
+     * @return the file pruned log files are zero filled in, before they are renamed to the {@link #getRecycledLogFile() recycled log file}.
+     */
+    File getRecyclingLogFile()
+    {
+        return new File( logBaseName.getPath() + RECYCLING_SUFFIX );
+    }
+
+    /**
+     * @return the file a zero filled pruned log file is kept in until it's reused as a new log file.
+     */
+    File getRecycledLogFile()
+    {
+        return new File( logBaseName.getPath() + RECYCLED_SUFFIX );
+    }
+
     long getLogVersion( String historyLogFilename )
     {
         int index = historyLogFilename.lastIndexOf( VERSION_SUFFIX );
@@ -76,6 +76,17 @@ public interface LogAppendEvent extends LogForceEvents, AutoCloseable
      */
     void setLogRotated( boolean logRotated );
 
+    /**
+     * Note that this appending wrote and forced the transactions of a number of concurrently committing transactions,
+     * including its own, to the log in one go.
+     *
+     * @param transactions number of transactions written and forced together.
+     * @param latencyNanos time from the first of those transactions being queued to being forced.
+     */
+    default void appendedCombinedBatch( int transactions, long latencyNanos )
+    {
+    }
+
     /**
      * Begin a log rotation as part of this appending to the transaction log.
      */
@@ -22,6 +22,7 @@ package org.neo4j.kernel.impl.util.collection;
 import org.eclipse.collections.api.map.primitive.MutableLongObjectMap;
 import org.eclipse.collections.api.set.primitive.MutableLongSet;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Collection;
 
@@ -39,6 +40,7 @@ public class OffHeapCollectionsFactory implements CollectionsFactory
 {
     private final MemoryAllocationTracker memoryTracker = new LocalMemoryTracker();
     private final MemoryAllocator allocator;
+    private final SpillingMemoryAllocator spillingAllocator;
 
     private final Collection<Resource> resources = new ArrayList<>();
     private ValuesContainer valuesContainer;
@@ -46,6 +48,19 @@ public class OffHeapCollectionsFactory implements CollectionsFactory
     public OffHeapCollectionsFactory( OffHeapBlockAllocator blockAllocator )
     {
         this.allocator = new OffHeapMemoryAllocator( memoryTracker, blockAllocator );
+        this.spillingAllocator = null;
+    }
+
+    /**
+     * Creates a factory of collections which spill to temporary files in {@code spillDirectory} once they use more than
+     * {@code spillThreshold} bytes of off-heap memory, see {@link SpillingMemoryAllocator}.
+     */
+    public OffHeapCollectionsFactory( OffHeapBlockAllocator blockAllocator, long spillThreshold, File spillDirectory,
+            SpillingMemoryAllocator.Monitor spillMonitor )
+    {
+        this.spillingAllocator = new SpillingMemoryAllocator( new OffHeapMemoryAllocator( memoryTracker, blockAllocator ), memoryTracker,
+                spillThreshold, spillDirectory, spillMonitor );
+        this.allocator = spillingAllocator;
     }
 
     @Override
@@ -90,5 +105,9 @@ public class OffHeapCollectionsFactory implements CollectionsFactory
             valuesContainer.close();
             valuesContainer = null;
         }
+        if ( spillingAllocator != null )
+        {
+            spillingAllocator.release();
+        }
     }
 }
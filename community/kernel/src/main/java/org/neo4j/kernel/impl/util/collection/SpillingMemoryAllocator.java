@@ -0,0 +1,285 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.util.collection;
+
+import org.eclipse.collections.api.map.primitive.MutableLongObjectMap;
+import org.eclipse.collections.impl.map.mutable.primitive.LongObjectHashMap;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import org.neo4j.memory.MemoryAllocationTracker;
+import org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.nio.file.StandardOpenOption.DELETE_ON_CLOSE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.Objects.requireNonNull;
+import static org.neo4j.io.ByteUnit.mebiBytes;
+import static org.neo4j.util.Preconditions.checkState;
+import static org.neo4j.util.Preconditions.requirePositive;
+
+/**
+ * Allocates memory for the state of a single transaction off-heap until the transaction uses more than its budget,
+ * and from then on spills allocations to regions of a memory mapped temporary file. Mapped regions are paged in and out
+ * by the operating system, so a very large transaction keeps working at the speed of memory as long as its state fits
+ * in the file system cache and degrades to disk speed instead of running out of memory when it doesn't.
+ * <p>
+ * The spill file is mapped in large chunks, which spilled allocations are carved out of, so that a transaction holds a
+ * handful of mappings rather than one per allocation. The chunks are unmapped when this allocator is released.
+ * <p>
+ * Spilled memory looks like any other {@link Memory} to the collections using it, so reading transaction state and creating
+ * commands from it works the same regardless of where it's kept. The temporary file is created on the first spill
+ * and deleted when this allocator is {@link #release() released} at the end of the transaction.
+ * <p>
+ * This class is not thread safe, like the transaction state it allocates memory for.
+ */
+public class SpillingMemoryAllocator implements MemoryAllocator
+{
+    private static final long DEFAULT_CHUNK_SIZE = mebiBytes( 64 );
+
+    private final MemoryAllocator offHeapAllocator;
+    private final MemoryAllocationTracker offHeapTracker;
+    private final long offHeapBudget;
+    private final File directory;
+    private final Monitor monitor;
+    private final long chunkSize;
+
+    // Freed regions of the spill file by size, regions are reused rather than given back since chunks are only unmapped on release
+    private final MutableLongObjectMap<Deque<ByteBuffer>> freeRegions = new LongObjectHashMap<>();
+    private final List<MappedByteBuffer> chunks = new ArrayList<>();
+    private FileChannel spillFile;
+    private long spillFileSize;
+    private MappedByteBuffer currentChunk;
+    private int currentChunkOffset;
+
+    /**
+     * @param offHeapAllocator allocator of off-heap memory, used while within budget.
+     * @param offHeapTracker tracker of the memory allocated by {@code offHeapAllocator}.
+     * @param offHeapBudget number of bytes of off-heap memory to allocate before spilling.
+     * @param directory directory to create the temporary spill file in.
+     * @param monitor monitor notified about spilled allocations.
+     */
+    public SpillingMemoryAllocator( MemoryAllocator offHeapAllocator, MemoryAllocationTracker offHeapTracker, long offHeapBudget, File directory,
+            Monitor monitor )
+    {
+        this( offHeapAllocator, offHeapTracker, offHeapBudget, directory, monitor, DEFAULT_CHUNK_SIZE );
+    }
+
+    SpillingMemoryAllocator( MemoryAllocator offHeapAllocator, MemoryAllocationTracker offHeapTracker, long offHeapBudget, File directory,
+            Monitor monitor, long chunkSize )
+    {
+        this.offHeapAllocator = requireNonNull( offHeapAllocator );
+        this.offHeapTracker = requireNonNull( offHeapTracker );
+        this.offHeapBudget = requirePositive( offHeapBudget );
+        this.directory = requireNonNull( directory );
+        this.monitor = requireNonNull( monitor );
+        this.chunkSize = requirePositive( chunkSize );
+    }
+
+    @Override
+    public Memory allocate( long size )
+    {
+        if ( offHeapTracker.usedDirectMemory() + size <= offHeapBudget )
+        {
+            return offHeapAllocator.allocate( size );
+        }
+        return spill( size );
+    }
+
+    private Memory spill( long size )
+    {
+        checkState( size <= Integer.MAX_VALUE, "Can't spill " + size + " bytes: memory size exceeds integer limit" );
+        Deque<ByteBuffer> free = freeRegions.get( size );
+        ByteBuffer region = free != null ? free.poll() : null;
+        if ( region == null )
+        {
+            region = newRegion( (int) size );
+        }
+        monitor.spilled( size );
+        return new SpilledMemory( region );
+    }
+
+    private ByteBuffer newRegion( int size )
+    {
+        if ( currentChunk == null || currentChunk.capacity() - currentChunkOffset < size )
+        {
+            mapNewChunk( max( size, chunkSize ) );
+        }
+        ByteBuffer region = currentChunk.duplicate();
+        region.position( currentChunkOffset );
+        region.limit( currentChunkOffset + size );
+        // Keep regions aligned, they're mostly accessed a long at a time
+        currentChunkOffset = min( currentChunk.capacity(), (currentChunkOffset + size + Long.BYTES - 1) & -Long.BYTES );
+        return region.slice();
+    }
+
+    private void mapNewChunk( long size )
+    {
+        try
+        {
+            if ( spillFile == null )
+            {
+                File file = File.createTempFile( "neo4j-tx-state", ".spill", directory );
+                spillFile = FileChannel.open( file.toPath(), READ, WRITE, DELETE_ON_CLOSE );
+                spillFileSize = 0;
+            }
+            currentChunk = spillFile.map( READ_WRITE, spillFileSize, size );
+            currentChunkOffset = 0;
+            chunks.add( currentChunk );
+            spillFileSize += size;
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( "Unable to spill transaction state to " + directory, e );
+        }
+    }
+
+    /**
+     * Unmaps and deletes the spill file, if any. Memory allocated from this allocator must not be used after this.
+     */
+    public void release()
+    {
+        freeRegions.clear();
+        chunks.forEach( UnsafeUtil::invokeCleaner );
+        chunks.clear();
+        currentChunk = null;
+        currentChunkOffset = 0;
+        if ( spillFile != null )
+        {
+            try
+            {
+                spillFile.close();
+            }
+            catch ( IOException e )
+            {
+                throw new UncheckedIOException( e );
+            }
+            finally
+            {
+                spillFile = null;
+                spillFileSize = 0;
+            }
+        }
+    }
+
+    /**
+     * @return number of bytes of the spill file which have been mapped, {@code 0} if nothing has been spilled.
+     */
+    long spillFileSize()
+    {
+        return spillFileSize;
+    }
+
+    private class SpilledMemory implements Memory
+    {
+        private final ByteBuffer region;
+        private boolean freed;
+
+        SpilledMemory( ByteBuffer region )
+        {
+            this.region = region.duplicate().order( ByteOrder.nativeOrder() );
+        }
+
+        @Override
+        public long readLong( long offset )
+        {
+            return region.getLong( (int) offset );
+        }
+
+        @Override
+        public void writeLong( long offset, long value )
+        {
+            region.putLong( (int) offset, value );
+        }
+
+        @Override
+        public void clear()
+        {
+            int longs = region.capacity() / Long.BYTES;
+            for ( int i = 0; i < longs; i++ )
+            {
+                region.putLong( i * Long.BYTES, 0 );
+            }
+            for ( int i = longs * Long.BYTES; i < region.capacity(); i++ )
+            {
+                region.put( i, (byte) 0 );
+            }
+        }
+
+        @Override
+        public long size()
+        {
+            return region.capacity();
+        }
+
+        @Override
+        public void free()
+        {
+            checkState( !freed, "Memory has already been freed" );
+            freed = true;
+            freeRegions.getIfAbsentPut( region.capacity(), ArrayDeque::new ).push( region );
+        }
+
+        @Override
+        public Memory copy()
+        {
+            Memory copy = allocate( region.capacity() );
+            ByteBuffer source = region.duplicate();
+            source.clear();
+            copy.asByteBuffer().put( source );
+            return copy;
+        }
+
+        @Override
+        public ByteBuffer asByteBuffer()
+        {
+            ByteBuffer buffer = region.duplicate();
+            buffer.clear();
+            return buffer.order( ByteOrder.BIG_ENDIAN );
+        }
+    }
+
+    public interface Monitor
+    {
+        Monitor EMPTY = bytes ->
+        {
+        };
+
+        /**
+         * Called whenever transaction state is spilled to disk.
+         *
+         * @param bytes number of bytes allocated in a spill file rather than off-heap.
+         */
+        void spilled( long bytes );
+    }
+}
@@ -33,10 +33,14 @@ import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.fs.OpenMode;
 import org.neo4j.io.fs.StoreChannel;
 import org.neo4j.kernel.impl.transaction.log.LogPosition;
+import org.neo4j.kernel.impl.transaction.log.entry.LogHeader;
 import org.neo4j.kernel.impl.transaction.log.files.LogFiles;
 import org.neo4j.kernel.impl.transaction.log.files.TransactionLogFiles;
 
 import static java.lang.String.format;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogHeader.LOG_HEADER_SIZE;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogHeaderReader.readLogHeader;
+import static org.neo4j.kernel.impl.transaction.log.files.PreallocatedLogFiles.isZeroFilled;
 
 /**
  * Transaction log truncator used during recovery to truncate all the logs after some specified position, that
@@ -162,8 +166,18 @@ public class CorruptedLogsTruncator
         return logFiles.getHighestLogVersion() > recoveredTransactionLogVersion;
     }
 
-    private boolean isRecoveredLogCorrupted( long recoveredTransactionLogVersion, long recoveredTransactionOffset )
+    private boolean isRecoveredLogCorrupted( long recoveredTransactionLogVersion, long recoveredTransactionOffset ) throws IOException
     {
-        return logFiles.getLogFileForVersion( recoveredTransactionLogVersion ).length() > recoveredTransactionOffset;
+        File logFile = logFiles.getLogFileForVersion( recoveredTransactionLogVersion );
+        if ( logFile.length() <= recoveredTransactionOffset )
+        {
+            return false;
+        }
+        // Zeros after the last recovered transaction are the part of a preallocated log file which hasn't been written yet
+        try ( StoreChannel channel = fs.open( logFile, OpenMode.READ ) )
+        {
+            LogHeader header = readLogHeader( ByteBuffer.allocate( LOG_HEADER_SIZE ), channel, false, logFile );
+            return header == null || !header.preallocated || !isZeroFilled( channel, recoveredTransactionOffset );
+        }
     }
 }
@@ -39,6 +39,7 @@ import org.neo4j.kernel.impl.transaction.log.files.LogFiles;
 import org.neo4j.kernel.monitoring.Monitors;
 
 import static org.neo4j.kernel.impl.transaction.log.LogVersionRepository.INITIAL_LOG_VERSION;
+import static org.neo4j.kernel.impl.transaction.log.files.PreallocatedLogFiles.isZeroFilled;
 import static org.neo4j.kernel.recovery.Recovery.throwUnableToCleanRecover;
 
 /**
@@ -170,7 +171,9 @@ public class LogTailScanner
 
     private boolean hasUnreadableBytes( LogVersionedStoreChannel channel, long maxEntryReadEndPosition ) throws IOException
     {
-        return channel.position() > maxEntryReadEndPosition;
+        // Zeros after the last entry are the part of a preallocated log file which hasn't been written yet
+        return channel.position() > maxEntryReadEndPosition &&
+               !(channel.isPreallocated() && isZeroFilled( channel, maxEntryReadEndPosition ));
     }
 
     protected LogTailInformation checkpointTailInformation( long highestLogVersion, LogEntryStart latestStartEntry,
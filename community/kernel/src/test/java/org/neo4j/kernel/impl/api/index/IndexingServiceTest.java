@@ -294,7 +294,9 @@ public class IndexingServiceTest
         InOrder order = inOrder( populator, accessor, updater);
         order.verify( populator ).create();
         order.verify( populator ).includeSample( add( 1, "value1" ) );
-        order.verify( populator, times( 3 ) ).add( any( Collection.class ) );
+        order.verify( populator, times( 2 ) ).add( any( Collection.class ) );
+        order.verify( populator ).scanCompleted();
+        order.verify( populator ).add( any( Collection.class ) );
         order.verify( populator ).newPopulatingUpdater( storeView );
         order.verify( updater ).close();
         order.verify( populator ).sampleResult();
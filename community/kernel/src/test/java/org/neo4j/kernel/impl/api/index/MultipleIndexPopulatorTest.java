@@ -96,7 +96,7 @@ public class MultipleIndexPopulatorTest
     }
 
     @Test
-    public void canceledPopulationNotAbleToFlip() throws FlipFailedKernelException
+    public void canceledPopulationNotAbleToFlip() throws FlipFailedKernelException, IndexEntryConflictException
     {
         IndexPopulator populator = createIndexPopulator();
         IndexPopulation indexPopulation = addPopulator( populator, 1 );
@@ -109,7 +109,7 @@ public class MultipleIndexPopulatorTest
     }
 
     @Test
-    public void flippedPopulationAreNotCanceable() throws FlipFailedKernelException
+    public void flippedPopulationAreNotCanceable() throws FlipFailedKernelException, IndexEntryConflictException
     {
         IndexPopulator populator = createIndexPopulator();
         IndexPopulation indexPopulation = addPopulator( populator, 1 );
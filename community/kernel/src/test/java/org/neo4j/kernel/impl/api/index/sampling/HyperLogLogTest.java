@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.index.sampling;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import org.neo4j.io.pagecache.StubPageCursor;
+import org.neo4j.test.Race;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class HyperLogLogTest
+{
+    @Test
+    public void shouldEstimateNothing()
+    {
+        assertEquals( 0, new HyperLogLog().estimate() );
+    }
+
+    @Test
+    public void shouldEstimateFewDistinctValuesExactly()
+    {
+        // given
+        HyperLogLog sketch = new HyperLogLog();
+
+        // when
+        for ( int i = 0; i < 100; i++ )
+        {
+            sketch.add( hash( i % 10 ) );
+        }
+
+        // then
+        assertEquals( 10, sketch.estimate() );
+    }
+
+    @Test
+    public void shouldEstimateManyDistinctValues()
+    {
+        // given
+        HyperLogLog sketch = new HyperLogLog();
+
+        // when
+        for ( int i = 0; i < 1_000_000; i++ )
+        {
+            sketch.add( hash( i % 100_000 ) );
+        }
+
+        // then
+        assertEquals( 100_000d, sketch.estimate(), 10_000d );
+    }
+
+    @Test
+    public void shouldEstimateUnionOfMergedSketches()
+    {
+        // given
+        HyperLogLog first = new HyperLogLog();
+        HyperLogLog second = new HyperLogLog();
+        for ( int i = 0; i < 60_000; i++ )
+        {
+            first.add( hash( i ) );
+            second.add( hash( i + 40_000 ) );
+        }
+
+        // when
+        first.addAll( second );
+
+        // then
+        assertEquals( 100_000d, first.estimate(), 10_000d );
+    }
+
+    @Test
+    public void shouldEstimateSameFromConcurrentAddsAsFromSequentialAdds() throws Throwable
+    {
+        // given
+        int threads = 4;
+        int values = 200_000;
+        HyperLogLog sequential = new HyperLogLog();
+        for ( int i = 0; i < values; i++ )
+        {
+            sequential.add( hash( i ) );
+        }
+        HyperLogLog concurrent = new HyperLogLog();
+        HyperLogLog merged = new HyperLogLog();
+        Race race = new Race();
+        for ( int thread = 0; thread < threads; thread++ )
+        {
+            int first = thread;
+            race.addContestant( () ->
+            {
+                HyperLogLog own = new HyperLogLog();
+                for ( int i = first; i < values; i += threads )
+                {
+                    concurrent.add( hash( i ) );
+                    own.add( hash( i ) );
+                }
+                merged.addAll( own );
+            } );
+        }
+
+        // when
+        race.go();
+
+        // then
+        assertEquals( sequential.estimate(), concurrent.estimate() );
+        assertEquals( sequential.estimate(), merged.estimate() );
+    }
+
+    @Test
+    public void shouldReadWhatItWrites()
+    {
+        // given
+        HyperLogLog sketch = new HyperLogLog();
+        for ( int i = 0; i < 50_000; i++ )
+        {
+            sketch.add( hash( i ) );
+        }
+        ByteBuffer buffer = ByteBuffer.allocate( HyperLogLog.SIZE_IN_BYTES );
+
+        // when
+        sketch.writeTo( new StubPageCursor( 0, buffer ) );
+        HyperLogLog read = HyperLogLog.read( ByteBuffer.wrap( buffer.array() ) );
+
+        // then
+        assertEquals( sketch.estimate(), read.estimate() );
+        ByteBuffer written = ByteBuffer.allocate( HyperLogLog.SIZE_IN_BYTES );
+        read.writeTo( new StubPageCursor( 0, written ) );
+        assertArrayEquals( buffer.array(), written.array() );
+    }
+
+    private static long hash( long value )
+    {
+        // the finalizer of SplitMix64
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.labelscan;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.neo4j.io.pagecache.CursorException;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.StubPageCursor;
+import org.neo4j.test.rule.RandomRule;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.neo4j.kernel.impl.index.labelscan.LabelScanLayout.ARRAY_CONTAINER;
+import static org.neo4j.kernel.impl.index.labelscan.LabelScanLayout.BITMAP_CONTAINER;
+import static org.neo4j.kernel.impl.index.labelscan.LabelScanLayout.RUN_CONTAINER;
+import static org.neo4j.kernel.impl.index.labelscan.LabelScanValue.RANGE_SIZE;
+
+public class LabelScanLayoutTest
+{
+    @Rule
+    public final RandomRule random = new RandomRule();
+
+    private final LabelScanLayout layout = new LabelScanLayout();
+
+    @Test
+    public void shouldStoreSparseValueAsArray()
+    {
+        // GIVEN
+        LabelScanValue value = new LabelScanValue();
+        value.set( 1 );
+        value.set( 100 );
+        value.set( RANGE_SIZE - 1 );
+
+        // THEN
+        assertEquals( ARRAY_CONTAINER, LabelScanLayout.containerType( value ) );
+        assertEquals( 1 + 3 * Short.BYTES, layout.valueSize( value ) );
+        assertReadsBack( value );
+    }
+
+    @Test
+    public void shouldStoreConsecutiveNodesAsRuns()
+    {
+        // GIVEN
+        LabelScanValue value = new LabelScanValue();
+        for ( int i = 10; i < RANGE_SIZE; i++ )
+        {
+            value.set( i );
+        }
+
+        // THEN
+        assertEquals( RUN_CONTAINER, LabelScanLayout.containerType( value ) );
+        assertEquals( 1 + 2 * Short.BYTES, layout.valueSize( value ) );
+        assertReadsBack( value );
+    }
+
+    @Test
+    public void shouldStoreDenseScatteredValueAsBitmap()
+    {
+        // GIVEN
+        LabelScanValue value = new LabelScanValue();
+        for ( int i = 0; i < RANGE_SIZE; i += 2 )
+        {
+            value.set( i );
+        }
+
+        // THEN
+        assertEquals( BITMAP_CONTAINER, LabelScanLayout.containerType( value ) );
+        assertEquals( 1 + LabelScanValue.WORDS * Long.BYTES, layout.valueSize( value ) );
+        assertReadsBack( value );
+    }
+
+    @Test
+    public void shouldStoreEmptyValue()
+    {
+        assertReadsBack( new LabelScanValue() );
+    }
+
+    @Test
+    public void shouldReadBackRandomValues()
+    {
+        for ( int round = 0; round < 1_000; round++ )
+        {
+            LabelScanValue value = new LabelScanValue();
+            int density = random.nextInt( 1, 100 );
+            int runLength = random.nextInt( 1, 64 );
+            for ( int i = 0; i < RANGE_SIZE; i += runLength )
+            {
+                if ( random.nextInt( 100 ) < density )
+                {
+                    for ( int j = i; j < Math.min( i + runLength, RANGE_SIZE ); j++ )
+                    {
+                        value.set( j );
+                    }
+                }
+            }
+            assertReadsBack( value );
+        }
+    }
+
+    @Test( expected = CursorException.class )
+    public void shouldFlagInconsistentValueSize() throws Exception
+    {
+        // GIVEN
+        LabelScanValue value = new LabelScanValue();
+        value.set( 5 );
+        PageCursor cursor = new StubPageCursor( 0, 1024 );
+        layout.writeValue( cursor, value );
+
+        // WHEN
+        cursor.setOffset( 0 );
+        layout.readValue( cursor, layout.newValue(), 2 );
+
+        // THEN
+        cursor.checkAndClearCursorException();
+    }
+
+    private void assertReadsBack( LabelScanValue value )
+    {
+        PageCursor cursor = new StubPageCursor( 0, 1024 );
+        layout.writeValue( cursor, value );
+        assertEquals( layout.valueSize( value ), cursor.getOffset() );
+
+        cursor.setOffset( 0 );
+        LabelScanValue read = layout.newValue();
+        read.set( 7 );
+        layout.readValue( cursor, read, layout.valueSize( value ) );
+        assertArrayEquals( value.words, read.words );
+    }
+}
@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.labelscan;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.neo4j.cursor.RawCursor;
+import org.neo4j.index.internal.gbptree.Hit;
+import org.neo4j.test.rule.RandomRule;
+
+import static java.lang.Math.toIntExact;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.neo4j.collection.PrimitiveLongCollections.asArray;
+import static org.neo4j.kernel.impl.index.labelscan.LabelScanValue.RANGE_SIZE;
+import static org.neo4j.storageengine.api.schema.LabelScanReader.NO_ID;
+
+public class LabelScanValueCombiningIteratorTest
+{
+    @Rule
+    public final RandomRule random = new RandomRule();
+
+    private final Collection<RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException>> openCursors = new HashSet<>();
+
+    @Test
+    public void mustHandleEmptyListOfCursors()
+    {
+        assertArrayEquals( new long[0], asArray( combine( false ) ) );
+        assertArrayEquals( new long[0], asArray( combine( true ) ) );
+    }
+
+    @Test
+    public void mustHandleEmptyCursors()
+    {
+        assertArrayEquals( new long[0], asArray( combine( false, new long[0], new long[0] ) ) );
+        assertArrayEquals( new long[0], asArray( combine( true, new long[0], new long[0] ) ) );
+    }
+
+    /* ALL = FALSE */
+    @Test
+    public void mustReportUniqueNodesFromOverlappingLabels()
+    {
+        // given
+        long[] first  = {0L,     2L,         RANGE_SIZE * 10L};
+        long[] second = {    1L,     3L, 600L                };
+        long[] third  = {0L,         3L, 600L                };
+        long[] fourth = {/* Empty */                         };
+        long[] expected = {0L, 1L, 2L, 3L, 600L, RANGE_SIZE * 10L};
+
+        // then
+        assertArrayEquals( expected, asArray( combine( false, first, second, third, fourth ) ) );
+        assertTrue( openCursors.isEmpty() );
+    }
+
+    @Test
+    public void mustReportNodesAfterFromId()
+    {
+        // given
+        long[] first  = {0L,     2L,         RANGE_SIZE * 10L};
+        long[] second = {    1L,     3L, 600L                };
+
+        // then
+        assertArrayEquals( new long[] {3L, 600L, RANGE_SIZE * 10L}, asArray( combine( 2L, false, first, second ) ) );
+        assertArrayEquals( new long[] {RANGE_SIZE * 10L}, asArray( combine( 600L, false, first, second ) ) );
+    }
+
+    /* ALL = TRUE */
+    @Test
+    public void mustOnlyReportNodesWithAllLabels()
+    {
+        // given
+        long[] first  = {0L,             600L,     RANGE_SIZE * 10L};
+        long[] second = {0L, 1L,         600L,     RANGE_SIZE * 10L};
+        long[] third  = {0L, 1L, 2L,     600L, 601L, RANGE_SIZE * 10L};
+        long[] expected = {0L,           600L,     RANGE_SIZE * 10L};
+
+        // then
+        assertArrayEquals( expected, asArray( combine( true, first, second, third ) ) );
+        assertTrue( openCursors.isEmpty() );
+    }
+
+    @Test
+    public void mustSkipRangesNotSharedByAllLabels()
+    {
+        // given
+        long[] first  = {1L, RANGE_SIZE * 2L + 1, RANGE_SIZE * 3L + 1, RANGE_SIZE * 7L + 1};
+        long[] second = {2L, RANGE_SIZE * 3L + 1, RANGE_SIZE * 5L + 1, RANGE_SIZE * 7L + 1};
+
+        // then
+        assertArrayEquals( new long[] {RANGE_SIZE * 3L + 1, RANGE_SIZE * 7L + 1}, asArray( combine( true, first, second ) ) );
+    }
+
+    @Test
+    public void mustOnlyReportNodesWithAllLabelsWithOneEmpty()
+    {
+        // given
+        long[] first  = {0L,         Long.MAX_VALUE / 2};
+        long[] second = {0L, 1L,     Long.MAX_VALUE / 2};
+        long[] third  = {/* Empty */                   };
+
+        // then
+        assertArrayEquals( new long[0], asArray( combine( true, first, second, third ) ) );
+        assertTrue( openCursors.isEmpty() );
+    }
+
+    @Test
+    public void mustCloseCursorsWhenClosedBeforeExhausted()
+    {
+        // given
+        LabelScanValueCombiningIterator iterator = combine( true, new long[] {1L, 2L}, new long[] {1L, 2L} );
+        assertTrue( iterator.hasNext() );
+        assertFalse( openCursors.isEmpty() );
+
+        // when
+        iterator.close();
+
+        // then
+        assertTrue( openCursors.isEmpty() );
+    }
+
+    @Test
+    public void mustCombineRandomLabels()
+    {
+        for ( int round = 0; round < 100; round++ )
+        {
+            // given
+            int labelCount = random.nextInt( 1, 5 );
+            long[][] labels = new long[labelCount][];
+            for ( int i = 0; i < labelCount; i++ )
+            {
+                TreeSet<Long> nodes = new TreeSet<>();
+                int density = random.nextInt( 1, 100 );
+                for ( long nodeId = 0; nodeId < RANGE_SIZE * 8; nodeId++ )
+                {
+                    if ( random.nextInt( 100 ) < density )
+                    {
+                        nodes.add( nodeId );
+                    }
+                }
+                labels[i] = nodes.stream().mapToLong( Long::longValue ).toArray();
+            }
+            long fromId = random.nextBoolean() ? NO_ID : random.nextInt( RANGE_SIZE * 8 );
+
+            // then
+            assertArrayEquals( expected( labels, fromId, true ), asArray( combine( fromId, true, labels ) ) );
+            assertArrayEquals( expected( labels, fromId, false ), asArray( combine( fromId, false, labels ) ) );
+        }
+    }
+
+    private static long[] expected( long[][] labels, long fromId, boolean trueForAll )
+    {
+        TreeMap<Long,Integer> counts = new TreeMap<>();
+        for ( long[] nodes : labels )
+        {
+            for ( long nodeId : nodes )
+            {
+                counts.merge( nodeId, 1, Integer::sum );
+            }
+        }
+        return counts.entrySet().stream()
+                .filter( entry -> entry.getKey() > fromId )
+                .filter( entry -> !trueForAll || entry.getValue() == labels.length )
+                .mapToLong( entry -> entry.getKey() )
+                .toArray();
+    }
+
+    private LabelScanValueCombiningIterator combine( boolean trueForAll, long[]... labels )
+    {
+        return combine( NO_ID, trueForAll, labels );
+    }
+
+    private LabelScanValueCombiningIterator combine( long fromId, boolean trueForAll, long[]... labels )
+    {
+        List<RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException>> cursors = new ArrayList<>();
+        for ( int labelId = 0; labelId < labels.length; labelId++ )
+        {
+            RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException> cursor = cursor( labelId, fromId, labels[labelId] );
+            cursors.add( cursor );
+            openCursors.add( cursor );
+        }
+        return new LabelScanValueCombiningIterator( cursors, openCursors, fromId, trueForAll );
+    }
+
+    /**
+     * A cursor over the ranges of the given, sorted, nodes, starting from the range of {@code fromId} like
+     * {@link NativeLabelScanReader} does. Values are reused between hits, like {@link org.neo4j.index.internal.gbptree.GBPTree} does.
+     */
+    private static RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException> cursor( int labelId, long fromId, long[] nodeIds )
+    {
+        TreeMap<Long,List<Long>> ranges = new TreeMap<>();
+        for ( long nodeId : nodeIds )
+        {
+            long range = nodeId / RANGE_SIZE;
+            if ( fromId == NO_ID || range >= fromId / RANGE_SIZE )
+            {
+                ranges.computeIfAbsent( range, r -> new ArrayList<>() ).add( nodeId );
+            }
+        }
+        return new RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException>()
+        {
+            private final LabelScanKey key = new LabelScanKey();
+            private final LabelScanValue value = new LabelScanValue();
+            private final Hit<LabelScanKey,LabelScanValue> hit = new MutableHit<>( key, value );
+            private Long currentRange;
+            private boolean started;
+
+            @Override
+            public Hit<LabelScanKey,LabelScanValue> get()
+            {
+                return hit;
+            }
+
+            @Override
+            public boolean next()
+            {
+                if ( !started )
+                {
+                    started = true;
+                    currentRange = ranges.isEmpty() ? null : ranges.firstKey();
+                }
+                else if ( currentRange != null )
+                {
+                    currentRange = ranges.higherKey( currentRange );
+                }
+                if ( currentRange == null )
+                {
+                    return false;
+                }
+                key.set( labelId, currentRange );
+                value.clear();
+                for ( long nodeId : ranges.get( currentRange ) )
+                {
+                    value.set( toIntExact( nodeId % RANGE_SIZE ) );
+                }
+                return true;
+            }
+
+            @Override
+            public void close()
+            {   // Nothing to close
+            }
+        };
+    }
+}
@@ -21,7 +21,10 @@ package org.neo4j.kernel.impl.index.labelscan;
 
 import org.junit.Test;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 public class LabelScanValueTest
 {
@@ -30,15 +33,19 @@ public class LabelScanValueTest
     {
         // GIVEN
         LabelScanValue value = new LabelScanValue();
-        value.bits = 0b0000__1000_0100__0010_0001;
+        value.words[0] = 0b0000__1000_0100__0010_0001;
+        value.words[5] = 0b0001;
 
         // WHEN
         LabelScanValue other = new LabelScanValue();
-        other.bits = 0b1100__0100_0100__0100_0100;
+        other.words[0] = 0b1100__0100_0100__0100_0100;
+        other.words[7] = 0b1000;
         value.add( other );
 
         // THEN
-        assertEquals( 0b1100__1100_0100__0110_0101, value.bits );
+        assertEquals( 0b1100__1100_0100__0110_0101, value.words[0] );
+        assertEquals( 0b0001, value.words[5] );
+        assertEquals( 0b1000, value.words[7] );
     }
 
     @Test
@@ -46,14 +53,78 @@ public class LabelScanValueTest
     {
         // GIVEN
         LabelScanValue value = new LabelScanValue();
-        value.bits = 0b1100__1000_0100__0010_0001;
+        value.words[0] = 0b1100__1000_0100__0010_0001;
+        value.words[5] = 0b0011;
 
         // WHEN
         LabelScanValue other = new LabelScanValue();
-        other.bits = 0b1000__0100_0100__0100_0100;
+        other.words[0] = 0b1000__0100_0100__0100_0100;
+        other.words[5] = 0b0001;
         value.remove( other );
 
         // THEN
-        assertEquals( 0b0100__1000_0000__0010_0001, value.bits );
+        assertEquals( 0b0100__1000_0000__0010_0001, value.words[0] );
+        assertEquals( 0b0010, value.words[5] );
+    }
+
+    @Test
+    public void shouldSetBitsInAllWords()
+    {
+        // GIVEN
+        LabelScanValue value = new LabelScanValue();
+
+        // WHEN
+        value.set( 0 );
+        value.set( 63 );
+        value.set( 64 );
+        value.set( LabelScanValue.RANGE_SIZE - 1 );
+
+        // THEN
+        long[] expected = new long[LabelScanValue.WORDS];
+        expected[0] = 1L | 1L << 63;
+        expected[1] = 1L;
+        expected[LabelScanValue.WORDS - 1] = 1L << 63;
+        assertArrayEquals( expected, value.words );
+        assertEquals( 4, value.cardinality() );
+    }
+
+    @Test
+    public void shouldCountRunsSpanningWords()
+    {
+        // GIVEN
+        LabelScanValue value = new LabelScanValue();
+        for ( int i = 60; i < 70; i++ )
+        {
+            value.set( i );
+        }
+        value.set( 72 );
+        value.set( 128 );
+
+        // THEN
+        assertEquals( 3, value.runs() );
+        assertEquals( 12, value.cardinality() );
+    }
+
+    @Test
+    public void shouldTellContainmentAndIntersection()
+    {
+        // GIVEN
+        LabelScanValue value = new LabelScanValue();
+        value.set( 3 );
+        value.set( 300 );
+        LabelScanValue other = new LabelScanValue();
+        other.set( 300 );
+
+        // THEN
+        assertTrue( value.containsAll( other ) );
+        assertTrue( value.intersects( other ) );
+        other.set( 4 );
+        assertFalse( value.containsAll( other ) );
+        assertTrue( value.intersects( other ) );
+        other.remove( value );
+        assertFalse( value.intersects( other ) );
+        assertFalse( other.isEmpty() );
+        other.clear();
+        assertTrue( other.isEmpty() );
     }
 }
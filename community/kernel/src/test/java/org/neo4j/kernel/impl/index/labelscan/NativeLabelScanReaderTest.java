@@ -65,12 +65,12 @@ public class NativeLabelScanReaderTest
 
             // THEN
             assertArrayEquals( new long[] {
-                    // base 0*64 = 0
+                    // base 0*512 = 0
                     1, 6, 7, 11, 15,
-                    // base 1*64 = 64
-                    64 + 3, 64 + 9,
-                    // base 3*64 = 192
-                    192 + 0, 192 + 5, 192 + 7, 192 + 13 },
+                    // base 1*512 = 512
+                    512 + 3, 512 + 9,
+                    // base 3*512 = 1536
+                    1536 + 0, 1536 + 5, 1536 + 7, 1536 + 13 },
 
                     asArray( iterator ) );
         }
@@ -161,10 +161,10 @@ public class NativeLabelScanReaderTest
         {
             // then
             assertArrayEquals( new long[] {
-                            // base 1*64 = 64
-                            64 + 4, 64 + 6, 64 + 11, 64 + 12,
-                            // base 3*64 = 192
-                            192 + 0, 192 + 5, 192 + 7, 192 + 13 },
+                            // base 1*512 = 512
+                            512 + 4, 512 + 6, 512 + 11, 512 + 12,
+                            // base 3*512 = 1536
+                            1536 + 0, 1536 + 5, 1536 + 7, 1536 + 13 },
 
                     asArray( iterator ) );
         }
@@ -174,7 +174,7 @@ public class NativeLabelScanReaderTest
     {
         LabelScanKey key = new LabelScanKey( LABEL_ID, baseNodeId );
         LabelScanValue value = new LabelScanValue();
-        value.bits = bits;
+        value.words[0] = bits;
         return new MutableHit<>( key, value );
     }
 
@@ -41,6 +41,7 @@ import org.neo4j.test.rule.RandomRule;
 
 import static java.lang.Integer.max;
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.neo4j.collection.PrimitiveLongCollections.EMPTY_LONG_ARRAY;
 import static org.neo4j.collection.PrimitiveLongCollections.asArray;
@@ -110,6 +111,39 @@ public class NativeLabelScanWriterTest
         assertTrue( failed );
     }
 
+    @Test
+    public void shouldRemoveRangesWhichBecomeEmpty() throws Exception
+    {
+        // GIVEN
+        ControlledInserter inserter = new ControlledInserter();
+        try ( NativeLabelScanWriter writer = new NativeLabelScanWriter( 1 ) )
+        {
+            writer.initialize( inserter );
+            writer.write( NodeLabelUpdate.labelChanges( 0, EMPTY_LONG_ARRAY, new long[] {1} ) );
+            writer.write( NodeLabelUpdate.labelChanges( 1, EMPTY_LONG_ARRAY, new long[] {1} ) );
+        }
+
+        // WHEN
+        try ( NativeLabelScanWriter writer = new NativeLabelScanWriter( 1 ) )
+        {
+            writer.initialize( inserter );
+            writer.write( NodeLabelUpdate.labelChanges( 0, new long[] {1}, EMPTY_LONG_ARRAY ) );
+        }
+
+        // THEN
+        assertEquals( 1, inserter.data.get( 1 ).size() );
+
+        // WHEN
+        try ( NativeLabelScanWriter writer = new NativeLabelScanWriter( 1 ) )
+        {
+            writer.initialize( inserter );
+            writer.write( NodeLabelUpdate.labelChanges( 1, new long[] {1}, EMPTY_LONG_ARRAY ) );
+        }
+
+        // THEN
+        assertTrue( inserter.data.get( 1 ).isEmpty() );
+    }
+
     private NodeLabelUpdate randomUpdate( long[] expected )
     {
         int nodeId = random.nextInt( expected.length );
@@ -162,7 +196,7 @@ public class NativeLabelScanWriterTest
         private static LabelScanValue clone( LabelScanValue value )
         {
             LabelScanValue result = new LabelScanValue();
-            result.bits = value.bits;
+            result.add( value );
             return result;
         }
 
@@ -174,7 +208,8 @@ public class NativeLabelScanWriterTest
         @Override
         public LabelScanValue remove( LabelScanKey key )
         {
-            throw new UnsupportedOperationException( "Should not be called" );
+            Map<LabelScanKey,LabelScanValue> forLabel = data.get( key.labelId );
+            return forLabel != null ? forLabel.remove( key ) : null;
         }
 
         @SuppressWarnings( "unchecked" )
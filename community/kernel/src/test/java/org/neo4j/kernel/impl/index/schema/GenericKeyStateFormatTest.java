@@ -234,10 +234,20 @@ public class GenericKeyStateFormatTest extends FormatCompatibilityVerifier
         }
     }
 
+    /**
+     * @return whether or not the keys in the zipped store file are written by a layout that {@link GenericLayout#compressKeyPrefixes() compresses key
+     * prefixes}. This one has the keys of indexes created before that, which are still opened with their original layout.
+     */
+    protected boolean compressKeyPrefixes()
+    {
+        return false;
+    }
+
     private GenericLayout getLayout()
     {
         return new GenericLayout( NUMBER_OF_SLOTS,
-                new IndexSpecificSpaceFillingCurveSettingsCache( new ConfiguredSpaceFillingCurveSettingsCache( Config.defaults() ), new HashMap<>() ) );
+                new IndexSpecificSpaceFillingCurveSettingsCache( new ConfiguredSpaceFillingCurveSettingsCache( Config.defaults() ), new HashMap<>() ),
+                compressKeyPrefixes() );
     }
 
     private void withCursor( File storeFile, boolean create, Consumer<PageCursor> cursorConsumer ) throws IOException
@@ -34,6 +34,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -56,6 +57,7 @@ import org.neo4j.storageengine.api.schema.IndexProgressor;
 import org.neo4j.storageengine.api.schema.IndexReader;
 import org.neo4j.storageengine.api.schema.IndexSample;
 import org.neo4j.storageengine.api.schema.IndexSampler;
+import org.neo4j.test.Race;
 import org.neo4j.values.storable.Value;
 
 import static java.lang.String.format;
@@ -71,7 +73,9 @@ import static org.neo4j.helpers.collection.Iterators.filter;
 import static org.neo4j.kernel.api.index.IndexEntryUpdate.change;
 import static org.neo4j.kernel.api.index.IndexEntryUpdate.remove;
 import static org.neo4j.kernel.impl.api.index.IndexUpdateMode.ONLINE;
+import static org.neo4j.kernel.impl.api.index.IndexUpdateMode.RECOVERY;
 import static org.neo4j.kernel.impl.index.schema.LayoutTestUtil.countUniqueValues;
+import static org.neo4j.test.Race.throwing;
 import static org.neo4j.values.storable.Values.of;
 
 /**
@@ -302,6 +306,37 @@ public abstract class NativeIndexAccessorTest<KEY extends NativeIndexSingleValue
         assertEntityIdHits( extractEntityIds( updates, alwaysTrue() ), result );
     }
 
+    @Test
+    public void shouldReturnAllEntriesForExistsPredicateAcrossPartitions() throws Exception
+    {
+        // given
+        Iterator<IndexEntryUpdate<IndexDescriptor>> generator = layoutUtil.randomUpdateGenerator( random );
+        IndexEntryUpdate<IndexDescriptor>[] updates = new IndexEntryUpdate[2_000];
+        for ( int i = 0; i < updates.length; i++ )
+        {
+            updates[i] = generator.next();
+        }
+        processAll( updates );
+
+        // when
+        List<Long> result = new ArrayList<>();
+        try ( IndexReader reader = accessor.newReader() )
+        {
+            for ( IndexReader.Partition partition : reader.partitionedQuery( 4, false, IndexQuery.exists( 0 ) ) )
+            {
+                NodeValueIterator client = new NodeValueIterator();
+                partition.initialize( client );
+                while ( client.hasNext() )
+                {
+                    result.add( client.next() );
+                }
+            }
+        }
+
+        // then every entry is found in exactly one of the partitions
+        assertEntityIdHits( extractEntityIds( updates, alwaysTrue() ), result );
+    }
+
     @Test
     public void shouldReturnNoEntriesForExistsPredicateForEmptyIndex() throws Exception
     {
@@ -518,17 +553,72 @@ public abstract class NativeIndexAccessorTest<KEY extends NativeIndexSingleValue
     }
 
     @Test
-    public void requestForSecondUpdaterMustThrow() throws Exception
+    public void requestForSecondRecoveryUpdaterMustThrow() throws Exception
     {
         // given
-        try ( IndexUpdater ignored = accessor.newUpdater( ONLINE ) )
+        try ( IndexUpdater ignored = accessor.newUpdater( RECOVERY ) )
         {
             // then
             expected.expect( IllegalStateException.class );
 
             // when
-            accessor.newUpdater( ONLINE );
+            accessor.newUpdater( RECOVERY );
+        }
+    }
+
+    @Test
+    public void shouldApplyUpdatesFromConcurrentOnlineUpdaters() throws Throwable
+    {
+        // given
+        int threads = 4;
+        Iterator<IndexEntryUpdate<IndexDescriptor>> generator = layoutUtil.randomUpdateGenerator( random );
+        List<IndexEntryUpdate<IndexDescriptor>> adds = new ArrayList<>();
+        for ( int i = 0; i < threads * 250; i++ )
+        {
+            adds.add( generator.next() );
+        }
+
+        // when
+        applyConcurrently( threads, adds );
+        List<IndexEntryUpdate<IndexDescriptor>> removes = new ArrayList<>();
+        List<IndexEntryUpdate<IndexDescriptor>> remaining = new ArrayList<>();
+        for ( int i = 0; i < adds.size(); i++ )
+        {
+            IndexEntryUpdate<IndexDescriptor> add = adds.get( i );
+            if ( i % 3 == 0 )
+            {
+                removes.add( remove( add.getEntityId(), indexDescriptor, add.values() ) );
+            }
+            else
+            {
+                remaining.add( add );
+            }
+        }
+        applyConcurrently( threads, removes );
+
+        // then
+        forceAndCloseAccessor();
+        verifyUpdates( remaining.toArray( new IndexEntryUpdate[0] ) );
+    }
+
+    private void applyConcurrently( int threads, List<IndexEntryUpdate<IndexDescriptor>> updates ) throws Throwable
+    {
+        Race race = new Race();
+        for ( int thread = 0; thread < threads; thread++ )
+        {
+            int first = thread;
+            race.addContestant( throwing( () ->
+            {
+                try ( IndexUpdater updater = accessor.newUpdater( ONLINE ) )
+                {
+                    for ( int i = first; i < updates.size(); i += threads )
+                    {
+                        updater.process( updates.get( i ) );
+                    }
+                }
+            } ) );
         }
+        race.go();
     }
 
     @Test
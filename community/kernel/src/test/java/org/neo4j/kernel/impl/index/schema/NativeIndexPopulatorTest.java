@@ -46,6 +46,7 @@ import org.neo4j.kernel.api.index.NodePropertyAccessor;
 import org.neo4j.kernel.configuration.Config;
 import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingConfig;
 import org.neo4j.storageengine.api.schema.IndexDescriptor;
+import org.neo4j.util.FeatureToggles;
 import org.neo4j.values.storable.Values;
 
 import static org.junit.Assert.assertEquals;
@@ -380,6 +381,65 @@ public abstract class NativeIndexPopulatorTest<KEY extends NativeIndexSingleValu
         verifyUpdates( layoutUtil.randomUpdateGenerator( random ), count );
     }
 
+    @Test
+    public void shouldApplyAllScanUpdatesWhenSortedEntriesAreSpilledToDisk() throws Exception
+    {
+        // given
+        FeatureToggles.set( NativeIndexPopulator.class, NativeIndexPopulator.SORT_BUFFER_SIZE_NAME, 10 );
+        FeatureToggles.set( NativeIndexPopulator.class, NativeIndexPopulator.SORT_MERGE_FACTOR_NAME, 3 );
+        try
+        {
+            populator = createPopulator( new IndexSamplingConfig( Config.defaults() ) );
+        }
+        finally
+        {
+            FeatureToggles.clear( NativeIndexPopulator.class, NativeIndexPopulator.SORT_BUFFER_SIZE_NAME );
+            FeatureToggles.clear( NativeIndexPopulator.class, NativeIndexPopulator.SORT_MERGE_FACTOR_NAME );
+        }
+        populator.create();
+        random.reset();
+        Iterator<IndexEntryUpdate<IndexDescriptor>> updates = layoutUtil.randomUpdateGenerator( random );
+
+        // when
+        for ( int i = 0; i < LARGE_AMOUNT_OF_UPDATES; i++ )
+        {
+            populator.add( Collections.singletonList( updates.next() ) );
+        }
+        populator.scanCompleted();
+
+        // then
+        populator.close( true );
+        random.reset();
+        verifyUpdates( layoutUtil.randomUpdateGenerator( random ), LARGE_AMOUNT_OF_UPDATES );
+    }
+
+    @Test
+    public void shouldApplyInterleavedUpdatesWhenTooManyUpdatesComeInDuringScan() throws Exception
+    {
+        // given
+        FeatureToggles.set( NativeIndexPopulator.class, NativeIndexPopulator.DEFERRED_UPDATES_LIMIT_NAME, 10 );
+        try
+        {
+            populator = createPopulator( new IndexSamplingConfig( Config.defaults() ) );
+        }
+        finally
+        {
+            FeatureToggles.clear( NativeIndexPopulator.class, NativeIndexPopulator.DEFERRED_UPDATES_LIMIT_NAME );
+        }
+        populator.create();
+        random.reset();
+        Random updaterRandom = new Random( random.seed() );
+        Iterator<IndexEntryUpdate<IndexDescriptor>> updates = layoutUtil.randomUpdateGenerator( random );
+
+        // when
+        int count = interleaveLargeAmountOfUpdates( updaterRandom, updates );
+
+        // then
+        populator.close( true );
+        random.reset();
+        verifyUpdates( layoutUtil.randomUpdateGenerator( random ), count );
+    }
+
     @Test
     public void dropMustSucceedAfterSuccessfulClose() throws Exception
     {
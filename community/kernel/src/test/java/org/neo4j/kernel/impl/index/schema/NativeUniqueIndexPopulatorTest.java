@@ -39,16 +39,17 @@ public abstract class NativeUniqueIndexPopulatorTest<KEY extends NativeIndexSing
         extends NativeIndexPopulatorTest<KEY,VALUE>
 {
     @Test
-    public void addShouldThrowOnDuplicateValues() throws Exception
+    public void scanCompletedShouldThrowOnDuplicateValuesFromAdd() throws Exception
     {
         // given
         populator.create();
         IndexEntryUpdate<IndexDescriptor>[] updates = layoutUtil.someUpdatesWithDuplicateValues();
 
         // when
+        populator.add( Arrays.asList( updates ) );
         try
         {
-            populator.add( Arrays.asList( updates ) );
+            populator.scanCompleted();
             fail( "Updates should have conflicted" );
         }
         catch ( IndexEntryConflictException e )
@@ -62,7 +63,7 @@ public abstract class NativeUniqueIndexPopulatorTest<KEY extends NativeIndexSing
     }
 
     @Test
-    public void updaterShouldThrowOnDuplicateValues() throws Exception
+    public void verifyDeferredConstraintsShouldThrowOnDuplicateValuesFromUpdater() throws Exception
     {
         // given
         populator.create();
@@ -74,9 +75,11 @@ public abstract class NativeUniqueIndexPopulatorTest<KEY extends NativeIndexSing
         {
             updater.process( update );
         }
+        updater.close();
+        populator.scanCompleted();
         try
         {
-            updater.close();
+            populator.verifyDeferredConstraints( null_property_accessor );
             fail( "Updates should have conflicted" );
         }
         catch ( Exception e )
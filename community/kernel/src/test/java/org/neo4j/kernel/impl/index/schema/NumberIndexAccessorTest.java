@@ -22,22 +22,35 @@ package org.neo4j.kernel.impl.index.schema;
 import org.hamcrest.CoreMatchers;
 import org.junit.Test;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.neo4j.internal.kernel.api.IndexOrder;
 import org.neo4j.internal.kernel.api.IndexQuery;
+import org.neo4j.io.pagecache.IOLimiter;
 import org.neo4j.kernel.api.index.IndexEntryUpdate;
+import org.neo4j.kernel.api.index.IndexProvider;
 import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingConfig;
 import org.neo4j.storageengine.api.schema.IndexDescriptor;
+import org.neo4j.storageengine.api.schema.IndexHistogram;
 import org.neo4j.storageengine.api.schema.IndexReader;
+import org.neo4j.storageengine.api.schema.IndexSample;
 import org.neo4j.storageengine.api.schema.SimpleNodeValueClient;
+import org.neo4j.util.FeatureToggles;
 import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.ValueCategory;
 import org.neo4j.values.storable.Values;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
 import static org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector.immediate;
+import static org.neo4j.io.ByteUnit.mebiBytes;
 
 public abstract class NumberIndexAccessorTest extends NativeIndexAccessorTest<NumberIndexKey,NativeIndexValue>
 {
@@ -82,6 +95,162 @@ public abstract class NumberIndexAccessorTest extends NativeIndexAccessorTest<Nu
         }
     }
 
+    @Test
+    public void shouldAnswerLookupsOfAbsentValuesWithBloomFilterOfUniqueIndex() throws Exception
+    {
+        // given
+        assumeTrue( indexDescriptor.isUnique() );
+        AtomicLong negatives = new AtomicLong();
+        AtomicLong truePositives = new AtomicLong();
+        accessor.close();
+        monitor = new IndexProvider.Monitor.Adaptor()
+        {
+            @Override
+            public void bloomFilterLookups( File indexFile, IndexDescriptor indexDescriptor, long negativeLookups, long falsePositives,
+                    long truePositiveLookups )
+            {
+                negatives.addAndGet( negativeLookups );
+                truePositives.addAndGet( truePositiveLookups );
+            }
+        };
+        setupAccessorWithBloomFilter( mebiBytes( 1 ) );
+        IndexEntryUpdate<IndexDescriptor>[] updates = layoutUtil.someUpdates();
+        processAll( updates );
+
+        // when
+        IndexReader reader = accessor.newReader();
+        for ( IndexEntryUpdate<IndexDescriptor> update : updates )
+        {
+            SimpleNodeValueClient client = new SimpleNodeValueClient();
+            reader.query( client, IndexOrder.NONE, false, IndexQuery.exact( 0, update.values()[0] ) );
+            assertTrue( client.next() );
+            assertEquals( update.getEntityId(), client.reference );
+        }
+        SimpleNodeValueClient client = new SimpleNodeValueClient();
+        reader.query( client, IndexOrder.NONE, false, IndexQuery.exact( 0, 0.123456789 ) );
+        assertFalse( client.next() );
+        accessor.force( IOLimiter.UNLIMITED );
+
+        // then
+        assertEquals( 1, negatives.get() );
+        assertEquals( updates.length, truePositives.get() );
+    }
+
+    @Test
+    public void shouldNotKeepBloomFilterUnlessEnabled()
+    {
+        assertNull( accessor.bloomFilter );
+    }
+
+    @Test
+    public void shouldRebuildBloomFilterAtCheckpointRatherThanOnCommit() throws Exception
+    {
+        // given
+        assumeTrue( indexDescriptor.isUnique() );
+        accessor.close();
+        setupAccessorWithBloomFilter( mebiBytes( 1 ) );
+        long initialCapacity = accessor.bloomFilter.capacity();
+
+        // when
+        IndexEntryUpdate<IndexDescriptor>[] updates = manyUpdates( (int) initialCapacity * 2 );
+        processAll( updates );
+
+        // then
+        assertEquals( initialCapacity, accessor.bloomFilter.capacity() );
+        assertAllFound( updates );
+
+        // when
+        accessor.force( IOLimiter.UNLIMITED );
+
+        // then
+        assertTrue( accessor.bloomFilter.capacity() >= updates.length );
+        assertAllFound( updates );
+    }
+
+    @Test
+    public void shouldKeepBloomFilterWithinMaxSize() throws Exception
+    {
+        // given
+        assumeTrue( indexDescriptor.isUnique() );
+        accessor.close();
+        setupAccessorWithBloomFilter( 1024 );
+        IndexEntryUpdate<IndexDescriptor>[] updates = manyUpdates( 10_000 );
+        processAll( updates );
+
+        // when
+        accessor.force( IOLimiter.UNLIMITED );
+
+        // then 1024 bytes of bits, at 10 bits per tuple
+        assertEquals( 819, accessor.bloomFilter.capacity() );
+        assertAllFound( updates );
+    }
+
+    @Test
+    public void shouldSampleFromStatisticsKeptUpToDateAcrossRestarts() throws Exception
+    {
+        // given
+        IndexEntryUpdate<IndexDescriptor>[] updates = layoutUtil.someUpdates();
+        processAll( updates );
+        assertFalse( accessor.statistics.isKnown() );
+        try ( IndexReader reader = accessor.newReader() )
+        {
+            assertEquals( updates.length, reader.createFullScanSampler().sampleIndex().indexSize() );
+        }
+        assertTrue( accessor.statistics.isKnown() );
+
+        // when
+        IndexEntryUpdate<IndexDescriptor> removed = updates[0];
+        processAll( IndexEntryUpdate.remove( removed.getEntityId(), indexDescriptor, removed.values() ) );
+        accessor.force( IOLimiter.UNLIMITED );
+        accessor.close();
+        setupAccessor();
+
+        // then
+        assertTrue( accessor.statistics.isKnown() );
+        try ( IndexReader reader = accessor.newReader() )
+        {
+            IndexSample sample = reader.createSampler().sampleIndex();
+            assertEquals( updates.length - 1, sample.indexSize() );
+            assertEquals( updates.length - 1, sample.sampleSize() );
+        }
+    }
+
+    @Test
+    public void shouldKeepHistogramFromFullScanAcrossRestarts() throws Exception
+    {
+        // given
+        IndexEntryUpdate<IndexDescriptor>[] updates = new IndexEntryUpdate[1_000];
+        for ( int i = 0; i < updates.length; i++ )
+        {
+            updates[i] = IndexEntryUpdate.add( i, indexDescriptor, Values.intValue( i ) );
+        }
+        processAll( updates );
+        IndexHistogram histogram;
+        try ( IndexReader reader = accessor.newReader() )
+        {
+            assertNull( reader.histogram() );
+            reader.createFullScanSampler().sampleIndex();
+            histogram = reader.histogram();
+        }
+        assertNotNull( histogram );
+        assertEquals( updates.length, histogram.entries() );
+
+        // when
+        accessor.force( IOLimiter.UNLIMITED );
+        accessor.close();
+        setupAccessor();
+
+        // then
+        try ( IndexReader reader = accessor.newReader() )
+        {
+            assertEquals( histogram, reader.histogram() );
+        }
+        assertEquals( 0.25, histogram.rangeSelectivity( Values.intValue( 0 ), true, Values.intValue( 250 ), false ), 0.05 );
+        assertEquals( 0.5, histogram.rangeSelectivity( Values.doubleValue( 499.5 ), false, null, false ), 0.05 );
+        assertEquals( 0, histogram.rangeSelectivity( Values.intValue( 1_000 ), true, null, false ), 0.0 );
+        assertEquals( 0, histogram.prefixSelectivity( "1" ), 0.0 );
+    }
+
     // <READER ordering>
 
     @Test
@@ -105,4 +274,44 @@ public abstract class NumberIndexAccessorTest extends NativeIndexAccessorTest<Nu
     }
 
     // </READER ordering>
+
+    private void setupAccessorWithBloomFilter( long maxSize ) throws IOException
+    {
+        FeatureToggles.set( NativeIndexAccessor.class, NativeIndexAccessor.BLOOM_FILTER_NAME, true );
+        FeatureToggles.set( NativeIndexAccessor.class, NativeIndexAccessor.BLOOM_FILTER_MAX_SIZE_NAME, maxSize );
+        try
+        {
+            setupAccessor();
+        }
+        finally
+        {
+            FeatureToggles.clear( NativeIndexAccessor.class, NativeIndexAccessor.BLOOM_FILTER_NAME );
+            FeatureToggles.clear( NativeIndexAccessor.class, NativeIndexAccessor.BLOOM_FILTER_MAX_SIZE_NAME );
+        }
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private IndexEntryUpdate<IndexDescriptor>[] manyUpdates( int count )
+    {
+        IndexEntryUpdate<IndexDescriptor>[] updates = new IndexEntryUpdate[count];
+        for ( int i = 0; i < count; i++ )
+        {
+            updates[i] = IndexEntryUpdate.add( i, indexDescriptor, Values.of( i ) );
+        }
+        return updates;
+    }
+
+    private void assertAllFound( IndexEntryUpdate<IndexDescriptor>[] updates ) throws Exception
+    {
+        try ( IndexReader reader = accessor.newReader() )
+        {
+            for ( IndexEntryUpdate<IndexDescriptor> update : updates )
+            {
+                SimpleNodeValueClient client = new SimpleNodeValueClient();
+                reader.query( client, IndexOrder.NONE, false, IndexQuery.exact( 0, update.values()[0] ) );
+                assertTrue( client.next() );
+                assertEquals( update.getEntityId(), client.reference );
+            }
+        }
+    }
 }
@@ -19,16 +19,40 @@
  */
 package org.neo4j.kernel.impl.index.schema;
 
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.neo4j.index.internal.gbptree.GBPTree;
 import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
+import org.neo4j.index.internal.gbptree.Writer;
 import org.neo4j.internal.kernel.api.InternalIndexState;
 import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.IOLimiter;
 import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.api.index.IndexAccessor;
 import org.neo4j.kernel.api.index.IndexDirectoryStructure;
 import org.neo4j.kernel.api.index.IndexProvider;
 import org.neo4j.kernel.api.index.IndexProvider.Monitor;
+import org.neo4j.kernel.configuration.Config;
+import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingConfig;
+import org.neo4j.storageengine.api.schema.IndexDescriptorFactory;
+import org.neo4j.storageengine.api.schema.IndexReader;
+import org.neo4j.storageengine.api.schema.StoreIndexDescriptor;
 import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.Values;
 
+import static org.junit.Assert.assertEquals;
+import static org.neo4j.index.internal.gbptree.GBPTree.NO_HEADER_READER;
+import static org.neo4j.index.internal.gbptree.GBPTree.NO_HEADER_WRITER;
+import static org.neo4j.index.internal.gbptree.GBPTree.NO_MONITOR;
+import static org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector.immediate;
+import static org.neo4j.kernel.api.index.IndexDirectoryStructure.directoriesByProvider;
+import static org.neo4j.kernel.api.schema.SchemaDescriptorFactory.forLabel;
+import static org.neo4j.kernel.impl.api.index.TestIndexProviderDescriptor.PROVIDER_DESCRIPTOR;
+import static org.neo4j.kernel.impl.index.schema.NativeIndexPopulator.BYTE_ONLINE;
+
 public class StringIndexProviderTest extends NativeIndexProviderTest
 {
     @Override
@@ -56,4 +80,46 @@ public class StringIndexProviderTest extends NativeIndexProviderTest
     {
         return Values.stringValue( "abc" );
     }
+
+    @Test
+    public void shouldOpenIndexCreatedWithLegacyLayoutWithoutPopulatingItAgain() throws Exception
+    {
+        // given an online index written with the layout from before prefix compression
+        PageCache pageCache = rules.pageCache();
+        IndexProvider provider = newProvider( pageCache, rules.fileSystem(), directoriesByProvider( rules.directory().absolutePath() ),
+                IndexProvider.Monitor.EMPTY, immediate() );
+        StoreIndexDescriptor descriptor = IndexDescriptorFactory.forSchema( forLabel( 1, 1 ), PROVIDER_DESCRIPTOR ).withId( 1 );
+        File storeFile = new File( provider.directoryStructure().directoryForIndex( descriptor.getId() ), "index-" + descriptor.getId() );
+        rules.fileSystem().mkdirs( storeFile.getParentFile() );
+        Value value = someValue();
+        createLegacyIndex( pageCache, storeFile, value, 10 );
+
+        // when
+        InternalIndexState state = provider.getInitialState( descriptor );
+
+        // then
+        assertEquals( InternalIndexState.ONLINE, state );
+        try ( IndexAccessor accessor = provider.getOnlineAccessor( descriptor, new IndexSamplingConfig( Config.defaults() ) );
+              IndexReader reader = accessor.newReader() )
+        {
+            assertEquals( 1, reader.countIndexedNodes( 10, new int[]{1}, value ) );
+        }
+    }
+
+    private static void createLegacyIndex( PageCache pageCache, File storeFile, Value value, long entityId ) throws IOException
+    {
+        StringLayout layout = new StringLayout( false );
+        try ( GBPTree<StringIndexKey,NativeIndexValue> tree = new GBPTree<>( pageCache, storeFile, layout, 0, NO_MONITOR, NO_HEADER_READER,
+                NO_HEADER_WRITER, immediate() ) )
+        {
+            try ( Writer<StringIndexKey,NativeIndexValue> writer = tree.writer() )
+            {
+                StringIndexKey key = layout.newKey();
+                key.initialize( entityId );
+                key.initFromValue( 0, value, NativeIndexKey.Inclusion.NEUTRAL );
+                writer.put( key, NativeIndexValue.INSTANCE );
+            }
+            tree.checkpoint( IOLimiter.UNLIMITED, new NativeIndexHeaderWriter( BYTE_ONLINE, NO_HEADER_WRITER ) );
+        }
+    }
 }
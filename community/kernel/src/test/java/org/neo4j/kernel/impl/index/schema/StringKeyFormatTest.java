@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.junit.Before;
+import org.junit.Rule;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.OpenOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.test.FormatCompatibilityVerifier;
+import org.neo4j.test.rule.PageCacheRule;
+import org.neo4j.test.rule.RandomRule;
+import org.neo4j.values.storable.RandomValues;
+import org.neo4j.values.storable.Value;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class StringKeyFormatTest extends FormatCompatibilityVerifier
+{
+    @Rule
+    public PageCacheRule pageCacheRule = new PageCacheRule();
+
+    @Rule
+    public RandomRule randomRule = new RandomRule().withSeedForAllTests( SEED );
+
+    // Seed and entity id is intentionally fixed because we have a file stored with keys of strings
+    // generated by this seed and we need it to verify that we read the content correctly.
+    // The strings are alphanumeric, since other random strings depend on the Unicode version of the JDK.
+    private static final int SEED = 20051116;
+    private static final int ENTITY_ID = 19570320;
+    private static final int NUMBER_OF_STRINGS = 20;
+    private List<Value> values;
+
+    @Before
+    public void setup()
+    {
+        RandomValues rnd = randomRule.randomValues();
+        values = new ArrayList<>();
+        for ( int i = 0; i < NUMBER_OF_STRINGS; i++ )
+        {
+            values.add( rnd.nextAlphaNumericTextValue() );
+        }
+    }
+
+    @Override
+    protected String zipName()
+    {
+        return "current-string-key-format.zip";
+    }
+
+    @Override
+    protected String storeFileName()
+    {
+        return "string-key-store";
+    }
+
+    @Override
+    protected void createStoreFile( File storeFile ) throws IOException
+    {
+        withCursor( storeFile, true, c -> {
+            putFormatVersion( c );
+            putData( c );
+        } );
+    }
+
+    @Override
+    protected void verifyFormat( File storeFile ) throws FormatViolationException, IOException
+    {
+        AtomicReference<FormatViolationException> exception = new AtomicReference<>();
+        withCursor( storeFile, false, c ->
+        {
+            int major = c.getInt();
+            int minor = c.getInt();
+            StringLayout layout = getLayout();
+            if ( major != layout.majorVersion() || minor != layout.minorVersion() )
+            {
+                exception.set( new FormatViolationException( String.format( "Read format version %d.%d, but layout has version %d.%d",
+                        major, minor, layout.majorVersion(), layout.minorVersion() ) ) );
+            }
+        } );
+        if ( exception.get() != null )
+        {
+            throw exception.get();
+        }
+    }
+
+    @Override
+    protected void verifyContent( File storeFile ) throws IOException
+    {
+        withCursor( storeFile, false, c ->
+        {
+            readFormatVersion( c );
+            verifyData( c );
+        } );
+    }
+
+    private void putFormatVersion( PageCursor cursor )
+    {
+        StringLayout layout = getLayout();
+        cursor.putInt( layout.majorVersion() );
+        cursor.putInt( layout.minorVersion() );
+    }
+
+    private void readFormatVersion( PageCursor c )
+    {
+        c.getInt(); // Major version
+        c.getInt(); // Minor version
+    }
+
+    private void putData( PageCursor c )
+    {
+        StringLayout layout = getLayout();
+        StringIndexKey key = layout.newKey();
+        for ( Value value : values )
+        {
+            key.initialize( ENTITY_ID );
+            key.initFromValue( 0, value, NativeIndexKey.Inclusion.NEUTRAL );
+            c.putInt( key.size() );
+            layout.writeKey( c, key );
+        }
+    }
+
+    private void verifyData( PageCursor c )
+    {
+        StringLayout layout = getLayout();
+        StringIndexKey into = layout.newKey();
+        for ( Value value : values )
+        {
+            int keySize = c.getInt();
+            layout.readKey( c, into, keySize );
+            assertEquals( ENTITY_ID, into.getEntityId() );
+            assertEquals( value, into.asValue(), "expected read value to be " + value + ", but was " + into.asValue() );
+        }
+    }
+
+    /**
+     * @return whether or not the keys in the zipped store file are written by a layout that {@link StringLayout#compressKeyPrefixes() compresses key
+     * prefixes}. This one has the keys of indexes created before that, which are still opened with their original layout.
+     */
+    protected boolean compressKeyPrefixes()
+    {
+        return false;
+    }
+
+    private StringLayout getLayout()
+    {
+        return new StringLayout( compressKeyPrefixes() );
+    }
+
+    private void withCursor( File storeFile, boolean create, Consumer<PageCursor> cursorConsumer ) throws IOException
+    {
+        OpenOption[] openOptions = create ?
+                                   new OpenOption[]{StandardOpenOption.WRITE, StandardOpenOption.CREATE} :
+                                   new OpenOption[]{StandardOpenOption.WRITE};
+        try ( PageCache pageCache = pageCacheRule.getPageCache( globalFs.get() );
+              PagedFile pagedFile = pageCache.map( storeFile, pageCache.pageSize(), openOptions );
+              PageCursor cursor = pagedFile.io( 0, PagedFile.PF_SHARED_WRITE_LOCK ) )
+        {
+            cursor.next();
+            cursorConsumer.accept( cursor );
+        }
+    }
+}
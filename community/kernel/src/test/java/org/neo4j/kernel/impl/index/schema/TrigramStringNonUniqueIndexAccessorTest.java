@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiPredicate;
+
+import org.neo4j.collection.PrimitiveLongCollections;
+import org.neo4j.graphdb.ResourceIterator;
+import org.neo4j.internal.kernel.api.IndexOrder;
+import org.neo4j.internal.kernel.api.IndexQuery;
+import org.neo4j.kernel.api.index.IndexEntryUpdate;
+import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingConfig;
+import org.neo4j.storageengine.api.schema.IndexDescriptor;
+import org.neo4j.storageengine.api.schema.IndexReader;
+import org.neo4j.values.storable.Values;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector.immediate;
+import static org.neo4j.kernel.api.index.IndexEntryUpdate.change;
+import static org.neo4j.kernel.api.index.IndexEntryUpdate.remove;
+
+public class TrigramStringNonUniqueIndexAccessorTest extends StringIndexAccessorTest
+{
+    private static final char[] ALPHABET = {'a', 'b', 'c', 'd'};
+
+    @Override
+    protected LayoutTestUtil<StringIndexKey,NativeIndexValue> createLayoutTestUtil()
+    {
+        return new StringNonUniqueLayoutTestUtil();
+    }
+
+    @Override
+    TrigramStringIndexAccessor makeAccessorWithSamplingConfig( IndexSamplingConfig samplingConfig ) throws IOException
+    {
+        return new TrigramStringIndexAccessor( pageCache, fs, getIndexFile(), layout, immediate(), monitor, indexDescriptor, samplingConfig );
+    }
+
+    @Override
+    @Test
+    public void snapshotFilesShouldReturnIndexFile()
+    {
+        // when
+        ResourceIterator<File> files = accessor.snapshotFiles();
+
+        // then
+        assertTrue( files.hasNext() );
+        assertEquals( getIndexFile(), files.next() );
+        assertTrue( files.hasNext() );
+        assertEquals( new File( getIndexFile().getParentFile(), getIndexFile().getName() + TrigramIndex.FILE_SUFFIX ), files.next() );
+        assertFalse( files.hasNext() );
+    }
+
+    @Test
+    public void shouldAnswerContainsAndSuffixQueriesThroughTrigrams() throws Exception
+    {
+        // given
+        Map<Long,String> expected = new HashMap<>();
+        List<IndexEntryUpdate<IndexDescriptor>> updates = new ArrayList<>();
+        for ( long entityId = 0; entityId < 200; entityId++ )
+        {
+            String string = randomString();
+            expected.put( entityId, string );
+            updates.add( layoutUtil.add( entityId, Values.stringValue( string ) ) );
+        }
+        //noinspection unchecked
+        processAll( updates.toArray( new IndexEntryUpdate[0] ) );
+
+        // then
+        assertQueriesMatch( expected );
+    }
+
+    @Test
+    public void shouldAnswerContainsAndSuffixQueriesAfterChangesAndRemovals() throws Exception
+    {
+        // given
+        Map<Long,String> expected = new HashMap<>();
+        List<IndexEntryUpdate<IndexDescriptor>> updates = new ArrayList<>();
+        for ( long entityId = 0; entityId < 200; entityId++ )
+        {
+            String string = randomString();
+            expected.put( entityId, string );
+            updates.add( layoutUtil.add( entityId, Values.stringValue( string ) ) );
+        }
+        //noinspection unchecked
+        processAll( updates.toArray( new IndexEntryUpdate[0] ) );
+
+        // when
+        updates.clear();
+        for ( long entityId = 0; entityId < 200; entityId += 3 )
+        {
+            String before = expected.get( entityId );
+            if ( entityId % 2 == 0 )
+            {
+                updates.add( remove( entityId, indexDescriptor, Values.stringValue( before ) ) );
+                expected.remove( entityId );
+            }
+            else
+            {
+                String after = randomString();
+                updates.add( change( entityId, indexDescriptor, Values.stringValue( before ), Values.stringValue( after ) ) );
+                expected.put( entityId, after );
+            }
+        }
+        //noinspection unchecked
+        processAll( updates.toArray( new IndexEntryUpdate[0] ) );
+
+        // then
+        assertQueriesMatch( expected );
+    }
+
+    private void assertQueriesMatch( Map<Long,String> expected ) throws Exception
+    {
+        try ( IndexReader reader = accessor.newReader() )
+        {
+            for ( int i = 0; i < 50; i++ )
+            {
+                String search = randomString();
+                assertHits( reader, expected, IndexQuery.stringContains( 0, search ), search, String::contains );
+                assertHits( reader, expected, IndexQuery.stringSuffix( 0, search ), search, String::endsWith );
+            }
+        }
+    }
+
+    private void assertHits( IndexReader reader, Map<Long,String> expected, IndexQuery query, String search,
+            BiPredicate<String,String> matches ) throws Exception
+    {
+        long[] expectedIds = expected.entrySet().stream()
+                .filter( entry -> matches.test( entry.getValue(), search ) )
+                .mapToLong( Map.Entry::getKey )
+                .sorted()
+                .toArray();
+        NodeValueIterator client = new NodeValueIterator();
+        reader.query( client, IndexOrder.NONE, false, query );
+        long[] actualIds = PrimitiveLongCollections.asArray( client );
+        Arrays.sort( actualIds );
+        assertArrayEquals( query.toString(), expectedIds, actualIds );
+    }
+
+    private String randomString()
+    {
+        int length = random.nextInt( 8 );
+        char[] chars = new char[length];
+        for ( int i = 0; i < length; i++ )
+        {
+            chars[i] = ALPHABET[random.nextInt( ALPHABET.length )];
+        }
+        return new String( chars );
+    }
+}
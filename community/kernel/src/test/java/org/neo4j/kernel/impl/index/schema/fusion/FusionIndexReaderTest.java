@@ -26,7 +26,10 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.EnumMap;
+import java.util.List;
 import java.util.function.Function;
 
 import org.neo4j.collection.PrimitiveLongCollections;
@@ -39,12 +42,15 @@ import org.neo4j.internal.kernel.api.IndexQuery.StringPrefixPredicate;
 import org.neo4j.internal.kernel.api.IndexQuery.StringSuffixPredicate;
 import org.neo4j.internal.kernel.api.exceptions.schema.IndexNotApplicableKernelException;
 import org.neo4j.kernel.api.schema.index.TestIndexDescriptorFactory;
+import org.neo4j.storageengine.api.schema.IndexHistogram;
 import org.neo4j.storageengine.api.schema.IndexReader;
 import org.neo4j.values.storable.CoordinateReferenceSystem;
 import org.neo4j.values.storable.PointValue;
 import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.Values;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assume.assumeTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -375,6 +381,79 @@ public class FusionIndexReaderTest
         }
     }
 
+    /* partitionedQuery */
+
+    @Test
+    public void partitionedQueryMustSelectNumberForRangeNumericPredicate() throws Exception
+    {
+        // given
+        RangePredicate<?> numberRange = IndexQuery.range( PROP_KEY, 0, true, 1, false );
+        IndexReader expectedReader = expectedForNumbers();
+        List<IndexReader.Partition> partitions = Arrays.asList( mock( IndexReader.Partition.class ), mock( IndexReader.Partition.class ) );
+        when( expectedReader.partitionedQuery( 4, false, numberRange ) ).thenReturn( partitions );
+
+        // when
+        List<IndexReader.Partition> result = fusionIndexReader.partitionedQuery( 4, false, numberRange );
+
+        // then
+        assertEquals( partitions, result );
+        for ( IndexReader reader : aliveReaders )
+        {
+            if ( reader != expectedReader )
+            {
+                verifyNoMoreInteractions( reader );
+            }
+        }
+    }
+
+    @Test
+    public void partitionedQueryMustCombinePartitionsFromExistsPredicate() throws Exception
+    {
+        // given
+        IndexQuery.ExistsPredicate exists = IndexQuery.exists( PROP_KEY );
+        List<IndexReader.Partition> expected = new ArrayList<>();
+        for ( IndexReader aliveReader : aliveReaders )
+        {
+            List<IndexReader.Partition> partitions = Arrays.asList( mock( IndexReader.Partition.class ), mock( IndexReader.Partition.class ) );
+            when( aliveReader.partitionedQuery( 4, false, exists ) ).thenReturn( partitions );
+            expected.addAll( partitions );
+        }
+
+        // when
+        List<IndexReader.Partition> result = fusionIndexReader.partitionedQuery( 4, false, exists );
+
+        // then every alive part contributes its partitions, and every empty part a single empty one
+        assertTrue( result.containsAll( expected ) );
+        assertEquals( expected.size() + IndexSlot.values().length - aliveReaders.length, result.size() );
+    }
+
+    @Test
+    public void histogramMustCombineHistogramsOfParts()
+    {
+        // given the first alive part keeps no histogram and the others a bucket each
+        long expectedEntries = 0;
+        for ( int i = 1; i < aliveReaders.length; i++ )
+        {
+            when( aliveReaders[i].histogram() ).thenReturn(
+                    new IndexHistogram( new Value[]{Values.intValue( i )}, new Value[]{Values.intValue( i )}, new long[]{i} ) );
+            expectedEntries += i;
+        }
+
+        // when
+        IndexHistogram histogram = fusionIndexReader.histogram();
+
+        // then
+        if ( aliveReaders.length == 1 )
+        {
+            assertNull( histogram );
+        }
+        else
+        {
+            assertEquals( aliveReaders.length - 1, histogram.buckets() );
+            assertEquals( expectedEntries, histogram.entries() );
+        }
+    }
+
     @Test
     public void shouldInstantiatePartLazilyForSpecificValueGroupQuery() throws IndexNotApplicableKernelException
     {
@@ -34,6 +34,7 @@ import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import org.neo4j.graphdb.factory.GraphDatabaseSettings;
 import org.neo4j.helpers.Exceptions;
 import org.neo4j.internal.kernel.api.exceptions.KernelException;
 import org.neo4j.io.fs.FileSystemAbstraction;
@@ -42,6 +43,7 @@ import org.neo4j.io.pagecache.DelegatingPageCache;
 import org.neo4j.io.pagecache.IOLimiter;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.kernel.api.exceptions.Status;
+import org.neo4j.kernel.configuration.Config;
 import org.neo4j.kernel.impl.api.BatchTransactionApplier;
 import org.neo4j.kernel.impl.api.BatchTransactionApplierFacade;
 import org.neo4j.kernel.impl.api.CountsAccessor;
@@ -64,6 +66,7 @@ import org.neo4j.test.rule.fs.EphemeralFileSystemRule;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
@@ -74,6 +77,7 @@ import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.neo4j.kernel.configuration.Settings.TRUE;
 
 public class RecordStorageEngineTest
 {
@@ -191,13 +195,30 @@ public class RecordStorageEngineTest
         RecordStorageEngine engine = buildRecordStorageEngine();
         final Collection<StoreFileMetadata> files = engine.listStorageFiles();
         Set<File> currentFiles = files.stream().map( StoreFileMetadata::file ).collect( Collectors.toSet() );
-        // current engine files should contain everything except another count store file and label scan store
+        // current engine files should contain everything except another count store file, label scan store
+        // and the relationship type scan store, which is disabled by default
         DatabaseLayout databaseLayout = testDirectory.databaseLayout();
         Set<File> allPossibleFiles = databaseLayout.storeFiles();
         allPossibleFiles.remove( databaseLayout.countStoreB() );
         allPossibleFiles.remove( databaseLayout.labelScanStore() );
+        allPossibleFiles.remove( databaseLayout.relationshipTypeScanStore() );
 
         assertEquals( currentFiles, allPossibleFiles );
+        assertFalse( fsRule.get().fileExists( databaseLayout.relationshipTypeScanStore() ) );
+    }
+
+    @Test
+    public void shouldListRelationshipTypeScanStoreWhenEnabled()
+    {
+        RecordStorageEngine engine = storageEngineRule
+                .getWith( fsRule.get(), pageCacheRule.getPageCache( fsRule.get() ), testDirectory.databaseLayout() )
+                .config( Config.defaults( GraphDatabaseSettings.relationship_type_scan_store, TRUE ) )
+                .build();
+
+        Set<File> currentFiles = engine.listStorageFiles().stream().map( StoreFileMetadata::file ).collect( Collectors.toSet() );
+
+        assertTrue( currentFiles.contains( testDirectory.databaseLayout().relationshipTypeScanStore() ) );
+        assertTrue( fsRule.get().fileExists( testDirectory.databaseLayout().relationshipTypeScanStore() ) );
     }
 
     private RecordStorageEngine buildRecordStorageEngine()
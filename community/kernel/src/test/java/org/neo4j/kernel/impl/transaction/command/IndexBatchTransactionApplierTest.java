@@ -26,6 +26,8 @@ import java.util.function.Supplier;
 import org.neo4j.helpers.collection.Iterables;
 import org.neo4j.kernel.api.labelscan.LabelScanWriter;
 import org.neo4j.kernel.api.labelscan.NodeLabelUpdate;
+import org.neo4j.kernel.api.labelscan.RelationshipTypeScanWriter;
+import org.neo4j.kernel.api.labelscan.RelationshipTypeUpdate;
 import org.neo4j.kernel.impl.api.TransactionApplier;
 import org.neo4j.kernel.impl.api.TransactionToApply;
 import org.neo4j.kernel.impl.api.index.IndexingService;
@@ -36,7 +38,9 @@ import org.neo4j.kernel.impl.store.NodeStore;
 import org.neo4j.kernel.impl.store.PropertyStore;
 import org.neo4j.kernel.impl.store.RelationshipStore;
 import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
 import org.neo4j.kernel.impl.transaction.command.Command.NodeCommand;
+import org.neo4j.kernel.impl.transaction.command.Command.RelationshipCommand;
 import org.neo4j.storageengine.api.EntityType;
 import org.neo4j.util.concurrent.WorkSync;
 
@@ -47,6 +51,7 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.neo4j.kernel.api.labelscan.RelationshipTypeUpdate.NO_TYPE;
 import static org.neo4j.kernel.impl.store.record.Record.NO_NEXT_PROPERTY;
 import static org.neo4j.kernel.impl.store.record.Record.NO_NEXT_RELATIONSHIP;
 
@@ -79,11 +84,53 @@ public class IndexBatchTransactionApplierTest
         verify( labelScanSync ).applyAsync( any() );
     }
 
+    @Test
+    public void shouldProvideRelationshipTypeScanStoreUpdatesSortedByRelationshipId() throws Exception
+    {
+        // GIVEN
+        IndexingService indexing = mock( IndexingService.class );
+        when( indexing.convertToIndexUpdates( any(), any() ) ).thenAnswer( o -> Iterables.empty() );
+        OrderVerifyingRelationshipTypeScanWriter writer = new OrderVerifyingRelationshipTypeScanWriter(
+                RelationshipTypeUpdate.typeChange( 10, NO_TYPE, 3 ),
+                RelationshipTypeUpdate.typeChange( 15, 3, NO_TYPE ),
+                RelationshipTypeUpdate.typeChange( 20, NO_TYPE, 4 ) );
+        WorkSync<Supplier<LabelScanWriter>,LabelUpdateWork> labelScanSync =
+                new WorkSync<>( singletonProvider( new OrderVerifyingLabelScanWriter() ) );
+        WorkSync<Supplier<RelationshipTypeScanWriter>,RelationshipTypeUpdateWork> relationshipTypeScanSync =
+                spy( new WorkSync<>( () -> writer ) );
+        WorkSync<IndexingUpdateService,IndexUpdatesWork> indexUpdatesSync = new WorkSync<>( indexing );
+        TransactionToApply tx = mock( TransactionToApply.class );
+        PropertyStore propertyStore = mock( PropertyStore.class );
+        try ( IndexBatchTransactionApplier applier = new IndexBatchTransactionApplier( indexing, labelScanSync, relationshipTypeScanSync,
+                indexUpdatesSync, mock( NodeStore.class ), mock( RelationshipStore.class ), new PropertyPhysicalToLogicalConverter( propertyStore ) ) )
+        {
+            try ( TransactionApplier txApplier = applier.startTx( tx ) )
+            {
+                // WHEN
+                txApplier.visitRelationshipCommand( relationship( 20, false, true, 4 ) );
+                txApplier.visitRelationshipCommand( relationship( 15, true, false, 3 ) );
+                txApplier.visitRelationshipCommand( relationship( 12, true, true, 3 ) );
+                txApplier.visitRelationshipCommand( relationship( 10, false, true, 3 ) );
+            }
+        }
+        // THEN all assertions happen inside the RelationshipTypeScanWriter#write and #close
+        verify( relationshipTypeScanSync ).applyAsync( any() );
+    }
+
     private Supplier<LabelScanWriter> singletonProvider( final LabelScanWriter writer )
     {
         return () -> writer;
     }
 
+    private RelationshipCommand relationship( long relationshipId, boolean inUseBefore, boolean inUseAfter, int type )
+    {
+        RelationshipRecord before = new RelationshipRecord( relationshipId, 1, 2, type );
+        before.setInUse( inUseBefore );
+        RelationshipRecord after = new RelationshipRecord( relationshipId, 1, 2, type );
+        after.setInUse( inUseAfter );
+        return new RelationshipCommand( before, after );
+    }
+
     private NodeCommand node( long nodeId )
     {
         NodeRecord after = new NodeRecord( nodeId,
@@ -116,4 +163,28 @@ public class IndexBatchTransactionApplierTest
             assertEquals( cursor, expectedNodeIds.length );
         }
     }
+
+    private static class OrderVerifyingRelationshipTypeScanWriter implements RelationshipTypeScanWriter
+    {
+        private final RelationshipTypeUpdate[] expectedUpdates;
+        private int cursor;
+
+        OrderVerifyingRelationshipTypeScanWriter( RelationshipTypeUpdate... expectedUpdates )
+        {
+            this.expectedUpdates = expectedUpdates;
+        }
+
+        @Override
+        public void write( RelationshipTypeUpdate update )
+        {
+            assertEquals( expectedUpdates[cursor], update );
+            cursor++;
+        }
+
+        @Override
+        public void close()
+        {
+            assertEquals( cursor, expectedUpdates.length );
+        }
+    }
 }
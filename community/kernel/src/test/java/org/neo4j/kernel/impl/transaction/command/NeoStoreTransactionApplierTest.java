@@ -21,9 +21,15 @@ package org.neo4j.kernel.impl.transaction.command;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.InOrder;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Supplier;
 
 import org.neo4j.internal.kernel.api.NamedToken;
@@ -35,6 +41,7 @@ import org.neo4j.kernel.api.labelscan.LabelScanWriter;
 import org.neo4j.kernel.api.schema.constraints.ConstraintDescriptorFactory;
 import org.neo4j.kernel.impl.api.BatchTransactionApplier;
 import org.neo4j.kernel.impl.api.BatchTransactionApplierFacade;
+import org.neo4j.kernel.impl.api.TransactionApplier;
 import org.neo4j.kernel.impl.api.TransactionToApply;
 import org.neo4j.kernel.impl.api.index.IndexingService;
 import org.neo4j.kernel.impl.api.index.IndexingUpdateService;
@@ -65,6 +72,8 @@ import org.neo4j.kernel.impl.store.record.RelationshipTypeTokenRecord;
 import org.neo4j.kernel.impl.transaction.command.Command.LabelTokenCommand;
 import org.neo4j.kernel.impl.transaction.command.Command.PropertyKeyTokenCommand;
 import org.neo4j.kernel.impl.transaction.command.Command.RelationshipTypeTokenCommand;
+import org.neo4j.storageengine.api.CommandVersion;
+import org.neo4j.storageengine.api.CommandsToApply;
 import org.neo4j.storageengine.api.schema.IndexDescriptorFactory;
 import org.neo4j.storageengine.api.schema.StoreIndexDescriptor;
 import org.neo4j.util.concurrent.WorkSync;
@@ -77,6 +86,7 @@ import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -888,6 +898,110 @@ public class NeoStoreTransactionApplierTest
         verify( metaDataStore, times( 1 ) ).setGraphNextProp( after.getNextProp() );
     }
 
+    // PARALLEL APPLY
+
+    @Test
+    public void shouldApplyRecordsOfEachStoreInCommandOrderInParallelMode() throws Exception
+    {
+        // given
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try
+        {
+            final BatchTransactionApplier applier =
+                    new NeoStoreBatchTransactionApplier( CommandVersion.AFTER, neoStores, cacheAccess, lockService, executor );
+            final List<NodeRecord> nodes = new ArrayList<>();
+            final List<PropertyRecord> properties = new ArrayList<>();
+            final List<RelationshipRecord> relationships = new ArrayList<>();
+            for ( int i = 0; i < ParallelRecordUpdates.MIN_RECORDS_FOR_PARALLEL_APPLY; i++ )
+            {
+                NodeRecord node = new NodeRecord( i );
+                node.setInUse( true );
+                nodes.add( node );
+                PropertyRecord property = new PropertyRecord( i );
+                property.setNodeId( i );
+                properties.add( property );
+                relationships.add( new RelationshipRecord( i ) );
+            }
+
+            // when
+            boolean result = apply( applier, txApplier ->
+            {
+                boolean visitResult = false;
+                for ( int i = 0; i < nodes.size(); i++ )
+                {
+                    visitResult |= new Command.NodeCommand( new NodeRecord( i ), nodes.get( i ) ).handle( txApplier );
+                    visitResult |= new Command.PropertyCommand( new PropertyRecord( i ), properties.get( i ) ).handle( txApplier );
+                    visitResult |= new Command.RelationshipCommand( new RelationshipRecord( i ), relationships.get( i ) ).handle( txApplier );
+                }
+                // records are written when the transaction applier is closed
+                verify( nodeStore, never() ).updateRecord( any() );
+                return visitResult;
+            }, transactionToApply );
+
+            // then
+            assertFalse( result );
+            InOrder nodeOrder = inOrder( nodeStore );
+            InOrder propertyOrder = inOrder( propertyStore );
+            InOrder relationshipOrder = inOrder( relationshipStore );
+            for ( int i = 0; i < nodes.size(); i++ )
+            {
+                nodeOrder.verify( nodeStore ).updateRecord( nodes.get( i ) );
+                propertyOrder.verify( propertyStore ).updateRecord( properties.get( i ) );
+                relationshipOrder.verify( relationshipStore ).updateRecord( relationships.get( i ) );
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldWriteRecordsBeforeOtherAppliersAreClosedInParallelMode() throws Exception
+    {
+        // given
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try
+        {
+            final NeoStoreBatchTransactionApplier neoStoreApplier =
+                    new NeoStoreBatchTransactionApplier( CommandVersion.AFTER, neoStores, cacheAccess, lockService, executor );
+            final NodeRecord node = new NodeRecord( 11 );
+            node.setInUse( true );
+            final AtomicBoolean closed = new AtomicBoolean();
+            // like the index applier, which reads records from the stores when closed
+            BatchTransactionApplier readingApplier = new BatchTransactionApplier.Adapter()
+            {
+                @Override
+                public TransactionApplier startTx( CommandsToApply transaction )
+                {
+                    return new TransactionApplier.Adapter()
+                    {
+                        @Override
+                        public void close()
+                        {
+                            verify( nodeStore ).updateRecord( node );
+                            closed.set( true );
+                        }
+                    };
+                }
+            };
+            // the same order as in RecordStorageEngine, appliers are closed in reverse order
+            BatchTransactionApplier applier = newApplierFacade( neoStoreApplier, readingApplier, neoStoreApplier.parallelRecordUpdatesWriter() );
+
+            // when
+            boolean result = apply( applier, new Command.NodeCommand( new NodeRecord( 11 ), node )::handle, transactionToApply );
+
+            // then
+            assertFalse( result );
+            assertTrue( closed.get() );
+            verify( nodeStore, times( 1 ) ).updateRecord( node );
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
     private BatchTransactionApplier newApplier( boolean recovery )
     {
         BatchTransactionApplier applier = new NeoStoreBatchTransactionApplier( neoStores, cacheAccess, lockService );
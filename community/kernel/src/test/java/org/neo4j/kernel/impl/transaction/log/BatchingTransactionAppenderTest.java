@@ -28,15 +28,19 @@ import java.io.Flushable;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 import org.neo4j.kernel.impl.api.TransactionToApply;
 import org.neo4j.kernel.impl.store.record.NodeRecord;
 import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
 import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
 import org.neo4j.kernel.impl.transaction.command.Command.NodeCommand;
+import org.neo4j.kernel.impl.transaction.command.Commands;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntry;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryCommit;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryReader;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryStart;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryVersion;
 import org.neo4j.kernel.impl.transaction.log.entry.VersionAwareLogEntryReader;
 import org.neo4j.kernel.impl.transaction.log.files.LogFile;
 import org.neo4j.kernel.impl.transaction.log.files.LogFiles;
@@ -48,12 +52,15 @@ import org.neo4j.kernel.lifecycle.LifeRule;
 import org.neo4j.storageengine.api.StorageCommand;
 import org.neo4j.test.rule.CleanupRule;
 
+import static java.util.Arrays.asList;
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.anyByte;
 import static org.mockito.ArgumentMatchers.anyInt;
@@ -69,6 +76,8 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryVersion.COMPRESSED;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryVersion.CURRENT;
 import static org.neo4j.kernel.impl.transaction.log.rotation.LogRotation.NO_ROTATION;
 import static org.neo4j.kernel.impl.util.IdOrderingQueue.BYPASS;
 
@@ -197,6 +206,46 @@ public class BatchingTransactionAppenderTest
         }
     }
 
+    @Test
+    public void shouldAppendTransactionsWithCompressedCommands() throws Exception
+    {
+        // GIVEN
+        when( logFile.getWriter() ).thenReturn( channel );
+        when( transactionIdStore.nextCommittingTransactionId() ).thenReturn( 2L, 3L );
+        TransactionAppender appender = life.add( new BatchingTransactionAppender( logFiles, NO_ROTATION, positionCache,
+                transactionIdStore, BYPASS, databaseHealth, true ) );
+        List<StorageCommand> commands = asList( Commands.createNode( 0, 1, 2, 3, 4, 5, 6, 7, 8, 9 ),
+                new NodeCommand( new NodeRecord( 1 ), new NodeRecord( 1 ) ), Commands.createNode( 2, 11, 12, 13, 14, 15, 16, 17, 18, 19 ) );
+        TransactionToApply batch = batchOf(
+                transaction( commands, new byte[0], 0, 0, 0, 1, 0 ),
+                transaction( singleCreateNodeCommand( 3 ), new byte[0], 0, 0, 0, 1, 0 ) );
+
+        // WHEN
+        appender.append( batch, logAppendEvent );
+
+        // THEN
+        LogEntryReader<ReadableLogChannel> logEntryReader = new VersionAwareLogEntryReader<>();
+        List<LogEntryVersion> versions = new ArrayList<>();
+        LogEntry entry;
+        while ( (entry = logEntryReader.readLogEntry( channel )) != null )
+        {
+            versions.add( entry.getVersion() );
+        }
+        assertEquals( asList( CURRENT, COMPRESSED, CURRENT, COMPRESSED, CURRENT, CURRENT, CURRENT, CURRENT ), versions );
+
+        channel.positionReader( 0 );
+        try ( PhysicalTransactionCursor<ReadableLogChannel> reader = new PhysicalTransactionCursor<>( channel, logEntryReader ) )
+        {
+            assertTrue( reader.next() );
+            assertEquals( 2L, reader.get().getCommitEntry().getTxId() );
+            assertEquals( commands, commandsOf( reader.get().getTransactionRepresentation() ) );
+            assertTrue( reader.next() );
+            assertEquals( 3L, reader.get().getCommitEntry().getTxId() );
+            assertFalse( reader.next() );
+        }
+        assertEquals( 3L, batch.next().transactionId() );
+    }
+
     @Test
     public void shouldNotAppendCommittedTransactionsWhenTooFarAhead()
     {
@@ -406,6 +455,17 @@ public class BatchingTransactionAppenderTest
         return commands;
     }
 
+    private static List<StorageCommand> commandsOf( TransactionRepresentation transaction ) throws IOException
+    {
+        List<StorageCommand> commands = new ArrayList<>();
+        transaction.accept( command ->
+        {
+            commands.add( command );
+            return false;
+        } );
+        return commands;
+    }
+
     private TransactionToApply batchOf( TransactionRepresentation... transactions )
     {
         TransactionToApply first = null;
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.neo4j.kernel.impl.api.TransactionToApply;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.transaction.SimpleTransactionIdStore;
+import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.command.Command.NodeCommand;
+import org.neo4j.kernel.impl.transaction.log.files.LogFile;
+import org.neo4j.kernel.impl.transaction.log.files.LogFiles;
+import org.neo4j.kernel.impl.transaction.log.files.TransactionLogFiles;
+import org.neo4j.kernel.impl.transaction.tracing.LogAppendEvent;
+import org.neo4j.kernel.internal.DatabaseHealth;
+import org.neo4j.kernel.lifecycle.LifeRule;
+import org.neo4j.storageengine.api.StorageCommand;
+import org.neo4j.test.Race;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.neo4j.kernel.impl.transaction.log.TransactionIdStore.BASE_TX_ID;
+import static org.neo4j.kernel.impl.transaction.log.rotation.LogRotation.NO_ROTATION;
+import static org.neo4j.kernel.impl.util.IdOrderingQueue.BYPASS;
+import static org.neo4j.test.Race.throwing;
+
+public class CombiningTransactionAppenderTest
+{
+    private static final int THREADS = 10;
+    private static final int TRANSACTIONS_PER_THREAD = 100;
+
+    @Rule
+    public final LifeRule life = new LifeRule( true );
+
+    private final InMemoryClosableChannel channel = new InMemoryClosableChannel( 1 << 20 );
+    private final DatabaseHealth databaseHealth = mock( DatabaseHealth.class );
+    private final LogFile logFile = mock( LogFile.class );
+    private final LogFiles logFiles = mock( TransactionLogFiles.class );
+    private final TransactionIdStore transactionIdStore = new SimpleTransactionIdStore();
+    private final TransactionMetadataCache positionCache = new TransactionMetadataCache( THREADS * TRANSACTIONS_PER_THREAD );
+
+    @Before
+    public void setUp()
+    {
+        when( logFiles.getLogFile() ).thenReturn( logFile );
+        when( logFile.getWriter() ).thenReturn( channel );
+    }
+
+    @Test
+    public void shouldAppendBatchOfTransactions() throws Exception
+    {
+        // GIVEN
+        TransactionAppender appender = life.add( createTransactionAppender() );
+        TransactionToApply batch = new TransactionToApply( transaction( 0 ) );
+        batch.next( new TransactionToApply( transaction( 1 ) ) );
+
+        // WHEN
+        long lastTransactionId = appender.append( batch, LogAppendEvent.NULL );
+
+        // THEN
+        assertEquals( BASE_TX_ID + 1, batch.transactionId() );
+        assertEquals( BASE_TX_ID + 2, batch.next().transactionId() );
+        assertNull( batch.next().next() );
+        assertEquals( BASE_TX_ID + 2, lastTransactionId );
+        assertEquals( BASE_TX_ID + 2, transactionIdStore.getLastCommittedTransactionId() );
+    }
+
+    @Test
+    public void shouldAppendConcurrentlyCommittedTransactionsToTheLogInOrderOfTheirIds() throws Throwable
+    {
+        // GIVEN
+        TransactionAppender appender = life.add( createTransactionAppender() );
+        Set<Long> transactionIds = ConcurrentHashMap.newKeySet();
+        // contestants end after their number of runs, not after their first
+        Race race = new Race().withEndCondition( () -> false );
+        race.addContestants( THREADS, throwing( () ->
+        {
+            TransactionToApply tx = new TransactionToApply( transaction( 0 ) );
+            long transactionId = appender.append( tx, LogAppendEvent.NULL );
+            assertEquals( tx.transactionId(), transactionId );
+            transactionIds.add( transactionId );
+        } ), TRANSACTIONS_PER_THREAD );
+
+        // WHEN
+        race.go();
+
+        // THEN
+        int transactions = THREADS * TRANSACTIONS_PER_THREAD;
+        assertEquals( transactions, transactionIds.size() );
+        assertEquals( BASE_TX_ID + transactions, transactionIdStore.getLastCommittedTransactionId() );
+        LogPosition previousPosition = null;
+        for ( long txId = BASE_TX_ID + 1; txId <= BASE_TX_ID + transactions; txId++ )
+        {
+            assertTrue( transactionIds.contains( txId ) );
+            LogPosition position = positionCache.getTransactionMetadata( txId ).getStartPosition();
+            assertTrue( previousPosition == null || position.compareTo( previousPosition ) > 0 );
+            previousPosition = position;
+        }
+    }
+
+    @Test
+    public void shouldFailAppendingWhenDatabaseIsUnhealthy() throws Exception
+    {
+        // GIVEN
+        IOException failure = new IOException( "Unhealthy" );
+        doThrow( failure ).when( databaseHealth ).assertHealthy( IOException.class );
+        TransactionAppender appender = life.add( createTransactionAppender() );
+
+        // WHEN
+        try
+        {
+            appender.append( new TransactionToApply( transaction( 0 ) ), LogAppendEvent.NULL );
+            fail( "Should have failed" );
+        }
+        catch ( IOException e )
+        {
+            // THEN
+            assertSame( failure, e );
+            assertEquals( BASE_TX_ID, transactionIdStore.getLastCommittedTransactionId() );
+        }
+    }
+
+    private CombiningTransactionAppender createTransactionAppender()
+    {
+        return new CombiningTransactionAppender( logFiles, NO_ROTATION, positionCache, transactionIdStore, BYPASS, databaseHealth, false );
+    }
+
+    private static TransactionRepresentation transaction( long nodeId )
+    {
+        Collection<StorageCommand> commands = new ArrayList<>();
+        NodeRecord before = new NodeRecord( nodeId );
+        NodeRecord after = new NodeRecord( nodeId );
+        after.setInUse( true );
+        commands.add( new NodeCommand( before, after ) );
+        PhysicalTransactionRepresentation tx = new PhysicalTransactionRepresentation( commands );
+        tx.setHeader( new byte[0], 0, 0, 0, 0, 0, -1 );
+        return tx;
+    }
+}
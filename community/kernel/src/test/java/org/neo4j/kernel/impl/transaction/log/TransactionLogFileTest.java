@@ -28,22 +28,36 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.neo4j.graphdb.factory.GraphDatabaseSettings;
+import org.neo4j.graphdb.mockfs.DelegatingFileSystemAbstraction;
+import org.neo4j.graphdb.mockfs.DelegatingStoreChannel;
+import org.neo4j.io.ByteUnit;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.fs.OpenMode;
 import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.kernel.configuration.Config;
 import org.neo4j.kernel.impl.transaction.SimpleLogVersionRepository;
+import org.neo4j.kernel.impl.scheduler.JobSchedulerFactory;
 import org.neo4j.kernel.impl.transaction.SimpleTransactionIdStore;
 import org.neo4j.kernel.impl.transaction.log.entry.IncompleteLogHeaderException;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryWriter;
 import org.neo4j.kernel.impl.transaction.log.entry.LogHeader;
 import org.neo4j.kernel.impl.transaction.log.files.LogFile;
 import org.neo4j.kernel.impl.transaction.log.files.LogFiles;
 import org.neo4j.kernel.impl.transaction.log.files.LogFilesBuilder;
+import org.neo4j.kernel.impl.transaction.log.files.TransactionLogFiles;
 import org.neo4j.kernel.lifecycle.LifeRule;
+import org.neo4j.logging.AssertableLogProvider;
 import org.neo4j.test.rule.TestDirectory;
 import org.neo4j.test.rule.fs.DefaultFileSystemRule;
 
+import static java.lang.System.currentTimeMillis;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
@@ -54,12 +68,14 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.neo4j.kernel.impl.transaction.log.TransactionIdStore.BASE_TX_COMMIT_TIMESTAMP;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogHeaderReader.readLogHeader;
+import static org.neo4j.logging.AssertableLogProvider.inLog;
 
 public class TransactionLogFileTest
 {
     private final TestDirectory directory = TestDirectory.testDirectory();
     private final DefaultFileSystemRule fileSystemRule = new DefaultFileSystemRule();
     private final LifeRule life = new LifeRule( true );
+    private final AssertableLogProvider logProvider = new AssertableLogProvider();
 
     @Rule
     public RuleChain ruleChain = RuleChain.outerRule( directory ).around( fileSystemRule ).around( life );
@@ -282,6 +298,124 @@ public class TransactionLogFileTest
         }
     }
 
+    @Test
+    public void shouldRotateIntoLogFilePreallocatedInTheBackground() throws Throwable
+    {
+        // GIVEN
+        FileSystemAbstraction fs = fileSystemRule.get();
+        LogFiles logFiles = preallocatingLogFiles( fs );
+        life.add( logFiles );
+        assertFalse( logFiles.extractHeader( 1 ).preallocated );
+
+        // WHEN
+        awaitPreallocatedLogFile( fs, logFiles );
+        logFiles.getLogFile().rotate();
+
+        // THEN
+        LogHeader header = logFiles.extractHeader( 2 );
+        assertTrue( header.preallocated );
+        assertEquals( 2L, header.logVersion );
+        assertEquals( ByteUnit.mebiBytes( 1 ), fs.getFileSize( logFiles.getLogFileForVersion( 2 ) ) );
+        assertFalse( logFiles.hasAnyEntries( 2 ) );
+        assertEquals( ByteUnit.mebiBytes( 1 ), fs.getFileSize( awaitPreallocatedLogFile( fs, logFiles ) ) );
+    }
+
+    @Test
+    public void shouldContinueAfterLastEntryOfPreallocatedLogFile() throws Throwable
+    {
+        // GIVEN a preallocated log file with a single entry in it
+        FileSystemAbstraction fs = fileSystemRule.get();
+        LogFiles logFiles = preallocatingLogFiles( fs );
+        logFiles.init();
+        logFiles.start();
+        awaitPreallocatedLogFile( fs, logFiles );
+        logFiles.getLogFile().rotate();
+        FlushablePositionAwareChannel writer = logFiles.getLogFile().getWriter();
+        new LogEntryWriter( writer ).writeCheckPointEntry( new LogPosition( 2, LogHeader.LOG_HEADER_SIZE ) );
+        writer.prepareForFlush().flush();
+        LogPositionMarker endOfLog = new LogPositionMarker();
+        writer.getCurrentPosition( endOfLog );
+        logFiles.shutdown();
+
+        // WHEN
+        LogFiles restartedLogFiles = preallocatingLogFiles( fs );
+        life.add( restartedLogFiles );
+
+        // THEN
+        LogPositionMarker position = new LogPositionMarker();
+        restartedLogFiles.getLogFile().getWriter().getCurrentPosition( position );
+        assertEquals( endOfLog.newPosition(), position.newPosition() );
+        assertTrue( restartedLogFiles.hasAnyEntries( 2 ) );
+        assertEquals( ByteUnit.mebiBytes( 1 ), fs.getFileSize( restartedLogFiles.getLogFileForVersion( 2 ) ) );
+    }
+
+    @Test
+    public void shouldLogAndDeletePartiallyPreallocatedLogFileWhenPreallocationFails() throws Throwable
+    {
+        // GIVEN a file system that fails to force log files being preallocated
+        FileSystemAbstraction fs = new DelegatingFileSystemAbstraction( fileSystemRule.get() )
+        {
+            @Override
+            public StoreChannel open( File fileName, OpenMode openMode ) throws IOException
+            {
+                StoreChannel channel = super.open( fileName, openMode );
+                if ( !fileName.getName().endsWith( "_preallocating" ) )
+                {
+                    return channel;
+                }
+                return new DelegatingStoreChannel( channel )
+                {
+                    @Override
+                    public void force( boolean metaData ) throws IOException
+                    {
+                        throw new IOException( "No space left on device" );
+                    }
+                };
+            }
+        };
+        AssertableLogProvider.LogMatcher failure = inLog( TransactionLogFiles.class )
+                .warn( containsString( "Failed to preallocate transaction log file" ), instanceOf( IOException.class ) );
+
+        // WHEN
+        LogFiles logFiles = preallocatingLogFiles( fs );
+        life.add( logFiles );
+
+        // THEN
+        long timeout = currentTimeMillis() + MINUTES.toMillis( 1 );
+        while ( !logProvider.containsMatchingLogCall( failure ) )
+        {
+            assertTrue( "Log file preallocation didn't fail in time", currentTimeMillis() < timeout );
+            Thread.sleep( 10 );
+        }
+        life.shutdown();
+        File logsDirectory = logFiles.logFilesDirectory();
+        assertFalse( fs.fileExists( new File( logsDirectory, TransactionLogFiles.DEFAULT_NAME + "_preallocating" ) ) );
+        assertFalse( fs.fileExists( new File( logsDirectory, TransactionLogFiles.DEFAULT_NAME + "_preallocated" ) ) );
+    }
+
+    private LogFiles preallocatingLogFiles( FileSystemAbstraction fs ) throws IOException
+    {
+        return LogFilesBuilder.builder( directory.databaseLayout(), fs )
+                .withTransactionIdStore( transactionIdStore )
+                .withLogVersionRepository( logVersionRepository )
+                .withRotationThreshold( ByteUnit.mebiBytes( 1 ) )
+                .withJobScheduler( life.add( JobSchedulerFactory.createScheduler() ) )
+                .withLogProvider( logProvider )
+                .withConfig( Config.defaults( GraphDatabaseSettings.tx_log_preallocation, "true" ) ).build();
+    }
+
+    private static File awaitPreallocatedLogFile( FileSystemAbstraction fs, LogFiles logFiles ) throws InterruptedException
+    {
+        File preallocated = new File( logFiles.logFilesDirectory(), TransactionLogFiles.DEFAULT_NAME + "_preallocated" );
+        long timeout = currentTimeMillis() + MINUTES.toMillis( 1 );
+        while ( !fs.fileExists( preallocated ) )
+        {
+            assertTrue( "Log file wasn't preallocated in time", currentTimeMillis() < timeout );
+            Thread.sleep( 10 );
+        }
+        return preallocated;
+    }
+
     private static byte[] readBytes( ReadableClosableChannel reader, int length ) throws IOException
     {
         byte[] result = new byte[length];
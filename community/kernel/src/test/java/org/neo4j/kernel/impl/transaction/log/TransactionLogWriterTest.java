@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.command.Command.NodeCommand;
+import org.neo4j.kernel.impl.transaction.command.Commands;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryWriter;
+import org.neo4j.kernel.impl.transaction.log.entry.VersionAwareLogEntryReader;
+import org.neo4j.storageengine.api.StorageCommand;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TransactionLogWriterTest
+{
+    @Test
+    public void shouldAppendTransactionsWithCompressedCommands() throws IOException
+    {
+        // given
+        InMemoryClosableChannel channel = new InMemoryClosableChannel();
+        TransactionLogWriter writer = new TransactionLogWriter( new LogEntryWriter( channel, true ) );
+        List<StorageCommand> commands = asList( Commands.createNode( 0, 1, 2, 3, 4, 5, 6, 7, 8, 9 ),
+                smallNodeCommand( 1 ), Commands.createNode( 2, 11, 12, 13, 14, 15, 16, 17, 18, 19 ) );
+        List<StorageCommand> smallCommands = asList( smallNodeCommand( 3 ), smallNodeCommand( 4 ) );
+
+        // when
+        writer.append( transaction( commands, new byte[]{1, 2, 3}, 10 ), 5 );
+        writer.append( transaction( smallCommands, new byte[0], 11 ), 6 );
+
+        // then
+        try ( PhysicalTransactionCursor<ReadableClosablePositionAwareChannel> cursor =
+                new PhysicalTransactionCursor<>( channel, new VersionAwareLogEntryReader<>() ) )
+        {
+            assertTrue( cursor.next() );
+            CommittedTransactionRepresentation first = cursor.get();
+            assertEquals( 5, first.getCommitEntry().getTxId() );
+            assertArrayEquals( new byte[]{1, 2, 3}, first.getTransactionRepresentation().additionalHeader() );
+            assertEquals( 10, first.getTransactionRepresentation().getTimeCommitted() );
+            assertEquals( commands, commandsOf( first.getTransactionRepresentation() ) );
+
+            assertTrue( cursor.next() );
+            CommittedTransactionRepresentation second = cursor.get();
+            assertEquals( 6, second.getCommitEntry().getTxId() );
+            assertEquals( smallCommands, commandsOf( second.getTransactionRepresentation() ) );
+            assertFalse( cursor.next() );
+        }
+    }
+
+    @Test
+    public void shouldWriteSameBytesAsNonCompressingWriterForCommandsNotWorthCompressing() throws IOException
+    {
+        // given
+        TransactionRepresentation transaction = transaction( asList( smallNodeCommand( 1 ), smallNodeCommand( 2 ) ), new byte[0], 10 );
+
+        // when
+        byte[] compressed = append( transaction, true );
+        byte[] uncompressed = append( transaction, false );
+
+        // then
+        assertArrayEquals( uncompressed, compressed );
+    }
+
+    @Test
+    public void shouldWriteFewerBytesThanNonCompressingWriterForCommandsWorthCompressing() throws IOException
+    {
+        // given
+        TransactionRepresentation transaction = transaction( asList(
+                Commands.createNode( 0, 1, 2, 3, 4, 5, 6, 7, 8, 9 ), Commands.createNode( 2, 11, 12, 13, 14, 15, 16, 17, 18, 19 ) ),
+                new byte[0], 10 );
+
+        // when
+        byte[] compressed = append( transaction, true );
+        byte[] uncompressed = append( transaction, false );
+
+        // then
+        assertTrue( "Expected compressed transaction of " + compressed.length + " bytes to be smaller than " + uncompressed.length,
+                compressed.length < uncompressed.length );
+    }
+
+    private static byte[] append( TransactionRepresentation transaction, boolean compressCommands ) throws IOException
+    {
+        InMemoryClosableChannel channel = new InMemoryClosableChannel();
+        new TransactionLogWriter( new LogEntryWriter( channel, compressCommands ) ).append( transaction, 1 );
+        byte[] bytes = new byte[channel.writerPosition()];
+        channel.get( bytes, bytes.length );
+        return bytes;
+    }
+
+    private static TransactionRepresentation transaction( List<StorageCommand> commands, byte[] additionalHeader, long timeCommitted )
+    {
+        PhysicalTransactionRepresentation transaction = new PhysicalTransactionRepresentation( commands );
+        transaction.setHeader( additionalHeader, 0, 0, 1, 0, timeCommitted, -1 );
+        return transaction;
+    }
+
+    private static StorageCommand smallNodeCommand( long id )
+    {
+        NodeRecord after = new NodeRecord( id );
+        after.setInUse( true );
+        return new NodeCommand( new NodeRecord( id ), after );
+    }
+
+    private static List<StorageCommand> commandsOf( TransactionRepresentation transaction ) throws IOException
+    {
+        List<StorageCommand> commands = new ArrayList<>();
+        transaction.accept( command ->
+        {
+            commands.add( command );
+            return false;
+        } );
+        return commands;
+    }
+}
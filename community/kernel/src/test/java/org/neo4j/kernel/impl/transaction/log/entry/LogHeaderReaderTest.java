@@ -74,6 +74,27 @@ public class LogHeaderReaderTest
         assertEquals( new LogHeader( CURRENT_LOG_VERSION, expectedLogVersion, expectedTxId ), result );
     }
 
+    @Test
+    public void shouldReadPreallocatedFlagSeparatelyFromLogFormatVersion() throws IOException
+    {
+        // given
+        final ByteBuffer buffer = ByteBuffer.allocate( LOG_HEADER_SIZE );
+        final ReadableByteChannel channel = mock( ReadableByteChannel.class );
+
+        when( channel.read( buffer ) ).thenAnswer( invocation ->
+        {
+            buffer.putLong( encodeLogVersion( expectedLogVersion, true ) );
+            buffer.putLong( expectedTxId );
+            return 8 + 8;
+        } );
+
+        // when
+        final LogHeader result = readLogHeader( buffer, channel, true, null );
+
+        // then
+        assertEquals( new LogHeader( CURRENT_LOG_VERSION, expectedLogVersion, expectedTxId, true ), result );
+    }
+
     @Test
     public void shouldFailWhenUnableToReadALogHeaderFromAChannel() throws IOException
     {
@@ -26,6 +26,7 @@ import java.io.IOException;
 import org.neo4j.kernel.impl.storageengine.impl.recordstorage.RecordStorageCommandReaderFactory;
 import org.neo4j.kernel.impl.store.record.NodeRecord;
 import org.neo4j.kernel.impl.transaction.command.Command;
+import org.neo4j.kernel.impl.transaction.command.Commands;
 import org.neo4j.kernel.impl.transaction.command.NeoCommandType;
 import org.neo4j.kernel.impl.transaction.log.InMemoryClosableChannel;
 import org.neo4j.kernel.impl.transaction.log.LogPosition;
@@ -104,6 +105,39 @@ public class VersionAwareLogEntryReaderTest
         assertEquals( command, logEntry );
     }
 
+    @Test
+    public void shouldReadACompressedCommandLogEntry() throws IOException
+    {
+        // given
+        Command.NodeCommand nodeCommand = Commands.createNode( 11, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10 );
+        final InMemoryClosableChannel channel = new InMemoryClosableChannel();
+        new LogEntryWriter( channel, true ).serialize( singletonList( nodeCommand ) );
+
+        // when
+        final LogEntry logEntry = logEntryReader.readLogEntry( channel );
+
+        // then
+        assertEquals( new LogEntryCommand( nodeCommand ), logEntry );
+        assertEquals( LogEntryVersion.COMPRESSED, logEntry.getVersion() );
+        assertNull( logEntryReader.readLogEntry( channel ) );
+    }
+
+    @Test
+    public void shouldReadSmallCommandWrittenUncompressedByCompressingWriter() throws IOException
+    {
+        // given
+        Command.NodeCommand nodeCommand = new Command.NodeCommand( new NodeRecord( 11 ), new NodeRecord( 11 ) );
+        final InMemoryClosableChannel channel = new InMemoryClosableChannel();
+        new LogEntryWriter( channel, true ).serialize( singletonList( nodeCommand ) );
+
+        // when
+        final LogEntry logEntry = logEntryReader.readLogEntry( channel );
+
+        // then
+        assertEquals( new LogEntryCommand( nodeCommand ), logEntry );
+        assertEquals( LogEntryVersion.CURRENT, logEntry.getVersion() );
+    }
+
     @Test
     public void shouldReadACheckPointLogEntry() throws IOException
     {
@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.util.collection;
+
+import org.eclipse.collections.api.map.primitive.MutableLongObjectMap;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.io.File;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.neo4j.memory.LocalMemoryTracker;
+import org.neo4j.memory.MemoryAllocationTracker;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.TestDirectoryExtension;
+import org.neo4j.test.rule.TestDirectory;
+import org.neo4j.values.storable.Value;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.values.storable.Values.stringValue;
+
+@ExtendWith( TestDirectoryExtension.class )
+class SpillingMemoryAllocatorTest
+{
+    private static final long BUDGET = 4096;
+    private static final long CHUNK_SIZE = 4096;
+
+    @Inject
+    private TestDirectory testDirectory;
+
+    private final CachingOffHeapBlockAllocator blockAllocator = new CachingOffHeapBlockAllocator();
+    private final MemoryAllocationTracker memoryTracker = new LocalMemoryTracker();
+    private final AtomicLong spilled = new AtomicLong();
+
+    @AfterEach
+    void afterEach()
+    {
+        blockAllocator.release();
+    }
+
+    @Test
+    void spillAllocationsBeyondBudget()
+    {
+        // given
+        SpillingMemoryAllocator allocator = newAllocator();
+        Memory offHeap = allocator.allocate( BUDGET );
+        long offHeapUsed = memoryTracker.usedDirectMemory();
+
+        // when
+        Memory spilledMemory = allocator.allocate( 1024 );
+        spilledMemory.clear();
+        spilledMemory.writeLong( 1016, 42 );
+
+        // then
+        assertEquals( offHeapUsed, memoryTracker.usedDirectMemory() );
+        assertEquals( 1024, spilled.get() );
+        assertEquals( 1024, spilledMemory.size() );
+        assertEquals( 42, spilledMemory.readLong( 1016 ) );
+        assertEquals( 42, spilledMemory.copy().readLong( 1016 ) );
+        assertEquals( CHUNK_SIZE, allocator.spillFileSize() );
+
+        offHeap.free();
+        spilledMemory.free();
+        allocator.release();
+        assertEquals( 0, memoryTracker.usedDirectMemory() );
+        assertEquals( 0, allocator.spillFileSize() );
+        assertEquals( 0, spillFiles().length );
+    }
+
+    @Test
+    void reuseFreedSpilledRegions()
+    {
+        // given a full chunk of spilled regions
+        SpillingMemoryAllocator allocator = newAllocator();
+        Memory offHeap = allocator.allocate( BUDGET );
+        Memory[] regions = new Memory[4];
+        for ( int i = 0; i < regions.length; i++ )
+        {
+            regions[i] = allocator.allocate( CHUNK_SIZE / regions.length );
+        }
+        regions[1].free();
+
+        // when
+        regions[1] = allocator.allocate( CHUNK_SIZE / regions.length );
+
+        // then
+        assertEquals( CHUNK_SIZE, allocator.spillFileSize() );
+
+        offHeap.free();
+        for ( Memory region : regions )
+        {
+            region.free();
+        }
+        allocator.release();
+    }
+
+    @Test
+    void carveSpilledRegionsOutOfMappedChunks()
+    {
+        // given
+        SpillingMemoryAllocator allocator = newAllocator();
+        Memory offHeap = allocator.allocate( BUDGET );
+        Memory[] regions = new Memory[4];
+
+        // when
+        for ( int i = 0; i < regions.length; i++ )
+        {
+            regions[i] = allocator.allocate( CHUNK_SIZE / regions.length );
+            regions[i].clear();
+            regions[i].writeLong( 0, i );
+        }
+
+        // then
+        assertEquals( CHUNK_SIZE, allocator.spillFileSize() );
+        for ( int i = 0; i < regions.length; i++ )
+        {
+            assertEquals( i, regions[i].readLong( 0 ) );
+        }
+
+        // when
+        Memory nextChunk = allocator.allocate( 8 );
+        Memory largerThanChunk = allocator.allocate( CHUNK_SIZE * 2 );
+        largerThanChunk.writeLong( CHUNK_SIZE * 2 - Long.BYTES, 42 );
+
+        // then
+        assertEquals( CHUNK_SIZE * 4, allocator.spillFileSize() );
+        assertEquals( 42, largerThanChunk.readLong( CHUNK_SIZE * 2 - Long.BYTES ) );
+        assertEquals( 0, regions[0].readLong( 0 ) );
+
+        offHeap.free();
+        allocator.release();
+        assertEquals( 0, allocator.spillFileSize() );
+    }
+
+    @Test
+    void keepCollectionsCorrectAcrossSpills()
+    {
+        // given
+        OffHeapCollectionsFactory collections = new OffHeapCollectionsFactory( blockAllocator, BUDGET, testDirectory.directory(), spilled::addAndGet );
+        MutableLongObjectMap<Value> values = collections.newValuesMap();
+
+        // when
+        for ( int i = 0; i < 10_000; i++ )
+        {
+            values.put( i, stringValue( "value-" + i ) );
+        }
+
+        // then
+        assertTrue( spilled.get() > 0 );
+        assertTrue( collections.getMemoryTracker().usedDirectMemory() <= BUDGET );
+        for ( int i = 0; i < 10_000; i++ )
+        {
+            assertEquals( stringValue( "value-" + i ), values.get( i ) );
+        }
+
+        collections.release();
+        assertEquals( 0, collections.getMemoryTracker().usedDirectMemory() );
+        assertArrayEquals( new File[0], spillFiles() );
+    }
+
+    private SpillingMemoryAllocator newAllocator()
+    {
+        return new SpillingMemoryAllocator( new OffHeapMemoryAllocator( memoryTracker, blockAllocator ), memoryTracker, BUDGET,
+                testDirectory.directory(), spilled::addAndGet, CHUNK_SIZE );
+    }
+
+    private File[] spillFiles()
+    {
+        return testDirectory.directory().listFiles( ( dir, name ) -> name.endsWith( ".spill" ) );
+    }
+}
@@ -27,11 +27,14 @@ import org.junit.Test;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
 import org.neo4j.helpers.ArrayUtil;
 import org.neo4j.io.fs.FileUtils;
+import org.neo4j.io.fs.OpenMode;
+import org.neo4j.io.fs.StoreChannel;
 import org.neo4j.kernel.impl.transaction.SimpleLogVersionRepository;
 import org.neo4j.kernel.impl.transaction.SimpleTransactionIdStore;
 import org.neo4j.kernel.impl.transaction.log.FlushablePositionAwareChannel;
@@ -48,11 +51,14 @@ import org.neo4j.test.rule.fs.FileSystemRule;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogHeaderReader.readLogHeader;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogHeaderWriter.writeLogHeader;
 
 public class CorruptedLogsTruncatorTest
 {
     private static final int SINGLE_LOG_FILE_SIZE = 25;
     private static final int TOTAL_NUMBER_OF_LOG_FILES = 12;
+    private static final int ZERO_FILLED_TAIL_SIZE = 100;
     @Rule
     public final TestDirectory testDirectory = TestDirectory.testDirectory();
     @Rule
@@ -176,6 +182,62 @@ public class CorruptedLogsTruncatorTest
         }
     }
 
+    @Test
+    public void doNotPruneZeroFilledTailOfPreallocatedLog() throws IOException
+    {
+        life.start();
+        generateTransactionLogFiles( logFiles );
+        life.shutdown();
+
+        long highestLogVersion = logFiles.getHighestLogVersion();
+        File highestLogFile = logFiles.getHighestLogFile();
+        long endOfLog = highestLogFile.length();
+        zeroFillTail( highestLogFile, true );
+        long fileSizeBeforePrune = highestLogFile.length();
+
+        logPruner.truncate( new LogPosition( highestLogVersion, endOfLog ) );
+
+        assertEquals( TOTAL_NUMBER_OF_LOG_FILES, logFiles.logFiles().length );
+        assertEquals( fileSizeBeforePrune, highestLogFile.length() );
+        assertTrue( ArrayUtil.isEmpty( databaseDirectory.listFiles( File::isDirectory ) ) );
+    }
+
+    @Test
+    public void pruneAndArchiveZeroFilledTailOfLogWhichWasNotPreallocated() throws IOException
+    {
+        life.start();
+        generateTransactionLogFiles( logFiles );
+        life.shutdown();
+
+        long highestLogVersion = logFiles.getHighestLogVersion();
+        File highestLogFile = logFiles.getHighestLogFile();
+        long endOfLog = highestLogFile.length();
+        zeroFillTail( highestLogFile, false );
+
+        logPruner.truncate( new LogPosition( highestLogVersion, endOfLog ) );
+
+        assertEquals( TOTAL_NUMBER_OF_LOG_FILES, logFiles.logFiles().length );
+        assertEquals( endOfLog, highestLogFile.length() );
+        File corruptedLogsDirectory = new File( databaseDirectory, CorruptedLogsTruncator.CORRUPTED_TX_LOGS_BASE_NAME );
+        File[] files = corruptedLogsDirectory.listFiles();
+        assertEquals( 1, files.length );
+        try ( ZipFile zipFile = new ZipFile( files[0] ) )
+        {
+            checkEntryNameAndSize( zipFile, highestLogFile.getName(), ZERO_FILLED_TAIL_SIZE );
+        }
+    }
+
+    private void zeroFillTail( File logFile, boolean preallocated ) throws IOException
+    {
+        try ( StoreChannel channel = fileSystemRule.open( logFile, OpenMode.READ_WRITE ) )
+        {
+            LogHeader header = readLogHeader( ByteBuffer.allocate( LogHeader.LOG_HEADER_SIZE ), channel, true, logFile );
+            channel.position( 0 );
+            writeLogHeader( channel, header.logVersion, header.lastCommittedTxId, preallocated );
+            channel.writeAll( ByteBuffer.allocate( ZERO_FILLED_TAIL_SIZE ), channel.size() );
+        }
+    }
+
     private void checkEntryNameAndSize( ZipFile zipFile, String entryName, int expectedSize ) throws IOException
     {
         ZipEntry entry = zipFile.getEntry( entryName );
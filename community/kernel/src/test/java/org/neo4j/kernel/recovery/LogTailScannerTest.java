@@ -29,13 +29,19 @@ import org.junit.runners.Parameterized;
 import java.io.File;
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
 
+import org.neo4j.io.fs.OpenMode;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
 import org.neo4j.kernel.impl.transaction.SimpleLogVersionRepository;
+import org.neo4j.kernel.impl.transaction.command.Command.NodeCommand;
+import org.neo4j.kernel.impl.transaction.command.Commands;
 import org.neo4j.kernel.impl.transaction.log.FlushablePositionAwareChannel;
 import org.neo4j.kernel.impl.transaction.log.LogPosition;
 import org.neo4j.kernel.impl.transaction.log.LogPositionMarker;
@@ -46,6 +52,7 @@ import org.neo4j.kernel.impl.transaction.log.entry.LogEntryReader;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryStart;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryVersion;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryWriter;
+import org.neo4j.kernel.impl.transaction.log.entry.LogHeader;
 import org.neo4j.kernel.impl.transaction.log.entry.VersionAwareLogEntryReader;
 import org.neo4j.kernel.impl.transaction.log.files.LogFile;
 import org.neo4j.kernel.impl.transaction.log.files.LogFiles;
@@ -53,11 +60,17 @@ import org.neo4j.kernel.impl.transaction.log.files.LogFilesBuilder;
 import org.neo4j.kernel.lifecycle.LifeSupport;
 import org.neo4j.kernel.monitoring.Monitors;
 import org.neo4j.kernel.recovery.LogTailScanner.LogTailInformation;
+import org.neo4j.storageengine.api.StorageCommand;
 import org.neo4j.test.rule.PageCacheRule;
 import org.neo4j.test.rule.TestDirectory;
 import org.neo4j.test.rule.fs.EphemeralFileSystemRule;
 
+import static java.util.Collections.singletonList;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogHeader.LOG_HEADER_SIZE;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogHeaderReader.readLogHeader;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogHeaderWriter.writeLogHeader;
 import static org.neo4j.kernel.recovery.LogTailScanner.NO_TRANSACTION_ID;
 
 @RunWith( Parameterized.class )
@@ -304,6 +317,34 @@ public class LogTailScannerTest
         assertLatestCheckPoint( true, true, firstTxId, startLogVersion, logTailInformation );
     }
 
+    @Test
+    public void zeroFilledTailOfPreallocatedLogFileIsNotCorruption() throws IOException
+    {
+        // given
+        setupLogFiles( logFile( checkPoint() ), logFile( start(), commit( 2 ), checkPoint() ) );
+        zeroFillTail( logFiles.getHighestLogFile(), true );
+
+        // when
+        LogTailInformation logTailInformation = tailScanner.getTailInformation();
+
+        // then
+        assertLatestCheckPoint( true, false, NO_TRANSACTION_ID, endLogVersion, logTailInformation );
+    }
+
+    @Test
+    public void zeroFilledTailOfLogFileWhichWasNotPreallocatedIsCorruption() throws IOException
+    {
+        // given
+        setupLogFiles( logFile( checkPoint() ), logFile( start(), commit( 2 ), checkPoint() ) );
+        zeroFillTail( logFiles.getHighestLogFile(), false );
+
+        // when
+        LogTailInformation logTailInformation = tailScanner.getTailInformation();
+
+        // then
+        assertLatestCheckPoint( true, true, NO_TRANSACTION_ID, endLogVersion, logTailInformation );
+    }
+
     @Test
     public void latestLogFileContainingACheckPointAndAStartAfter()
     {
@@ -446,6 +487,56 @@ public class LogTailScannerTest
         assertLatestCheckPoint( true, true, txId, startLogVersion, logTailInformation );
     }
 
+    @Test
+    public void checkPointAfterTransactionsWithCompressedAndUncompressedCommands()
+    {
+        // given
+        setupLogFiles( logFile( start(), command(), commit( 3 ) ),
+                logFile( start(), compressedCommand(), command(), commit( 4 ), start(), command(), compressedCommand(), commit( 5 ),
+                        checkPoint() ) );
+
+        // when
+        LogTailInformation logTailInformation = tailScanner.getTailInformation();
+
+        // then
+        assertLatestCheckPoint( true, false, NO_TRANSACTION_ID, endLogVersion, logTailInformation );
+        assertEquals( LogEntryVersion.CURRENT, logTailInformation.latestLogEntryVersion );
+    }
+
+    @Test
+    public void checkPointTargetingTransactionsWithCompressedAndUncompressedCommands()
+    {
+        // given
+        long txId = 7;
+        PositionEntry position = position();
+        setupLogFiles(
+                logFile( start(), command(), commit( txId - 1 ), position, start(), compressedCommand(), command(), commit( txId ) ),
+                logFile( start(), compressedCommand(), commit( txId + 1 ), checkPoint( position ) ) );
+
+        // when
+        LogTailInformation logTailInformation = tailScanner.getTailInformation();
+
+        // then
+        assertLatestCheckPoint( true, true, txId, endLogVersion, logTailInformation );
+    }
+
+    @Test
+    public void latestLogFileEndingWithCompressedCommandOfTransactionWithoutCommit()
+    {
+        // given
+        long txId = 12;
+        setupLogFiles( logFile( checkPoint() ),
+                logFile( start(), compressedCommand(), command(), commit( txId ), start(), compressedCommand() ) );
+
+        // when
+        LogTailInformation logTailInformation = tailScanner.getTailInformation();
+
+        // then
+        assertLatestCheckPoint( true, true, txId, startLogVersion, logTailInformation );
+        assertEquals( LogEntryVersion.COMPRESSED, logTailInformation.latestLogEntryVersion );
+        assertFalse( LogEntryVersion.moreRecentVersionExists( logTailInformation.latestLogEntryVersion ) );
+    }
+
     // === Below is code for helping the tests above ===
 
     private void setupLogFiles( LogCreator... logFiles )
@@ -458,6 +549,17 @@ public class LogTailScannerTest
         }
     }
 
+    private void zeroFillTail( File logFile, boolean preallocated ) throws IOException
+    {
+        try ( StoreChannel channel = fsRule.open( logFile, OpenMode.READ_WRITE ) )
+        {
+            LogHeader header = readLogHeader( ByteBuffer.allocate( LOG_HEADER_SIZE ), channel, true, logFile );
+            channel.position( 0 );
+            writeLogHeader( channel, header.logVersion, header.lastCommittedTxId, preallocated );
+            channel.writeAll( ByteBuffer.allocate( 1_000 ), channel.size() );
+        }
+    }
+
     private LogCreator logFile( Entry... entries )
     {
         return ( logVersion, positions ) ->
@@ -475,6 +577,7 @@ public class LogTailScannerTest
                     FlushablePositionAwareChannel writeChannel = logFile.getWriter();
                     LogPositionMarker positionMarker = new LogPositionMarker();
                     LogEntryWriter writer = new LogEntryWriter( writeChannel );
+                    LogEntryWriter compressingWriter = new LogEntryWriter( writeChannel, true );
                     for ( Entry entry : entries )
                     {
                         LogPosition currentPosition = writeChannel.getCurrentPosition( positionMarker ).newPosition();
@@ -489,6 +592,12 @@ public class LogTailScannerTest
                             writer.writeCommitEntry( commitEntry.txId, 0 );
                             lastTxId.set( commitEntry.txId );
                         }
+                        else if ( entry instanceof CommandEntry )
+                        {
+                            CommandEntry commandEntry = (CommandEntry) entry;
+                            // a compressing writer writes commands which don't compress well as it is, i.e. as regular command entries
+                            compressingWriter.serialize( singletonList( commandEntry.command ) );
+                        }
                         else if ( entry instanceof CheckPointEntry )
                         {
                             CheckPointEntry checkPointEntry = (CheckPointEntry) entry;
@@ -541,6 +650,17 @@ public class LogTailScannerTest
         return new CommitEntry( txId );
     }
 
+    private static CommandEntry command()
+    {
+        // too small to compress
+        return new CommandEntry( new NodeCommand( new NodeRecord( 1 ), new NodeRecord( 1 ) ) );
+    }
+
+    private static CommandEntry compressedCommand()
+    {
+        return new CommandEntry( Commands.createNode( 2, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19 ) );
+    }
+
     private static CheckPointEntry checkPoint()
     {
         return checkPoint( null/*means self-position*/ );
@@ -570,6 +690,16 @@ public class LogTailScannerTest
         }
     }
 
+    private static class CommandEntry implements Entry
+    {
+        final StorageCommand command;
+
+        CommandEntry( StorageCommand command )
+        {
+            this.command = command;
+        }
+    }
+
     private static class CheckPointEntry implements Entry
     {
         final Entry withPositionOfEntry;
@@ -98,14 +98,13 @@ public class RecordStorageEngineRule extends ExternalResource
     private RecordStorageEngine get( FileSystemAbstraction fs, PageCache pageCache,
                                      IndexProvider indexProvider, DatabaseHealth databaseHealth, DatabaseLayout databaseLayout,
                                      Function<BatchTransactionApplierFacade, BatchTransactionApplierFacade> transactionApplierTransformer,
-                                     Monitors monitors )
+                                     Monitors monitors, Config config )
     {
         IdGeneratorFactory idGeneratorFactory = new EphemeralIdGenerator.Factory();
         ExplicitIndexProvider explicitIndexProviderLookup = mock( ExplicitIndexProvider.class );
         when( explicitIndexProviderLookup.allIndexProviders() ).thenReturn( Iterables.empty() );
         IndexConfigStore indexConfigStore = new IndexConfigStore( databaseLayout, fs );
         JobScheduler scheduler = life.add( createScheduler() );
-        Config config = Config.defaults();
 
         Dependencies dependencies = new Dependencies();
         dependencies.satisfyDependency( indexProvider );
@@ -144,6 +143,7 @@ public class RecordStorageEngineRule extends ExternalResource
                 applierFacade -> applierFacade;
         private IndexProvider indexProvider = IndexProvider.EMPTY;
         private Monitors monitors = new Monitors();
+        private Config config = Config.defaults();
 
         public Builder( FileSystemAbstraction fs, PageCache pageCache, DatabaseLayout databaseLayout )
         {
@@ -177,10 +177,16 @@ public class RecordStorageEngineRule extends ExternalResource
             return this;
         }
 
+        public Builder config( Config config )
+        {
+            this.config = config;
+            return this;
+        }
+
         public RecordStorageEngine build()
         {
             return get( fs, pageCache, indexProvider, databaseHealth, databaseLayout,
-                    transactionApplierTransformer, monitors );
+                    transactionApplierTransformer, monitors, config );
         }
     }
 
@@ -38,6 +38,7 @@ import org.neo4j.graphdb.spatial.Geometry;
 import org.neo4j.graphdb.spatial.Point;
 import org.neo4j.internal.kernel.api.exceptions.KernelException;
 import org.neo4j.internal.kernel.api.security.SecurityContext;
+import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
 import org.neo4j.kernel.api.KernelTransaction;
 import org.neo4j.kernel.api.security.provider.SecurityProvider;
 import org.neo4j.kernel.availability.StartupWaiter;
@@ -162,6 +163,11 @@ public class GraphDatabaseFacadeFactory
     {
         PlatformModule platform = createPlatform( storeDir, config, dependencies );
         EditionModule edition = editionFactory.apply( platform );
+        if ( platform.pageCache instanceof MuninnPageCache )
+        {
+            // The background flusher of the page cache writes no faster than checkpoints are allowed to.
+            ((MuninnPageCache) platform.pageCache).setBackgroundFlushLimiter( edition.getIoLimiter() );
+        }
 
         Procedures procedures = setupProcedures( platform, edition, graphDatabaseFacade );
         platform.dependencies.satisfyDependency( new NonTransactionalDbmsOperations( procedures ) );
@@ -59,6 +59,7 @@ import org.neo4j.kernel.impl.util.collection.CapacityLimitingBlockAllocatorDecor
 import org.neo4j.kernel.impl.util.collection.CollectionsFactorySupplier;
 import org.neo4j.kernel.impl.util.collection.OffHeapBlockAllocator;
 import org.neo4j.kernel.impl.util.collection.OffHeapCollectionsFactory;
+import org.neo4j.kernel.impl.util.collection.SpillingMemoryAllocator;
 import org.neo4j.kernel.info.JvmChecker;
 import org.neo4j.kernel.info.JvmMetadataRepository;
 import org.neo4j.kernel.info.SystemDiagnostics;
@@ -193,7 +194,7 @@ public class PlatformModule
 
         versionContextSupplier = createCursorContextSupplier( config );
 
-        collectionsFactorySupplier = createCollectionsFactorySupplier( config, life );
+        collectionsFactorySupplier = createCollectionsFactorySupplier( config, life, monitors );
 
         dependencies.satisfyDependency( versionContextSupplier );
         pageCache = dependencies.satisfyDependency( createPageCache( fileSystem, config, logging, tracers, versionContextSupplier, jobScheduler ) );
@@ -331,7 +332,7 @@ public class PlatformModule
         return pageCache;
     }
 
-    private static CollectionsFactorySupplier createCollectionsFactorySupplier( Config config, LifeSupport life )
+    private static CollectionsFactorySupplier createCollectionsFactorySupplier( Config config, LifeSupport life, Monitors monitors )
     {
         final GraphDatabaseSettings.TransactionStateMemoryAllocation allocation = config.get( GraphDatabaseSettings.tx_state_memory_allocation );
         switch ( allocation )
@@ -350,6 +351,13 @@ public class PlatformModule
                 sharedBlockAllocator = new CachingOffHeapBlockAllocator();
             }
             life.add( onShutdown( sharedBlockAllocator::release ) );
+            final long spillThreshold = config.get( GraphDatabaseSettings.tx_state_spill_threshold );
+            if ( spillThreshold > 0 )
+            {
+                final File spillDirectory = new File( System.getProperty( "java.io.tmpdir" ) );
+                final SpillingMemoryAllocator.Monitor spillMonitor = monitors.newMonitor( SpillingMemoryAllocator.Monitor.class );
+                return () -> new OffHeapCollectionsFactory( sharedBlockAllocator, spillThreshold, spillDirectory, spillMonitor );
+            }
             return () -> new OffHeapCollectionsFactory( sharedBlockAllocator );
         default:
             throw new IllegalArgumentException( "Unknown transaction state memory allocation value: " + allocation );
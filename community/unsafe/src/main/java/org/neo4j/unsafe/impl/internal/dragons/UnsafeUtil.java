@@ -25,6 +25,7 @@ import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
@@ -306,6 +307,15 @@ public final class UnsafeUtil
         return unsafe.compareAndSwapLong( obj, offset, expected, update );
     }
 
+    /**
+     * Same as compareAndSwapLong, but for int fields.
+     */
+    public static boolean compareAndSwapInt(
+            Object obj, long offset, int expected, int update )
+    {
+        return unsafe.compareAndSwapInt( obj, offset, expected, update );
+    }
+
     /**
      * Same as compareAndSwapLong, but for object references.
      */
@@ -1007,6 +1017,40 @@ public final class UnsafeUtil
         return unsafe.getLong( dbb, directByteBufferAddressOffset );
     }
 
+    /**
+     * Free the native memory of, or unmap the file region mapped by, the given direct byte buffer right away, rather than
+     * whenever the buffer is garbage collected.
+     * <p>
+     * <strong>NOTE:</strong> accessing the buffer, or any duplicate or slice of it, after this is undefined behaviour.
+     *
+     * @param dbb The direct byte buffer to clean. Must not be a duplicate or slice of another buffer.
+     */
+    public static void invokeCleaner( ByteBuffer dbb )
+    {
+        try
+        {
+            try
+            {
+                // Java 9 and later
+                Unsafe.class.getMethod( "invokeCleaner", ByteBuffer.class ).invoke( unsafe, dbb );
+            }
+            catch ( NoSuchMethodException e )
+            {
+                Method cleanerMethod = dbb.getClass().getMethod( "cleaner" );
+                cleanerMethod.setAccessible( true );
+                Object cleaner = cleanerMethod.invoke( dbb );
+                if ( cleaner != null )
+                {
+                    cleaner.getClass().getMethod( "clean" ).invoke( cleaner );
+                }
+            }
+        }
+        catch ( ReflectiveOperationException e )
+        {
+            throw new LinkageError( "Cannot clean direct byte buffer", e );
+        }
+    }
+
     /**
      * Change if native access checking is enabled by setting it to the given new setting, and returning the old
      * setting.
@@ -21,6 +21,8 @@ package org.neo4j.unsafe.impl.internal.dragons;
 
 import org.junit.jupiter.api.Test;
 
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
 import java.nio.ByteBuffer;
 import java.util.Objects;
 import java.util.concurrent.ThreadLocalRandom;
@@ -578,6 +580,17 @@ class UnsafeUtilTest
         }
     }
 
+    @Test
+    void invokeCleanerOfDirectByteBuffer()
+    {
+        ByteBuffer buf = ByteBuffer.allocateDirect( 8 );
+        long usedBefore = directMemoryUsed();
+
+        UnsafeUtil.invokeCleaner( buf );
+
+        assertEquals( usedBefore - 8, directMemoryUsed() );
+    }
+
     @Test
     void shouldAlignMemoryTo4ByteBoundary()
     {
@@ -650,4 +663,12 @@ class UnsafeUtilTest
         free( p, sizeInBytes, tracker );
         assertEquals( value, readValue );
     }
+
+    private static long directMemoryUsed()
+    {
+        return ManagementFactory.getPlatformMXBeans( BufferPoolMXBean.class ).stream()
+                .filter( pool -> pool.getName().equals( "direct" ) )
+                .mapToLong( BufferPoolMXBean::getMemoryUsed )
+                .sum();
+    }
 }
@@ -36,9 +36,11 @@ import org.neo4j.kernel.availability.DatabaseAvailabilityGuard;
 import org.neo4j.kernel.availability.DescriptiveAvailabilityRequirement;
 import org.neo4j.kernel.impl.api.TransactionCommitProcess;
 import org.neo4j.kernel.impl.api.TransactionRepresentationCommitProcess;
+import org.neo4j.kernel.impl.pagecache.PageCacheWarmer;
 import org.neo4j.kernel.impl.transaction.log.TransactionAppender;
 import org.neo4j.kernel.impl.transaction.log.files.LogFiles;
 import org.neo4j.kernel.impl.transaction.state.DataSourceManager;
+import org.neo4j.kernel.impl.util.UnsatisfiedDependencyException;
 import org.neo4j.kernel.internal.DatabaseHealth;
 import org.neo4j.kernel.lifecycle.Lifecycle;
 import org.neo4j.logging.Log;
@@ -50,6 +52,8 @@ public class LocalDatabase implements Lifecycle
     private static final AvailabilityRequirement NOT_STOPPED = new DescriptiveAvailabilityRequirement( "Database is stopped" );
     private static final AvailabilityRequirement NOT_COPYING_STORE =
             new DescriptiveAvailabilityRequirement( "Database is stopped to copy store from another cluster member" );
+    private static final AvailabilityRequirement NOT_WARMING_UP =
+            new DescriptiveAvailabilityRequirement( "Database is warming up the page cache after a store copy" );
 
     private final DatabaseLayout databaseLayout;
 
@@ -62,6 +66,7 @@ public class LocalDatabase implements Lifecycle
     private volatile StoreId storeId;
     private volatile DatabaseHealth databaseHealth;
     private volatile AvailabilityRequirement currentRequirement;
+    private volatile boolean storeReplaced;
 
     private volatile TransactionCommitProcess localCommit;
     private final LogFiles logFiles;
@@ -102,9 +107,44 @@ public class LocalDatabase implements Lifecycle
 
         dataSourceManager.start();
 
+        if ( storeReplaced )
+        {
+            storeReplaced = false;
+            warmUpPageCache();
+        }
+
         dropAvailabilityGuard();
     }
 
+    /**
+     * A store copy brings the page cache profiles of the upstream along, so we use them to warm up the page cache
+     * before the database is made available. Otherwise a new cluster member would serve its first queries cold.
+     */
+    private void warmUpPageCache()
+    {
+        PageCacheWarmer pageCacheWarmer;
+        try
+        {
+            pageCacheWarmer = dataSource().getDependencyResolver().resolveDependency( PageCacheWarmer.class );
+        }
+        catch ( UnsatisfiedDependencyException e )
+        {
+            return; // Page cache warmup is disabled.
+        }
+
+        raiseAvailabilityGuard( NOT_WARMING_UP );
+        try
+        {
+            pageCacheWarmer.warmUp().ifPresent(
+                    pagesLoaded -> log.info( "Warmed up the page cache with " + pagesLoaded + " pages after store copy" ) );
+        }
+        catch ( IOException e )
+        {
+            log.warn( "Page cache warmup after store copy failed, " +
+                      "so it may take longer for the cache to be populated with hot data.", e );
+        }
+    }
+
     @Override
     public void stop() throws Throwable
     {
@@ -197,6 +237,7 @@ public class LocalDatabase implements Lifecycle
     {
         storeFiles.delete( databaseLayout.databaseDirectory(), logFiles );
         storeFiles.moveTo( sourceDir, databaseLayout.databaseDirectory(), logFiles );
+        storeReplaced = true;
     }
 
     public NeoStoreDataSource dataSource()
@@ -25,11 +25,16 @@ package org.neo4j.causalclustering.catchup.storecopy;
 import org.junit.Test;
 import org.mockito.InOrder;
 
+import java.io.File;
 import java.time.Clock;
+import java.util.OptionalLong;
 
+import org.neo4j.graphdb.DependencyResolver;
 import org.neo4j.io.layout.DatabaseLayout;
+import org.neo4j.kernel.NeoStoreDataSource;
 import org.neo4j.kernel.availability.AvailabilityGuard;
 import org.neo4j.kernel.availability.DatabaseAvailabilityGuard;
+import org.neo4j.kernel.impl.pagecache.PageCacheWarmer;
 import org.neo4j.kernel.impl.transaction.log.files.LogFiles;
 import org.neo4j.kernel.impl.transaction.state.DataSourceManager;
 import org.neo4j.kernel.internal.DatabaseHealth;
@@ -48,6 +53,7 @@ import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import static org.neo4j.dbms.database.DatabaseManager.DEFAULT_DATABASE_NAME;
 
 public class LocalDatabaseTest
@@ -155,6 +161,40 @@ public class LocalDatabaseTest
         verify( dataSourceManager, never() ).start();
     }
 
+    @Test
+    public void pageCacheWarmedUpBeforeAvailabilityGuardIsDroppedAfterStoreCopy() throws Throwable
+    {
+        DatabaseAvailabilityGuard guard = newAvailabilityGuard();
+        PageCacheWarmer pageCacheWarmer = mock( PageCacheWarmer.class );
+        when( pageCacheWarmer.warmUp() ).thenAnswer( invocation ->
+        {
+            assertFalse( guard.isAvailable() );
+            assertThat( guard.describeWhoIsBlocking(), containsString( "warming up the page cache" ) );
+            return OptionalLong.of( 42 );
+        } );
+        LocalDatabase localDatabase = newLocalDatabase( guard, dataSourceManagerWith( pageCacheWarmer ) );
+
+        localDatabase.start();
+        verify( pageCacheWarmer, never() ).warmUp();
+
+        localDatabase.stopForStoreCopy();
+        localDatabase.replaceWith( new File( "copy" ) );
+        localDatabase.start();
+        verify( pageCacheWarmer ).warmUp();
+        assertTrue( guard.isAvailable() );
+    }
+
+    private static DataSourceManager dataSourceManagerWith( PageCacheWarmer pageCacheWarmer )
+    {
+        DependencyResolver dependencyResolver = mock( DependencyResolver.class );
+        when( dependencyResolver.resolveDependency( PageCacheWarmer.class ) ).thenReturn( pageCacheWarmer );
+        NeoStoreDataSource dataSource = mock( NeoStoreDataSource.class );
+        when( dataSource.getDependencyResolver() ).thenReturn( dependencyResolver );
+        DataSourceManager dataSourceManager = mock( DataSourceManager.class );
+        when( dataSourceManager.getDataSource() ).thenReturn( dataSource );
+        return dataSourceManager;
+    }
+
     private static LocalDatabase newLocalDatabase( AvailabilityGuard databaseAvailabilityGuard )
     {
         return newLocalDatabase( databaseAvailabilityGuard, mock( DataSourceManager.class ) );
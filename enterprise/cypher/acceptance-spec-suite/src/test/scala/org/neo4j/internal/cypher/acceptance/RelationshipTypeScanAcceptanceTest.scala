@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.internal.cypher.acceptance
+
+import org.neo4j.cypher.ExecutionEngineFunSuite
+import org.neo4j.graphdb.config.Setting
+import org.neo4j.graphdb.factory.GraphDatabaseSettings
+import org.neo4j.internal.cypher.acceptance.CypherComparisonSupport.{ComparePlansWithAssertion, Configs}
+
+class RelationshipTypeScanAcceptanceTest extends ExecutionEngineFunSuite with CypherComparisonSupport {
+
+  override def databaseConfig(): collection.Map[Setting[_], String] = super.databaseConfig() ++ Map(
+    GraphDatabaseSettings.relationship_type_scan_store -> "true"
+  )
+
+  // Only the 3.5 cost planner plans relationship type scans, the interpreted runtime executes them and slotted
+  // executes them with the interpreted pipes writing to its slots
+  private val plannedWithScans = Configs.DefaultInterpreted + Configs.SlottedInterpreted
+
+  test("should find directed relationships of a type by scanning the relationship type index") {
+    // given
+    val a = createNode()
+    val b = createNode()
+    val c = createNode()
+    val ab = relate(a, b, "T")
+    val bc = relate(b, c, "T")
+    relate(a, c, "OTHER")
+
+    // when
+    val result = executeWith(Configs.Interpreted, "MATCH ()-[r:T]->() RETURN id(startNode(r)) AS x, id(r) AS r, id(endNode(r)) AS y",
+      planComparisonStrategy = ComparePlansWithAssertion(plan => {
+        plan should includeSomewhere.aPlan("DirectedRelationshipTypeScan")
+        plan should not(includeSomewhere.aPlan("AllNodesScan"))
+      }, expectPlansToFail = Configs.Interpreted - plannedWithScans))
+
+    // then
+    result.toSet should equal(Set(
+      Map("x" -> a.getId, "r" -> ab.getId, "y" -> b.getId),
+      Map("x" -> b.getId, "r" -> bc.getId, "y" -> c.getId)))
+  }
+
+  test("should find undirected relationships of a type in both directions by scanning the relationship type index") {
+    // given
+    val a = createNode()
+    val b = createNode()
+    val c = createNode()
+    val ab = relate(a, b, "T")
+    relate(b, c, "OTHER")
+
+    // when
+    val result = executeWith(Configs.Interpreted, "MATCH ()-[r:T]-() RETURN id(r) AS r",
+      planComparisonStrategy = ComparePlansWithAssertion(plan => {
+        plan should includeSomewhere.aPlan("UndirectedRelationshipTypeScan")
+        plan should not(includeSomewhere.aPlan("AllNodesScan"))
+      }, expectPlansToFail = Configs.Interpreted - plannedWithScans))
+
+    // then
+    result.toList should equal(List(Map("r" -> ab.getId), Map("r" -> ab.getId)))
+  }
+
+  test("should get no rows for a relationship type which doesn't exist") {
+    relate(createNode(), createNode(), "T")
+
+    val result = executeWith(Configs.Interpreted, "MATCH ()-[r:MISSING]->() RETURN r")
+
+    result.toList shouldBe empty
+  }
+}
@@ -291,6 +291,20 @@ object SlotAllocation {
         result.newLong(leaf.rightNode, nullable, CTNode)
         result
 
+      case leaf: DirectedRelationshipTypeScan =>
+        val result = argument
+        result.newLong(leaf.idName, nullable, CTRelationship)
+        result.newLong(leaf.startNode, nullable, CTNode)
+        result.newLong(leaf.endNode, nullable, CTNode)
+        result
+
+      case leaf: UndirectedRelationshipTypeScan =>
+        val result = argument
+        result.newLong(leaf.idName, nullable, CTRelationship)
+        result.newLong(leaf.leftNode, nullable, CTNode)
+        result.newLong(leaf.rightNode, nullable, CTNode)
+        result
+
       case leaf: NodeCountFromCountStore =>
         val result = argument
         result.newReference(leaf.idName, false, CTInteger)
@@ -82,6 +82,19 @@ class SlottedPipeBuilderTest extends CypherFunSuite with LogicalPlanningTestSupp
     )
   }
 
+  test("relationship type scans are built as interpreted pipes") {
+    // given
+    val relType = RelTypeName("T")(pos)
+
+    // when
+    val directed = build(DirectedRelationshipTypeScan(r, x, relType, z, Set.empty))
+    val undirected = build(UndirectedRelationshipTypeScan(r, x, relType, z, Set.empty))
+
+    // then
+    directed should equal(DirectedRelationshipTypeScanPipe(r, x, LazyTypes(Array(relType)), z)())
+    undirected should equal(UndirectedRelationshipTypeScanPipe(r, x, LazyTypes(Array(relType)), z)())
+  }
+
   test("single all nodes scan with limit") {
     // given
     val plan = plans.Limit(AllNodesScan(x, Set.empty), literalInt(1), DoNotIncludeTies)
@@ -84,6 +84,7 @@ public class PageCacheWarmer implements NeoStoreFileListing.StoreFileProvider
     private volatile boolean stopped;
     private ExecutorService executor;
     private PageLoaderFactory pageLoaderFactory;
+    private OptionalLong warmupPagesLoaded; // Guarded by `this`.
 
     PageCacheWarmer( FileSystemAbstraction fs, PageCache pageCache, JobScheduler scheduler, File databaseDirectory )
     {
@@ -92,6 +93,7 @@ public class PageCacheWarmer implements NeoStoreFileListing.StoreFileProvider
         this.scheduler = scheduler;
         this.databaseDirectory = databaseDirectory;
         this.refCounts = new ProfileRefCounts();
+        this.warmupPagesLoaded = OptionalLong.empty();
     }
 
     @Override
@@ -114,6 +116,7 @@ public class PageCacheWarmer implements NeoStoreFileListing.StoreFileProvider
     public synchronized void start()
     {
         stopped = false;
+        warmupPagesLoaded = OptionalLong.empty();
         executor = buildExecutorService( scheduler );
         pageLoaderFactory = new PageLoaderFactory( executor, pageCache );
     }
@@ -135,6 +138,26 @@ public class PageCacheWarmer implements NeoStoreFileListing.StoreFileProvider
         }
     }
 
+    /**
+     * Warm up the page cache after a start, by {@link #reheat() reheating} it unless that has already been done since
+     * the warmer was started.
+     * <p>
+     * This allows a database that has just been seeded with a copy of a store, including its profiles, to be warmed
+     * up before it is made available, without being warmed up a second time when it then becomes available.
+     *
+     * @return An {@link OptionalLong} of the number of pages loaded in by the reheat, or {@link OptionalLong#empty()}
+     * if the reheating was stopped early via {@link #stop()}.
+     * @throws IOException if anything goes wrong while reading the profiled data back in.
+     */
+    public synchronized OptionalLong warmUp() throws IOException
+    {
+        if ( !warmupPagesLoaded.isPresent() )
+        {
+            warmupPagesLoaded = reheat();
+        }
+        return warmupPagesLoaded;
+    }
+
     /**
      * Reheat the page cache based on existing profiling data, or do nothing if no profiling data is available.
      *
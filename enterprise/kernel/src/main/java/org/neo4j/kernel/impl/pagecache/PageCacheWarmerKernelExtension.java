@@ -29,6 +29,7 @@ import org.neo4j.kernel.NeoStoreDataSource;
 import org.neo4j.kernel.availability.DatabaseAvailabilityGuard;
 import org.neo4j.kernel.configuration.Config;
 import org.neo4j.kernel.impl.transaction.state.NeoStoreFileListing;
+import org.neo4j.kernel.impl.util.DependencySatisfier;
 import org.neo4j.kernel.lifecycle.LifecycleAdapter;
 import org.neo4j.logging.Log;
 import org.neo4j.scheduler.JobScheduler;
@@ -38,17 +39,20 @@ class PageCacheWarmerKernelExtension extends LifecycleAdapter
     private final DatabaseAvailabilityGuard databaseAvailabilityGuard;
     private final NeoStoreDataSource dataSource;
     private final Config config;
+    private final DependencySatisfier dependencySatisfier;
     private final PageCacheWarmer pageCacheWarmer;
     private final WarmupAvailabilityListener availabilityListener;
     private volatile boolean started;
 
     PageCacheWarmerKernelExtension(
             JobScheduler scheduler, DatabaseAvailabilityGuard databaseAvailabilityGuard, PageCache pageCache, FileSystemAbstraction fs,
-            NeoStoreDataSource dataSource, Log log, PageCacheWarmerMonitor monitor, Config config )
+            NeoStoreDataSource dataSource, Log log, PageCacheWarmerMonitor monitor, Config config,
+            DependencySatisfier dependencySatisfier )
     {
         this.databaseAvailabilityGuard = databaseAvailabilityGuard;
         this.dataSource = dataSource;
         this.config = config;
+        this.dependencySatisfier = dependencySatisfier;
         pageCacheWarmer = new PageCacheWarmer( fs, pageCache, scheduler, dataSource.getDatabaseLayout().databaseDirectory() );
         availabilityListener = new WarmupAvailabilityListener( scheduler, pageCacheWarmer, config, log, monitor );
     }
@@ -61,6 +65,8 @@ class PageCacheWarmerKernelExtension extends LifecycleAdapter
             pageCacheWarmer.start();
             databaseAvailabilityGuard.addListener( availabilityListener );
             getNeoStoreFileListing().registerStoreFileProvider( pageCacheWarmer );
+            // Allow the database to be warmed up before it is made available, e.g. after a store copy.
+            dependencySatisfier.satisfyDependency( pageCacheWarmer );
             started = true;
         }
     }
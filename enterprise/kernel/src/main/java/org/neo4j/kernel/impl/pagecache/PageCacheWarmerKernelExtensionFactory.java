@@ -78,6 +78,7 @@ public class PageCacheWarmerKernelExtensionFactory
         PageCacheWarmerMonitor monitor = deps.monitors().newMonitor( PageCacheWarmerMonitor.class );
         Config config = deps.config();
         return new PageCacheWarmerKernelExtension(
-                scheduler, databaseAvailabilityGuard, pageCache, fs, dataSourceManager, log, monitor, config );
+                scheduler, databaseAvailabilityGuard, pageCache, fs, dataSourceManager, log, monitor, config,
+                context.dependencySatisfier() );
     }
 }
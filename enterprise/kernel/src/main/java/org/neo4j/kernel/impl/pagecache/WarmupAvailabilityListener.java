@@ -73,7 +73,7 @@ class WarmupAvailabilityListener implements AvailabilityListener
         }
         try
         {
-            pageCacheWarmer.reheat().ifPresent( monitor::warmupCompleted );
+            pageCacheWarmer.warmUp().ifPresent( monitor::warmupCompleted );
         }
         catch ( Exception e )
         {
@@ -233,6 +233,43 @@ public class PageCacheWarmerTest
         }
     }
 
+    @Test
+    public void warmUpMustOnlyReheatOnceAfterStart() throws Exception
+    {
+        try ( PageCache pageCache = pageCacheRule.getPageCache( fs, cfg );
+              PagedFile pf = pageCache.map( file, pageCache.pageSize(), StandardOpenOption.CREATE ) )
+        {
+            try ( PageCursor writer = pf.io( 0, PagedFile.PF_SHARED_WRITE_LOCK ) )
+            {
+                assertTrue( writer.next( 1 ) );
+                assertTrue( writer.next( 3 ) );
+            }
+            pf.flushAndForce();
+            PageCacheWarmer warmer = new PageCacheWarmer( fs, pageCache, scheduler, testDirectory.databaseDir() );
+            warmer.start();
+            warmer.profile();
+        }
+
+        try ( PageCache pageCache = pageCacheRule.getPageCache( fs, cfg );
+              PagedFile pf = pageCache.map( file, pageCache.pageSize() ) )
+        {
+            PageCacheWarmer warmer = new PageCacheWarmer( fs, pageCache, scheduler, testDirectory.databaseDir() );
+            warmer.start();
+            assertThat( warmer.warmUp(), is( OptionalLong.of( 2 ) ) );
+
+            try ( PageCursor writer = pf.io( 0, PagedFile.PF_SHARED_WRITE_LOCK ) )
+            {
+                assertTrue( writer.next( 5 ) );
+            }
+            warmer.profile();
+            assertThat( warmer.warmUp(), is( OptionalLong.of( 2 ) ) );
+
+            warmer.stop();
+            warmer.start();
+            assertThat( warmer.warmUp(), is( OptionalLong.of( 3 ) ) );
+        }
+    }
+
     @Test
     public void reheatingMustWorkOnLargeNumberOfPages() throws Exception
     {
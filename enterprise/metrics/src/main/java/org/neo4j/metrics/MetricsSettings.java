@@ -80,6 +80,11 @@ public class MetricsSettings implements LoadableConfig
     public static final Setting<Boolean> neoCountsEnabled = buildSetting(
             "metrics.neo4j.counts.enabled", BOOLEAN ).inherits( neoEnabled ).build();
 
+    @Description( "Enable reporting metrics about the bloom filters of unique indexes; how many lookups they answer without seeking " +
+                  "the index and how often they fail to rule out values which aren't in the index." )
+    public static final Setting<Boolean> neoIndexEnabled = buildSetting(
+            "metrics.neo4j.index.enabled", BOOLEAN ).inherits( neoEnabled ).build();
+
     @Description( "Enable reporting metrics about the network usage." )
     public static final Setting<Boolean> neoNetworkEnabled = buildSetting(
             "metrics.neo4j.network.enabled", BOOLEAN ).inherits( neoEnabled ).build();
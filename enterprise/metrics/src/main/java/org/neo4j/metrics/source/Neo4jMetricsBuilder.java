@@ -53,6 +53,7 @@ import org.neo4j.metrics.source.db.BoltMetrics;
 import org.neo4j.metrics.source.db.CheckPointingMetrics;
 import org.neo4j.metrics.source.db.CypherMetrics;
 import org.neo4j.metrics.source.db.EntityCountMetrics;
+import org.neo4j.metrics.source.db.IndexMetrics;
 import org.neo4j.metrics.source.db.LogRotationMetrics;
 import org.neo4j.metrics.source.db.PageCacheMetrics;
 import org.neo4j.metrics.source.db.TransactionMetrics;
@@ -105,13 +106,13 @@ public class Neo4jMetricsBuilder
         if ( config.get( MetricsSettings.neoTxEnabled ) )
         {
             life.add( new TransactionMetrics( registry, databaseDependencySupplier( TransactionIdStore.class ),
-                    dependencies.transactionCounters() ) );
+                    dependencies.transactionCounters(), dependencies.monitors() ) );
             result = true;
         }
 
         if ( config.get( MetricsSettings.neoPageCacheEnabled ) )
         {
-            life.add( new PageCacheMetrics( registry, dependencies.pageCacheCounters() ) );
+            life.add( new PageCacheMetrics( registry, dependencies.pageCacheCounters(), kernelContext.directory() ) );
             result = true;
         }
 
@@ -139,6 +140,12 @@ public class Neo4jMetricsBuilder
             }
         }
 
+        if ( config.get( MetricsSettings.neoIndexEnabled ) )
+        {
+            life.add( new IndexMetrics( registry, dependencies.monitors() ) );
+            result = true;
+        }
+
         if ( config.get( MetricsSettings.neoNetworkEnabled ) )
         {
             life.add( new NetworkMetrics( registry, dependencies.monitors() ) );
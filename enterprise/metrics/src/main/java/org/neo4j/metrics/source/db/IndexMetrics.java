@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.metrics.source.db;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+
+import java.io.File;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.neo4j.kernel.api.index.IndexProvider;
+import org.neo4j.kernel.impl.annotations.Documented;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.kernel.monitoring.Monitors;
+import org.neo4j.storageengine.api.schema.IndexDescriptor;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+@Documented( ".Index Metrics" )
+public class IndexMetrics extends LifecycleAdapter
+{
+    private static final String NAME_PREFIX = "neo4j.index.bloom_filter";
+
+    @Documented( "The total number of lookups in unique indexes which were answered by their bloom filter without seeking the index" )
+    public static final String BLOOM_FILTER_NEGATIVES = name( NAME_PREFIX, "negatives" );
+
+    @Documented( "The total number of lookups in unique indexes where the bloom filter failed to rule out a value which wasn't in the index" )
+    public static final String BLOOM_FILTER_FALSE_POSITIVES = name( NAME_PREFIX, "false_positives" );
+
+    @Documented( "The ratio of lookups in unique indexes of values which weren't in the index that the bloom filter failed to rule out" )
+    public static final String BLOOM_FILTER_FALSE_POSITIVE_RATIO = name( NAME_PREFIX, "false_positive_ratio" );
+
+    private final MetricRegistry registry;
+    private final Monitors monitors;
+    private final BloomFilterMonitor bloomFilterMonitor = new BloomFilterMonitor();
+
+    public IndexMetrics( MetricRegistry registry, Monitors monitors )
+    {
+        this.registry = registry;
+        this.monitors = monitors;
+    }
+
+    @Override
+    public void start()
+    {
+        monitors.addMonitorListener( bloomFilterMonitor );
+        registry.register( BLOOM_FILTER_NEGATIVES, (Gauge<Long>) bloomFilterMonitor.negatives::sum );
+        registry.register( BLOOM_FILTER_FALSE_POSITIVES, (Gauge<Long>) bloomFilterMonitor.falsePositives::sum );
+        registry.register( BLOOM_FILTER_FALSE_POSITIVE_RATIO, (Gauge<Double>) bloomFilterMonitor::falsePositiveRatio );
+    }
+
+    @Override
+    public void stop()
+    {
+        registry.remove( BLOOM_FILTER_NEGATIVES );
+        registry.remove( BLOOM_FILTER_FALSE_POSITIVES );
+        registry.remove( BLOOM_FILTER_FALSE_POSITIVE_RATIO );
+        monitors.removeMonitorListener( bloomFilterMonitor );
+    }
+
+    private static class BloomFilterMonitor extends IndexProvider.Monitor.Adaptor
+    {
+        private final LongAdder negatives = new LongAdder();
+        private final LongAdder falsePositives = new LongAdder();
+
+        @Override
+        public void bloomFilterLookups( File indexFile, IndexDescriptor indexDescriptor, long negatives, long falsePositives, long truePositives )
+        {
+            this.negatives.add( negatives );
+            this.falsePositives.add( falsePositives );
+        }
+
+        double falsePositiveRatio()
+        {
+            long falsePositives = this.falsePositives.sum();
+            long trueNegatives = this.negatives.sum();
+            return falsePositives + trueNegatives == 0 ? 0 : (double) falsePositives / (falsePositives + trueNegatives);
+        }
+    }
+}
@@ -25,7 +25,15 @@ package org.neo4j.metrics.source.db;
 import com.codahale.metrics.Gauge;
 import com.codahale.metrics.MetricRegistry;
 
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToLongFunction;
+
 import org.neo4j.io.pagecache.monitoring.PageCacheCounters;
+import org.neo4j.io.pagecache.monitoring.PagedFileCounters;
+import org.neo4j.io.pagecache.monitoring.PagedFileCountersListener;
 import org.neo4j.kernel.impl.annotations.Documented;
 import org.neo4j.kernel.lifecycle.LifecycleAdapter;
 
@@ -54,14 +62,33 @@ public class PageCacheMetrics extends LifecycleAdapter
     public static final String PC_HIT_RATIO = name( PAGE_CACHE_PREFIX, "hit_ratio" );
     @Documented( "The ratio of number of used pages to total number of available pages" )
     public static final String PC_USAGE_RATIO = name( PAGE_CACHE_PREFIX, "usage_ratio" );
+    @Documented( "The total number of page faults of pages that had recently been evicted from the page cache. " +
+                 "Only tracked by the scan resistant eviction policy" )
+    public static final String PC_REFAULTS = name( PAGE_CACHE_PREFIX, "refaults" );
+    @Documented( "The number of dirty pages in the page cache, as last counted by the background flusher" )
+    public static final String PC_DIRTY_PAGES = name( PAGE_CACHE_PREFIX, "dirty_pages" );
+    @Documented( "The total number of pages flushed by the background flusher. " +
+                 "The rate of this metric is the rate at which the background flusher writes out dirty pages" )
+    public static final String PC_BACKGROUND_FLUSHES = name( PAGE_CACHE_PREFIX, "background_flushes" );
+    @Documented( "The number of files currently mapped by the page cache. Every mapped file also has its own " +
+                 "hits, faults, evictions, bytes_read, bytes_written and resident_pages metrics, " +
+                 "named neo4j.page_cache.file.<file path>.<metric>, where the file path is relative to the store directory" )
+    public static final String PC_MAPPED_FILES = name( PAGE_CACHE_PREFIX, "mapped_files" );
+
+    private static final String PC_FILE_PREFIX = name( PAGE_CACHE_PREFIX, "file" );
 
     private final MetricRegistry registry;
     private final PageCacheCounters pageCacheCounters;
+    private final Path storeDir;
+    private final FileCountersListener fileCountersListener = new FileCountersListener();
+    // The counters of the currently mapped files, by the path of the file relative to the store directory.
+    private final Map<String,PagedFileCounters> mappedFiles = new ConcurrentHashMap<>();
 
-    public PageCacheMetrics( MetricRegistry registry, PageCacheCounters pageCacheCounters )
+    public PageCacheMetrics( MetricRegistry registry, PageCacheCounters pageCacheCounters, File storeDir )
     {
         this.registry = registry;
         this.pageCacheCounters = pageCacheCounters;
+        this.storeDir = storeDir.getAbsoluteFile().toPath().normalize();
     }
 
     @Override
@@ -76,11 +103,23 @@ public class PageCacheMetrics extends LifecycleAdapter
         registry.register( PC_EVICTION_EXCEPTIONS, (Gauge<Long>) pageCacheCounters::evictionExceptions );
         registry.register( PC_HIT_RATIO, (Gauge<Double>) pageCacheCounters::hitRatio );
         registry.register( PC_USAGE_RATIO, (Gauge<Double>) pageCacheCounters::usageRatio );
+        registry.register( PC_REFAULTS, (Gauge<Long>) pageCacheCounters::refaults );
+        registry.register( PC_DIRTY_PAGES, (Gauge<Long>) pageCacheCounters::dirtyPages );
+        registry.register( PC_BACKGROUND_FLUSHES, (Gauge<Long>) pageCacheCounters::backgroundFlushes );
+        registry.register( PC_MAPPED_FILES, (Gauge<Integer>) mappedFiles::size );
+        // The listener is added before the files that are already mapped are registered, so that no mapping is missed.
+        // Registering the same counters twice is harmless.
+        pageCacheCounters.addFileCountersListener( fileCountersListener );
+        for ( PagedFileCounters counters : pageCacheCounters.fileCounters() )
+        {
+            fileCountersListener.fileCountersRegistered( counters );
+        }
     }
 
     @Override
     public void stop()
     {
+        pageCacheCounters.removeFileCountersListener( fileCountersListener );
         registry.remove( PC_PAGE_FAULTS );
         registry.remove( PC_EVICTIONS );
         registry.remove( PC_PINS );
@@ -90,5 +129,90 @@ public class PageCacheMetrics extends LifecycleAdapter
         registry.remove( PC_EVICTION_EXCEPTIONS );
         registry.remove( PC_HIT_RATIO );
         registry.remove( PC_USAGE_RATIO );
+        registry.remove( PC_REFAULTS );
+        registry.remove( PC_DIRTY_PAGES );
+        registry.remove( PC_BACKGROUND_FLUSHES );
+        registry.remove( PC_MAPPED_FILES );
+        fileCountersListener.removeAll();
+    }
+
+    /**
+     * Files are named by their path relative to the store directory, so that files with the same name in different
+     * directories, like the files of different indexes, get metrics of their own.
+     */
+    private String filePath( File file )
+    {
+        Path path = file.getAbsoluteFile().toPath().normalize();
+        if ( path.startsWith( storeDir ) )
+        {
+            path = storeDir.relativize( path );
+        }
+        return path.toString().replace( File.separatorChar, '/' );
+    }
+
+    private class FileCountersListener implements PagedFileCountersListener
+    {
+        @Override
+        public synchronized void fileCountersRegistered( PagedFileCounters counters )
+        {
+            String filePath = filePath( counters.file() );
+            if ( mappedFiles.put( filePath, counters ) == null )
+            {
+                for ( FileMetric metric : FileMetric.values() )
+                {
+                    registry.register( name( PC_FILE_PREFIX, filePath, metric.name ), (Gauge<Long>) () ->
+                    {
+                        PagedFileCounters fileCounters = mappedFiles.get( filePath );
+                        return fileCounters == null ? 0L : metric.counter.applyAsLong( fileCounters );
+                    } );
+                }
+            }
+        }
+
+        @Override
+        public synchronized void fileCountersUnregistered( PagedFileCounters counters )
+        {
+            String filePath = filePath( counters.file() );
+            if ( mappedFiles.remove( filePath, counters ) )
+            {
+                removeFileMetrics( filePath );
+            }
+        }
+
+        synchronized void removeAll()
+        {
+            for ( String filePath : mappedFiles.keySet() )
+            {
+                removeFileMetrics( filePath );
+            }
+            mappedFiles.clear();
+        }
+
+        private void removeFileMetrics( String filePath )
+        {
+            for ( FileMetric metric : FileMetric.values() )
+            {
+                registry.remove( name( PC_FILE_PREFIX, filePath, metric.name ) );
+            }
+        }
+    }
+
+    private enum FileMetric
+    {
+        HITS( "hits", PagedFileCounters::hits ),
+        FAULTS( "faults", PagedFileCounters::faults ),
+        EVICTIONS( "evictions", PagedFileCounters::evictions ),
+        BYTES_READ( "bytes_read", PagedFileCounters::bytesRead ),
+        BYTES_WRITTEN( "bytes_written", PagedFileCounters::bytesWritten ),
+        RESIDENT_PAGES( "resident_pages", PagedFileCounters::residentPages );
+
+        private final String name;
+        private final ToLongFunction<PagedFileCounters> counter;
+
+        FileMetric( String name, ToLongFunction<PagedFileCounters> counter )
+        {
+            this.name = name;
+            this.counter = counter;
+        }
     }
 }
@@ -22,15 +22,23 @@
  */
 package org.neo4j.metrics.source.db;
 
+import com.codahale.metrics.ExponentiallyDecayingReservoir;
 import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
 import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
 
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Supplier;
 
 import org.neo4j.kernel.impl.annotations.Documented;
+import org.neo4j.kernel.impl.api.DefaultTransactionTracer;
 import org.neo4j.kernel.impl.transaction.log.TransactionIdStore;
 import org.neo4j.kernel.impl.transaction.stats.TransactionCounters;
+import org.neo4j.kernel.impl.util.collection.SpillingMemoryAllocator;
 import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.kernel.monitoring.Monitors;
 
 import static com.codahale.metrics.MetricRegistry.name;
 
@@ -77,16 +85,28 @@ public class TransactionMetrics extends LifecycleAdapter
     @Documented( "The ID of the last closed transaction" )
     public static final String LAST_CLOSED_TX_ID = name( TRANSACTION_PREFIX, "last_closed_tx_id" );
 
+    @Documented( "The total number of bytes of transaction state spilled to temporary files by transactions exceeding their off-heap memory budget" )
+    public static final String TX_STATE_SPILLED_BYTES = name( TRANSACTION_PREFIX, "tx_state_spilled_bytes" );
+
+    @Documented( "The number of transactions appended to the transaction log and forced together by the combining log appender" )
+    public static final String TX_LOG_APPEND_BATCH_SIZE = name( TRANSACTION_PREFIX, "log_append_batch_size" );
+    @Documented( "The time from the first transaction of a batch being queued to the batch being forced by the combining log appender" )
+    public static final String TX_LOG_APPEND_BATCH_LATENCY = name( TRANSACTION_PREFIX, "log_append_batch_latency" );
+
     private final MetricRegistry registry;
     private final TransactionCounters transactionCounters;
     private final Supplier<TransactionIdStore> transactionIdStore;
+    private final Monitors monitors;
+    private final SpillMonitor spillMonitor = new SpillMonitor();
+    private final CombinedLogAppendMonitor combinedLogAppendMonitor = new CombinedLogAppendMonitor();
 
     public TransactionMetrics( MetricRegistry registry,
-            Supplier<TransactionIdStore> transactionIdStore, TransactionCounters transactionCounters )
+            Supplier<TransactionIdStore> transactionIdStore, TransactionCounters transactionCounters, Monitors monitors )
     {
         this.registry = registry;
         this.transactionIdStore = transactionIdStore;
         this.transactionCounters = transactionCounters;
+        this.monitors = monitors;
     }
 
     @Override
@@ -121,6 +141,13 @@ public class TransactionMetrics extends LifecycleAdapter
                 transactionIdStore.get().getLastCommittedTransactionId() );
         registry.register( LAST_CLOSED_TX_ID, (Gauge<Long>) () ->
                 transactionIdStore.get().getLastClosedTransactionId() );
+
+        monitors.addMonitorListener( spillMonitor );
+        registry.register( TX_STATE_SPILLED_BYTES, (Gauge<Long>) spillMonitor.spilledBytes::sum );
+
+        monitors.addMonitorListener( combinedLogAppendMonitor );
+        registry.register( TX_LOG_APPEND_BATCH_SIZE, combinedLogAppendMonitor.batchSizes );
+        registry.register( TX_LOG_APPEND_BATCH_LATENCY, combinedLogAppendMonitor.batchLatencies );
     }
 
     @Override
@@ -147,5 +174,42 @@ public class TransactionMetrics extends LifecycleAdapter
 
         registry.remove( LAST_COMMITTED_TX_ID );
         registry.remove( LAST_CLOSED_TX_ID );
+
+        registry.remove( TX_STATE_SPILLED_BYTES );
+        monitors.removeMonitorListener( spillMonitor );
+
+        registry.remove( TX_LOG_APPEND_BATCH_SIZE );
+        registry.remove( TX_LOG_APPEND_BATCH_LATENCY );
+        monitors.removeMonitorListener( combinedLogAppendMonitor );
+    }
+
+    private static class SpillMonitor implements SpillingMemoryAllocator.Monitor
+    {
+        private final LongAdder spilledBytes = new LongAdder();
+
+        @Override
+        public void spilled( long bytes )
+        {
+            spilledBytes.add( bytes );
+        }
+    }
+
+    private static class CombinedLogAppendMonitor implements DefaultTransactionTracer.Monitor
+    {
+        private final Histogram batchSizes = new Histogram( new ExponentiallyDecayingReservoir() );
+        private final Timer batchLatencies = new Timer();
+
+        @Override
+        public void lastLogRotationEventDuration( long millis )
+        {
+            // noop
+        }
+
+        @Override
+        public void combinedLogAppend( int transactions, long latencyNanos )
+        {
+            batchSizes.update( transactions );
+            batchLatencies.update( latencyNanos, TimeUnit.NANOSECONDS );
+        }
     }
 }
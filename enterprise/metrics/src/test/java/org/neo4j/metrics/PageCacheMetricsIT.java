@@ -49,11 +49,14 @@ import static org.junit.Assert.assertEquals;
 import static org.neo4j.metrics.MetricsTestHelper.metricsCsv;
 import static org.neo4j.metrics.MetricsTestHelper.readDoubleValue;
 import static org.neo4j.metrics.MetricsTestHelper.readLongValue;
+import static org.neo4j.metrics.source.db.PageCacheMetrics.PC_BACKGROUND_FLUSHES;
+import static org.neo4j.metrics.source.db.PageCacheMetrics.PC_DIRTY_PAGES;
 import static org.neo4j.metrics.source.db.PageCacheMetrics.PC_EVICTIONS;
 import static org.neo4j.metrics.source.db.PageCacheMetrics.PC_EVICTION_EXCEPTIONS;
 import static org.neo4j.metrics.source.db.PageCacheMetrics.PC_FLUSHES;
 import static org.neo4j.metrics.source.db.PageCacheMetrics.PC_HITS;
 import static org.neo4j.metrics.source.db.PageCacheMetrics.PC_HIT_RATIO;
+import static org.neo4j.metrics.source.db.PageCacheMetrics.PC_MAPPED_FILES;
 import static org.neo4j.metrics.source.db.PageCacheMetrics.PC_PAGE_FAULTS;
 import static org.neo4j.metrics.source.db.PageCacheMetrics.PC_PINS;
 import static org.neo4j.metrics.source.db.PageCacheMetrics.PC_UNPINS;
@@ -111,6 +114,13 @@ public class PageCacheMetricsIT
         assertMetrics( "Metrics report should include page cache hits", PC_HITS, greaterThan( 0L ) );
         assertMetrics( "Metrics report should include page cache flushes", PC_FLUSHES, greaterThanOrEqualTo( 0L ) );
         assertMetrics( "Metrics report should include page cache exceptions", PC_EVICTION_EXCEPTIONS, equalTo( 0L ) );
+        assertMetrics( "Metrics report should include page cache dirty pages", PC_DIRTY_PAGES,
+                greaterThanOrEqualTo( 0L ) );
+        assertMetrics( "Metrics report should include page cache background flushes", PC_BACKGROUND_FLUSHES,
+                greaterThanOrEqualTo( 0L ) );
+        assertMetrics( "Metrics report should include page cache mapped files", PC_MAPPED_FILES, greaterThan( 0L ) );
+        assertMetrics( "Metrics report should include page cache faults of the node store",
+                "neo4j.page_cache.file.neostore.nodestore.db.faults", greaterThan( 0L ) );
 
         assertEventually(
                 "Metrics report should include page cache hit ratio",
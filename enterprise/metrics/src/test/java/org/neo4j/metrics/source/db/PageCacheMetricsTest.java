@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.metrics.source.db;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import org.junit.Test;
+
+import java.io.File;
+
+import org.neo4j.io.pagecache.monitoring.PagedFileCounters;
+import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
+import org.neo4j.kernel.lifecycle.LifeSupport;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.neo4j.metrics.source.db.PageCacheMetrics.PC_MAPPED_FILES;
+
+public class PageCacheMetricsTest
+{
+    private final MetricRegistry registry = new MetricRegistry();
+    private final DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+    private final File storeDir = new File( "databases" ).getAbsoluteFile();
+    private final LifeSupport life = new LifeSupport();
+
+    @Test
+    public void mustRegisterFileMetricsWhenFilesAreMappedAndRemoveThemWhenUnmapped()
+    {
+        PagedFileCounters nodeStore = fileCounters( new File( new File( storeDir, "graph.db" ), "neostore.nodestore.db" ), 7 );
+        tracer.registerFileCounters( nodeStore );
+        life.add( new PageCacheMetrics( registry, tracer, storeDir ) );
+        life.start();
+
+        assertEquals( 7L, fileGauge( "graph.db/neostore.nodestore.db", "hits" ).getValue() );
+        assertEquals( 1, registry.getGauges().get( PC_MAPPED_FILES ).getValue() );
+
+        PagedFileCounters relStore = fileCounters( new File( new File( storeDir, "graph.db" ), "neostore.relationshipstore.db" ), 3 );
+        tracer.registerFileCounters( relStore );
+        assertEquals( 3L, fileGauge( "graph.db/neostore.relationshipstore.db", "hits" ).getValue() );
+        assertEquals( 2, registry.getGauges().get( PC_MAPPED_FILES ).getValue() );
+
+        tracer.unregisterFileCounters( relStore );
+        assertFalse( registry.getGauges().containsKey( fileMetricName( "graph.db/neostore.relationshipstore.db", "hits" ) ) );
+        assertEquals( 1, registry.getGauges().get( PC_MAPPED_FILES ).getValue() );
+
+        life.shutdown();
+        assertTrue( registry.getGauges().isEmpty() );
+    }
+
+    @Test
+    public void filesWithTheSameNameInDifferentDirectoriesMustGetMetricsOfTheirOwn()
+    {
+        life.add( new PageCacheMetrics( registry, tracer, storeDir ) );
+        life.start();
+
+        File indexDir = new File( new File( storeDir, "graph.db" ), "schema" );
+        tracer.registerFileCounters( fileCounters( new File( new File( indexDir, "1" ), "index-1" ), 1 ) );
+        tracer.registerFileCounters( fileCounters( new File( new File( indexDir, "2" ), "index-1" ), 2 ) );
+
+        assertEquals( 1L, fileGauge( "graph.db/schema/1/index-1", "hits" ).getValue() );
+        assertEquals( 2L, fileGauge( "graph.db/schema/2/index-1", "hits" ).getValue() );
+        assertEquals( 2, registry.getGauges().get( PC_MAPPED_FILES ).getValue() );
+    }
+
+    @Test
+    public void remappedFileMustReportTheCountersOfItsLatestMapping()
+    {
+        life.add( new PageCacheMetrics( registry, tracer, storeDir ) );
+        life.start();
+
+        File file = new File( storeDir, "neostore" );
+        PagedFileCounters first = fileCounters( file, 5 );
+        PagedFileCounters second = fileCounters( file, 11 );
+        tracer.registerFileCounters( first );
+        tracer.unregisterFileCounters( first );
+        tracer.registerFileCounters( second );
+
+        assertEquals( 11L, fileGauge( "neostore", "hits" ).getValue() );
+    }
+
+    @Test
+    public void mustNotRegisterDirtyPagesOfFilesSinceTheyAreCountedByGoingThroughTheWholeFile()
+    {
+        PagedFileCounters nodeStore = fileCounters( new File( new File( storeDir, "graph.db" ), "neostore.nodestore.db" ), 7 );
+        tracer.registerFileCounters( nodeStore );
+        life.add( new PageCacheMetrics( registry, tracer, storeDir ) );
+        life.start();
+
+        registry.getGauges().values().forEach( Gauge::getValue );
+
+        assertFalse( registry.getGauges().containsKey( fileMetricName( "graph.db/neostore.nodestore.db", "dirty_pages" ) ) );
+        verify( nodeStore, never() ).dirtyPages();
+    }
+
+    private Gauge<?> fileGauge( String filePath, String metric )
+    {
+        Gauge<?> gauge = registry.getGauges().get( fileMetricName( filePath, metric ) );
+        assertTrue( "No gauge for " + filePath + " " + metric, gauge != null );
+        return gauge;
+    }
+
+    private static String fileMetricName( String filePath, String metric )
+    {
+        return MetricRegistry.name( "neo4j.page_cache.file", filePath, metric );
+    }
+
+    private static PagedFileCounters fileCounters( File file, long hits )
+    {
+        PagedFileCounters counters = mock( PagedFileCounters.class );
+        when( counters.file() ).thenReturn( file );
+        when( counters.hits() ).thenReturn( hits );
+        return counters;
+    }
+}